@@ -0,0 +1,60 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the kernel microbenchmarks, which accepts all JMH command line
+ * options (e.g., benchmark regex, -p sparsity=0.1, -t, -f, -wi, -i) but writes 
+ * JSON results by default in order to allow for automated regression checks
+ * across builds, e.g.,
+ * 
+ * java -jar target/benchmarks.jar MatrixMult -rff mm-results.json
+ */
+public class BenchmarkRunner 
+{
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+	
+	/**
+	 * 
+	 * @param args
+	 * @throws RunnerException
+	 * @throws CommandLineOptionException 
+	 */
+	public static void main(String[] args) 
+		throws RunnerException, CommandLineOptionException 
+	{
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+		
+		//default json result output (unless specified otherwise)
+		if( !cmdOptions.getResultFormat().hasValue() )
+			options.resultFormat(ResultFormatType.JSON);
+		if( !cmdOptions.getResult().hasValue() )
+			options.result(DEFAULT_RESULT_FILE);
+		
+		new Runner(options.build()).run();
+	}
+}
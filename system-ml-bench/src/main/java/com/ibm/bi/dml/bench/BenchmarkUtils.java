@@ -0,0 +1,56 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Common utilities for the kernel microbenchmarks.
+ */
+public class BenchmarkUtils 
+{
+	//fixed seeds for reproducible inputs across builds
+	public static final long SEED1 = 7;
+	public static final long SEED2 = 3;
+	
+	private BenchmarkUtils() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Creates a random matrix block of the given shape and sparsity with 
+	 * uniformly distributed values in [0,1]. The block is either in dense 
+	 * or sparse representation according to its actual number of non-zeros.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createMatrix(int rows, int cols, double sparsity, long seed) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = MatrixBlock.randOperations(rows, cols, sparsity, 0, 1, "uniform", seed);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+}
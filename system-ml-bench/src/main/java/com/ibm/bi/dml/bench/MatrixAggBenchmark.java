@@ -0,0 +1,142 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bi.dml.parser.DMLTranslator;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+
+/**
+ * Microbenchmarks of the unary aggregate kernels in LibMatrixAgg (sum, rowSums,
+ * colMeans, cumsum), invoked through the matrix block operations as used
+ * by the CP instructions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixAggBenchmark 
+{
+	@Param({"1000", "100000"})
+	public int rows;
+	
+	@Param({"10", "1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X = null;
+	private AggregateUnaryOperator _sum = null;
+	private AggregateUnaryOperator _rowSums = null;
+	private AggregateUnaryOperator _colMeans = null;
+	private UnaryOperator _cumsum = null;
+	
+	@Setup(Level.Trial)
+	public void setup() 
+		throws DMLRuntimeException
+	{
+		_X = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED1);
+		_sum = createAggregateOperator("uak+");
+		_rowSums = createAggregateOperator("uark+");
+		_colMeans = createAggregateOperator("uacmean");
+		_cumsum = new UnaryOperator(Builtin.getBuiltinFnObject("ucumk+"));
+	}
+	
+	@Benchmark
+	public MatrixBlock sum() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return aggregate(_sum);
+	}
+	
+	@Benchmark
+	public MatrixBlock rowSums() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return aggregate(_rowSums);
+	}
+	
+	@Benchmark
+	public MatrixBlock colMeans() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return aggregate(_colMeans);
+	}
+	
+	@Benchmark
+	public MatrixBlock cumsum() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		//cumulative aggregates are single-threaded only
+		return (MatrixBlock) _X.unaryOperations(_cumsum, new MatrixBlock());
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @return
+	 */
+	private AggregateUnaryOperator createAggregateOperator(String opcode)
+	{
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+		op.setNumThreads(threads);
+		return op;
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private MatrixBlock aggregate(AggregateUnaryOperator op) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		int blen = DMLTranslator.DMLBlockSize;
+		return (MatrixBlock) _X.aggregateUnaryOperations(op, new MatrixBlock(), 
+				blen, blen, new MatrixIndexes(1, 1), true);
+	}
+}
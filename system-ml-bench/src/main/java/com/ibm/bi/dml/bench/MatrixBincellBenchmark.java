@@ -0,0 +1,119 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.functionobjects.Multiply;
+import com.ibm.bi.dml.runtime.functionobjects.Plus;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.RightScalarOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Microbenchmarks of the cell-wise binary kernels in LibMatrixBincell 
+ * (matrix-matrix, matrix-vector, and matrix-scalar), invoked through the 
+ * matrix block operations as used by the CP instructions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixBincellBenchmark 
+{
+	@Param({"1000", "100000"})
+	public int rows;
+	
+	@Param({"10", "1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X = null; //rows x cols
+	private MatrixBlock _Y = null; //rows x cols
+	private MatrixBlock _v = null; //rows x 1
+	private BinaryOperator _plus = null;
+	private BinaryOperator _mult = null;
+	private ScalarOperator _smult = null;
+	
+	@Setup(Level.Trial)
+	public void setup() 
+		throws DMLRuntimeException
+	{
+		_X = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED1);
+		_Y = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED2);
+		_v = BenchmarkUtils.createMatrix(rows, 1, 1.0, BenchmarkUtils.SEED2);
+		
+		_plus = new BinaryOperator(Plus.getPlusFnObject());
+		_plus.setNumThreads(threads);
+		_mult = new BinaryOperator(Multiply.getMultiplyFnObject());
+		_mult.setNumThreads(threads);
+		_smult = new RightScalarOperator(Multiply.getMultiplyFnObject(), 7);
+		_smult.setNumThreads(threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock plusMatrixMatrix() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return (MatrixBlock) _X.binaryOperations(_plus, _Y, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public MatrixBlock multMatrixMatrix() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return (MatrixBlock) _X.binaryOperations(_mult, _Y, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public MatrixBlock plusMatrixVector() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return (MatrixBlock) _X.binaryOperations(_plus, _v, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public MatrixBlock multMatrixScalar() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return (MatrixBlock) _X.scalarOperations(_smult, new MatrixBlock());
+	}
+}
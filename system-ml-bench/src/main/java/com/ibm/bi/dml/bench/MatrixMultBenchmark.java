@@ -0,0 +1,164 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bi.dml.lops.MapMultChain.ChainType;
+import com.ibm.bi.dml.lops.WeightedSigmoid.WSigmoidType;
+import com.ibm.bi.dml.lops.WeightedSquaredLoss.WeightsType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixMult;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Microbenchmarks of the matrix multiplication kernels in LibMatrixMult
+ * (matrix-matrix, matrix-vector, mmchain, tsmm, wsloss, wsigmoid). The 
+ * sparsity parameter covers dense, sparse, and ultra-sparse left-hand-side
+ * inputs, while the right-hand-side of matrix-matrix multiplications uses
+ * the separate rhsSparsity parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixMultBenchmark 
+{
+	@Param({"1000", "10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001", "0.000001"})
+	public double sparsity;
+	
+	@Param({"1.0", "0.01"})
+	public double rhsSparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	@Param({"10"})
+	public int rank;
+	
+	private MatrixBlock _X = null; //rows x cols
+	private MatrixBlock _Y = null; //cols x cols
+	private MatrixBlock _v = null; //cols x 1
+	private MatrixBlock _U = null; //rows x rank
+	private MatrixBlock _V = null; //cols x rank
+	
+	@Setup(Level.Trial)
+	public void setup() 
+		throws DMLRuntimeException
+	{
+		_X = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED1);
+		_Y = BenchmarkUtils.createMatrix(cols, cols, rhsSparsity, BenchmarkUtils.SEED2);
+		_v = BenchmarkUtils.createMatrix(cols, 1, 1.0, BenchmarkUtils.SEED2);
+		_U = BenchmarkUtils.createMatrix(rows, rank, 1.0, BenchmarkUtils.SEED1);
+		_V = BenchmarkUtils.createMatrix(cols, rank, 1.0, BenchmarkUtils.SEED2);
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrix() 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		if( threads > 1 )
+			LibMatrixMult.matrixMult(_X, _Y, ret, threads);
+		else
+			LibMatrixMult.matrixMult(_X, _Y, ret);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixVector() 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = new MatrixBlock(rows, 1, false);
+		if( threads > 1 )
+			LibMatrixMult.matrixMult(_X, _v, ret, threads);
+		else
+			LibMatrixMult.matrixMult(_X, _v, ret);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock mmchain() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		MatrixBlock ret = new MatrixBlock(cols, 1, false);
+		if( threads > 1 )
+			LibMatrixMult.matrixMultChain(_X, _v, null, ret, ChainType.XtXv, threads);
+		else
+			LibMatrixMult.matrixMultChain(_X, _v, null, ret, ChainType.XtXv);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock tsmm() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		MatrixBlock ret = new MatrixBlock(cols, cols, false);
+		if( threads > 1 )
+			LibMatrixMult.matrixMultTransposeSelf(_X, ret, true, threads);
+		else
+			LibMatrixMult.matrixMultTransposeSelf(_X, ret, true);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock wsloss() 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = new MatrixBlock(1, 1, false);
+		if( threads > 1 )
+			LibMatrixMult.matrixMultWSLoss(_X, _U, _V, null, ret, WeightsType.NONE, threads);
+		else
+			LibMatrixMult.matrixMultWSLoss(_X, _U, _V, null, ret, WeightsType.NONE);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock wsigmoid() 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = new MatrixBlock(rows, cols, _X.isInSparseFormat());
+		if( threads > 1 )
+			LibMatrixMult.matrixMultWSigmoid(_X, _U, _V, ret, WSigmoidType.BASIC, threads);
+		else
+			LibMatrixMult.matrixMultWSigmoid(_X, _U, _V, ret, WSigmoidType.BASIC);
+		return ret;
+	}
+}
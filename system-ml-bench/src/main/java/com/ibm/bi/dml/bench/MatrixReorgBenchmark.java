@@ -0,0 +1,97 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.functionobjects.SortIndex;
+import com.ibm.bi.dml.runtime.functionobjects.SwapIndex;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.ReorgOperator;
+
+/**
+ * Microbenchmarks of the reorganization kernels in LibMatrixReorg (transpose,
+ * sort, and removeEmpty), invoked through the matrix block operations as used
+ * by the CP instructions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixReorgBenchmark 
+{
+	@Param({"1000", "100000"})
+	public int rows;
+	
+	@Param({"10", "1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	private MatrixBlock _X = null;
+	private ReorgOperator _transpose = null;
+	private ReorgOperator _sort = null;
+	
+	@Setup(Level.Trial)
+	public void setup() 
+		throws DMLRuntimeException
+	{
+		_X = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED1);
+		_transpose = new ReorgOperator(SwapIndex.getSwapIndexFnObject());
+		_sort = new ReorgOperator(SortIndex.getSortIndexFnObject(1, false, false));
+	}
+	
+	@Benchmark
+	public MatrixBlock transpose() 
+		throws DMLRuntimeException
+	{
+		return (MatrixBlock) _X.reorgOperations(_transpose, new MatrixBlock(), 0, 0, 0);
+	}
+	
+	@Benchmark
+	public MatrixBlock sort() 
+		throws DMLRuntimeException
+	{
+		return (MatrixBlock) _X.reorgOperations(_sort, new MatrixBlock(), 0, 0, 0);
+	}
+	
+	@Benchmark
+	public MatrixBlock removeEmptyRows() 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return _X.removeEmptyOperations(new MatrixBlock(), true);
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+
+/**
+ * Microbenchmarks of matrix block serialization and deserialization (as used
+ * for buffer pool eviction and binary block I/O) over in-memory streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixSerializationBenchmark 
+{
+	@Param({"1000", "10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	private MatrixBlock _X = null;
+	private byte[] _serialized = null;
+	
+	@Setup(Level.Trial)
+	public void setup() 
+		throws DMLRuntimeException, IOException
+	{
+		_X = BenchmarkUtils.createMatrix(rows, cols, sparsity, BenchmarkUtils.SEED1);
+		_serialized = serialize(_X);
+	}
+	
+	@Benchmark
+	public byte[] write() 
+		throws IOException
+	{
+		return serialize(_X);
+	}
+	
+	@Benchmark
+	public MatrixBlock read() 
+		throws IOException
+	{
+		MatrixBlock ret = new MatrixBlock();
+		FastBufferedDataInputStream in = new FastBufferedDataInputStream(
+				new ByteArrayInputStream(_serialized));
+		ret.readFields(in);
+		in.close();
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @return
+	 * @throws IOException
+	 */
+	private static byte[] serialize(MatrixBlock mb) 
+		throws IOException
+	{
+		ByteArrayOutputStream bos = new ByteArrayOutputStream((int)mb.getExactSizeOnDisk());
+		FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(bos);
+		mb.write(out);
+		out.close();
+		return bos.toByteArray();
+	}
+}
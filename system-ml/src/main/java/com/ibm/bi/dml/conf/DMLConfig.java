@@ -66,6 +66,11 @@ public class DMLConfig
 	public static final String YARN_APPQUEUE    	= "dml.yarn.app.queue"; 
 	public static final String CP_PARALLEL_MATRIXMULT = "cp.parallel.matrixmult";
 	public static final String CP_PARALLEL_TEXTIO   = "cp.parallel.textio";
+	public static final String COMPRESSED_LINALG    = "compressed.linalg";
+	public static final String CP_BUFFERPOOL_SIZE   = "cp.bufferpool.size";
+	public static final String CP_BUFFERPOOL_POLICY = "cp.bufferpool.policy";
+	public static final String CP_CACHE_COMPRESSION = "cp.cache.compression";
+	public static final String CP_CACHE_OFFHEAP     = "cp.cache.offheap";
 
 	//obsolete nimble configuration (removed 06/24/2015)
 	//public static final String NUM_MERGE_TASKS      = "NumMergeTasks";
@@ -106,6 +111,11 @@ public class DMLConfig
 		//_defaultVals.put(NIMBLE_SCRATCH,       "nimbleoutput" );	
 		_defaultVals.put(CP_PARALLEL_MATRIXMULT, "true" );
 		_defaultVals.put(CP_PARALLEL_TEXTIO,     "true" );
+		_defaultVals.put(COMPRESSED_LINALG,      "false" );
+		_defaultVals.put(CP_BUFFERPOOL_SIZE,     "0.7" );
+		_defaultVals.put(CP_BUFFERPOOL_POLICY,   "lru" );
+		_defaultVals.put(CP_CACHE_COMPRESSION,   "0" );
+		_defaultVals.put(CP_CACHE_OFFHEAP,       "0" );
 	}
 	
 	public DMLConfig()
@@ -405,7 +415,8 @@ public class DMLConfig
 				YARN_APPMASTER, YARN_APPMASTERMEM, YARN_MAPREDUCEMEM,
 				//NUM_MERGE_TASKS, NUM_SOW_THREADS,NUM_REAP_THREADS,
 				//SOWER_WAIT_INTERVAL,REAPER_WAIT_INTERVAL,NIMBLE_SCRATCH 
-				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO
+				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO, COMPRESSED_LINALG,
+				CP_BUFFERPOOL_SIZE, CP_BUFFERPOOL_POLICY, CP_CACHE_COMPRESSION, CP_CACHE_OFFHEAP
 		}; 
 		
 		StringBuilder sb = new StringBuilder();
@@ -364,6 +364,15 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//per-segment mm, mmchain, and tsmm (left/right) with small outputs, 
+		//but no permutation matrix mult (pmm) over large dense inputs
+		return isMatrixMultiply() && !_hasLeftPMInput && dimsKnown()
+			&& _dim1 * _dim2 <= OptimizerUtils.MAX_NUMCELLS_CP_DENSE;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 	{	
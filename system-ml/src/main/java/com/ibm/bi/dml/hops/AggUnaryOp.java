@@ -112,6 +112,10 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 				if( isTernaryAggregateRewriteApplicable() ) {
 					agg1 = constructLopsTernaryAggregateRewrite(et);
 				}
+				else if( CellwiseFusion.isFusionApplicable(this) ) {
+					int k = getConstrainedNumThreads();
+					agg1 = CellwiseFusion.constructFusedLop(this, et, k);
+				}
 				else { //general case
 					int k = getConstrainedNumThreads();
 					agg1 = new PartialAggregate(input.constructLops(), 
@@ -281,6 +285,16 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 	{
 		return true;
 	}
+	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//per-segment sum/min/max and their row/column variants
+		//(excluding fused ternary or outer aggregates over large inputs)
+		return (_op == AggOp.SUM || _op == AggOp.MIN || _op == AggOp.MAX)
+			&& (_direction == Direction.RowCol || _direction == Direction.Row || _direction == Direction.Col)
+			&& !isTernaryAggregateRewriteApplicable() && !isUnaryAggregateOuterRewriteApplicable();
+	}
 
 	@Override
 	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
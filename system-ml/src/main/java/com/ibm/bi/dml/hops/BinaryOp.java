@@ -17,6 +17,7 @@
 
 package com.ibm.bi.dml.hops;
 
+import com.ibm.bi.dml.hops.Hop.MultiThreadedHop;
 import com.ibm.bi.dml.lops.Aggregate;
 import com.ibm.bi.dml.lops.AppendGAlignedSP;
 import com.ibm.bi.dml.lops.AppendM;
@@ -47,6 +48,7 @@ import com.ibm.bi.dml.lops.LopProperties.ExecType;
 import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
 import com.ibm.bi.dml.runtime.matrix.mapred.DistributedCacheInput;
 
@@ -58,7 +60,7 @@ import com.ibm.bi.dml.runtime.matrix.mapred.DistributedCacheInput;
  * 		Semantic: align indices (sort), then perform operation
  */
 
-public class BinaryOp extends Hop 
+public class BinaryOp extends Hop implements MultiThreadedHop
 {
 	
 	//we use the full remote memory budget (but reduced by sort buffer), 
@@ -67,6 +69,8 @@ public class BinaryOp extends Hop
 	private Hop.OpOp2 op;
 	private boolean outer = false;
 	
+	private int _maxNumThreads = -1; //-1 for unlimited
+	
 	public static AppendMethod FORCED_APPEND_METHOD = null;
 	public enum AppendMethod { 
 		CP_APPEND, //in-memory general case append
@@ -107,6 +111,11 @@ public class BinaryOp extends Hop
 		return op;
 	}
 	
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+	
 	public void setOp(OpOp2 iop) {
 		 op = iop;
 	}
@@ -158,7 +167,10 @@ public class BinaryOp extends Hop
 				break;
 			}
 			default:
-				constructLopsBinaryDefault();	
+				if( et == ExecType.CP && CellwiseFusion.isFusionApplicable(this) )
+					constructLopsFusedCellwise(et);
+				else
+					constructLopsBinaryDefault();	
 		}
 
 		//add reblock/checkpoint lops if necessary
@@ -167,6 +179,22 @@ public class BinaryOp extends Hop
 		return getLops();
 	}
 	
+	/**
+	 * 
+	 * @param et
+	 * @throws HopsException
+	 * @throws LopsException
+	 */
+	private void constructLopsFusedCellwise(ExecType et) 
+		throws HopsException, LopsException 
+	{
+		int k = getConstrainedNumThreads();
+		Lop fused = CellwiseFusion.constructFusedLop(this, et, k);
+		setOutputDimensions(fused);
+		setLineNumbers(fused);
+		setLops(fused);
+	}
+	
 	private void constructLopsIQM(ExecType et) throws HopsException, LopsException {
 		if ( et == ExecType.MR ) {
 			CombineBinary combine = CombineBinary.constructCombineLop(
@@ -578,8 +606,9 @@ public class BinaryOp extends Hop
 				ot = HopsOpOp2LopsU.get(op);
 			
 			
+			int k = (et == ExecType.CP) ? getConstrainedNumThreads() : 1;
 			Unary unary1 = new Unary(getInput().get(0).constructLops(),
-						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et);
+						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et, k);
 		
 			setOutputDimensions(unary1);
 			setLineNumbers(unary1);
@@ -592,8 +621,9 @@ public class BinaryOp extends Hop
 			ExecType et = optFindExecType();
 			if ( et == ExecType.CP ) 
 			{
+				int k = getConstrainedNumThreads();
 				Binary binary = new Binary(getInput().get(0).constructLops(), getInput().get(1).constructLops(), HopsOpOp2LopsB.get(op),
-						getDataType(), getValueType(), et);
+						getDataType(), getValueType(), et, k);
 				
 				setOutputDimensions(binary);
 				setLineNumbers(binary);
@@ -908,6 +938,15 @@ public class BinaryOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//per-segment matrix-scalar operations
+		return getDataType() == DataType.MATRIX
+			&& (getInput().get(0).getDataType() == DataType.SCALAR 
+			   || getInput().get(1).getDataType() == DataType.SCALAR);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -1463,6 +1502,7 @@ public class BinaryOp extends Hop
 		//copy specific attributes
 		ret.op = op;
 		ret.outer = outer;
+		ret._maxNumThreads = _maxNumThreads;
 		
 		return ret;
 	}
@@ -1477,7 +1517,28 @@ public class BinaryOp extends Hop
 		return (   op == that2.op
 				&& outer == that2.outer
 				&& getInput().get(0) == that2.getInput().get(0)
-				&& getInput().get(1) == that2.getInput().get(1));
+				&& getInput().get(1) == that2.getInput().get(1)
+				&& _maxNumThreads == that2._maxNumThreads);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int getConstrainedNumThreads()
+	{
+		//by default max local parallelism (vcores) 
+		int ret = InfrastructureAnalyzer.getLocalParallelism();
+		
+		//apply external max constraint (e.g., set by parfor or other rewrites)
+		if( _maxNumThreads > 0 )
+			ret = Math.min(ret, _maxNumThreads);
+		
+		//apply global multi-threading constraint
+		if( !OptimizerUtils.PARALLEL_CP_MATRIX_MULTIPLY )
+			ret = 1;
+			
+		return ret;
 	}
 	
 	/**
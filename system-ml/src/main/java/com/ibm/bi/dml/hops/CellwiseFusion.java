@@ -0,0 +1,274 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.hops;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.ibm.bi.dml.hops.Hop.AggOp;
+import com.ibm.bi.dml.hops.Hop.Direction;
+import com.ibm.bi.dml.hops.Hop.OpOp1;
+import com.ibm.bi.dml.hops.Hop.OpOp2;
+import com.ibm.bi.dml.lops.FusedCellwise;
+import com.ibm.bi.dml.lops.Lop;
+import com.ibm.bi.dml.lops.LopsException;
+import com.ibm.bi.dml.lops.LopProperties.ExecType;
+import com.ibm.bi.dml.parser.Expression.DataType;
+
+/**
+ * Hop-lop rewrite for fusing DAGs of cell-wise binary and unary operations
+ * with an optional final sum, rowSums, or colSums into a single fused
+ * cellwise CP operator. Similar to the ternary aggregate rewrite, this
+ * fusion is applied during lop construction of the root operation, where
+ * all fused intermediates (with a single consumer) do not get lops, and
+ * hence, are never materialized.
+ *
+ * The fused expression is encoded as a postfix program over the distinct
+ * leaf inputs (matrices of equal dimensions and scalars), which is then
+ * evaluated by the runtime per cell over row blocks.
+ */
+public class CellwiseFusion
+{
+	//maximum number of distinct inputs of a fused operator
+	private static final int MAX_NUM_INPUTS = 32;
+
+	//program token prefixes for binary and unary operations
+	public static final String PROG_DELIM = ",";
+	public static final String PROG_BINARY = "b";
+	public static final String PROG_UNARY = "u";
+
+	private static final HashMap<OpOp2, String> _binaryOps;
+	private static final HashMap<OpOp1, String> _unaryOps;
+
+	static
+	{
+		_binaryOps = new HashMap<OpOp2, String>();
+		_binaryOps.put(OpOp2.PLUS, "+");
+		_binaryOps.put(OpOp2.MINUS, "-");
+		_binaryOps.put(OpOp2.MULT, "*");
+		_binaryOps.put(OpOp2.DIV, "/");
+		_binaryOps.put(OpOp2.MIN, "min");
+		_binaryOps.put(OpOp2.MAX, "max");
+		_binaryOps.put(OpOp2.POW, "^");
+		_binaryOps.put(OpOp2.LESS, "<");
+		_binaryOps.put(OpOp2.LESSEQUAL, "<=");
+		_binaryOps.put(OpOp2.GREATER, ">");
+		_binaryOps.put(OpOp2.GREATEREQUAL, ">=");
+		_binaryOps.put(OpOp2.EQUAL, "==");
+		_binaryOps.put(OpOp2.NOTEQUAL, "!=");
+
+		_unaryOps = new HashMap<OpOp1, String>();
+		_unaryOps.put(OpOp1.EXP, "exp");
+		_unaryOps.put(OpOp1.LOG, "log");
+		_unaryOps.put(OpOp1.ABS, "abs");
+		_unaryOps.put(OpOp1.SQRT, "sqrt");
+		_unaryOps.put(OpOp1.ROUND, "round");
+		_unaryOps.put(OpOp1.SIN, "sin");
+		_unaryOps.put(OpOp1.COS, "cos");
+		_unaryOps.put(OpOp1.TAN, "tan");
+		_unaryOps.put(OpOp1.SIGMOID, "sigmoid");
+		_unaryOps.put(OpOp1.SPROP, "sprop");
+	}
+
+	/**
+	 * Indicates if the given root hop (binary, unary, or sum aggregate) and
+	 * its fusable inputs qualify for a fused cellwise operator. The caller
+	 * is responsible for checking that the root is executed in CP.
+	 *
+	 * @param root
+	 * @return
+	 * @throws HopsException
+	 */
+	public static boolean isFusionApplicable( Hop root )
+		throws HopsException
+	{
+		if( !OptimizerUtils.ALLOW_CELLWISE_FUSION )
+			return false;
+
+		Hop progRoot = null;
+		int minOps = 2;
+
+		if( root instanceof AggUnaryOp )
+		{
+			//sum, rowSums, colSums over a fusable cellwise operation
+			AggUnaryOp agg = (AggUnaryOp) root;
+			Hop input = agg.getInput().get(0);
+			if( agg.getOp() != AggOp.SUM || !isFusableInput(input, input) )
+				return false;
+			progRoot = input;
+			minOps = 1;
+		}
+		else if( root instanceof BinaryOp || root instanceof UnaryOp )
+		{
+			if( !isCellwiseOp(root, root) )
+				return false;
+			progRoot = root;
+		}
+		else
+			return false;
+
+		//analyze fused operations and distinct inputs
+		ArrayList<Hop> leaves = new ArrayList<Hop>();
+		int numOps = rConstructProgram(progRoot, progRoot, leaves, new StringBuilder());
+		if( numOps < minOps || leaves.size() > MAX_NUM_INPUTS )
+			return false;
+
+		//check memory requirements of inputs and output
+		//(intermediates are not materialized but all inputs are pinned)
+		double mem = root.getOutputMemEstimate();
+		for( Hop leaf : leaves )
+			mem += leaf.getOutputMemEstimate();
+
+		return ( mem <= OptimizerUtils.getLocalMemBudget() );
+	}
+
+	/**
+	 * Constructs the fused cellwise lop for the given root hop, including
+	 * the lops of all distinct leaf inputs. Output dimensions and line numbers
+	 * are set by the caller.
+	 *
+	 * @param root
+	 * @param et
+	 * @param k
+	 * @return
+	 * @throws HopsException
+	 * @throws LopsException
+	 */
+	public static Lop constructFusedLop( Hop root, ExecType et, int k )
+		throws HopsException, LopsException
+	{
+		Hop progRoot = (root instanceof AggUnaryOp) ? root.getInput().get(0) : root;
+
+		//construct postfix program and collect distinct inputs
+		ArrayList<Hop> leaves = new ArrayList<Hop>();
+		StringBuilder prog = new StringBuilder();
+		rConstructProgram(progRoot, progRoot, leaves, prog);
+
+		//construct input lops (after program construction, which
+		//guarantees that fused intermediates never get lops)
+		ArrayList<Lop> inputs = new ArrayList<Lop>();
+		for( Hop leaf : leaves )
+			inputs.add(leaf.constructLops());
+
+		//determine final aggregation
+		String aggOp = FusedCellwise.AGG_NONE;
+		if( root instanceof AggUnaryOp ) {
+			Direction dir = ((AggUnaryOp)root).getDirection();
+			aggOp = (dir == Direction.RowCol) ? FusedCellwise.AGG_SUM :
+				    (dir == Direction.Row) ? FusedCellwise.AGG_ROW_SUM : FusedCellwise.AGG_COL_SUM;
+		}
+
+		return new FusedCellwise(inputs, aggOp, prog.toString(),
+				root.getDataType(), root.getValueType(), et, k);
+	}
+
+	/**
+	 * Recursively constructs the postfix program of the fused expression,
+	 * where leaf inputs are referenced by their position in the list of
+	 * distinct inputs.
+	 *
+	 * @param current
+	 * @param progRoot
+	 * @param leaves
+	 * @param prog
+	 * @return number of fused operations
+	 * @throws HopsException
+	 */
+	private static int rConstructProgram( Hop current, Hop progRoot, ArrayList<Hop> leaves, StringBuilder prog )
+		throws HopsException
+	{
+		int numOps = 0;
+
+		if( current == progRoot || isFusableInput(current, progRoot) )
+		{
+			for( Hop in : current.getInput() )
+				numOps += rConstructProgram(in, progRoot, leaves, prog);
+
+			if( prog.length() > 0 )
+				prog.append(PROG_DELIM);
+			if( current instanceof BinaryOp ) {
+				prog.append(PROG_BINARY);
+				prog.append(_binaryOps.get(((BinaryOp)current).getOp()));
+			}
+			else {
+				prog.append(PROG_UNARY);
+				prog.append(_unaryOps.get(((UnaryOp)current).getOp()));
+			}
+			numOps++;
+		}
+		else
+		{
+			//reuse distinct leaf inputs (e.g., X*X)
+			int pos = leaves.indexOf(current);
+			if( pos < 0 ) {
+				leaves.add(current);
+				pos = leaves.size()-1;
+			}
+			if( prog.length() > 0 )
+				prog.append(PROG_DELIM);
+			prog.append(pos);
+		}
+
+		return numOps;
+	}
+
+	/**
+	 * Indicates if the given hop is a supported cellwise operation with
+	 * known dimensions equal to the program root, and scalar or equal-sized
+	 * matrix inputs (i.e., no matrix-vector broadcasting).
+	 *
+	 * @param hop
+	 * @param progRoot
+	 * @return
+	 */
+	private static boolean isCellwiseOp( Hop hop, Hop progRoot )
+	{
+		boolean ret = ( (hop instanceof BinaryOp && _binaryOps.containsKey(((BinaryOp)hop).getOp()))
+				     || (hop instanceof UnaryOp && _unaryOps.containsKey(((UnaryOp)hop).getOp())) )
+				&& hop.getDataType() == DataType.MATRIX && hop.dimsKnown()
+				&& hop.getDim1() == progRoot.getDim1() && hop.getDim2() == progRoot.getDim2()
+				&& hop.getDim1() * hop.getDim2() <= OptimizerUtils.MAX_NUMCELLS_CP_DENSE;
+
+		for( int i=0; ret && i<hop.getInput().size(); i++ ) {
+			Hop in = hop.getInput().get(i);
+			ret &= in.getDataType() == DataType.SCALAR
+				|| (in.getDataType() == DataType.MATRIX
+				    && in.getDim1() == hop.getDim1() && in.getDim2() == hop.getDim2());
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Indicates if the given hop can be fused into its consumer, i.e., is a
+	 * supported cellwise CP operation without other consumers and lops.
+	 *
+	 * @param hop
+	 * @param progRoot
+	 * @return
+	 * @throws HopsException
+	 */
+	private static boolean isFusableInput( Hop hop, Hop progRoot )
+		throws HopsException
+	{
+		return isCellwiseOp(hop, progRoot)
+			&& hop.getParent().size() == 1
+			&& hop.getLops() == null
+			&& hop.optFindExecType() == ExecType.CP;
+	}
+}
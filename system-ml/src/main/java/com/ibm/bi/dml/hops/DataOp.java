@@ -339,6 +339,16 @@ public class DataOp extends Hop
 		return false;
 	}	
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//binary, text, and matrix market readers, all writers, and eviction
+		//support segmented dense blocks, but csv readers parse directly into 
+		//the linearized dense array
+		return !(_dataop == DataOpTypes.PERSISTENTREAD 
+			&& _inFormat == FileFormatTypes.CSV);
+	}
+	
 	@Override
 	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
 	{		
@@ -213,11 +213,15 @@ public abstract class Hop
 			
 			//Step 2: check valid output and input sizes for cp (<16GB for DENSE)
 			//(if the memory estimate is smaller than max_numcells we are guaranteed to have it in sparse representation)
-			invalid |= !(  OptimizerUtils.isValidCPMatrixSize(_dim1, _dim2, OptimizerUtils.getSparsity(_dim1, _dim2, _nnz))
-					    || getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE );
-			for( Hop in : getInput() )
-				invalid |= !(   OptimizerUtils.isValidCPMatrixSize(in._dim1, in._dim2, OptimizerUtils.getSparsity(in._dim1, in._dim2, in._nnz))
-						     || in.getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE);
+			//(operations with per-segment kernels support segmented dense blocks of arbitrary size)
+			if( !(OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS && isLargeDenseBlockSupported()) ) 
+			{
+				invalid |= !(  OptimizerUtils.isValidCPMatrixSize(_dim1, _dim2, OptimizerUtils.getSparsity(_dim1, _dim2, _nnz))
+						    || getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE );
+				for( Hop in : getInput() )
+					invalid |= !(   OptimizerUtils.isValidCPMatrixSize(in._dim1, in._dim2, OptimizerUtils.getSparsity(in._dim1, in._dim2, in._nnz))
+							     || in.getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE);
+			}
 			
 			//force exec type mr if necessary
 			if( invalid ) { 
@@ -229,6 +233,18 @@ public abstract class Hop
 		}
 	}
 	
+	/**
+	 * Indicates if the CP runtime operation of this hop supports segmented dense
+	 * blocks (beyond 2^31-1 cells) for all its inputs and outputs. By default, 
+	 * this is not the case and such operations are compiled to MR/Spark.
+	 * 
+	 * @return
+	 */
+	protected boolean isLargeDenseBlockSupported()
+	{
+		return false;
+	}
+	
 	public void setRequiresReblock(boolean flag)
 	{
 		_requiresReblock = flag;
@@ -1061,7 +1077,7 @@ public abstract class Hop
 	};
 
 	public enum FileFormatTypes {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, BINARY_INDEXED, MM, CSV
 	};
 
 	public enum DataOpTypes {
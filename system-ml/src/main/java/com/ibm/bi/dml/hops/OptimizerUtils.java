@@ -164,6 +164,15 @@ public class OptimizerUtils
 	 */
 	public static boolean ALLOW_SUM_PRODUCT_REWRITES = true;
 	
+	/**
+	 * Enables the fusion of chains of cell-wise binary/unary operations and
+	 * an optional final sum/rowSums/colSums into a single fused cellwise CP 
+	 * operation, which prevents the materialization of intermediates.
+	 * Disabled by default because it replaces the opcodes of the fused 
+	 * operations in existing plans.
+	 */
+	public static boolean ALLOW_CELLWISE_FUSION = false;
+	
 	/**
 	 * Enables a specific hop dag rewrite that splits hop dags after csv persistent reads with 
 	 * unknown size in order to allow for recompile.
@@ -178,6 +187,33 @@ public class OptimizerUtils
 	public static boolean PARALLEL_CP_READ_TEXTFORMATS = true;
 	public static boolean PARALLEL_CP_WRITE_TEXTFORMATS = true;
 	
+	/**
+	 * Enables parallel read/write of the binary block format, where the 
+	 * parallel writer creates one part file per thread and the parallel 
+	 * reader reads all part files in parallel.
+	 * 
+	 */
+	public static boolean PARALLEL_CP_READ_BINARYFORMATS = true;
+	public static boolean PARALLEL_CP_WRITE_BINARYFORMATS = true;
+
+	/**
+	 * Enables the local file system fast path of CP readers and writers, which
+	 * directly accesses local files via NIO file channels (w/o Hadoop input formats
+	 * or sequence file readers/writers), and optionally via memory-mapped files.
+	 *
+	 */
+	public static boolean ALLOW_LOCAL_FS_IO = true;
+	public static boolean ALLOW_LOCAL_FS_MMAP = false;
+
+	/**
+	 * Enables the inference of unknown dimensions of csv inputs during validation,
+	 * via a parallel row count over byte ranges (see CSVMetaDataInference). This
+	 * prevents csv reblocks and dag splits for unknown sizes, and the results are
+	 * cached in an existing metadata file of the input (keyed by file size and mtime).
+	 *
+	 */
+	public static boolean ALLOW_CSV_METADATA_INFERENCE = true;
+
 	
 	/**
 	 * Specifies a multiplier computing the degree of parallelism of parallel
@@ -194,6 +230,42 @@ public class OptimizerUtils
 	 */
 	public static boolean PARALLEL_CP_MATRIX_MULTIPLY = true;
 	
+	/**
+	 * Enables compressed linear algebra, i.e., the compression of matrices 
+	 * read into the buffer pool and operations directly over compressed 
+	 * blocks for mmchain, tsmm, matrix-vector, and unary aggregates.
+	 * 
+	 */
+	public static boolean ALLOW_COMPRESSED_LINALG = false;
+	
+	/**
+	 * Enables the conversion of sparse matrices read into the buffer pool
+	 * into the read-optimized CSR representation (see SparseBlockCSR). Any
+	 * subsequent update transparently converts them back to sparse rows.
+	 * 
+	 */
+	public static boolean ALLOW_SPARSE_CSR_INPUTS = true;
+	
+	/**
+	 * Enables segmented dense blocks for dense matrices beyond 2^31-1 cells, 
+	 * which allows operations with per-segment kernels (e.g., matrix-vector, 
+	 * mmchain, tsmm, sum/min/max, matrix-scalar, transpose) over such large
+	 * matrices in CP, if they fit into the memory budget. 
+	 * 
+	 */
+	public static boolean ALLOW_LARGE_DENSE_BLOCKS = true;
+	
+	/**
+	 * Enables the recycling of dense blocks of dead intermediates (on rmvar)
+	 * for subsequent allocations of dense blocks of the same size, which 
+	 * reduces the allocation rate and GC overhead of iterative scripts.
+	 * 
+	 * NOTE: Disabled by default until all sites that alias matrix blocks beyond
+	 * the lifetime of their variables (e.g., acquired blocks held after release)
+	 * are audited, because recycling would overwrite such aliased dense blocks.
+	 */
+	public static boolean ALLOW_DENSE_BLOCK_RECYCLING = false;
+	
 	/**
 	 * Enables the use of CombineSequenceFileInputFormat with splitsize = 2x hdfs blocksize, 
 	 * if sort buffer size large enough and parallelism not hurt. This solves to issues: 
@@ -297,6 +369,7 @@ public class OptimizerUtils
 				ALLOW_INTER_PROCEDURAL_ANALYSIS = false;
 				ALLOW_BRANCH_REMOVAL = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_FUSION = false;
 				break;
 			// opt level 1: memory-based (no advanced rewrites)	
 			case 1:
@@ -308,6 +381,7 @@ public class OptimizerUtils
 				ALLOW_INTER_PROCEDURAL_ANALYSIS = false;
 				ALLOW_BRANCH_REMOVAL = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_FUSION = false;
 				break;
 			// opt level 2: memory-based (all advanced rewrites)
 			case 2:
@@ -335,6 +409,7 @@ public class OptimizerUtils
 				ALLOW_WORSTCASE_SIZE_EXPRESSION_EVALUATION = false;
 				ALLOW_RAND_JOB_RECOMPILE = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_FUSION = false;
 				ALLOW_SPLIT_HOP_DAGS = false;
 				break;
 		}
@@ -359,6 +434,11 @@ public class OptimizerUtils
 		if (!ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_PARALLEL_MATRIXMULT)) {
 			PARALLEL_CP_MATRIX_MULTIPLY = false;
 		}	
+		
+		//handle compressed linear algebra configuration
+		if (ConfigurationManager.getConfig().getBooleanValue(DMLConfig.COMPRESSED_LINALG)) {
+			ALLOW_COMPRESSED_LINALG = true;
+		}
 	}
 	
 	/**
@@ -572,6 +652,42 @@ public class OptimizerUtils
 	}
 	
 	
+	/**
+	 * Returns the degree of parallelism used for parallel binary block read, 
+	 * which is equivalent to the parallelism of parallel text read. If 
+	 * PARALLEL_CP_READ_BINARYFORMATS is disabled, this method returns 1.
+	 * 
+	 * @return
+	 */
+	public static int getParallelBinaryReadParallelism()
+	{
+		if( !PARALLEL_CP_READ_BINARYFORMATS )
+			return 1; // sequential execution
+		
+		//compute degree of parallelism for parallel binary read
+		double dop = InfrastructureAnalyzer.getLocalParallelism()
+				     * PARALLEL_CP_READ_PARALLELISM_MULTIPLIER;
+		return (int) Math.round(dop);
+	}
+	
+	/**
+	 * Returns the degree of parallelism used for parallel binary block write, 
+	 * which is equivalent to the parallelism of parallel text write. If 
+	 * PARALLEL_CP_WRITE_BINARYFORMATS is disabled, this method returns 1.
+	 * 
+	 * @return
+	 */
+	public static int getParallelBinaryWriteParallelism()
+	{
+		if( !PARALLEL_CP_WRITE_BINARYFORMATS )
+			return 1; // sequential execution
+		
+		//compute degree of parallelism for parallel binary write
+		double dop = InfrastructureAnalyzer.getLocalParallelism()
+				     * PARALLEL_CP_WRITE_PARALLELISM_MULTIPLIER;
+		return (int) Math.round(dop);
+	}
+	
 	////////////////////////
 	// Memory Estimates   //
 	////////////////////////
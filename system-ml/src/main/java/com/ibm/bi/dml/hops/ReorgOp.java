@@ -412,6 +412,13 @@ public class ReorgOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean isLargeDenseBlockSupported()
+	{
+		//per-segment transpose
+		return (op == ReOrgOp.TRANSPOSE);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -27,6 +27,7 @@ import java.util.Map.Entry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.ibm.bi.dml.hops.CellwiseFusion;
 import com.ibm.bi.dml.hops.Hop;
 import com.ibm.bi.dml.hops.HopsException;
 import com.ibm.bi.dml.hops.recompile.Recompiler;
@@ -53,9 +54,11 @@ import com.ibm.bi.dml.runtime.instructions.cp.AggregateTernaryCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.AggregateUnaryCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.BinaryCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.CPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
 import com.ibm.bi.dml.runtime.instructions.cp.Data;
 import com.ibm.bi.dml.runtime.instructions.cp.DataGenCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.FunctionCallCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.FusedCellwiseCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.MMTSJCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.MultiReturnBuiltinCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.ParameterizedBuiltinCPInstruction;
@@ -602,6 +605,25 @@ public abstract class CostEstimator
 			if( vs[2] == null ) //scalar output
 				vs[2] = _scalarStats;
 		}
+		else if( inst instanceof FusedCellwiseCPInstruction )
+		{
+			FusedCellwiseCPInstruction finst = (FusedCellwiseCPInstruction) inst;
+			//all matrix inputs of same dimensions, cost by number of program steps
+			vs[0] = _scalarStats;
+			for( CPOperand in : finst.getInputs() )
+				if( stats.containsKey(in.getName()) ) {
+					vs[0] = stats.get(in.getName());
+					break;
+				}
+			vs[1] = _unknownStats;
+			vs[2] = stats.get( finst.output.getName() );
+			
+			if( vs[2] == null ) //scalar output
+				vs[2] = _scalarStats;
+			
+			String[] parts = InstructionUtils.getInstructionParts(inst.toString());
+			attr = new String[]{String.valueOf(parts[2].split(CellwiseFusion.PROG_DELIM).length)};
+		}
 		else if( inst instanceof ParameterizedBuiltinCPInstruction )
 		{
 			//ParameterizedBuiltinCPInstruction pinst = (ParameterizedBuiltinCPInstruction) inst;
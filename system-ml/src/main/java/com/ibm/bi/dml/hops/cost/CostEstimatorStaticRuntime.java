@@ -936,6 +936,11 @@ public class CostEstimatorStaticRuntime extends CostEstimator
 					
 				case AggregateTernary: //opcodes: tak+*
 					return 6 * d1m * d1n; //2*1(*) + 4 (k+)
+				
+				case FusedCellwise: //opcodes: fcell
+					//one flop per program step and cell (incl input access), 
+					//over non-zeros only if sparse-safe but unknown here
+					return ((args!=null) ? Integer.parseInt(args[0]) : 1) * d1m * d1n;
 					
 				case AggregateUnary: //opcodes: uak+, uark+, uack+, uamean, uarmean, uacmean, 
 									 //         uamax, uarmax, uarimax, uacmax, uamin, uarmin, uacmin, 
@@ -153,7 +153,7 @@ public class GDFNode
 		return (   _hop instanceof UnaryOp && format!=FileFormatTypes.CSV
 				|| (_hop instanceof AggUnaryOp && ((AggUnaryOp)_hop).getDirection()==Direction.RowCol && format!=FileFormatTypes.CSV)
 				|| (_hop instanceof ReorgOp && ((ReorgOp)_hop).getOp()==ReOrgOp.TRANSPOSE && format!=FileFormatTypes.CSV)
-				|| format==FileFormatTypes.BINARY ); //any op
+				|| format==FileFormatTypes.BINARY || format==FileFormatTypes.BINARY_INDEXED ); //any op
 	}
 	
 	/**
@@ -80,6 +80,8 @@ import com.ibm.bi.dml.runtime.controlprogram.ParForProgramBlock;
 import com.ibm.bi.dml.runtime.controlprogram.ProgramBlock;
 import com.ibm.bi.dml.runtime.controlprogram.WhileProgramBlock;
 import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference.CSVMetaData;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.ProgramConverter;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.opt.OptTreeConverter;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
@@ -1659,6 +1661,16 @@ public class Recompiler
 			DataOp dop = (DataOp) hop; 
 			tryReadMetaDataFileMatrixCharacteristics(dop);
 		}
+		//special case for csv persistent reads with unknown size (read-after-write)
+		else if( hop instanceof DataOp 
+				&& ((DataOp)hop).getDataOpType() == DataOpTypes.PERSISTENTREAD
+				&& !hop.dimsKnown() && ((DataOp)hop).getInputFormatType()==FileFormatTypes.CSV
+				&& hop.getDataType()==DataType.MATRIX && OptimizerUtils.ALLOW_CSV_METADATA_INFERENCE )
+		{
+			//update hop with inferred meta data
+			DataOp dop = (DataOp) hop; 
+			tryInferCSVMatrixCharacteristics(dop);
+		}
 		//update size expression for rand/seq according to symbol table entries
 		else if ( hop instanceof DataGenOp )
 		{
@@ -1985,6 +1997,33 @@ public class Recompiler
 		return ret;
 	}
 	
+	/**
+	 * Infers the dimensions of csv reads with literal format parameters
+	 * (see CSVMetaDataInference), where failures are ignored.
+	 * 
+	 * @param dop
+	 */
+	private static void tryInferCSVMatrixCharacteristics( DataOp dop )
+	{
+		try
+		{
+			Hop header = dop.getInput().get(dop.getParameterIndex(DataExpression.DELIM_HAS_HEADER_ROW));
+			Hop delim = dop.getInput().get(dop.getParameterIndex(DataExpression.DELIM_DELIMITER));
+			if( header instanceof LiteralOp && delim instanceof LiteralOp )
+			{
+				CSVMetaData md = CSVMetaDataInference.inferMetaData(dop.getFileName(), 
+						((LiteralOp)header).getBooleanValue(), ((LiteralOp)delim).getStringValue(), null);
+				if( md != null ) {
+					dop.setDim1(md.getRows());
+					dop.setDim2(md.getCols());
+				}
+			}
+		}
+		catch(Exception ex) {
+			LOG.debug("Failed to infer dimensions of csv input " + dop.getFileName() + ": " + ex.getMessage());
+		}
+	}
+	
 	/**
 	 * 
 	 * @param fname
@@ -843,7 +843,8 @@ public class HopRewriteUtils
 	{
 		return (    hop instanceof DataOp 
 				 && ((DataOp)hop).getDataOpType()==DataOpTypes.PERSISTENTREAD
-				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.BINARY);
+				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.BINARY
+				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.BINARY_INDEXED);
 	}
 	
 	//////////////////////////////////////
@@ -175,8 +175,9 @@ public class Binary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
-		//append degree of parallelism for matrix multiplications
-		if( operation == OperationTypes.MATMULT && getExecType()==ExecType.CP ) {
+		//append degree of parallelism for matrix multiplications and cellwise matrix operations
+		if( getExecType()==ExecType.CP && (operation == OperationTypes.MATMULT 
+			|| (getDataType()==DataType.MATRIX && isMultiThreadedCellwise(operation))) ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( numThreads );
 		}	
@@ -184,6 +185,25 @@ public class Binary extends Lop
 		return sb.toString();
 	}
 	
+	/**
+	 * Indicates if the given operation is a cellwise arithmetic or relational
+	 * operation with multi-threaded CP runtime support.
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedCellwise( OperationTypes op ) 
+	{
+		switch(op) {
+			case ADD: case SUBTRACT: case MULTIPLY: case DIVIDE: case MODULUS: case INTDIV: case POW:
+			case LESS_THAN: case LESS_THAN_OR_EQUALS: case GREATER_THAN: 
+			case GREATER_THAN_OR_EQUALS: case EQUALS: case NOT_EQUALS:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
 	@Override
 	public String getInstructions(int input_index1, int input_index2, int output_index) throws LopsException
 	{
@@ -193,6 +193,8 @@ public class Data extends Lop
 		this.formatType = type ;
 		if(type == FileFormatTypes.BINARY)
 			this.outParams.setFormat(Format.BINARY) ;
+		else if(type == FileFormatTypes.BINARY_INDEXED)
+			this.outParams.setFormat(Format.BINARY_INDEXED) ;
 		else if(type == FileFormatTypes.TEXT)
 			this.outParams.setFormat(Format.TEXT) ;
 		else if (type == FileFormatTypes.MM)
@@ -429,6 +431,8 @@ public class Data extends Lop
 					fmt = "textcell";
 				else if (oparams.getFormat() == Format.CSV)
 					fmt = "csv";
+				else if (oparams.getFormat() == Format.BINARY_INDEXED)
+					fmt = "binaryblockidx";
 				else if ( oparams.getFormat() == Format.BINARY ){
 					if ( oparams.getRowsInBlock() > 0 || oparams.getColsInBlock() > 0 )
 						fmt = "binaryblock"; 
@@ -505,6 +509,8 @@ public class Data extends Lop
 				fmt = "matrixmarket";
 			else if ( oparams.getFormat() == Format.CSV )
 				fmt = "csv";
+			else if ( oparams.getFormat() == Format.BINARY_INDEXED )
+				fmt = "binaryblockidx";
 			else {
 				if ( oparams.getRowsInBlock() > 0 || oparams.getColsInBlock() > 0 )
 					fmt = "binaryblock";
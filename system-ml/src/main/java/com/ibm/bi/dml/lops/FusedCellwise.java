@@ -0,0 +1,107 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.lops;
+
+import java.util.ArrayList;
+
+import com.ibm.bi.dml.lops.LopProperties.ExecLocation;
+import com.ibm.bi.dml.lops.LopProperties.ExecType;
+import com.ibm.bi.dml.lops.compile.JobType;
+import com.ibm.bi.dml.parser.Expression.*;
+
+
+/**
+ * Lop for fused cellwise operations over an arbitrary number of equal-sized
+ * matrix and scalar inputs, with an optional final sum, rowSums, or colSums.
+ * The fused expression is given as a postfix program over input positions.
+ */
+public class FusedCellwise extends Lop
+{
+	public static final String OPCODE = "fcell";
+
+	public static final String AGG_NONE = "none";
+	public static final String AGG_SUM = "uak+";
+	public static final String AGG_ROW_SUM = "uark+";
+	public static final String AGG_COL_SUM = "uack+";
+
+	private String _aggOp = null;
+	private String _program = null;
+	private int _numThreads = 1;
+
+	/**
+	 *
+	 * @param inputs
+	 * @param aggOp
+	 * @param program
+	 * @param dt
+	 * @param vt
+	 * @param et
+	 * @param k
+	 */
+	public FusedCellwise(ArrayList<Lop> inputs, String aggOp, String program, DataType dt, ValueType vt, ExecType et, int k)
+	{
+		super(Lop.Type.FusedCellwise, dt, vt);
+
+		_aggOp = aggOp;
+		_program = program;
+		_numThreads = k;
+
+		for( Lop in : inputs ) {
+			addInput(in);
+			in.addOutput(this);
+		}
+
+		boolean breaksAlignment = false;
+		boolean aligner = false;
+		boolean definesMRJob = false;
+		lps.addCompatibility(JobType.INVALID);
+		lps.setProperties( this.inputs, et, ExecLocation.ControlProgram, breaksAlignment, aligner, definesMRJob );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Operation: "+OPCODE+" ("+_aggOp+", "+_program+")";
+	}
+
+	@Override
+	public String getInstructions(String output)
+		throws LopsException
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append( getExecType() );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( OPCODE );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _aggOp );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _program );
+
+		for( Lop in : getInputs() ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( in.prepInputOperand(in.getOutputParameters().getLabel()) );
+		}
+
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( prepOutputOperand(output) );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _numThreads );
+
+		return sb.toString();
+	}
+}
@@ -45,6 +45,7 @@ public abstract class Lop
 		Aggregate, PartialAggregate,   	   				    //CP/MR aggregation
 		BinUaggChain, UaggOuterChain,  	                    //CP/MR aggregation
 		TernaryAggregate,                                   //CP ternary-binary aggregates
+		FusedCellwise,                                      //CP fused cellwise operations (w/ optional aggregate)
 		Grouping, 											//MR grouping
 		Append,                                             //CP/MR append (column append)
 		CombineUnary, CombineBinary, CombineTernary,        //MR combine (stitch together)
@@ -28,7 +28,7 @@ public class OutputParameters
 {
 	
 	public enum Format {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, BINARY_INDEXED, MM, CSV
 	};
 
 	private boolean _blocked = true;
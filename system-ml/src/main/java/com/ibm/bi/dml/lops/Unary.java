@@ -44,6 +44,9 @@ public class Unary extends Lop
 	OperationTypes operation;
 
 	Lop valInput;
+	
+	//cp-specific parameters
+	private int _numThreads = 1;
 
 	/**
 	 * Constructor to perform a unary operation with 2 inputs
@@ -57,6 +60,12 @@ public class Unary extends Lop
 		init(input1, input2, op, dt, vt, et);
 	}
 	
+	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
+		super(Lop.Type.UNARY, dt, vt);
+		init(input1, input2, op, dt, vt, et);
+		_numThreads = numThreads;
+	}
+	
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, input2, op, dt, vt, ExecType.MR);
@@ -108,6 +117,12 @@ public class Unary extends Lop
 		init(input1, op, dt, vt, et);
 	}
 	
+	public Unary(Lop input1, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
+		super(Lop.Type.UNARY, dt, vt);
+		init(input1, op, dt, vt, et);
+		_numThreads = numThreads;
+	}
+	
 	public Unary(Lop input1, OperationTypes op, DataType dt, ValueType vt) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, op, dt, vt, ExecType.MR);
@@ -302,6 +317,13 @@ public class Unary extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( this.prepOutputOperand(output));
 			
+			//append degree of parallelism for matrix builtin operations
+			if( getExecType()==ExecType.CP && getDataType()==DataType.MATRIX 
+				&& isMultiThreadedBuiltin(operation) ) {
+				sb.append( OPERAND_DELIMITOR );
+				sb.append( _numThreads );
+			}
+			
 			return sb.toString();
 
 		} else {
@@ -345,9 +367,55 @@ public class Unary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
+		//append degree of parallelism for matrix-scalar operations
+		if( getExecType()==ExecType.CP && getDataType()==DataType.MATRIX 
+			&& isMultiThreadedCellwise(operation) ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
+	/**
+	 * Indicates if the given matrix-scalar operation is a cellwise arithmetic 
+	 * or relational operation with multi-threaded CP runtime support.
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedCellwise( OperationTypes op ) 
+	{
+		switch(op) {
+			case ADD: case SUBTRACT: case SUBTRACT_NZ: case MULTIPLY: case MULTIPLY2: 
+			case DIVIDE: case MODULUS: case INTDIV: case POW: case POW2:
+			case LESS_THAN: case LESS_THAN_OR_EQUALS: case GREATER_THAN: 
+			case GREATER_THAN_OR_EQUALS: case EQUALS: case NOT_EQUALS:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Indicates if the given unary builtin operation has multi-threaded 
+	 * CP runtime support for matrix inputs.
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedBuiltin( OperationTypes op ) 
+	{
+		switch(op) {
+			case EXP: case LOG: case LOG_NZ: case SQRT: case ABS: 
+			case ROUND: case CEIL: case FLOOR: case SIN: case COS: case TAN: 
+			case ASIN: case ACOS: case ATAN: case SPROP: case SIGMOID:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
 	@Override
 	public String getInstructions(int inputIndex1, int inputIndex2,
 			int outputIndex) throws LopsException {
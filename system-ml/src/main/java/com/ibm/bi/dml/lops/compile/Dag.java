@@ -1572,11 +1572,12 @@ public class Dag<N extends Lop>
 
 				String inst_string = "";
 
-				// Lops with arbitrary number of inputs (ParameterizedBuiltin, GroupedAggregate, DataGen)
+				// Lops with arbitrary number of inputs (ParameterizedBuiltin, GroupedAggregate, DataGen, FusedCellwise)
 				// are handled separately, by simply passing ONLY the output variable to getInstructions()
 				if (node.getType() == Lop.Type.ParameterizedBuiltin
 						|| node.getType() == Lop.Type.GroupedAgg 
-						|| node.getType() == Lop.Type.DataGen ){ 
+						|| node.getType() == Lop.Type.DataGen
+						|| node.getType() == Lop.Type.FusedCellwise ){ 
 					inst_string = node.getInstructions(node.getOutputParameters().getLabel());
 				} 
 				
@@ -3168,7 +3169,9 @@ public class Dag<N extends Lop>
 							
 							out.addLastInstruction(tempInstr);
 						} 
-						else if (oparams.getFormat() == Format.MM )  {
+						else if (oparams.getFormat() == Format.MM || oparams.getFormat() == Format.BINARY_INDEXED )  {
+							//note: indexed binary block outputs are written as binary block 
+							//and converted by the final cp write instruction as well
 							
 							String tempFileName = getFilePath() + "temp" + job_id.getNextID();
 							
@@ -4209,6 +4212,8 @@ public class Dag<N extends Lop>
 			if (node.getOutputParameters().isBlocked()) {
 				if (node.getOutputParameters().getFormat() == Format.BINARY)
 					nodeInputInfo = InputInfo.BinaryBlockInputInfo;
+				else if (node.getOutputParameters().getFormat() == Format.BINARY_INDEXED)
+					nodeInputInfo = InputInfo.BinaryBlockIndexedInputInfo;
 				else 
 					throw new LopsException("Invalid format (" + node.getOutputParameters().getFormat() + ") encountered for a node/lop (ID=" + node.getID() + ") with blocked output.");
 				// inputInfos.add(InputInfo.BinaryBlockInputInfo);
@@ -1019,6 +1019,7 @@ public class DMLTranslator
 						break;
 						
 					case BINARY:
+					case BINARY_INDEXED:
 						// write output in binary block format
 					    ae.setOutputParams(ae.getDim1(), ae.getDim2(), ae.getNnz(), DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize);
 					    break;
@@ -2777,7 +2778,8 @@ public class DMLTranslator
 							//update read with essential write meta data
 							DataIdentifier di = pWrites.get(pfname);
 							FormatType ft = (di.getFormatType()!=null) ? di.getFormatType() : FormatType.TEXT;
-							dexpr.addVarParam(DataExpression.FORMAT_TYPE, new StringIdentifier(ft.toString(),di.getFilename(),di.getBeginLine(),di.getBeginColumn(),di.getEndLine(),di.getEndColumn()));							
+							String fmt = (ft==FormatType.BINARY_INDEXED) ? DataExpression.FORMAT_TYPE_VALUE_BINARY_INDEXED : ft.toString();
+							dexpr.addVarParam(DataExpression.FORMAT_TYPE, new StringIdentifier(fmt,di.getFilename(),di.getBeginLine(),di.getBeginColumn(),di.getEndLine(),di.getEndColumn()));							
 							if( di.getDim1()>=0 )
 								dexpr.addVarParam(DataExpression.READROWPARAM, new IntIdentifier(di.getDim1(),di.getFilename(),di.getBeginLine(),di.getBeginColumn(),di.getEndLine(),di.getEndColumn()));
 							if( di.getDim2()>=0 )
@@ -32,7 +32,10 @@ import org.apache.wink.json4j.JSONObject;
 
 import com.ibm.bi.dml.conf.ConfigurationManager;
 import com.ibm.bi.dml.hops.DataGenOp;
+import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.parser.LanguageException.LanguageErrorCodes;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference.CSVMetaData;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 import com.ibm.bi.dml.utils.JSONHelper;
@@ -68,12 +71,14 @@ public class DataExpression extends DataIdentifier
 	public static final String FORMAT_TYPE_VALUE_BINARY 		= "binary";
 	public static final String FORMAT_TYPE_VALUE_CSV			= "csv";
 	public static final String FORMAT_TYPE_VALUE_MATRIXMARKET	= "mm";
+	public static final String FORMAT_TYPE_VALUE_BINARY_INDEXED	= "binaryblockidx";
 	
 	public static final String ROWBLOCKCOUNTPARAM = "rows_in_block";
 	public static final String COLUMNBLOCKCOUNTPARAM = "cols_in_block";
 	public static final String DATATYPEPARAM = "data_type";
 	public static final String VALUETYPEPARAM = "value_type";
 	public static final String DESCRIPTIONPARAM = "description"; 
+	public static final String INFERREDPARAM = "inferred"; //inferred csv meta data
 	
 	// Parameter names relevant to reading/writing delimited/csv files
 	public static final String DELIM_DELIMITER = "sep";
@@ -97,7 +102,7 @@ public class DataExpression extends DataIdentifier
 		{ IO_FILENAME, READROWPARAM, READCOLPARAM, READNUMNONZEROPARAM, FORMAT_TYPE, 
 			ROWBLOCKCOUNTPARAM, COLUMNBLOCKCOUNTPARAM, DATATYPEPARAM, VALUETYPEPARAM, DESCRIPTIONPARAM,
 			// Parameters related to delimited/csv files.
-			DELIM_FILL_VALUE, DELIM_DELIMITER, DELIM_FILL, DELIM_HAS_HEADER_ROW, DELIM_NA_STRINGS
+			DELIM_FILL_VALUE, DELIM_DELIMITER, DELIM_FILL, DELIM_HAS_HEADER_ROW, DELIM_NA_STRINGS, INFERREDPARAM
 		}; 
 
 	public static final String[] READ_VALID_PARAM_NAMES = 
@@ -872,6 +877,12 @@ public class DataExpression extends DataIdentifier
 			} 
 	        dataTypeString = (getVarParam(DATATYPEPARAM) == null) ? null : getVarParam(DATATYPEPARAM).toString();
 			
+			// infer unknown dimensions of csv matrices from the data 
+			if ( isCSV && checkMetadata && OptimizerUtils.ALLOW_CSV_METADATA_INFERENCE
+				&& (dataTypeString == null || dataTypeString.equalsIgnoreCase(Statement.MATRIX_DATA_TYPE)) ) {
+				inferCSVDimensions(inputFileName);
+			}
+			
 			if ( dataTypeString == null || dataTypeString.equalsIgnoreCase(Statement.MATRIX_DATA_TYPE) 
 					|| dataTypeString.equalsIgnoreCase(Statement.FRAME_DATA_TYPE)) {
 				
@@ -934,6 +945,9 @@ public class DataExpression extends DataIdentifier
 				} else if ( fmt.equalsIgnoreCase("binary") ) {
 					getOutput().setFormatType(FormatType.BINARY);
 					format = 2;
+				} else if ( fmt.equalsIgnoreCase(FORMAT_TYPE_VALUE_BINARY_INDEXED) ) {
+					getOutput().setFormatType(FormatType.BINARY_INDEXED);
+					format = 2;
 				} else if ( fmt.equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV)) 
 				{
 					getOutput().setFormatType(FormatType.CSV);
@@ -1062,7 +1076,8 @@ public class DataExpression extends DataIdentifier
 			
 			if (getVarParam(FORMAT_TYPE) == null || getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("text"))
 				getOutput().setBlockDimensions(-1, -1);
-			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("binary"))
+			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("binary")
+				|| getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_BINARY_INDEXED))
 				getOutput().setBlockDimensions(DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize);
 			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_MATRIXMARKET) || (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV)))
 				getOutput().setBlockDimensions(-1, -1);
@@ -1841,7 +1856,8 @@ public class DataExpression extends DataIdentifier
 			{
 				// if the read method does not specify parameter value, then add MTD metadata file value to parameter list
 				if (getVarParam(key.toString()) == null){
-					if ( !key.toString().equalsIgnoreCase(DESCRIPTIONPARAM) ) {
+					if ( !key.toString().equalsIgnoreCase(DESCRIPTIONPARAM) 
+						&& !key.toString().equalsIgnoreCase(INFERREDPARAM) ) {
 						StringIdentifier strId = new StringIdentifier(val.toString(),
 								this.getFilename(), this.getBeginLine(), this.getBeginColumn(), 
 								this.getEndLine(), this.getEndColumn());
@@ -2155,6 +2171,50 @@ public class DataExpression extends DataIdentifier
         // Therefore, one need not actually read the data to infer the format.
 	}
 	
+	/**
+	 * Infers unknown dimensions of the csv input (if all relevant parameters are
+	 * constant) via CSVMetaDataInference. Failures are only logged, i.e., the read 
+	 * is compiled with unknown size.
+	 * 
+	 * @param inputFileName
+	 */
+	private void inferCSVDimensions( String inputFileName )
+	{
+		Expression rows = getVarParam(READROWPARAM);
+		Expression cols = getVarParam(READCOLPARAM);
+		if(    !(getVarParam(DELIM_HAS_HEADER_ROW) instanceof BooleanIdentifier)
+			|| !(getVarParam(DELIM_DELIMITER) instanceof StringIdentifier)
+			|| (rows != null && !(rows instanceof ConstIdentifier))
+			|| (cols != null && !(cols instanceof ConstIdentifier)) ) 
+		{
+			return;
+		}
+		
+		try
+		{
+			if( !isCSVReadWithUnknownSize() )
+				return;
+			
+			boolean hasHeader = ((BooleanIdentifier)getVarParam(DELIM_HAS_HEADER_ROW)).getValue();
+			String delim = ((StringIdentifier)getVarParam(DELIM_DELIMITER)).getValue();
+			String naStrings = (getVarParam(DELIM_NA_STRINGS) instanceof StringIdentifier) ?
+					((StringIdentifier)getVarParam(DELIM_NA_STRINGS)).getValue() : null;
+			
+			CSVMetaData md = CSVMetaDataInference.inferMetaData(inputFileName, hasHeader, delim, naStrings);
+			if( md != null ) {
+				removeVarParam(READROWPARAM);
+				addVarParam(READROWPARAM, new IntIdentifier(md.getRows(), this.getFilename(), 
+						this.getBeginLine(), this.getBeginColumn(), this.getBeginLine(), this.getBeginColumn()));
+				removeVarParam(READCOLPARAM);
+				addVarParam(READCOLPARAM, new IntIdentifier(md.getCols(), this.getFilename(), 
+						this.getBeginLine(), this.getBeginColumn(), this.getBeginLine(), this.getBeginColumn()));
+			}
+		}
+		catch(Exception ex) {
+			LOG.warn("Failed to infer dimensions of csv input " + inputFileName + ": " + ex.getMessage());
+		}
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -151,7 +151,7 @@ public abstract class Expression
 	};
 
 	public enum FormatType {
-		TEXT, BINARY, MM, CSV, UNKNOWN
+		TEXT, BINARY, BINARY_INDEXED, MM, CSV, UNKNOWN
 	};
 	
 	protected static final Log LOG = LogFactory.getLog(Expression.class.getName());
@@ -267,6 +267,9 @@ public abstract class Expression
 		if (fn.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_BINARY)) {
 			return FileFormatTypes.BINARY;
 		}
+		if (fn.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_BINARY_INDEXED)) {
+			return FileFormatTypes.BINARY_INDEXED;
+		}
 		if (fn.equalsIgnoreCase(DataExpression.FORMAT_TYPE_VALUE_MATRIXMARKET))  {
 			return FileFormatTypes.MM;
 		}
@@ -0,0 +1,95 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import java.util.Arrays;
+
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.SortUtils;
+
+/**
+ * Static functionality for extracting the bitmap (distinct non-zero values
+ * and their sorted row offsets) of a single column.
+ */
+public class BitmapEncoder
+{
+	/**
+	 * Extracts the bitmap of the given column from the transposed input,
+	 * where the column is given as a row of the transposed input.
+	 *
+	 * @param colIndex
+	 * @param tin transposed input (ncol x nrow, dense or sparse rows)
+	 * @return
+	 */
+	public static UncompressedBitmap extractBitmap( int colIndex, MatrixBlock tin )
+	{
+		//collect non-zero values and their row offsets
+		int len = 0;
+		int[] rows = null;
+		double[] vals = null;
+		if( tin.isEmptyBlock(false) ) {
+			rows = new int[0];
+			vals = new double[0];
+		}
+		else if( tin.isInSparseFormat() ) {
+			SparseRow[] a = tin.getSparseRows();
+			SparseRow arow = (colIndex < a.length) ? a[colIndex] : null;
+			if( arow != null && !arow.isEmpty() ) {
+				len = arow.size();
+				rows = Arrays.copyOf(arow.getIndexContainer(), len);
+				vals = Arrays.copyOf(arow.getValueContainer(), len);
+			}
+			else {
+				rows = new int[0];
+				vals = new double[0];
+			}
+		}
+		else {
+			final int m = tin.getNumColumns();
+			double[] a = tin.getDenseArray();
+			rows = new int[m];
+			vals = new double[m];
+			for( int i=0, aix=colIndex*m; i<m; i++, aix++ )
+				if( a[aix] != 0 ) {
+					rows[len] = i;
+					vals[len++] = a[aix];
+				}
+		}
+
+		//sort by value and group equal values
+		SortUtils.sortByValue(0, len, vals, rows);
+		int numVals = 0;
+		for( int i=0; i<len; i++ )
+			if( i==0 || vals[i] != vals[i-1] )
+				numVals++;
+
+		double[] values = new double[numVals];
+		int[][] offsets = new int[numVals][];
+		for( int i=0, k=0; i<len; k++ ) {
+			int start = i;
+			for( i++; i<len && vals[i]==vals[start]; i++ );
+			values[k] = vals[start];
+			offsets[k] = Arrays.copyOfRange(rows, start, i);
+			Arrays.sort(offsets[k]); //sorted row offsets
+		}
+
+		return new UncompressedBitmap(1, values, offsets);
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.compress;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Abstract base class for a column group of a compressed matrix block, i.e.,
+ * a set of columns that is encoded together over all rows. Column groups own
+ * disjoint sets of columns; the union of all column groups of a compressed
+ * block covers all its columns.
+ *
+ * All operations work on global row and column indexes, where the column
+ * indexes of a group are given by _colIndexes (sorted ascending).
+ */
+public abstract class ColGroup
+{
+	public enum CompressionType  {
+		UNCOMPRESSED,  //dense/sparse matrix block of the group columns
+		RLE_BITMAP,    //run-length encoded offset lists per distinct tuple
+		OLE_BITMAP,    //segmented offset lists per distinct tuple
+		DDC,           //dense dictionary coding (one code per row)
+	}
+
+	//global column indexes of this group (sorted)
+	protected int[] _colIndexes = null;
+
+	//number of rows of the entire compressed block
+	protected int _numRows = -1;
+
+	/**
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 */
+	protected ColGroup( int[] colIndices, int numRows )
+	{
+		_colIndexes = colIndices;
+		_numRows = numRows;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int[] getColIndices() {
+		return _colIndexes;
+	}
+
+	/**
+	 *
+	 * @param colpos
+	 * @return
+	 */
+	public int getColIndex( int colpos ) {
+		return _colIndexes[colpos];
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumCols() {
+		return _colIndexes.length;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumRows() {
+		return _numRows;
+	}
+
+	/**
+	 * Returns the position of the given global column index within this
+	 * group, or -1 if the column is not part of this group.
+	 *
+	 * @param col
+	 * @return
+	 */
+	protected int getColPos( int col )
+	{
+		for( int j=0; j<_colIndexes.length; j++ )
+			if( _colIndexes[j] == col )
+				return j;
+		return -1;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public abstract CompressionType getCompType();
+
+	/**
+	 * Returns the estimated in-memory size of this column group in bytes.
+	 *
+	 * @return
+	 */
+	public abstract long estimateInMemorySize();
+
+	/**
+	 * Returns the number of non-zero cells of this column group.
+	 *
+	 * @return
+	 */
+	public abstract long getNumberNonZeros();
+
+	/**
+	 *
+	 * @param r global row index
+	 * @param c global column index
+	 * @return
+	 */
+	public abstract double get( int r, int c );
+
+	/**
+	 * Decompresses this column group into the given dense target block
+	 * of the dimensions of the entire compressed block.
+	 *
+	 * @param target
+	 */
+	public abstract void decompressToBlock( MatrixBlock target );
+
+	/**
+	 * Decompresses the column at the given position of this group into the
+	 * given dense column vector of length numRows, which is expected to be
+	 * initialized with zeros.
+	 *
+	 * @param c
+	 * @param colpos
+	 */
+	public abstract void decompressToColumn( double[] c, int colpos );
+
+	/**
+	 * Multiplies this column group with the matching entries of the dense
+	 * vector b (of length ncol) and adds the result to the rows [rl,ru) of
+	 * the dense output vector c (of length nrow).
+	 *
+	 * @param b
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 */
+	public abstract void rightMultByVector( double[] b, double[] c, int rl, int ru );
+
+	/**
+	 * Multiplies the dense row vector a (of length nrow) with this column
+	 * group and writes the results into the group columns of the dense
+	 * output row vector c (of length ncol).
+	 *
+	 * @param a
+	 * @param c
+	 */
+	public abstract void leftMultByRowVector( double[] a, double[] c );
+
+	/**
+	 * Adds the sum of all cells to the given kahan buffer.
+	 *
+	 * @param kbuff
+	 * @param kplus
+	 */
+	public abstract void computeSum( KahanObject kbuff, KahanPlus kplus );
+
+	/**
+	 * Adds the row sums of this group to the dense output vector c
+	 * with kahan corrections cc (both of length nrow).
+	 *
+	 * @param kbuff
+	 * @param kplus
+	 * @param c
+	 * @param cc
+	 */
+	public abstract void computeRowSums( KahanObject kbuff, KahanPlus kplus, double[] c, double[] cc );
+
+	/**
+	 * Writes the column sums of this group into the group columns of
+	 * the dense output vector c (of length ncol).
+	 *
+	 * @param kbuff
+	 * @param kplus
+	 * @param c
+	 */
+	public abstract void computeColSums( KahanObject kbuff, KahanPlus kplus, double[] c );
+
+	/**
+	 * Returns the min or max (given by builtin) over all cells of this group.
+	 *
+	 * @param builtin
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public abstract double computeMxx( Builtin builtin )
+		throws DMLRuntimeException;
+
+	/**
+	 * Writes the column min or max (given by builtin) of this group into
+	 * the group columns of the dense output vector c (of length ncol).
+	 *
+	 * @param builtin
+	 * @param c
+	 * @throws DMLRuntimeException
+	 */
+	public abstract void computeColMxx( Builtin builtin, double[] c )
+		throws DMLRuntimeException;
+}
@@ -0,0 +1,175 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import java.util.Arrays;
+
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Column group with dense dictionary coding (DDC), which stores a 2-byte
+ * code per row that refers to the row's tuple in the dictionary. Rows of
+ * zeros are represented by an explicit zero tuple if necessary. This
+ * encoding is preferred for dense columns with few distinct values.
+ */
+public class ColGroupDDC extends ColGroupValue
+{
+	//maximum number of distinct tuples (incl zero tuple)
+	public static final int MAX_NUM_VALUES = Character.MAX_VALUE + 1;
+
+	//dictionary code per row
+	private char[] _data = null;
+
+	/**
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param values
+	 * @param data
+	 */
+	public ColGroupDDC( int[] colIndices, int numRows, double[] values, char[] data )
+	{
+		super(colIndices, numRows, values);
+		_data = data;
+	}
+
+	/**
+	 * Creates a DDC column group from the given bitmap of non-zero tuples
+	 * (with sorted offset lists), which appends a zero tuple to the
+	 * dictionary if some rows are not covered by the bitmap.
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param bitmap
+	 */
+	public ColGroupDDC( int[] colIndices, int numRows, UncompressedBitmap bitmap )
+	{
+		super(colIndices, numRows, null);
+
+		//create dictionary (incl optional zero tuple)
+		final int numCols = colIndices.length;
+		final int numVals = bitmap.getNumValues();
+		boolean zeros = (bitmap.getNumOffsets() < numRows);
+		_values = new double[(numVals + (zeros?1:0)) * numCols];
+		System.arraycopy(bitmap.getValues(), 0, _values, 0, numVals*numCols);
+
+		//create codes (with zero tuple as default)
+		_data = new char[numRows];
+		if( zeros )
+			Arrays.fill(_data, (char)numVals);
+		for( int k=0; k<numVals; k++ ) {
+			int[] off = bitmap.getOffsetsList(k);
+			for( int i=0; i<off.length; i++ )
+				_data[off[i]] = (char)k;
+		}
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.DDC;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _numRows);
+	}
+
+	/**
+	 *
+	 * @param ncol
+	 * @param nval number of tuples (incl zero tuple)
+	 * @param nrow
+	 * @return
+	 */
+	public static long estimateInMemorySize( int ncol, int nval, int nrow )
+	{
+		//object header, col indexes, dictionary, and codes
+		return 32 + (16 + 4L*ncol) + (16 + 8L*nval*ncol) + (16 + 2L*nrow);
+	}
+
+	@Override
+	public double get( int r, int c )
+	{
+		int colpos = getColPos(c);
+		return (colpos >= 0) ? _values[_data[r]*getNumCols()+colpos] : 0;
+	}
+
+	@Override
+	public void decompressToBlock( MatrixBlock target )
+	{
+		final int numCols = getNumCols();
+		final int n = target.getNumColumns();
+		double[] c = target.getDenseArray();
+		for( int i=0, cix=0; i<_numRows; i++, cix+=n ) {
+			int off = _data[i] * numCols;
+			for( int j=0; j<numCols; j++ )
+				c[cix+_colIndexes[j]] = _values[off+j];
+		}
+	}
+
+	@Override
+	public void decompressToColumn( double[] c, int colpos )
+	{
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			c[i] = _values[_data[i]*numCols+colpos];
+	}
+
+	@Override
+	public void rightMultByVector( double[] b, double[] c, int rl, int ru )
+	{
+		//pre-aggregate dictionary, then lookup per row
+		double[] vals = preaggregateValues(b);
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[_data[i]];
+	}
+
+	@Override
+	protected double[] preaggregateRowVector( double[] a )
+	{
+		double[] vals = new double[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			vals[_data[i]] += a[i];
+		return vals;
+	}
+
+	@Override
+	public void computeRowSums( KahanObject kbuff, KahanPlus kplus, double[] c, double[] cc )
+	{
+		double[] vals = sumAllValues();
+		for( int i=0; i<_numRows; i++ ) {
+			kbuff._sum = c[i];
+			kbuff._correction = cc[i];
+			kplus.execute2(kbuff, vals[_data[i]]);
+			c[i] = kbuff._sum;
+			cc[i] = kbuff._correction;
+		}
+	}
+
+	@Override
+	protected int[] computeCounts()
+	{
+		int[] counts = new int[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			counts[_data[i]]++;
+		return counts;
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Column group with offset-list encoding (OLE), which stores for each
+ * distinct non-zero tuple the sorted list of its row offsets. The rows are
+ * split into segments of BITMAP_BLOCK_SZ rows, which allows 2-byte offsets
+ * relative to the segment start. Per tuple, the data is a sequence of
+ * [len, off_1, ..., off_len] entries, one for each segment up to the last
+ * non-empty segment of this tuple.
+ */
+public class ColGroupOLE extends ColGroupValue
+{
+	//number of rows per segment (max segment length must fit into char)
+	public static final int BITMAP_BLOCK_SZ = Character.MAX_VALUE;
+
+	//start positions of each tuple's segments in _data
+	private int[] _ptr = null;
+
+	//segmented offset lists of all tuples
+	private char[] _data = null;
+
+	/**
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param bitmap
+	 */
+	public ColGroupOLE( int[] colIndices, int numRows, UncompressedBitmap bitmap )
+	{
+		super(colIndices, numRows, bitmap.getValues());
+
+		//encode offset lists per tuple into segments
+		final int numVals = bitmap.getNumValues();
+		char[][] lbitmaps = new char[numVals][];
+		_ptr = new int[numVals+1];
+		for( int k=0; k<numVals; k++ ) {
+			lbitmaps[k] = encodeOffsets(bitmap.getOffsetsList(k));
+			_ptr[k+1] = _ptr[k] + lbitmaps[k].length;
+		}
+
+		//concatenate encoded offset lists
+		_data = new char[_ptr[numVals]];
+		for( int k=0; k<numVals; k++ )
+			System.arraycopy(lbitmaps[k], 0, _data, _ptr[k], lbitmaps[k].length);
+	}
+
+	/**
+	 * Encodes a sorted list of row offsets into segments.
+	 *
+	 * @param offsets
+	 * @return
+	 */
+	private static char[] encodeOffsets( int[] offsets )
+	{
+		if( offsets.length == 0 )
+			return new char[0];
+
+		int numSegs = offsets[offsets.length-1] / BITMAP_BLOCK_SZ + 1;
+		char[] ret = new char[numSegs + offsets.length];
+		for( int s=0, pos=0, opos=0; s<numSegs; s++ ) {
+			int segStart = s * BITMAP_BLOCK_SZ;
+			int segEnd = segStart + BITMAP_BLOCK_SZ;
+			int lpos = opos++;
+			int len = 0;
+			for( ; pos<offsets.length && offsets[pos]<segEnd; pos++, len++ )
+				ret[opos++] = (char)(offsets[pos] - segStart);
+			ret[lpos] = (char)len;
+		}
+		return ret;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.OLE_BITMAP;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _data.length);
+	}
+
+	/**
+	 *
+	 * @param ncol
+	 * @param nval
+	 * @param len total length of segmented offset lists
+	 * @return
+	 */
+	public static long estimateInMemorySize( int ncol, int nval, long len )
+	{
+		//object header, col indexes, dictionary, pointers, and offsets
+		return 32 + (16 + 4L*ncol) + (16 + 8L*nval*ncol) + (16 + 4L*(nval+1)) + (16 + 2L*len);
+	}
+
+	@Override
+	public double get( int r, int c )
+	{
+		int colpos = getColPos(c);
+		if( colpos < 0 )
+			return 0;
+
+		//search the segment of row r in all offset lists
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		final int seg = r / BITMAP_BLOCK_SZ;
+		final char roff = (char)(r % BITMAP_BLOCK_SZ);
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			int bix = 0;
+			for( int s=0; s<seg && bix<blen; s++ )
+				bix += _data[boff+bix] + 1;
+			if( bix >= blen )
+				continue;
+			int slen = _data[boff+bix];
+			for( int i=1; i<=slen && _data[boff+bix+i]<=roff; i++ )
+				if( _data[boff+bix+i] == roff )
+					return _values[k*numCols+colpos];
+		}
+		return 0;
+	}
+
+	@Override
+	public void decompressToBlock( MatrixBlock target )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		final int n = target.getNumColumns();
+		double[] c = target.getDenseArray();
+
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=BITMAP_BLOCK_SZ ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ ) {
+					int cix = (off + _data[boff+bix+i]) * n;
+					for( int j=0; j<numCols; j++ )
+						c[cix+_colIndexes[j]] = _values[valOff+j];
+				}
+			}
+		}
+	}
+
+	@Override
+	public void decompressToColumn( double[] c, int colpos )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = _values[k*numCols+colpos];
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=BITMAP_BLOCK_SZ ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ )
+					c[off + _data[boff+bix+i]] = val;
+			}
+		}
+	}
+
+	@Override
+	public void rightMultByVector( double[] b, double[] c, int rl, int ru )
+	{
+		final int numVals = getNumValues();
+		double[] vals = preaggregateValues(b);
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+
+			//skip segments before rl
+			int bix = 0, off = 0;
+			for( ; bix<blen && off+BITMAP_BLOCK_SZ<=rl; off+=BITMAP_BLOCK_SZ )
+				bix += _data[boff+bix] + 1;
+
+			//scatter tuple value into output rows [rl,ru)
+			for( ; bix<blen && off<ru; bix+=_data[boff+bix]+1, off+=BITMAP_BLOCK_SZ ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ ) {
+					int row = off + _data[boff+bix+i];
+					if( row >= rl && row < ru )
+						c[row] += val;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected double[] preaggregateRowVector( double[] a )
+	{
+		final int numVals = getNumValues();
+		double[] vals = new double[numVals];
+
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			double val = 0;
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=BITMAP_BLOCK_SZ ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ )
+					val += a[off + _data[boff+bix+i]];
+			}
+			vals[k] = val;
+		}
+		return vals;
+	}
+
+	@Override
+	public void computeRowSums( KahanObject kbuff, KahanPlus kplus, double[] c, double[] cc )
+	{
+		final int numVals = getNumValues();
+		double[] vals = sumAllValues();
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			for( int bix=0, off=0; bix<blen; bix+=_data[boff+bix]+1, off+=BITMAP_BLOCK_SZ ) {
+				int slen = _data[boff+bix];
+				for( int i=1; i<=slen; i++ ) {
+					int row = off + _data[boff+bix+i];
+					kbuff._sum = c[row];
+					kbuff._correction = cc[row];
+					kplus.execute2(kbuff, val);
+					c[row] = kbuff._sum;
+					cc[row] = kbuff._correction;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected int[] computeCounts()
+	{
+		final int numVals = getNumValues();
+		int[] counts = new int[numVals];
+		for( int k=0; k<numVals; k++ ) {
+			int boff = _ptr[k];
+			int blen = _ptr[k+1] - boff;
+			//offset list length minus segment headers
+			int nseg = 0;
+			for( int bix=0; bix<blen; bix+=_data[boff+bix]+1 )
+				nseg++;
+			counts[k] = blen - nseg;
+		}
+		return counts;
+	}
+}
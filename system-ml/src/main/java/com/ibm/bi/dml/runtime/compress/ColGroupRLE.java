@@ -0,0 +1,241 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import java.util.Arrays;
+
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Column group with run-length encoding (RLE), which stores for each
+ * distinct non-zero tuple the sorted list of its runs of consecutive rows
+ * as [start, length] pairs. This encoding is preferred for columns with
+ * few distinct values that appear in long runs (e.g., sorted data).
+ */
+public class ColGroupRLE extends ColGroupValue
+{
+	//start positions of each tuple's runs in _data
+	private int[] _ptr = null;
+
+	//run lists of all tuples, as [start, length] pairs
+	private int[] _data = null;
+
+	/**
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param bitmap
+	 */
+	public ColGroupRLE( int[] colIndices, int numRows, UncompressedBitmap bitmap )
+	{
+		super(colIndices, numRows, bitmap.getValues());
+
+		//encode offset lists per tuple into runs
+		final int numVals = bitmap.getNumValues();
+		int[][] lruns = new int[numVals][];
+		_ptr = new int[numVals+1];
+		for( int k=0; k<numVals; k++ ) {
+			lruns[k] = encodeRuns(bitmap.getOffsetsList(k));
+			_ptr[k+1] = _ptr[k] + lruns[k].length;
+		}
+
+		//concatenate encoded run lists
+		_data = new int[_ptr[numVals]];
+		for( int k=0; k<numVals; k++ )
+			System.arraycopy(lruns[k], 0, _data, _ptr[k], lruns[k].length);
+	}
+
+	/**
+	 * Encodes a sorted list of row offsets into [start, length] runs.
+	 *
+	 * @param offsets
+	 * @return
+	 */
+	private static int[] encodeRuns( int[] offsets )
+	{
+		int numRuns = countRuns(offsets, offsets.length);
+		int[] ret = new int[2*numRuns];
+		for( int i=0, pos=0; i<offsets.length; pos+=2 ) {
+			int start = offsets[i++];
+			int len = 1;
+			for( ; i<offsets.length && offsets[i]==start+len; i++ )
+				len++;
+			ret[pos] = start;
+			ret[pos+1] = len;
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the number of runs in the first len entries of the
+	 * given sorted list of row offsets.
+	 *
+	 * @param offsets
+	 * @param len
+	 * @return
+	 */
+	public static int countRuns( int[] offsets, int len )
+	{
+		int numRuns = (len > 0) ? 1 : 0;
+		for( int i=1; i<len; i++ )
+			if( offsets[i] != offsets[i-1]+1 )
+				numRuns++;
+		return numRuns;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.RLE_BITMAP;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _data.length/2);
+	}
+
+	/**
+	 *
+	 * @param ncol
+	 * @param nval
+	 * @param nruns total number of runs
+	 * @return
+	 */
+	public static long estimateInMemorySize( int ncol, int nval, long nruns )
+	{
+		//object header, col indexes, dictionary, pointers, and runs
+		return 32 + (16 + 4L*ncol) + (16 + 8L*nval*ncol) + (16 + 4L*(nval+1)) + (16 + 8L*nruns);
+	}
+
+	@Override
+	public double get( int r, int c )
+	{
+		int colpos = getColPos(c);
+		if( colpos < 0 )
+			return 0;
+
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ )
+			for( int bix=_ptr[k]; bix<_ptr[k+1] && _data[bix]<=r; bix+=2 )
+				if( r < _data[bix]+_data[bix+1] )
+					return _values[k*numCols+colpos];
+		return 0;
+	}
+
+	@Override
+	public void decompressToBlock( MatrixBlock target )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		final int n = target.getNumColumns();
+		double[] c = target.getDenseArray();
+
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int bix=_ptr[k]; bix<_ptr[k+1]; bix+=2 ) {
+				int rend = _data[bix] + _data[bix+1];
+				for( int i=_data[bix], cix=_data[bix]*n; i<rend; i++, cix+=n )
+					for( int j=0; j<numCols; j++ )
+						c[cix+_colIndexes[j]] = _values[valOff+j];
+			}
+	}
+
+	@Override
+	public void decompressToColumn( double[] c, int colpos )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = _values[k*numCols+colpos];
+			for( int bix=_ptr[k]; bix<_ptr[k+1]; bix+=2 )
+				Arrays.fill(c, _data[bix], _data[bix]+_data[bix+1], val);
+		}
+	}
+
+	@Override
+	public void rightMultByVector( double[] b, double[] c, int rl, int ru )
+	{
+		final int numVals = getNumValues();
+		double[] vals = preaggregateValues(b);
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			//scatter tuple value into runs within [rl,ru)
+			for( int bix=_ptr[k]; bix<_ptr[k+1] && _data[bix]<ru; bix+=2 ) {
+				int rend = Math.min(_data[bix]+_data[bix+1], ru);
+				for( int i=Math.max(_data[bix], rl); i<rend; i++ )
+					c[i] += val;
+			}
+		}
+	}
+
+	@Override
+	protected double[] preaggregateRowVector( double[] a )
+	{
+		final int numVals = getNumValues();
+		double[] vals = new double[numVals];
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = 0;
+			for( int bix=_ptr[k]; bix<_ptr[k+1]; bix+=2 ) {
+				int rend = _data[bix] + _data[bix+1];
+				for( int i=_data[bix]; i<rend; i++ )
+					val += a[i];
+			}
+			vals[k] = val;
+		}
+		return vals;
+	}
+
+	@Override
+	public void computeRowSums( KahanObject kbuff, KahanPlus kplus, double[] c, double[] cc )
+	{
+		final int numVals = getNumValues();
+		double[] vals = sumAllValues();
+
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			for( int bix=_ptr[k]; bix<_ptr[k+1]; bix+=2 ) {
+				int rend = _data[bix] + _data[bix+1];
+				for( int i=_data[bix]; i<rend; i++ ) {
+					kbuff._sum = c[i];
+					kbuff._correction = cc[i];
+					kplus.execute2(kbuff, val);
+					c[i] = kbuff._sum;
+					cc[i] = kbuff._correction;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected int[] computeCounts()
+	{
+		final int numVals = getNumValues();
+		int[] counts = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			for( int bix=_ptr[k]; bix<_ptr[k+1]; bix+=2 )
+				counts[k] += _data[bix+1];
+		return counts;
+	}
+}
@@ -0,0 +1,327 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+
+/**
+ * Column group for all columns that do not compress well, which keeps the
+ * group columns as a regular (dense or sparse) matrix block of numRows x
+ * numCols.
+ */
+public class ColGroupUncompressed extends ColGroup
+{
+	//uncompressed data of the group columns
+	private MatrixBlock _data = null;
+
+	/**
+	 * Creates an uncompressed column group from the given columns of the
+	 * transposed input block (i.e., rows of the transposed input).
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param tin transposed input (ncol x nrow, dense or sparse rows)
+	 * @throws DMLRuntimeException
+	 */
+	public ColGroupUncompressed( int[] colIndices, int numRows, MatrixBlock tin )
+		throws DMLRuntimeException
+	{
+		super(colIndices, numRows);
+
+		//copy group columns into a dense block
+		final int numCols = colIndices.length;
+		_data = new MatrixBlock(numRows, numCols, false);
+		_data.allocateDenseBlock();
+		double[] c = _data.getDenseArray();
+		if( !tin.isEmptyBlock(false) ) {
+			if( tin.isInSparseFormat() ) {
+				SparseRow[] a = tin.getSparseRows();
+				for( int j=0; j<numCols; j++ ) {
+					SparseRow arow = (colIndices[j] < a.length) ? a[colIndices[j]] : null;
+					if( arow == null || arow.isEmpty() )
+						continue;
+					int alen = arow.size();
+					int[] aix = arow.getIndexContainer();
+					double[] avals = arow.getValueContainer();
+					for( int i=0; i<alen; i++ )
+						c[aix[i]*numCols+j] = avals[i];
+				}
+			}
+			else {
+				double[] a = tin.getDenseArray();
+				for( int j=0; j<numCols; j++ )
+					for( int i=0, aix=colIndices[j]*numRows; i<numRows; i++ )
+						c[i*numCols+j] = a[aix+i];
+			}
+		}
+
+		//compact representation (dense or sparse)
+		_data.recomputeNonZeros();
+		_data.examSparsity();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public MatrixBlock getData() {
+		return _data;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.UNCOMPRESSED;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return 32 + (16 + 4L*getNumCols()) + _data.estimateSizeInMemory();
+	}
+
+	@Override
+	public long getNumberNonZeros() {
+		return _data.getNonZeros();
+	}
+
+	@Override
+	public double get( int r, int c )
+	{
+		int colpos = getColPos(c);
+		return (colpos >= 0) ? _data.quickGetValue(r, colpos) : 0;
+	}
+
+	@Override
+	public void decompressToBlock( MatrixBlock target )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+
+		final int numCols = getNumCols();
+		final int n = target.getNumColumns();
+		double[] c = target.getDenseArray();
+		if( _data.isInSparseFormat() ) {
+			SparseRow[] a = _data.getSparseRows();
+			for( int i=0; i<Math.min(_numRows, a.length); i++ ) {
+				if( a[i] == null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				for( int j=0; j<alen; j++ )
+					c[i*n+_colIndexes[aix[j]]] = avals[j];
+			}
+		}
+		else {
+			double[] a = _data.getDenseArray();
+			for( int i=0, aix=0, cix=0; i<_numRows; i++, aix+=numCols, cix+=n )
+				for( int j=0; j<numCols; j++ )
+					c[cix+_colIndexes[j]] = a[aix+j];
+		}
+	}
+
+	@Override
+	public void decompressToColumn( double[] c, int colpos )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+		for( int i=0; i<_numRows; i++ )
+			c[i] = _data.quickGetValue(i, colpos);
+	}
+
+	@Override
+	public void rightMultByVector( double[] b, double[] c, int rl, int ru )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+
+		final int numCols = getNumCols();
+		if( _data.isInSparseFormat() ) {
+			SparseRow[] a = _data.getSparseRows();
+			for( int i=rl; i<Math.min(ru, a.length); i++ ) {
+				if( a[i] == null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				double val = 0;
+				for( int j=0; j<alen; j++ )
+					val += avals[j] * b[_colIndexes[aix[j]]];
+				c[i] += val;
+			}
+		}
+		else {
+			double[] a = _data.getDenseArray();
+			for( int i=rl, aix=rl*numCols; i<ru; i++, aix+=numCols ) {
+				double val = 0;
+				for( int j=0; j<numCols; j++ )
+					val += a[aix+j] * b[_colIndexes[j]];
+				c[i] += val;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector( double[] a, double[] c )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+
+		final int numCols = getNumCols();
+		double[] tmp = new double[numCols];
+		if( _data.isInSparseFormat() ) {
+			SparseRow[] b = _data.getSparseRows();
+			for( int i=0; i<Math.min(_numRows, b.length); i++ ) {
+				if( b[i] == null || b[i].isEmpty() || a[i] == 0 )
+					continue;
+				int blen = b[i].size();
+				int[] bix = b[i].getIndexContainer();
+				double[] bvals = b[i].getValueContainer();
+				for( int j=0; j<blen; j++ )
+					tmp[bix[j]] += a[i] * bvals[j];
+			}
+		}
+		else {
+			double[] b = _data.getDenseArray();
+			for( int i=0, bix=0; i<_numRows; i++, bix+=numCols ) {
+				double aval = a[i];
+				if( aval != 0 )
+					for( int j=0; j<numCols; j++ )
+						tmp[j] += aval * b[bix+j];
+			}
+		}
+
+		//scatter group results into output
+		for( int j=0; j<numCols; j++ )
+			c[_colIndexes[j]] += tmp[j];
+	}
+
+	@Override
+	public void computeSum( KahanObject kbuff, KahanPlus kplus )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+
+		if( _data.isInSparseFormat() ) {
+			SparseRow[] a = _data.getSparseRows();
+			for( int i=0; i<Math.min(_numRows, a.length); i++ ) {
+				if( a[i] == null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				double[] avals = a[i].getValueContainer();
+				for( int j=0; j<alen; j++ )
+					kplus.execute2(kbuff, avals[j]);
+			}
+		}
+		else {
+			double[] a = _data.getDenseArray();
+			for( int i=0; i<_numRows*getNumCols(); i++ )
+				kplus.execute2(kbuff, a[i]);
+		}
+	}
+
+	@Override
+	public void computeRowSums( KahanObject kbuff, KahanPlus kplus, double[] c, double[] cc )
+	{
+		if( _data.isEmptyBlock(false) )
+			return;
+
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ ) {
+			kbuff._sum = c[i];
+			kbuff._correction = cc[i];
+			if( _data.isInSparseFormat() ) {
+				SparseRow arow = (i < _data.getSparseRows().length) ? _data.getSparseRows()[i] : null;
+				if( arow != null && !arow.isEmpty() ) {
+					int alen = arow.size();
+					double[] avals = arow.getValueContainer();
+					for( int j=0; j<alen; j++ )
+						kplus.execute2(kbuff, avals[j]);
+				}
+			}
+			else {
+				double[] a = _data.getDenseArray();
+				for( int j=0, aix=i*numCols; j<numCols; j++ )
+					kplus.execute2(kbuff, a[aix+j]);
+			}
+			c[i] = kbuff._sum;
+			cc[i] = kbuff._correction;
+		}
+	}
+
+	@Override
+	public void computeColSums( KahanObject kbuff, KahanPlus kplus, double[] c )
+	{
+		final int numCols = getNumCols();
+		for( int j=0; j<numCols; j++ ) {
+			kbuff._sum = 0;
+			kbuff._correction = 0;
+			if( !_data.isEmptyBlock(false) )
+				for( int i=0; i<_numRows; i++ )
+					kplus.execute2(kbuff, _data.quickGetValue(i, j));
+			c[_colIndexes[j]] = kbuff._sum;
+		}
+	}
+
+	@Override
+	public double computeMxx( Builtin builtin )
+		throws DMLRuntimeException
+	{
+		//init with implicit zeros or first value
+		boolean zeros = _data.getNonZeros() < (long)_numRows * getNumCols();
+		double ret = zeros ? 0 : _data.quickGetValue(0, 0);
+		if( _data.isEmptyBlock(false) )
+			return ret;
+
+		if( _data.isInSparseFormat() ) {
+			SparseRow[] a = _data.getSparseRows();
+			for( int i=0; i<Math.min(_numRows, a.length); i++ ) {
+				if( a[i] == null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				double[] avals = a[i].getValueContainer();
+				for( int j=0; j<alen; j++ )
+					ret = builtin.execute(ret, avals[j]);
+			}
+		}
+		else {
+			double[] a = _data.getDenseArray();
+			for( int i=0; i<_numRows*getNumCols(); i++ )
+				ret = builtin.execute(ret, a[i]);
+		}
+		return ret;
+	}
+
+	@Override
+	public void computeColMxx( Builtin builtin, double[] c )
+		throws DMLRuntimeException
+	{
+		final int numCols = getNumCols();
+		for( int j=0; j<numCols; j++ ) {
+			double val = _data.quickGetValue(0, j);
+			for( int i=1; i<_numRows; i++ )
+				val = builtin.execute(val, _data.quickGetValue(i, j));
+			c[_colIndexes[j]] = val;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.compress;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+
+/**
+ * Base class for column groups that encode their columns with a dictionary
+ * of distinct value tuples (linearized as numValues x numCols). All
+ * aggregates that only depend on the tuple frequencies are computed over
+ * the dictionary instead of the individual rows.
+ */
+public abstract class ColGroupValue extends ColGroup
+{
+	//linearized dictionary of distinct value tuples
+	protected double[] _values = null;
+
+	//cached number of rows per tuple (lazily computed)
+	private int[] _counts = null;
+
+	/**
+	 *
+	 * @param colIndices
+	 * @param numRows
+	 * @param values
+	 */
+	protected ColGroupValue( int[] colIndices, int numRows, double[] values )
+	{
+		super(colIndices, numRows);
+		_values = values;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumValues() {
+		return _values.length / _colIndexes.length;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public double[] getValues() {
+		return _values;
+	}
+
+	/**
+	 * Returns the number of rows per distinct tuple.
+	 *
+	 * @return
+	 */
+	public int[] getCounts()
+	{
+		int[] counts = _counts;
+		if( counts == null ) {
+			counts = computeCounts();
+			_counts = counts;
+		}
+		return counts;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	protected abstract int[] computeCounts();
+
+	/**
+	 * Returns the sums of the given dense row vector a over the rows of
+	 * each distinct tuple.
+	 *
+	 * @param a
+	 * @return
+	 */
+	protected abstract double[] preaggregateRowVector( double[] a );
+
+	/**
+	 * Returns true if some rows are not covered by any tuple, i.e., if
+	 * the group contains implicit zero rows.
+	 *
+	 * @return
+	 */
+	protected boolean containsZeroRows()
+	{
+		int[] counts = getCounts();
+		long sum = 0;
+		for( int k=0; k<counts.length; k++ )
+			sum += counts[k];
+		return (sum < _numRows);
+	}
+
+	/**
+	 * Returns the dot products of all tuples with the matching entries of
+	 * the dense vector b.
+	 *
+	 * @param b
+	 * @return
+	 */
+	protected double[] preaggregateValues( double[] b )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		double[] ret = new double[numVals];
+		for( int k=0, off=0; k<numVals; k++, off+=numCols ) {
+			double val = 0;
+			for( int j=0; j<numCols; j++ )
+				val += _values[off+j] * b[_colIndexes[j]];
+			ret[k] = val;
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the sums of all tuples.
+	 *
+	 * @return
+	 */
+	protected double[] sumAllValues()
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		double[] ret = new double[numVals];
+		for( int k=0, off=0; k<numVals; k++, off+=numCols ) {
+			double val = 0;
+			for( int j=0; j<numCols; j++ )
+				val += _values[off+j];
+			ret[k] = val;
+		}
+		return ret;
+	}
+
+	@Override
+	public long getNumberNonZeros()
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		int[] counts = getCounts();
+		long nnz = 0;
+		for( int k=0, off=0; k<numVals; k++, off+=numCols ) {
+			int lnnz = 0;
+			for( int j=0; j<numCols; j++ )
+				lnnz += (_values[off+j] != 0) ? 1 : 0;
+			nnz += (long)lnnz * counts[k];
+		}
+		return nnz;
+	}
+
+	@Override
+	public void leftMultByRowVector( double[] a, double[] c )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		double[] vals = preaggregateRowVector(a);
+
+		//multiply the aggregated vector with the dictionary
+		for( int k=0, off=0; k<numVals; k++, off+=numCols ) {
+			double aval = vals[k];
+			if( aval != 0 )
+				for( int j=0; j<numCols; j++ )
+					c[_colIndexes[j]] += aval * _values[off+j];
+		}
+	}
+
+	@Override
+	public void computeSum( KahanObject kbuff, KahanPlus kplus )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		int[] counts = getCounts();
+		for( int k=0, off=0; k<numVals; k++, off+=numCols )
+			for( int j=0; j<numCols; j++ )
+				kplus.execute2(kbuff, counts[k] * _values[off+j]);
+	}
+
+	@Override
+	public void computeColSums( KahanObject kbuff, KahanPlus kplus, double[] c )
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		int[] counts = getCounts();
+		for( int j=0; j<numCols; j++ ) {
+			kbuff._sum = 0;
+			kbuff._correction = 0;
+			for( int k=0, off=0; k<numVals; k++, off+=numCols )
+				kplus.execute2(kbuff, counts[k] * _values[off+j]);
+			c[_colIndexes[j]] = kbuff._sum;
+		}
+	}
+
+	@Override
+	public double computeMxx( Builtin builtin )
+		throws DMLRuntimeException
+	{
+		//init with implicit zero rows or first value
+		double ret = containsZeroRows() || _values.length==0 ? 0 : _values[0];
+		for( int i=0; i<_values.length; i++ )
+			ret = builtin.execute(ret, _values[i]);
+		return ret;
+	}
+
+	@Override
+	public void computeColMxx( Builtin builtin, double[] c )
+		throws DMLRuntimeException
+	{
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		boolean zeros = containsZeroRows();
+		for( int j=0; j<numCols; j++ ) {
+			double val = zeros || numVals==0 ? 0 : _values[j];
+			for( int k=0, off=0; k<numVals; k++, off+=numCols )
+				val = builtin.execute(val, _values[off+j]);
+			c[_colIndexes[j]] = val;
+		}
+	}
+}
@@ -0,0 +1,851 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import com.ibm.bi.dml.lops.MMTSJ.MMTSJType;
+import com.ibm.bi.dml.lops.MapMultChain.ChainType;
+import com.ibm.bi.dml.lops.PartialAggregate.CorrectionLocationType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.compress.ColGroup.CompressionType;
+import com.ibm.bi.dml.runtime.compress.CompressedSizeEstimator.CompressedSizeInfo;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin.BuiltinFunctionCode;
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.functionobjects.ReduceAll;
+import com.ibm.bi.dml.runtime.functionobjects.ReduceCol;
+import com.ibm.bi.dml.runtime.functionobjects.ReduceRow;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixReorg;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateBinaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+
+/**
+ * Compressed representation of a read-only matrix block, which encodes its
+ * columns as a list of column groups (DDC, OLE, RLE, or uncompressed). The
+ * encoding of each column is selected by sample-based size estimates, and
+ * columns that do not compress well are kept in a single uncompressed group.
+ *
+ * Compressed blocks directly support matrix-vector, vector-matrix, mmchain,
+ * tsmm (left), and the unary aggregates sum, rowSums, colSums, min, max,
+ * colMins, and colMaxs. All other operations require a decompressed copy
+ * (see decompress), which is why compressed blocks are only handed out by
+ * the buffer pool to operations that explicitly request them.
+ *
+ * A compressed matrix block that has been deserialized is represented in
+ * uncompressed form (i.e., by the fields of MatrixBlock), in which case all
+ * operations simply delegate to MatrixBlock.
+ */
+public class CompressedMatrixBlock extends MatrixBlock
+{
+	private static final long serialVersionUID = 1351963404386316449L;
+
+	//seed for reproducible sampling during compression planning
+	private static final long SAMPLE_SEED = 7;
+
+	//minimum number of rows per task for multi-threaded matrix-vector
+	private static final int MIN_PAR_ROWS = ColGroupOLE.BITMAP_BLOCK_SZ;
+
+	//column groups (null if in uncompressed form)
+	private ArrayList<ColGroup> _colGroups = null;
+
+	public CompressedMatrixBlock()
+	{
+		super();
+	}
+
+	/**
+	 *
+	 * @param rl
+	 * @param cl
+	 * @param colGroups
+	 */
+	private CompressedMatrixBlock( int rl, int cl, ArrayList<ColGroup> colGroups )
+	{
+		super(rl, cl, false);
+		_colGroups = colGroups;
+		recomputeNonZeros();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public boolean isCompressed() {
+		return (_colGroups != null);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public ArrayList<ColGroup> getColGroups() {
+		return _colGroups;
+	}
+
+	/**
+	 * Indicates if the given matrix value is a compressed matrix block
+	 * in compressed form.
+	 *
+	 * @param mv
+	 * @return
+	 */
+	public static boolean isCompressedBlock( MatrixValue mv ) {
+		return (mv instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)mv).isCompressed());
+	}
+
+	////////
+	// Compression and decompression
+	//
+
+	/**
+	 * Compresses the given matrix block if the estimated compressed size is
+	 * smaller than its in-memory size, otherwise the input is returned.
+	 *
+	 * @param in
+	 * @param k degree of parallelism
+	 * @return compressed matrix block or input block
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock compress( MatrixBlock in, int k )
+		throws DMLRuntimeException
+	{
+		//early abort for empty or already compressed inputs
+		if( in instanceof CompressedMatrixBlock || in.isEmptyBlock(false) )
+			return in;
+
+		final int m = in.getNumRows();
+		final int n = in.getNumColumns();
+
+		//transpose input for column-wise access to all rows
+		MatrixBlock tin = LibMatrixReorg.transpose(in, new MatrixBlock(n, m, in.isInSparseFormat()));
+		tin.csrToSparse();
+
+		//phase 1: sample-based selection of column encodings
+		CompressedSizeEstimator estim = new CompressedSizeEstimator(tin, SAMPLE_SEED);
+		CompressionType[] types = new CompressionType[n];
+		long estSize = 0;
+		for( int j=0; j<n; j++ ) {
+			CompressedSizeInfo info = estim.estimateCompressedColGroupSize(j);
+			types[j] = info.getBestCompressionType();
+			estSize += info.getMinSize();
+		}
+		if( estSize >= in.estimateSizeInMemory() )
+			return in;
+
+		//phase 2: encoding of compressible columns (single-column groups)
+		ArrayList<ColGroup> colGroups = new ArrayList<ColGroup>();
+		try {
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<CompressTask> tasks = new ArrayList<CompressTask>();
+			int blklen = (int)(Math.ceil((double)n/k));
+			for( int i=0; i<k & i*blklen<n; i++ )
+				tasks.add(new CompressTask(tin, types, i*blklen, Math.min((i+1)*blklen, n)));
+			if( tasks.size() > 1 ) {
+				List<Future<ArrayList<ColGroup>>> rtasks = ComputeThreadPool.invokeAll(tasks);
+				for( Future<ArrayList<ColGroup>> rtask : rtasks )
+					colGroups.addAll(rtask.get());
+			}
+			else
+				colGroups.addAll(tasks.get(0).call());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+
+		//collect remaining columns into a single uncompressed group
+		int numUnc = 0;
+		for( int j=0; j<n; j++ )
+			numUnc += (types[j] == CompressionType.UNCOMPRESSED) ? 1 : 0;
+		if( numUnc > 0 ) {
+			int[] colIndices = new int[numUnc];
+			for( int j=0, pos=0; j<n; j++ )
+				if( types[j] == CompressionType.UNCOMPRESSED )
+					colIndices[pos++] = j;
+			colGroups.add(new ColGroupUncompressed(colIndices, m, tin));
+		}
+
+		//check actual compressed size (fall back to input)
+		CompressedMatrixBlock ret = new CompressedMatrixBlock(m, n, colGroups);
+		if( ret.estimateSizeInMemory() >= in.estimateSizeInMemory() )
+			return in;
+
+		return ret;
+	}
+
+	/**
+	 * Encodes the given column into a column group of the given type.
+	 *
+	 * @param colIndex
+	 * @param tin
+	 * @param type
+	 * @return
+	 */
+	private static ColGroup compressColumn( int colIndex, MatrixBlock tin, CompressionType type )
+	{
+		final int m = tin.getNumColumns();
+		int[] colIndices = new int[]{colIndex};
+		UncompressedBitmap bitmap = BitmapEncoder.extractBitmap(colIndex, tin);
+
+		//fall back from DDC to OLE if the sample underestimated the number of values
+		if( type == CompressionType.DDC && bitmap.getNumValues() >= ColGroupDDC.MAX_NUM_VALUES )
+			type = CompressionType.OLE_BITMAP;
+
+		switch( type ) {
+			case DDC:        return new ColGroupDDC(colIndices, m, bitmap);
+			case RLE_BITMAP: return new ColGroupRLE(colIndices, m, bitmap);
+			default:         return new ColGroupOLE(colIndices, m, bitmap);
+		}
+	}
+
+	/**
+	 * Decompresses this block into a regular dense or sparse matrix block.
+	 *
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock decompress()
+		throws DMLRuntimeException
+	{
+		//nothing to do if in uncompressed form
+		if( !isCompressed() )
+			return this;
+
+		//decompress all column groups into a dense block
+		MatrixBlock ret = new MatrixBlock(rlen, clen, false, nonZeros);
+		ret.allocateDenseBlock();
+		for( ColGroup grp : _colGroups )
+			grp.decompressToBlock(ret);
+
+		//compact representation (dense or sparse)
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	////////
+	// Basic meta data and value access
+	//
+
+	@Override
+	public boolean isAllocated() {
+		return isCompressed() || super.isAllocated();
+	}
+
+	@Override
+	public boolean isEmptyBlock( boolean safe ) {
+		if( !isCompressed() )
+			return super.isEmptyBlock(safe);
+		return (nonZeros == 0);
+	}
+
+	@Override
+	public void recomputeNonZeros()
+	{
+		if( !isCompressed() ) {
+			super.recomputeNonZeros();
+			return;
+		}
+
+		long nnz = 0;
+		for( ColGroup grp : _colGroups )
+			nnz += grp.getNumberNonZeros();
+		nonZeros = nnz;
+	}
+
+	@Override
+	public long estimateSizeInMemory()
+	{
+		if( !isCompressed() )
+			return super.estimateSizeInMemory();
+
+		//basic header and all column groups
+		long size = 80 + 16 + 8L*_colGroups.size();
+		for( ColGroup grp : _colGroups )
+			size += grp.estimateInMemorySize();
+		return size;
+	}
+
+	@Override
+	public double getValue( int r, int c )
+	{
+		if( !isCompressed() )
+			return super.getValue(r, c);
+		if( r >= rlen || c >= clen )
+			throw new RuntimeException("indexes ("+r+","+c+") out of range ("+rlen+","+clen+")");
+		return quickGetValue(r, c);
+	}
+
+	@Override
+	public double quickGetValue( int r, int c )
+	{
+		if( !isCompressed() )
+			return super.quickGetValue(r, c);
+
+		for( ColGroup grp : _colGroups )
+			if( grp.getColPos(c) >= 0 )
+				return grp.get(r, c);
+		return 0;
+	}
+
+	////////
+	// Serialization (in decompressed form)
+	//
+
+	@Override
+	public void write( DataOutput out )
+		throws IOException
+	{
+		if( !isCompressed() ) {
+			super.write(out);
+			return;
+		}
+
+		try {
+			decompress().write(out);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	@Override
+	public void writeExternal( ObjectOutput os )
+		throws IOException
+	{
+		if( !isCompressed() ) {
+			super.writeExternal(os);
+			return;
+		}
+
+		try {
+			decompress().writeExternal(os);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	@Override
+	public long getExactSizeOnDisk()
+	{
+		if( !isCompressed() )
+			return super.getExactSizeOnDisk();
+
+		try {
+			return decompress().getExactSizeOnDisk();
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		if( !isCompressed() )
+			return super.toString();
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("compressed: "+rlen+"x"+clen+", nnz="+nonZeros+", groups=[");
+		for( int i=0; i<_colGroups.size(); i++ ) {
+			ColGroup grp = _colGroups.get(i);
+			sb.append((i>0) ? ", " : "");
+			sb.append(grp.getCompType()+Arrays.toString(grp.getColIndices()));
+		}
+		sb.append("]");
+		return sb.toString();
+	}
+
+	////////
+	// Compressed operations
+	//
+
+	@Override
+	public MatrixBlock chainMatrixMultOperations( MatrixBlock v, MatrixBlock w, MatrixBlock out, ChainType ctype, int k )
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		if( !isCompressed() )
+			return super.chainMatrixMultOperations(v, w, out, ctype, k);
+
+		//check for transpose type
+		if( !(ctype == ChainType.XtXv || ctype == ChainType.XtwXv) )
+			throw new DMLRuntimeException("Invalid mmchain type '"+ctype.toString()+"'.");
+
+		//check for matching dimensions
+		if( this.getNumColumns() != v.getNumRows() )
+			throw new DMLRuntimeException("Dimensions mismatch on mmchain operation ("+this.getNumColumns()+" != "+v.getNumRows()+")");
+		if( v!=null && v.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid input vector (column vector expected, but ncol="+v.getNumColumns()+")");
+		if( w!=null && w.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid weight vector (column vector expected, but ncol="+w.getNumColumns()+")");
+
+		//prepare result
+		if( out != null )
+			out.reset(clen, 1, false);
+		else
+			out = new MatrixBlock(clen, 1, false);
+
+		//compute tmp = X %*% v, optionally weighted with w
+		double[] tmp = new double[rlen];
+		rightMultByVector(DataConverter.convertToDoubleVector(v), tmp, k);
+		if( ctype == ChainType.XtwXv ) {
+			double[] wvect = DataConverter.convertToDoubleVector(w);
+			for( int i=0; i<rlen; i++ )
+				tmp[i] *= wvect[i];
+		}
+
+		//compute t(X) %*% tmp as t(t(tmp) %*% X)
+		out.allocateDenseBlock();
+		leftMultByRowVector(tmp, out.getDenseArray(), k);
+		out.recomputeNonZeros();
+
+		return out;
+	}
+
+	@Override
+	public MatrixBlock transposeSelfMatrixMultOperations( MatrixBlock out, MMTSJType tstype, int k )
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		if( !isCompressed() )
+			return super.transposeSelfMatrixMultOperations(out, tstype, k);
+
+		//right transpose self (X %*% t(X)) over decompressed block
+		if( tstype == MMTSJType.RIGHT )
+			return decompress().transposeSelfMatrixMultOperations(out, tstype, k);
+		if( tstype != MMTSJType.LEFT )
+			throw new DMLRuntimeException("Invalid MMTSJ type '"+tstype.toString()+"'.");
+
+		//create output matrix block
+		if( out == null )
+			out = new MatrixBlock(clen, clen, false);
+		else
+			out.reset(clen, clen, false);
+		out.allocateDenseBlock();
+
+		//compute upper triangular row by row, i.e., t(X[,j]) %*% X[,j:n]
+		//(round-robin assignment of rows due to triangular work)
+		try {
+			k = (clen > 1) ? ComputeThreadPool.getMaxParallelism(Math.min(k, clen)) : 1;
+			ArrayList<TsmmTask> tasks = new ArrayList<TsmmTask>();
+			for( int i=0; i<k; i++ )
+				tasks.add(new TsmmTask(this, out.getDenseArray(), i, k));
+			if( k > 1 ) {
+				for( Future<Object> rtask : ComputeThreadPool.invokeAll(tasks) )
+					rtask.get(); //error handling
+			}
+			else
+				tasks.get(0).call();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+
+		//copy upper triangular into lower triangular
+		double[] c = out.getDenseArray();
+		for( int i=0; i<clen; i++ )
+			for( int j=i+1; j<clen; j++ )
+				c[j*clen+i] = c[i*clen+j];
+
+		out.recomputeNonZeros();
+		out.examSparsity();
+		return out;
+	}
+
+	@Override
+	public MatrixValue aggregateBinaryOperations( MatrixValue m1Value, MatrixValue m2Value, MatrixValue result, AggregateBinaryOperator op )
+		throws DMLUnsupportedOperationException, DMLRuntimeException
+	{
+		MatrixBlock m1 = (MatrixBlock) m1Value;
+		MatrixBlock m2 = (MatrixBlock) m2Value;
+		boolean cm1 = isCompressedBlock(m1);
+		boolean cm2 = isCompressedBlock(m2);
+
+		//default matrix mult over uncompressed blocks
+		if( !cm1 && !cm2 )
+			return super.aggregateBinaryOperations(m1, m2, result, op);
+
+		if( m1.getNumColumns() != m2.getNumRows() ) {
+			throw new RuntimeException("Dimensions do not match for matrix multiplication ("+m1.getNumColumns()+"!="+m2.getNumRows()+").");
+		}
+		int k = op.getNumThreads();
+
+		//matrix-vector multiplication over compressed lhs
+		if( cm1 && !cm2 && m2.getNumColumns() == 1 ) {
+			MatrixBlock ret = prepareOutput(result, m1.getNumRows(), 1);
+			((CompressedMatrixBlock)m1).rightMultByVector(
+					DataConverter.convertToDoubleVector(m2), ret.getDenseArray(), k);
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return ret;
+		}
+
+		//vector-matrix multiplication over compressed rhs
+		if( !cm1 && cm2 && m1.getNumRows() == 1 ) {
+			MatrixBlock ret = prepareOutput(result, 1, m2.getNumColumns());
+			((CompressedMatrixBlock)m2).leftMultByRowVector(
+					DataConverter.convertToDoubleVector(m1), ret.getDenseArray(), k);
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return ret;
+		}
+
+		//all other cases over decompressed inputs
+		MatrixBlock m1d = cm1 ? ((CompressedMatrixBlock)m1).decompress() : m1;
+		MatrixBlock m2d = cm2 ? ((CompressedMatrixBlock)m2).decompress() : m2;
+		return m1d.aggregateBinaryOperations(m1d, m2d, result, op);
+	}
+
+	@Override
+	public MatrixValue aggregateUnaryOperations( AggregateUnaryOperator op, MatrixValue result,
+			int blockingFactorRow, int blockingFactorCol, MatrixIndexes indexesIn, boolean inCP )
+		throws DMLUnsupportedOperationException, DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.aggregateUnaryOperations(op, result, blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+
+		//unsupported aggregates over decompressed block
+		if( !inCP || !isSupportedUnaryAggregate(op) )
+			return decompress().aggregateUnaryOperations(op, result, blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+
+		if( op.aggOp.increOp.fn instanceof KahanPlus )
+		{
+			KahanObject kbuff = new KahanObject(0, 0);
+			KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+			if( op.indexFn instanceof ReduceAll ) { //SUM
+				for( ColGroup grp : _colGroups )
+					grp.computeSum(kbuff, kplus);
+				MatrixBlock ret = prepareOutput(result, 1, 1);
+				ret.getDenseArray()[0] = kbuff._sum;
+				ret.recomputeNonZeros();
+				return ret;
+			}
+			else if( op.indexFn instanceof ReduceCol ) { //ROWSUMS
+				MatrixBlock ret = prepareOutput(result, rlen, 1);
+				double[] cc = new double[rlen];
+				for( ColGroup grp : _colGroups )
+					grp.computeRowSums(kbuff, kplus, ret.getDenseArray(), cc);
+				ret.recomputeNonZeros();
+				ret.examSparsity();
+				return ret;
+			}
+			else { //COLSUMS
+				MatrixBlock ret = prepareOutput(result, 1, clen);
+				for( ColGroup grp : _colGroups )
+					grp.computeColSums(kbuff, kplus, ret.getDenseArray());
+				ret.recomputeNonZeros();
+				ret.examSparsity();
+				return ret;
+			}
+		}
+		else
+		{
+			Builtin builtin = (Builtin) op.aggOp.increOp.fn;
+			if( op.indexFn instanceof ReduceAll ) { //MIN/MAX
+				double val = _colGroups.get(0).computeMxx(builtin);
+				for( int i=1; i<_colGroups.size(); i++ )
+					val = builtin.execute(val, _colGroups.get(i).computeMxx(builtin));
+				MatrixBlock ret = prepareOutput(result, 1, 1);
+				ret.getDenseArray()[0] = val;
+				ret.recomputeNonZeros();
+				return ret;
+			}
+			else { //COLMINS/COLMAXS
+				MatrixBlock ret = prepareOutput(result, 1, clen);
+				for( ColGroup grp : _colGroups )
+					grp.computeColMxx(builtin, ret.getDenseArray());
+				ret.recomputeNonZeros();
+				ret.examSparsity();
+				return ret;
+			}
+		}
+	}
+
+	/**
+	 * Indicates if the given unary aggregate is directly supported over
+	 * compressed blocks: sum, rowSums, colSums, min, max, colMins, colMaxs.
+	 *
+	 * @param op
+	 * @return
+	 */
+	private static boolean isSupportedUnaryAggregate( AggregateUnaryOperator op )
+	{
+		//(kahan) sum, rowSums, colSums
+		if( op.aggOp.increOp.fn instanceof KahanPlus
+			&& (op.aggOp.correctionLocation == CorrectionLocationType.LASTCOLUMN || op.aggOp.correctionLocation == CorrectionLocationType.LASTROW)
+			&& (op.indexFn instanceof ReduceAll || op.indexFn instanceof ReduceCol || op.indexFn instanceof ReduceRow) )
+		{
+			return true;
+		}
+
+		//min, max, colMins, colMaxs
+		if( op.aggOp.increOp.fn instanceof Builtin
+			&& (op.indexFn instanceof ReduceAll || op.indexFn instanceof ReduceRow) )
+		{
+			BuiltinFunctionCode bfcode = ((Builtin)op.aggOp.increOp.fn).bFunc;
+			return (bfcode == BuiltinFunctionCode.MAX || bfcode == BuiltinFunctionCode.MIN);
+		}
+
+		return false;
+	}
+
+	/**
+	 *
+	 * @param result
+	 * @param rows
+	 * @param cols
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock prepareOutput( MatrixValue result, int rows, int cols )
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = (MatrixBlock) result;
+		if( ret == null )
+			ret = new MatrixBlock(rows, cols, false);
+		else
+			ret.reset(rows, cols, false);
+		ret.allocateDenseBlock();
+		return ret;
+	}
+
+	/**
+	 * Multi-threaded matrix-vector multiplication c = X %*% b over row
+	 * partitions (aligned with OLE segments).
+	 *
+	 * @param b dense vector of length ncol
+	 * @param c dense output vector of length nrow
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private void rightMultByVector( double[] b, double[] c, int k )
+		throws DMLRuntimeException
+	{
+		//sequential execution for small inputs
+		if( k <= 1 || rlen <= MIN_PAR_ROWS ) {
+			for( ColGroup grp : _colGroups )
+				grp.rightMultByVector(b, c, 0, rlen);
+			return;
+		}
+
+		try {
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<RightMultByVectorTask> tasks = new ArrayList<RightMultByVectorTask>();
+			int blklen = (int)(Math.ceil((double)rlen/k));
+			blklen += (blklen % MIN_PAR_ROWS != 0) ? MIN_PAR_ROWS - blklen % MIN_PAR_ROWS : 0;
+			for( int i=0; i<k & i*blklen<rlen; i++ )
+				tasks.add(new RightMultByVectorTask(_colGroups, b, c, i*blklen, Math.min((i+1)*blklen, rlen)));
+			for( Future<Object> rtask : ComputeThreadPool.invokeAll(tasks) )
+				rtask.get(); //error handling
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Multi-threaded vector-matrix multiplication c = t(a) %*% X over
+	 * partitions of column groups (disjoint output columns).
+	 *
+	 * @param a dense vector of length nrow
+	 * @param c dense output vector of length ncol
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private void leftMultByRowVector( double[] a, double[] c, int k )
+		throws DMLRuntimeException
+	{
+		//sequential execution for few column groups
+		if( k <= 1 || _colGroups.size() <= 1 ) {
+			for( ColGroup grp : _colGroups )
+				grp.leftMultByRowVector(a, c);
+			return;
+		}
+
+		try {
+			k = ComputeThreadPool.getMaxParallelism(Math.min(k, _colGroups.size()));
+			ArrayList<LeftMultByVectorTask> tasks = new ArrayList<LeftMultByVectorTask>();
+			for( int i=0; i<k; i++ )
+				tasks.add(new LeftMultByVectorTask(_colGroups, a, c, i, k));
+			for( Future<Object> rtask : ComputeThreadPool.invokeAll(tasks) )
+				rtask.get(); //error handling
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+
+	/////////////////////////////////////////////////////////
+	// Task Implementations for Multi-Threaded Operations  //
+	/////////////////////////////////////////////////////////
+
+	/**
+	 *
+	 *
+	 */
+	private static class CompressTask implements Callable<ArrayList<ColGroup>>
+	{
+		private MatrixBlock _tin = null;
+		private CompressionType[] _types = null;
+		private int _cl = -1;
+		private int _cu = -1;
+
+		protected CompressTask( MatrixBlock tin, CompressionType[] types, int cl, int cu )
+		{
+			_tin = tin;
+			_types = types;
+			_cl = cl;
+			_cu = cu;
+		}
+
+		@Override
+		public ArrayList<ColGroup> call() throws DMLRuntimeException
+		{
+			ArrayList<ColGroup> ret = new ArrayList<ColGroup>();
+			for( int j=_cl; j<_cu; j++ )
+				if( _types[j] != CompressionType.UNCOMPRESSED )
+					ret.add(compressColumn(j, _tin, _types[j]));
+			return ret;
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class RightMultByVectorTask implements Callable<Object>
+	{
+		private ArrayList<ColGroup> _groups = null;
+		private double[] _b = null;
+		private double[] _c = null;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected RightMultByVectorTask( ArrayList<ColGroup> groups, double[] b, double[] c, int rl, int ru )
+		{
+			_groups = groups;
+			_b = b;
+			_c = c;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public Object call() throws DMLRuntimeException
+		{
+			for( ColGroup grp : _groups )
+				grp.rightMultByVector(_b, _c, _rl, _ru);
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class LeftMultByVectorTask implements Callable<Object>
+	{
+		private ArrayList<ColGroup> _groups = null;
+		private double[] _a = null;
+		private double[] _c = null;
+		private int _off = -1;
+		private int _incr = -1;
+
+		protected LeftMultByVectorTask( ArrayList<ColGroup> groups, double[] a, double[] c, int off, int incr )
+		{
+			_groups = groups;
+			_a = a;
+			_c = c;
+			_off = off;
+			_incr = incr;
+		}
+
+		@Override
+		public Object call() throws DMLRuntimeException
+		{
+			//round-robin assignment of column groups
+			for( int i=_off; i<_groups.size(); i+=_incr )
+				_groups.get(i).leftMultByRowVector(_a, _c);
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class TsmmTask implements Callable<Object>
+	{
+		private CompressedMatrixBlock _in = null;
+		private double[] _c = null;
+		private int _off = -1;
+		private int _incr = -1;
+
+		protected TsmmTask( CompressedMatrixBlock in, double[] c, int off, int incr )
+		{
+			_in = in;
+			_c = c;
+			_off = off;
+			_incr = incr;
+		}
+
+		@Override
+		public Object call() throws DMLRuntimeException
+		{
+			final int m = _in.rlen;
+			final int n = _in.clen;
+			double[] col = new double[m];
+			double[] row = new double[n];
+
+			//round-robin assignment of output rows (columns of X)
+			for( ColGroup grp : _in._colGroups )
+				for( int j=0; j<grp.getNumCols(); j++ ) {
+					int cix = grp.getColIndex(j);
+					if( cix % _incr != _off )
+						continue;
+
+					//decompress column and compute upper row
+					Arrays.fill(col, 0);
+					Arrays.fill(row, 0);
+					grp.decompressToColumn(col, j);
+					for( ColGroup grp2 : _in._colGroups )
+						if( grp2.getColIndex(grp2.getNumCols()-1) >= cix )
+							grp2.leftMultByRowVector(col, row);
+					System.arraycopy(row, cix, _c, cix*n+cix, n-cix);
+				}
+			return null;
+		}
+	}
+}
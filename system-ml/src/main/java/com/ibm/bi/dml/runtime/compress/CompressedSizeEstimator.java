@@ -0,0 +1,184 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import com.ibm.bi.dml.runtime.compress.ColGroup.CompressionType;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Sample-based estimator of the compressed sizes of single columns, which
+ * is used to select the column group encoding per column before the actual
+ * (and more expensive) encoding. We draw a uniform sample of rows and
+ * extrapolate the number of non-zeros, the number of distinct values
+ * (first-order jackknife estimator), and the number of runs. Note that the
+ * number of runs is overestimated on samples (conservative for RLE).
+ */
+public class CompressedSizeEstimator
+{
+	//sample fraction and minimum sample size
+	public static final double SAMPLE_FRACTION = 0.05;
+	public static final int MIN_SAMPLE_SIZE = 2000;
+
+	//transposed input (ncol x nrow)
+	private MatrixBlock _tin = null;
+	private int _numRows = -1;
+
+	//sorted sample of row indexes
+	private int[] _sampleRows = null;
+
+	/**
+	 *
+	 * @param tin transposed input (ncol x nrow, dense or sparse rows)
+	 * @param seed
+	 */
+	public CompressedSizeEstimator( MatrixBlock tin, long seed )
+	{
+		_tin = tin;
+		_numRows = tin.getNumColumns();
+
+		//draw a sorted uniform sample w/o replacement (selection sampling)
+		int m = _numRows;
+		int s = (int) Math.min(m, Math.max(MIN_SAMPLE_SIZE, Math.ceil(SAMPLE_FRACTION*m)));
+		_sampleRows = new int[s];
+		Random rand = new Random(seed);
+		for( int i=0, pos=0; i<m && pos<s; i++ )
+			if( (m-i) * rand.nextDouble() < s-pos )
+				_sampleRows[pos++] = i;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getSampleSize() {
+		return _sampleRows.length;
+	}
+
+	/**
+	 * Estimates the sizes of all column group encodings for the given column.
+	 *
+	 * @param colIndex
+	 * @return
+	 */
+	public CompressedSizeInfo estimateCompressedColGroupSize( int colIndex )
+	{
+		final int m = _numRows;
+		final int s = _sampleRows.length;
+
+		//collect sample statistics (nnz, value frequencies, runs)
+		HashMap<Double, Integer> freq = new HashMap<Double, Integer>();
+		int nnz = 0, runs = 0;
+		double last = 0;
+		for( int i=0; i<s; i++ ) {
+			double val = _tin.quickGetValue(colIndex, _sampleRows[i]);
+			if( val != 0 ) {
+				Integer cnt = freq.get(val);
+				freq.put(val, (cnt!=null) ? cnt+1 : 1);
+				nnz++;
+				if( i==0 || val != last )
+					runs++;
+			}
+			last = val;
+		}
+		int d = freq.size();
+		int f1 = 0;
+		for( Integer cnt : freq.values() )
+			f1 += (cnt==1) ? 1 : 0;
+
+		//extrapolate statistics to all rows
+		double q = (double)s / m;
+		long estNnz = Math.round(nnz / q);
+		long estRuns = Math.min(Math.round(runs / q), estNnz);
+		long estDistinct = d;
+		if( s < m && d > 0 ) {
+			double denom = 1 - (1-q) * f1 / s;
+			estDistinct = (denom > 0) ? Math.round(d / denom) : estNnz;
+			estDistinct = Math.max(d, Math.min(estDistinct, estNnz));
+		}
+
+		return new CompressedSizeInfo(m, estNnz, (int)Math.min(estDistinct, Integer.MAX_VALUE), estRuns);
+	}
+
+	/**
+	 * Estimated sizes of all column group encodings of a single column.
+	 */
+	public static class CompressedSizeInfo
+	{
+		private long _ddcSize = -1;
+		private long _oleSize = -1;
+		private long _rleSize = -1;
+		private long _uncSize = -1;
+
+		/**
+		 *
+		 * @param nrow
+		 * @param nnz
+		 * @param nval number of distinct non-zero values
+		 * @param nruns
+		 */
+		public CompressedSizeInfo( int nrow, long nnz, int nval, long nruns )
+		{
+			long numSegs = (nrow + ColGroupOLE.BITMAP_BLOCK_SZ - 1) / ColGroupOLE.BITMAP_BLOCK_SZ;
+			int ddcVals = nval + ((nnz < nrow) ? 1 : 0);
+			_ddcSize = (ddcVals <= ColGroupDDC.MAX_NUM_VALUES) ?
+					ColGroupDDC.estimateInMemorySize(1, ddcVals, nrow) : Long.MAX_VALUE;
+			_oleSize = ColGroupOLE.estimateInMemorySize(1, nval, nnz + nval*numSegs);
+			_rleSize = ColGroupRLE.estimateInMemorySize(1, nval, nruns);
+			_uncSize = MatrixBlock.estimateSizeInMemory(nrow, 1, (double)nnz/nrow);
+		}
+
+		/**
+		 *
+		 * @return
+		 */
+		public long getUncompressedSize() {
+			return _uncSize;
+		}
+
+		/**
+		 * Returns the minimum estimated size over all encodings.
+		 *
+		 * @return
+		 */
+		public long getMinSize() {
+			return Math.min(Math.min(_ddcSize, _oleSize), Math.min(_rleSize, _uncSize));
+		}
+
+		/**
+		 * Returns the encoding with minimum estimated size.
+		 *
+		 * @return
+		 */
+		public CompressionType getBestCompressionType()
+		{
+			long min = getMinSize();
+			if( min == _uncSize )
+				return CompressionType.UNCOMPRESSED;
+			else if( min == _ddcSize )
+				return CompressionType.DDC;
+			else if( min == _oleSize )
+				return CompressionType.OLE_BITMAP;
+			else
+				return CompressionType.RLE_BITMAP;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.compress;
+
+/**
+ * Uncompressed representation of a column group as bitmaps, i.e., a sorted
+ * list of row offsets for each distinct non-zero tuple. This is the common
+ * intermediate for constructing the compressed column group encodings.
+ */
+public class UncompressedBitmap
+{
+	private int _numCols = -1;
+
+	//linearized distinct non-zero tuples (numValues x numCols)
+	private double[] _values = null;
+
+	//sorted row offsets per distinct tuple
+	private int[][] _offsetsLists = null;
+
+	/**
+	 *
+	 * @param numCols
+	 * @param values
+	 * @param offsetsLists
+	 */
+	public UncompressedBitmap( int numCols, double[] values, int[][] offsetsLists )
+	{
+		_numCols = numCols;
+		_values = values;
+		_offsetsLists = offsetsLists;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumColumns() {
+		return _numCols;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumValues() {
+		return _offsetsLists.length;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public double[] getValues() {
+		return _values;
+	}
+
+	/**
+	 *
+	 * @param ix
+	 * @return
+	 */
+	public int[] getOffsetsList( int ix ) {
+		return _offsetsLists[ix];
+	}
+
+	/**
+	 * Returns the total number of row offsets, i.e., the number of
+	 * rows with non-zero tuples.
+	 *
+	 * @return
+	 */
+	public long getNumOffsets()
+	{
+		long ret = 0;
+		for( int[] off : _offsetsLists )
+			ret += off.length;
+		return ret;
+	}
+}
@@ -25,6 +25,7 @@ import com.ibm.bi.dml.runtime.instructions.cp.Data;
 import com.ibm.bi.dml.runtime.instructions.spark.data.LineageObject;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.StringTokenizer;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -33,6 +34,12 @@ import java.util.Set;
  * Replaces <code>HashMap&lang;String, Data&rang;</code> as the table of
  * variable names and references.  No longer supports global consistency.
  * 
+ * The number of references per data object (by identity) is maintained on 
+ * put and remove, which makes reference checks on variable cleanup O(1) 
+ * instead of a scan over all variables. Since data objects are shared 
+ * across symbol tables (e.g., function calls, parfor workers) which are 
+ * discarded without cleanup, the counts are local to this symbol table.
+ * 
  */
 public class LocalVariableMap implements Cloneable
 {
@@ -42,11 +49,13 @@ public class LocalVariableMap implements Cloneable
 	private static IDSequence _seq = new IDSequence();
 	
 	private HashMap <String, Data> localMap = null;
+	private IdentityHashMap <Data, Integer> refCounts = null;
 	private final long localID;
 	
 	public LocalVariableMap()
 	{
 		localMap = new HashMap <String, Data>();
+		refCounts = new IdentityHashMap <Data, Integer>();
 		localID = _seq.getNextID();
 	}
 	
@@ -79,7 +88,11 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public void put(String name, Data val)
 	{
-		localMap.put( name, val );
+		Data old = localMap.put( name, val );
+		if( old != val ) {
+			incrementReferences( val );
+			decrementReferences( old );
+		}
 	}
 
 	/**
@@ -90,7 +103,8 @@ public class LocalVariableMap implements Cloneable
 	{
 		if( vars == this || vars == null )
 			return;
-		localMap.putAll (vars.localMap);
+		for( Entry<String, Data> e : vars.localMap.entrySet() )
+			put( e.getKey(), e.getValue() );
 	}
 	
 	/**
@@ -99,7 +113,9 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public Data remove( String name )
 	{
-		return localMap.remove( name );
+		Data old = localMap.remove( name );
+		decrementReferences( old );
+		return old;
 	}
 	
 	/**
@@ -108,6 +124,7 @@ public class LocalVariableMap implements Cloneable
 	public void removeAll()
 	{
 		localMap.clear();
+		refCounts.clear();
 	}
 	
 	/**
@@ -117,7 +134,7 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public boolean hasReferences( Data d )
 	{
-		return localMap.containsValue(d);
+		return refCounts.containsKey(d);
 	}
 
 	/**
@@ -127,7 +144,8 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public boolean hasReferences( LineageObject bo )
 	{
-		for( Data tmpdat : localMap.values() ) 
+		//probe distinct data objects only
+		for( Data tmpdat : refCounts.keySet() ) 
 			if ( tmpdat instanceof MatrixObject ) {
 				MatrixObject mo = (MatrixObject)tmpdat; 
 				if( mo.getBroadcastHandle()==bo || mo.getRDDHandle()==bo )
@@ -147,13 +165,8 @@ public class LocalVariableMap implements Cloneable
 		if ( d == null )
 			return 0;
 		
-		int refCount = 0;		
-		for( Data tmpdat : localMap.values() ) 
-			if ( tmpdat == d ) 
-				if( ++refCount > 1 && earlyAbort )
-					return refCount;
-	
-		return refCount;		
+		Integer refCount = refCounts.get(d);
+		return (refCount != null) ? refCount : 0;
 	}
 	
 	/**
@@ -198,6 +211,33 @@ public class LocalVariableMap implements Cloneable
 		return vars;		
 	}
 
+	/**
+	 * 
+	 * @param d
+	 */
+	private void incrementReferences( Data d )
+	{
+		if( d == null )
+			return;
+		Integer refCount = refCounts.get(d);
+		refCounts.put(d, (refCount != null) ? refCount + 1 : 1);
+	}
+	
+	/**
+	 * 
+	 * @param d
+	 */
+	private void decrementReferences( Data d )
+	{
+		if( d == null )
+			return;
+		Integer refCount = refCounts.get(d);
+		if( refCount == null || refCount <= 1 )
+			refCounts.remove(d);
+		else
+			refCounts.put(d, refCount - 1);
+	}
+	
 	@Override
 	public String toString()
 	{
@@ -99,6 +99,7 @@ import com.ibm.bi.dml.runtime.instructions.cp.IntObject;
 import com.ibm.bi.dml.runtime.instructions.cp.StringObject;
 import com.ibm.bi.dml.runtime.instructions.cp.VariableCPInstruction;
 import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 import com.ibm.bi.dml.utils.Statistics;
 import com.ibm.bi.dml.yarn.ropt.YarnClusterAnalyzer;
 
@@ -208,6 +209,7 @@ public class ParForProgramBlock extends ForProgramBlock
 	public static final boolean USE_PB_CACHE                = false; // reuse copied program blocks whenever possible, not there can be issues related to recompile
 	public static       boolean USE_RANGE_TASKS_IF_USEFUL   = true;   	// use range tasks whenever size>3, false, otherwise wrong split order in remote 
 	public static final boolean USE_STREAMING_TASK_CREATION = true;  	// start working while still creating tasks, prevents blocking due to too small task queue
+	public static       boolean USE_WORK_STEALING_TASK_QUEUE = true;  // local parfor w/ fixed-size task partitioners: lock-free per-worker iteration ranges w/ work stealing instead of shared task queue 
 	public static final boolean ALLOW_NESTED_PARALLELISM	= true;    // if not, transparently change parfor to for on program conversions (local,remote)
 	public static       boolean ALLOW_REUSE_MR_JVMS         = true;    // potential benefits: less setup costs per task, NOTE> cannot be used MR4490 in Hadoop 1.0.3, still not fixed in 1.1.1
 	public static       boolean ALLOW_REUSE_MR_PAR_WORKER   = ALLOW_REUSE_MR_JVMS; //potential benefits: less initialization, reuse in-memory objects and result consolidation!
@@ -680,16 +682,25 @@ public class ParForProgramBlock extends ForProgramBlock
 		if( _enableRuntimePiggybacking )
 			RuntimePiggybacking.start( _numThreads ); //default piggybacking worker
 		
+		//restrict parallelism of multi-threaded operations to remaining cores
+		ComputeThreadPool.beginNestedParallelism( _numThreads );
+		
 		try
 		{
 			// Step 1) init parallel workers, task queue and threads
-			LocalTaskQueue<Task> queue = new LocalTaskQueue<Task>();
+			//(work-stealing queue w/ implicit range tasks for fixed-size task partitioners)
+			TaskPartitioner partitioner = createTaskPartitioner(from, to, incr);
+			boolean workStealing = USE_WORK_STEALING_TASK_QUEUE 
+					&& partitioner instanceof TaskPartitionerFixedsize;
+			LocalTaskQueue<Task> queue = workStealing ? 
+					((TaskPartitionerFixedsize)partitioner).createTaskQueue(_numThreads) : 
+					new LocalTaskQueue<Task>();
 			Thread[] threads         = new Thread[_numThreads];
 			LocalParWorker[] workers = new LocalParWorker[_numThreads];
 			for( int i=0; i<_numThreads; i++ )
 			{
 				//create parallel workers as (lazy) deep copies
-				workers[i] = createParallelWorker( _pwIDs[i], queue, ec ); 
+				workers[i] = createParallelWorker( _pwIDs[i], queue, i, ec ); 
 				threads[i] = new Thread( workers[i] );
 				threads[i].setPriority(Thread.MAX_PRIORITY); 
 			}
@@ -706,10 +717,13 @@ public class ParForProgramBlock extends ForProgramBlock
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_INIT_PARWRK_T, tinit);
 			
 			// Step 2) create tasks 
-			TaskPartitioner partitioner = createTaskPartitioner(from, to, incr);
 			long numIterations = partitioner.getNumIterations();
 			long numCreatedTasks = -1;
-			if( USE_STREAMING_TASK_CREATION )
+			if( workStealing )
+			{
+				//tasks are created on demand by the parworkers (number known after join)
+			}
+			else if( USE_STREAMING_TASK_CREATION )
 			{
 				//put tasks into queue (parworker start work on first tasks while creating tasks) 
 				numCreatedTasks = partitioner.createTasks(queue);		
@@ -746,6 +760,8 @@ public class ParForProgramBlock extends ForProgramBlock
 				numExecutedTasks += workers[i].getExecutedTasks();
 				numExecutedIterations += workers[i].getExecutedIterations();			
 			}
+			if( workStealing )
+				numCreatedTasks = numExecutedTasks;
 			//consolidate results into global symbol table
 			consolidateAndCheckResults( ec, numIterations, numCreatedTasks, numExecutedIterations, numExecutedTasks, 
 					                    localVariables );
@@ -771,6 +787,9 @@ public class ParForProgramBlock extends ForProgramBlock
 			if( _enableRuntimePiggybacking )
 				RuntimePiggybacking.stop();
 			
+			//release nested parallelism budget
+			ComputeThreadPool.endNestedParallelism( _numThreads );
+			
 			if( _monitor )  {
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_WAIT_RESULTS_T, time.stop());
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_NUMTASKS, numExecutedTasks);
@@ -1322,6 +1341,7 @@ public class ParForProgramBlock extends ForProgramBlock
 	 * 
 	 * @param pwID
 	 * @param queue
+	 * @param queueIx
 	 * @param ec
 	 * @return
 	 * @throws InstantiationException
@@ -1330,7 +1350,7 @@ public class ParForProgramBlock extends ForProgramBlock
 	 * @throws DMLRuntimeException
 	 * @throws CloneNotSupportedException
 	 */
-	private LocalParWorker createParallelWorker(long pwID, LocalTaskQueue<Task> queue, ExecutionContext ec) 
+	private LocalParWorker createParallelWorker(long pwID, LocalTaskQueue<Task> queue, int queueIx, ExecutionContext ec) 
 		throws DMLRuntimeException
 	{
 		LocalParWorker pw = null; 
@@ -1363,7 +1383,7 @@ public class ParForProgramBlock extends ForProgramBlock
 			
 			//create the actual parallel worker
 			ParForBody body = new ParForBody( cpChildBlocks, _resultVars, cpEc );
-			pw = new LocalParWorker( pwID, queue, body, MAX_RETRYS_ON_ERROR, _monitor );
+			pw = new LocalParWorker( pwID, queue, queueIx, body, MAX_RETRYS_ON_ERROR, _monitor );
 			pw.setFunctionNames(fnNames);
 		}
 		catch(Exception ex)
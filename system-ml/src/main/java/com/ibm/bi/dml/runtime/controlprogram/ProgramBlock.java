@@ -220,6 +220,10 @@ public class ProgramBlock
 			//indexed access required due to dynamic add
 			Instruction currInst = inst.get(i);
 			
+			//prefetch evicted inputs of next instruction (overlap with compute)
+			if( i+1 < inst.size() )
+				ec.prefetchInputs(inst.get(i+1));
+			
 			//execute instruction
 			ec.updateDebugState(i);
 			executeSingleInstruction(currInst, ec);
@@ -0,0 +1,407 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+
+/**
+ * Memory-accounted buffer pool of in-memory data blobs of cacheable data objects.
+ * 
+ * Every cached blob above the caching threshold is registered with its exact 
+ * in-memory size. Blobs are pinned (not evictable) while acquired for read or 
+ * modify and become evictable on their final release. If the total size of 
+ * registered blobs exceeds the configured budget, unpinned blobs are explicitly 
+ * evicted (written to the local write buffer or FS if required) according to 
+ * the configured eviction policy. 
+ * 
+ * NOTE: The pool meta data is lock-free (concurrent map of entries, atomic size,
+ * clock approximation of LRU) because pin/unpin are called on every acquire and
+ * release of concurrent workers. All updates of a single entry happen under the 
+ * lock of its cache object; concurrent evictions claim a victim via its atomic 
+ * evictable flag. Eviction is always triggered outside the lock of the requesting 
+ * cache object, and the victim re-checks its status under its own lock.
+ * 
+ * Entries only weakly reference their cache objects. Unreachable cache objects
+ * (e.g., intermediates removed from all symbol tables w/o cleanup) are released 
+ * together with their blobs on garbage collection, and their entries are purged 
+ * before eviction.
+ */
+public class BufferPool 
+{
+	public enum EvictionPolicy {
+		LRU,      //least recently used (clock approximation)
+		COST,     //greedy dual size (restore cost per byte, aged by recency)
+		LFU,      //least frequently used (number of pins since registration, i.e., 
+		          //historical acquires instead of live references), lru for ties
+	}
+	
+	//assumed local restore characteristics for cost-aware eviction 
+	private static final double IO_LATENCY = 0.001;   //in sec
+	private static final double IO_BANDWIDTH = 200e6; //in bytes/sec
+	
+	//global size limit in bytes and eviction policy
+	private static long _limit;
+	private static EvictionPolicy _policy;
+	
+	//current size of registered blobs in bytes
+	private static final AtomicLong _size = new AtomicLong(0);
+	
+	//registered (pinned or unpinned) blobs, and clock ring of evictable 
+	//blobs for LRU (each entry at most once, pinned entries are dropped)
+	private static ConcurrentHashMap<Integer, PoolEntry> _entries;
+	private static ConcurrentLinkedQueue<PoolEntry> _clock;
+	
+	//queue of entries whose cache objects have been garbage collected
+	private static ReferenceQueue<CacheableData> _purged;
+	
+	//logical time of unpins for lru tie breaks
+	private static final AtomicLong _time = new AtomicLong(0);
+	
+	//inflation value of greedy dual size (priority of last victim)
+	private static volatile double _inflation;
+	
+	static 
+	{
+		init();
+	}
+	
+	/**
+	 * Initializes the buffer pool with budget and eviction policy of 
+	 * the current configuration.
+	 */
+	public static void init()
+	{
+		double fraction = OptimizerUtils.MEM_UTIL_FACTOR;
+		EvictionPolicy policy = EvictionPolicy.LRU;
+		DMLConfig conf = ConfigurationManager.getConfig();
+		if( conf != null ) {
+			fraction = Double.parseDouble(conf.getTextValue(DMLConfig.CP_BUFFERPOOL_SIZE));
+			policy = EvictionPolicy.valueOf(conf.getTextValue(DMLConfig.CP_BUFFERPOOL_POLICY).toUpperCase());
+		}
+		
+		init((long)(fraction * InfrastructureAnalyzer.getLocalMaxMemory()), policy);
+	}
+	
+	/**
+	 * 
+	 * @param limit
+	 * @param policy
+	 */
+	public static void init( long limit, EvictionPolicy policy )
+	{
+		_entries = new ConcurrentHashMap<Integer, PoolEntry>();
+		_clock = new ConcurrentLinkedQueue<PoolEntry>();
+		_purged = new ReferenceQueue<CacheableData>();
+		_limit = limit;
+		_policy = policy;
+		_size.set(0);
+		_inflation = 0;
+	}
+	
+	/**
+	 * 
+	 */
+	public static void cleanup()
+	{
+		_entries.clear();
+		_clock.clear();
+		_size.set(0);
+		_inflation = 0;
+	}
+	
+	/**
+	 * Pins the blob of the given cache object, i.e., excludes it from eviction. 
+	 * Unregistered blobs are only registered if they exceed the caching threshold.
+	 * NOTE: Call only within the lock of the given cache object.
+	 * 
+	 * @param obj
+	 * @param size
+	 */
+	protected static void pin( CacheableData obj, long size )
+	{
+		Integer id = obj.getUniqueCacheID();
+		
+		PoolEntry entry = _entries.get(id);
+		if( entry == null ) {
+			if( size <= CacheableData.CACHING_THRESHOLD )
+				return;
+			entry = new PoolEntry(obj, id);
+			_entries.put(id, entry);
+		}
+		else
+			entry.evictable.set(false);
+		
+		_size.addAndGet(size - entry.size);
+		entry.size = size;
+		entry.pins++;
+	}
+	
+	/**
+	 * Updates the size of the pinned blob of the given cache object, e.g.,
+	 * if a derived in-memory representation has been added or dropped.
+	 * NOTE: Call only within the lock of the given cache object.
+	 * 
+	 * @param obj
+	 * @param size
+	 */
+	protected static void resize( CacheableData obj, long size )
+	{
+		Integer id = obj.getUniqueCacheID();
+		
+		PoolEntry entry = _entries.get(id);
+		if( entry == null ) {
+			if( size <= CacheableData.CACHING_THRESHOLD )
+				return;
+			entry = new PoolEntry(obj, id);
+			_entries.put(id, entry);
+		}
+		
+		_size.addAndGet(size - entry.size);
+		entry.size = size;
+	}
+	
+	/**
+	 * Unpins the blob of the given cache object, i.e., makes it evictable 
+	 * with its given size and restore cost characteristics.
+	 * NOTE: Call only within the lock of the given cache object.
+	 * 
+	 * @param obj
+	 * @param size
+	 * @param requiresWrite true if eviction requires a local write
+	 */
+	protected static void unpin( CacheableData obj, long size, boolean requiresWrite )
+	{
+		Integer id = obj.getUniqueCacheID();
+		
+		PoolEntry entry = _entries.get(id);
+		if( entry == null ) {
+			entry = new PoolEntry(obj, id);
+			_entries.put(id, entry);
+		}
+		
+		_size.addAndGet(size - entry.size);
+		entry.size = size;
+		
+		//greedy dual size: aged restore cost per byte 
+		double cost = IO_LATENCY + (requiresWrite ? 2 : 1) * size / IO_BANDWIDTH;
+		entry.priority = _inflation + cost / Math.max(size, 1);
+		entry.time = _time.incrementAndGet();
+		
+		//make evictable, and (re)insert into clock w/ reference bit 
+		entry.referenced = true;
+		entry.evictable.set(true);
+		if( _policy == EvictionPolicy.LRU && entry.queued.compareAndSet(false, true) )
+			_clock.offer(entry);
+	}
+	
+	/**
+	 * Removes the blob of the given cache object from the buffer pool.
+	 * NOTE: Call only within the lock of the given cache object.
+	 * 
+	 * @param obj
+	 * @return size of the removed blob, or -1 if not registered
+	 */
+	protected static long remove( CacheableData obj )
+	{
+		PoolEntry entry = _entries.remove(obj.getUniqueCacheID());
+		if( entry == null )
+			return -1;
+		
+		release(entry);
+		return entry.size;
+	}
+	
+	/**
+	 * Evicts unpinned blobs according to the eviction policy until the
+	 * total size of registered blobs fits into the buffer pool budget. 
+	 * This method must not be called while holding the lock of any 
+	 * cache object.
+	 * 
+	 * @throws CacheException
+	 */
+	public static void makeSpace() 
+		throws CacheException
+	{
+		//release entries of garbage collected cache objects
+		purge();
+		
+		while( _size.get() > _limit )
+		{
+			//select and claim victim 
+			PoolEntry entry = selectVictim();
+			if( entry == null )
+				return;
+			if( _policy == EvictionPolicy.COST )
+				_inflation = entry.priority;
+			
+			//evict victim (status re-checked by victim because 
+			//of concurrent acquire in the meantime)
+			CacheableData obj = entry.get();
+			if( obj == null ) {
+				purge();
+				continue;
+			}
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			long size = obj.evict();
+			if( DMLScript.STATISTICS && size > 0 ) {
+				CacheStatistics.incrementEvictions(size);
+				CacheStatistics.incrementEvictTime(System.nanoTime()-t0);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static long getSize()
+	{
+		return _size.get();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static long getLimit()
+	{
+		return _limit;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static EvictionPolicy getEvictionPolicy()
+	{
+		return _policy;
+	}
+	
+	/**
+	 * Drops the given (removed) entry from the clock and the size.
+	 * 
+	 * @param entry
+	 */
+	private static void release( PoolEntry entry )
+	{
+		entry.evictable.set(false);
+		if( entry.queued.compareAndSet(true, false) )
+			_clock.remove(entry);
+		_size.addAndGet(-entry.size);
+	}
+	
+	/**
+	 * Removes all entries whose cache objects have been garbage collected.
+	 */
+	private static void purge()
+	{
+		PoolEntry entry = null;
+		while( (entry = (PoolEntry)_purged.poll()) != null )
+			if( _entries.remove(entry.id, entry) )
+				release(entry);
+	}
+	
+	/**
+	 * Selects and claims the eviction victim among evictable blobs. Since  
+	 * the claim is atomic, concurrent evictions never select the same victim.
+	 * 
+	 * @return victim, or null if there are no evictable blobs
+	 */
+	private static PoolEntry selectVictim()
+	{
+		if( _policy == EvictionPolicy.LRU )
+			return selectVictimClock();
+		
+		while( true )
+		{
+			//scan evictable blobs (weakly consistent iteration)
+			PoolEntry ret = null;
+			for( PoolEntry tmp : _entries.values() ) {
+				if( !tmp.evictable.get() )
+					continue;
+				if( ret == null || (_policy == EvictionPolicy.COST ? 
+					tmp.priority < ret.priority : tmp.pins < ret.pins 
+					|| (tmp.pins == ret.pins && tmp.time < ret.time)) )
+					ret = tmp;
+			}
+			
+			//claim victim (retry on concurrent pin or eviction)
+			if( ret == null || ret.evictable.compareAndSet(true, false) )
+				return ret;
+		}
+	}
+	
+	/**
+	 * Selects and claims the eviction victim via the clock, i.e., referenced
+	 * blobs get a second chance, while pinned and removed blobs are dropped 
+	 * (and reinserted on their next unpin).
+	 * 
+	 * @return victim, or null if there are no evictable blobs
+	 */
+	private static PoolEntry selectVictimClock()
+	{
+		PoolEntry entry = null;
+		while( (entry = _clock.poll()) != null )
+		{
+			if( entry.referenced && entry.evictable.get() ) {
+				entry.referenced = false;
+				_clock.offer(entry);
+				continue;
+			}
+			
+			//drop from clock before claim (concurrent unpins reinsert) 
+			entry.queued.set(false);
+			if( entry.evictable.compareAndSet(true, false) )
+				return entry;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Buffer pool entry of a single cached blob, which weakly references
+	 * its cache object.
+	 */
+	private static class PoolEntry extends WeakReference<CacheableData>
+	{
+		private final Integer id;
+		private final AtomicBoolean evictable = new AtomicBoolean(false); //unpinned and not claimed
+		private final AtomicBoolean queued = new AtomicBoolean(false);    //contained in clock 
+		private volatile boolean referenced = false; //clock reference bit
+		private volatile long size = 0;          //in-memory size in bytes
+		private volatile long pins = 0;          //number of pins (acquires) since registration
+		private volatile long time = 0;          //logical time of last unpin
+		private volatile double priority = 0;    //greedy dual size priority
+		
+		protected PoolEntry( CacheableData obj, Integer id ) {
+			super(obj, _purged);
+			this.id = id;
+		}
+	}
+}
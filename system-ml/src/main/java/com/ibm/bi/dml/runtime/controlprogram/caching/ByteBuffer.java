@@ -17,8 +17,11 @@
 
 package com.ibm.bi.dml.runtime.controlprogram.caching;
 
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
@@ -27,19 +30,52 @@ import com.ibm.bi.dml.runtime.util.LocalFileUtils;
  * Wrapper for WriteBuffer byte array per matrix in order to
  * support matrix serialization outside global lock.
  * 
+ * In off-heap mode, sparse and dense matrices are deep serialized into
+ * direct memory, which is explicitly freed on delete or after eviction, 
+ * in order to keep the write buffer out of garbage collection.
+ * 
  */
 public class ByteBuffer
 {
-	private boolean _serialized;	
+	private volatile boolean _serialized; //spin-waited by concurrent readers
+	private volatile boolean _referenced; //reference bit for clock eviction
 	private boolean _sparse;
+	private boolean _compressed; //sparse only
+	private boolean _offHeap;
 	private long _size;
 	
 	protected byte[]       _bdata = null; //sparse matrix
 	protected MatrixBlock  _mdata = null; //dense matrix
+	protected java.nio.ByteBuffer _odata = null; //off-heap matrix
+	
+	//explicit free of direct buffers (jdk 9+ via unsafe, otherwise via cleaner)
+	private static Object _unsafe = null;
+	private static Method _invokeCleaner = null;
+	
+	static
+	{
+		try {
+			Class<?> clazz = Class.forName("sun.misc.Unsafe");
+			Method m = clazz.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+			Field f = clazz.getDeclaredField("theUnsafe");
+			f.setAccessible(true);
+			_unsafe = f.get(null);
+			_invokeCleaner = m;
+		}
+		catch(Exception ex) {
+			//jdk 6-8: cleaner of direct buffer
+		}
+	}
 	
 	public ByteBuffer( long size )
+	{
+		this(size, false);
+	}
+	
+	public ByteBuffer( long size, boolean offHeap )
 	{
 		_size = size;
+		_offHeap = offHeap;
 		_serialized = false;
 	}
 	
@@ -57,7 +93,16 @@ public class ByteBuffer
 		
 		try
 		{
-			if( _sparse ) //SPARSE/DENSE -> SPARSE
+			boolean compress = _sparse && CacheCodec.isCompressionBeneficial(mb);
+			
+			if( _offHeap && !compress ) //SPARSE/DENSE -> OFF-HEAP
+			{
+				//deep serialize into direct buffer (w/o on-heap copies)
+				_odata = java.nio.ByteBuffer.allocateDirect((int)_size);
+				mb.write(new CacheDataOutputDirect(_odata));
+				_odata.flip();
+			}
+			else if( _sparse ) //SPARSE/DENSE -> SPARSE
 			{
 				//deep serialize (for compression)
 				if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -66,6 +111,23 @@ public class ByteBuffer
 					_bdata = new byte[(int)_size];
 				DataOutput dout = new CacheDataOutput(_bdata);
 				mb.write(dout);
+				
+				//compress serialized matrix (if beneficial)
+				if( compress ) {
+					byte[] tmp = CacheCodec.compress(mb, _bdata, (int)_size);
+					if( CacheableData.CACHING_BUFFER_PAGECACHE )
+						PageCache.putPage(_bdata);
+					_bdata = tmp;
+					_compressed = true;
+				}
+				
+				//move compressed matrix into direct buffer
+				if( _offHeap ) {
+					_odata = java.nio.ByteBuffer.allocateDirect(_bdata.length);
+					_odata.put(_bdata);
+					_odata.flip();
+					_bdata = null;
+				}
 			}
 			else //SPARSE/DENSE -> DENSE
 			{
@@ -88,20 +150,42 @@ public class ByteBuffer
 	}
 	
 	/**
+	 * Deserializes the buffered matrix. Off-heap buffers might have been 
+	 * freed after eviction, in which case the caller reads the evicted 
+	 * matrix from local FS.
 	 * 
-	 * @return
+	 * @return matrix block, or null if the off-heap buffer was already freed
 	 * @throws IOException
 	 */
-	public MatrixBlock deserializeMatrix() 
+	public synchronized MatrixBlock deserializeMatrix() 
 		throws IOException
 	{
 		MatrixBlock ret = null;
 		
-		if( _sparse )
+		if( _offHeap && _odata == null )
+		{
+			//freed off-heap buffer
+		}
+		else if( _odata != null )
+		{
+			java.nio.ByteBuffer tmp = _odata.duplicate();
+			DataInput din = null;
+			if( _compressed ) {
+				byte[] data = new byte[tmp.remaining()];
+				tmp.get(data);
+				din = new CacheDataInput(CacheCodec.decompress(data));
+			}
+			else
+				din = new CacheDataInputDirect(tmp);
+			ret = new MatrixBlock();
+			ret.readFields(din);
+		}
+		else if( _sparse )
 		{
 			//ByteArrayInputStream bis = new ByteArrayInputStream(_bdata);
 			//DataInputStream din = new DataInputStream(bis); 
-			CacheDataInput din = new CacheDataInput(_bdata);
+			CacheDataInput din = new CacheDataInput(
+					_compressed ? CacheCodec.decompress(_bdata) : _bdata);
 			ret = new MatrixBlock();
 			ret.readFields(din);
 		}
@@ -118,18 +202,28 @@ public class ByteBuffer
 	 * @param fname
 	 * @throws IOException
 	 */
-	public void evictBuffer( String fname ) 
+	public synchronized void evictBuffer( String fname ) 
 		throws IOException
 	{
-		if( _sparse )
+		if( _odata != null )
+		{
+			//write out off-heap buffer (compressed buffers incl codec)
+			LocalFileUtils.writeByteBufferToLocal(fname, _compressed ? null : 
+				new byte[]{CacheCodec.CODEC_NONE}, _odata.duplicate());
+		}
+		else if( _sparse )
 		{
-			//write out byte serialized array
-			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
+			//write out byte serialized array (compressed arrays incl codec)
+			if( _compressed )
+				LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
+			else
+				LocalFileUtils.writeByteArrayToLocal(fname, 
+						new byte[][]{new byte[]{CacheCodec.CODEC_NONE}, _bdata});
 		}
 		else
 		{
 			//serialize matrix to output stream
-			LocalFileUtils.writeMatrixBlockToLocal(fname, _mdata);
+			CacheCodec.writeMatrixBlockToLocal(fname, _mdata);
 		}
 	}
 	
@@ -152,12 +246,59 @@ public class ByteBuffer
 		return _sparse;
 	}
 	
-	public void freeMemory()
+	/**
+	 * Indicates if the buffer was accessed since the last pass of the
+	 * clock hand of the write buffer.
+	 * 
+	 * @return
+	 */
+	public boolean isReferenced()
+	{
+		return _referenced;
+	}
+	
+	/**
+	 * 
+	 * @param flag
+	 */
+	public void setReferenced( boolean flag )
 	{
+		_referenced = flag;
+	}
+	
+	/**
+	 * Indicates if the buffer holds a strong reference to the matrix
+	 * instead of a serialized representation.
+	 * 
+	 * @return
+	 */
+	public boolean isShallowSerialized()
+	{
+		return !_sparse && !_offHeap;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isOffHeap()
+	{
+		return _offHeap;
+	}
+	
+	public synchronized void freeMemory()
+	{
+		//explicitly free direct memory
+		if( _odata != null )
+		{
+			freeDirectBuffer(_odata);
+			_odata = null;
+		}
+		
 		//clear strong references to buffer/matrix
 		if( _sparse )
 		{
-			if( CacheableData.CACHING_BUFFER_PAGECACHE )
+			if( CacheableData.CACHING_BUFFER_PAGECACHE && !_compressed && _bdata != null )
 				PageCache.putPage(_bdata);
 			_bdata = null;
 		}
@@ -185,6 +326,22 @@ public class ByteBuffer
 	 * Determines if byte buffer can hold the given size given this specific matrix block.
 	 * This call is consistent with 'serializeMatrix' and allows for internal optimization
 	 * according to dense/sparse representation.
+	 * 
+	 * @param size
+	 * @param mb
+	 * @param offHeap
+	 * @return
+	 */
+	public static boolean isValidCapacity( long size, MatrixBlock mb, boolean offHeap )
+	{
+		// off-heap buffers hold deep serialized matrices of at most 2GB in size 
+		if( offHeap )
+			return ( size <= Integer.MAX_VALUE );
+		
+		return isValidCapacity(size, mb);
+	}
+	
+	/**
 	 * 
 	 * @param size
 	 * @param mb
@@ -207,4 +364,31 @@ public class ByteBuffer
 			return true;
 		}
 	}
+	
+	/**
+	 * Explicitly frees the direct memory (or unmaps the memory-mapped region) 
+	 * of the given buffer. If not accessible, the memory is released on 
+	 * garbage collection.
+	 * 
+	 * @param buff
+	 */
+	protected static void freeDirectBuffer( java.nio.ByteBuffer buff )
+	{
+		try
+		{
+			if( _invokeCleaner != null ) {
+				_invokeCleaner.invoke(_unsafe, buff);
+			}
+			else {
+				Method cleaner = buff.getClass().getMethod("cleaner");
+				cleaner.setAccessible(true);
+				Object obj = cleaner.invoke(buff);
+				if( obj != null )
+					obj.getClass().getMethod("clean").invoke(obj);
+			}
+		}
+		catch(Exception ex) {
+			//ignore, freed on garbage collection
+		}
+	}
 }
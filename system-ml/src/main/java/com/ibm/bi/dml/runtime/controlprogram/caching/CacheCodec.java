@@ -0,0 +1,847 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockLarge;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+import com.ibm.bi.dml.runtime.util.LocalFileUtils;
+
+/**
+ * Fast, pure Java LZ compression of serialized matrices in the write buffer
+ * and of local eviction files. The compressed format is a sequence of chunks
+ * (up to 64KB raw data each) in LZ4 block format, where each chunk is preceded 
+ * by its raw and compressed lengths (compressed length 0 indicates a stored, 
+ * i.e., uncompressed, chunk) and the sequence is terminated by an empty chunk.
+ * All eviction files and compressed buffers start with a single codec byte.
+ * 
+ * The compression level (0: disabled, 1: fastest, up to 9) determines the 
+ * number of match candidates per position. Compression is applied adaptively
+ * per block type (sparse, dense w/ zeros, dense) based on the observed 
+ * compression ratio, where poorly compressible types are re-probed periodically.
+ * 
+ * Uncompressed dense eviction files use a raw format of a small header 
+ * (codec, rows, cols, nnz) and the little-endian double values, which are
+ * written via file channels and read via bulk transfers from memory-mapped
+ * regions directly into the dense block (w/o per-value decoding).
+ */
+public class CacheCodec 
+{
+	public static final byte CODEC_NONE = 0;
+	public static final byte CODEC_LZ   = 1;
+	public static final byte CODEC_DENSE = 2;
+	
+	//adaptive codec selection 
+	private static final double MAX_RATIO = 0.85;     //compressed/raw size
+	private static final int PROBE_INTERVAL = 16;     //re-probe every n-th write
+	private static final double DENSE_SPARSITY = 0.5; //dense blocks w/ zeros
+	
+	//lz block format constants
+	private static final int CHUNK_SIZE = 64*1024;
+	private static final int MIN_MATCH = 4;
+	private static final int LAST_LITERALS = 5;
+	private static final int MF_LIMIT = 12;
+	private static final int HASH_LOG = 16;
+	private static final int WINDOW_MASK = CHUNK_SIZE-1;
+	
+	//raw dense format constants
+	private static final int DENSE_HEADER_SIZE = 24; //incl padding to 8 bytes
+	private static final int DENSE_BUFFER_SIZE = 1024*1024;
+	private static final int MAX_MAP_SIZE = 1 << 30;
+	
+	private static final int TYPE_SPARSE = 0;
+	private static final int TYPE_DENSE_ZEROS = 1;
+	private static final int TYPE_DENSE = 2;
+	
+	private static int _level = 0;
+	
+	//observed compression ratios and number of skipped writes per block type
+	private static final double[] _ratios = new double[3];
+	private static final int[] _skips = new int[3];
+	
+	//thread-local direct buffers for raw dense writes
+	private static final ThreadLocal<java.nio.ByteBuffer> _dbuff = new ThreadLocal<java.nio.ByteBuffer>() {
+		@Override
+		protected java.nio.ByteBuffer initialValue() {
+			return java.nio.ByteBuffer.allocateDirect(DENSE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	};
+	
+	/**
+	 * Initializes the compression level of the current configuration 
+	 * and resets the observed compression ratios.
+	 */
+	public static void init()
+	{
+		DMLConfig conf = ConfigurationManager.getConfig();
+		int level = (conf != null) ? conf.getIntValue(DMLConfig.CP_CACHE_COMPRESSION) : 0;
+		init(level);
+	}
+	
+	/**
+	 * 
+	 * @param level
+	 */
+	public static synchronized void init( int level )
+	{
+		_level = Math.max(0, Math.min(level, 9));
+		Arrays.fill(_ratios, 0);
+		Arrays.fill(_skips, 0);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static int getLevel()
+	{
+		return _level;
+	}
+	
+	/**
+	 * Decides if the given matrix block should be compressed on serialization,
+	 * according to the observed compression ratio of its block type.
+	 * 
+	 * @param mb
+	 * @return
+	 */
+	public static synchronized boolean isCompressionBeneficial( MatrixBlock mb )
+	{
+		if( _level <= 0 )
+			return false;
+		
+		int type = getBlockType(mb);
+		if( _ratios[type] <= MAX_RATIO || ++_skips[type] >= PROBE_INTERVAL ) {
+			_skips[type] = 0;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Writes the given matrix block to a local eviction file.
+	 * 
+	 * @param fname
+	 * @param mb
+	 * @throws IOException
+	 */
+	public static void writeMatrixBlockToLocal( String fname, MatrixBlock mb )
+		throws IOException
+	{
+		boolean compress = isCompressionBeneficial(mb);
+		
+		//raw dense format for uncompressed dense blocks
+		if( !compress && isDenseRawFormat(mb) ) {
+			writeDenseToLocal(fname, mb);
+			return;
+		}
+		
+		FileOutputStream fos = new FileOutputStream( fname );
+		fos.write(compress ? CODEC_LZ : CODEC_NONE);
+		LZOutputStream los = compress ? new LZOutputStream(fos) : null;
+		FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+				compress ? los : fos, LocalFileUtils.BUFFER_SIZE);
+		
+		try {
+			mb.write(out);
+		}
+		finally {
+			out.close();
+		}
+		
+		if( compress )
+			updateRatio(getBlockType(mb), los.getRawSize(), los.getCompressedSize());
+	}
+	
+	/**
+	 * Reads a matrix block from a local eviction file.
+	 * 
+	 * @param fname
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readMatrixBlockFromLocal( String fname )
+		throws IOException
+	{
+		MatrixBlock ret = new MatrixBlock();
+		
+		FileInputStream fis = new FileInputStream( fname );
+		InputStream is = fis;
+		try {
+			int codec = fis.read();
+			if( codec == CODEC_DENSE )
+				return readDenseFromLocal(fis.getChannel());
+			else if( codec == CODEC_LZ )
+				is = new LZInputStream(fis);
+			else if( codec != CODEC_NONE )
+				throw new IOException("Unsupported cache codec: "+codec);
+			
+			FastBufferedDataInputStream in = new FastBufferedDataInputStream(is, LocalFileUtils.BUFFER_SIZE);
+			ret.readFields(in);
+		}
+		finally {
+			is.close();
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Compresses the given serialized matrix block, incl leading codec byte.
+	 * 
+	 * @param mb
+	 * @param data
+	 * @param len
+	 * @return
+	 */
+	public static byte[] compress( MatrixBlock mb, byte[] data, int len )
+	{
+		int numChunks = (len + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		byte[] ret = new byte[1 + numChunks*(8+maxCompressedLength(CHUNK_SIZE)) + 8];
+		int[] htab = new int[1 << HASH_LOG];
+		int[] chain = new int[CHUNK_SIZE];
+		
+		int pos = 0;
+		ret[pos++] = CODEC_LZ;
+		for( int off = 0; off < len; off += CHUNK_SIZE )
+			pos = writeChunk(data, off, Math.min(CHUNK_SIZE, len-off), ret, pos, htab, chain);
+		pos = writeInt(0, ret, writeInt(0, ret, pos)); //end marker
+		
+		updateRatio(getBlockType(mb), len, pos);
+		
+		return Arrays.copyOf(ret, pos);
+	}
+	
+	/**
+	 * Decompresses the given compressed buffer (incl leading codec byte). 
+	 * 
+	 * @param data
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] decompress( byte[] data )
+		throws IOException
+	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		//determine total raw size
+		int len = 0;
+		for( int pos = 1; ; ) {
+			int rlen = readInt(data, pos);
+			int clen = readInt(data, pos+4);
+			if( rlen == 0 ) 
+				break;
+			len += rlen;
+			pos += 8 + ((clen > 0) ? clen : rlen);
+		}
+		
+		//decompress chunks
+		byte[] ret = new byte[len];
+		for( int pos = 1, off = 0; ; ) {
+			int rlen = readInt(data, pos);
+			int clen = readInt(data, pos+4);
+			if( rlen == 0 )
+				break;
+			pos += 8;
+			if( clen > 0 ) {
+				decompressChunk(data, pos, clen, ret, off, rlen);
+				pos += clen;
+			}
+			else {
+				System.arraycopy(data, pos, ret, off, rlen);
+				pos += rlen;
+			}
+			off += rlen;
+		}
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementDecompressTime(System.nanoTime()-t0);
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @return
+	 */
+	private static boolean isDenseRawFormat( MatrixBlock mb )
+	{
+		return !mb.isInSparseFormat() && mb.isAllocated() 
+			&& !mb.evalSparseFormatOnDisk();
+	}
+	
+	/**
+	 * Writes the given dense block in raw format via a file channel.
+	 * 
+	 * @param fname
+	 * @param mb
+	 * @throws IOException
+	 */
+	private static void writeDenseToLocal( String fname, MatrixBlock mb )
+		throws IOException
+	{
+		java.nio.ByteBuffer buff = _dbuff.get();
+		buff.clear();
+		
+		FileOutputStream fos = new FileOutputStream( fname );
+		FileChannel ch = fos.getChannel();
+		
+		try
+		{
+			//write header
+			buff.put(CODEC_DENSE);
+			buff.putInt(mb.getNumRows());
+			buff.putInt(mb.getNumColumns());
+			buff.putLong(mb.getNonZeros());
+			buff.position(DENSE_HEADER_SIZE);
+			
+			//write dense values (segment-wise for large dense blocks)
+			int clen = mb.getNumColumns();
+			DenseBlockLarge dbl = mb.getDenseBlockLarge();
+			int nseg = (dbl != null) ? dbl.numSegments() : 1;
+			for( int seg=0; seg<nseg; seg++ ) {
+				double[] a = (dbl != null) ? dbl.segment(seg) : mb.getDenseArray();
+				int len = (dbl != null) ? dbl.segmentRows(seg)*clen : mb.getNumRows()*clen;
+				for( int off=0; off<len; ) {
+					if( buff.remaining() < 8 )
+						flushBuffer(buff, ch);
+					int n = Math.min(len-off, buff.remaining()/8);
+					buff.asDoubleBuffer().put(a, off, n);
+					buff.position(buff.position()+n*8);
+					off += n;
+				}
+			}
+			flushBuffer(buff, ch);
+		}
+		finally
+		{
+			fos.close();
+		}
+	}
+	
+	/**
+	 * Reads a dense block in raw format via bulk transfers from 
+	 * memory-mapped regions of the given file channel.
+	 * 
+	 * @param ch
+	 * @return
+	 * @throws IOException
+	 */
+	private static MatrixBlock readDenseFromLocal( FileChannel ch )
+		throws IOException
+	{
+		//read header
+		java.nio.ByteBuffer hdr = java.nio.ByteBuffer.allocate(DENSE_HEADER_SIZE-1).order(ByteOrder.LITTLE_ENDIAN);
+		while( hdr.hasRemaining() )
+			if( ch.read(hdr, 1+hdr.position()) < 0 )
+				throw new IOException("Unexpected end of dense eviction file.");
+		hdr.flip();
+		int rlen = hdr.getInt();
+		int clen = hdr.getInt();
+		long nnz = hdr.getLong();
+		
+		//allocate dense block
+		MatrixBlock ret = new MatrixBlock(rlen, clen, false);
+		try {
+			ret.allocateDenseBlock();
+		}
+		catch(DMLRuntimeException ex) {
+			throw new IOException(ex);
+		}
+		
+		//read dense values (segment-wise for large dense blocks)
+		long pos = DENSE_HEADER_SIZE;
+		DenseBlockLarge dbl = ret.getDenseBlockLarge();
+		int nseg = (dbl != null) ? dbl.numSegments() : 1;
+		for( int seg=0; seg<nseg; seg++ ) {
+			double[] a = (dbl != null) ? dbl.segment(seg) : ret.getDenseArray();
+			int len = (dbl != null) ? dbl.segmentRows(seg)*clen : rlen*clen;
+			for( int off=0; off<len; ) {
+				int n = Math.min(len-off, MAX_MAP_SIZE/8);
+				MappedByteBuffer mbuff = ch.map(MapMode.READ_ONLY, pos, (long)n*8);
+				mbuff.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(a, off, n);
+				ByteBuffer.freeDirectBuffer(mbuff); //unmap (copied into dense block)
+				pos += (long)n*8;
+				off += n;
+			}
+		}
+		ret.setNonZeros(nnz);
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param buff
+	 * @param ch
+	 * @throws IOException
+	 */
+	private static void flushBuffer( java.nio.ByteBuffer buff, FileChannel ch )
+		throws IOException
+	{
+		buff.flip();
+		while( buff.hasRemaining() )
+			ch.write(buff);
+		buff.clear();
+	}
+	
+	/**
+	 * 
+	 * @param len
+	 * @return
+	 */
+	private static int maxCompressedLength( int len )
+	{
+		return len + len/255 + 16;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @return
+	 */
+	private static int getBlockType( MatrixBlock mb )
+	{
+		if( mb.evalSparseFormatOnDisk() )
+			return TYPE_SPARSE;
+		double sp = OptimizerUtils.getSparsity(mb.getNumRows(), mb.getNumColumns(), mb.getNonZeros());
+		return (sp < DENSE_SPARSITY) ? TYPE_DENSE_ZEROS : TYPE_DENSE;
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param rawSize
+	 * @param compSize
+	 */
+	private static synchronized void updateRatio( int type, long rawSize, long compSize )
+	{
+		//exponentially weighted moving average
+		double ratio = (double)compSize / Math.max(rawSize, 1);
+		_ratios[type] = (_ratios[type] == 0) ? ratio : 0.5*_ratios[type] + 0.5*ratio;
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementCompressedSize(rawSize, compSize);
+	}
+	
+	/**
+	 * Writes a single chunk incl header of raw and compressed size, 
+	 * where incompressible chunks are stored uncompressed.
+	 * 
+	 * @param src
+	 * @param soff
+	 * @param slen
+	 * @param dst
+	 * @param doff
+	 * @param htab
+	 * @param chain
+	 * @return
+	 */
+	private static int writeChunk( byte[] src, int soff, int slen, byte[] dst, int doff, int[] htab, int[] chain )
+	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		int clen = compressChunk(src, soff, slen, dst, doff+8, htab, chain);
+		if( clen >= slen ) { //stored chunk
+			System.arraycopy(src, soff, dst, doff+8, slen);
+			clen = 0;
+		}
+		writeInt(slen, dst, doff);
+		writeInt(clen, dst, doff+4);
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementCompressTime(System.nanoTime()-t0);
+		
+		return doff + 8 + ((clen > 0) ? clen : slen);
+	}
+	
+	/**
+	 * Compresses a single chunk (at most CHUNK_SIZE bytes) in LZ4 block format.
+	 * 
+	 * @param src
+	 * @param soff
+	 * @param slen
+	 * @param dst
+	 * @param doff
+	 * @param htab
+	 * @param chain
+	 * @return
+	 */
+	private static int compressChunk( byte[] src, int soff, int slen, byte[] dst, int doff, int[] htab, int[] chain )
+	{
+		final int end = soff + slen;
+		final int mflimit = end - MF_LIMIT;
+		final int matchlimit = end - LAST_LITERALS;
+		final int attempts = 1 << (_level-1);
+		
+		int ip = soff;
+		int anchor = soff;
+		int op = doff;
+		
+		Arrays.fill(htab, -1);
+		
+		while( ip < mflimit )
+		{
+			//probe hash chain of current position
+			int seq = readIntLE(src, ip);
+			int h = hash(seq);
+			int cand = htab[h];
+			htab[h] = ip;
+			chain[ip & WINDOW_MASK] = cand;
+			
+			int bestLen = 0;
+			int bestPos = -1;
+			for( int a=0; a<attempts && cand >= 0; a++ ) {
+				if( readIntLE(src, cand) == seq ) {
+					int len = MIN_MATCH;
+					while( ip+len < matchlimit && src[cand+len] == src[ip+len] )
+						len++;
+					if( len > bestLen ) {
+						bestLen = len;
+						bestPos = cand;
+					}
+				}
+				cand = chain[cand & WINDOW_MASK];
+			}
+			
+			if( bestLen == 0 ) {
+				ip++;
+				continue;
+			}
+			
+			//emit sequence of literals and match
+			op = writeSequence(src, anchor, ip-anchor, ip-bestPos, bestLen, dst, op);
+			
+			//update hash chains within match (better ratio for higher levels)
+			int mend = ip + bestLen;
+			if( _level > 1 )
+				for( int p=ip+1; p<mend && p<mflimit; p++ ) {
+					int hp = hash(readIntLE(src, p));
+					chain[p & WINDOW_MASK] = htab[hp];
+					htab[hp] = p;
+				}
+			ip = anchor = mend;
+		}
+		
+		//emit last literals
+		int llen = end - anchor;
+		dst[op++] = (byte)(Math.min(llen, 15) << 4);
+		if( llen >= 15 )
+			op = writeLength(llen-15, dst, op);
+		System.arraycopy(src, anchor, dst, op, llen);
+		op += llen;
+		
+		return op - doff;
+	}
+	
+	/**
+	 * Decompresses a single chunk in LZ4 block format.
+	 * 
+	 * @param src
+	 * @param soff
+	 * @param slen
+	 * @param dst
+	 * @param doff
+	 * @param dlen
+	 * @throws IOException
+	 */
+	private static void decompressChunk( byte[] src, int soff, int slen, byte[] dst, int doff, int dlen ) 
+		throws IOException
+	{
+		final int send = soff + slen;
+		int ip = soff;
+		int op = doff;
+		
+		try
+		{
+			while( ip < send )
+			{
+				int token = src[ip++] & 0xFF;
+				
+				//copy literals
+				int llen = token >>> 4;
+				if( llen == 15 ) {
+					int b; 
+					do { b = src[ip++] & 0xFF; llen += b; } while( b == 255 );
+				}
+				System.arraycopy(src, ip, dst, op, llen);
+				ip += llen;
+				op += llen;
+				if( ip >= send ) //last literals
+					break;
+				
+				//copy match (byte-wise for overlapping matches)
+				int offset = (src[ip++] & 0xFF) | ((src[ip++] & 0xFF) << 8);
+				int mlen = token & 0x0F;
+				if( mlen == 15 ) {
+					int b; 
+					do { b = src[ip++] & 0xFF; mlen += b; } while( b == 255 );
+				}
+				mlen += MIN_MATCH;
+				int mp = op - offset;
+				if( offset == 0 || mp < doff )
+					throw new IOException("Invalid match offset: "+offset);
+				if( offset >= mlen )
+					System.arraycopy(dst, mp, dst, op, mlen);
+				else
+					for( int i=0; i<mlen; i++ )
+						dst[op+i] = dst[mp+i];
+				op += mlen;
+			}
+		}
+		catch(ArrayIndexOutOfBoundsException ex) {
+			throw new IOException("Corrupted compressed chunk.", ex);
+		}
+		
+		if( op != doff + dlen )
+			throw new IOException("Corrupted compressed chunk: "+(op-doff)+" vs "+dlen+" bytes.");
+	}
+	
+	private static int writeSequence( byte[] src, int lpos, int llen, int offset, int mlen, byte[] dst, int op )
+	{
+		int ml = mlen - MIN_MATCH;
+		dst[op++] = (byte)((Math.min(llen, 15) << 4) | Math.min(ml, 15));
+		if( llen >= 15 )
+			op = writeLength(llen-15, dst, op);
+		System.arraycopy(src, lpos, dst, op, llen);
+		op += llen;
+		dst[op++] = (byte) offset;
+		dst[op++] = (byte)(offset >>> 8);
+		if( ml >= 15 )
+			op = writeLength(ml-15, dst, op);
+		return op;
+	}
+	
+	private static int writeLength( int len, byte[] dst, int op )
+	{
+		for( ; len >= 255; len -= 255 )
+			dst[op++] = (byte)255;
+		dst[op++] = (byte)len;
+		return op;
+	}
+	
+	private static int hash( int seq )
+	{
+		return (seq * -1640531535) >>> (32 - HASH_LOG);
+	}
+	
+	private static int readIntLE( byte[] buff, int pos )
+	{
+		return (buff[pos] & 0xFF) | ((buff[pos+1] & 0xFF) << 8)
+			| ((buff[pos+2] & 0xFF) << 16) | ((buff[pos+3] & 0xFF) << 24);
+	}
+	
+	private static int writeInt( int val, byte[] buff, int pos )
+	{
+		buff[pos]   = (byte)(val >>> 24);
+		buff[pos+1] = (byte)(val >>> 16);
+		buff[pos+2] = (byte)(val >>> 8);
+		buff[pos+3] = (byte) val;
+		return pos + 4;
+	}
+	
+	private static int readInt( byte[] buff, int pos )
+	{
+		return ((buff[pos] & 0xFF) << 24) | ((buff[pos+1] & 0xFF) << 16)
+			| ((buff[pos+2] & 0xFF) << 8) | (buff[pos+3] & 0xFF);
+	}
+	
+	/**
+	 * Output stream that compresses written data chunk-wise.
+	 */
+	private static class LZOutputStream extends OutputStream
+	{
+		private OutputStream _out = null;
+		private byte[] _buff = new byte[CHUNK_SIZE];
+		private byte[] _cbuff = new byte[8+maxCompressedLength(CHUNK_SIZE)];
+		private int[] _htab = new int[1 << HASH_LOG];
+		private int[] _chain = new int[CHUNK_SIZE];
+		private int _count = 0;
+		private long _rawSize = 0;
+		private long _compSize = 0;
+		
+		protected LZOutputStream( OutputStream out ) {
+			_out = out;
+		}
+		
+		@Override
+		public void write( int b ) 
+			throws IOException 
+		{
+			if( _count == CHUNK_SIZE )
+				flushChunk();
+			_buff[_count++] = (byte)b;
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) 
+			throws IOException 
+		{
+			while( len > 0 ) {
+				if( _count == CHUNK_SIZE )
+					flushChunk();
+				int n = Math.min(len, CHUNK_SIZE-_count);
+				System.arraycopy(b, off, _buff, _count, n);
+				_count += n;
+				off += n;
+				len -= n;
+			}
+		}
+		
+		@Override
+		public void close() 
+			throws IOException 
+		{
+			try {
+				if( _count > 0 )
+					flushChunk();
+				_out.write(_cbuff, 0, writeInt(0, _cbuff, writeInt(0, _cbuff, 0))); //end marker
+				_compSize += 8;
+			}
+			finally {
+				_out.close();
+			}
+		}
+		
+		public long getRawSize() {
+			return _rawSize;
+		}
+		
+		public long getCompressedSize() {
+			return _compSize;
+		}
+		
+		private void flushChunk() 
+			throws IOException 
+		{
+			int len = writeChunk(_buff, 0, _count, _cbuff, 0, _htab, _chain);
+			_out.write(_cbuff, 0, len);
+			_rawSize += _count;
+			_compSize += len;
+			_count = 0;
+		}
+	}
+	
+	/**
+	 * Input stream that decompresses read data chunk-wise.
+	 */
+	private static class LZInputStream extends InputStream
+	{
+		private InputStream _in = null;
+		private byte[] _buff = new byte[CHUNK_SIZE];
+		private byte[] _cbuff = new byte[maxCompressedLength(CHUNK_SIZE)];
+		private byte[] _header = new byte[8];
+		private int _pos = 0;
+		private int _len = 0;
+		private boolean _eof = false;
+		
+		protected LZInputStream( InputStream in ) {
+			_in = in;
+		}
+		
+		@Override
+		public int read() 
+			throws IOException 
+		{
+			if( _pos == _len && !nextChunk() )
+				return -1;
+			return _buff[_pos++] & 0xFF;
+		}
+		
+		@Override
+		public int read( byte[] b, int off, int len ) 
+			throws IOException 
+		{
+			if( len == 0 )
+				return 0;
+			if( _pos == _len && !nextChunk() )
+				return -1;
+			int n = Math.min(len, _len-_pos);
+			System.arraycopy(_buff, _pos, b, off, n);
+			_pos += n;
+			return n;
+		}
+		
+		@Override
+		public void close() 
+			throws IOException 
+		{
+			_in.close();
+		}
+		
+		private boolean nextChunk() 
+			throws IOException 
+		{
+			if( _eof )
+				return false;
+			
+			readFully(_header, 8);
+			int rlen = readInt(_header, 0);
+			int clen = readInt(_header, 4);
+			if( rlen == 0 ) {
+				_eof = true;
+				return false;
+			}
+			if( rlen > CHUNK_SIZE || clen > _cbuff.length )
+				throw new IOException("Corrupted compressed chunk header.");
+			
+			if( clen > 0 ) {
+				readFully(_cbuff, clen);
+				long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+				decompressChunk(_cbuff, 0, clen, _buff, 0, rlen);
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementDecompressTime(System.nanoTime()-t0);
+			}
+			else
+				readFully(_buff, rlen);
+			
+			_pos = 0;
+			_len = rlen;
+			return true;
+		}
+		
+		private void readFully( byte[] b, int len ) 
+			throws IOException
+		{
+			for( int n = 0; n < len; ) {
+				int count = _in.read(b, n, len-n);
+				if( count < 0 )
+					throw new IOException("Unexpected end of compressed stream.");
+				n += count;
+			}
+		}
+	}
+}
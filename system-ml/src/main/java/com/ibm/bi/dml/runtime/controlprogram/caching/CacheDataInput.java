@@ -21,6 +21,7 @@ import java.io.DataInput;
 import java.io.IOException;
 
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataInput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
 import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
 
 public class CacheDataInput implements DataInput, MatrixBlockDataInput
@@ -196,6 +197,32 @@ public class CacheDataInput implements DataInput, MatrixBlockDataInput
 		return nnz;
 	}
 	
+	@Override
+	public long readSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		int[] rowptr = csr.rowPointers();
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		int pos = 0;
+		
+		//read all individual sparse rows into flat arrays
+		for( int i=0; i<rlen; i++ )
+		{
+			rowptr[i] = pos;
+			int lnnz = readInt();
+			for( int j=0; j<lnnz; j++, pos++ ) 
+			{	
+				aix[pos] = baToInt(_buff, _count);
+				avals[pos] = Double.longBitsToDouble( baToLong(_buff, _count+4) );
+				_count+=12;
+			}
+		}
+		rowptr[rlen] = pos;
+		
+		return pos;
+	}
+	
 	/**
 	 * 
 	 * @param a
@@ -0,0 +1,202 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataInput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+
+/**
+ * Custom DataInput to deserialize directly from the given (direct, off-heap) 
+ * nio byte buffer, written by CacheDataOutputDirect.
+ * 
+ */
+public class CacheDataInputDirect implements DataInput, MatrixBlockDataInput
+{
+	protected java.nio.ByteBuffer _buff;
+
+	public CacheDataInputDirect( java.nio.ByteBuffer mem ) 
+	{		
+		_buff = mem;
+	}
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		_buff.get(b);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		_buff.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public boolean readBoolean() 
+		throws IOException 
+	{
+		return ( _buff.get() != 0 );
+	}
+
+	@Override
+	public byte readByte()
+		throws IOException 
+	{
+		return _buff.get();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public int readInt() 
+		throws IOException 
+	{
+		return _buff.getInt();
+	}
+
+	@Override
+	public long readLong() 
+		throws IOException 
+	{
+		return _buff.getLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public double readDouble() 
+		throws IOException 
+	{
+		return _buff.getDouble();
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		throw new IOException("Not supported.");
+	}
+	
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDSMDataOutput
+	///////////////////////////////////////////////	
+	
+	@Override
+	public long readDoubleArray(int len, double[] varr) 
+		throws IOException 
+	{
+		//bulk copy of entire array via double view of buffer
+		int off = _buff.position();
+		_buff.asDoubleBuffer().get(varr, 0, len);
+		_buff.position(off + len*8);
+		
+		//nnz maintenance
+		long nnz = 0;
+		for( int i=0; i<len; i++ ) 
+			nnz += (varr[i]!=0) ? 1 : 0; 
+		
+		return nnz;
+	}
+
+	@Override
+	public long readSparseRows(int rlen, SparseRow[] rows) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+		
+		//read all individual sparse rows from input
+		for( int i=0; i<rlen; i++ )
+		{
+			int lnnz = _buff.getInt();
+			
+			if( lnnz > 0 ) //non-zero row
+			{
+				//get handle to sparse (allocate if necessary)
+				if( rows[i] == null )
+					rows[i] = new SparseRow(lnnz);
+				SparseRow arow = rows[i];
+				
+				//read single sparse row
+				for( int j=0; j<lnnz; j++ ) {	
+					int aix = _buff.getInt();
+					arow.append(aix, _buff.getDouble());
+				}
+				
+				nnz += lnnz;	
+			}
+		}
+		
+		return nnz;
+	}
+	
+	@Override
+	public long readSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		int[] rowptr = csr.rowPointers();
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		int pos = 0;
+		
+		//read all individual sparse rows into flat arrays
+		for( int i=0; i<rlen; i++ )
+		{
+			rowptr[i] = pos;
+			int lnnz = _buff.getInt();
+			for( int j=0; j<lnnz; j++, pos++ ) {	
+				aix[pos] = _buff.getInt();
+				avals[pos] = _buff.getDouble();
+			}
+		}
+		rowptr[rlen] = pos;
+		
+		return pos;
+	}
+}
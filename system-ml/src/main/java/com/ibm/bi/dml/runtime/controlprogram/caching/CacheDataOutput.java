@@ -22,6 +22,7 @@ import java.io.IOException;
 
 
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataOutput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
 import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
 
 /**
@@ -190,6 +191,29 @@ public class CacheDataOutput implements DataOutput, MatrixBlockDataOutput
 			writeInt( 0 );
 	}
 	
+	@Override
+	public void writeSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException
+	{
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		
+		for( int i=0; i<rlen; i++ )
+		{
+			int apos = csr.pos(i);
+			int alen = csr.size(i);
+			writeInt( alen );
+			
+			for( int j=apos; j<apos+alen; j++ )
+			{
+				intToBa(aix[j], _buff, _count);
+				long tmp2 = Double.doubleToRawLongBits(avals[j]);
+				longToBa(tmp2, _buff, _count+4);
+				_count += 12;
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param val
@@ -0,0 +1,191 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataOutput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+
+/**
+ * Custom DataOutput to serialize directly into the given (direct, off-heap) 
+ * nio byte buffer. The serialized format is equivalent to CacheDataOutput
+ * (big endian), and hence compatible with CacheDataInput and local files.
+ * 
+ */
+public class CacheDataOutputDirect implements DataOutput, MatrixBlockDataOutput 
+{
+	protected java.nio.ByteBuffer _buff;
+
+	public CacheDataOutputDirect( java.nio.ByteBuffer mem ) 
+	{		
+		_buff = mem;
+	}
+	
+	@Override
+	public void write(int b) 
+		throws IOException 
+	{
+		_buff.put((byte)b);
+	}
+
+	@Override
+	public void write(byte[] b) 
+		throws IOException 
+	{
+		_buff.put(b);
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) 
+		throws IOException 
+	{
+		_buff.put(b, off, len);
+	}
+	
+	@Override
+	public void writeBoolean(boolean v) 
+		throws IOException 
+	{
+		_buff.put((byte)( v ? 1 : 0 ));
+	}
+
+	@Override
+	public void writeInt(int v) 
+		throws IOException 
+	{
+		_buff.putInt(v);
+	}
+	
+	@Override
+	public void writeDouble(double v) 
+		throws IOException 
+	{
+		_buff.putDouble(v);
+	}
+
+	@Override
+	public void writeByte(int v) throws IOException {
+		_buff.put((byte) v);
+	}
+
+	@Override
+	public void writeBytes(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChar(int v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChars(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+	
+	@Override
+	public void writeFloat(float v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeLong(long v) throws IOException {
+		_buff.putLong(v);
+	}
+
+	@Override
+	public void writeShort(int v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeUTF(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDSMDataOutput
+	///////////////////////////////////////////////	
+	
+	@Override
+	public void writeDoubleArray(int len, double[] varr) 
+		throws IOException
+	{
+		//bulk copy of entire array via double view of buffer
+		int off = _buff.position();
+		_buff.asDoubleBuffer().put(varr, 0, len);
+		
+		//update buffer offset
+		_buff.position(off + len*8);
+	}
+	
+	@Override
+	public void writeSparseRows(int rlen, SparseRow[] rows) 
+		throws IOException
+	{
+		int lrlen = Math.min(rows.length, rlen);
+		
+		//process existing rows
+		for( int i=0; i<lrlen; i++ )
+		{
+			SparseRow arow = rows[i];
+			if( arow!=null && !arow.isEmpty() )
+			{
+				int alen = arow.size();
+				int[] aix = arow.getIndexContainer();
+				double[] avals = arow.getValueContainer();
+				
+				_buff.putInt( alen );
+				for( int j=0; j<alen; j++ ) {
+					_buff.putInt(aix[j]);
+					_buff.putDouble(avals[j]);
+				}	
+			}
+			else 
+				_buff.putInt( 0 );
+		}
+		
+		//process remaining empty rows
+		for( int i=lrlen; i<rlen; i++ )
+			_buff.putInt( 0 );
+	}
+	
+	@Override
+	public void writeSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException
+	{
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		
+		for( int i=0; i<rlen; i++ )
+		{
+			int apos = csr.pos(i);
+			int alen = csr.size(i);
+			_buff.putInt( alen );
+			
+			for( int j=apos; j<apos+alen; j++ ) {
+				_buff.putInt(aix[j]);
+				_buff.putDouble(avals[j]);
+			}
+		}
+	}
+}
@@ -24,6 +24,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * This singleton provides basic caching statistics in CP.
  * 
  * 1) Hit statistics for caching (mem, fs, hdfs, total)
+ * 2) Eviction statistics of the buffer pool (num, size, evict/restore time)
+ * 3) Prefetch statistics of the write buffer (requests, hits)
+ * 4) Compression statistics of the write buffer and eviction files
  * 
  * NOTE: In order to provide accurate statistics in multi-threaded
  * synchronized increments are required. Since those functions are 
@@ -66,6 +69,22 @@ public class CacheStatistics
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
 	private static AtomicLong _ctimeRelease    = null; //in nano sec
 	private static AtomicLong _ctimeExport     = null; //in nano sec
+	
+	//eviction statistics buffer pool
+	private static AtomicInteger _numEvictions  = null;
+	private static AtomicLong _sizeEvictions    = null; //in bytes
+	private static AtomicLong _ctimeEvict       = null; //in nano sec
+	private static AtomicLong _ctimeRestore     = null; //in nano sec
+	
+	//prefetch statistics write buffer
+	private static AtomicInteger _numPrefetches = null;
+	private static AtomicInteger _numHitsPrefetch = null;
+	
+	//compression statistics write buffer and eviction files
+	private static AtomicLong _sizeRaw          = null; //in bytes
+	private static AtomicLong _sizeCompressed   = null; //in bytes
+	private static AtomicLong _ctimeCompress    = null; //in nano sec
+	private static AtomicLong _ctimeDecompress  = null; //in nano sec
 
 	static
 	{
@@ -88,6 +107,19 @@ public class CacheStatistics
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
 		_ctimeExport = new AtomicLong(0);
+		
+		_numEvictions = new AtomicInteger(0);
+		_sizeEvictions = new AtomicLong(0);
+		_ctimeEvict = new AtomicLong(0);
+		_ctimeRestore = new AtomicLong(0);
+		
+		_numPrefetches = new AtomicInteger(0);
+		_numHitsPrefetch = new AtomicInteger(0);
+		
+		_sizeRaw = new AtomicLong(0);
+		_sizeCompressed = new AtomicLong(0);
+		_ctimeCompress = new AtomicLong(0);
+		_ctimeDecompress = new AtomicLong(0);
 	}
 	
 	public static void incrementTotalHits()
@@ -251,6 +283,94 @@ public class CacheStatistics
 		return _ctimeExport.get();
 	}
 	
+	public static void incrementEvictions(long size)
+	{
+		_numEvictions.incrementAndGet();
+		_sizeEvictions.addAndGet(size);
+	}
+	
+	public static int getEvictions()
+	{
+		return _numEvictions.get();
+	}
+	
+	public static long getEvictionSize()
+	{
+		return _sizeEvictions.get();
+	}
+	
+	public static void incrementEvictTime(long delta)
+	{
+		_ctimeEvict.addAndGet(delta);
+	}
+	
+	public static long getEvictTime()
+	{
+		return _ctimeEvict.get();
+	}
+	
+	public static void incrementRestoreTime(long delta)
+	{
+		_ctimeRestore.addAndGet(delta);
+	}
+	
+	public static long getRestoreTime()
+	{
+		return _ctimeRestore.get();
+	}
+	
+	public static void incrementPrefetches()
+	{
+		_numPrefetches.incrementAndGet();
+	}
+	
+	public static int getPrefetches()
+	{
+		return _numPrefetches.get();
+	}
+	
+	public static void incrementPrefetchHits()
+	{
+		_numHitsPrefetch.incrementAndGet();
+	}
+	
+	public static int getPrefetchHits()
+	{
+		return _numHitsPrefetch.get();
+	}
+	
+	public static void incrementCompressedSize(long rawSize, long compSize)
+	{
+		_sizeRaw.addAndGet(rawSize);
+		_sizeCompressed.addAndGet(compSize);
+	}
+	
+	public static double getCompressionRatio()
+	{
+		long comp = _sizeCompressed.get();
+		return (comp > 0) ? (double)_sizeRaw.get() / comp : 1;
+	}
+	
+	public static void incrementCompressTime(long delta)
+	{
+		_ctimeCompress.addAndGet(delta);
+	}
+	
+	public static long getCompressTime()
+	{
+		return _ctimeCompress.get();
+	}
+	
+	public static void incrementDecompressTime(long delta)
+	{
+		_ctimeDecompress.addAndGet(delta);
+	}
+	
+	public static long getDecompressTime()
+	{
+		return _ctimeDecompress.get();
+	}
+	
 
 	public static String displayHits()
 	{	
@@ -296,5 +416,43 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayEvictions()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numEvictions.get());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_sizeEvictions.get())/(1024*1024))); //in MB
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeEvict.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeRestore.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
+	public static String displayPrefetches()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numPrefetches.get());
+		sb.append("/");
+		sb.append(_numHitsPrefetch.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayCompression()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.3f", ((double)_sizeRaw.get())/(1024*1024))); //in MB
+		sb.append("/");
+		sb.append(String.format("%.2f", getCompressionRatio()));
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeCompress.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeDecompress.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
 	
 }
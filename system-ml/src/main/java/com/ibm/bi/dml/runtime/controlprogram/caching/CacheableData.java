@@ -33,7 +33,6 @@ import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.util.IDSequence;
 import com.ibm.bi.dml.runtime.instructions.cp.Data;
-import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 
@@ -67,8 +66,9 @@ public abstract class CacheableData extends Data
 	public static final String CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	
 	
-	//flag indicating if caching is turned on (eviction writes only happen if activeFlag is true)
-	private static boolean _activeFlag = false;
+	//flag indicating if caching is turned on (eviction writes only happen if activeFlag is true),
+	//volatile in order to allow unsynchronized probes on every acquire/release of concurrent workers
+	private static volatile boolean _activeFlag = false;
 	
 	protected enum CACHE_EVICTION_STORAGE_TYPE { 
 		LOCAL, 
@@ -151,12 +151,11 @@ public abstract class CacheableData extends Data
 	/**
 	 * Low-level cache I/O method that physically evicts the data blob from
 	 * main memory.  Must be defined by a subclass, never called by users.
-	 * @param mb 
 	 * 
 	 * @throws CacheIOException if the eviction fails, the data blob
 	 *     remains as it was at the start.
 	 */
-	protected abstract void evictBlobFromMemory(MatrixBlock mb) 
+	protected abstract void evictBlobFromMemory() 
 		throws CacheIOException;
 	
 	/**
@@ -183,6 +182,14 @@ public abstract class CacheableData extends Data
 	 */
 	protected abstract boolean isBelowCachingThreshold();
 	
+	/**
+	 * Returns the in-memory size of the data blob in bytes, or 0 if 
+	 * the blob is not present.
+	 * 
+	 * @return
+	 */
+	protected abstract long getBlobSize();
+	
 	
 	// ------------- IMPLEMENTED CACHE LOGIC METHODS --------------	
 	
@@ -236,6 +243,10 @@ public abstract class CacheableData extends Data
 				throw new CacheStatusException ("MODIFY-MODIFY not allowed.");
 		}
 
+		//pin blob in buffer pool (no eviction while acquired)
+		if( isCachingActive() )
+			BufferPool.pin(this, getBlobSize());
+		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Acquired lock on " + this.getDebugName() + ", status: " + this.getStatusAsString() );		
 	}
@@ -276,6 +287,32 @@ public abstract class CacheableData extends Data
 			LOG.trace("Released lock on " + this.getDebugName() + ", status: " + this.getStatusAsString());
 		
 	}
+	
+	/**
+	 * Evicts the data blob on behalf of the buffer pool. Since the victim is 
+	 * selected outside the lock of this object, the eviction is skipped if the
+	 * blob has been acquired, cleared, or unregistered in the meantime.
+	 * 
+	 * @return size of the evicted blob in bytes, or 0 if not evicted
+	 * @throws CacheException
+	 */
+	protected synchronized long evict()
+		throws CacheException
+	{
+		if( !isCached() || !isBlobPresent() )
+			return 0;
+		
+		long size = BufferPool.remove(this);
+		if( size < 0 ) //not subject to caching
+			return 0;
+		
+		evictBlobFromMemory();
+		
+		if( LOG.isTraceEnabled() )
+			LOG.trace("Evicted " + this.getDebugName() + " (" + size + " bytes).");
+		
+		return size;
+	}
 
 	
 	//  **************************************************
@@ -354,8 +391,9 @@ public abstract class CacheableData extends Data
 	 */
 	public synchronized static void cleanupCacheDir()
 	{
-		//cleanup remaining cached writes
+		//cleanup remaining cached writes and buffer pool
 		LazyWriteBuffer.cleanup();
+		BufferPool.cleanup();
 		
 		//delete cache dir and files
 		cleanupCacheDir(true);
@@ -459,23 +497,25 @@ public abstract class CacheableData extends Data
 			throw new IOException(e);
 		}
 	
-		//init write-ahead buffer
+		//init write-ahead buffer, buffer pool, and compression
 		LazyWriteBuffer.init();
+		BufferPool.init();
+		CacheCodec.init();
 		
 		_activeFlag = true; //turn on caching
 	}
 	
-	public static synchronized boolean isCachingActive()
+	public static boolean isCachingActive()
 	{
 		return _activeFlag;
 	}
 	
-	public static synchronized void disableCaching()
+	public static void disableCaching()
 	{
 		_activeFlag = false;
 	}
 	
-	public static synchronized void enableCaching()
+	public static void enableCaching()
 	{
 		_activeFlag = true;
 	}
@@ -17,37 +17,96 @@
 
 package com.ibm.bi.dml.runtime.controlprogram.caching;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
 
 /**
+ * Write buffer of serialized matrices, which are lazily written to local FS.
  * 
+ * Local writes of evicted buffers and reads of prefetched matrices are done 
+ * asynchronously by background I/O threads. Pending writes still count against 
+ * the buffer size, i.e., writers wait for pending writes if the buffer is 
+ * exhausted (back-pressure). Reads of pending writes are served from the 
+ * in-memory buffer. Failed asynchronous writes put the buffer back into the 
+ * write buffer (i.e., it is never dropped), and the error is reported on the 
+ * next write or read of any matrix.
  * 
+ * NOTE: The buffer meta data is accessed by many concurrent (e.g., parfor) 
+ * workers, and hence, does not use a global lock. Buffered, pending, and 
+ * prefetched matrices are kept in concurrent maps keyed by file name, the size
+ * is maintained via atomic reservations, and the eviction order is a lock-free 
+ * clock (FIFO with second chance for referenced buffers if LRU). Operations on 
+ * the same file name are serialized by the lock of the owning cache object. 
+ * The only lock is used for waiting on pending writes.
  */
 public class LazyWriteBuffer 
 {
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
 	
 	public enum RPolicy{
 		FIFO,
 		LRU
 	}
 	
+	//number of background I/O threads (async writes and prefetch)
+	private static final int NUM_IO_THREADS = 2;
+	
+	//max number of outstanding prefetch requests
+	private static final int MAX_PREFETCH = 4;
+	
+	//keep alive time of idle I/O threads (in seconds)
+	private static final long KEEP_ALIVE_TIME = 10;
+	
 	//global size limit in bytes
 	private static long _limit; 
 	
-	//current size in bytes
-	private static long _size;  
+	//flag for off-heap buffers (direct memory, explicitly freed)
+	private static boolean _offHeap = false;
+	
+	//current size in bytes (incl pending writes and prefetched matrices)
+	private static final AtomicLong _size = new AtomicLong(0);
+	
+	//buffered <filename,buffer> pairs and eviction order of buffered filenames 
+	//(clock ring, where stale filenames of deleted buffers are skipped)
+	private static ConcurrentHashMap<String, ByteBuffer> _mBuffer;
+	private static ConcurrentLinkedQueue<String> _mClock;
+	
+	//pending asynchronous writes of <filename,buffer> pairs and 
+	//outstanding prefetch requests of <filename,prefetch> pairs
+	private static ConcurrentHashMap<String, ByteBuffer> _pWrites;
+	private static ConcurrentHashMap<String, Prefetch> _pReads;
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
-	private static EvictionQueue _mQueue;
+	//monitor for waiting on pending writes (back-pressure, deletes)
+	private static final Object _wLock = new Object();
+	
+	//error of the last failed asynchronous write (reported on next write/read)
+	private static final AtomicReference<IOException> _wError = new AtomicReference<IOException>();
+	
+	//background I/O threads (lazily created)
+	private static ThreadPoolExecutor _ioPool = null;
 	
 	static 
 	{
@@ -65,49 +124,24 @@ public class LazyWriteBuffer
 	public static void writeMatrix( String fname, MatrixBlock mb ) 
 		throws IOException
 	{	
+		//report failed asynchronous writes
+		checkFailedWrites();
+		
 		long lSize = mb.getExactSizeOnDisk(); 
 		boolean requiresWrite = (   lSize > _limit  //global buffer limit
-				                 || !ByteBuffer.isValidCapacity(lSize, mb) ); //local buffer limit
+				                 || !ByteBuffer.isValidCapacity(lSize, mb, _offHeap) ); //local buffer limit
 	
 		if( !requiresWrite ) //if it fits in writebuffer
 		{			
-			ByteBuffer bbuff = null;
+			//reserve buffer size (evict matrices to make room)
+			reserve(lSize);
 			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize >= _limit )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null )
-					{
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size-=tmp.getSize();
-						
-						if( DMLScript.STATISTICS )
-							CacheStatistics.incrementFSWrites();
-					}
-				}
-				
-				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
-				
-				//put placeholder into buffer pool 
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;	
-			}
+			//create buffer and put placeholder into write buffer
+			ByteBuffer bbuff = new ByteBuffer( lSize, _offHeap );
+			_mBuffer.put(fname, bbuff);
+			_mClock.offer(fname);
 			
-			//serialize matrix (outside synchronized critical path)
+			//serialize matrix (concurrent readers wait for serialization)
 			bbuff.serializeMatrix(mb);
 			
 			if( DMLScript.STATISTICS )
@@ -116,7 +150,7 @@ public class LazyWriteBuffer
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
-			LocalFileUtils.writeMatrixBlockToLocal(fname, mb);
+			CacheCodec.writeMatrixBlockToLocal(fname, mb);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSWrites();
 		}	
@@ -126,20 +160,38 @@ public class LazyWriteBuffer
 	 * 
 	 * @param fname
 	 */
-	public static void deleteMatrix( String fname )
+	public static void deleteMatrix( String fname ) 
 	{
 		boolean requiresDelete = true;
 		
-		synchronized( _mQueue )
+		//drop outstanding prefetch request
+		dropPrefetch(fname);
+		
+		//remove buffer entry (atomic w/ concurrent evictions)
+		ByteBuffer ldata = _mBuffer.remove(fname);
+		if( ldata != null )
 		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null )
-			{
-				_size -= ldata.getSize(); 
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+			_mClock.remove(fname);
+			_size.addAndGet(-ldata.getSize()); 
+			requiresDelete = false;
+			ldata.freeMemory(); //cleanup
+		}
+		
+		//wait for pending write before delete
+		try {
+			waitForPendingWrite(fname);
+		}
+		catch(IOException ex) {
+			LOG.error("Failed to wait for pending write of "+fname+".", ex);
+		}
+		
+		//remove buffer entry put back by a failed pending write
+		ldata = _mBuffer.remove(fname);
+		if( ldata != null )
+		{
+			_mClock.remove(fname);
+			_size.addAndGet(-ldata.getSize()); 
+			ldata.freeMemory(); //cleanup
 		}
 		
 		//delete from FS if required
@@ -157,47 +209,112 @@ public class LazyWriteBuffer
 		throws IOException
 	{
 		MatrixBlock mb = null;
-		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
+		//report failed asynchronous writes
+		checkFailedWrites();
+		
+		//probe prefetch requests 
+		Prefetch pdata = _pReads.remove(fname);
+		if( pdata != null ) 
+			_size.addAndGet(-pdata.size);
+		
+		//probe write buffer, and pending writes (evictions register the pending 
+		//write before removing the buffer entry, hence no lost buffers)
+		ByteBuffer ldata = _mBuffer.get(fname);
+		if( ldata != null ) 
+			ldata.setReferenced(true); //second chance on eviction
+		else
+			ldata = _pWrites.get(fname);
+		
+		//get prefetched matrix (fallback to sync read on failures)
+		if( pdata != null )
 		{
-			ldata = _mQueue.get(fname);
-			
-			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
-				&& ldata != null )
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
+			try {
+				mb = pdata.future.get();
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementPrefetchHits();
+			}
+			catch(Exception ex) {
+				LOG.warn("Failed to prefetch "+fname+", reading it synchronously.", ex);
 			}
 		}
 		
-		//deserialize or read from FS if required
-		if( ldata != null )
+		//deserialize (null if freed after async write)
+		if( mb == null && ldata != null )
 		{
+			ldata.checkSerialized();
 			mb = ldata.deserializeMatrix();
-			if( DMLScript.STATISTICS )
+			if( DMLScript.STATISTICS && mb != null )
 				CacheStatistics.incrementFSBuffHits();
 		}
-		else
+		
+		//read from FS if required
+		if( mb == null )
 		{
-			mb = LocalFileUtils.readMatrixBlockFromLocal(fname); //read from FS
+			mb = CacheCodec.readMatrixBlockFromLocal(fname); //read from FS
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSHits();
 		}
 		
 		return mb;
 	}
+	
+	/**
+	 * Asynchronously reads (or deserializes) the given matrix into memory
+	 * in order to overlap I/O with compute of preceding instructions. The 
+	 * request is ignored if the matrix is already in memory, too many
+	 * requests are outstanding, or the write buffer is exhausted.
+	 * 
+	 * @param fname
+	 */
+	public static void prefetchMatrix( String fname )
+	{
+		if( _pReads.containsKey(fname) || _pReads.size() >= MAX_PREFETCH )
+			return;
+		
+		//probe write buffer and pending writes
+		ByteBuffer ldata = _mBuffer.get(fname);
+		if( ldata == null )
+			ldata = _pWrites.get(fname);
+		
+		//obtain local file size 
+		File f = new File(fname);
+		long fSize = (ldata == null && f.exists()) ? f.length() : -1;
+		
+		//ignore shallow-serialized (dense) buffers or non-existing files
+		if( (ldata != null && ldata.isShallowSerialized()) 
+			|| (ldata == null && fSize <= 0) )
+			return;
+		
+		//ignore prefetch if write buffer exhausted
+		long lSize = (ldata != null) ? ldata.getSize() : fSize;
+		if( !tryReserve(lSize) )
+			return;
+		
+		Future<MatrixBlock> future = getIOPool().submit(new PrefetchTask(fname, ldata));
+		_pReads.put(fname, new Prefetch(future, lSize));
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetches();
+	}
 		
 	/**
 	 * 
 	 */
 	public static void init()
 	{
-		_mQueue = new EvictionQueue();		
-		_size = 0;
+		//obtain the logical buffer size in bytes (off-heap size in MB if configured)
+		DMLConfig conf = ConfigurationManager.getConfig();
+		long offHeapSize = (conf != null) ? conf.getIntValue(DMLConfig.CP_CACHE_OFFHEAP) : 0;
+		_offHeap = (offHeapSize > 0);
+		_limit = _offHeap ? offHeapSize * 1024 * 1024 : getWriteBufferSize();
+		
+		_mBuffer = new ConcurrentHashMap<String, ByteBuffer>();
+		_mClock = new ConcurrentLinkedQueue<String>();
+		_pWrites = new ConcurrentHashMap<String, ByteBuffer>();
+		_pReads = new ConcurrentHashMap<String, Prefetch>();
+		_size.set(0);
+		_wError.set(null);
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -207,8 +324,27 @@ public class LazyWriteBuffer
 	 */
 	public static void cleanup()
 	{
-		if( _mQueue!=null )
-			_mQueue.clear();
+		if( _mBuffer!=null )
+		{
+			//drop prefetches and wait for pending writes
+			//(prevent writes into the deleted cache dir)
+			while( dropPrefetch() );
+			while( !_pWrites.isEmpty() ) {
+				try {
+					waitForPendingWrites();
+				}
+				catch(IOException ex) {
+					LOG.error("Failed to wait for pending writes.", ex);
+					break;
+				}
+			}
+			for( ByteBuffer bbuff : _mBuffer.values() )
+				bbuff.freeMemory();
+			_mBuffer.clear();
+			_mClock.clear();
+			_size.set(0);
+			_wError.set(null);
+		}
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
 	}
@@ -223,6 +359,35 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * 
+	 * @return
+	 */
+	public static boolean isOffHeap()
+	{
+		return _offHeap;
+	}
+	
+	/**
+	 * Returns the reserved size of buffered matrices, pending writes, 
+	 * and outstanding prefetches.
+	 * 
+	 * @return
+	 */
+	public static long getSize()
+	{
+		return _size.get();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static long getLimit()
+	{
+		return _limit;
+	}
+	
 	/**
 	 * 
 	 */
@@ -233,12 +398,12 @@ public class LazyWriteBuffer
 		//print buffer meta data
 		System.out.println("\tWB: Buffer Meta Data: " +
 				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+				     "size[bytes]="+_size.get()+", " +
+				     "size[elements]="+_mBuffer.size()+"/"+_pWrites.size());
 		
 		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
+		int count = _mBuffer.size();
+		for( Entry<String, ByteBuffer> entry : _mBuffer.entrySet() )
 		{
 			String fname = entry.getKey();
 			ByteBuffer bbuff = entry.getValue();
@@ -249,30 +414,327 @@ public class LazyWriteBuffer
 	}
 	
 	/**
-	 * Extended LinkedHashMap with convenience methods for adding and removing 
-	 * last/first entries.
+	 * Reserves the given size in the write buffer. If the buffer is exhausted,
+	 * buffered matrices are evicted, outstanding prefetches dropped, or pending 
+	 * writes awaited. If none of those is available, the buffer is overcommitted.
+	 * 
+	 * @param lSize
+	 * @throws IOException
+	 */
+	private static void reserve( long lSize ) 
+		throws IOException
+	{
+		while( !tryReserve(lSize) )
+		{
+			//report failed writes (prevent endless evictions)
+			checkFailedWrites();
+			
+			if( evictBuffer() || dropPrefetch() )
+				continue;
+			if( _pWrites.isEmpty() ) {
+				_size.addAndGet(lSize); //overcommit
+				break;
+			}
+			//wait for pending writes (back-pressure)
+			while( !_pWrites.isEmpty() && _size.get()+lSize > _limit )
+				waitForPendingWrites();
+		}
+	}
+	
+	/**
+	 * Atomically reserves the given size if it fits into the write buffer.
+	 * 
+	 * @param lSize
+	 * @return true if the size was reserved
+	 */
+	private static boolean tryReserve( long lSize )
+	{
+		while( true ) {
+			long size = _size.get();
+			if( size + lSize > _limit )
+				return false;
+			if( _size.compareAndSet(size, size + lSize) )
+				return true;
+		}
+	}
+	
+	/**
+	 * Evicts the next buffer according to the clock, i.e., skips (and resets) 
+	 * referenced buffers if LRU, and submits an asynchronous local write. 
 	 * 
+	 * @return true if a buffer was evicted
 	 */
-	private static class EvictionQueue extends LinkedHashMap<String, ByteBuffer>
+	private static boolean evictBuffer()
 	{
-		private static final long serialVersionUID = -5208333402581364859L;
+		String fname = null;
+		while( (fname = _mClock.poll()) != null )
+		{
+			ByteBuffer bbuff = _mBuffer.get(fname);
+			if( bbuff == null ) //stale entry
+				continue;
+			
+			//second chance for referenced buffers
+			if( CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
+				&& bbuff.isReferenced() ) {
+				bbuff.setReferenced(false);
+				_mClock.offer(fname);
+				continue;
+			}
+			
+			//register pending write before removal (for concurrent readers), 
+			//and undo on concurrent delete of the same buffer
+			_pWrites.put(fname, bbuff);
+			if( _mBuffer.remove(fname, bbuff) ) {
+				getIOPool().submit(new WriteTask(fname, bbuff));
+				return true;
+			}
+			releasePendingWrite(fname, bbuff);
+		}
 		
-		public void addLast( String fname, ByteBuffer bbuff )
+		return false;
+	}
+	
+	/**
+	 * Drops an outstanding prefetch request of the given file.
+	 * 
+	 * @param fname
+	 * @return true if a prefetch request was dropped
+	 */
+	private static boolean dropPrefetch( String fname )
+	{
+		Prefetch pdata = _pReads.remove(fname);
+		if( pdata != null ) {
+			pdata.future.cancel(false);
+			_size.addAndGet(-pdata.size);
+		}
+		return (pdata != null);
+	}
+	
+	/**
+	 * Drops an arbitrary outstanding prefetch request.
+	 * 
+	 * @return true if a prefetch request was dropped
+	 */
+	private static boolean dropPrefetch()
+	{
+		Iterator<String> iter = _pReads.keySet().iterator();
+		while( iter.hasNext() )
+			if( dropPrefetch(iter.next()) )
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Throws (and resets) the error of the last failed asynchronous write,
+	 * if any. The buffer of the failed write is still in the write buffer.
+	 * 
+	 * @throws IOException
+	 */
+	private static void checkFailedWrites() 
+		throws IOException
+	{
+		IOException ex = _wError.getAndSet(null);
+		if( ex != null )
+			throw new IOException("Failed asynchronous write of evicted buffer.", ex);
+	}
+	
+	/**
+	 * Removes the given pending write and notifies waiting threads.
+	 * 
+	 * @param fname
+	 * @param bbuff
+	 */
+	private static void releasePendingWrite( String fname, ByteBuffer bbuff )
+	{
+		_pWrites.remove(fname, bbuff);
+		synchronized( _wLock ) {
+			_wLock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Waits for the completion of the pending write of the given file.
+	 * 
+	 * @param fname
+	 * @throws IOException
+	 */
+	private static void waitForPendingWrite( String fname ) 
+		throws IOException
+	{
+		synchronized( _wLock )
+		{
+			try {
+				while( _pWrites.containsKey(fname) )
+					_wLock.wait();
+			}
+			catch(InterruptedException ex) {
+				throw new IOException("Interrupted while waiting for pending writes.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Waits for the completion of any pending write. Callers that require
+	 * the completion of all pending writes need to loop until no pending 
+	 * writes are left.
+	 * 
+	 * @throws IOException
+	 */
+	private static void waitForPendingWrites() 
+		throws IOException
+	{
+		synchronized( _wLock )
+		{
+			try {
+				if( !_pWrites.isEmpty() )
+					_wLock.wait();
+			}
+			catch(InterruptedException ex) {
+				throw new IOException("Interrupted while waiting for pending writes.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static synchronized ThreadPoolExecutor getIOPool()
+	{
+		//lazy pool creation on first async write or prefetch 
+		if( _ioPool == null )
 		{
-			//put entry into eviction queue w/ 'addLast' semantics
-			put(fname, bbuff);
+			_ioPool = new ThreadPoolExecutor(NUM_IO_THREADS, NUM_IO_THREADS, KEEP_ALIVE_TIME, 
+					TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new IOThreadFactory());
+			_ioPool.allowCoreThreadTimeOut(true);
+		}
+		
+		return _ioPool;
+	}
+	
+	/**
+	 * Outstanding prefetch request with reserved buffer size.
+	 */
+	private static class Prefetch
+	{
+		private Future<MatrixBlock> future = null;
+		private long size = -1;
+		
+		protected Prefetch( Future<MatrixBlock> future, long size ) {
+			this.future = future;
+			this.size = size;
 		}
+	}
+	
+	/**
+	 * Task for asynchronously writing an evicted buffer to local FS. The 
+	 * buffer is released from the pending writes only after the write, hence, 
+	 * concurrent reads are served from memory. On failures, the buffer is put
+	 * back into the write buffer (with its reserved size) before the release.
+	 */
+	private static class WriteTask implements Callable<Object>
+	{
+		private String _fname = null;
+		private ByteBuffer _bbuff = null;
 		
-		public Entry<String, ByteBuffer> removeFirst() 
+		protected WriteTask( String fname, ByteBuffer bbuff ) {
+			_fname = fname;
+			_bbuff = bbuff;
+		}
+		
+		@Override
+		public Object call() 
+			throws IOException
 		{
-			//move iterator to first entry
-			Iterator<Entry<String, ByteBuffer>> iter = entrySet().iterator();
-			Entry<String, ByteBuffer> entry = iter.next();
+			boolean success = false;
+			try
+			{
+				//wait for pending serialization
+				_bbuff.checkSerialized();
+				
+				//evict matrix, and free off-heap buffer (concurrent
+				//readers of the freed buffer fall back to local FS)
+				_bbuff.evictBuffer(_fname);
+				success = true;
+				if( _bbuff.isOffHeap() )
+					_bbuff.freeMemory();
+				
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementFSWrites();
+			}
+			catch(Exception ex)
+			{
+				LOG.error("Failed to write evicted buffer "+_fname+".", ex);
+				IOException ioe = (ex instanceof IOException) ? (IOException)ex : new IOException(ex);
+				_wError.set(ioe);
+				throw ioe;
+			}
+			finally
+			{
+				if( success ) {
+					//release reserved buffer (no explicit free 
+					//because of potential concurrent readers)
+					_size.addAndGet(-_bbuff.getSize());
+				}
+				else {
+					//put buffer back (reserved size retained) before the release of 
+					//the pending write (no lost buffers), and delete partial files
+					LocalFileUtils.deleteFileIfExists(_fname, true);
+					_mBuffer.put(_fname, _bbuff);
+					_mClock.offer(_fname);
+				}
+				
+				//notify waiting writers and deletes
+				releasePendingWrite(_fname, _bbuff);
+			}
 			
-			//remove current iterator entry
-			iter.remove();
+			return null;
+		}
+	}
+	
+	/**
+	 * Task for asynchronously reading a matrix from local FS or 
+	 * deserializing a matrix from the write buffer.
+	 */
+	private static class PrefetchTask implements Callable<MatrixBlock>
+	{
+		private String _fname = null;
+		private ByteBuffer _bbuff = null;
+		
+		protected PrefetchTask( String fname, ByteBuffer bbuff ) {
+			_fname = fname;
+			_bbuff = bbuff;
+		}
+		
+		@Override
+		public MatrixBlock call() 
+			throws IOException
+		{
+			MatrixBlock ret = null;
+			if( _bbuff != null ) {
+				_bbuff.checkSerialized();
+				ret = _bbuff.deserializeMatrix();
+			}
 			
-			return entry;
+			//read from FS if not buffered (or freed after async write)
+			return (ret != null) ? ret : 
+				CacheCodec.readMatrixBlockFromLocal(_fname);
+		}
+	}
+	
+	/**
+	 * Daemon thread factory for background I/O threads.
+	 */
+	private static class IOThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger _seq = new AtomicInteger(0);
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread t = new Thread(r, "cache-io-"+_seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
 		}
 	}
 }
@@ -28,11 +28,14 @@ import com.ibm.bi.dml.parser.DMLTranslator;
 import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.compress.CompressedMatrixBlock;
 import com.ibm.bi.dml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
 import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import com.ibm.bi.dml.runtime.instructions.spark.data.BroadcastObject;
 import com.ibm.bi.dml.runtime.instructions.spark.data.RDDObject;
 import com.ibm.bi.dml.runtime.instructions.spark.data.RDDProperties;
+import com.ibm.bi.dml.runtime.io.ReaderBinaryBlockIndexed;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
 import com.ibm.bi.dml.runtime.matrix.MatrixDimensionsMetaData;
 import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
@@ -63,14 +66,20 @@ public class MatrixObject extends CacheableData
 	private static final long serialVersionUID = 6374712373206495637L;
 
 	/**
-	 * Cache for actual data, evicted by garbage collector.
+	 * Cache for the last read block-wise partition, evicted by garbage collector.
 	 */
-	private SoftReference<MatrixBlock> _cache = null;
+	private SoftReference<MatrixBlock> _partitionCache = null;
 
 	/**
 	 * Container object that holds the actual data.
 	 */
 	private MatrixBlock _data = null;
+	
+	/**
+	 * Decompressed copy of compressed matrix data for operations without
+	 * compressed support, which is accounted as part of the blob size.
+	 */
+	private MatrixBlock _dataDecompressed = null;
 
 	/**
 	 * The name of HDFS file in which the data is backed up.
@@ -107,9 +116,10 @@ public class MatrixObject extends CacheableData
 	//additional names and flags
 	private String _varName = ""; //plan variable name
 	private String _cacheFileName = null; //local eviction file name
-	private boolean _requiresLocalWrite = false; //flag if local write for read obj
+	private boolean _cacheFileExists = false; //flag if local eviction copy exists (WB or FS)
 	private boolean _cleanupFlag = true; //flag if obj unpinned (cleanup enabled)
 	private boolean _pinnedFlag = false; //flag if in-place update TODO maybe rename to updateInPlace
+	private boolean _compressedFlag = false; //flag if evicted blob was compressed (recompress on restore)
 	
 	//spark-specific handles
 	//note: we use the abstraction of LineageObjects for two reasons: (1) to keep track of cleanup
@@ -158,7 +168,7 @@ public class MatrixObject extends CacheableData
 		_metaData = mtd; 
 		_hdfsFileName = file;
 		
-		_cache = null;
+		_partitionCache = null;
 		_data = null;
 	}
 	
@@ -445,7 +455,40 @@ public class MatrixObject extends CacheableData
 	 * @return the matrix data reference
 	 * @throws CacheException 
 	 */
-	public synchronized MatrixBlock acquireRead()
+	public MatrixBlock acquireRead()
+		throws CacheException
+	{
+		return acquireRead( false );
+	}
+	
+	/**
+	 * Acquires a shared "read-only" lock as acquireRead() but allows to obtain
+	 * the matrix data in compressed form. Matrices read from HDFS are compressed
+	 * if compressed linear algebra is enabled; callers that do not explicitly
+	 * allow compressed data obtain a decompressed copy.
+	 * 
+	 * @param allowCompressed
+	 * @return the matrix data reference
+	 * @throws CacheException
+	 */
+	public MatrixBlock acquireRead( boolean allowCompressed )
+		throws CacheException
+	{
+		MatrixBlock ret = acquireReadIntern( allowCompressed );
+		
+		//evict other blobs if required (outside object lock)
+		BufferPool.makeSpace();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param allowCompressed
+	 * @return
+	 * @throws CacheException
+	 */
+	private synchronized MatrixBlock acquireReadIntern( boolean allowCompressed )
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -455,10 +498,6 @@ public class MatrixObject extends CacheableData
 		if ( !isAvailableToRead() )
 			throw new CacheStatusException ("MatrixObject not available to read.");
 		
-		//get object from cache
-		if( _data == null )
-			getCache();
-		
 		//read data from HDFS/RDD if required
 		if( isEmpty() && _data==null ) //probe data for jvm_reuse support  
 		{			
@@ -475,12 +514,20 @@ public class MatrixObject extends CacheableData
 
 					//read matrix from hdfs
 					_data = readMatrixFromHDFS( _hdfsFileName );
+					
+					//compress read-only input matrix (if beneficial), or
+					//convert sparse input matrix into read-optimized csr
+					if( OptimizerUtils.ALLOW_COMPRESSED_LINALG )
+						_data = CompressedMatrixBlock.compress( _data, InfrastructureAnalyzer.getLocalParallelism() );
+					if( OptimizerUtils.ALLOW_SPARSE_CSR_INPUTS && !CompressedMatrixBlock.isCompressedBlock(_data) )
+						_data.sparseToCSR();
 				}
 				else
 				{
 					//read matrix from rdd (incl execute pending rdd operations)
 					_data = readMatrixFromRDD( getRDDHandle() );
 				}
+				_data.setOwner(getUniqueCacheID());
 				
 				_dirtyFlag = false;
 			}
@@ -488,9 +535,10 @@ public class MatrixObject extends CacheableData
 			{
 				throw new CacheIOException("Reading of " + _hdfsFileName + " ("+_varName+") failed.", e);
 			}
-			
-			//mark for initial local write despite read operation
-			_requiresLocalWrite = true;
+			catch (DMLRuntimeException e)
+			{
+				throw new CacheException("Compression of " + _hdfsFileName + " ("+_varName+") failed.", e);
+			}
 		}
 		else if( DMLScript.STATISTICS )
 		{
@@ -504,6 +552,22 @@ public class MatrixObject extends CacheableData
 			CacheStatistics.incrementAcquireRTime(t1-t0);
 		}
 		
+		//decompressed copy for operations w/o compressed support
+		//(created once and accounted in the buffer pool until eviction)
+		if( !allowCompressed && CompressedMatrixBlock.isCompressedBlock(_data) ) {
+			if( _dataDecompressed == null ) {
+				try {
+					_dataDecompressed = ((CompressedMatrixBlock)_data).decompress();
+				}
+				catch(DMLRuntimeException ex) {
+					throw new CacheException(ex);
+				}
+				if( isCachingActive() )
+					BufferPool.resize(this, getBlobSize());
+			}
+			return _dataDecompressed;
+		}
+		
 		return _data;
 	}
 	
@@ -518,7 +582,23 @@ public class MatrixObject extends CacheableData
 	 * @return the matrix data reference
 	 * @throws CacheException 
 	 */
-	public synchronized MatrixBlock acquireModify() 
+	public MatrixBlock acquireModify() 
+		throws CacheException
+	{
+		MatrixBlock ret = acquireModifyIntern();
+		
+		//evict other blobs if required (outside object lock)
+		BufferPool.makeSpace();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 * @throws CacheException
+	 */
+	private synchronized MatrixBlock acquireModifyIntern() 
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -528,10 +608,6 @@ public class MatrixObject extends CacheableData
 		if ( !isAvailableToModify() )
 			throw new CacheStatusException("MatrixObject not available to modify.");
 		
-		//get object from cache
-		if( _data == null )
-			getCache();
-		
 		//read data from HDFS if required
 		if( isEmpty() )
 		{
@@ -543,6 +619,7 @@ public class MatrixObject extends CacheableData
 			try
 			{
 				_data = readMatrixFromHDFS( _hdfsFileName );
+				_data.setOwner(getUniqueCacheID());
 			}
 			catch (IOException e)
 			{
@@ -554,6 +631,20 @@ public class MatrixObject extends CacheableData
 		acquire( true, _data==null );
 		_dirtyFlag = true;
 		
+		//decompress for in-place updates (reuse decompressed copy)
+		if( CompressedMatrixBlock.isCompressedBlock(_data) ) {
+			try {
+				_data = getDecompressedData();
+				_data.setOwner(getUniqueCacheID());
+				_dataDecompressed = null;
+			}
+			catch(DMLRuntimeException ex) {
+				throw new CacheException(ex);
+			}
+			if( isCachingActive() )
+				BufferPool.resize(this, getBlobSize());
+		}
+		
 		if( DMLScript.STATISTICS ){
 			long t1 = System.nanoTime();
 			CacheStatistics.incrementAcquireMTime(t1-t0);
@@ -574,7 +665,24 @@ public class MatrixObject extends CacheableData
 	 * @return the matrix data reference, which is the same as the argument
 	 * @throws CacheException 
 	 */
-	public synchronized MatrixBlock acquireModify(MatrixBlock newData)
+	public MatrixBlock acquireModify(MatrixBlock newData)
+		throws CacheException
+	{
+		MatrixBlock ret = acquireModifyIntern( newData );
+		
+		//evict other blobs if required (outside object lock)
+		BufferPool.makeSpace();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param newData
+	 * @return
+	 * @throws CacheException
+	 */
+	private synchronized MatrixBlock acquireModifyIntern(MatrixBlock newData)
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -595,6 +703,7 @@ public class MatrixObject extends CacheableData
 		if (newData == null)
 			throw new CacheException("acquireModify with empty matrix block.");
 		_data = newData; 
+		_data.setOwner(getUniqueCacheID());
 		
 		if( DMLScript.STATISTICS ){
 			long t1 = System.nanoTime();
@@ -617,7 +726,20 @@ public class MatrixObject extends CacheableData
 	 * @throws CacheStatusException
 	 */
 	@Override
-	public synchronized void release() 
+	public void release() 
+		throws CacheException
+	{
+		releaseIntern();
+		
+		//evict blobs if required (outside object lock)
+		BufferPool.makeSpace();
+	}
+	
+	/**
+	 * 
+	 * @throws CacheException
+	 */
+	private synchronized void releaseIntern() 
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -641,31 +763,24 @@ public class MatrixObject extends CacheableData
 		
 		super.release();
 
+		//invalidate stale local copy of modified blob
+		if( write && _cacheFileExists )
+			freeEvictedBlob();
+		
 		if(    isCachingActive() //only if caching is enabled (otherwise keep everything in mem)
 			&& isCached() //not empty and not read/modify
 			&& !isUpdateInPlace()        //pinned result variable
 		    && !isBelowCachingThreshold() ) //min size for caching
 		{
-			if( write || _requiresLocalWrite ) 
-			{
-				//evict blob
-				String filePath = getCacheFilePathAndName();
-				try {
-					writeMatrix (filePath);
-				}
-				catch (Exception e)
-				{
-					throw new CacheException("Eviction to local path " + filePath + " ("+_varName+") failed.", e);
-				}
-				_requiresLocalWrite = false;
-			}
-			
-			//create cache
-			createCache();
-			_data = null;			
+			//make blob evictable (write-back on eviction if no local copy)
+			BufferPool.unpin(this, getBlobSize(), !_cacheFileExists);
 		}
-		else if( LOG.isTraceEnabled() ){
-			LOG.trace("Var "+_varName+" not subject to caching: rows="+_data.getNumRows()+", cols="+_data.getNumColumns()+", state="+getStatusAsString());
+		else if( isAvailableToModify() ) //not still read by others
+		{
+			//unregister blob not subject to caching
+			BufferPool.remove(this);
+			if( LOG.isTraceEnabled() )
+				LOG.trace("Var "+_varName+" not subject to caching: rows="+_data.getNumRows()+", cols="+_data.getNumColumns()+", state="+getStatusAsString());
 		}
 		
 		if( DMLScript.STATISTICS ){
@@ -674,6 +789,17 @@ public class MatrixObject extends CacheableData
 		}
 	}
 
+	/**
+	 * Hints an upcoming read of this matrix, which asynchronously prefetches
+	 * the matrix from the local write buffer or FS if it has been evicted.
+	 */
+	public synchronized void prefetch()
+	{
+		if(    isCached() && _data == null && _cacheFileExists 
+			&& cacheEvictionStorageType == CACHE_EVICTION_STORAGE_TYPE.LOCAL )
+			LazyWriteBuffer.prefetchMatrix( getCacheFilePathAndName() );
+	}
+	
 	/**
 	 * Sets the matrix data reference to <code>null</code>, abandons the old matrix.
 	 * Makes the "envelope" empty.  Run it to finalize the matrix (otherwise the
@@ -685,6 +811,21 @@ public class MatrixObject extends CacheableData
 	 */
 	public synchronized void clearData() 
 		throws CacheException
+	{
+		clearData(false);
+	}
+	
+	/**
+	 * Same as clearData() but optionally returns an exclusively owned dense 
+	 * block to the dense block pool. Recycling is only safe if no other 
+	 * references to the matrix block exist, which is the case for the rmvar 
+	 * cleanup of unreferenced matrix objects.
+	 * 
+	 * @param recycle
+	 * @throws CacheException
+	 */
+	public synchronized void clearData( boolean recycle ) 
+		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Clear data "+_varName);
@@ -696,13 +837,18 @@ public class MatrixObject extends CacheableData
 			throw new CacheStatusException ("MatrixObject (" + this.getDebugName() + ") not available to modify. Status = " + this.getStatusAsString() + ".");
 		
 		// clear existing WB / FS representation (but prevent unnecessary probes)
-		if( !(isEmpty()||(_data!=null && isBelowCachingThreshold()) 
-			  ||(_data!=null && !isCachingActive()) )) //additional condition for JMLC
+		if( _cacheFileExists )
 			freeEvictedBlob();	
 		
-		// clear the in-memory data
+		// clear the in-memory data and buffer pool entry (if requested, recycle 
+		// exclusively owned dense blocks unless referenced by rdds/broadcasts)
+		if( recycle && _data != null && _rddHandle == null && _bcHandle == null 
+			&& !OptimizerUtils.isSparkExecutionMode() )
+			_data.recycleDenseBlock(getUniqueCacheID());
 		_data = null;	
-		clearCache();
+		_dataDecompressed = null;
+		_compressedFlag = false;
+		BufferPool.remove(this);
 		
 		// clear rdd/broadcast back refs
 		if( _rddHandle != null )
@@ -815,6 +961,7 @@ public class MatrixObject extends CacheableData
 						_data = readMatrixFromHDFS( _hdfsFileName );
 					else
 						_data = readMatrixFromRDD( getRDDHandle() );
+					_data.setOwner(getUniqueCacheID());
 					_dirtyFlag = false;
 				}
 				catch (IOException e)
@@ -822,9 +969,6 @@ public class MatrixObject extends CacheableData
 				    throw new CacheIOException("Reading of " + _hdfsFileName + " ("+_varName+") failed.", e);
 				}
 			}
-			//get object from cache
-			if( _data == null )
-				getCache();
 			acquire( false, _data==null ); //incl. read matrix if evicted	
 			
 			// b) write the matrix 
@@ -841,7 +985,7 @@ public class MatrixObject extends CacheableData
 			}
 			finally
 			{
-				release();
+				releaseIntern(); //no eviction under object lock
 			}
 		}
 		else if( pWrite ) // pwrite with same output format
@@ -1013,7 +1157,7 @@ public class MatrixObject extends CacheableData
 			//probe cache
 			if( blockwise && _partitionCacheName != null && _partitionCacheName.equals(fname) )
 			{
-				mb = _cache.get(); //try getting block from cache
+				mb = _partitionCache.get(); //try getting block from cache
 			}
 			
 			if( mb == null ) //block not in cache
@@ -1059,7 +1203,7 @@ public class MatrixObject extends CacheableData
 			{
 				//put block into cache
 				_partitionCacheName = fname;
-				_cache = new SoftReference<MatrixBlock>(mb);
+				_partitionCache = new SoftReference<MatrixBlock>(mb);
 				
 				if( _partitionFormat == PDataPartitionFormat.ROW_BLOCK_WISE )
 				{
@@ -1090,6 +1234,93 @@ public class MatrixObject extends CacheableData
 	}
 	
 	
+	/**
+	 * Indicates if index ranges of this matrix can be directly read from its
+	 * file, i.e., if the matrix is not in memory or evicted, not backed by an 
+	 * RDD, and its file is in the indexed binary block format.
+	 * 
+	 * @return
+	 */
+	public synchronized boolean isIndexedRangeReadable()
+	{
+		return isEmpty() && _data == null && _rddHandle == null 
+			&& _hdfsFileName != null && _metaData instanceof MatrixFormatMetaData
+			&& ((MatrixFormatMetaData)_metaData).getInputInfo() == InputInfo.BinaryBlockIndexedInputInfo;
+	}
+	
+	/**
+	 * Reads the given index range of this matrix, which only accesses the 
+	 * overlapping blocks of indexed binary block files w/o reading (and 
+	 * caching) the entire matrix. If the matrix became available in memory 
+	 * in the meantime, the range is sliced from the in-memory matrix. 
+	 * 
+	 * NOTE: Not synchronized because acquireRead and release evict other
+	 * blobs, which must not happen while holding the lock of this object.
+	 * 
+	 * @param pred
+	 * @return
+	 * @throws CacheException
+	 */
+	public MatrixBlock readMatrixRange( IndexRange pred ) 
+		throws CacheException
+	{
+		if( LOG.isTraceEnabled() )
+			LOG.trace("Read range "+_varName+" "+pred);
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		MatrixBlock mb = null;
+		
+		//obtain file and meta data of indexed file (if range readable)
+		String fname = null;
+		MatrixCharacteristics mc = null;
+		synchronized( this ) {
+			if( isIndexedRangeReadable() ) {
+				fname = _hdfsFileName;
+				mc = ((MatrixFormatMetaData) _metaData).getMatrixCharacteristics();
+			}
+		}
+		
+		try
+		{
+			if( fname != null ) 
+			{
+				//read overlapping blocks from indexed file
+				ReaderBinaryBlockIndexed reader = new ReaderBinaryBlockIndexed();
+				mb = reader.readMatrixRangeFromHDFS(fname, pred, mc.getRows(), mc.getCols(), 
+						mc.getRowsPerBlock(), mc.getColsPerBlock());
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementHDFSHits();
+			}
+			else 
+			{
+				//slice from in-memory matrix (unpin on errors)
+				MatrixBlock tmp = acquireRead();
+				try {
+					mb = tmp.sliceOperations((int)pred.rowStart-1, (int)pred.rowEnd-1, 
+							(int)pred.colStart-1, (int)pred.colEnd-1, new MatrixBlock());
+				}
+				finally {
+					release();
+				}
+			}
+		}
+		catch(CacheException ex)
+		{
+			throw ex;
+		}
+		catch(Exception ex)
+		{
+			throw new CacheException(ex);
+		}
+		
+		if( DMLScript.STATISTICS ){
+			long t1 = System.nanoTime();
+			CacheStatistics.incrementAcquireRTime(t1-t0);
+		}
+		
+		return mb;
+	}
+	
 	/**
 	 * 
 	 * @param pred
@@ -1148,16 +1379,36 @@ public class MatrixObject extends CacheableData
 	}
 
 	@Override
-	protected void evictBlobFromMemory ( MatrixBlock mb ) 
+	protected void evictBlobFromMemory () 
 		throws CacheIOException
 	{
-		throw new CacheIOException("Redundant explicit eviction.");
+		if( LOG.isTraceEnabled() )
+			LOG.trace("EVICTION of Matrix "+_varName+", "+_hdfsFileName);
+		
+		//write blob if no valid local copy exists (write-back)
+		if( !_cacheFileExists )
+		{
+			String filePath = getCacheFilePathAndName();
+			try {
+				writeMatrix (filePath);
+			}
+			catch (Exception e)
+			{
+				throw new CacheIOException("Eviction to local path " + filePath + " ("+_varName+") failed.", e);
+			}
+			_cacheFileExists = true;
+		}
+		
+		_compressedFlag = CompressedMatrixBlock.isCompressedBlock(_data);
+		_data = null;
+		_dataDecompressed = null;
 	}
 	
 	@Override
 	protected void restoreBlobIntoMemory () 
 		throws CacheIOException
 	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 		long begin = 0;
 		
 		if( LOG.isTraceEnabled() ) {
@@ -1177,11 +1428,20 @@ public class MatrixObject extends CacheableData
 		try
 		{
 			_data = readMatrix(filePath);
+			
+			//recompress blob that was compressed before eviction
+			if( _compressedFlag )
+				_data = CompressedMatrixBlock.compress( _data, InfrastructureAnalyzer.getLocalParallelism() );
+			_data.setOwner(getUniqueCacheID());
 		}
 		catch (IOException e)
 		{
 			throw new CacheIOException (filePath + " : Restore failed.", e);	
 		}
+		catch (DMLRuntimeException e)
+		{
+			throw new CacheIOException (filePath + " : Restore failed.", e);	
+		}
 		
 		//check for success
 	    if (_data == null)
@@ -1189,6 +1449,11 @@ public class MatrixObject extends CacheableData
 	    
 	    if( LOG.isTraceEnabled() )
 	    	LOG.trace("Restoring matrix - COMPLETED ... " + (System.currentTimeMillis()-begin) + " msec.");
+	    
+	    if( DMLScript.STATISTICS ){
+	    	long t1 = System.nanoTime();
+	    	CacheStatistics.incrementRestoreTime(t1-t0);
+	    }
 	}		
 
 	@Override
@@ -1214,6 +1479,7 @@ public class MatrixObject extends CacheableData
 				catch (IOException e){}
 				break;
 		}
+		_cacheFileExists = false;
 		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Freeing evicted matrix - COMPLETED ... " + (System.currentTimeMillis()-begin) + " msec.");		
@@ -1233,6 +1499,15 @@ public class MatrixObject extends CacheableData
 		return ( !_data.isAllocated() || size <= CACHING_THRESHOLD );
 	}
 	
+	@Override
+	protected long getBlobSize()
+	{
+		long size = (_data != null) ? _data.estimateSizeInMemory() : 0;
+		if( _dataDecompressed != null )
+			size += _dataDecompressed.estimateSizeInMemory();
+		return size;
+	}
+	
 	// *******************************************
 	// ***                                     ***
 	// ***      LOW-LEVEL PRIVATE METHODS      ***
@@ -1245,6 +1520,22 @@ public class MatrixObject extends CacheableData
 		return _pinnedFlag;
 	}
 	
+	/**
+	 * Returns the matrix data in decompressed form, i.e., the cached
+	 * decompressed copy or a temporary decompressed copy of compressed data.
+	 * 
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private MatrixBlock getDecompressedData() 
+		throws DMLRuntimeException
+	{
+		if( !CompressedMatrixBlock.isCompressedBlock(_data) )
+			return _data;
+		return (_dataDecompressed != null) ? _dataDecompressed :
+			((CompressedMatrixBlock)_data).decompress();
+	}
+	
 	/**
 	 * 
 	 */
@@ -1435,7 +1726,9 @@ public class MatrixObject extends CacheableData
 		switch (CacheableData.cacheEvictionStorageType)
 		{
 			case LOCAL:
-				LazyWriteBuffer.writeMatrix(filePathAndName, _data);
+				//compressed blocks are written in decompressed form (and 
+				//recompressed on restore, see restoreBlobIntoMemory)
+				LazyWriteBuffer.writeMatrix(filePathAndName, getDecompressedData());
 				//LocalFileUtils.writeMatrixBlockToLocal(filePathAndName, _data);
 				
 				//TODO just NIO read/write, but our test is still experimental
@@ -1477,19 +1770,21 @@ public class MatrixObject extends CacheableData
 		{
 			// Get the dimension information from the metadata stored within MatrixObject
 			MatrixCharacteristics mc = iimd.getMatrixCharacteristics ();
+			// Write compressed blocks in decompressed form
+			MatrixBlock data = getDecompressedData();
 			// Write the matrix to HDFS in requested format
 			OutputInfo oinfo = (outputFormat != null ? OutputInfo.stringToOutputInfo (outputFormat) 
 					                                 : InputInfo.getMatchingOutputInfo (iimd.getInputInfo ()));
 			
 			// when outputFormat is binaryblock, make sure that matrixCharacteristics has correct blocking dimensions
 			// note: this is only required if singlenode (due to binarycell default) 
-			if ( oinfo == OutputInfo.BinaryBlockOutputInfo && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
+			if ( (oinfo == OutputInfo.BinaryBlockOutputInfo || oinfo == OutputInfo.BinaryBlockIndexedOutputInfo) && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
 				(mc.getRowsPerBlock() != DMLTranslator.DMLBlockSize || mc.getColsPerBlock() != DMLTranslator.DMLBlockSize) ) 
 			{
-				DataConverter.writeMatrixToHDFS(_data, filePathAndName, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mc.getNonZeros()), replication, formatProperties);
+				DataConverter.writeMatrixToHDFS(data, filePathAndName, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mc.getNonZeros()), replication, formatProperties);
 			}
 			else {
-				DataConverter.writeMatrixToHDFS(_data, filePathAndName, oinfo, mc, replication, formatProperties);
+				DataConverter.writeMatrixToHDFS(data, filePathAndName, oinfo, mc, replication, formatProperties);
 			}
 
 			if( LOG.isTraceEnabled() )
@@ -1528,7 +1823,7 @@ public class MatrixObject extends CacheableData
 				
 				// when outputFormat is binaryblock, make sure that matrixCharacteristics has correct blocking dimensions
 				// note: this is only required if singlenode (due to binarycell default) 
-				if ( oinfo == OutputInfo.BinaryBlockOutputInfo && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
+				if ( (oinfo == OutputInfo.BinaryBlockOutputInfo || oinfo == OutputInfo.BinaryBlockIndexedOutputInfo) && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
 					(mc.getRowsPerBlock() != DMLTranslator.DMLBlockSize || mc.getColsPerBlock() != DMLTranslator.DMLBlockSize) ) 
 				{
 					mc = new MatrixCharacteristics(mc.getRows(), mc.getCols(), DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mc.getNonZeros());
@@ -1582,45 +1877,6 @@ public class MatrixObject extends CacheableData
 	}
 
 	
-	// *******************************************
-	// ***                                     ***
-	// ***      LOW-LEVEL PRIVATE METHODS      ***
-	// ***       FOR SOFTREFERENCE CACHE       ***
-	// ***                                     ***
-	// *******************************************
-	
-	/**
-	 * 
-	 */
-	private void createCache( ) 
-	{
-		_cache = new SoftReference<MatrixBlock>( _data );	
-	}
-
-	/**
-	 * 
-	 */
-	private void getCache()
-	{
-		if( _cache !=null )
-		{
-			_data = _cache.get();
-			clearCache();
-		}
-	}
-
-	/**
-	 * 
-	 */
-	private void clearCache()
-	{
-		if( _cache != null )
-		{
-			_cache.clear();
-			_cache = null;
-		}
-	}
-	
 	/**
 	 * see clear data
 	 * 
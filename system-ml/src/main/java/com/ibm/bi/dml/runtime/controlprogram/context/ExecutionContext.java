@@ -26,17 +26,22 @@ import com.ibm.bi.dml.debug.DMLFrame;
 import com.ibm.bi.dml.debug.DMLProgramCounter;
 import com.ibm.bi.dml.debug.DebugState;
 import com.ibm.bi.dml.parser.DMLProgram;
+import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.controlprogram.LocalVariableMap;
 import com.ibm.bi.dml.runtime.controlprogram.Program;
 import com.ibm.bi.dml.runtime.controlprogram.caching.CacheException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
 import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
 import com.ibm.bi.dml.runtime.instructions.Instruction;
 import com.ibm.bi.dml.runtime.instructions.cp.BooleanObject;
+import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
+import com.ibm.bi.dml.runtime.instructions.cp.ComputationCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.Data;
 import com.ibm.bi.dml.runtime.instructions.cp.DoubleObject;
 import com.ibm.bi.dml.runtime.instructions.cp.FunctionCallCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.FusedCellwiseCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.IntObject;
 import com.ibm.bi.dml.runtime.instructions.cp.ScalarObject;
 import com.ibm.bi.dml.runtime.instructions.cp.StringObject;
@@ -167,15 +172,64 @@ public class ExecutionContext
 	
 	public MatrixBlock getMatrixInput(String varName) 
 		throws DMLRuntimeException 
+	{	
+		return getMatrixInput(varName, false);
+	}
+	
+	/**
+	 * 
+	 * @param varName
+	 * @param allowCompressed if true, the matrix block might be compressed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock getMatrixInput(String varName, boolean allowCompressed) 
+		throws DMLRuntimeException 
 	{	
 		try {
 			MatrixObject mobj = (MatrixObject) getVariable(varName);
-			return mobj.acquireRead();
+			return mobj.acquireRead(allowCompressed);
 		} catch (CacheException e) {
 			throw new DMLRuntimeException( e );
 		}
 	}
 	
+	/**
+	 * Hints upcoming reads of the matrix inputs of the given instruction, 
+	 * which prefetches evicted inputs asynchronously.
+	 * 
+	 * @param inst
+	 */
+	public void prefetchInputs(Instruction inst) 
+	{
+		if( !CacheableData.isCachingActive() )
+			return;
+		
+		if( inst instanceof FusedCellwiseCPInstruction ) {
+			for( CPOperand in : ((FusedCellwiseCPInstruction)inst).getInputs() )
+				prefetchInput(in);
+		}
+		else if( inst instanceof ComputationCPInstruction ) {
+			ComputationCPInstruction cpinst = (ComputationCPInstruction) inst;
+			prefetchInput(cpinst.input1);
+			prefetchInput(cpinst.input2);
+			prefetchInput(cpinst.input3);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 */
+	private void prefetchInput(CPOperand in)
+	{
+		if( in != null && in.getDataType() == DataType.MATRIX ) {
+			Data dat = _variables.get(in.getName());
+			if( dat instanceof MatrixObject )
+				((MatrixObject)dat).prefetch();
+		}
+	}
+	
 	public void releaseMatrixInput(String varName) 
 		throws DMLRuntimeException 
 	{
@@ -351,6 +405,18 @@ public class ExecutionContext
 	 */
 	public void cleanupMatrixObject(MatrixObject mo) 
 		throws DMLRuntimeException 
+	{
+		cleanupMatrixObject(mo, false);
+	}
+	
+	/**
+	 * 
+	 * @param mo
+	 * @param recycle recycle dense block (only for rmvar of unreferenced objects)
+	 * @throws DMLRuntimeException
+	 */
+	public void cleanupMatrixObject(MatrixObject mo, boolean recycle) 
+		throws DMLRuntimeException 
 	{
 		try
 		{
@@ -359,7 +425,7 @@ public class ExecutionContext
 				//compute ref count only if matrix cleanup actually necessary
 				if ( !getVariables().hasReferences(mo) ) {
 					//clean cached data	
-					mo.clearData(); 
+					mo.clearData(recycle); 
 					if( mo.isFileExists() )
 					{
 						//clean hdfs data
@@ -672,12 +672,13 @@ public class SparkExecutionContext extends ExecutionContext
 	}
 	
 	@Override
-	public void cleanupMatrixObject( MatrixObject mo ) 
+	public void cleanupMatrixObject( MatrixObject mo, boolean recycle ) 
 		throws DMLRuntimeException
 	{
 		//NOTE: this method overwrites the default behavior of cleanupMatrixObject
 		//and hence is transparently used by rmvar instructions and other users. The
 		//core difference is the lineage-based cleanup of RDD and broadcast variables.
+		//Dense blocks are never recycled because they might be referenced by rdds.
 		
 		try
 		{
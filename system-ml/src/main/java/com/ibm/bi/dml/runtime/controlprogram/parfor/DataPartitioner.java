@@ -151,6 +151,14 @@ public abstract class DataPartitioner
 			//_format = PDataPartitionFormat.ROW_BLOCK_WISE_N;
 		}
 		
+		//check for direct range reads of indexed binary block inputs (no partitioning
+		//required because right indexing only reads the overlapping blocks)
+		if( !force && ii == InputInfo.BinaryBlockIndexedInputInfo && in.isIndexedRangeReadable() )
+		{
+			LOG.debug("No partitioning of indexed binary block input "+in.getVarName()+".");
+			return in;
+		}
+		
 		//check changing to binarycell in case of sparse cols (robustness)
 		boolean convertBlock2Cell = false;
 		if(    ii == InputInfo.BinaryBlockInputInfo 
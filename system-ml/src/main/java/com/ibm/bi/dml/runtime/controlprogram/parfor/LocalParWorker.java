@@ -35,17 +35,19 @@ public class LocalParWorker extends ParWorker implements Runnable
 {
 	
 	protected LocalTaskQueue<Task> _taskQueue   = null;
+	protected int                  _queueIx     = -1; //worker index for worker-local tasks
 	
 	protected Collection<String> _fnNames = null;
 	
 	protected boolean   _stopped     = false;
 	protected int 		_max_retry   = -1;
 	
-	public LocalParWorker( long ID, LocalTaskQueue<Task> q, ParForBody body, int max_retry, boolean monitor )	
+	public LocalParWorker( long ID, LocalTaskQueue<Task> q, int queueIx, ParForBody body, int max_retry, boolean monitor )	
 	{
 		super(ID, body, monitor);
 
 		_taskQueue = q;
+		_queueIx   = queueIx;
 		_stopped   = false;
 		
 		_max_retry = max_retry;
@@ -84,7 +86,7 @@ public class LocalParWorker extends ParWorker implements Runnable
 			//dequeue the next task (abort on NO_MORE_TASKS or error)
 			try
 			{
-				lTask = _taskQueue.dequeueTask();
+				lTask = _taskQueue.dequeueTask( _queueIx );
 				
 				if( lTask == LocalTaskQueue.NO_MORE_TASKS ) // task queue closed (no more tasks)
 					break; //normal end of parallel worker
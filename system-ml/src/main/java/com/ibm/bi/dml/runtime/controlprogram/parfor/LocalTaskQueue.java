@@ -95,6 +95,21 @@ public class LocalTaskQueue<T>
 		return t;
 	}
 	
+	/**
+	 * Read and delete of the next task for the given worker. Since the FIFO queue 
+	 * is shared by all workers, this is equivalent to dequeueTask(); subclasses 
+	 * with worker-local tasks use the worker index to prefer local tasks.
+	 * 
+	 * @param worker index of the requesting worker
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public T dequeueTask( int worker ) 
+		throws InterruptedException
+	{
+		return dequeueTask();
+	}
+	
 	/**
 	 * Synchronized (logical) insert of a NO_MORE_TASKS symbol at the end of the FIFO queue in order to
 	 * mark that no more tasks will be inserted into the queue.
@@ -0,0 +1,251 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.controlprogram.parfor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free task queue with work stealing for local parfor workers over a
+ * fixed iteration range from, from+incr, ..., to.
+ * 
+ * Instead of materialized tasks in a shared FIFO queue, each worker owns a
+ * contiguous range of iteration indexes and takes compact range tasks of at
+ * most the given task size from the front of its own range. Idle workers steal 
+ * the back half of the remaining range of another worker and continue on the 
+ * stolen range. All hand-offs are single compare-and-swap operations on the 
+ * per-worker ranges, i.e., workers never block on each other.
+ * 
+ * NOTE: Each worker index must be used by a single worker thread. Ranges are
+ * immutable and replaced on every update, which makes the compare-and-swap
+ * free of ABA problems (stale references never reappear).
+ */
+public class LocalTaskQueueWorkStealing extends LocalTaskQueue<Task>
+{
+	//padding of per-worker slots to prevent false sharing of cache lines
+	private static final int PADDING = 16;
+	
+	private final String _iterVarName;
+	private final long   _from;
+	private final long   _incr;
+	private final long   _taskSize;
+	private final int    _numWorkers;
+	
+	//per-worker ranges of remaining iteration indexes
+	private final AtomicReferenceArray<Range> _ranges;
+	
+	//number of steals (no shared task counter in order to prevent contention,
+	//the number of tasks is given by the executed tasks of all workers)
+	private final AtomicLong _numSteals = new AtomicLong(0);
+	
+	/**
+	 * 
+	 * @param iterVarName
+	 * @param from
+	 * @param incr
+	 * @param numIter
+	 * @param taskSize
+	 * @param numWorkers
+	 */
+	public LocalTaskQueueWorkStealing( String iterVarName, long from, long incr, long numIter, long taskSize, int numWorkers )
+	{
+		_iterVarName = iterVarName;
+		_from        = from;
+		_incr        = incr;
+		_taskSize    = Math.max(taskSize, 1);
+		_numWorkers  = numWorkers;
+		
+		//initial even distribution of contiguous iteration ranges
+		//(the first numIter%numWorkers ranges contain one more iteration)
+		_ranges = new AtomicReferenceArray<Range>(numWorkers * PADDING);
+		long len = numIter / numWorkers;
+		long rem = numIter % numWorkers;
+		long start = 0;
+		for( int i=0; i<numWorkers; i++ ) {
+			long end = start + len + ((i < rem) ? 1 : 0);
+			_ranges.set(i * PADDING, new Range(start, end));
+			start = end;
+		}
+	}
+	
+	@Override
+	public void enqueueTask( Task t ) 
+	{
+		throw new RuntimeException("Enqueue not supported for work-stealing task queue.");
+	}
+	
+	/**
+	 * Read and delete of the next task from the range of any worker, 
+	 * which is used for requests without worker index.
+	 */
+	@Override
+	public Task dequeueTask() 
+	{
+		for( int i=0; i<_numWorkers; i++ ) {
+			Task t = takeTask( i * PADDING );
+			if( t != null )
+				return t;
+		}
+		
+		return (Task)NO_MORE_TASKS;
+	}
+	
+	/**
+	 * Read and delete of the next task of the given worker, which takes the next 
+	 * task from its own range or steals from other workers if its range is empty.
+	 */
+	@Override
+	public Task dequeueTask( int worker ) 
+	{
+		int pos = worker * PADDING;
+		
+		//take next task from front of own range
+		Task t = takeTask( pos );
+		if( t != null )
+			return t;
+		
+		//steal back half of the remaining range of other workers
+		for( int i=1; i<_numWorkers; i++ ) 
+		{
+			int vpos = ((worker + i) % _numWorkers) * PADDING;
+			while( true )
+			{
+				Range r = _ranges.get(vpos);
+				if( r.start >= r.end )
+					break; //empty victim range
+				
+				long mid = r.start + (r.end - r.start) / 2;
+				if( _ranges.compareAndSet(vpos, r, new Range(r.start, mid)) ) 
+				{
+					//keep first task, publish the remaining stolen range as own range
+					//(own range is empty, and thieves never update empty ranges)
+					long end = Math.min(mid + _taskSize, r.end);
+					if( end < r.end )
+						_ranges.set(pos, new Range(end, r.end));
+					_numSteals.incrementAndGet();
+					return createTask(mid, end);
+				}
+			}
+		}
+		
+		return (Task)NO_MORE_TASKS;
+	}
+	
+	@Override
+	public void closeInput()
+	{
+		//do nothing (all tasks are implicitly given by the iteration range)
+	}
+	
+	/**
+	 * Returns the number of remaining iterations (not tasks) over all workers.
+	 */
+	@Override
+	public int size()
+	{
+		long ret = 0;
+		for( int i=0; i<_numWorkers; i++ ) {
+			Range r = _ranges.get(i * PADDING);
+			ret += Math.max(r.end - r.start, 0);
+		}
+		
+		return (int)Math.min(ret, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long getNumSteals()
+	{
+		return _numSteals.get();
+	}
+	
+	@Override
+	public String toString() 
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("WORK-STEALING TASK QUEUE (workers=");
+		sb.append(_numWorkers);
+		sb.append(",steals=");
+		sb.append(_numSteals.get());
+		sb.append(")\n");
+		
+		for( int i=0; i<_numWorkers; i++ )
+		{
+			Range r = _ranges.get(i * PADDING);
+			sb.append("  WORKER #");
+			sb.append(i+1);
+			sb.append(": [");
+			sb.append(r.start);
+			sb.append(",");
+			sb.append(r.end);
+			sb.append(")\n");
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Takes the next task from the front of the range at the given position.
+	 * 
+	 * @param pos
+	 * @return task, or null if the range is empty
+	 */
+	private Task takeTask( int pos )
+	{
+		while( true )
+		{
+			Range r = _ranges.get(pos);
+			if( r.start >= r.end )
+				return null;
+			
+			long end = Math.min(r.start + _taskSize, r.end);
+			if( _ranges.compareAndSet(pos, r, new Range(end, r.end)) )
+				return createTask(r.start, end);
+		}
+	}
+	
+	/**
+	 * Creates a compact range task for the iteration indexes [start, end).
+	 * 
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	private Task createTask( long start, long end )
+	{
+		return new Task( _iterVarName, _from + start * _incr, 
+				_from + (end - 1) * _incr, _incr );
+	}
+	
+	/**
+	 * Immutable range of iteration indexes [start, end).
+	 */
+	private static class Range
+	{
+		private final long start;
+		private final long end;
+		
+		private Range( long start, long end ) {
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
@@ -18,7 +18,6 @@
 package com.ibm.bi.dml.runtime.controlprogram.parfor;
 
 import java.util.ArrayList;
-import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -222,11 +221,10 @@ public abstract class ParWorker
 		}
 		
 		//core execution
-		List<IntObject> tmp = task.getIterations();
-		String lVarName = tmp.get(0).getName();
-		long lFrom      = tmp.get(0).getLongValue();
-		long lTo        = tmp.get(1).getLongValue();
-		long lIncr      = tmp.get(2).getLongValue();
+		String lVarName = task.getVarName();
+		long lFrom      = task.getFrom();
+		long lTo        = task.getTo();
+		long lIncr      = task.getIncrement();
 		
 		for( long i=lFrom; i<=lTo; i+=lIncr )
 		{
@@ -48,6 +48,13 @@ public class Task implements Serializable
 	private TaskType           	  _type;
 	private LinkedList<IntObject> _iterations; //each iteration is specified as an ordered set of index values
 	
+	//compact representation of range tasks (w/o boxed index values)
+	private String _varName   = null;
+	private long   _from      = -1;
+	private long   _to        = -1;
+	private long   _incr      = -1;
+	private int    _rangeSize = 0; //number of specified range values (from, to, incr)
+	
 	public Task() {
 		//default constructor for serialize
 	}
@@ -56,7 +63,30 @@ public class Task implements Serializable
 	{
 		_type = type;
 		
-		_iterations = new LinkedList<IntObject>();
+		if( _type == TaskType.SET )
+			_iterations = new LinkedList<IntObject>();
+	}
+	
+	/**
+	 * Creates a fully specified range task of iterations from, from+incr, ..., to.
+	 * 
+	 * @param varName
+	 * @param from
+	 * @param to
+	 * @param incr
+	 */
+	public Task( String varName, long from, long to, long incr )
+	{
+		_type = TaskType.RANGE;
+		
+		if( varName.length() > MAX_VARNAME_SIZE )
+			throw new RuntimeException("Cannot create task, MAX_VARNAME_SIZE exceeded.");
+		
+		_varName = varName;
+		_from = from;
+		_to = to;
+		_incr = incr;
+		_rangeSize = 3;
 	}
 	
 	public void addIteration( IntObject indexVal ) 
@@ -66,12 +96,42 @@ public class Task implements Serializable
 		
 		if( size() >= MAX_TASK_SIZE )
 			throw new RuntimeException("Cannot add iteration, MAX_TASK_SIZE reached.");
-			
-		_iterations.addLast( indexVal );
+		
+		if( _type == TaskType.RANGE )
+		{
+			//range values are specified in order from, to, incr
+			switch( _rangeSize ) {
+				case 0: _varName = indexVal.getName(); 
+				        _from = indexVal.getLongValue(); break;
+				case 1: _to = indexVal.getLongValue(); break;
+				case 2: _incr = indexVal.getLongValue(); break;
+				default:
+					throw new RuntimeException("Cannot add iteration, range task already specified.");
+			}
+			_rangeSize++;
+		}
+		else
+			_iterations.addLast( indexVal );
 	}
 	
+	/**
+	 * Returns the iterations of set tasks, or the specified range values 
+	 * (from, to, incr) of range tasks. Note that for range tasks, the list 
+	 * is created on demand; use getFrom, getTo, getIncrement instead.
+	 * 
+	 * @return
+	 */
 	public List<IntObject> getIterations()
 	{
+		if( _type == TaskType.RANGE )
+		{
+			LinkedList<IntObject> ret = new LinkedList<IntObject>();
+			if( _rangeSize > 0 ) ret.add(new IntObject(_varName, _from));
+			if( _rangeSize > 1 ) ret.add(new IntObject(_varName, _to));
+			if( _rangeSize > 2 ) ret.add(new IntObject(_varName, _incr));
+			return ret;
+		}
+		
 		return _iterations;
 	}
 	
@@ -82,9 +142,37 @@ public class Task implements Serializable
 	
 	public int size()
 	{
+		if( _type == TaskType.RANGE )
+			return _rangeSize;
+		
 		return _iterations.size();
 	}
 	
+	/**
+	 * Returns the name of the iteration variable of range tasks.
+	 * 
+	 * @return
+	 */
+	public String getVarName()
+	{
+		return _varName;
+	}
+	
+	public long getFrom()
+	{
+		return _from;
+	}
+	
+	public long getTo()
+	{
+		return _to;
+	}
+	
+	public long getIncrement()
+	{
+		return _incr;
+	}
+	
 	/**
 	 * 
 	 * @param task
@@ -97,12 +185,12 @@ public class Task implements Serializable
 		
 		//check for same iteration name
 		String var1 = _iterations.getFirst().getName();
-		String var2 = task._iterations.getFirst().getName();
+		String var2 = task.getIterations().get(0).getName();
 		if( !var1.equals(var2) )
 			throw new RuntimeException("Task Merging not supported for tasks with different variable names");
 	
 		//merge tasks
-		for( IntObject o : task._iterations )
+		for( IntObject o : task.getIterations() )
 			_iterations.addLast( o );
 	}
 	
@@ -124,7 +212,7 @@ public class Task implements Serializable
 		sb.append(_type);
 		sb.append(", iterations={");
 		int count=0;
-		for( IntObject dat : _iterations )
+		for( IntObject dat : getIterations() )
 		{
 			if( count!=0 ) 
 				sb.append(";");
@@ -152,12 +240,13 @@ public class Task implements Serializable
 		if( size() > 0 )
 		{
 			sb.append(".");
-			IntObject dat0 = _iterations.getFirst();
+			List<IntObject> iterations = getIterations();
+			IntObject dat0 = iterations.get(0);
 			sb.append(dat0.getName());
 			sb.append(".{");
 		
 			int count = 0;
-			for( IntObject dat : _iterations )
+			for( IntObject dat : iterations )
 			{
 				if( count!=0 ) 
 					sb.append(",");
@@ -183,12 +272,13 @@ public class Task implements Serializable
 		if( size() > 0 )
 		{
 			sb.append(".");
-			IntObject dat0 = _iterations.getFirst();
+			List<IntObject> iterations = getIterations();
+			IntObject dat0 = iterations.get(0);
 			sb.append(dat0.getName());
 			sb.append(".{");
 		
 			int count = 0;
-			for( IntObject dat : _iterations )
+			for( IntObject dat : iterations )
 			{
 				if( count!=0 ) 
 					sb.append(",");
@@ -154,5 +154,19 @@ public class TaskPartitionerFixedsize extends TaskPartitioner
 		return numCreatedTasks;
 	}
 	
-	
+	/**
+	 * Creates a work-stealing task queue for the given number of local workers, 
+	 * which hands out compact range tasks of at most the fixed task size (plus 
+	 * one if the first n tasks are extended) without materializing all tasks.
+	 * 
+	 * @param numWorkers
+	 * @return
+	 */
+	public LocalTaskQueueWorkStealing createTaskQueue( int numWorkers )
+	{
+		long taskSize = _taskSize + ((_firstnPlus1 > 0) ? 1 : 0);
+		
+		return new LocalTaskQueueWorkStealing( _iterVarName, _fromVal.getLongValue(), 
+				_incrVal.getLongValue(), _numIter, taskSize, numWorkers );
+	}
 }
@@ -20,6 +20,7 @@ package com.ibm.bi.dml.runtime.instructions;
 import java.util.HashMap;
 
 import com.ibm.bi.dml.lops.DataGen;
+import com.ibm.bi.dml.lops.Lop;
 import com.ibm.bi.dml.lops.UnaryCP;
 import com.ibm.bi.dml.lops.LopProperties.ExecType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
@@ -40,6 +41,7 @@ import com.ibm.bi.dml.runtime.instructions.cp.DataGenCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.DataPartitionCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.FileCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.FunctionCallCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.FusedCellwiseCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.MMChainCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.MMTSJCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.MatrixIndexingCPInstruction;
@@ -70,6 +72,7 @@ public class CPInstructionParser extends InstructionParser
 
 		String2CPInstructionType.put( "ba+*"   	, CPINSTRUCTION_TYPE.AggregateBinary);
 		String2CPInstructionType.put( "tak+*"   	, CPINSTRUCTION_TYPE.AggregateTernary);
+		String2CPInstructionType.put( "fcell"   	, CPINSTRUCTION_TYPE.FusedCellwise);
 		
 		String2CPInstructionType.put( "uak+"   	, CPINSTRUCTION_TYPE.AggregateUnary);
 		String2CPInstructionType.put( "uark+"   , CPINSTRUCTION_TYPE.AggregateUnary);
@@ -261,6 +264,9 @@ public class CPInstructionParser extends InstructionParser
 
 		case AggregateTernary:
 			return (CPInstruction) AggregateTernaryCPInstruction.parseInstruction(str);
+		
+		case FusedCellwise:
+			return (CPInstruction) FusedCellwiseCPInstruction.parseInstruction(str);
 			
 		case ArithmeticBinary:
 			return (CPInstruction) ArithmeticBinaryCPInstruction.parseInstruction(str);
@@ -337,8 +343,8 @@ public class CPInstructionParser extends InstructionParser
 		case Builtin: 
 			String []parts = InstructionUtils.getInstructionPartsWithValueType(str);
 			if ( parts[0].equals("log") || parts[0].equals("log_nz") ) {
-				if ( parts.length == 3 ) {
-					// B=log(A), y=log(x)
+				if ( parts.length == 3 || (parts.length == 4 && !parts[3].contains(Lop.VALUETYPE_PREFIX)) ) {
+					// B=log(A), y=log(x), B=log(A) w/ num threads
 					return (CPInstruction) BuiltinUnaryCPInstruction.parseInstruction(str);
 				} else if ( parts.length == 4 ) {
 					// B=log(A,10), y=log(x,10)
@@ -74,8 +74,8 @@ public class AggregateBinaryCPInstruction extends BinaryCPInstruction
 		throws DMLRuntimeException, DMLUnsupportedOperationException
 	{	
 		//get inputs
-		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName());
-        MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName());
+		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName(), true);
+        MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName(), true);
 		
         //compute matrix multiplication
         AggregateBinaryOperator ab_op = (AggregateBinaryOperator) _optr;
@@ -44,7 +44,7 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
-		String opcode = parseBinaryInstruction(str, in1, in2, out);
+		String opcode = parseBinaryInstruction(str, in1, in2, out, true);
 		
 		// Arithmetic operations must be performed on DOUBLE or INT
 		ValueType vt1 = in1.getValueType();
@@ -101,6 +101,9 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 												  + " and "
 												  + out.getName());
 				
+			//set degree of parallelism for cellwise matrix operations
+			parseNumThreads(str, operator);
+			
 			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX)
 				return new MatrixMatrixArithmeticCPInstruction(operator, in1, in2, out, opcode, str);
 			else
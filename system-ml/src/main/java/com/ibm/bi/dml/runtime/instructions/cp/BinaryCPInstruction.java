@@ -19,7 +19,9 @@ package com.ibm.bi.dml.runtime.instructions.cp;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.Operator;
+import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
 
 
 public abstract class BinaryCPInstruction extends ComputationCPInstruction
@@ -47,7 +49,26 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 	static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand out)
 		throws DMLRuntimeException{
 		
-		InstructionUtils.checkNumFields ( instr, 3 );
+		return parseBinaryInstruction(instr, in1, in2, out, false);
+	}
+	
+	/**
+	 * 
+	 * @param instr
+	 * @param in1
+	 * @param in2
+	 * @param out
+	 * @param optNumThreads allow optional degree of parallelism as last operand
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand out, boolean optNumThreads)
+		throws DMLRuntimeException{
+		
+		if( optNumThreads )
+			InstructionUtils.checkNumFields ( instr, 3, 4 );
+		else
+			InstructionUtils.checkNumFields ( instr, 3 );
 		
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
 		String opcode = parts[0];
@@ -58,6 +79,26 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		return opcode;
 	}
 	
+	/**
+	 * Parses the optional degree of parallelism of cellwise matrix-matrix 
+	 * and matrix-scalar operations and sets it on the given operator.
+	 * 
+	 * @param instr
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	static void parseNumThreads(String instr, Operator op)
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
+		int k = (parts.length > 4) ? Integer.parseInt(parts[4]) : 1;
+		
+		if( op instanceof BinaryOperator )
+			((BinaryOperator)op).setNumThreads(k);
+		else if( op instanceof ScalarOperator )
+			((ScalarOperator)op).setNumThreads(k);
+	}
+	
 	static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out)
 	throws DMLRuntimeException{
 	
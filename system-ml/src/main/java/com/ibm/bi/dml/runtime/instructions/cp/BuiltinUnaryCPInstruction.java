@@ -55,13 +55,18 @@ public abstract class BuiltinUnaryCPInstruction extends UnaryCPInstruction
 		String opcode = null;
 		ValueFunction func = null;
 		
-		if( parts.length==4 ) //print or stop
+		if( parts.length==4 ) //print or stop, or matrix builtin w/ num threads
 		{
 			opcode = parts[0];
 			in.split(parts[1]);
 			out.split(parts[2]);
 			func = Builtin.getBuiltinFnObject(opcode);
 			
+			if( in.getDataType() == DataType.MATRIX ) {
+				int k = Integer.parseInt(parts[3]);
+				return new MatrixBuiltinCPInstruction(new UnaryOperator(func, k), in, out, opcode, str);
+			}
+			
 			return new ScalarBuiltinCPInstruction(new SimpleOperator(func), in, out, opcode, str);
 		}
 		else //2+1, general case
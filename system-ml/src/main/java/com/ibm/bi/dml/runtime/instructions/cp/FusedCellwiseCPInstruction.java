@@ -0,0 +1,150 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.instructions.cp;
+
+import com.ibm.bi.dml.hops.CellwiseFusion;
+import com.ibm.bi.dml.lops.FusedCellwise;
+import com.ibm.bi.dml.parser.Expression.DataType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.ValueFunction;
+import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixFusedCellwise;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.FusedCellwiseOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.FusedCellwiseOperator.AggType;
+import com.ibm.bi.dml.runtime.matrix.operators.FusedCellwiseOperator.StepType;
+
+/**
+ * CP instruction for fused cellwise operations over an arbitrary number of
+ * equal-sized matrix and scalar inputs, with an optional final aggregate.
+ *
+ * Format: CP°fcell°aggop°program°in1°...°inN°out°k
+ */
+public class FusedCellwiseCPInstruction extends ComputationCPInstruction
+{
+	private CPOperand[] _inputs = null;
+
+	public FusedCellwiseCPInstruction(FusedCellwiseOperator op, CPOperand[] inputs, CPOperand out, String opcode, String istr)
+	{
+		super(op, inputs[0], null, null, out, opcode, istr);
+		_cptype = CPINSTRUCTION_TYPE.FusedCellwise;
+		_inputs = inputs;
+	}
+
+	/**
+	 *
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static FusedCellwiseCPInstruction parseInstruction( String str )
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		String opcode = parts[0];
+
+		if( !opcode.equalsIgnoreCase(FusedCellwise.OPCODE) || parts.length < 6 )
+			throw new DMLRuntimeException("FusedCellwiseCPInstruction.parseInstruction():: Unknown opcode or invalid instruction " + str);
+
+		//parse inputs, output, and degree of parallelism
+		CPOperand[] inputs = new CPOperand[parts.length-5];
+		for( int i=0; i<inputs.length; i++ )
+			inputs[i] = new CPOperand(parts[3+i]);
+		CPOperand out = new CPOperand(parts[parts.length-2]);
+		int k = Integer.parseInt(parts[parts.length-1]);
+
+		//parse aggregation type and postfix program
+		AggType atype = null;
+		if( parts[1].equals(FusedCellwise.AGG_NONE) )
+			atype = AggType.NONE;
+		else if( parts[1].equals(FusedCellwise.AGG_SUM) )
+			atype = AggType.SUM;
+		else if( parts[1].equals(FusedCellwise.AGG_ROW_SUM) )
+			atype = AggType.ROW_SUM;
+		else if( parts[1].equals(FusedCellwise.AGG_COL_SUM) )
+			atype = AggType.COL_SUM;
+		else
+			throw new DMLRuntimeException("FusedCellwiseCPInstruction.parseInstruction():: Unknown aggregate " + parts[1]);
+
+		String[] tokens = parts[2].split(CellwiseFusion.PROG_DELIM);
+		StepType[] types = new StepType[tokens.length];
+		int[] pinputs = new int[tokens.length];
+		ValueFunction[] fns = new ValueFunction[tokens.length];
+		for( int i=0; i<tokens.length; i++ ) {
+			String tok = tokens[i];
+			if( tok.startsWith(CellwiseFusion.PROG_BINARY) ) {
+				types[i] = StepType.BINARY;
+				fns[i] = InstructionUtils.parseBinaryOperator(tok.substring(1)).fn;
+			}
+			else if( tok.startsWith(CellwiseFusion.PROG_UNARY) ) {
+				types[i] = StepType.UNARY;
+				fns[i] = Builtin.getBuiltinFnObject(tok.substring(1));
+				if( fns[i] == null )
+					throw new DMLRuntimeException("FusedCellwiseCPInstruction.parseInstruction():: Unknown unary function " + tok);
+			}
+			else {
+				types[i] = StepType.INPUT;
+				pinputs[i] = Integer.parseInt(tok);
+			}
+		}
+
+		FusedCellwiseOperator op = new FusedCellwiseOperator(types, pinputs, fns, atype, k);
+		return new FusedCellwiseCPInstruction(op, inputs, out, opcode, str);
+	}
+
+	@Override
+	public void processInstruction(ExecutionContext ec)
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		FusedCellwiseOperator op = (FusedCellwiseOperator) _optr;
+
+		//get matrix and scalar inputs
+		MatrixBlock[] in = new MatrixBlock[_inputs.length];
+		double[] scalars = new double[_inputs.length];
+		for( int i=0; i<_inputs.length; i++ ) {
+			if( _inputs[i].getDataType() == DataType.MATRIX )
+				in[i] = ec.getMatrixInput(_inputs[i].getName());
+			else
+				scalars[i] = ec.getScalarInput(_inputs[i].getName(),
+						_inputs[i].getValueType(), _inputs[i].isLiteral()).getDoubleValue();
+		}
+
+		//core execute
+		MatrixBlock ret = LibMatrixFusedCellwise.fusedCellwise(in, scalars, op);
+
+		//release inputs and output
+		for( int i=0; i<_inputs.length; i++ )
+			if( _inputs[i].getDataType() == DataType.MATRIX )
+				ec.releaseMatrixInput(_inputs[i].getName());
+		if( output.getDataType() == DataType.SCALAR )
+			ec.setScalarOutput(output.getName(), new DoubleObject(ret.getValue(0, 0)));
+		else
+			ec.setMatrixOutput(output.getName(), ret);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public CPOperand[] getInputs() {
+		return _inputs;
+	}
+}
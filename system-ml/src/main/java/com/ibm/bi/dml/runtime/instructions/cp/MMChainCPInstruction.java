@@ -94,7 +94,7 @@ public class MMChainCPInstruction extends UnaryCPInstruction
 		throws DMLUnsupportedOperationException, DMLRuntimeException 
 	{
 		//get inputs
-		MatrixBlock X = ec.getMatrixInput(input1.getName());
+		MatrixBlock X = ec.getMatrixInput(input1.getName(), true);
 		MatrixBlock v = ec.getMatrixInput(input2.getName());
 		MatrixBlock w = (_type==ChainType.XtwXv) ? ec.getMatrixInput(input3.getName()) : null;
 
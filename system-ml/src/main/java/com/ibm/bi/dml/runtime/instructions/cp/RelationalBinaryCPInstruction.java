@@ -35,11 +35,11 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 	}
 	
 	public static Instruction parseInstruction ( String str ) throws DMLRuntimeException {
-		InstructionUtils.checkNumFields (str, 3);
+		InstructionUtils.checkNumFields (str, 3, 4);
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
-		String opcode = parseBinaryInstruction(str, in1, in2, out);
+		String opcode = parseBinaryInstruction(str, in1, in2, out, true);
 		
 		// TODO: Relational operations need not have value type checking
 		ValueType vt1 = in1.getValueType();
@@ -88,6 +88,9 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 			return new ScalarScalarRelationalCPInstruction(operator, in1, in2, out, opcode, str);
 		
 		}else if (dt1 == DataType.MATRIX || dt2 == DataType.MATRIX){
+			//set degree of parallelism for cellwise matrix operations
+			parseNumThreads(str, operator);
+			
 			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX)
 				return new MatrixMatrixRelationalCPInstruction(operator, in1, in2, out, opcode, str);
 			else
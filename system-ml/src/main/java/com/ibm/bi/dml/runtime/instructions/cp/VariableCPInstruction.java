@@ -725,9 +725,10 @@ public class VariableCPInstruction extends CPInstruction
 		if ( input1_data == null )
 			throw new DMLRuntimeException("Unexpected error: could not find a data object for variable name:" + varname + ", while processing rmvar instruction.");
 
-		//cleanup matrix data on fs/hdfs (if necessary)
+		//cleanup matrix data on fs/hdfs (if necessary, incl recycling of dense 
+		//blocks because no variable references the removed object anymore)
 		if ( input1_data instanceof MatrixObject ) {
-			ec.cleanupMatrixObject( (MatrixObject) input1_data );
+			ec.cleanupMatrixObject( (MatrixObject) input1_data, true );
 		}
 	}
 	
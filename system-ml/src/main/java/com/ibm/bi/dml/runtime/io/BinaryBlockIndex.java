@@ -0,0 +1,323 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.util.IndexRange;
+
+/**
+ * Block index of indexed binary block files, which allows random access to 
+ * individual blocks and meta data access without a scan. 
+ * 
+ * File layout (big endian): 
+ * <pre>
+ *   header:  int MAGIC, int VERSION
+ *   blocks:  serialized matrix blocks (non-empty blocks only)
+ *   footer:  per block: long rix, long cix, int rows, int cols, long offset, int length, long nnz
+ *   trailer: long footerOffset, int numBlocks, long rlen, long clen, int brlen, int bclen, long nnz, int MAGIC
+ * </pre>
+ * The trailer has a fixed size and hence, is read from the end of the file.
+ * Blocks that are not contained in the index are empty. 
+ * 
+ */
+public class BinaryBlockIndex 
+{
+	public static final int MAGIC = 0x53424958; //SBIX
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 8;
+	public static final int ENTRY_SIZE = 44;
+	public static final int TRAILER_SIZE = 48;
+	
+	//matrix meta data (of the blocks in this file)
+	private long _rlen = -1;
+	private long _clen = -1;
+	private int _brlen = -1;
+	private int _bclen = -1;
+	private long _nnz = 0;
+	
+	//block index entries (and footer offset if read from file)
+	private long _footerOffset = -1;
+	private int _numBlocks = 0;
+	private long[] _rix = null;
+	private long[] _cix = null;
+	private int[] _rows = null;
+	private int[] _cols = null;
+	private long[] _offsets = null;
+	private int[] _lengths = null;
+	private long[] _nnzs = null;
+	
+	public BinaryBlockIndex( long rlen, long clen, int brlen, int bclen )
+	{
+		_rlen = rlen;
+		_clen = clen;
+		_brlen = brlen;
+		_bclen = bclen;
+		allocate(16);
+	}
+	
+	public long getNumRows() {
+		return _rlen;
+	}
+	
+	public long getNumColumns() {
+		return _clen;
+	}
+	
+	public int getRowsPerBlock() {
+		return _brlen;
+	}
+	
+	public int getColsPerBlock() {
+		return _bclen;
+	}
+	
+	public long getNonZeros() {
+		return _nnz;
+	}
+	
+	public int getNumBlocks() {
+		return _numBlocks;
+	}
+	
+	public long getRowIndex( int pos ) {
+		return _rix[pos];
+	}
+	
+	public long getColumnIndex( int pos ) {
+		return _cix[pos];
+	}
+	
+	public int getNumRows( int pos ) {
+		return _rows[pos];
+	}
+	
+	public int getNumColumns( int pos ) {
+		return _cols[pos];
+	}
+	
+	public long getOffset( int pos ) {
+		return _offsets[pos];
+	}
+	
+	public int getLength( int pos ) {
+		return _lengths[pos];
+	}
+	
+	public long getNonZeros( int pos ) {
+		return _nnzs[pos];
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public MatrixCharacteristics getMatrixCharacteristics()
+	{
+		return new MatrixCharacteristics(_rlen, _clen, _brlen, _bclen, _nnz);
+	}
+	
+	/**
+	 * Appends the given block to the index.
+	 * 
+	 * @param rix
+	 * @param cix
+	 * @param rows
+	 * @param cols
+	 * @param offset
+	 * @param length
+	 * @param nnz
+	 */
+	public void addBlock( long rix, long cix, int rows, int cols, long offset, int length, long nnz )
+	{
+		if( _numBlocks == _rix.length )
+			allocate(2*_numBlocks);
+		
+		_rix[_numBlocks] = rix;
+		_cix[_numBlocks] = cix;
+		_rows[_numBlocks] = rows;
+		_cols[_numBlocks] = cols;
+		_offsets[_numBlocks] = offset;
+		_lengths[_numBlocks] = length;
+		_nnzs[_numBlocks] = nnz;
+		_numBlocks++;
+		_nnz += nnz;
+	}
+	
+	/**
+	 * Determines the positions of all blocks that overlap with the given 
+	 * index range (1-based, inclusive).
+	 * 
+	 * @param ixrange
+	 * @return
+	 */
+	public int[] getBlocksInRange( IndexRange ixrange )
+	{
+		int[] ret = new int[_numBlocks];
+		int len = 0;
+		for( int i=0; i<_numBlocks; i++ ) {
+			long rl = (_rix[i]-1)*_brlen+1;
+			long cl = (_cix[i]-1)*_bclen+1;
+			if( rl <= ixrange.rowEnd && rl+_rows[i]-1 >= ixrange.rowStart 
+				&& cl <= ixrange.colEnd && cl+_cols[i]-1 >= ixrange.colStart )
+				ret[len++] = i;
+		}
+		return Arrays.copyOf(ret, len);
+	}
+	
+	/**
+	 * Writes the footer and trailer, where the footer starts at the given offset. 
+	 * Unknown dimensions and block sizes are inferred from the index entries.
+	 * 
+	 * @param out
+	 * @param footerOffset
+	 * @throws IOException
+	 */
+	public void write( DataOutput out, long footerOffset ) 
+		throws IOException
+	{
+		//infer unknown meta data (max block sizes and extents)
+		if( _brlen < 0 || _bclen < 0 ) {
+			for( int i=0; i<_numBlocks; i++ ) {
+				_brlen = Math.max(_brlen, _rows[i]);
+				_bclen = Math.max(_bclen, _cols[i]);
+			}
+		}
+		if( _rlen < 0 || _clen < 0 ) {
+			_rlen = _clen = 0;
+			for( int i=0; i<_numBlocks; i++ ) {
+				_rlen = Math.max(_rlen, (_rix[i]-1)*_brlen+_rows[i]);
+				_clen = Math.max(_clen, (_cix[i]-1)*_bclen+_cols[i]);
+			}
+		}
+		
+		//write footer 
+		for( int i=0; i<_numBlocks; i++ ) {
+			out.writeLong(_rix[i]);
+			out.writeLong(_cix[i]);
+			out.writeInt(_rows[i]);
+			out.writeInt(_cols[i]);
+			out.writeLong(_offsets[i]);
+			out.writeInt(_lengths[i]);
+			out.writeLong(_nnzs[i]);
+		}
+		
+		//write trailer
+		out.writeLong(footerOffset);
+		out.writeInt(_numBlocks);
+		out.writeLong(_rlen);
+		out.writeLong(_clen);
+		out.writeInt(_brlen);
+		out.writeInt(_bclen);
+		out.writeLong(_nnz);
+		out.writeInt(MAGIC);
+	}
+	
+	/**
+	 * Reads the trailer from the given input positioned at the beginning of
+	 * the trailer. The returned index contains the meta data, number of blocks
+	 * and footer offset, while the entries are read on demand via readFooter.
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static BinaryBlockIndex readTrailer( DataInput in ) 
+		throws IOException
+	{
+		long footerOffset = in.readLong();
+		int numBlocks = in.readInt();
+		long rlen = in.readLong();
+		long clen = in.readLong();
+		int brlen = in.readInt();
+		int bclen = in.readInt();
+		long nnz = in.readLong();
+		if( in.readInt() != MAGIC )
+			throw new IOException("Invalid indexed binary block file (magic number mismatch).");
+		
+		BinaryBlockIndex ret = new BinaryBlockIndex(rlen, clen, brlen, bclen);
+		ret._numBlocks = numBlocks; 
+		ret._nnz = nnz;
+		ret._footerOffset = footerOffset;
+		return ret;
+	}
+	
+	/**
+	 * Reads the footer entries of an index obtained via readTrailer from the
+	 * given input positioned at the beginning of the footer.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	public void readFooter( DataInput in ) 
+		throws IOException
+	{
+		int numBlocks = _numBlocks;
+		long nnz = _nnz;
+		_rix = null;
+		allocate(Math.max(numBlocks, 1));
+		_numBlocks = 0;
+		_nnz = 0;
+		for( int i=0; i<numBlocks; i++ )
+			addBlock(in.readLong(), in.readLong(), in.readInt(), in.readInt(), 
+					in.readLong(), in.readInt(), in.readLong());
+		if( _nnz != nnz )
+			throw new IOException("Invalid indexed binary block file (inconsistent nnz "+_nnz+" vs "+nnz+").");
+	}
+	
+	/**
+	 * Returns the footer offset of an index obtained via readTrailer.
+	 * 
+	 * @return
+	 */
+	public long getFooterOffset()
+	{
+		return _footerOffset;
+	}
+	
+	/**
+	 * 
+	 * @param len
+	 */
+	private void allocate( int len )
+	{
+		if( _rix == null ) {
+			_rix = new long[len];
+			_cix = new long[len];
+			_rows = new int[len];
+			_cols = new int[len];
+			_offsets = new long[len];
+			_lengths = new int[len];
+			_nnzs = new long[len];
+		}
+		else {
+			_rix = Arrays.copyOf(_rix, len);
+			_cix = Arrays.copyOf(_cix, len);
+			_rows = Arrays.copyOf(_rows, len);
+			_cols = Arrays.copyOf(_cols, len);
+			_offsets = Arrays.copyOf(_offsets, len);
+			_lengths = Arrays.copyOf(_lengths, len);
+			_nnzs = Arrays.copyOf(_nnzs, len);
+		}
+	}
+}
@@ -0,0 +1,292 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Line reader over a byte range [start, end) of an input stream, which 
+ * exposes lines as ranges of its internal byte buffer (w/o String or Text 
+ * objects). The split semantics equal Hadoop's line record reader: a line
+ * belongs to the range in which it starts, and readers of all but the first
+ * range skip their first (partial) line. Hence, disjoint ranges of a file
+ * can be read in parallel and each line is read exactly once.
+ * 
+ */
+public class ByteRangeLineReader 
+{
+	private static final int BUFFER_SIZE = 64 * 1024; //64KB
+	
+	private InputStream _in = null;
+	private long _end = -1;
+	
+	//read buffer, valid bytes, and file position of buffer start 
+	private byte[] _buff = null;
+	private int _blen = 0;
+	private long _bpos = 0;
+	private boolean _eof = false;
+	
+	//current line [_lstart, _lend) and start of next line 
+	private int _lstart = 0;
+	private int _lend = 0;
+	private int _next = 0;
+	
+	/**
+	 * Creates a line reader for the range [start, end), where the given 
+	 * stream is expected to be positioned at the start offset.  
+	 * 
+	 * @param in
+	 * @param start
+	 * @param end
+	 * @param skipFirst skip first (partial) line of the range
+	 * @throws IOException 
+	 */
+	public ByteRangeLineReader( InputStream in, long start, long end, boolean skipFirst ) 
+		throws IOException
+	{
+		_in = in;
+		_end = end;
+		_buff = new byte[BUFFER_SIZE];
+		_bpos = start;
+		
+		//skip first line, which is read by the preceding range
+		//(note: readers of a split start one byte before the split, 
+		//in order to not skip a line that starts at the split boundary)
+		if( skipFirst )
+			nextLine();
+	}
+	
+	/**
+	 * Opens a line reader for the given file range, where local files are 
+	 * directly read via file channels (see LocalFileIO).
+	 * 
+	 * @param fs
+	 * @param range
+	 * @return
+	 * @throws IOException
+	 */
+	public static ByteRangeLineReader open( FileSystem fs, FileRange range ) 
+		throws IOException
+	{
+		//open stream at range start (incl last byte of previous range)
+		long pos = range.skipFirst ? range.start-1 : range.start;
+		InputStream in = LocalFileIO.openInputStream(fs, range.path, pos);
+		return new ByteRangeLineReader(in, pos, range.end, range.skipFirst);
+	}
+	
+	/**
+	 * Splits the byte range [start, end) of the given file into numRanges 
+	 * disjoint ranges of equal size, but at least minSize bytes.
+	 * 
+	 * @param path
+	 * @param start offset of the first line
+	 * @param end
+	 * @param numRanges
+	 * @param minSize
+	 * @return
+	 */
+	public static ArrayList<FileRange> createFileRanges( Path path, long start, long end, int numRanges, long minSize )
+	{
+		ArrayList<FileRange> ret = new ArrayList<FileRange>();
+		int num = (int)Math.max(Math.min(numRanges, (end-start)/minSize), 1);
+		for( int i=0; i<num; i++ ) {
+			long rs = start + (end-start)*i/num;
+			long re = start + (end-start)*(i+1)/num;
+			ret.add(new FileRange(path, rs, re, i>0));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Splits the given files into disjoint ranges, where the number of ranges
+	 * per file is proportional to its share of the total size. 
+	 * 
+	 * @param fs
+	 * @param files
+	 * @param numRanges
+	 * @param minSize
+	 * @return
+	 * @throws IOException
+	 */
+	public static ArrayList<FileRange> createFileRanges( FileSystem fs, Path[] files, int numRanges, long minSize ) 
+		throws IOException
+	{
+		long[] lens = new long[files.length];
+		long total = 0;
+		for( int i=0; i<files.length; i++ ) {
+			lens[i] = fs.getFileStatus(files[i]).getLen();
+			total += lens[i];
+		}
+		
+		ArrayList<FileRange> ret = new ArrayList<FileRange>();
+		for( int i=0; i<files.length; i++ ) {
+			int num = (int)Math.ceil((double)numRanges * lens[i] / Math.max(total, 1));
+			ret.addAll(createFileRanges(files[i], 0, lens[i], num, minSize));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Advances to the next line that starts within the byte range.
+	 * 
+	 * @return false if there are no more lines
+	 * @throws IOException
+	 */
+	public boolean nextLine() 
+		throws IOException
+	{
+		//check for end of range
+		if( _bpos + _next >= _end )
+			return false;
+		
+		//find next line feed (and refill buffer if necessary,
+		//where the refill moves the start of the line to 0)
+		int pos = _next;
+		while( true ) {
+			while( pos < _blen && _buff[pos] != '\n' )
+				pos++;
+			if( pos < _blen )
+				break;
+			int scanned = pos - _next;
+			if( !fill() ) {
+				pos = _blen;
+				break;
+			}
+			pos = _next + scanned;
+		}
+		
+		//check for end of input 
+		if( pos == _next && pos == _blen )
+			return false;
+		
+		//set current line (excl line feed and carriage return)
+		_lstart = _next;
+		_lend = pos;
+		_next = Math.min(pos + 1, _blen);
+		if( _lend > _lstart && _buff[_lend-1] == '\r' )
+			_lend--;
+		
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public byte[] getBuffer()
+	{
+		return _buff;
+	}
+	
+	/**
+	 * 
+	 * @return start of the current line in the buffer
+	 */
+	public int getLineStart()
+	{
+		return _lstart;
+	}
+	
+	/**
+	 * 
+	 * @return end (exclusive) of the current line in the buffer
+	 */
+	public int getLineEnd()
+	{
+		return _lend;
+	}
+	
+	/**
+	 * 
+	 * @return file position of the next line
+	 */
+	public long getPosition()
+	{
+		return _bpos + _next;
+	}
+	
+	/**
+	 * 
+	 */
+	public void close()
+	{
+		IOUtilFunctions.closeSilently(_in);
+	}
+	
+	/**
+	 * Compacts the buffer (moves the unprocessed bytes starting at the next line
+	 * to the beginning), grows it if required, and reads additional bytes. 
+	 * 
+	 * @return false if the end of input is reached
+	 * @throws IOException
+	 */
+	private boolean fill() 
+		throws IOException
+	{
+		if( _eof )
+			return false;
+		
+		//compact buffer
+		int off = _next;
+		System.arraycopy(_buff, off, _buff, 0, _blen - off);
+		_blen -= off;
+		_bpos += off;
+		_next = 0;
+		
+		//grow buffer for long lines
+		if( _blen == _buff.length ) {
+			byte[] tmp = new byte[2 * _buff.length];
+			System.arraycopy(_buff, 0, tmp, 0, _blen);
+			_buff = tmp;
+		}
+		
+		//read additional bytes
+		int len = _in.read(_buff, _blen, _buff.length - _blen);
+		if( len < 0 ) 
+			_eof = true;
+		else 
+			_blen += len;
+		
+		return !_eof;
+	}
+	
+	/**
+	 * Byte range [start, end) of a file, and indicator if its first (partial) 
+	 * line belongs to the preceding range.
+	 * 
+	 */
+	public static class FileRange
+	{
+		public final Path path;
+		public final long start;
+		public final long end;
+		public final boolean skipFirst;
+		
+		public FileRange( Path path, long start, long end, boolean skipFirst ) {
+			this.path = path;
+			this.start = start;
+			this.end = end;
+			this.skipFirst = skipFirst;
+		}
+	}
+}
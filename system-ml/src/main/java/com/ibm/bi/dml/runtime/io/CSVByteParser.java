@@ -0,0 +1,293 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.UnsupportedEncodingException;
+
+import com.ibm.bi.dml.parser.DataExpression;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
+
+/**
+ * Byte-level parser of delimited (CSV) rows, which parses cells directly from
+ * byte buffers (e.g., Text.getBytes or read buffers of ByteRangeLineReader) 
+ * without intermediate String objects. The semantics equal the String-based 
+ * read path (split by the whole delimiter w/ all tokens preserved, trimmed 
+ * rows and cells), with the following extensions:
+ * 
+ * (1) Quoted cells: delimiters within double quotes are ignored and 
+ *     enclosing quotes of a cell are removed.
+ * (2) NA strings: cells that equal one of the given NA strings are handled
+ *     like empty cells, i.e., replaced by the fill value.
+ * 
+ * Empty (or NA) cells are always replaced with the fill value, but the caller 
+ * is responsible for raising errors if fill is disabled (see isEmptyFound), 
+ * in order to keep the existing error messages of the individual readers.
+ * 
+ */
+public class CSVByteParser 
+{
+	private byte[] _delim = null;
+	private byte _d0 = 0;
+	private double _fillValue = 0;
+	private byte[][] _naStrings = null;
+	
+	//empty or NA cells in the last parsed row
+	private boolean _emptyFound = false;
+	
+	//reused row buffer for sparse and segmented dense targets
+	private double[] _row = null;
+	
+	/**
+	 * 
+	 * @param delim
+	 * @param fillValue
+	 * @param naStrings NA strings separated by DataExpression.DELIM_NA_STRING_SEP, or null
+	 */
+	public CSVByteParser( String delim, double fillValue, String naStrings )
+	{
+		_delim = getBytes(delim);
+		_d0 = _delim[0];
+		_fillValue = fillValue;
+		
+		if( naStrings != null ) {
+			String[] tmp = naStrings.split(DataExpression.DELIM_NA_STRING_SEP);
+			_naStrings = new byte[tmp.length][];
+			for( int i=0; i<tmp.length; i++ )
+				_naStrings[i] = getBytes(tmp[i].trim());
+		}
+	}
+	
+	/**
+	 * Indicates if the last parsed row contained empty or NA cells.
+	 * 
+	 * @return
+	 */
+	public boolean isEmptyFound()
+	{
+		return _emptyFound;
+	}
+	
+	/**
+	 * Parses the row in the byte range [off, end) into the given row of the 
+	 * target matrix block. Dense rows are parsed in-place, while sparse rows
+	 * append their non-zero values (requires preallocated sparse rows for 
+	 * concurrent parsing of different rows). Cells beyond the number of 
+	 * columns of the target are only counted.
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @param dest
+	 * @param row
+	 * @return number of cells in the row
+	 */
+	public int parseRow( byte[] buff, int off, int end, MatrixBlock dest, int row )
+	{
+		int clen = dest.getNumColumns();
+		double[] a = dest.isInSparseFormat() ? null : dest.getDenseArray();
+		
+		//dense, in-place parsing
+		if( a != null )
+			return parseRow(buff, off, end, a, row*clen, clen);
+		
+		//sparse or segmented dense
+		if( _row == null || _row.length != clen )
+			_row = new double[clen];
+		int ncol = parseRow(buff, off, end, _row, 0, clen);
+		int lncol = Math.min(ncol, clen);
+		if( dest.isInSparseFormat() ) {
+			for( int j=0; j<lncol; j++ )
+				if( _row[j] != 0 )
+					dest.appendValue(row, j, _row[j]);
+		}
+		else {
+			for( int j=0; j<lncol; j++ )
+				dest.setValueDenseUnsafe(row, j, _row[j]);
+		}
+		
+		return ncol;
+	}
+	
+	/**
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @param out
+	 * @return number of cells in the row
+	 */
+	public int parseRow( byte[] buff, int off, int end, double[] out )
+	{
+		return parseRow(buff, off, end, out, 0, out.length);
+	}
+	
+	/**
+	 * Parses the row in the byte range [off, end) into out[outOff, outOff+maxCols). 
+	 * Cells beyond maxCols are only counted, which allows to parse rows directly 
+	 * into dense blocks and to count the number of columns (w/ maxCols=0).
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @param out
+	 * @param outOff
+	 * @param maxCols
+	 * @return number of cells in the row
+	 */
+	public int parseRow( byte[] buff, int off, int end, double[] out, int outOff, int maxCols )
+	{
+		_emptyFound = false;
+		
+		//trim row
+		while( off < end && isWhitespace(buff[off]) )
+			off++;
+		while( end > off && isWhitespace(buff[end-1]) )
+			end--;
+		if( off >= end )
+			return 0;
+		
+		int dlen = _delim.length;
+		int ncol = 0;
+		int pos = off;
+		while( true )
+		{
+			//scan to end of cell (ignore delimiters within quotes)
+			int cstart = pos;
+			boolean quoted = false;
+			for( ; pos < end; pos++ ) {
+				byte b = buff[pos];
+				if( b == '"' )
+					quoted = !quoted;
+				else if( b == _d0 && !quoted && (dlen==1 || isDelim(buff, pos, end)) )
+					break;
+			}
+			
+			//parse cell
+			if( ncol < maxCols )
+				out[outOff+ncol] = parseCell(buff, cstart, pos);
+			ncol++;
+			
+			//advance to next cell (a trailing delimiter creates an empty cell)
+			if( pos >= end )
+				break;
+			pos += dlen;
+		}
+		
+		return ncol;
+	}
+	
+	/**
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @return
+	 */
+	private double parseCell( byte[] buff, int off, int end )
+	{
+		//trim cell and remove enclosing quotes
+		while( off < end && isWhitespace(buff[off]) )
+			off++;
+		while( end > off && isWhitespace(buff[end-1]) )
+			end--;
+		if( end-off >= 2 && buff[off]=='"' && buff[end-1]=='"' ) {
+			off++; end--;
+			while( off < end && isWhitespace(buff[off]) )
+				off++;
+			while( end > off && isWhitespace(buff[end-1]) )
+				end--;
+		}
+		
+		//empty and NA cells
+		if( off >= end || isNA(buff, off, end) ) {
+			_emptyFound = true;
+			return _fillValue;
+		}
+		
+		return FastByteTokenizer.parseDouble(buff, off, end);
+	}
+	
+	/**
+	 * 
+	 * @param buff
+	 * @param pos
+	 * @param end
+	 * @return
+	 */
+	private boolean isDelim( byte[] buff, int pos, int end )
+	{
+		if( end - pos < _delim.length )
+			return false;
+		for( int i=1; i<_delim.length; i++ )
+			if( buff[pos+i] != _delim[i] )
+				return false;
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @return
+	 */
+	private boolean isNA( byte[] buff, int off, int end )
+	{
+		if( _naStrings == null )
+			return false;
+		
+		for( byte[] na : _naStrings ) {
+			if( na.length != end-off )
+				continue;
+			int i = 0;
+			while( i < na.length && na[i] == buff[off+i] )
+				i++;
+			if( i == na.length )
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Equivalent to String.trim, but excludes bytes of multi-byte UTF-8 characters.
+	 * 
+	 * @param b
+	 * @return
+	 */
+	private static boolean isWhitespace( byte b )
+	{
+		return b >= 0 && b <= ' ';
+	}
+	
+	/**
+	 * 
+	 * @param str
+	 * @return
+	 */
+	private static byte[] getBytes( String str )
+	{
+		try {
+			return str.getBytes("UTF-8");
+		}
+		catch(UnsupportedEncodingException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,617 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.wink.json4j.JSONObject;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.parser.DataExpression;
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader.FileRange;
+import com.ibm.bi.dml.utils.JSONHelper;
+
+/**
+ * Metadata inference for csv inputs with unknown dimensions, which is used 
+ * during validation (and recompilation) in order to prevent csv reblocks and
+ * hop dag splits for unknown sizes. 
+ * 
+ * The number of rows is determined by a parallel line count over disjoint byte
+ * ranges (see ByteRangeLineReader), while the number of columns and sparsity 
+ * are obtained from a sample of parsed lines per range. Since the byte ranges 
+ * equal the ranges of ReaderTextCSVLocal, the row counts per range are cached
+ * in-memory and reused as row offsets by subsequent reads of the same file. 
+ * Furthermore, the inferred meta data is persisted in the existing metadata file 
+ * of the input, keyed by total file size and latest modification time. Hence, 
+ * repeated reads of unchanged inputs do not require any count.
+ * 
+ * NOTE: Since the sparsity is only estimated from a sample, the number of 
+ * non-zeros is not exposed to the compiler, which treats it as exact.
+ */
+public class CSVMetaDataInference 
+{
+	private static final Log LOG = LogFactory.getLog(CSVMetaDataInference.class.getName());
+	
+	//keys of inferred meta data in the metadata file (see DataExpression.INFERREDPARAM)
+	private static final String MTD_SPARSITY = "sparsity";
+	private static final String MTD_SIZE = "size";
+	private static final String MTD_MTIME = "mtime";
+	
+	//number of parsed lines per byte range for column count and sparsity
+	private static final int SAMPLE_SIZE = 1024;
+	
+	//in-memory cache of inferred meta data (incl row counts per range)
+	private static final int CACHE_SIZE = 64;
+	private static ConcurrentHashMap<String, CSVMetaData> _cache = new ConcurrentHashMap<String, CSVMetaData>();
+	
+	/**
+	 * Infers the meta data of the given csv input (single file or directory of
+	 * part files), either from the in-memory cache, the metadata file, or via a
+	 * parallel count. Newly inferred meta data is written to the metadata file.
+	 * 
+	 * @param fname
+	 * @param hasHeader
+	 * @param delim
+	 * @param naStrings
+	 * @return meta data, or null if not inferable (e.g., non-existing or compressed inputs)
+	 * @throws IOException
+	 */
+	public static CSVMetaData inferMetaData( String fname, boolean hasHeader, String delim, String naStrings ) 
+		throws IOException
+	{
+		JobConf job = ConfigurationManager.getCachedJobConf();
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		if( !fs.exists(path) )
+			return null;
+		
+		//check for supported inputs (non-empty, uncompressed)
+		Path[] files = ReaderTextCSVLocal.getCSVFilePaths(fs, path);
+		if( files.length == 0 )
+			return null;
+		CompressionCodecFactory codecs = new CompressionCodecFactory(job);
+		for( Path file : files )
+			if( codecs.getCodec(file) != null )
+				return null;
+		
+		//probe in-memory cache
+		long[] stats = getFileStatistics(fs, files);
+		String key = createCacheKey(path, stats[0], stats[1], hasHeader, delim);
+		CSVMetaData ret = _cache.get(key);
+		if( ret != null )
+			return ret;
+		
+		//probe metadata file
+		Path mtdPath = new Path( fname + ".mtd" );
+		ret = readMetaDataFile(fs, mtdPath, stats[0], stats[1], hasHeader, delim);
+		
+		//parallel count and write of metadata file
+		if( ret == null ) {
+			int numThreads = OptimizerUtils.getParallelTextReadParallelism();
+			ret = countRows(fs, files, hasHeader, delim, naStrings, numThreads, stats[0], stats[1]);
+			if( ret != null )
+				writeMetaDataFile(fs, mtdPath, ret);
+			if( LOG.isDebugEnabled() && ret != null )
+				LOG.debug("Inferred meta data of csv input "+fname+": "+ret.getRows()+"x"+ret.getCols()
+						+ ", sparsity="+ret.getSparsity()+".");
+		}
+		
+		if( ret != null )
+			putCachedMetaData(key, ret);
+		
+		return ret;
+	}
+	
+	/**
+	 * Obtains cached meta data of the given csv input (w/o count or access of 
+	 * the metadata file), which is used by readers to skip their count pass. 
+	 * 
+	 * @param fs
+	 * @param path
+	 * @param files
+	 * @param hasHeader
+	 * @param delim
+	 * @return meta data, or null if not cached
+	 * @throws IOException
+	 */
+	public static CSVMetaData getCachedMetaData( FileSystem fs, Path path, Path[] files, boolean hasHeader, String delim ) 
+		throws IOException
+	{
+		long[] stats = getFileStatistics(fs, files);
+		return _cache.get(createCacheKey(path, stats[0], stats[1], hasHeader, delim));
+	}
+	
+	/**
+	 * Caches the given meta data (incl row counts per byte range) of the given 
+	 * csv input, which is used by readers after their count pass.
+	 * 
+	 * @param fs
+	 * @param path
+	 * @param files
+	 * @param hasHeader
+	 * @param delim
+	 * @param md
+	 * @throws IOException
+	 */
+	public static void putCachedMetaData( FileSystem fs, Path path, Path[] files, boolean hasHeader, String delim, CSVMetaData md ) 
+		throws IOException
+	{
+		long[] stats = getFileStatistics(fs, files);
+		md.setFileStatistics(stats[0], stats[1]);
+		putCachedMetaData(createCacheKey(path, stats[0], stats[1], hasHeader, delim), md);
+	}
+	
+	/**
+	 * 
+	 */
+	public static void clearCache()
+	{
+		_cache.clear();
+	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @param md
+	 */
+	private static void putCachedMetaData( String key, CSVMetaData md )
+	{
+		//simple size limit (inputs are rarely re-read after many other inputs)
+		if( _cache.size() >= CACHE_SIZE )
+			_cache.clear();
+		_cache.put(key, md);
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param size
+	 * @param mtime
+	 * @param hasHeader
+	 * @param delim
+	 * @return
+	 */
+	private static String createCacheKey( Path path, long size, long mtime, boolean hasHeader, String delim )
+	{
+		return path.toString() + "_" + size + "_" + mtime + "_" + hasHeader + "_" + delim;
+	}
+	
+	/**
+	 * 
+	 * @param fs
+	 * @param files
+	 * @return total size and latest modification time of the given files
+	 * @throws IOException
+	 */
+	private static long[] getFileStatistics( FileSystem fs, Path[] files ) 
+		throws IOException
+	{
+		long size = 0, mtime = 0;
+		for( Path file : files ) {
+			FileStatus stat = fs.getFileStatus(file);
+			size += stat.getLen();
+			mtime = Math.max(mtime, stat.getModificationTime());
+		}
+		return new long[]{size, mtime};
+	}
+	
+	/**
+	 * Counts the rows of all byte ranges in parallel, and determines the number
+	 * of columns and sparsity from a sample of lines per range.
+	 * 
+	 * @param fs
+	 * @param files
+	 * @param hasHeader
+	 * @param delim
+	 * @param naStrings
+	 * @param numThreads
+	 * @param size
+	 * @param mtime
+	 * @return meta data, or null if the sampled lines have inconsistent numbers of columns
+	 * @throws IOException
+	 */
+	private static CSVMetaData countRows( FileSystem fs, Path[] files, boolean hasHeader, String delim, 
+			String naStrings, int numThreads, long size, long mtime ) 
+		throws IOException
+	{
+		//split all files into disjoint byte ranges (equal to ReaderTextCSVLocal)
+		ArrayList<FileRange> ranges = ByteRangeLineReader.createFileRanges(
+				fs, files, numThreads, ReaderTextCSVLocal.MIN_RANGE_SIZE);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(numThreads, ranges.size()));
+		try
+		{
+			ArrayList<CountTask> tasks = new ArrayList<CountTask>();
+			for( int i=0; i<ranges.size(); i++ )
+				tasks.add(new CountTask(fs, ranges.get(i), i==0 && hasHeader, delim, naStrings));
+			pool.invokeAll(tasks);
+			
+			//aggregate row counts and samples of all ranges
+			long nrow = 0, ncells = 0, nnz = 0;
+			int ncol = -1;
+			int[] rangeRows = new int[tasks.size()];
+			for( int i=0; i<tasks.size(); i++ ) {
+				CountTask t = tasks.get(i);
+				if( !t.getReturnCode() )
+					throw new IOException("Count task for csv input failed: " + t.getErrMsg());
+				if( t.getColCount() >= 0 ) {
+					if( ncol >= 0 && ncol != t.getColCount() )
+						return null; //inconsistent, raised by actual read
+					ncol = t.getColCount();
+				}
+				if( !t.isConsistent() )
+					return null;
+				rangeRows[i] = t.getRowCount();
+				nrow += t.getRowCount();
+				ncells += t.getSampleCells();
+				nnz += t.getSampleNonZeros();
+			}
+			if( nrow == 0 || ncol <= 0 )
+				return null;
+			
+			double sparsity = (ncells > 0) ? (double)nnz / ncells : 1.0;
+			CSVMetaData ret = new CSVMetaData(nrow, ncol, sparsity, numThreads, rangeRows);
+			ret.setFileStatistics(size, mtime);
+			ret.setFormatProperties(hasHeader, delim);
+			return ret;
+		}
+		catch(IOException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new IOException("Threadpool issue, while parallel count.", ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Reads the inferred meta data from the given metadata file, if it exists 
+	 * and matches the given file statistics and format properties.
+	 * 
+	 * @param fs
+	 * @param mtdPath
+	 * @param size
+	 * @param mtime
+	 * @param hasHeader
+	 * @param delim
+	 * @return
+	 */
+	private static CSVMetaData readMetaDataFile( FileSystem fs, Path mtdPath, long size, long mtime, boolean hasHeader, String delim )
+	{
+		BufferedReader br = null;
+		try
+		{
+			if( !fs.exists(mtdPath) || fs.getFileStatus(mtdPath).isDirectory() )
+				return null;
+			
+			br = new BufferedReader(new InputStreamReader(fs.open(mtdPath)));
+			JSONObject mtd = JSONHelper.parse(br);
+			Object obj = JSONHelper.get(mtd, DataExpression.INFERREDPARAM);
+			if( !(obj instanceof JSONObject) )
+				return null;
+			
+			JSONObject inferred = (JSONObject) obj;
+			if(    size != parseLong(inferred, MTD_SIZE) || mtime != parseLong(inferred, MTD_MTIME)
+				|| hasHeader != Boolean.parseBoolean(String.valueOf(JSONHelper.get(inferred, DataExpression.DELIM_HAS_HEADER_ROW)))
+				|| !delim.equals(String.valueOf(JSONHelper.get(inferred, DataExpression.DELIM_DELIMITER))) )
+			{
+				return null; //outdated or different format properties
+			}
+			
+			CSVMetaData ret = new CSVMetaData(parseLong(inferred, DataExpression.READROWPARAM), 
+					parseLong(inferred, DataExpression.READCOLPARAM),
+					Double.parseDouble(String.valueOf(JSONHelper.get(inferred, MTD_SPARSITY))), -1, null);
+			ret.setFileStatistics(size, mtime);
+			ret.setFormatProperties(hasHeader, delim);
+			return ret;
+		}
+		catch(Exception ex) {
+			//ignore invalid metadata files (raised on validation)
+			LOG.debug("Failed to read inferred meta data from "+mtdPath.toString()+": "+ex.getMessage());
+			return null;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(br);
+		}
+	}
+	
+	/**
+	 * Writes the given meta data into the given metadata file, if it exists. We 
+	 * do not create missing metadata files because they would change the format
+	 * inference and validation of subsequent reads. This is a best-effort cache,
+	 * i.e., failures (e.g., read-only inputs) are ignored.
+	 * 
+	 * @param fs
+	 * @param mtdPath
+	 * @param md
+	 */
+	private static void writeMetaDataFile( FileSystem fs, Path mtdPath, CSVMetaData md )
+	{
+		BufferedWriter bw = null;
+		try
+		{
+			//no creation of missing or update of partial metadata files
+			if( !fs.exists(mtdPath) || fs.getFileStatus(mtdPath).isDirectory() )
+				return;
+			
+			JSONObject mtd = null;
+			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(mtdPath)));
+			try {
+				mtd = JSONHelper.parse(br);
+			}
+			finally {
+				IOUtilFunctions.closeSilently(br);
+			}
+			
+			JSONObject inferred = new JSONObject();
+			inferred.put(DataExpression.READROWPARAM, md.getRows());
+			inferred.put(DataExpression.READCOLPARAM, md.getCols());
+			inferred.put(MTD_SPARSITY, md.getSparsity());
+			inferred.put(DataExpression.DELIM_HAS_HEADER_ROW, md.hasHeader());
+			inferred.put(DataExpression.DELIM_DELIMITER, md.getDelim());
+			inferred.put(MTD_SIZE, md.getSize());
+			inferred.put(MTD_MTIME, md.getModificationTime());
+			mtd.put(DataExpression.INFERREDPARAM, inferred);
+			
+			bw = new BufferedWriter(new OutputStreamWriter(fs.create(mtdPath, true)));
+			bw.write(mtd.toString());
+			bw.close();
+		}
+		catch(Exception ex) {
+			LOG.debug("Failed to write inferred meta data to "+mtdPath.toString()+": "+ex.getMessage());
+		}
+		finally {
+			IOUtilFunctions.closeSilently(bw);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param obj
+	 * @param key
+	 * @return
+	 */
+	private static long parseLong( JSONObject obj, String key )
+	{
+		return Long.parseLong(String.valueOf(JSONHelper.get(obj, key)));
+	}
+	
+	/**
+	 * Inferred meta data of a csv input.
+	 * 
+	 */
+	public static class CSVMetaData
+	{
+		private long _rows = -1;
+		private long _cols = -1;
+		private double _sparsity = 1.0;
+		
+		//row counts per byte range (only if counted in-process), and 
+		//the number of ranges they have been created for
+		private int _numRanges = -1;
+		private int[] _rangeRows = null;
+		
+		//file statistics and format properties (cache key)
+		private long _size = -1;
+		private long _mtime = -1;
+		private boolean _hasHeader = false;
+		private String _delim = null;
+		
+		public CSVMetaData( long rows, long cols, double sparsity, int numRanges, int[] rangeRows ) {
+			_rows = rows;
+			_cols = cols;
+			_sparsity = sparsity;
+			_numRanges = numRanges;
+			_rangeRows = rangeRows;
+		}
+		
+		public long getRows() {
+			return _rows;
+		}
+		
+		public long getCols() {
+			return _cols;
+		}
+		
+		public double getSparsity() {
+			return _sparsity;
+		}
+		
+		/**
+		 * Estimated number of non-zeros (from the sampled sparsity).
+		 * 
+		 * @return
+		 */
+		public long getEstimatedNonZeros() {
+			return (long)(_sparsity * _rows * _cols);
+		}
+		
+		/**
+		 * Obtains the row counts per byte range, if available for the given 
+		 * number of ranges (see ByteRangeLineReader.createFileRanges). 
+		 * 
+		 * @param numRanges
+		 * @return row counts per range, or null if not available
+		 */
+		public int[] getRangeRowCounts( int numRanges ) {
+			return (_numRanges == numRanges) ? _rangeRows : null;
+		}
+		
+		public long getSize() {
+			return _size;
+		}
+		
+		public long getModificationTime() {
+			return _mtime;
+		}
+		
+		public boolean hasHeader() {
+			return _hasHeader;
+		}
+		
+		public String getDelim() {
+			return _delim;
+		}
+		
+		public void setFileStatistics( long size, long mtime ) {
+			_size = size;
+			_mtime = mtime;
+		}
+		
+		public void setFormatProperties( boolean hasHeader, String delim ) {
+			_hasHeader = hasHeader;
+			_delim = delim;
+		}
+	}
+	
+	/**
+	 * Count task for a byte range, which counts all lines (excl header) via
+	 * newline scans on raw bytes, and parses the first lines as sample.
+	 * 
+	 */
+	private static class CountTask implements Callable<Object> 
+	{
+		private FileSystem _fs = null;
+		private FileRange _range = null;
+		private boolean _hasHeader = false;
+		private String _delim = null;
+		private String _naStrings = null;
+		
+		private int _nrows = 0;
+		private int _ncols = -1;
+		private boolean _consistent = true;
+		private long _ncells = 0;
+		private long _nnz = 0;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public CountTask( FileSystem fs, FileRange range, boolean hasHeader, String delim, String naStrings )
+		{
+			_fs = fs;
+			_range = range;
+			_hasHeader = hasHeader;
+			_delim = delim;
+			_naStrings = naStrings;
+		}
+		
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		public int getRowCount() {
+			return _nrows;
+		}
+		
+		public int getColCount() {
+			return _ncols;
+		}
+		
+		public boolean isConsistent() {
+			return _consistent;
+		}
+		
+		public long getSampleCells() {
+			return _ncells;
+		}
+		
+		public long getSampleNonZeros() {
+			return _nnz;
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			ByteRangeLineReader reader = null;
+			
+			try
+			{
+				reader = ByteRangeLineReader.open(_fs, _range);
+				if( _hasHeader )
+					reader.nextLine(); //ignore header
+				
+				//parse sample of lines (number of columns, sparsity)
+				CSVByteParser parser = new CSVByteParser(_delim, 0, _naStrings);
+				double[] row = null;
+				while( _nrows < SAMPLE_SIZE && reader.nextLine() ) 
+				{
+					byte[] buff = reader.getBuffer();
+					int off = reader.getLineStart();
+					int end = reader.getLineEnd();
+					if( row == null ) {
+						_ncols = parser.parseRow(buff, off, end, null, 0, 0);
+						row = new double[_ncols];
+					}
+					_nrows++;
+					
+					try {
+						if( parser.parseRow(buff, off, end, row) != _ncols )
+							_consistent = false;
+						for( int j=0; j<_ncols; j++ )
+							_nnz += (row[j] != 0) ? 1 : 0;
+						_ncells += _ncols;
+					}
+					catch(NumberFormatException ex) {
+						//ignore non-numeric cells (raised by actual read)
+					}
+				}
+				
+				//count remaining lines
+				while( reader.nextLine() )
+					_nrows++;
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = "Unable to count rows of csv input "+_range.path.toString()+". "+ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				if( reader != null )
+					reader.close();
+			}
+			
+			return null;
+		}
+	}
+}
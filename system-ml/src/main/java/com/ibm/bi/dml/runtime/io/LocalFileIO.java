@@ -0,0 +1,190 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+
+/**
+ * Utilities of the local file system fast path of CP readers and writers. 
+ * Files on the local file system (paths w/ file scheme, or w/o scheme if the
+ * default file system is local) are directly accessed via NIO file channels 
+ * (optionally memory-mapped), which bypasses the Hadoop file system layers 
+ * (e.g., buffering, checksums, and sequence file readers/writers). Meta data
+ * operations like listing part files still use the Hadoop file system.
+ * 
+ */
+public class LocalFileIO 
+{
+	/**
+	 * Indicates if the given path resolves to the local file system, 
+	 * and the local fast path is enabled.
+	 * 
+	 * @param fname
+	 * @param job
+	 * @return
+	 */
+	public static boolean isLocalFileSystem( String fname, JobConf job )
+	{
+		if( !OptimizerUtils.ALLOW_LOCAL_FS_IO )
+			return false;
+		
+		String scheme = new Path(fname).toUri().getScheme();
+		if( scheme == null )
+			scheme = FileSystem.getDefaultUri(job).getScheme();
+		return (scheme == null || scheme.equals("file"));
+	}
+	
+	/**
+	 * Indicates if the given path of the given file system resolves to the 
+	 * local file system, and the local fast path is enabled.
+	 * 
+	 * @param fs
+	 * @param path
+	 * @return
+	 */
+	public static boolean isLocalFileSystem( FileSystem fs, Path path )
+	{
+		if( !OptimizerUtils.ALLOW_LOCAL_FS_IO )
+			return false;
+		
+		String scheme = path.toUri().getScheme();
+		if( scheme == null )
+			scheme = fs.getUri().getScheme();
+		return (scheme == null || scheme.equals("file"));
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @return
+	 */
+	public static File getLocalFile( Path path )
+	{
+		return new File(path.toUri().getPath());
+	}
+	
+	/**
+	 * Opens an input stream positioned at the given offset, which reads local 
+	 * files directly via file channels (or memory-mapped buffers if enabled)
+	 * and all other files via the given file system.
+	 * 
+	 * @param fs
+	 * @param path
+	 * @param pos
+	 * @return
+	 * @throws IOException
+	 */
+	public static InputStream openInputStream( FileSystem fs, Path path, long pos ) 
+		throws IOException
+	{
+		if( isLocalFileSystem(fs, path) )
+			return openLocalInputStream(getLocalFile(path), pos);
+		
+		FSDataInputStream in = fs.open(path);
+		if( pos > 0 )
+			in.seek(pos);
+		return in;
+	}
+	
+	/**
+	 * 
+	 * @param file
+	 * @param pos
+	 * @return
+	 * @throws IOException
+	 */
+	public static InputStream openLocalInputStream( File file, long pos ) 
+		throws IOException
+	{
+		FileInputStream fis = new FileInputStream(file);
+		FileChannel ch = fis.getChannel();
+		
+		//memory-mapped read (if enabled and within 2GB per mapped buffer)
+		if( OptimizerUtils.ALLOW_LOCAL_FS_MMAP && ch.size()-pos <= Integer.MAX_VALUE ) {
+			try {
+				MappedByteBuffer buff = ch.map(MapMode.READ_ONLY, pos, ch.size()-pos);
+				return new ByteBufferInputStream(buff);
+			}
+			finally {
+				//note: mapping remains valid after close
+				IOUtilFunctions.closeSilently(fis);
+			}
+		}
+		
+		//channel-based read
+		ch.position(pos);
+		return Channels.newInputStream(ch);
+	}
+	
+	/**
+	 * Input stream over the remaining bytes of a (direct or mapped) byte buffer.
+	 * 
+	 */
+	public static class ByteBufferInputStream extends InputStream
+	{
+		private ByteBuffer _buff = null;
+		
+		public ByteBufferInputStream( ByteBuffer buff ) {
+			_buff = buff;
+		}
+		
+		@Override
+		public int read() {
+			return _buff.hasRemaining() ? (_buff.get() & 0xFF) : -1;
+		}
+		
+		@Override
+		public int read( byte[] b, int off, int len ) {
+			if( len == 0 )
+				return 0;
+			if( !_buff.hasRemaining() )
+				return -1;
+			int lLen = Math.min(len, _buff.remaining());
+			_buff.get(b, off, lLen);
+			return lLen;
+		}
+		
+		@Override
+		public long skip( long n ) {
+			int lN = (int)Math.max(Math.min(n, _buff.remaining()), 0);
+			_buff.position(_buff.position()+lN);
+			return lN;
+		}
+		
+		@Override
+		public int available() {
+			return _buff.remaining();
+		}
+	}
+}
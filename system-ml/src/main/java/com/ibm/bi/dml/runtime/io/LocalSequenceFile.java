@@ -0,0 +1,366 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.hadoop.io.Text;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataInputDirect;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataOutputDirect;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+
+/**
+ * Reader and writer of binary block sequence files on the local file system, 
+ * which directly (de)serialize matrix blocks from/to direct byte buffers (or 
+ * memory-mapped files) and transfer them via NIO file channels. 
+ * 
+ * The file format is equivalent to uncompressed Hadoop sequence files (version 6)
+ * with MatrixIndexes keys and MatrixBlock values, i.e., files written by this 
+ * writer are readable via SequenceFile.Reader and vice versa. Files with other
+ * versions, classes, or compression are not supported (see isSupported) and
+ * should be read via SequenceFile.Reader.
+ * 
+ */
+public class LocalSequenceFile 
+{
+	//sequence file header and sync markers (see hadoop SequenceFile)
+	private static final byte[] MAGIC = new byte[]{(byte)'S', (byte)'E', (byte)'Q'};
+	private static final byte VERSION = 6; //with meta data
+	private static final int SYNC_ESCAPE = -1;
+	private static final int SYNC_HASH_SIZE = 16;
+	private static final int SYNC_SIZE = 4 + SYNC_HASH_SIZE;
+	private static final int SYNC_INTERVAL = 100 * SYNC_SIZE;
+	
+	//initial size of direct read/write buffers
+	private static final int BUFFER_SIZE = 4 * 1024 * 1024; //4MB
+	
+	//max size of supported headers (read at once)
+	private static final int HEADER_SIZE = 64 * 1024; //64KB
+	
+	//size of serialized matrix indexes
+	private static final int KEY_SIZE = 16;
+	
+	/**
+	 * Sequence file writer of matrix indexes and matrix blocks.
+	 * 
+	 */
+	public static class Writer 
+	{
+		private FileOutputStream _fos = null;
+		private FileChannel _channel = null;
+		private ByteBuffer _buff = null;
+		private CacheDataOutputDirect _out = null;
+		private byte[] _sync = null;
+		private long _pos = 0;      //flushed bytes
+		private long _lastSync = 0; //position of last sync
+		
+		public Writer( File file ) 
+			throws IOException
+		{
+			_fos = new FileOutputStream(file);
+			_channel = _fos.getChannel();
+			_buff = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			_out = new CacheDataOutputDirect(_buff);
+			
+			//create random sync marker
+			UUID uuid = UUID.randomUUID();
+			_sync = ByteBuffer.allocate(SYNC_HASH_SIZE)
+				.putLong(uuid.getMostSignificantBits())
+				.putLong(uuid.getLeastSignificantBits()).array();
+			
+			//write header (uncompressed, w/o meta data)
+			_buff.put(MAGIC);
+			_buff.put(VERSION);
+			Text.writeString(_out, MatrixIndexes.class.getName());
+			Text.writeString(_out, MatrixBlock.class.getName());
+			_buff.put((byte)0); //compressed
+			_buff.put((byte)0); //block compressed
+			_buff.putInt(0);    //meta data entries
+			_buff.put(_sync);
+		}
+		
+		/**
+		 * 
+		 * @param key
+		 * @param value
+		 * @throws IOException
+		 */
+		public void append( MatrixIndexes key, MatrixBlock value ) 
+			throws IOException
+		{
+			long vlen = value.getExactSizeOnDisk();
+			if( KEY_SIZE + vlen > Integer.MAX_VALUE - SYNC_SIZE - 8 )
+				throw new IOException("Matrix block of size "+vlen+" exceeds the maximum record size.");
+			
+			ensureCapacity( SYNC_SIZE + 8 + KEY_SIZE + (int)vlen );
+			
+			//write sync marker (if required)
+			long pos = _pos + _buff.position();
+			if( pos >= _lastSync + SYNC_INTERVAL ) {
+				_buff.putInt(SYNC_ESCAPE);
+				_buff.put(_sync);
+				_lastSync = _pos + _buff.position();
+			}
+			
+			//write record (and backpatch record length)
+			int start = _buff.position();
+			_buff.putInt(0);
+			_buff.putInt(KEY_SIZE);
+			key.write(_out);
+			value.write(_out);
+			_buff.putInt(start, _buff.position()-start-8);
+		}
+		
+		/**
+		 * 
+		 * @throws IOException
+		 */
+		public void close() 
+			throws IOException
+		{
+			try {
+				flush();
+			}
+			finally {
+				IOUtilFunctions.closeSilently(_fos);
+			}
+		}
+		
+		/**
+		 * 
+		 * @param len
+		 * @throws IOException
+		 */
+		private void ensureCapacity( int len ) 
+			throws IOException
+		{
+			if( _buff.remaining() >= len )
+				return;
+			
+			flush();
+			if( _buff.capacity() < len ) {
+				_buff = ByteBuffer.allocateDirect(Math.max(len, 2*_buff.capacity()));
+				_out = new CacheDataOutputDirect(_buff);
+			}
+		}
+		
+		/**
+		 * 
+		 * @throws IOException
+		 */
+		private void flush() 
+			throws IOException
+		{
+			_buff.flip();
+			while( _buff.hasRemaining() )
+				_pos += _channel.write(_buff);
+			_buff.clear();
+		}
+	}
+	
+	/**
+	 * Sequence file reader of matrix indexes and matrix blocks.
+	 * 
+	 */
+	public static class Reader
+	{
+		private FileInputStream _fis = null;
+		private FileChannel _channel = null;
+		private ByteBuffer _buff = null;
+		private CacheDataInputDirect _in = null;
+		private boolean _mapped = false;
+		
+		private byte _version = -1;
+		private String _keyClass = null;
+		private String _valueClass = null;
+		private boolean _compressed = false;
+		private boolean _blockCompressed = false;
+		private byte[] _sync = new byte[SYNC_HASH_SIZE];
+		private byte[] _tmpSync = new byte[SYNC_HASH_SIZE];
+		
+		public Reader( File file ) 
+			throws IOException
+		{
+			_fis = new FileInputStream(file);
+			_channel = _fis.getChannel();
+			long size = _channel.size();
+			
+			//memory-mapped read (if enabled and within 2GB per mapped buffer)
+			if( OptimizerUtils.ALLOW_LOCAL_FS_MMAP && size <= Integer.MAX_VALUE ) {
+				_buff = _channel.map(MapMode.READ_ONLY, 0, size);
+				_mapped = true;
+			}
+			else {
+				_buff = ByteBuffer.allocateDirect(BUFFER_SIZE);
+				_buff.flip(); //empty
+			}
+			_in = new CacheDataInputDirect(_buff);
+			
+			try {
+				readHeader(size);
+			}
+			catch(IOException ex) {
+				close();
+				throw ex;
+			}
+		}
+		
+		/**
+		 * Indicates if the file is an uncompressed sequence file of matrix 
+		 * indexes and matrix blocks, i.e., if it can be read via next.
+		 * 
+		 * @return
+		 */
+		public boolean isSupported()
+		{
+			return _version == VERSION
+				&& MatrixIndexes.class.getName().equals(_keyClass)
+				&& MatrixBlock.class.getName().equals(_valueClass)
+				&& !_compressed && !_blockCompressed;
+		}
+		
+		/**
+		 * Reads the next record into the given key and value.
+		 * 
+		 * @param key
+		 * @param value
+		 * @return false if there are no more records
+		 * @throws IOException
+		 */
+		public boolean next( MatrixIndexes key, MatrixBlock value ) 
+			throws IOException
+		{
+			if( !ensure(4) ) 
+				return false;
+			int len = _buff.getInt();
+			
+			//skip sync marker (if required)
+			if( len == SYNC_ESCAPE ) {
+				if( !ensure(SYNC_HASH_SIZE) )
+					throw new IOException("Unexpected end of sequence file.");
+				_buff.get(_tmpSync);
+				if( !Arrays.equals(_sync, _tmpSync) )
+					throw new IOException("Invalid sync marker in sequence file.");
+				if( !ensure(4) ) 
+					return false;
+				len = _buff.getInt();
+			}
+			
+			//read record (key length, key, value)
+			if( len < KEY_SIZE || !ensure(4+len) )
+				throw new IOException("Unexpected end of sequence file or invalid record length: "+len);
+			if( _buff.getInt() != KEY_SIZE )
+				throw new IOException("Invalid key length in sequence file.");
+			int start = _buff.position();
+			key.readFields(_in);
+			value.readFields(_in);
+			if( _buff.position() - start != len )
+				throw new IOException("Invalid record length in sequence file: "+len+" vs "+(_buff.position()-start));
+			
+			return true;
+		}
+		
+		/**
+		 * 
+		 */
+		public void close()
+		{
+			IOUtilFunctions.closeSilently(_fis);
+		}
+		
+		/**
+		 * 
+		 * @param size
+		 * @throws IOException
+		 */
+		private void readHeader( long size ) 
+			throws IOException
+		{
+			if( !ensure((int)Math.min(size, HEADER_SIZE)) || size < MAGIC.length+1 )
+				throw new IOException("Unexpected end of sequence file header.");
+			
+			byte[] magic = new byte[MAGIC.length];
+			_buff.get(magic);
+			if( !Arrays.equals(MAGIC, magic) )
+				throw new IOException("Not a sequence file.");
+			_version = _buff.get();
+			if( _version != VERSION )
+				return; //unsupported
+			
+			try {
+				_keyClass = Text.readString(_in);
+				_valueClass = Text.readString(_in);
+				_compressed = _in.readBoolean();
+				_blockCompressed = _in.readBoolean();
+				if( _compressed )
+					Text.readString(_in); //codec
+				int numMeta = _in.readInt();
+				for( int i=0; i<2*numMeta; i++ )
+					Text.readString(_in); //key/value
+				_buff.get(_sync);
+			}
+			catch(BufferUnderflowException ex) {
+				//header exceeds max header size (e.g., large meta data)
+				_version = -1;
+			}
+		}
+		
+		/**
+		 * Ensures that the given number of bytes is available in the buffer.
+		 * 
+		 * @param len
+		 * @return false if the end of file has been reached before
+		 * @throws IOException
+		 */
+		private boolean ensure( int len ) 
+			throws IOException
+		{
+			if( _buff.remaining() >= len )
+				return true;
+			if( _mapped )
+				return false;
+			
+			//compact or grow buffer, and refill from channel
+			if( _buff.capacity() < len ) {
+				ByteBuffer tmp = ByteBuffer.allocateDirect(Math.max(len, 2*_buff.capacity()));
+				tmp.put(_buff);
+				_buff = tmp;
+				_in = new CacheDataInputDirect(_buff);
+			}
+			else
+				_buff.compact();
+			while( _buff.position() < len && _channel.read(_buff) >= 0 );
+			_buff.flip();
+			
+			return _buff.remaining() >= len;
+		}
+	}
+}
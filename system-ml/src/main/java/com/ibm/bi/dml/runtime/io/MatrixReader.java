@@ -28,6 +28,7 @@ import org.apache.hadoop.fs.Path;
 
 import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockLarge;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 
@@ -106,10 +107,12 @@ public abstract class MatrixReader
 		boolean sparse = MatrixBlock.evalSparseFormatInMemory(rlen, clen, estnnz); 
 		
 		//prepare result matrix block
-		MatrixBlock ret = new MatrixBlock((int)rlen, (int)clen, sparse, (int)estnnz);
-		if( !sparse && mallocDense ){
+		MatrixBlock ret = new MatrixBlock((int)rlen, (int)clen, sparse, estnnz);
+		//(segmented dense blocks always allocated upfront to prevent concurrent allocation)
+		if( !sparse && (mallocDense || DenseBlockLarge.isLargeDenseBlock(rlen, clen)) ){
 			ret.allocateDenseBlockUnsafe((int)rlen, (int)clen);
-			Arrays.fill(ret.getDenseArray(),0);
+			if( !ret.isInLargeDenseFormat() ) //segmented blocks are 0-initialized
+				Arrays.fill(ret.getDenseArray(),0);
 		}
 		else if( sparse && mallocSparse  )
 			ret.allocateSparseRowsBlock();
@@ -17,6 +17,7 @@
 
 package com.ibm.bi.dml.runtime.io;
 
+import com.ibm.bi.dml.conf.ConfigurationManager;
 import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.CSVFileFormatProperties;
@@ -40,13 +41,20 @@ public class MatrixReaderFactory
 	{
 		MatrixReader reader = null;
 		
-		if( iinfo == InputInfo.TextCellInputInfo || iinfo == InputInfo.MatrixMarketInputInfo )
+		if( iinfo == InputInfo.TextCellInputInfo )
 		{
 			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
 				reader = new ReaderTextCellParallel( iinfo );
 			else
 				reader = new ReaderTextCell( iinfo );	
 		}
+		else if( iinfo == InputInfo.MatrixMarketInputInfo )
+		{
+			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
+				reader = new ReaderMatrixMarketParallel();
+			else
+				reader = new ReaderTextCell( iinfo );	
+		}
 		else if( iinfo == InputInfo.CSVInputInfo )
 		{
 			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
@@ -56,8 +64,14 @@ public class MatrixReaderFactory
 		}
 		else if( iinfo == InputInfo.BinaryCellInputInfo ) 
 			reader = new ReaderBinaryCell();
-		else if( iinfo == InputInfo.BinaryBlockInputInfo )
-			reader = new ReaderBinaryBlock( false );
+		else if( iinfo == InputInfo.BinaryBlockIndexedInputInfo ) 
+			reader = new ReaderBinaryBlockIndexed();
+		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
+			if( OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS )
+				reader = new ReaderBinaryBlockParFiles( false );
+			else
+				reader = new ReaderBinaryBlock( false );
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -81,23 +95,46 @@ public class MatrixReaderFactory
 		
 		MatrixReader reader = null;
 		InputInfo iinfo = props.inputInfo;
+		
+		//local file system fast path (direct file channel access, w/o hadoop io)
+		boolean local = OptimizerUtils.ALLOW_LOCAL_FS_IO && (props.localFS 
+				|| (props.path != null && LocalFileIO.isLocalFileSystem(props.path, ConfigurationManager.getCachedJobConf())));
 
-		if( iinfo == InputInfo.TextCellInputInfo || iinfo == InputInfo.MatrixMarketInputInfo ) {
-			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
+		if( iinfo == InputInfo.TextCellInputInfo ) {
+			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS && local )
+				reader = new ReaderTextCellLocal( OptimizerUtils.getParallelTextReadParallelism() );
+			else if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
 				reader = new ReaderTextCellParallel( iinfo );
 			else
 				reader = new ReaderTextCell( iinfo );
 		}
-		else if( iinfo == InputInfo.CSVInputInfo ) {
+		else if( iinfo == InputInfo.MatrixMarketInputInfo ) {
 			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
+				reader = new ReaderMatrixMarketParallel();
+			else
+				reader = new ReaderTextCell( iinfo );
+		}
+		else if( iinfo == InputInfo.CSVInputInfo ) {
+			if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS && local )
+				reader = new ReaderTextCSVLocal( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties(),
+						OptimizerUtils.getParallelTextReadParallelism() );
+			else if( OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS )
 				reader = new ReaderTextCSVParallel( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties());
 			else
 				reader = new ReaderTextCSV( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties());
 		}
 		else if( iinfo == InputInfo.BinaryCellInputInfo ) 
 			reader = new ReaderBinaryCell();
-		else if( iinfo == InputInfo.BinaryBlockInputInfo )
-			reader = new ReaderBinaryBlock( props.localFS );
+		else if( iinfo == InputInfo.BinaryBlockIndexedInputInfo ) 
+			reader = new ReaderBinaryBlockIndexed();
+		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
+			if( OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS && local )
+				reader = new ReaderBinaryBlockLocal( props.localFS, OptimizerUtils.getParallelBinaryReadParallelism() );
+			else if( OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS )
+				reader = new ReaderBinaryBlockParFiles( props.localFS );
+			else
+				reader = new ReaderBinaryBlock( props.localFS );
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -62,13 +62,12 @@ public class MatrixWriterFactory
 				writer = new WriterTextCell();
 		}
 		else if( oinfo == OutputInfo.MatrixMarketOutputInfo ) {
-			//note: disabled parallel cp write of matrix market in order to ensure the
-			//requirement of writing out a single file
-			
-			//if( OptimizerUtils.PARALLEL_CP_WRITE_TEXTFORMATS )
-			//	writer = new WriterMatrixMarketParallel();
-			
-			writer = new WriterMatrixMarket();
+			//note: the parallel writer concatenates its part files in order to
+			//ensure the requirement of writing out a single file
+			if( OptimizerUtils.PARALLEL_CP_WRITE_TEXTFORMATS )
+				writer = new WriterMatrixMarketParallel();
+			else
+				writer = new WriterMatrixMarket();
 		}
 		else if( oinfo == OutputInfo.CSVOutputInfo ) {
 			if( props!=null && !(props instanceof CSVFileFormatProperties) )
@@ -81,8 +80,17 @@ public class MatrixWriterFactory
 		else if( oinfo == OutputInfo.BinaryCellOutputInfo ) {
 			writer = new WriterBinaryCell();
 		}
+		else if( oinfo == OutputInfo.BinaryBlockIndexedOutputInfo ) {
+			writer = new WriterBinaryBlockIndexed(replication);
+		}
 		else if( oinfo == OutputInfo.BinaryBlockOutputInfo ) {
-			writer = new WriterBinaryBlock(replication);
+			//note: the local writer falls back to the parallel writer for non-local outputs
+			if( OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS && OptimizerUtils.ALLOW_LOCAL_FS_IO )
+				writer = new WriterBinaryBlockLocal(replication);
+			else if( OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS )
+				writer = new WriterBinaryBlockParallel(replication);
+			else
+				writer = new WriterBinaryBlock(replication);
 		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix writer for unknown output info: "
@@ -0,0 +1,382 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataInputDirect;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.IndexRange;
+
+/**
+ * Reader for indexed binary block files (see BinaryBlockIndex). Besides reading
+ * the entire matrix, this reader supports reading arbitrary index ranges, which
+ * only accesses the overlapping blocks (via positioned reads, or memory-mapped
+ * regions of local files), as well as reading the matrix characteristics from 
+ * the file trailers without a scan. Block indexes of recently read files are
+ * cached in order to avoid repeated footer reads for sequences of range reads.
+ * 
+ */
+public class ReaderBinaryBlockIndexed extends MatrixReader
+{
+	//cache of recently read block indexes (key: path, length, modification time)
+	private static final int MAX_CACHED_INDEXES = 64;
+	private static final ConcurrentHashMap<String, BinaryBlockIndex> _indexCache 
+		= new ConcurrentHashMap<String, BinaryBlockIndex>();
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//allocate output matrix block
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, false);
+		
+		//prepare file access
+		JobConf job = new JobConf();
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path); 
+		
+		//core read (all blocks)
+		readIndexedBinaryBlockMatrixFromHDFS(fs, path, new IndexRange(1, rlen, 1, clen), ret, rlen, clen, brlen, bclen);
+		
+		//finally check if change of sparse/dense block representation required
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Reads the given index range (1-based, inclusive) of the given matrix, 
+	 * where only blocks overlapping with this range are accessed.
+	 * 
+	 * @param fname
+	 * @param ixrange
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock readMatrixRangeFromHDFS(String fname, IndexRange ixrange, long rlen, long clen, int brlen, int bclen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//check valid index range
+		if( ixrange.rowStart < 1 || ixrange.rowEnd > rlen || ixrange.rowStart > ixrange.rowEnd
+			|| ixrange.colStart < 1 || ixrange.colEnd > clen || ixrange.colStart > ixrange.colEnd )
+		{
+			throw new DMLRuntimeException("Invalid index range "+ixrange+" for matrix [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//prepare file access
+		JobConf job = new JobConf();
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path); 
+		
+		//estimate output nnz from overlapping blocks (upper bound)
+		Path[] files = getSequenceFilePaths(fs, path);
+		long estnnz = 0;
+		for( Path lpath : files ) {
+			BinaryBlockIndex index = readIndex(fs, lpath);
+			for( int pos : index.getBlocksInRange(ixrange) )
+				estnnz += index.getNonZeros(pos);
+		}
+		long rows = ixrange.rowEnd - ixrange.rowStart + 1;
+		long cols = ixrange.colEnd - ixrange.colStart + 1;
+		estnnz = Math.min(estnnz, rows * cols);
+		
+		//allocate output matrix block and read overlapping blocks
+		MatrixBlock ret = createOutputMatrixBlock(rows, cols, estnnz, true, false);
+		readIndexedBinaryBlockMatrixFromHDFS(fs, path, ixrange, ret, rlen, clen, brlen, bclen);
+		
+		//finally check if change of sparse/dense block representation required
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Reads the matrix characteristics (dimensions, block sizes, and number 
+	 * of non-zeros) from the trailers of the given file or directory of files. 
+	 * 
+	 * @param fname
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixCharacteristics readMatrixCharacteristics( String fname ) 
+		throws IOException
+	{
+		JobConf job = new JobConf();
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		checkValidInputFile(fs, path); 
+		
+		long rlen = 0, clen = 0, nnz = 0;
+		int brlen = -1, bclen = -1;
+		for( Path lpath : getSequenceFilePaths(fs, path) )
+		{
+			long len = fs.getFileStatus(lpath).getLen();
+			FSDataInputStream in = fs.open(lpath);
+			try {
+				in.seek(len - BinaryBlockIndex.TRAILER_SIZE);
+				BinaryBlockIndex index = BinaryBlockIndex.readTrailer(in);
+				rlen = Math.max(rlen, index.getNumRows());
+				clen = Math.max(clen, index.getNumColumns());
+				brlen = Math.max(brlen, index.getRowsPerBlock());
+				bclen = Math.max(bclen, index.getColsPerBlock());
+				nnz += index.getNonZeros();
+			}
+			finally {
+				IOUtilFunctions.closeSilently(in);
+			}
+		}
+		
+		return new MatrixCharacteristics(rlen, clen, brlen, bclen, nnz);
+	}
+	
+	/**
+	 * Reads the block index (trailer and footer) of the given file, or 
+	 * obtains it from the cache of recently read block indexes.
+	 * 
+	 * @param fs
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public static BinaryBlockIndex readIndex( FileSystem fs, Path path ) 
+		throws IOException
+	{
+		FileStatus stat = fs.getFileStatus(path);
+		String key = stat.getPath().toString()+"_"+stat.getLen()+"_"+stat.getModificationTime();
+		
+		//probe cache of block indexes
+		BinaryBlockIndex ret = _indexCache.get(key);
+		if( ret != null )
+			return ret;
+		
+		//read trailer and footer
+		long len = stat.getLen();
+		if( len < BinaryBlockIndex.HEADER_SIZE + BinaryBlockIndex.TRAILER_SIZE )
+			throw new IOException("Invalid indexed binary block file "+path.toString()+" of size "+len+".");
+		FSDataInputStream in = fs.open(path);
+		try {
+			in.seek(len - BinaryBlockIndex.TRAILER_SIZE);
+			ret = BinaryBlockIndex.readTrailer(in);
+			byte[] footer = new byte[ret.getNumBlocks() * BinaryBlockIndex.ENTRY_SIZE];
+			in.readFully(ret.getFooterOffset(), footer);
+			ret.readFooter(new DataInputStream(new ByteArrayInputStream(footer)));
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+		
+		//put block index into cache (w/ simple size-based cleanup)
+		if( _indexCache.size() >= MAX_CACHED_INDEXES )
+			_indexCache.clear();
+		_indexCache.put(key, ret);
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param fs
+	 * @param path
+	 * @param ixrange
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	private static void readIndexedBinaryBlockMatrixFromHDFS( FileSystem fs, Path path, IndexRange ixrange, MatrixBlock dest, long rlen, long clen, int brlen, int bclen )
+		throws IOException, DMLRuntimeException
+	{
+		MatrixBlock value = new MatrixBlock();
+		
+		for( Path lpath : getSequenceFilePaths(fs, path) )
+		{
+			//determine overlapping blocks
+			BinaryBlockIndex index = readIndex(fs, lpath);
+			int[] blocks = index.getBlocksInRange(ixrange);
+			if( blocks.length == 0 )
+				continue;
+			if( index.getRowsPerBlock() != brlen || index.getColsPerBlock() != bclen )
+				throw new IOException("Incompatible block sizes "+index.getRowsPerBlock()+"x"+index.getColsPerBlock()
+						+" of "+lpath.toString()+" (expected "+brlen+"x"+bclen+").");
+			
+			//read and copy overlapping blocks
+			BlockFileReader reader = new BlockFileReader(fs, lpath);
+			try 
+			{
+				for( int pos : blocks ) {
+					reader.readBlock(index.getOffset(pos), index.getLength(pos), value);
+					copyBlock(index.getRowIndex(pos), index.getColumnIndex(pos), value, 
+							ixrange, dest, rlen, clen, brlen, bclen);
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		
+		//sort sparse rows after unordered appends of blocks (if multiple column blocks) 
+		if( dest.isInSparseFormat() && dest.getNumColumns() > bclen )
+			dest.sortSparseRows();
+	}
+	
+	/**
+	 * Copies the overlap of the given block and index range into the output.
+	 * 
+	 * @param rix
+	 * @param cix
+	 * @param value
+	 * @param ixrange
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	private static void copyBlock( long rix, long cix, MatrixBlock value, IndexRange ixrange, MatrixBlock dest, long rlen, long clen, int brlen, int bclen ) 
+		throws IOException, DMLRuntimeException
+	{
+		long row_offset = (rix-1)*brlen;
+		long col_offset = (cix-1)*bclen;
+		int rows = value.getNumRows();
+		int cols = value.getNumColumns();
+		
+		//bound check per block
+		if( row_offset + rows < 1 || row_offset + rows > rlen || col_offset + cols < 1 || col_offset + cols > clen )
+		{
+			throw new IOException("Matrix block ["+(row_offset+1)+":"+(row_offset+rows)+","+(col_offset+1)+":"+(col_offset+cols)+"] " +
+					              "out of overall matrix range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//determine overlap (0-based, inclusive) within block and output
+		int rl = (int)(Math.max(row_offset+1, ixrange.rowStart) - row_offset - 1);
+		int ru = (int)(Math.min(row_offset+rows, ixrange.rowEnd) - row_offset - 1);
+		int cl = (int)(Math.max(col_offset+1, ixrange.colStart) - col_offset - 1);
+		int cu = (int)(Math.min(col_offset+cols, ixrange.colEnd) - col_offset - 1);
+		int drl = (int)(row_offset + rl + 1 - ixrange.rowStart);
+		int dcl = (int)(col_offset + cl + 1 - ixrange.colStart);
+		
+		MatrixBlock part = value;
+		if( rl > 0 || ru < rows-1 || cl > 0 || cu < cols-1 )
+			part = value.sliceOperations(rl, ru, cl, cu, new MatrixBlock());
+		
+		//copy block to result
+		if( dest.isInSparseFormat() && part.getNumColumns() < dest.getNumColumns() )
+			dest.appendToSparse(part, drl, dcl); //note: append requires final sort
+		else
+			dest.copy(drl, drl+ru-rl, dcl, dcl+cu-cl, part, false);
+	}
+	
+	/**
+	 * Positioned block reader for a single file, which reads local files via
+	 * file channels (memory-mapped regions if enabled) and all other files via
+	 * positioned reads of the given file system. 
+	 * 
+	 */
+	private static class BlockFileReader
+	{
+		private FileInputStream _fis = null;
+		private FileChannel _channel = null;
+		private FSDataInputStream _in = null;
+		
+		public BlockFileReader( FileSystem fs, Path path ) 
+			throws IOException
+		{
+			if( LocalFileIO.isLocalFileSystem(fs, path) ) {
+				_fis = new FileInputStream(LocalFileIO.getLocalFile(path));
+				_channel = _fis.getChannel();
+			}
+			else
+				_in = fs.open(path);
+		}
+		
+		/**
+		 * 
+		 * @param offset
+		 * @param length
+		 * @param value
+		 * @throws IOException
+		 */
+		public void readBlock( long offset, int length, MatrixBlock value ) 
+			throws IOException
+		{
+			ByteBuffer buff = null;
+			if( _channel != null && OptimizerUtils.ALLOW_LOCAL_FS_MMAP ) {
+				buff = _channel.map(MapMode.READ_ONLY, offset, length);
+			}
+			else if( _channel != null ) {
+				buff = ByteBuffer.allocate(length);
+				while( buff.hasRemaining() )
+					if( _channel.read(buff, offset + buff.position()) < 0 )
+						throw new IOException("Unexpected end of indexed binary block file.");
+				buff.flip();
+			}
+			else {
+				byte[] tmp = new byte[length];
+				_in.readFully(offset, tmp);
+				buff = ByteBuffer.wrap(tmp);
+			}
+			
+			value.readFields(new CacheDataInputDirect(buff));
+		}
+		
+		/**
+		 * 
+		 */
+		public void close()
+		{
+			IOUtilFunctions.closeSilently(_fis);
+			IOUtilFunctions.closeSilently(_in);
+		}
+	}
+}
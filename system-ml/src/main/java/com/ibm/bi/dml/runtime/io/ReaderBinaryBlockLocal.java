@@ -0,0 +1,238 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.mapred.MRJobConfiguration;
+
+/**
+ * Binary block reader for inputs on the local file system, which reads all 
+ * part files in parallel (similar to ReaderBinaryBlockParFiles) but directly 
+ * deserializes blocks from direct byte buffers or memory-mapped files (see 
+ * LocalSequenceFile) instead of Hadoop sequence file readers. Part files 
+ * in unsupported formats (e.g., compressed) are read via SequenceFile.Reader.
+ * 
+ */
+public class ReaderBinaryBlockLocal extends MatrixReader 
+{
+	private boolean _localFS = false;
+	private int _numThreads = 1;
+	
+	public ReaderBinaryBlockLocal( boolean localFS, int numThreads )
+	{
+		_localFS = localFS;
+		_numThreads = Math.max(numThreads, 1);
+	}
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//allocate output matrix block (incl allocation of dense block or sparse rows 
+		//array in order to prevent concurrent allocations by the read tasks)
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, true);
+		
+		//prepare file access
+		JobConf job = new JobConf();	
+		Path path = new Path( (_localFS ? "file:///" : "") + fname); 
+		FileSystem fs = path.getFileSystem(job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path); 
+	
+		//set up preferred custom serialization framework for binary block format
+		//(for part files read via sequence file readers)
+		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
+			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
+		
+		//determine degree of parallelism (at most one thread per part file)
+		Path[] files = getSequenceFilePaths(fs, path);
+		int numThreads = Math.min(_numThreads, files.length);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		try 
+		{
+			//create read tasks for all part files
+			ArrayList<ReadTask> tasks = new ArrayList<ReadTask>();
+			for( Path lpath : files )
+				tasks.add(new ReadTask(lpath, job, fs, ret, rlen, clen, brlen, bclen));
+
+			//wait until all tasks have been executed
+			pool.invokeAll(tasks);	
+			
+			//early error notify in case not all tasks successful
+			for(ReadTask rt : tasks) {
+				if( !rt.getReturnCode() ) {
+					throw new IOException("Read task for binary block input failed: " + rt.getErrMsg());
+				}
+			}
+		} 
+		catch (Exception e) {
+			throw new IOException("Threadpool issue, while parallel read.", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		//sort sparse rows after unordered appends of blocks (if multiple column blocks) 
+		if( ret.isInSparseFormat() && clen > bclen )
+			ret.sortSparseRows();
+		
+		//finally check if change of sparse/dense block representation required
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Read task for a single part file.
+	 * 
+	 */
+	private static class ReadTask implements Callable<Object> 
+	{
+		private Path _path = null;
+		private JobConf _job = null;
+		private FileSystem _fs = null;
+		private MatrixBlock _dest = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public ReadTask(Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen)
+		{
+			_path = path;
+			_job = job;
+			_fs = fs;
+			_dest = dest;
+			_rlen = rlen;
+			_clen = clen;
+			_brlen = brlen;
+			_bclen = bclen;
+		}
+
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		public Object call() throws Exception 
+		{
+			MatrixIndexes key = new MatrixIndexes(); 
+			MatrixBlock value = new MatrixBlock();
+			
+			LocalSequenceFile.Reader lreader = null;
+			SequenceFile.Reader reader = null;
+			
+			try
+			{
+				lreader = new LocalSequenceFile.Reader(LocalFileIO.getLocalFile(_path));
+				if( lreader.isSupported() ) {
+					//direct read from local sequence file
+					while( lreader.next(key, value) )
+						copyBlock(key, value);
+				}
+				else {
+					//fallback for unsupported formats
+					reader = new SequenceFile.Reader(_fs, _path, _job);
+					while( reader.next(key, value) )
+						copyBlock(key, value);
+				}
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				if( lreader != null )
+					lreader.close();
+				IOUtilFunctions.closeSilently(reader);
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * 
+		 * @param key
+		 * @param value
+		 * @throws IOException
+		 * @throws DMLRuntimeException
+		 */
+		private void copyBlock( MatrixIndexes key, MatrixBlock value ) 
+			throws IOException, DMLRuntimeException
+		{
+			//empty block filter (skip entire block)
+			if( value.isEmptyBlock(false) )
+				return;
+			
+			int row_offset = (int)(key.getRowIndex()-1)*_brlen;
+			int col_offset = (int)(key.getColumnIndex()-1)*_bclen;
+			
+			int rows = value.getNumRows();
+			int cols = value.getNumColumns();
+			
+			//bound check per block
+			if( row_offset + rows < 0 || row_offset + rows > _rlen || col_offset + cols<0 || col_offset + cols > _clen )
+			{
+				throw new IOException("Matrix block ["+(row_offset+1)+":"+(row_offset+rows)+","+(col_offset+1)+":"+(col_offset+cols)+"] " +
+						              "out of overall matrix range [1:"+_rlen+",1:"+_clen+"].");
+			}
+	
+			//copy block to result
+			if( _dest.isInSparseFormat() && cols < _clen ) {
+				synchronized( _dest ){ //sparse requires lock, when matrix is wider than one block-width
+					_dest.appendToSparse(value, row_offset, col_offset);
+					//note: append requires final sort
+				}
+			}
+			else {
+				_dest.copy( row_offset, row_offset+rows-1, 
+						   col_offset, col_offset+cols-1,
+						   value, false );
+			}
+		}
+	}
+}
@@ -41,12 +41,12 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 
 	
 	private boolean _localFS = false;
-	private static int _numThreads = 1;
+	private int _numThreads = 1;
 	
 	public ReaderBinaryBlockParFiles( boolean localFS )
 	{
 		_localFS = localFS;
-		_numThreads = OptimizerUtils.getParallelTextReadParallelism();
+		_numThreads = OptimizerUtils.getParallelBinaryReadParallelism();
 	}
 	
 	public void setLocalFS(boolean flag) {
@@ -57,8 +57,9 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
 		throws IOException, DMLRuntimeException 
 	{
-		//allocate output matrix block
-		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, false, false);
+		//allocate output matrix block (incl allocation of dense block or sparse rows 
+		//array in order to prevent concurrent allocations by the read tasks)
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, true);
 		
 		//prepare file access
 		JobConf job = new JobConf();	
@@ -127,7 +128,7 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 	 * @throws InstantiationException
 	 * @throws DMLRuntimeException 
 	 */
-	private static void readBinaryBlockMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen )
+	private void readBinaryBlockMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen )
 		throws IOException, DMLRuntimeException
 	{			
 		//set up preferred custom serialization framework for binary block format
@@ -136,12 +137,16 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 		
 		FileInputFormat.addInputPath(job, path);
 		
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		//determine degree of parallelism (at most one thread per part file)
+		Path[] files = getSequenceFilePaths(fs, path);
+		int numThreads = Math.max(Math.min(_numThreads, files.length), 1);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
 		try 
 		{
-			//create read tasks for all splits
+			//create read tasks for all part files
 			ArrayList<ReadMatrixPerPartfileTask> tasks = new ArrayList<ReadMatrixPerPartfileTask>();
-			for( Path lpath : getSequenceFilePaths(fs, path) ){
+			for( Path lpath : files ){
 				ReadMatrixPerPartfileTask t = new ReadMatrixPerPartfileTask(lpath, job, fs, dest, rlen, clen, brlen, bclen);
 				tasks.add(t);
 			}
@@ -153,14 +158,17 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 			//early error notify in case not all tasks successful
 			for(ReadMatrixPerPartfileTask rt : tasks) {
 				if( !rt.getReturnCode() ) {
-					throw new IOException("Read task for text input failed: " + rt.getErrMsg());
+					throw new IOException("Read task for binary block input failed: " + rt.getErrMsg());
 				}
 			}
-
 		} 
 		catch (Exception e) {
 			throw new IOException("Threadpool issue, while parallel read.", e);
 		}
+		
+		//sort sparse rows after unordered appends of blocks (if multiple column blocks) 
+		if( dest.isInSparseFormat() && clen > bclen )
+			dest.sortSparseRows();
 	}
 	
 	/**
@@ -184,12 +192,16 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
 			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
 		
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		//determine degree of parallelism (at most one thread per part file)
+		Path[] files = getSequenceFilePaths(fs, path);
+		int numThreads = Math.max(Math.min(_numThreads, files.length), 1);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
 		try 
 		{
-			//create read tasks for all splits
+			//create read tasks for all part files
 			ArrayList<ReadMatrixBlockTask> tasks = new ArrayList<ReadMatrixBlockTask>();
-			for( Path lpath : getSequenceFilePaths(fs, path) ){
+			for( Path lpath : files ){
 				ReadMatrixBlockTask t = new ReadMatrixBlockTask(lpath, job, fs, dest, rlen, clen, brlen, bclen);
 				tasks.add(t);
 			}
@@ -201,7 +213,7 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 			//early error notify in case not all tasks successful
 			for(ReadMatrixBlockTask rt : tasks) {
 				if( !rt.getReturnCode() ) {
-					throw new IOException("Read task for text input failed: " + rt.getErrMsg());
+					throw new IOException("Read task for binary block input failed: " + rt.getErrMsg());
 				}
 			}
 
@@ -317,10 +329,16 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 					}
 				}
 			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
 			finally
 			{
-				if( reader != null )
-					reader.close();
+				IOUtilFunctions.closeSilently(reader);
 			}
 			return null;
 		}
@@ -392,14 +410,23 @@ public class ReaderBinaryBlockParFiles extends MatrixReader {
 								              "out of overall matrix range [1:"+_rlen+",1:"+_clen+"].");
 					}
 			
-					//copy block to result
-					_dest.add(new IndexedMatrixValue(new MatrixIndexes(key), new MatrixBlock(value)));
+					//copy block to result (synchronized since shared across tasks)
+					IndexedMatrixValue tmp = new IndexedMatrixValue(new MatrixIndexes(key), new MatrixBlock(value));
+					synchronized( _dest ) {
+						_dest.add(tmp);
+					}
 				}
 			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
 			finally
 			{
-				if( reader != null )
-					reader.close();
+				IOUtilFunctions.closeSilently(reader);
 			}
 			
 			return null;
@@ -0,0 +1,431 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader.FileRange;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
+
+/**
+ * Parallel reader for single-file MatrixMarket inputs. After a sequential read 
+ * of the header, the data section is split into disjoint byte ranges, which 
+ * are parsed in parallel directly from byte buffers (w/o Hadoop input splits,
+ * Text or String objects). Dense targets are populated lock-free. For sparse
+ * targets, every read task collects its cells partitioned by row ranges, and
+ * the partitions are subsequently merged in parallel into exactly allocated 
+ * sparse rows (in file order, i.e., consistent with the sequential reader).
+ * 
+ * Directories and compressed files are read via ReaderTextCellParallel. Local
+ * files are directly read via file channels (see LocalFileIO).
+ */
+public class ReaderMatrixMarketParallel extends MatrixReader
+{
+	//min size of byte ranges per read task
+	protected static final long MIN_RANGE_SIZE = 64L * 1024; //64KB
+	
+	protected int _numThreads = 1;
+	
+	public ReaderMatrixMarketParallel()
+	{
+		_numThreads = OptimizerUtils.getParallelTextReadParallelism();
+	}
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf();	
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		//split-based read for directories and compressed files
+		if( fs.isDirectory(path) || new CompressionCodecFactory(job).getCodec(path) != null ) {
+			MatrixReader reader = new ReaderTextCellParallel(InputInfo.MatrixMarketInputInfo);
+			return reader.readMatrixFromHDFS(fname, rlen, clen, brlen, bclen, estnnz);
+		}
+		
+		//allocate output matrix block (incl sparse rows array)
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, true);
+		
+		//core read 
+		readMatrixMarketFromHDFS(path, fs, ret, rlen, clen);
+		
+		//finally check if change of sparse/dense block representation required
+		if( !ret.isInSparseFormat() )
+			ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param fs
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	private void readMatrixMarketFromHDFS( Path path, FileSystem fs, MatrixBlock dest, long rlen, long clen )
+		throws IOException
+	{
+		//read header and determine start of data section
+		long len = fs.getFileStatus(path).getLen();
+		long start = readHeader(fs, path, len, rlen, clen);
+		
+		//read disjoint byte ranges of data section
+		ArrayList<FileRange> ranges = ByteRangeLineReader.createFileRanges(
+				path, start, len, _numThreads, MIN_RANGE_SIZE);
+		readTextCellRanges(fs, ranges, dest, rlen, clen);
+	}
+	
+	/**
+	 * Reads the given byte ranges of text cell inputs in parallel (one task 
+	 * per range) into the given target block.
+	 * 
+	 * @param fs
+	 * @param ranges
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	protected void readTextCellRanges( FileSystem fs, ArrayList<FileRange> ranges, MatrixBlock dest, long rlen, long clen )
+		throws IOException
+	{
+		//determine number of read tasks and row partitions
+		int numTasks = ranges.size();
+		int blksz = (int)Math.ceil((double)rlen/numTasks);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(_numThreads, numTasks));
+		try 
+		{
+			//create read tasks for disjoint byte ranges
+			ArrayList<ReadTask> tasks = new ArrayList<ReadTask>();
+			for( FileRange range : ranges )
+				tasks.add(new ReadTask(fs, range, dest, rlen, clen, numTasks, blksz));
+			
+			//wait until all tasks have been executed
+			pool.invokeAll(tasks);	
+			
+			//early error notify in case not all tasks successful
+			for(ReadTask rt : tasks) {
+				if( !rt.getReturnCode() ) {
+					throw new IOException("Read task for matrix market input failed: " + rt.getErrMsg());
+				}
+			}
+			
+			//merge per-task row partitions into sparse target
+			if( dest.isInSparseFormat() ) {
+				ArrayList<MergeTask> mtasks = new ArrayList<MergeTask>();
+				for( int i=0; i<numTasks && (long)i*blksz<rlen; i++ )
+					mtasks.add(new MergeTask(tasks, dest, i, i*blksz, (int)Math.min((long)(i+1)*blksz, rlen)));
+				for( Future<Object> rt : pool.invokeAll(mtasks) )
+					rt.get(); //error handling
+				
+				long nnz = 0;
+				for( MergeTask mt : mtasks )
+					nnz += mt.getNonZeros();
+				dest.setNonZeros(nnz);
+			}
+			
+			pool.shutdown();
+		} 
+		catch (Exception e) {
+			throw new IOException("Threadpool issue, while parallel read.", e);
+		}
+	}
+	
+	/**
+	 * Reads and validates the MatrixMarket header, i.e., the header line,
+	 * comments, and the line of matrix dimensions.
+	 * 
+	 * @param fs
+	 * @param path
+	 * @param len
+	 * @param rlen
+	 * @param clen
+	 * @return file offset of the data section
+	 * @throws IOException
+	 */
+	private static long readHeader( FileSystem fs, Path path, long len, long rlen, long clen ) 
+		throws IOException
+	{
+		ByteRangeLineReader reader = ByteRangeLineReader.open(fs, new FileRange(path, 0, len, false));
+		
+		try
+		{
+			// header line
+			String value = reader.nextLine() ? getLine(reader) : null; 
+			if ( value==null || !value.startsWith("%%") ) {
+				throw new IOException("Error while reading file in MatrixMarket format. Expecting a header line, but encountered, \"" + value +"\".");
+			}
+			
+			// skip until end-of-comments
+			value = null;
+			while( reader.nextLine() ) {
+				value = getLine(reader);
+				if( !value.isEmpty() && value.charAt(0) != '%' )
+					break;
+				value = null;
+			}
+			if( value == null )
+				throw new IOException("Error while reading file in MatrixMarket format. Missing line of matrix dimensions.");
+			
+			// the first line after comments is the one w/ matrix dimensions
+			// validate (rlen clen nnz)
+			String[] fields = value.trim().split("\\s+"); 
+			long mm_rlen = Long.parseLong(fields[0]);
+			long mm_clen = Long.parseLong(fields[1]);
+			if ( rlen != mm_rlen || clen != mm_clen ) {
+				throw new IOException("Unexpected matrix dimensions while reading file in MatrixMarket format. Expecting dimensions [" + rlen + " rows, " + clen + " cols] but encountered [" + mm_rlen + " rows, " + mm_clen + "cols].");
+			}
+			
+			return reader.getPosition();
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param reader
+	 * @return
+	 */
+	private static String getLine( ByteRangeLineReader reader )
+	{
+		return new String(reader.getBuffer(), reader.getLineStart(), 
+				reader.getLineEnd()-reader.getLineStart());
+	}
+	
+	/**
+	 * Read task for a byte range of the data section. Dense targets are directly 
+	 * populated, while sparse cells are collected per row partition.  
+	 * 
+	 */
+	private static class ReadTask implements Callable<Object> 
+	{
+		private FileSystem _fs = null;
+		private FileRange _range = null;
+		private MatrixBlock _dest = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _blksz = -1;
+		private CellList[] _cells = null;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public ReadTask( FileSystem fs, FileRange range, MatrixBlock dest, long rlen, long clen, int numParts, int blksz )
+		{
+			_fs = fs;
+			_range = range;
+			_dest = dest;
+			_rlen = rlen;
+			_clen = clen;
+			_blksz = blksz;
+			_cells = new CellList[numParts];
+		}
+
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		public CellList getCells( int part ) {
+			return _cells[part];
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			boolean sparse = _dest.isInSparseFormat();
+			ByteRangeLineReader reader = null;
+			
+			//required for error handling
+			int row = -1; 
+			int col = -1; 
+			
+			try
+			{
+				reader = ByteRangeLineReader.open(_fs, _range);
+				
+				FastByteTokenizer st = new FastByteTokenizer(' ');
+				while( reader.nextLine() )
+				{
+					//skip empty lines and comments
+					st.reset(reader.getBuffer(), reader.getLineStart(), reader.getLineEnd());
+					if( !st.hasNext() || reader.getBuffer()[reader.getLineStart()]=='%' )
+						continue;
+					
+					row = st.nextInt()-1;
+					col = st.nextInt()-1;
+					double lvalue = st.nextDouble();
+					
+					//explicit bounds check (no post-mortem check for dense)
+					if( row < 0 || row >= _rlen || col < 0 || col >= _clen )
+						throw new IOException("Matrix cell ["+(row+1)+","+(col+1)+"] " +
+								  "out of overall matrix range [1:"+_rlen+",1:"+_clen+"].");
+					
+					if( sparse ) { //SPARSE<-value
+						if( lvalue != 0 ) {
+							int part = row / _blksz;
+							if( _cells[part] == null )
+								_cells[part] = new CellList();
+							_cells[part].add(row, col, lvalue);
+						}
+					}
+					else //DENSE<-value
+						_dest.setValueDenseUnsafe(row, col, lvalue);
+				}
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = "Unable to read matrix in text cell format. "+ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				if( reader != null )
+					reader.close();
+			}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * Merge task for a row partition, which appends the cells of all read 
+	 * tasks in order of their byte ranges into exactly allocated sparse rows.
+	 * 
+	 */
+	private static class MergeTask implements Callable<Object> 
+	{
+		private ArrayList<ReadTask> _tasks = null;
+		private MatrixBlock _dest = null;
+		private int _part = -1;
+		private int _rl = -1;
+		private int _ru = -1;
+		private long _nnz = 0;
+		
+		public MergeTask( ArrayList<ReadTask> tasks, MatrixBlock dest, int part, int rl, int ru )
+		{
+			_tasks = tasks;
+			_dest = dest;
+			_part = part;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public long getNonZeros() {
+			return _nnz;
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			SparseRow[] rows = _dest.getSparseRows();
+			
+			//count non-zeros per row
+			int[] cnt = new int[_ru-_rl];
+			for( ReadTask task : _tasks ) {
+				CellList cells = task.getCells(_part);
+				for( int i=0; cells!=null && i<cells.size; i++ )
+					cnt[cells.rix[i]-_rl]++;
+			}
+			
+			//allocate sparse rows and append cells in order
+			for( int i=_rl; i<_ru; i++ )
+				if( cnt[i-_rl] > 0 )
+					rows[i] = new SparseRow(cnt[i-_rl]);
+			for( ReadTask task : _tasks ) {
+				CellList cells = task.getCells(_part);
+				for( int i=0; cells!=null && i<cells.size; i++ )
+					rows[cells.rix[i]].append(cells.cix[i], cells.vals[i]);
+			}
+			
+			//sort sparse rows and compute nnz
+			for( int i=_rl; i<_ru; i++ )
+				if( rows[i] != null ) {
+					if( rows[i].size() > 1 )
+						rows[i].sort();
+					_nnz += rows[i].size();
+				}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * Growable list of unordered cells.
+	 * 
+	 */
+	private static class CellList
+	{
+		private int[] rix = new int[1024];
+		private int[] cix = new int[1024];
+		private double[] vals = new double[1024];
+		private int size = 0;
+		
+		public void add( int row, int col, double val )
+		{
+			if( size == rix.length ) {
+				int newCap = 2 * size;
+				int[] tmpr = new int[newCap];
+				int[] tmpc = new int[newCap];
+				double[] tmpv = new double[newCap];
+				System.arraycopy(rix, 0, tmpr, 0, size);
+				System.arraycopy(cix, 0, tmpc, 0, size);
+				System.arraycopy(vals, 0, tmpv, 0, size);
+				rix = tmpr; cix = tmpc; vals = tmpv;
+			}
+			rix[size] = row;
+			cix[size] = col;
+			vals[size] = val;
+			size++;
+		}
+	}
+}
@@ -17,14 +17,11 @@
 
 package com.ibm.bi.dml.runtime.io;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -34,7 +31,6 @@ import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.CSVReblockMR;
 import com.ibm.bi.dml.runtime.matrix.data.CSVFileFormatProperties;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
-import com.ibm.bi.dml.runtime.util.UtilFunctions;
 
 public class ReaderTextCSV extends MatrixReader
 {
@@ -112,87 +108,42 @@ public class ReaderTextCSV extends MatrixReader
 			clen = dest.getNumColumns();
 		}
 		
-		boolean sparse = dest.isInSparseFormat();
-		
-		/////////////////////////////////////////
-		String value = null;
+		//read rows directly from byte buffers
+		CSVByteParser parser = new CSVByteParser(delim, fillValue, _props.getNAStrings());
+		int rlenDest = dest.getNumRows();
 		int row = 0;
-		int col = -1;
-		double cellValue = 0;
-		
-		String cellStr = null;
 		
 		for(int fileNo=0; fileNo<files.size(); fileNo++)
 		{
-			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(files.get(fileNo))));
+			ByteRangeLineReader lr = new ByteRangeLineReader(fs.open(files.get(fileNo)), 0, Long.MAX_VALUE, false);
 			if(fileNo==0 && hasHeader ) 
-				br.readLine(); //ignore header
+				lr.nextLine(); //ignore header
 			
 			// Read the data
-			boolean emptyValuesFound = false;
-			try{
-				if( sparse ) //SPARSE<-value
-				{
-					while( (value=br.readLine())!=null )
-					{
-						col = 0;
-						cellStr = value.toString().trim();
-						emptyValuesFound = false;
-						String[] parts = IOUtilFunctions.split(cellStr, delim);
-						for(String part : parts) {
-							part = part.trim();
-							if ( part.isEmpty() ) {
-								emptyValuesFound = true;
-								cellValue = fillValue;
-							}
-							else {
-								cellValue = UtilFunctions.parseToDouble(part);
-							}
-							if ( Double.compare(cellValue, 0.0) != 0 )
-								dest.appendValue(row, col, cellValue);
-							col++;
-						}
-						
-						//sanity checks for empty values and number of columns
-						IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, fill, emptyValuesFound);
-						if ( col != clen ) {
-							throw new IOException("Invalid number of columns (" + col + ") found in delimited file (" + path.toString() + "). Expecting (" + clen + "): " + value);
-						}
-						row++;
-					}
-				} 
-				else //DENSE<-value
+			try
+			{
+				while( lr.nextLine() ) //foreach line
 				{
-					while( (value=br.readLine())!=null ) //foreach line
-					{
-						cellStr = value.toString().trim();
-						String[] parts = IOUtilFunctions.split(cellStr, delim);
-						col = 0;
-						
-						for( String part : parts ) //foreach cell
-						{
-							part = part.trim();
-							if ( part.isEmpty() ) {
-								if ( !fill )
-									throw new IOException("Empty fields found in delimited file (" + path.toString() + "). Use \"fill\" option to read delimited files with empty fields.");
-								cellValue = fillValue;
-							}
-							else {
-								cellValue = UtilFunctions.parseToDouble(part);
-							}
-							dest.setValueDenseUnsafe(row, col, cellValue);
-							col++;
-						}
-						if ( parts.length != clen ) {
-							throw new IOException("Invalid number of columns (" + col + ") found in delimited file (" + path.toString() + "). Expecting (" + clen + "): " + value);
-						}
-						row++;
+					byte[] buff = lr.getBuffer();
+					int off = lr.getLineStart();
+					int end = lr.getLineEnd();
+					if( row >= rlenDest )
+						throw new IOException("Read matrix inconsistent with given meta data: expected nrow=" + rlenDest + ", real nrow>" + rlenDest);
+					
+					int col = parser.parseRow(buff, off, end, dest, row);
+					
+					//sanity checks for empty values and number of columns
+					if ( parser.isEmptyFound() && !fill )
+						throw new IOException("Empty fields found in delimited file (" + path.toString() + "). Use \"fill\" option to read delimited files with empty fields.");
+					if ( col != clen ) {
+						throw new IOException("Invalid number of columns (" + col + ") found in delimited file (" + path.toString() + "). Expecting (" + clen + "): " + new String(buff, off, end-off, "UTF-8"));
 					}
+					row++;
 				}
 			}
 			finally
 			{
-				IOUtilFunctions.closeSilently(br);
+				lr.close();
 			}
 		}
 		
@@ -217,33 +168,31 @@ public class ReaderTextCSV extends MatrixReader
 	{		
 		int nrow = -1;
 		int ncol = -1;
-		String value = null;
 		
-		String cellStr = null;
+		CSVByteParser parser = new CSVByteParser(delim, fillValue, _props.getNAStrings());
 		for(int fileNo=0; fileNo<files.size(); fileNo++)
 		{
-			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(files.get(fileNo))));	
+			ByteRangeLineReader lr = new ByteRangeLineReader(fs.open(files.get(fileNo)), 0, Long.MAX_VALUE, false);
 			try
 			{
 				// Read the header line, if there is one.
 				if(fileNo==0)
 				{
 					if ( hasHeader ) 
-						br.readLine(); //ignore header
-					if( (value = br.readLine()) != null ) {
-						cellStr = value.toString().trim();
-						ncol = StringUtils.countMatches(cellStr, delim) + 1;
+						lr.nextLine(); //ignore header
+					if( lr.nextLine() ) {
+						ncol = parser.parseRow(lr.getBuffer(), lr.getLineStart(), lr.getLineEnd(), null, 0, 0);
 						nrow = 1;
 					}
 				}
 				
-				while ( (value = br.readLine()) != null ) {
+				while ( lr.nextLine() ) {
 					nrow++;
 				}
 			}
 			finally
 			{
-				IOUtilFunctions.closeSilently(br);
+				lr.close();
 			}
 		}
 		
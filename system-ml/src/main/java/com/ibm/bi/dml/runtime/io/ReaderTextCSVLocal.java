@@ -0,0 +1,384 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader.FileRange;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference.CSVMetaData;
+import com.ibm.bi.dml.runtime.matrix.CSVReblockMR;
+import com.ibm.bi.dml.runtime.matrix.data.CSVFileFormatProperties;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Reader for CSV inputs on the local file system (single files or directories
+ * of part files). Similar to ReaderTextCSVParallel, we do two passes in order 
+ * to compute row offsets and the actual read, but over disjoint byte ranges of 
+ * all files, which are read via file channels and parsed directly from byte 
+ * buffers, w/o Hadoop input formats and splits. Since every range contains
+ * entire rows, dense and sparse targets are populated lock-free and in order.
+ * The row counts per range are shared with CSVMetaDataInference, i.e., the 
+ * first pass is skipped if the input has already been counted in-process.
+ * 
+ * Compressed files are read via ReaderTextCSVParallel.
+ */
+public class ReaderTextCSVLocal extends MatrixReader
+{
+	//min size of byte ranges per read task
+	static final long MIN_RANGE_SIZE = 64L * 1024; //64KB
+	
+	private CSVFileFormatProperties _props = null;
+	private int _numThreads = 1;
+	
+	public ReaderTextCSVLocal( CSVFileFormatProperties props, int numThreads )
+	{
+		_props = props;
+		_numThreads = Math.max(numThreads, 1);
+	}
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf();	
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		//split-based read for compressed files
+		Path[] files = getCSVFilePaths(fs, path);
+		CompressionCodecFactory codecs = new CompressionCodecFactory(job);
+		for( Path file : files )
+			if( codecs.getCodec(file) != null ) {
+				MatrixReader reader = new ReaderTextCSVParallel(_props);
+				return reader.readMatrixFromHDFS(fname, rlen, clen, brlen, bclen, estnnz);
+			}
+		
+		//split all files into disjoint byte ranges
+		ArrayList<FileRange> ranges = ByteRangeLineReader.createFileRanges(
+				fs, files, _numThreads, MIN_RANGE_SIZE);
+		
+		//probe row counts per range of previous counts
+		CSVMetaData md = CSVMetaDataInference.getCachedMetaData(
+				fs, path, files, _props.hasHeader(), _props.getDelim());
+		int[] rangeRows = (md != null) ? md.getRangeRowCounts(_numThreads) : null;
+		if( rangeRows != null && rangeRows.length != ranges.size() )
+			rangeRows = null;
+		boolean counted = (rangeRows == null);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(_numThreads, ranges.size()));
+		MatrixBlock ret = null;
+		try
+		{
+			int ncol = 0;
+			if( !counted ) {
+				ncol = (int)md.getCols();
+				if( estnnz < 0 )
+					estnnz = md.getEstimatedNonZeros();
+			}
+			else {
+				//first pass: count rows per range, and determine row offsets 
+				//(header line is the first line of the first range)
+				ArrayList<CountRowsTask> ctasks = new ArrayList<CountRowsTask>();
+				for( int i=0; i<ranges.size(); i++ )
+					ctasks.add(new CountRowsTask(fs, ranges.get(i), i==0 && _props.hasHeader(), _props.getDelim()));
+				pool.invokeAll(ctasks);
+				
+				rangeRows = new int[ranges.size()];
+				for( int i=0; i<ctasks.size(); i++ ) {
+					CountRowsTask ct = ctasks.get(i);
+					if( !ct.getReturnCode() )
+						throw new IOException("Count task for csv input failed: " + ct.getErrMsg());
+					rangeRows[i] = ct.getRowCount();
+				}
+				for( CountRowsTask ct : ctasks ) //first non-empty range
+					if( ct.getColCount() >= 0 ) {
+						ncol = ct.getColCount();
+						break;
+					}
+			}
+			
+			int nrow = 0;
+			int[] offsets = new int[ranges.size()];
+			for( int i=0; i<ranges.size(); i++ ) {
+				offsets[i] = nrow;
+				nrow += rangeRows[i];
+			}
+			
+			//sanity check for row and column counts (since determined internally)
+			if( rlen > 0 && rlen != nrow )
+				throw new DMLRuntimeException("Read matrix inconsistent with given meta data: expected nrow="
+						+ rlen + ", real nrow=" + nrow);
+			if( clen > 0 && clen != ncol )
+				throw new DMLRuntimeException("Read matrix inconsistent with given meta data: expected ncol="
+						+ clen + ", real ncol=" + ncol);
+			
+			//allocate output matrix block (incl dense block or sparse rows 
+			//array in order to prevent concurrent allocations by read tasks)
+			ret = createOutputMatrixBlock(nrow, ncol, estnnz, true, true);
+			
+			//second pass: read and parse rows of all ranges
+			ArrayList<ReadTask> rtasks = new ArrayList<ReadTask>();
+			for( int i=0; i<ranges.size(); i++ )
+				rtasks.add(new ReadTask(fs, ranges.get(i), i==0 && _props.hasHeader(), _props, 
+						ret, offsets[i], rangeRows[i]));
+			pool.invokeAll(rtasks);
+			
+			for( ReadTask rt : rtasks )
+				if( !rt.getReturnCode() )
+					throw new IOException("Read task for csv input failed: " + rt.getErrMsg());
+		}
+		catch(DMLRuntimeException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new IOException("Threadpool issue, while parallel read.", ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		//post-processing (no sorting required, always recompute non zeros
+		//and change of sparse/dense block representation if required)
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		//cache row counts per range for subsequent reads
+		if( counted ) {
+			double sparsity = (double)ret.getNonZeros() / Math.max((long)ret.getNumRows() * ret.getNumColumns(), 1);
+			CSVMetaDataInference.putCachedMetaData(fs, path, files, _props.hasHeader(), _props.getDelim(), 
+					new CSVMetaData(ret.getNumRows(), ret.getNumColumns(), sparsity, _numThreads, rangeRows));
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param fs
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	static Path[] getCSVFilePaths( FileSystem fs, Path path ) 
+		throws IOException
+	{
+		if( !fs.isDirectory(path) )
+			return new Path[]{ path };
+		
+		//sorted part files (see ReaderTextCSV)
+		FileStatus[] stats = fs.listStatus(path, CSVReblockMR.hiddenFileFilter);
+		Path[] ret = new Path[stats.length];
+		for( int i=0; i<stats.length; i++ )
+			ret[i] = stats[i].getPath();
+		Arrays.sort(ret);
+		return ret;
+	}
+	
+	/**
+	 * Count task for a byte range, which counts all lines (excl header)
+	 * and determines the number of columns of the first line.
+	 * 
+	 */
+	private static class CountRowsTask implements Callable<Object> 
+	{
+		private FileSystem _fs = null;
+		private FileRange _range = null;
+		private boolean _hasHeader = false;
+		private String _delim = null;
+		private int _nrows = 0;
+		private int _ncols = -1;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public CountRowsTask( FileSystem fs, FileRange range, boolean hasHeader, String delim )
+		{
+			_fs = fs;
+			_range = range;
+			_hasHeader = hasHeader;
+			_delim = delim;
+		}
+		
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		public int getRowCount() {
+			return _nrows;
+		}
+		
+		public int getColCount() {
+			return _ncols;
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			ByteRangeLineReader reader = null;
+			
+			try
+			{
+				reader = ByteRangeLineReader.open(_fs, _range);
+				if( _hasHeader )
+					reader.nextLine(); //ignore header
+				
+				//determine number of columns from first line
+				if( reader.nextLine() ) {
+					CSVByteParser parser = new CSVByteParser(_delim, 0, null);
+					_ncols = parser.parseRow(reader.getBuffer(), 
+							reader.getLineStart(), reader.getLineEnd(), null, 0, 0);
+					_nrows++;
+				}
+				
+				while( reader.nextLine() )
+					_nrows++;
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = "Unable to count rows of csv input "+_range.path.toString()+". "+ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				if( reader != null )
+					reader.close();
+			}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * Read task for a byte range, which parses its rows into the given 
+	 * row range of the target block.
+	 * 
+	 */
+	private static class ReadTask implements Callable<Object> 
+	{
+		private FileSystem _fs = null;
+		private FileRange _range = null;
+		private boolean _hasHeader = false;
+		private CSVFileFormatProperties _props = null;
+		private MatrixBlock _dest = null;
+		private int _rl = -1;
+		private int _nrows = -1;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public ReadTask( FileSystem fs, FileRange range, boolean hasHeader, CSVFileFormatProperties props, MatrixBlock dest, int rl, int nrows )
+		{
+			_fs = fs;
+			_range = range;
+			_hasHeader = hasHeader;
+			_props = props;
+			_dest = dest;
+			_rl = rl;
+			_nrows = nrows;
+		}
+		
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			ByteRangeLineReader reader = null;
+			int clen = _dest.getNumColumns();
+			
+			try
+			{
+				reader = ByteRangeLineReader.open(_fs, _range);
+				if( _hasHeader )
+					reader.nextLine(); //ignore header
+				
+				CSVByteParser parser = new CSVByteParser(_props.getDelim(), 
+						_props.getFillValue(), _props.getNAStrings());
+				int row = _rl;
+				while( reader.nextLine() ) //foreach line
+				{
+					byte[] buff = reader.getBuffer();
+					int off = reader.getLineStart();
+					int end = reader.getLineEnd();
+					if( row >= _rl + _nrows )
+						break; //checked below
+					
+					int ncol = parser.parseRow(buff, off, end, _dest, row);
+					
+					//sanity checks (number of columns, fill values)
+					if( !_props.isFill() && parser.isEmptyFound() )
+						IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(
+								new String(buff, off, end-off, "UTF-8"), false, true);
+					if( ncol != clen ) {
+						throw new IOException("Invalid number of columns (" + ncol + ") found in delimited file "
+							+ "(" + _range.path.toString() + "). Expecting (" + clen + "): " + new String(buff, off, end-off, "UTF-8"));
+					}
+					row++;
+				}
+				
+				//sanity check (number of rows, e.g., on concurrent modification)
+				if( row != _rl + _nrows || reader.nextLine() )
+					throw new IOException("Incorrect number of rows found in delimited file (" 
+						+ _range.path.toString() + "). Expecting (" + _nrows + ") in range [" 
+						+ _range.start + "," + _range.end + ").");
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = "Unable to read matrix in text CSV format. "+ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				if( reader != null )
+					reader.close();
+			}
+			
+			return null;
+		}
+	}
+}
@@ -25,7 +25,6 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
@@ -171,7 +170,7 @@ public class ReaderTextCSVParallel extends MatrixReader {
 			for (InputSplit split : splits) {
 				CSVReadTask t = new CSVReadTask(split, _offsets, informat, job,
 						dest, rlen, clen, hasHeader, delim, fill, fillValue,
-						splitCount++);
+						_props.getNAStrings(), splitCount++);
 				tasks.add(t);
 			}
 
@@ -209,7 +208,6 @@ public class ReaderTextCSVParallel extends MatrixReader {
 		int ncol = 0;
 
 		MatrixBlock dest = null;
-		String cellStr = null;
 
 		FileInputFormat.addInputPath(job, path);
 		TextInputFormat informat = new TextInputFormat();
@@ -224,8 +222,8 @@ public class ReaderTextCSVParallel extends MatrixReader {
 				splits[0], job, Reporter.NULL);
 		try {
 			if (reader.next(key, oneLine)) {
-				cellStr = oneLine.toString().trim();
-				ncol = StringUtils.countMatches(cellStr, delim) + 1;
+				CSVByteParser parser = new CSVByteParser(delim, 0, null);
+				ncol = parser.parseRow(oneLine.getBytes(), 0, oneLine.getLength(), null, 0, 0);
 			}
 		} finally {
 			if (reader != null)
@@ -378,7 +376,6 @@ public class ReaderTextCSVParallel extends MatrixReader {
 	private static class CSVReadTask implements Callable<Object> {
 		private InputSplit _split = null;
 		private SplitOffsetInfos _splitoffsets = null;
-		private boolean _sparse = false;
 		private TextInputFormat _informat = null;
 		private JobConf _job = null;
 		private MatrixBlock _dest = null;
@@ -389,6 +386,7 @@ public class ReaderTextCSVParallel extends MatrixReader {
 		private boolean _fill = false;
 		private double _fillValue = 0;
 		private String _delim = null;
+		private String _naStrings = null;
 		private int _splitCount = 0;
 
 		private boolean _rc = true;
@@ -398,10 +396,9 @@ public class ReaderTextCSVParallel extends MatrixReader {
 		public CSVReadTask(InputSplit split, SplitOffsetInfos offsets,
 				TextInputFormat informat, JobConf job, MatrixBlock dest,
 				long rlen, long clen, boolean hasHeader, String delim,
-				boolean fill, double fillValue, int splitCount) {
+				boolean fill, double fillValue, String naStrings, int splitCount) {
 			_split = split;
 			_splitoffsets = offsets; // new SplitOffsetInfos(offsets);
-			_sparse = dest.isInSparseFormat();
 			_informat = informat;
 			_job = job;
 			_dest = dest;
@@ -412,6 +409,7 @@ public class ReaderTextCSVParallel extends MatrixReader {
 			_fill = fill;
 			_fillValue = fillValue;
 			_delim = delim;
+			_naStrings = naStrings;
 			_rc = true;
 			_splitCount = splitCount;
 		}
@@ -431,9 +429,6 @@ public class ReaderTextCSVParallel extends MatrixReader {
 
 			int row = 0;
 			int col = 0;
-			double cellValue = 0;
-
-			String cellStr = null;
 
 			try {
 				RecordReader<LongWritable, Text> reader = _informat
@@ -444,75 +439,25 @@ public class ReaderTextCSVParallel extends MatrixReader {
 					reader.next(key, value);
 				}
 
-				boolean noFillEmpty = false;
+				// parse rows directly from the bytes of the reused text
+				// (dense rows in-place, sparse rows lock-free appended)
+				CSVByteParser parser = new CSVByteParser(_delim, _fillValue, _naStrings);
 				row = _splitoffsets.getOffsetPerSplit(_splitCount);
 
 				try {
-					if (_sparse) // SPARSE<-value
-					{
-						while (reader.next(key, value)) // foreach line
-						{
-							cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} else {
-									cellValue = IOUtilFunctions
-											.parseDoubleParallel(part);
-								}
-
-								if (Double.compare(cellValue, 0.0) != 0)
-									_dest.appendValue(row, col, cellValue);
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							if (parts.length != _clen) {
-								throw new IOException(
-										"Invalid number of columns (" + col + ") found in delimited file "
-										+ "(" + _split.toString() + "). Expecting (" + _clen + "): " + value);
-							}
-							row++;
-						}
-					} 
-					else // DENSE<-value
+					while (reader.next(key, value)) // foreach line
 					{
-						while (reader.next(key, value)) // foreach line
-						{
-							cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} else {
-									cellValue = IOUtilFunctions
-											.parseDoubleParallel(part);
-								}
-								_dest.setValueDenseUnsafe(row, col, cellValue);
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							if (parts.length != _clen) {
-								throw new IOException(
-										"Invalid number of columns (" + col + ") found in delimited file "
-										+ "(" + _split.toString() + "). Expecting (" + _clen + "): " + value);
-							}
-							row++;
+						int ncol = parser.parseRow(value.getBytes(), 0, value.getLength(), _dest, row);
+						
+						// sanity checks (number of columns, fill values)
+						if (!_fill && parser.isEmptyFound())
+							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(value.toString(), _fill, true);
+						if (ncol != _clen) {
+							throw new IOException(
+									"Invalid number of columns (" + ncol + ") found in delimited file "
+									+ "(" + _split.toString() + "). Expecting (" + _clen + "): " + value);
 						}
+						row++;
 					}
 
 					// sanity checks (number of rows)
@@ -36,6 +36,7 @@ import org.apache.hadoop.mapred.TextInputFormat;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
 import com.ibm.bi.dml.runtime.util.FastStringTokenizer;
 
 public class ReaderTextCell extends MatrixReader
@@ -124,7 +125,7 @@ public class ReaderTextCell extends MatrixReader
 		
 		try
 		{
-			FastStringTokenizer st = new FastStringTokenizer(' ');
+			FastByteTokenizer st = new FastByteTokenizer(' ');
 			
 			for(InputSplit split: splits)
 			{
@@ -136,7 +137,7 @@ public class ReaderTextCell extends MatrixReader
 					{
 						while( reader.next(key, value) )
 						{
-							st.reset( value.toString() ); //reinit tokenizer
+							st.reset( value.getBytes(), 0, value.getLength() ); //reinit tokenizer
 							row = st.nextInt() - 1;
 							col = st.nextInt() - 1;
 							double lvalue = st.nextDouble();
@@ -149,7 +150,7 @@ public class ReaderTextCell extends MatrixReader
 					{
 						while( reader.next(key, value) )
 						{
-							st.reset( value.toString() ); //reinit tokenizer
+							st.reset( value.getBytes(), 0, value.getLength() ); //reinit tokenizer
 							row = st.nextInt()-1;
 							col = st.nextInt()-1;
 							double lvalue = st.nextDouble();
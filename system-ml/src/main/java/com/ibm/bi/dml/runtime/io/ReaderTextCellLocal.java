@@ -0,0 +1,85 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader.FileRange;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Reader for text cell inputs on the local file system (single files or 
+ * directories of part files). All files are split into disjoint byte ranges, 
+ * which are read in parallel via file channels, w/o Hadoop input formats and 
+ * splits (see ReaderMatrixMarketParallel for the parsing of byte ranges).
+ * 
+ * Compressed files are read via ReaderTextCellParallel.
+ */
+public class ReaderTextCellLocal extends ReaderMatrixMarketParallel
+{
+	public ReaderTextCellLocal( int numThreads )
+	{
+		_numThreads = Math.max(numThreads, 1);
+	}
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf();	
+		Path path = new Path( fname );
+		FileSystem fs = path.getFileSystem(job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		//split-based read for compressed files
+		Path[] files = getSequenceFilePaths(fs, path);
+		CompressionCodecFactory codecs = new CompressionCodecFactory(job);
+		for( Path file : files )
+			if( codecs.getCodec(file) != null ) {
+				MatrixReader reader = new ReaderTextCellParallel(InputInfo.TextCellInputInfo);
+				return reader.readMatrixFromHDFS(fname, rlen, clen, brlen, bclen, estnnz);
+			}
+		
+		//allocate output matrix block (incl sparse rows array)
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, true);
+		
+		//core read of disjoint byte ranges of all files
+		ArrayList<FileRange> ranges = ByteRangeLineReader.createFileRanges(
+				fs, files, _numThreads, MIN_RANGE_SIZE);
+		readTextCellRanges(fs, ranges, ret, rlen, clen);
+		
+		//finally check if change of sparse/dense block representation required
+		if( !ret.isInSparseFormat() )
+			ret.recomputeNonZeros();
+		ret.examSparsity();
+		
+		return ret;
+	}
+}
@@ -38,7 +38,7 @@ import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
-import com.ibm.bi.dml.runtime.util.FastStringTokenizer;
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 
 /**
@@ -211,7 +211,7 @@ public class ReaderTextCellParallel extends MatrixReader
 			
 			try
 			{			
-				FastStringTokenizer st = new FastStringTokenizer(' ');
+				FastByteTokenizer st = new FastByteTokenizer(' ');
 				RecordReader<LongWritable,Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
 				
 				// Read the header lines, if reading from a matrixMarket file
@@ -219,17 +219,17 @@ public class ReaderTextCellParallel extends MatrixReader
 					
 					// skip until end-of-comments (%% or %)
 					boolean foundComment = false;
-					while( reader.next(key, value) && value.toString().charAt(0) == '%'  ) {
+					while( reader.next(key, value) && value.getLength() > 0 && value.getBytes()[0] == '%'  ) {
 						//do nothing just skip comments
 						foundComment = true;
 					}
 					
 					//process current value (otherwise ignore following meta data)
 					if( !foundComment ) {
-						st.reset( value.toString() ); //reinit tokenizer
+						st.reset( value.getBytes(), 0, value.getLength() ); //reinit tokenizer
 						row = st.nextInt()-1;
 						col = st.nextInt()-1;
-						double lvalue = st.nextDoubleForParallel();
+						double lvalue = st.nextDouble();
 						synchronized( _dest ){ //sparse requires lock	
 							_dest.appendValue(row, col, lvalue);
 						}
@@ -245,10 +245,10 @@ public class ReaderTextCellParallel extends MatrixReader
 						
 						while( reader.next(key, value) )
 						{
-							st.reset( value.toString() ); //reinit tokenizer
+							st.reset( value.getBytes(), 0, value.getLength() ); //reinit tokenizer
 							row = st.nextInt() - 1;
 							col = st.nextInt() - 1;
-							double lvalue = st.nextDoubleForParallel();
+							double lvalue = st.nextDouble();
 							
 							buff.addCell(row, col, lvalue);
 							//capacity buffer flush on demand
@@ -267,10 +267,10 @@ public class ReaderTextCellParallel extends MatrixReader
 					{
 						while( reader.next(key, value) )
 						{
-							st.reset( value.toString() ); //reinit tokenizer
+							st.reset( value.getBytes(), 0, value.getLength() ); //reinit tokenizer
 							row = st.nextInt()-1;
 							col = st.nextInt()-1;
-							double lvalue = st.nextDoubleForParallel();
+							double lvalue = st.nextDouble();
 							_dest.setValueDenseUnsafe( row, col, lvalue );
 						}
 					}
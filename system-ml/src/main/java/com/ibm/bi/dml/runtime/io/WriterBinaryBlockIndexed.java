@@ -0,0 +1,209 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+
+/**
+ * Writer for indexed binary block files (see BinaryBlockIndex), which writes 
+ * all non-empty blocks into a single file, followed by the block index.
+ * 
+ */
+public class WriterBinaryBlockIndexed extends MatrixWriter
+{
+	private int _replication = -1;
+	
+	public WriterBinaryBlockIndexed( int replication )
+	{
+		_replication = replication;
+	}
+	
+	@Override
+	public void writeMatrixToHDFS(MatrixBlock src, String fname, long rlen, long clen, int brlen, int bclen, long nnz) 
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException 
+	{
+		//prepare file access
+		JobConf job = new JobConf();
+		Path path = new Path( fname );
+
+		//if the file already exists on HDFS, remove it.
+		MapReduceTool.deleteFileIfExistOnHDFS( fname );
+		
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen )
+		{
+			throw new IOException("Matrix block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall matrix range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//core write
+		writeIndexedBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen);
+	}
+
+	@Override
+	public void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen) 
+		throws IOException, DMLRuntimeException 
+	{
+		JobConf job = new JobConf();
+		Path path = new Path( fname );
+		
+		FastBufferedDataOutputStream out = createOutputStream(path, job);
+		try {
+			out.writeInt(BinaryBlockIndex.MAGIC);
+			out.writeInt(BinaryBlockIndex.VERSION);
+			BinaryBlockIndex index = new BinaryBlockIndex(rlen, clen, brlen, bclen);
+			index.write(out, BinaryBlockIndex.HEADER_SIZE);
+			out.close();
+		}
+		finally {
+			IOUtilFunctions.closeSilently(out);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private void writeIndexedBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen )
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		FastBufferedDataOutputStream out = createOutputStream(path, job);
+		BinaryBlockIndex index = new BinaryBlockIndex(rlen, clen, brlen, bclen);
+		
+		try
+		{
+			//write header
+			out.writeInt(BinaryBlockIndex.MAGIC);
+			out.writeInt(BinaryBlockIndex.VERSION);
+			long offset = BinaryBlockIndex.HEADER_SIZE;
+			
+			if( rlen <= brlen && clen <= bclen ) //opt for single block
+			{
+				//directly write single block
+				if( !src.isEmptyBlock(false) )
+					offset += writeBlock(out, index, src, 1, 1, offset);
+			}
+			else //general case
+			{
+				//initialize blocks for reuse (at most 4 different blocks required)
+				MatrixBlock[] blocks = createMatrixBlocksForReuse(rlen, clen, brlen, bclen, 
+						src.isInSparseFormat(), src.getNonZeros());  
+				
+				//create and write non-empty subblocks of matrix
+				for(int blockRow = 0; blockRow < (int)Math.ceil(src.getNumRows()/(double)brlen); blockRow++)
+					for(int blockCol = 0; blockCol < (int)Math.ceil(src.getNumColumns()/(double)bclen); blockCol++)
+					{
+						int maxRow = (blockRow*brlen + brlen < src.getNumRows()) ? brlen : src.getNumRows() - blockRow*brlen;
+						int maxCol = (blockCol*bclen + bclen < src.getNumColumns()) ? bclen : src.getNumColumns() - blockCol*bclen;
+				
+						int row_offset = blockRow*brlen;
+						int col_offset = blockCol*bclen;
+						
+						//get reuse matrix block
+						MatrixBlock block = getMatrixBlockForReuse(blocks, maxRow, maxCol, brlen, bclen);
+	
+						//copy submatrix to block
+						src.sliceOperations( row_offset, row_offset+maxRow-1, 
+								             col_offset, col_offset+maxCol-1, block );
+						
+						//append block and index entry
+						if( !block.isEmptyBlock(false) )
+							offset += writeBlock(out, index, block, blockRow+1, blockCol+1, offset);
+						
+						//reset block for later reuse
+						block.reset();
+					}
+			}
+			
+			//write footer and trailer
+			index.write(out, offset);
+			out.close();
+		}
+		finally
+		{
+			IOUtilFunctions.closeSilently(out);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param out
+	 * @param index
+	 * @param block
+	 * @param rix
+	 * @param cix
+	 * @param offset
+	 * @return
+	 * @throws IOException
+	 */
+	private static int writeBlock( FastBufferedDataOutputStream out, BinaryBlockIndex index, MatrixBlock block, long rix, long cix, long offset ) 
+		throws IOException
+	{
+		long len = block.getExactSizeOnDisk();
+		if( len > Integer.MAX_VALUE )
+			throw new IOException("Matrix block of size "+len+" exceeds the maximum indexed block size.");
+		
+		block.write(out);
+		index.addBlock(rix, cix, block.getNumRows(), block.getNumColumns(), 
+				offset, (int)len, block.getNonZeros());
+		
+		return (int)len;
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @return
+	 * @throws IOException
+	 */
+	private FastBufferedDataOutputStream createOutputStream( Path path, JobConf job ) 
+		throws IOException
+	{
+		FileSystem fs = path.getFileSystem(job);
+		FSDataOutputStream fout = null;
+		if( _replication > 0 ) //if replication specified (otherwise default)
+			fout = fs.create(path, true, job.getInt("io.file.buffer.size", 4096), 
+					(short)_replication, fs.getDefaultBlockSize());
+		else
+			fout = fs.create(path, true);
+		
+		return new FastBufferedDataOutputStream(fout);
+	}
+}
@@ -0,0 +1,264 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+
+/**
+ * Binary block writer for outputs on the local file system, which serializes
+ * blocks directly into direct byte buffers and writes them via file channels
+ * (see LocalSequenceFile) instead of Hadoop sequence file writers. Similar to
+ * WriterBinaryBlockParallel, the matrix is sliced into disjoint ranges of row
+ * blocks and written to one part file per range and thread. The output format 
+ * is unchanged, i.e., readable by all binary block readers. Outputs on other 
+ * file systems are written by WriterBinaryBlockParallel.
+ * 
+ */
+public class WriterBinaryBlockLocal extends WriterBinaryBlockParallel
+{
+	public WriterBinaryBlockLocal( int replication )
+	{
+		super(replication);
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @param replication
+	 * @throws IOException
+	 * @throws DMLUnsupportedOperationException 
+	 * @throws DMLRuntimeException 
+	 */
+	@Override
+	protected void writeBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication )
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		//default write for non-local outputs
+		if( !LocalFileIO.isLocalFileSystem(path.toString(), job) ) {
+			super.writeBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen, replication);
+			return;
+		}
+		
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen )
+		{
+			throw new IOException("Matrix block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall matrix range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//estimate output size and number of output blocks (min 1)
+		int numPartFiles = (int)(OptimizerUtils.estimatePartitionedSizeExactSparsity(rlen, clen, brlen, bclen, src.getNonZeros()) 
+				              / InfrastructureAnalyzer.getHDFSBlockSize());
+		numPartFiles = Math.max(numPartFiles, 1);
+		
+		//determine degree of parallelism (at most one thread per row block)
+		int numRowBlocks = (int)Math.ceil((double)src.getNumRows()/brlen);
+		int numThreads = OptimizerUtils.getParallelBinaryWriteParallelism();
+		numThreads = Math.min(numThreads, Math.min(numPartFiles, numRowBlocks));
+		
+		//sequential write of a single file for small or single-block outputs
+		if( numThreads <= 1 || (rlen <= brlen && clen <= bclen) ) {
+			File file = LocalFileIO.getLocalFile(path);
+			if( file.getParentFile() != null )
+				file.getParentFile().mkdirs();
+			writeBinaryBlocks(file, src, 0, numRowBlocks, rlen, clen, brlen, bclen);
+			return;
+		}
+		
+		//create thread pool
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		
+		try 
+		{
+			MapReduceTool.createDirIfNotExistOnHDFS(path.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+			
+			//create write tasks for disjoint ranges of row blocks
+			ArrayList<WriteTask> tasks = new ArrayList<WriteTask>();
+			int blklen = (int)Math.ceil((double)numRowBlocks/numThreads);
+			for( int i=0; i<numThreads && i*blklen<numRowBlocks; i++ ) {
+				File file = LocalFileIO.getLocalFile(new Path(path, String.format("0-m-%05d",i)));
+				tasks.add(new WriteTask(file, src, i*blklen, Math.min((i+1)*blklen, numRowBlocks), 
+						rlen, clen, brlen, bclen));
+			}
+			
+			//wait until all tasks have been executed
+			pool.invokeAll(tasks);	
+			pool.shutdown();
+			
+			//early error notify in case not all tasks successful
+			for(WriteTask rt : tasks) {
+				if( !rt.getReturnCode() ) {
+					throw new IOException("Parallel write task failed: " + rt.getErrMsg());
+				}
+			}
+		} 
+		catch (Exception e) {
+			throw new IOException("Parallel write of binary block output failed.", e);
+		}
+	}
+	
+	/**
+	 * Writes the row blocks [rl, ru) of the given matrix into a single file.
+	 * 
+	 * @param file
+	 * @param src
+	 * @param rl
+	 * @param ru
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private static void writeBinaryBlocks( File file, MatrixBlock src, int rl, int ru, long rlen, long clen, int brlen, int bclen ) 
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		LocalSequenceFile.Writer writer = new LocalSequenceFile.Writer(file);
+		
+		try
+		{
+			MatrixIndexes indexes = new MatrixIndexes();
+			
+			if( rlen <= brlen && clen <= bclen ) //opt for single block
+			{
+				//directly write single block
+				indexes.setIndexes(1, 1);
+				writer.append(indexes, src);
+			}
+			else //general case
+			{
+				//initialize blocks for reuse (at most 4 different blocks required)
+				MatrixBlock[] blocks = createMatrixBlocksForReuse(rlen, clen, brlen, bclen, 
+						src.isInSparseFormat(), src.getNonZeros());  
+				int numColBlocks = (int)Math.ceil(src.getNumColumns()/(double)bclen);
+				
+				//create and write subblocks of matrix
+				for(int blockRow = rl; blockRow < ru; blockRow++)
+					for(int blockCol = 0; blockCol < numColBlocks; blockCol++)
+					{
+						int maxRow = (blockRow*brlen + brlen < src.getNumRows()) ? brlen : src.getNumRows() - blockRow*brlen;
+						int maxCol = (blockCol*bclen + bclen < src.getNumColumns()) ? bclen : src.getNumColumns() - blockCol*bclen;
+				
+						int row_offset = blockRow*brlen;
+						int col_offset = blockCol*bclen;
+						
+						//get reuse matrix block
+						MatrixBlock block = getMatrixBlockForReuse(blocks, maxRow, maxCol, brlen, bclen);
+	
+						//copy submatrix to block
+						src.sliceOperations( row_offset, row_offset+maxRow-1, 
+								             col_offset, col_offset+maxCol-1, block );
+						
+						//append block to sequence file
+						indexes.setIndexes(blockRow+1, blockCol+1);
+						writer.append(indexes, block);
+							
+						//reset block for later reuse
+						block.reset();
+					}
+			}
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+	
+	/**
+	 * Write task for a range of row blocks [rl, ru) into a single part file.
+	 * 
+	 */
+	private static class WriteTask implements Callable<Object> 
+	{
+		private File _file = null;
+		private MatrixBlock _src = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public WriteTask(File file, MatrixBlock src, int rl, int ru, long rlen, long clen, int brlen, int bclen)
+		{
+			_file = file;
+			_src = src;
+			_rl = rl;
+			_ru = ru;
+			_rlen = rlen;
+			_clen = clen;
+			_brlen = brlen;
+			_bclen = bclen;
+		}
+
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		@Override
+		public Object call() throws Exception 
+		{
+			try
+			{
+				writeBinaryBlocks(_file, _src, _rl, _ru, _rlen, _clen, _brlen, _bclen);
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			
+			return null;
+		}
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.mapred.MRJobConfiguration;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+
+/**
+ * Multi-threaded binary block writer, which slices the input matrix into
+ * disjoint ranges of row blocks and writes one part file per range and
+ * thread (with thread-local reuse blocks). The resulting directory of 
+ * part files is read back in parallel by ReaderBinaryBlockParFiles.
+ * 
+ */
+public class WriterBinaryBlockParallel extends WriterBinaryBlock
+{
+	public WriterBinaryBlockParallel( int replication )
+	{
+		super(replication);
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @param replication
+	 * @throws IOException
+	 * @throws DMLUnsupportedOperationException 
+	 * @throws DMLRuntimeException 
+	 */
+	@Override
+	protected void writeBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication )
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		//estimate output size and number of output blocks (min 1)
+		int numPartFiles = (int)(OptimizerUtils.estimatePartitionedSizeExactSparsity(rlen, clen, brlen, bclen, src.getNonZeros()) 
+				              / InfrastructureAnalyzer.getHDFSBlockSize());
+		numPartFiles = Math.max(numPartFiles, 1);
+		
+		//determine degree of parallelism (at most one thread per row block)
+		int numRowBlocks = (int)Math.ceil((double)src.getNumRows()/brlen);
+		int numThreads = OptimizerUtils.getParallelBinaryWriteParallelism();
+		numThreads = Math.min(numThreads, Math.min(numPartFiles, numRowBlocks));
+		
+		//fall back to sequential write for small or single-block outputs
+		if( numThreads <= 1 || (rlen <= brlen && clen <= bclen) ) {
+			super.writeBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen, replication);
+			return;
+		}
+		
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen )
+		{
+			throw new IOException("Matrix block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall matrix range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//set up preferred custom serialization framework for binary block format
+		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
+			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
+		
+		//create thread pool
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		
+		try 
+		{
+			MapReduceTool.createDirIfNotExistOnHDFS(path.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+			
+			//create write tasks for disjoint ranges of row blocks
+			ArrayList<WriteTask> tasks = new ArrayList<WriteTask>();
+			int blklen = (int)Math.ceil((double)numRowBlocks/numThreads);
+			for( int i=0; i<numThreads && i*blklen<numRowBlocks; i++ ) {
+				Path newPath = new Path(path, String.format("0-m-%05d",i));
+				tasks.add(new WriteTask(newPath, job, src, i*blklen, Math.min((i+1)*blklen, numRowBlocks), 
+						rlen, clen, brlen, bclen, replication));
+			}
+			
+			//wait until all tasks have been executed
+			pool.invokeAll(tasks);	
+			pool.shutdown();
+			
+			//early error notify in case not all tasks successful
+			for(WriteTask rt : tasks) {
+				if( !rt.getReturnCode() ) {
+					throw new IOException("Parallel write task failed: " + rt.getErrMsg());
+				}
+			}
+		} 
+		catch (Exception e) {
+			throw new IOException("Parallel write of binary block output failed.", e);
+		}
+	}
+	
+	/**
+	 * Write task for a range of row blocks [rl, ru) into a single part file.
+	 * 
+	 */
+	private static class WriteTask implements Callable<Object> 
+	{
+		private Path _path = null;
+		private JobConf _job = null;
+		private MatrixBlock _src = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		private int _replication = -1;
+		
+		private boolean _rc = true;
+		private String _errMsg = null;
+		
+		public WriteTask(Path path, JobConf job, MatrixBlock src, int rl, int ru, long rlen, long clen, int brlen, int bclen, int replication)
+		{
+			_path = path;
+			_job = job;
+			_src = src;
+			_rl = rl;
+			_ru = ru;
+			_rlen = rlen;
+			_clen = clen;
+			_brlen = brlen;
+			_bclen = bclen;
+			_replication = replication;
+		}
+
+		public boolean getReturnCode() {
+			return _rc;
+		}
+
+		public String getErrMsg() {
+			return _errMsg;
+		}
+		
+		@Override
+		@SuppressWarnings("deprecation")
+		public Object call() throws Exception 
+		{
+			SequenceFile.Writer writer = null;
+			
+			try
+			{
+				// 1) create sequence file writer, with right replication factor 
+				FileSystem fs = FileSystem.get(_job);
+				if( _replication > 0 ) //if replication specified (otherwise default)
+				{
+					//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
+					writer = new SequenceFile.Writer(fs, _job, _path, MatrixIndexes.class, MatrixBlock.class, _job.getInt("io.file.buffer.size", 4096),  
+							                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
+				}
+				else	
+				{
+					writer = new SequenceFile.Writer(fs, _job, _path, MatrixIndexes.class, MatrixBlock.class);
+				}
+				
+				// 2) reblock and write (thread-local reuse blocks, at most 4 different blocks required)
+				MatrixIndexes indexes = new MatrixIndexes();
+				MatrixBlock[] blocks = createMatrixBlocksForReuse(_rlen, _clen, _brlen, _bclen, 
+						_src.isInSparseFormat(), _src.getNonZeros());  
+				int numColBlocks = (int)Math.ceil(_src.getNumColumns()/(double)_bclen);
+				
+				for(int blockRow = _rl; blockRow < _ru; blockRow++)
+					for(int blockCol = 0; blockCol < numColBlocks; blockCol++)
+					{
+						int maxRow = (blockRow*_brlen + _brlen < _src.getNumRows()) ? _brlen : _src.getNumRows() - blockRow*_brlen;
+						int maxCol = (blockCol*_bclen + _bclen < _src.getNumColumns()) ? _bclen : _src.getNumColumns() - blockCol*_bclen;
+				
+						int row_offset = blockRow*_brlen;
+						int col_offset = blockCol*_bclen;
+						
+						//get reuse matrix block
+						MatrixBlock block = getMatrixBlockForReuse(blocks, maxRow, maxCol, _brlen, _bclen);
+	
+						//copy submatrix to block
+						_src.sliceOperations( row_offset, row_offset+maxRow-1, 
+								              col_offset, col_offset+maxCol-1, block );
+						
+						//append block to sequence file
+						indexes.setIndexes(blockRow+1, blockCol+1);
+						writer.append(indexes, block);
+							
+						//reset block for later reuse
+						block.reset();
+					}
+			}
+			catch(Exception ex)
+			{
+				//central error handling (return code, message) 
+				_rc = false;
+				_errMsg = ex.getMessage();
+				throw new RuntimeException(_errMsg, ex );
+			}
+			finally
+			{
+				IOUtilFunctions.closeSilently(writer);
+			}
+			
+			return null;
+		}
+	}
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Arrays;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
@@ -199,6 +200,7 @@ public class WriterMatrixMarket extends MatrixWriter
 	      if (hdfs.getFileStatus(src).isDirectory()) {
 	        try {
 	          FileStatus[] contents = hdfs.listStatus(src);
+	          Arrays.sort(contents); //deterministic order of part files
 	          for (int i = 0; i < contents.length; i++) {
 	            if (!contents[i].isDirectory()) {
 	               InputStream in = hdfs.open (contents[i].getPath());
@@ -64,6 +64,9 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 	}
 
 	/**
+	 * Writes the matrix in parallel (w/o header) to temporary part files of 
+	 * disjoint row ranges, and finally concatenates the header and all part
+	 * files into a valid single-file matrix market output.
 	 * 
 	 * @param fileName
 	 * @param src
@@ -83,38 +86,36 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 		
 		//determine degree of parallelism
 		int _numThreads = OptimizerUtils.getParallelTextWriteParallelism();
-		_numThreads = Math.min(_numThreads, numPartFiles);
+		_numThreads = (int)Math.min(_numThreads, Math.min(numPartFiles, rlen));
+		
+		//sequential write for small outputs
+		if( _numThreads <= 1 ) {
+			super.writeMatrixMarketMatrixToHDFS(path, job, src, rlen, clen, nnz);
+			return;
+		}
 		
 		//create thread pool
 		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		Path tmpPath = new Path(path.toString()+"_"+System.nanoTime()+".tmp");
 		
 		try 
 		{
-			if (_numThreads > 1) {
-				MapReduceTool.createDirIfNotExistOnHDFS(path.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
-			}
+			MapReduceTool.createDirIfNotExistOnHDFS(tmpPath.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
 			
 			//create write tasks for all splits
 			ArrayList<WriteMMTask> tasks = new ArrayList<WriteMMTask>();
 			long offset = rlen/_numThreads;
 			long rowStart = 0;
-			WriteMMTask t = null;
+			long rowRemain = rlen;
 
 			for( int i=0; i < _numThreads; i++ ){
 				if (i == (_numThreads-1)) {
-					offset = rlen;
-				}
-				if (_numThreads > 1) {
-					Path newPath = new Path(path, String.format("0-m-%05d",i));
-					t = new WriteMMTask(newPath, job, src, rowStart, offset);
-				}
-				else {
-					t = new WriteMMTask(path, job, src, rowStart, offset);
+					offset = rowRemain;
 				}
-				
-				tasks.add(t);
+				Path newPath = new Path(tmpPath, String.format("0-m-%05d",i));
+				tasks.add(new WriteMMTask(newPath, job, src, rowStart, offset));
 				rowStart = rowStart + offset;
-				rlen = rlen - offset;
+				rowRemain = rowRemain - offset;
 			}
 			
 			//wait until all tasks have been executed
@@ -122,15 +123,36 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 			pool.shutdown();
 			
 			//early error notify in case not all tasks successful
+			boolean entriesWritten = false;
 			for(WriteMMTask rt : tasks) {
 				if( !rt.getReturnCode() ) {
 					throw new IOException("Parallel write task failed: " + rt.getErrMsg());
 				}
+				entriesWritten |= rt.getEntriesWritten();
 			}
+			
+			//handle empty result
+			if( !entriesWritten ) {
+				FileSystem fs = FileSystem.get(job);
+				BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+						fs.create(new Path(tmpPath, String.format("0-m-%05d",_numThreads)), true)));
+				try {
+					bw.write("1 1 0\n");
+				}
+				finally {
+					IOUtilFunctions.closeSilently(bw);
+				}
+			}
+			
+			//concatenate header and all part files into single file
+			mergeTextcellToMatrixMarket(tmpPath.toString(), path.toString(), rlen, clen, nnz);
 		} 
 		catch (Exception e) {
 			throw new IOException("Parallel write of matrixmarket output failed.", e);
 		}
+		finally {
+			MapReduceTool.deleteFileIfExistOnHDFS(tmpPath.toString());
+		}
 	}
 	
 	/**
@@ -147,6 +169,7 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 
 		private boolean _rc = true;
 		private String _errMsg = null;
+		private boolean _entriesWritten = false;
 		
 		public WriteMMTask(Path path, JobConf job, MatrixBlock src, long rowStart, long rowNum)
 		{
@@ -164,6 +187,10 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 		public String getErrMsg() {
 			return _errMsg;
 		}
+		
+		public boolean getEntriesWritten() {
+			return _entriesWritten;
+		}
 
 		@Override
 		public Object call() throws Exception 
@@ -172,9 +199,7 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 			FileSystem fs = FileSystem.get(_job);
 			BufferedWriter bw = null;
 			
-			int rows = _src.getNumRows();
 	    	int cols = _src.getNumColumns();
-	    	long nnz = _src.getNonZeros();
 	    	
 			try
 			{
@@ -182,16 +207,7 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 				StringBuilder sb = new StringBuilder();
 		        bw = new BufferedWriter(new OutputStreamWriter(fs.create(_path,true)));
 				
-		        if (_rowStart == 0) {
-					// First output MM header
-					sb.append ("%%MatrixMarket matrix coordinate real general\n");
-				
-					// output number of rows, number of columns and number of nnz
-					sb.append (rows + " " + cols + " " + nnz + "\n");
-		            bw.write( sb.toString());
-		            sb.setLength(0);		            
-		        }
-		        
+		        //note: header and empty result handled by caller
 				if( _src.isInSparseFormat() ) //SPARSE
 				{			   
 					SparseRowsIterator iter = _src.getSparseRowsIterator((int)_rowStart, (int)_rowNum);
@@ -235,10 +251,7 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 					}
 				}
 				
-				//handle empty result
-				if ( !entriesWritten ) {
-			        bw.write("1 1 0\n");
-				}
+				_entriesWritten = entriesWritten;
 			}
 			catch(Exception ex)
 			{
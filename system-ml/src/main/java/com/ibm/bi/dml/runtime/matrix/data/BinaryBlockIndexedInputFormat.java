@@ -0,0 +1,122 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+
+import com.ibm.bi.dml.runtime.io.BinaryBlockIndex;
+import com.ibm.bi.dml.runtime.io.ReaderBinaryBlockIndexed;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+
+/**
+ * Input format for indexed binary block files (see BinaryBlockIndex), which
+ * produces the same (MatrixIndexes, MatrixBlock) pairs as binary block sequence 
+ * files. Files are not splittable because the block index is only available
+ * at the end of each file.
+ * 
+ */
+public class BinaryBlockIndexedInputFormat extends FileInputFormat<MatrixIndexes, MatrixBlock>
+{
+	@Override
+	public RecordReader<MatrixIndexes, MatrixBlock> getRecordReader(InputSplit split, JobConf job, Reporter reporter) 
+		throws IOException 
+	{
+		return new BinaryBlockIndexedRecordReader(job, (FileSplit) split);
+	}
+	
+	@Override
+	protected boolean isSplitable(FileSystem fs, Path filename)
+	{
+		return false;
+	}
+	
+	/**
+	 * Record reader over all blocks of a single indexed binary block file,
+	 * which reads the blocks in file order w/o seeks.
+	 * 
+	 */
+	public static class BinaryBlockIndexedRecordReader implements RecordReader<MatrixIndexes, MatrixBlock>
+	{
+		private BinaryBlockIndex _index = null;
+		private FSDataInputStream _stream = null;
+		private FastBufferedDataInputStream _in = null;
+		private int _pos = 0;
+		
+		public BinaryBlockIndexedRecordReader(JobConf job, FileSplit split) 
+			throws IOException 
+		{
+			Path path = split.getPath();
+			FileSystem fs = path.getFileSystem(job);
+			_index = ReaderBinaryBlockIndexed.readIndex(fs, path);
+			_stream = fs.open(path);
+			_stream.seek(BinaryBlockIndex.HEADER_SIZE);
+			_in = new FastBufferedDataInputStream(_stream);
+		}
+		
+		@Override
+		public boolean next(MatrixIndexes key, MatrixBlock value) 
+			throws IOException 
+		{
+			if( _pos >= _index.getNumBlocks() )
+				return false;
+			
+			key.setIndexes(_index.getRowIndex(_pos), _index.getColumnIndex(_pos));
+			value.readFields(_in);
+			_pos++;
+			return true;
+		}
+
+		@Override
+		public MatrixIndexes createKey() {
+			return new MatrixIndexes();
+		}
+
+		@Override
+		public MatrixBlock createValue() {
+			return new MatrixBlock();
+		}
+
+		@Override
+		public long getPos() throws IOException {
+			return (_pos < _index.getNumBlocks()) ? 
+				_index.getOffset(_pos) : _index.getFooterOffset();
+		}
+
+		@Override
+		public float getProgress() throws IOException {
+			return (_index.getNumBlocks()==0) ? 1 : 
+				((float)_pos) / _index.getNumBlocks();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			_in.close();
+		}
+	}
+}
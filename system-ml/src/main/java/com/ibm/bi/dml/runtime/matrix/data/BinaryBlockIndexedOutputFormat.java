@@ -0,0 +1,100 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileOutputFormat;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordWriter;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.util.Progressable;
+
+import com.ibm.bi.dml.runtime.io.BinaryBlockIndex;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+
+/**
+ * Output format for indexed binary block files (see BinaryBlockIndex), which 
+ * writes all non-empty blocks in arrival order and the block index on close. 
+ * Since the overall dimensions are unknown to the individual tasks, the meta
+ * data of each file is inferred from the extents of its blocks.
+ * 
+ */
+public class BinaryBlockIndexedOutputFormat extends FileOutputFormat<MatrixIndexes, MatrixBlock>
+{
+	@Override
+	public RecordWriter<MatrixIndexes, MatrixBlock> getRecordWriter(FileSystem ignored, JobConf job, String name, Progressable progress) 
+		throws IOException 
+	{
+		Path file = FileOutputFormat.getTaskOutputPath(job, name);
+		FileSystem fs = file.getFileSystem(job);
+		FSDataOutputStream fileOut = fs.create(file, true, job.getInt("io.file.buffer.size", 4096), progress);
+		return new BinaryBlockIndexedRecordWriter(fileOut);
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	public static class BinaryBlockIndexedRecordWriter implements RecordWriter<MatrixIndexes, MatrixBlock>
+	{
+		private FastBufferedDataOutputStream _out = null;
+		private BinaryBlockIndex _index = null;
+		private long _offset = -1;
+		
+		public BinaryBlockIndexedRecordWriter(FSDataOutputStream fstream) 
+			throws IOException
+		{
+			_out = new FastBufferedDataOutputStream(fstream);
+			_index = new BinaryBlockIndex(-1, -1, -1, -1);
+			_out.writeInt(BinaryBlockIndex.MAGIC);
+			_out.writeInt(BinaryBlockIndex.VERSION);
+			_offset = BinaryBlockIndex.HEADER_SIZE;
+		}
+		
+		@Override
+		public void write(MatrixIndexes key, MatrixBlock value) 
+			throws IOException 
+		{
+			//skip empty blocks (not contained in index)
+			if( value.isEmptyBlock(false) )
+				return;
+			
+			long len = value.getExactSizeOnDisk();
+			if( len > Integer.MAX_VALUE )
+				throw new IOException("Matrix block of size "+len+" exceeds the maximum indexed block size.");
+			
+			value.write(_out);
+			_index.addBlock(key.getRowIndex(), key.getColumnIndex(), value.getNumRows(), 
+					value.getNumColumns(), _offset, (int)len, value.getNonZeros());
+			_offset += len;
+		}
+		
+		@Override
+		public void close(Reporter reporter) 
+			throws IOException 
+		{
+			_index.write(_out, _offset);
+			_out.close();
+		}
+	}
+}
@@ -17,9 +17,10 @@
 
 package com.ibm.bi.dml.runtime.matrix.data;
 
-import java.util.HashMap;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
 
 /**
  * Ctable map is an abstraction for the hashmap used for ctable's hash group-by
@@ -27,16 +28,37 @@ import java.util.Set;
  * easier to (1) exchange the underlying data structure and (2) maintain statistics 
  * like max row/column in order to prevent scans during data conversion.
  * 
+ * The underlying data structure is an open-addressing hash table (linear probing)
+ * over primitive arrays, where the key is the packed (row,col) pair. In contrast to
+ * a HashMap<MatrixIndexes,Double>, this prevents the allocation of key and value
+ * objects per cell and autoboxing on aggregation. Row and column indexes are 1-based
+ * and limited to 32 bits, which allows us to use 0 as the empty key.
+ * 
  */
 public class CTableMap 
 {
+	//initial capacity and max load factor (power of two capacities)
+	private static final int INIT_CAPACITY = 16;
+	private static final double MAX_LOAD_FACTOR = 0.75;
+	private static final long MAX_INDEX = 0xFFFFFFFFL;
 	
-	private HashMap<MatrixIndexes, Double> _map = null;
+	private long[] _keys = null;
+	private double[] _vals = null;
+	private int _size = 0;
+	private int _shift = -1; //64 - log2(capacity)
 	private long _maxRow = -1;
 	private long _maxCol = -1;
 	
 	public CTableMap() {
-		_map = new HashMap<MatrixIndexes, Double>();
+		this(INIT_CAPACITY);
+	}
+	
+	public CTableMap(int estSize) {
+		//allocate capacity for given size w/o resize
+		int cap = INIT_CAPACITY;
+		while( cap * MAX_LOAD_FACTOR < estSize && cap < (1<<30) )
+			cap <<= 1;
+		allocate(cap);
 		_maxRow = -1;
 		_maxCol = -1;
 	}
@@ -47,17 +69,7 @@ public class CTableMap
 	 */
 	public int size() 
 	{
-		return _map.size();
-	}
-	
-	/**
-	 * 
-	 * @return
-	 */
-	@Deprecated
-	public Set<Entry<MatrixIndexes, Double>> entrySet()
-	{
-		return _map.entrySet();
+		return _size;
 	}
 	
 	/**
@@ -79,13 +91,21 @@ public class CTableMap
 	/**
 	 * 
 	 * @param row
-	 * @param key
-	 * @return
+	 * @param col
+	 * @return value of the given cell, 0 if non-existing
 	 */
 	public double get( long row, long col )
 	{
-		MatrixIndexes key = new MatrixIndexes(row, col);		
-		return _map.get(key);
+		if( row <= 0 || col <= 0 || row > MAX_INDEX || col > MAX_INDEX )
+			return 0;
+		
+		long key = toKey(row, col);
+		int mask = _keys.length - 1;
+		for( int pos = hash(key); _keys[pos] != 0; pos = (pos+1) & mask )
+			if( _keys[pos] == key )
+				return _vals[pos];
+		
+		return 0;
 	}
 	
 	/**
@@ -93,66 +113,258 @@ public class CTableMap
 	 * @param row
 	 * @param col
 	 * @param w
+	 * @throws DMLRuntimeException 
 	 */
 	public void aggregate(long row, long col, double w) 
+		throws DMLRuntimeException 
 	{
+		if( row > MAX_INDEX || col > MAX_INDEX )
+			throw new DMLRuntimeException("Ctable index ("+row+", "+col+") exceeds supported max index "+MAX_INDEX+".");
+		
 		//hash group-by for core ctable computation
-		MatrixIndexes key = new MatrixIndexes(row, col);		
-		Double oldval = _map.get(key);
-		if( oldval != null ) //existing group
-			_map.put(key, oldval+w);
-		else             //non-existing group 
-			_map.put(key, w);
+		aggregate(toKey(row, col), w);
 		
 		//maintain internal summaries 
 		_maxRow = Math.max(_maxRow, row);
 		_maxCol = Math.max(_maxCol, col);
 	}
 	
+	/**
+	 * Aggregates all cells of the given ctable map into this map, 
+	 * e.g., for merging partial results of multi-threaded ctable.
+	 * 
+	 * @param that
+	 */
+	public void merge(CTableMap that)
+	{
+		long[] keys = that._keys;
+		double[] vals = that._vals;
+		for( int i=0; i<keys.length; i++ )
+			if( keys[i] != 0 )
+				aggregate(keys[i], vals[i]);
+		
+		//maintain internal summaries 
+		_maxRow = Math.max(_maxRow, that._maxRow);
+		_maxCol = Math.max(_maxCol, that._maxCol);
+	}
+	
+	/**
+	 * Returns an iterator over all cells, where the returned entry object
+	 * is reused across calls of next().
+	 * 
+	 * @return
+	 */
+	public Iterator<LLDoubleEntry> getIterator()
+	{
+		return new CTableMapIterator();
+	}
+	
 	/**
 	 * 
 	 * @param rlen
 	 * @param clen
 	 * @return
+	 * @throws DMLRuntimeException 
 	 */
-	public MatrixBlock toMatrixBlock(int rlen, int clen)
+	public MatrixBlock toMatrixBlock(int rlen, int clen) 
+		throws DMLRuntimeException
 	{
 		//allocate new matrix block
-		int nnz = _map.size();
+		int nnz = _size;
 		boolean sparse = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz); 		
 		MatrixBlock mb = new MatrixBlock(rlen, clen, sparse, nnz);
+		if( nnz == 0 )
+			return mb;
 		
 		// copy map values into new matrix block
 		if( sparse ) //SPARSE <- cells
 		{
-			//append cells to sparse target (prevent shifting)
-			for( Entry<MatrixIndexes,Double> e : _map.entrySet() ) 
-			{
-				MatrixIndexes index = e.getKey();
-				double value = e.getValue();
-				int rix = (int)index.getRowIndex();
-				int cix = (int)index.getColumnIndex();
-				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.appendValue( rix-1, cix-1, value );
+			//count nnz per row in order to allocate exact sparse rows
+			int[] cnt = new int[rlen];
+			for( int i=0; i<_keys.length; i++ ) {
+				long key = _keys[i];
+				if( key != 0 && _vals[i] != 0 && getRow(key)<=rlen && getCol(key)<=clen )
+					cnt[(int)getRow(key)-1]++;
+			}
+			
+			//append cells directly to sparse rows (prevent shifting)
+			mb.allocateSparseRowsBlock();
+			SparseRow[] c = mb.sparseRows;
+			for( int i=0; i<rlen; i++ )
+				if( cnt[i] > 0 )
+					c[i] = new SparseRow(cnt[i]);
+			long lnnz = 0;
+			for( int i=0; i<_keys.length; i++ ) {
+				long key = _keys[i];
+				if( key != 0 && _vals[i] != 0 && getRow(key)<=rlen && getCol(key)<=clen ) {
+					c[(int)getRow(key)-1].append((int)getCol(key)-1, _vals[i]);
+					lnnz++;
+				}
 			}
 			
 			//sort sparse target representation
-			mb.sortSparseRows();
+			for( int i=0; i<rlen; i++ )
+				if( c[i] != null && c[i].size() > 1 )
+					c[i].sort();
+			mb.nonZeros = lnnz;
 		}
 		else  //DENSE <- cells
 		{
 			//directly insert cells into dense target 
-			for( Entry<MatrixIndexes,Double> e : _map.entrySet() ) 
-			{
-				MatrixIndexes index = e.getKey();
-				double value = e.getValue();
-				int rix = (int)index.getRowIndex();
-				int cix = (int)index.getColumnIndex();
-				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.quickSetValue( rix-1, cix-1, value );
+			mb.allocateDenseBlock();
+			double[] c = mb.denseBlock;
+			long lnnz = 0;
+			for( int i=0; i<_keys.length; i++ ) {
+				long key = _keys[i];
+				if( key != 0 && _vals[i] != 0 && getRow(key)<=rlen && getCol(key)<=clen ) {
+					c[(int)(getRow(key)-1)*clen + (int)getCol(key)-1] = _vals[i];
+					lnnz++;
+				}
 			}
+			mb.nonZeros = lnnz;
 		}
 		
 		return mb;
 	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @param w
+	 */
+	private void aggregate(long key, double w)
+	{
+		//probe for existing or empty slot
+		int mask = _keys.length - 1;
+		int pos = hash(key);
+		while( _keys[pos] != 0 && _keys[pos] != key )
+			pos = (pos+1) & mask;
+		
+		if( _keys[pos] == key ) { //existing group
+			_vals[pos] += w;
+		}
+		else { //non-existing group
+			_keys[pos] = key;
+			_vals[pos] = w;
+			if( ++_size > _keys.length * MAX_LOAD_FACTOR )
+				resize();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param cap
+	 */
+	private void allocate(int cap)
+	{
+		_keys = new long[cap];
+		_vals = new double[cap];
+		_shift = 64 - Integer.numberOfTrailingZeros(cap);
+		_size = 0;
+	}
+	
+	/**
+	 * Doubles the capacity and rehashes all existing cells.
+	 */
+	private void resize()
+	{
+		long[] keys = _keys;
+		double[] vals = _vals;
+		allocate(keys.length * 2);
+		
+		int mask = _keys.length - 1;
+		for( int i=0; i<keys.length; i++ )
+			if( keys[i] != 0 ) {
+				int pos = hash(keys[i]);
+				while( _keys[pos] != 0 )
+					pos = (pos+1) & mask;
+				_keys[pos] = keys[i];
+				_vals[pos] = vals[i];
+				_size++;
+			}
+	}
+	
+	/**
+	 * Fibonacci hashing of the packed key (multiplicative hashing
+	 * with the golden ratio), which spreads consecutive keys.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private int hash(long key)
+	{
+		return (int)((key * 0x9E3779B97F4A7C15L) >>> _shift);
+	}
+	
+	private static long toKey(long row, long col) {
+		return (row << 32) | col;
+	}
+	
+	private static long getRow(long key) {
+		return key >>> 32;
+	}
+	
+	private static long getCol(long key) {
+		return key & MAX_INDEX;
+	}
+	
+	/**
+	 * Reusable entry of (row, col, value) for iteration.
+	 */
+	public static class LLDoubleEntry
+	{
+		public long key1 = -1;
+		public long key2 = -1;
+		public double value = 0;
+		
+		public LLDoubleEntry() {
+			
+		}
+		
+		public LLDoubleEntry(long k1, long k2, double val) {
+			key1 = k1;
+			key2 = k2;
+			value = val;
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private class CTableMapIterator implements Iterator<LLDoubleEntry>
+	{
+		private LLDoubleEntry _entry = new LLDoubleEntry();
+		private int _pos = -1;
+		
+		protected CTableMapIterator() {
+			advance();
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return _pos < _keys.length;
+		}
+
+		@Override
+		public LLDoubleEntry next() {
+			if( !hasNext() )
+				throw new NoSuchElementException();
+			_entry.key1 = getRow(_keys[_pos]);
+			_entry.key2 = getCol(_keys[_pos]);
+			_entry.value = _vals[_pos];
+			advance();
+			return _entry;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+		
+		private void advance() {
+			_pos++;
+			while( _pos < _keys.length && _keys[_pos] == 0 )
+				_pos++;
+		}
+	}
 }
@@ -0,0 +1,243 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Segmented dense block for dense matrices beyond 2^31-1 cells, which
+ * exceed the maximum size of a single java array. The rows are split into
+ * row-aligned segments of blockSize rows, where each segment is a linearized
+ * row-major double array. Hence, a row never spans multiple segments and row
+ * i is stored at values(i)[pos(i), pos(i)+clen).
+ *
+ * Kernels over large dense blocks iterate per segment and apply their
+ * existing dense inner loops to the segment arrays.
+ *
+ */
+public class DenseBlockLarge implements Serializable
+{
+	private static final long serialVersionUID = -4012376952006079198L;
+
+	//maximum number of cells of linearized dense blocks (2^31-1 cells, i.e., 16GB),
+	//and maximum number of cells per segment (1G cells, i.e., 8GB); both are 
+	//only reduced by tests in order to cover segmented blocks at small sizes
+	public static long MAX_DENSE_SIZE = Integer.MAX_VALUE;
+	public static int MAX_SEGMENT_SIZE = 1 << 30;
+
+	private int _rlen = -1;
+	private int _clen = -1;
+	private int _blen = -1;
+	private double[][] _data = null;
+
+	/**
+	 * Allocates a zero-initialized segmented dense block.
+	 *
+	 * @param rlen
+	 * @param clen
+	 */
+	public DenseBlockLarge(int rlen, int clen)
+	{
+		_rlen = rlen;
+		_clen = clen;
+		_blen = getSegmentRows(clen);
+
+		int numSeg = (rlen + _blen - 1) / _blen;
+		_data = new double[numSeg][];
+		for( int s=0; s<numSeg; s++ ) {
+			int lrlen = Math.min(_blen, rlen - s*_blen);
+			_data[s] = new double[lrlen * clen];
+		}
+	}
+
+	/**
+	 * Indicates if a dense block of the given dimensions requires a segmented
+	 * dense block, i.e., exceeds the maximum size of a linearized dense block.
+	 *
+	 * @param rlen
+	 * @param clen
+	 * @return
+	 */
+	public static boolean isLargeDenseBlock(long rlen, long clen) {
+		return rlen * clen > MAX_DENSE_SIZE;
+	}
+
+	/**
+	 * Returns the number of rows per segment for the given number of columns.
+	 *
+	 * @param clen
+	 * @return
+	 */
+	public static int getSegmentRows(int clen) {
+		return Math.max(MAX_SEGMENT_SIZE / Math.max(clen, 1), 1);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int numRows() {
+		return _rlen;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int numCols() {
+		return _clen;
+	}
+
+	/**
+	 * Returns the number of row-aligned segments.
+	 *
+	 * @return
+	 */
+	public int numSegments() {
+		return _data.length;
+	}
+
+	/**
+	 * Returns the number of rows per segment (except the last segment).
+	 *
+	 * @return
+	 */
+	public int segmentRows() {
+		return _blen;
+	}
+
+	/**
+	 * Returns the number of rows of the given segment.
+	 *
+	 * @param seg
+	 * @return
+	 */
+	public int segmentRows(int seg) {
+		return Math.min(_blen, _rlen - seg*_blen);
+	}
+
+	/**
+	 * Returns the linearized array of the given segment.
+	 *
+	 * @param seg
+	 * @return
+	 */
+	public double[] segment(int seg) {
+		return _data[seg];
+	}
+
+	/**
+	 * Returns the linearized array of the segment that contains row r.
+	 *
+	 * @param r
+	 * @return
+	 */
+	public double[] values(int r) {
+		return _data[r / _blen];
+	}
+
+	/**
+	 * Returns the start position of row r in its segment array.
+	 *
+	 * @param r
+	 * @return
+	 */
+	public int pos(int r) {
+		return (r % _blen) * _clen;
+	}
+
+	/**
+	 *
+	 * @param r
+	 * @param c
+	 * @return
+	 */
+	public double get(int r, int c) {
+		return _data[r / _blen][(r % _blen) * _clen + c];
+	}
+
+	/**
+	 *
+	 * @param r
+	 * @param c
+	 * @param v
+	 */
+	public void set(int r, int c, double v) {
+		_data[r / _blen][(r % _blen) * _clen + c] = v;
+	}
+
+	/**
+	 * Sets all cells to the given value.
+	 *
+	 * @param v
+	 */
+	public void fill(double v) {
+		for( double[] seg : _data )
+			Arrays.fill(seg, v);
+	}
+
+	/**
+	 * Computes the number of non-zeros of all segments.
+	 *
+	 * @return
+	 */
+	public long countNonZeros()
+	{
+		long nnz = 0;
+		for( double[] seg : _data )
+			for( int i=0; i<seg.length; i++ )
+				nnz += (seg[i] != 0) ? 1 : 0;
+		return nnz;
+	}
+
+	/**
+	 * Computes the number of non-zeros in the rows [rl, ru).
+	 *
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	public long countNonZeros(int rl, int ru)
+	{
+		long nnz = 0;
+		for( int i=rl; i<ru; i++ ) {
+			double[] a = values(i);
+			for( int j=pos(i); j<pos(i)+_clen; j++ )
+				nnz += (a[j] != 0) ? 1 : 0;
+		}
+		return nnz;
+	}
+
+	/**
+	 * Estimates the in-memory size of a segmented dense block.
+	 *
+	 * @param nrows
+	 * @param ncols
+	 * @return
+	 */
+	public static long estimateSizeInMemory(long nrows, long ncols)
+	{
+		long blen = getSegmentRows((int)Math.min(ncols, Integer.MAX_VALUE));
+		long numSeg = (nrows + blen - 1) / blen;
+
+		//object header, segment array, and segments (array headers and values)
+		return 32 + (16 + 8*numSeg) + numSeg*16 + 8*nrows*ncols;
+	}
+}
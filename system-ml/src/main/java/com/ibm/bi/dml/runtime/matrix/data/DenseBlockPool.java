@@ -0,0 +1,183 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+
+/**
+ * Recycling pool of dense blocks (double arrays) of dead intermediates. In 
+ * iterative scripts, intermediates of the same size are created in every 
+ * iteration; drawing their dense blocks from this pool reduces the allocation 
+ * rate and garbage collection frequency.
+ * 
+ * The pool is bucketed by exact array length (in order to preserve the 
+ * invariant that dense blocks of a matrix block have length rlen*clen), 
+ * bounded in total size, and only softly references the pooled arrays. 
+ * Arrays are returned by the cleanup of cache objects (rmvar) if the 
+ * matrix block is exclusively owned by the cleaned up cache object.
+ * 
+ * NOTE: Allocations are lock-free, while returns and cleanups are 
+ * synchronized in order to keep the size consistent with the pool.
+ * 
+ */
+public class DenseBlockPool 
+{
+	//min size of recycled arrays (smaller arrays are cheaply allocated in tlabs)
+	public static final int MIN_SIZE = 16*1024; //128KB
+	
+	//max size of pooled arrays (fraction of max heap)
+	public static final double MAX_POOL_SIZE = 0.05;
+	
+	//max number of distinct array lengths 
+	private static final int MAX_BUCKETS = 64;
+	
+	//pooled arrays per length, and total size in bytes
+	private static final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<SoftReference<double[]>>> _pool 
+		= new ConcurrentHashMap<Integer, ConcurrentLinkedQueue<SoftReference<double[]>>>();
+	private static final AtomicLong _size = new AtomicLong(0);
+	private static final long _limit = (long)(MAX_POOL_SIZE * InfrastructureAnalyzer.getLocalMaxMemory());
+	
+	//pool statistics
+	private static final AtomicLong _numHits = new AtomicLong(0);
+	private static final AtomicLong _numMisses = new AtomicLong(0);
+	private static final AtomicLong _numRecycled = new AtomicLong(0);
+	
+	private DenseBlockPool() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Returns a 0-initialized dense block of the given length, either 
+	 * from the pool or newly allocated.
+	 * 
+	 * @param len
+	 * @return
+	 */
+	public static double[] allocate( int len )
+	{
+		if( OptimizerUtils.ALLOW_DENSE_BLOCK_RECYCLING && len >= MIN_SIZE )
+		{
+			ConcurrentLinkedQueue<SoftReference<double[]>> list = _pool.get(len);
+			SoftReference<double[]> ref = null;
+			while( list != null && (ref = list.poll()) != null ) {
+				_size.addAndGet(-8L*len);
+				double[] ret = ref.get();
+				if( ret != null ) {
+					Arrays.fill(ret, 0);
+					_numHits.incrementAndGet();
+					return ret;
+				}
+			}
+			_numMisses.incrementAndGet();
+		}
+		
+		return new double[len];
+	}
+	
+	/**
+	 * Returns the given dense block to the pool. The caller guarantees that
+	 * the array is not referenced anymore.
+	 * 
+	 * @param arr
+	 */
+	public static synchronized void recycle( double[] arr )
+	{
+		if( !OptimizerUtils.ALLOW_DENSE_BLOCK_RECYCLING 
+			|| arr == null || arr.length < MIN_SIZE )
+			return;
+		
+		//reserve pool size (cleanup if pool exhausted, incl arrays
+		//of rarely used lengths or already garbage collected arrays)
+		long size = 8L*arr.length;
+		if( size > _limit )
+			return;
+		if( _size.addAndGet(size) > _limit ) {
+			_size.addAndGet(-size);
+			clear();
+			_size.addAndGet(size);
+		}
+		
+		ConcurrentLinkedQueue<SoftReference<double[]>> list = _pool.get(arr.length);
+		if( list == null ) {
+			//cleanup if too many different lengths
+			if( _pool.size() >= MAX_BUCKETS )
+				clear();
+			_pool.putIfAbsent(arr.length, new ConcurrentLinkedQueue<SoftReference<double[]>>());
+			list = _pool.get(arr.length);
+		}
+		list.offer(new SoftReference<double[]>(arr));
+		_numRecycled.incrementAndGet();
+	}
+	
+	/**
+	 * Removes all pooled arrays.
+	 */
+	public static synchronized void clear()
+	{
+		for( Entry<Integer, ConcurrentLinkedQueue<SoftReference<double[]>>> e : _pool.entrySet() )
+			while( e.getValue().poll() != null )
+				_size.addAndGet(-8L*e.getKey());
+		_pool.clear();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static long getNumRecycled()
+	{
+		return _numRecycled.get();
+	}
+	
+	/**
+	 * Resets the pool statistics (but not the pool itself).
+	 */
+	public static void resetStatistics()
+	{
+		_numHits.set(0);
+		_numMisses.set(0);
+		_numRecycled.set(0);
+	}
+	
+	/**
+	 * Returns the pool statistics as a string of
+	 * (#hits, #misses, #recycled, pool size in MB).
+	 * 
+	 * @return
+	 */
+	public static String displayStatistics()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHits.get());
+		sb.append("/");
+		sb.append(_numMisses.get());
+		sb.append("/");
+		sb.append(_numRecycled.get());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_size.get())/1024/1024));
+		return sb.toString();
+	}
+}
@@ -73,6 +73,10 @@ public class InputInfo implements Serializable
 			//for jobs like GMR, we use CombineSequenceFileInputFormat (which requires to specify the maxsplitsize, hence not included here)
 			SequenceFileInputFormat.class, MatrixIndexes.class, MatrixBlock.class); 
 	
+	// Binary block format with block index footer (random access to blocks)
+	public static final InputInfo BinaryBlockIndexedInputInfo=new InputInfo(
+			BinaryBlockIndexedInputFormat.class, MatrixIndexes.class, MatrixBlock.class);
+	
 	// Format that denotes the input of a SORT job
 	public static final InputInfo InputInfoForSort=new InputInfo(SequenceFileInputFormat.class, 
 			DoubleWritable.class, IntWritable.class);
@@ -90,6 +94,8 @@ public class InputInfo implements Serializable
 	public static OutputInfo getMatchingOutputInfo(InputInfo ii) throws DMLRuntimeException {
 		if ( ii == InputInfo.BinaryBlockInputInfo )
 			return OutputInfo.BinaryBlockOutputInfo;
+		else if ( ii == InputInfo.BinaryBlockIndexedInputInfo )
+			return OutputInfo.BinaryBlockIndexedOutputInfo;
 		else if ( ii == InputInfo.MatrixMarketInputInfo)
 			return OutputInfo.MatrixMarketOutputInfo;
 		else if ( ii == InputInfo.BinaryCellInputInfo ) 
@@ -121,6 +127,9 @@ public class InputInfo implements Serializable
 		else if (str.equalsIgnoreCase("binaryblock")) {
 			return BinaryBlockInputInfo;
 		}
+		else if (str.equalsIgnoreCase("binaryblockidx")) {
+			return BinaryBlockIndexedInputInfo;
+		}
 		else if ( str.equalsIgnoreCase("sort_input"))
 			return InputInfoForSort;
 		else if ( str.equalsIgnoreCase("sort_output"))
@@ -141,6 +150,8 @@ public class InputInfo implements Serializable
 			return "binarycell";
 		else if ( ii == BinaryBlockInputInfo )
 			return "binaryblock";
+		else if ( ii == BinaryBlockIndexedInputInfo )
+			return "binaryblockidx";
 		else if ( ii == InputInfoForSort )
 			return "sort_input";
 		else if ( ii == InputInfoForSortOutput)
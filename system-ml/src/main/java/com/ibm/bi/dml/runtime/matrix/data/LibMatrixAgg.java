@@ -20,8 +20,6 @@ package com.ibm.bi.dml.runtime.matrix.data;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import com.ibm.bi.dml.lops.PartialAggregate.CorrectionLocationType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
@@ -40,6 +38,7 @@ import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
 import com.ibm.bi.dml.runtime.matrix.operators.AggregateOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 
 /**
@@ -107,6 +106,9 @@ public class LibMatrixAgg
 		//boolean saggVal = aggVal.isInSparseFormat(), saggCorr = aggCorr.isInSparseFormat(); 
 		//long naggVal = aggVal.getNonZeros(), naggCorr = aggCorr.getNonZeros();
 		
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//core aggregation
 		if(!in.sparse && !aggVal.sparse && !aggCorr.sparse)
 			aggregateBinaryMatrixAllDense(in, aggVal, aggCorr);
@@ -141,6 +143,9 @@ public class LibMatrixAgg
 		
 		//Timing time = new Timing(true);
 		
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//core aggregation
 		boolean lastRowCorr = (aop.correctionLocation == CorrectionLocationType.LASTROW);
 		boolean lastColCorr = (aop.correctionLocation == CorrectionLocationType.LASTCOLUMN);
@@ -180,13 +185,19 @@ public class LibMatrixAgg
 			return;
 		}	
 		
+		//materialize sparse rows for operations w/o csr support
+		if( !isSupportedCSRAggregate(aggtype, uaop.indexFn) )
+			in.csrToSparse();
+		
 		//Timing time = new Timing(true);
 		
 		//allocate output arrays (if required)
 		out.reset(m2, n2, false); //always dense
 		out.allocateDenseBlock();
 		
-		if( !in.sparse )
+		if( in.isInLargeDenseFormat() )
+			aggregateUnaryMatrixDenseLarge(in, out, aggtype, uaop.aggOp.increOp.fn, uaop.indexFn);
+		else if( !in.sparse )
 			aggregateUnaryMatrixDense(in, out, aggtype, uaop.aggOp.increOp.fn, uaop.indexFn, 0, m);
 		else
 			aggregateUnaryMatrixSparse(in, out, aggtype, uaop.aggOp.increOp.fn, uaop.indexFn, 0, m);
@@ -210,7 +221,7 @@ public class LibMatrixAgg
 		throws DMLRuntimeException
 	{
 		//fall back to sequential version if necessary
-		if( k <= 1 || !(uaop.indexFn instanceof ReduceCol) ){
+		if( k <= 1 || !(uaop.indexFn instanceof ReduceCol) || in.isInLargeDenseFormat() ){
 			aggregateUnaryMatrix(in, out, uaop);
 			return;
 		}
@@ -227,6 +238,10 @@ public class LibMatrixAgg
 			return;
 		}	
 		
+		//materialize sparse rows for operations w/o csr support
+		if( !isSupportedCSRAggregate(aggtype, uaop.indexFn) )
+			in.csrToSparse();
+		
 		//Timing time = new Timing(true);
 		
 		//allocate output arrays (if required)
@@ -236,13 +251,12 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<RowAggTask> tasks = new ArrayList<RowAggTask>();
 			int blklen = (int)(Math.ceil((double)m/k));
 			for( int i=0; i<k & i*blklen<m; i++ )
 				tasks.add(new RowAggTask(in, out, aggtype, uaop, i*blklen, Math.min((i+1)*blklen, m)));
-			pool.invokeAll(tasks);	
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 		}
 		catch(Exception ex) {
 			throw new DMLRuntimeException(ex);
@@ -277,6 +291,9 @@ public class LibMatrixAgg
 			return;
 		}	
 		
+		//materialize sparse rows (no csr support for cumulative aggregates)
+		in.csrToSparse();
+		
 		//allocate output arrays (if required)
 		out.reset(m2, n2, false); //always dense
 		out.allocateDenseBlock();
@@ -295,6 +312,20 @@ public class LibMatrixAgg
 		//System.out.println("uop ("+in.rlen+","+in.clen+","+in.sparse+") in "+time.stop()+"ms.");
 	}
 	
+	/**
+	 * Indicates if the given aggregate is directly supported over 
+	 * read-optimized csr blocks (see aggregateUnaryMatrixSparseCSR).
+	 * 
+	 * @param aggtype
+	 * @param ixFn
+	 * @return
+	 */
+	private static boolean isSupportedCSRAggregate( AggType aggtype, IndexFunction ixFn )
+	{
+		boolean ixSupported = (ixFn instanceof ReduceAll || ixFn instanceof ReduceCol || ixFn instanceof ReduceRow);
+		return ixSupported && (aggtype == AggType.KAHAN_SUM || aggtype == AggType.MIN || aggtype == AggType.MAX);
+	}
+	
 	/**
 	 * 
 	 * @param op
@@ -881,6 +912,13 @@ public class LibMatrixAgg
 		final int m = in.rlen;
 		final int n = in.clen;
 		
+		//read-optimized csr input (flat scans over all non-zeros)
+		SparseBlockCSR csr = in.getSparseBlockCSR();
+		if( csr != null && isSupportedCSRAggregate(optype, ixFn) ) {
+			aggregateUnaryMatrixSparseCSR(csr, out, optype, vFn, ixFn, m, n, rl, ru);
+			return;
+		}
+		
 		SparseRow[] a = in.getSparseRows();
 		double[] c = out.getDenseArray();
 		
@@ -974,6 +1012,86 @@ public class LibMatrixAgg
 		}
 	}
 
+	/**
+	 * Unary aggregates over segmented dense blocks (beyond 2^31-1 cells), which
+	 * process the input segment by segment, where rows never span segments.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param optype
+	 * @param vFn
+	 * @param ixFn
+	 * @throws DMLRuntimeException
+	 */
+	private static void aggregateUnaryMatrixDenseLarge(MatrixBlock in, MatrixBlock out, AggType optype, ValueFunction vFn, IndexFunction ixFn) 
+			throws DMLRuntimeException
+	{
+		final int n = in.clen;
+		DenseBlockLarge a = in.getDenseBlockLarge();
+		double[] c = out.getDenseArray();
+		
+		switch( optype )
+		{
+			case KAHAN_SUM: //SUM/ROWSUM/COLSUM via k+
+			{
+				KahanObject kbuff = new KahanObject(0, 0);
+				KahanPlus kplus = (KahanPlus)vFn;
+				for( int s=0, rl=0; s<a.numSegments(); rl+=a.segmentRows(s), s++ ) {
+					double[] avals = a.segment(s);
+					int slen = a.segmentRows(s);
+					if( ixFn instanceof ReduceAll ) // SUM (incremental over segments)
+						sum( avals, 0, slen*n, kbuff, kplus );
+					else if( ixFn instanceof ReduceCol ) //ROWSUM
+						for( int i=0, aix=0, cix=rl*2; i<slen; i++, aix+=n, cix+=2 ) {
+							kbuff.set(0, 0); //reset buffer
+							sum( avals, aix, n, kbuff, kplus );
+							c[cix+0] = kbuff._sum;
+							c[cix+1] = kbuff._correction;
+						}
+					else if( ixFn instanceof ReduceRow ) //COLSUM
+						for( int i=0, aix=0; i<slen; i++, aix+=n )
+							sumAgg( avals, c, aix, 0, n, kbuff, kplus );
+					else
+						throw new DMLRuntimeException("Unsupported index function for large dense blocks: "+ixFn);
+				}
+				if( ixFn instanceof ReduceAll ) {
+					c[0] = kbuff._sum;
+					c[1] = kbuff._correction;
+				}
+				break;
+			}
+			case MIN: 
+			case MAX: //MAX/MIN
+			{
+				double init = Double.MAX_VALUE * ((optype==AggType.MAX)?-1:1);
+				Builtin builtin = (Builtin)vFn;
+				double val = init;
+				if( ixFn instanceof ReduceRow ) //init output (base for incremental agg)
+					Arrays.fill(c, init);
+				for( int s=0, rl=0; s<a.numSegments(); rl+=a.segmentRows(s), s++ ) {
+					double[] avals = a.segment(s);
+					int slen = a.segmentRows(s);
+					if( ixFn instanceof ReduceAll ) // MIN/MAX (incremental over segments)
+						val = builtin( avals, 0, val, slen*n, builtin );
+					else if( ixFn instanceof ReduceCol ) //ROWMIN/ROWMAX
+						for( int i=0, aix=0; i<slen; i++, aix+=n )
+							c[rl+i] = builtin( avals, aix, init, n, builtin );
+					else if( ixFn instanceof ReduceRow ) //COLMIN/COLMAX
+						for( int i=0, aix=0; i<slen; i++, aix+=n )
+							builtinAgg( avals, c, aix, n, builtin );
+					else
+						throw new DMLRuntimeException("Unsupported index function for large dense blocks: "+ixFn);
+				}
+				if( ixFn instanceof ReduceAll )
+					c[0] = val;
+				break;
+			}
+			
+			default:
+				throw new DMLRuntimeException("Unsupported aggregation type for large dense blocks: "+optype);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -1343,6 +1461,191 @@ public class LibMatrixAgg
 	}
 	
 	
+	/**
+	 * 
+	 * @param a
+	 * @param out
+	 * @param optype
+	 * @param vFn
+	 * @param ixFn
+	 * @param m
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 */
+	private static void aggregateUnaryMatrixSparseCSR(SparseBlockCSR a, MatrixBlock out, AggType optype, ValueFunction vFn, IndexFunction ixFn, int m, int n, int rl, int ru) 
+	{
+		double[] c = out.getDenseArray();
+		
+		if( optype == AggType.KAHAN_SUM ) 
+		{
+			KahanObject kbuff = new KahanObject(0, 0);
+			
+			if( ixFn instanceof ReduceAll ) // SUM
+				s_uakp(a, c, m, n, kbuff, (KahanPlus)vFn);
+			else if( ixFn instanceof ReduceCol ) //ROWSUM
+				s_uarkp(a, c, m, n, kbuff, (KahanPlus)vFn, rl, ru);
+			else if( ixFn instanceof ReduceRow ) //COLSUM
+				s_uackp(a, c, m, n, kbuff, (KahanPlus)vFn);
+		}
+		else //MIN/MAX
+		{
+			double init = Double.MAX_VALUE * ((optype==AggType.MAX)?-1:1);
+			
+			if( ixFn instanceof ReduceAll ) // MIN/MAX
+				s_uamxx(a, c, m, n, init, (Builtin)vFn);
+			else if( ixFn instanceof ReduceCol ) //ROWMIN/ROWMAX
+				s_uarmxx(a, c, m, n, init, (Builtin)vFn, rl, ru);
+			else if( ixFn instanceof ReduceRow ) //COLMIN/COLMAX
+				s_uacmxx(a, c, m, n, init, (Builtin)vFn);
+		}
+	}
+	
+	/**
+	 * SUM, opcode: uak+, sparse csr input. 
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param kbuff
+	 * @param kplus
+	 */
+	private static void s_uakp( SparseBlockCSR a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus )
+	{
+		//single scan over all non-zeros
+		sum(a.values(), 0, a.size(), kbuff, kplus);
+		c[0] = kbuff._sum;
+		c[1] = kbuff._correction;	
+	}
+	
+	/**
+	 * ROWSUM, opcode: uark+, sparse csr input.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param kbuff
+	 * @param kplus
+	 * @param rl
+	 * @param ru
+	 */
+	private static void s_uarkp( SparseBlockCSR a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	{
+		double[] avals = a.values();
+		
+		//compute row aggregates
+		for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
+		{
+			int alen = a.size(i);
+			if( alen > 0 )
+			{
+				kbuff.set(0, 0); //reset buffer
+				sum( avals, a.pos(i), alen, kbuff, kplus );
+				c[cix+0] = kbuff._sum;
+				c[cix+1] = kbuff._correction;			
+			}
+		}
+	}
+	
+	/**
+	 * COLSUM, opcode: uack+, sparse csr input.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param kbuff
+	 * @param kplus
+	 */
+	private static void s_uackp( SparseBlockCSR a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus ) 
+	{
+		//init result (for empty columns)
+		Arrays.fill(c, 0); 
+		
+		//single scan over all non-zeros (row boundaries irrelevant)
+		sumAgg( a.values(), c, a.indexes(), a.size(), n, kbuff, kplus );
+	}
+	
+	/**
+	 * MIN/MAX, opcode: uamin/uamax, sparse csr input.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param init
+	 * @param builtin
+	 */
+	private static void s_uamxx( SparseBlockCSR a, double[] c, int m, int n, double init, Builtin builtin )
+	{
+		//single scan over all non-zeros
+		int nnz = a.size();
+		double ret = builtin(a.values(), 0, init, nnz, builtin);
+		
+		//correction (not sparse-safe)
+		if( (long)m * n > nnz )
+			ret = builtin.execute2(ret, 0); 
+		
+		c[0] = ret; 
+	}
+	
+	/**
+	 * ROWMIN/ROWMAX, opcode: uarmin/uarmax, sparse csr input.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param init
+	 * @param builtin
+	 * @param rl
+	 * @param ru
+	 */
+	private static void s_uarmxx( SparseBlockCSR a, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru ) 
+	{
+		double[] avals = a.values();
+		
+		for( int i=rl; i<ru; i++ )
+		{
+			int alen = a.size(i);
+			c[ i ] = builtin(avals, a.pos(i), init, alen, builtin);
+			
+			//correction (not sparse-safe)
+			if( alen < n )
+				c[ i ] = builtin.execute2(c[ i ], 0); 
+		}
+	}
+	
+	/**
+	 * COLMIN/COLMAX, opcode: uacmin/uacmax, sparse csr input.
+	 * 
+	 * @param a
+	 * @param c
+	 * @param m
+	 * @param n
+	 * @param init
+	 * @param builtin
+	 */
+	private static void s_uacmxx( SparseBlockCSR a, double[] c, int m, int n, double init, Builtin builtin ) 
+	{
+		//init output (base for incremental agg)
+		Arrays.fill(c, init);
+		
+		//init count arrays (helper, see correction)
+		int[] cnt = new int[ n ]; 
+		
+		//single scan over all non-zeros (row boundaries irrelevant)
+		builtinAgg( a.values(), c, a.indexes(), a.size(), builtin );
+		countAgg( a.values(), cnt, a.indexes(), a.size() );
+		
+		//correction (not sparse-safe)
+		for( int i=0; i<n; i++ )
+			if( cnt[i] < m ) //no dense column
+				c[i] = builtin.execute2(c[i], 0);	
+	}
+	
 	/**
 	 * SUM, opcode: uak+, sparse input. 
 	 * 
@@ -17,7 +17,11 @@
 
 package com.ibm.bi.dml.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.functionobjects.Divide;
@@ -28,6 +32,7 @@ import com.ibm.bi.dml.runtime.functionobjects.Or;
 import com.ibm.bi.dml.runtime.functionobjects.Plus;
 import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 
 /**
  * MB:
@@ -52,6 +57,10 @@ public class LibMatrixBincell
 		INVALID,
 	}
 	
+	//minimum number of cells for multi-threaded operations (2MB dense),
+	//below which the task creation overhead outweighs the parallel speedup
+	private static final long PAR_NUMCELL_THRESHOLD = 256*1024;
+	
 	private LibMatrixBincell() {
 		//prevent instantiation via private constructor
 	}
@@ -78,7 +87,9 @@ public class LibMatrixBincell
 		}
 		
 		//execute binary cell operations
-		if(op.sparseSafe)
+		if( !ret.sparse && DenseBlockLarge.isLargeDenseBlock(m1.rlen, m1.clen) )
+			bincellScalarDenseLarge(m1, ret, op);
+		else if(op.sparseSafe)
 			safeBinaryScalar(m1, ret, op);
 		else
 			unsafeBinaryScalar(m1, ret, op);
@@ -100,6 +111,10 @@ public class LibMatrixBincell
 	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		m1.csrToSparse();
+		m2.csrToSparse();
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
 			safeBinary(m1, m2, ret, op);
@@ -112,6 +127,137 @@ public class LibMatrixBincell
 			ret.examSparsity();
 	}
 	
+	/**
+	 * multi-threaded matrix-scalar, scalar-matrix binary operations.
+	 *
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k)
+		throws DMLRuntimeException
+	{
+		//fall back to sequential version if necessary
+		//(small or empty inputs, read-optimized csr inputs)
+		if(    k <= 1 || m1.isEmptyBlock(false) || m1.isInSparseCSRFormat()
+			|| (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD 
+			|| (!ret.sparse && DenseBlockLarge.isLargeDenseBlock(m1.rlen, m1.clen)) )
+		{
+			bincellOp(m1, ret, op);
+			return;
+		}
+	
+		//check internal assumptions
+		if(   (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
+			||(!op.sparseSafe && ret.isInSparseFormat()) ) {
+			throw new DMLRuntimeException("Wrong output representation for safe="+op.sparseSafe+": "+m1.isInSparseFormat()+", "+ret.isInSparseFormat());
+		}
+	
+		//allocate output (incl clear nnz)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+	
+		//core multi-threaded scalar operation over row partitions
+		//(with partial nnz per partition and final merge)
+		try {
+			final int m = m1.rlen;
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<BincellScalarTask> tasks = new ArrayList<BincellScalarTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new BincellScalarTask(m1, ret, op, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> rtasks = ComputeThreadPool.invokeAll(tasks);
+	
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : rtasks )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	
+		//ensure empty results sparse representation
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * multi-threaded matrix-matrix binary operations, MM, MV. Currently, we
+	 * parallelize over row partitions all MM/MV operations with dense output,
+	 * and sparse-safe MM operations over sparse inputs with sparse output.
+	 *
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k)
+		throws DMLRuntimeException
+	{
+		//materialize sparse rows (no csr support)
+		m1.csrToSparse();
+		m2.csrToSparse();
+	
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		boolean safe = op.sparseSafe || isSparseSafeDivide(op, m2);
+	
+		//fall back to sequential version if necessary
+		//(small inputs, early abort on empty inputs, unsupported combinations)
+		if(    k <= 1 || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD
+			|| (safe && m1.isEmptyBlock(false) && m2.isEmptyBlock(false))
+			|| (safe && op.fn instanceof Multiply && (m1.isEmptyBlock(false) || m2.isEmptyBlock(false)))
+			|| !isParallelizableBinary(m1, m2, ret, atype, safe) )
+		{
+			bincellOp(m1, m2, ret, op);
+			return;
+		}
+	
+		//allocate output (incl clear nnz)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+	
+		//prepare replicated rhs vector (shared read-only)
+		double[] bvect = (atype != BinaryAccessType.MATRIX_MATRIX) ?
+				getDenseVector(m2) : null;
+	
+		//core multi-threaded binary operation over row partitions
+		//(with partial nnz per partition and final merge)
+		try {
+			final int m = m1.rlen;
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<BincellTask> tasks = new ArrayList<BincellTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new BincellTask(m1, m2, ret, op, atype, bvect, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> rtasks = ComputeThreadPool.invokeAll(tasks);
+	
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : rtasks )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	
+		//ensure empty results sparse representation
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
 	/**
 	 * NOTE: operations in place always require m1 and m2 to be of equal dimensions
 	 * 
@@ -123,6 +269,10 @@ public class LibMatrixBincell
 	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		m1ret.csrToSparse();
+		m2.csrToSparse();
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
 			safeBinaryInPlace(m1ret, m2, op);
@@ -199,6 +349,56 @@ public class LibMatrixBincell
 		return (op.fn instanceof Divide && rhs.getNonZeros()==(long)rhs.getNumRows()*rhs.getNumColumns());
 	}
 	
+	/**
+	 *
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param atype
+	 * @param safe
+	 * @return
+	 */
+	private static boolean isParallelizableBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryAccessType atype, boolean safe)
+	{
+		//dense output: MM, MV (all input representations)
+		if( !ret.sparse )
+			return (   atype == BinaryAccessType.MATRIX_MATRIX
+					|| atype == BinaryAccessType.MATRIX_COL_VECTOR
+					|| atype == BinaryAccessType.MATRIX_ROW_VECTOR );
+	
+		//sparse output: sparse-safe MM over sparse inputs
+		return ( atype == BinaryAccessType.MATRIX_MATRIX && safe && m1.sparse && m2.sparse );
+	}
+	
+	/**
+	 * Returns a dense linearized array of the given row or column vector.
+	 *
+	 * @param vect
+	 * @return
+	 */
+	private static double[] getDenseVector(MatrixBlock vect)
+	{
+		//reuse existing dense block
+		if( !vect.sparse && vect.denseBlock != null )
+			return vect.denseBlock;
+	
+		//materialize sparse or empty vectors
+		double[] ret = new double[vect.rlen*vect.clen];
+		if( vect.sparse && vect.sparseRows != null ) {
+			SparseRow[] a = vect.sparseRows;
+			for( int i=0, ix=0; i<Math.min(vect.rlen, a.length); i++, ix+=vect.clen )
+				if( a[i] != null && !a[i].isEmpty() ) {
+					int alen = a[i].size();
+					int[] aix = a[i].getIndexContainer();
+					double[] avals = a[i].getValueContainer();
+					for( int j=0; j<alen; j++ )
+						ret[ix+aix[j]] = avals[j];
+				}
+		}
+	
+		return ret;
+	}
+	
 	//////////////////////////////////////////////////////
 	// private sparse-safe/sparse-unsafe implementations
 	///////////////////////////////////
@@ -811,7 +1011,11 @@ public class LibMatrixBincell
 		
 		boolean copyOnes = (op.fn instanceof NotEquals && op.getConstant()==0);
 		
-		if( m1.sparse ) //SPARSE <- SPARSE
+		if( m1.isInSparseCSRFormat() ) //CSR <- CSR
+		{
+			safeBinaryScalarCSR(m1, ret, op, copyOnes);
+		}
+		else if( m1.sparse ) //SPARSE <- SPARSE
 		{	
 			//allocate sparse row structure
 			ret.allocateSparseRowsBlock();
@@ -871,6 +1075,105 @@ public class LibMatrixBincell
 		
 	}
 	
+	/**
+	 * Sparse-safe scalar operation over a read-optimized csr input, which 
+	 * directly produces a csr output via single scans over the flat arrays.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param copyOnes
+	 * @throws DMLRuntimeException
+	 */
+	private static void safeBinaryScalarCSR(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, boolean copyOnes)
+		throws DMLRuntimeException
+	{
+		SparseBlockCSR a = m1.getSparseBlockCSR();
+		int m = m1.rlen;
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		
+		//allocate output csr arrays (upper bound nnz)
+		int[] crowptr = new int[m+1];
+		int[] cix = new int[a.size()];
+		double[] cvals = new double[a.size()];
+		
+		//compute scalar operation, incl compaction of zero results
+		int cpos = 0;
+		for( int i=0; i<m; i++ ) {
+			crowptr[i] = cpos;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			for( int j=apos; j<apos+alen; j++ ) {
+				double val = copyOnes ? ((avals[j]!=0) ? 1 : 0) : op.executeScalar(avals[j]);
+				if( val != 0 ) {
+					cix[cpos] = aix[j];
+					cvals[cpos] = val;
+					cpos++;
+				}
+			}
+		}
+		crowptr[m] = cpos;
+		
+		ret.cleanupBlock(true, true);
+		ret.sparseBlockCSR = new SparseBlockCSR(m, crowptr, cix, cvals);
+		ret.nonZeros = cpos;
+	}
+	
+	/**
+	 * Matrix-scalar operation with segmented dense output (beyond 2^31-1 cells),
+	 * which processes the dense input or output segment by segment.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	private static void bincellScalarDenseLarge(MatrixBlock m1, MatrixBlock ret, ScalarOperator op)
+		throws DMLRuntimeException
+	{
+		ret.allocateDenseBlock();
+		DenseBlockLarge c = ret.getDenseBlockLarge();
+		long nnz = 0;
+		
+		if( m1.isInLargeDenseFormat() ) //DENSE <- DENSE
+		{
+			DenseBlockLarge a = m1.getDenseBlockLarge();
+			for( int s=0; s<a.numSegments(); s++ ) {
+				double[] avals = a.segment(s);
+				double[] cvals = c.segment(s);
+				for( int i=0; i<avals.length; i++ ) {
+					cvals[i] = op.executeScalar( avals[i] );
+					nnz += (cvals[i] != 0) ? 1 : 0;
+				}
+			}
+		}
+		else //DENSE <- SPARSE/EMPTY (sparse-unsafe)
+		{
+			//init dense result with unsafe 0-value
+			c.fill(op.executeScalar(0));
+			
+			//compute non-zero input values
+			m1.csrToSparse();
+			SparseRow[] a = m1.sparseRows;
+			if( m1.sparse && a != null )
+				for( int i=0; i<Math.min(m1.rlen, a.length); i++ ) {
+					if( a[i]==null || a[i].isEmpty() )
+						continue;
+					int alen = a[i].size();
+					int[] aix = a[i].getIndexContainer();
+					double[] avals = a[i].getValueContainer();
+					double[] cvals = c.values(i);
+					int cix = c.pos(i);
+					for( int j=0; j<alen; j++ )
+						cvals[cix+aix[j]] = op.executeScalar(avals[j]);
+				}
+			nnz = c.countNonZeros();
+		}
+		
+		ret.nonZeros = nnz;
+	}
+	
 	/**
 	 * Since this operation is sparse-unsafe, ret should always be passed in dense representation.
 	 * 
@@ -909,7 +1212,19 @@ public class LibMatrixBincell
 			Arrays.fill(c, cval0);
 			
 			//compute non-zero input values
-			for(int i=0, cix=0; i<m; i++, cix+=n) 
+			SparseBlockCSR csr = m1.getSparseBlockCSR();
+			if( csr != null ) //read-optimized csr input
+			{
+				int[] aix = csr.indexes();
+				double[] avals = csr.values();
+				for(int i=0, cix=0; i<m; i++, cix+=n) {
+					int apos = csr.pos(i);
+					int alen = csr.size(i);
+					for(int j=apos; j<apos+alen; j++)
+						c[ cix+aix[j] ] = op.executeScalar(avals[j]);
+				}
+			}
+			else for(int i=0, cix=0; i<m; i++, cix+=n) 
 			{
 				if( a[i]!=null && !a[i].isEmpty() )
 				{
@@ -1113,6 +1428,273 @@ public class LibMatrixBincell
 		}
 	}
 	
+	//////////////////////////////////////////////////////
+	// multi-threaded row-partition implementations
+	///////////////////////////////////
+	
+	/**
+	 * Matrix-scalar operation over the row partition [rl, ru), which returns
+	 * the number of non-zeros in this partition.
+	 *
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = m1.clen;
+		long nnz = 0;
+	
+		if( m1.sparse && ret.sparse ) //SPARSE <- SPARSE (sparse-safe)
+		{
+			boolean copyOnes = (op.fn instanceof NotEquals && op.getConstant()==0);
+			SparseRow[] a = m1.sparseRows;
+			SparseRow[] c = ret.sparseRows;
+	
+			for( int i=rl; i<Math.min(ru, a.length); i++ ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+	
+				//create sparse row w/o repeated resizing (append ignores zeros)
+				SparseRow crow = new SparseRow(alen);
+				for( int j=0; j<alen; j++ ) {
+					double val = copyOnes ? ((avals[j]!=0) ? 1 : 0) : op.executeScalar(avals[j]);
+					crow.append(aix[j], val);
+				}
+				c[i] = crow;
+				nnz += crow.size();
+			}
+		}
+		else if( m1.sparse ) //DENSE <- SPARSE (sparse-unsafe)
+		{
+			SparseRow[] a = m1.sparseRows;
+			double[] c = ret.denseBlock;
+	
+			//init dense result with unsafe 0-value
+			Arrays.fill(c, rl*n, ru*n, op.executeScalar(0));
+	
+			//compute non-zero input values
+			for( int i=rl, cix=rl*n; i<Math.min(ru, a.length); i++, cix+=n ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				for( int j=0; j<alen; j++ )
+					c[cix+aix[j]] = op.executeScalar(avals[j]);
+			}
+	
+			nnz = countNonZeros(c, rl*n, ru*n);
+		}
+		else //DENSE <- DENSE
+		{
+			double[] a = m1.denseBlock;
+			double[] c = ret.denseBlock;
+	
+			for( int i=rl*n; i<ru*n; i++ ) {
+				c[i] = op.executeScalar( a[i] );
+				if( c[i] != 0 )
+					nnz++;
+			}
+		}
+	
+		return nnz;
+	}
+	
+	/**
+	 * Matrix-matrix operation over the row partition [rl, ru), which returns
+	 * the number of non-zeros in this partition.
+	 *
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param atype
+	 * @param bvect
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincell(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op,
+			BinaryAccessType atype, double[] bvect, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		if( ret.sparse ) //SPARSE <- SPARSE, SPARSE
+			return bincellSparseSparse(m1, m2, ret, op, rl, ru);
+		else //DENSE <- ANY, ANY
+			return bincellDense(m1, m2, ret, op, atype, bvect, rl, ru);
+	}
+	
+	/**
+	 *
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param atype
+	 * @param bvect
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op,
+			BinaryAccessType atype, double[] bvect, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = ret.clen;
+		double[] a = m1.denseBlock;
+		double[] b = m2.denseBlock;
+		double[] c = ret.denseBlock;
+	
+		//temporary row buffer for sparse or empty rhs matrices
+		boolean denseRight = (!m2.sparse && b != null);
+		double[] tmp = (atype == BinaryAccessType.MATRIX_MATRIX && !denseRight) ? new double[n] : null;
+		long nnz = 0;
+	
+		for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
+		{
+			//1) process left input: copy/scatter row into output
+			if( m1.sparse ) {
+				Arrays.fill(c, ix, ix+n, 0);
+				SparseRow arow = (m1.sparseRows!=null && i<m1.sparseRows.length) ? m1.sparseRows[i] : null;
+				if( arow != null && !arow.isEmpty() ) {
+					int alen = arow.size();
+					int[] aix = arow.getIndexContainer();
+					double[] avals = arow.getValueContainer();
+					for( int j=0; j<alen; j++ )
+						c[ix+aix[j]] = avals[j];
+				}
+			}
+			else if( a != null )
+				System.arraycopy(a, ix, c, ix, n);
+			else
+				Arrays.fill(c, ix, ix+n, 0);
+	
+			//2) process right input: op.fn over entire row
+			if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) {
+				double v2 = bvect[i]; //replicated vector value
+				for( int j=ix; j<ix+n; j++ )
+					c[j] = op.fn.execute(c[j], v2);
+			}
+			else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR ) {
+				for( int j=0; j<n; j++ )
+					c[ix+j] = op.fn.execute(c[ix+j], bvect[j]);
+			}
+			else if( denseRight ) { //DENSE right
+				for( int j=ix; j<ix+n; j++ )
+					c[j] = op.fn.execute(c[j], b[j]);
+			}
+			else { //SPARSE/EMPTY right
+				SparseRow brow = (m2.sparse && m2.sparseRows!=null && i<m2.sparseRows.length) ? m2.sparseRows[i] : null;
+				boolean nonEmpty = (brow != null && !brow.isEmpty());
+				int blen = nonEmpty ? brow.size() : 0;
+				int[] bix = nonEmpty ? brow.getIndexContainer() : null;
+				double[] bvals = nonEmpty ? brow.getValueContainer() : null;
+				for( int j=0; j<blen; j++ )
+					tmp[bix[j]] = bvals[j];
+				for( int j=0; j<n; j++ )
+					c[ix+j] = op.fn.execute(c[ix+j], tmp[j]);
+				for( int j=0; j<blen; j++ )
+					tmp[bix[j]] = 0;
+			}
+	
+			//3) maintain partial nnz
+			nnz += countNonZeros(c, ix, ix+n);
+		}
+	
+		return nnz;
+	}
+	
+	/**
+	 *
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		SparseRow[] a = m1.sparseRows;
+		SparseRow[] b = m2.sparseRows;
+		SparseRow[] c = ret.sparseRows;
+		long nnz = 0;
+	
+		for( int i=rl; i<ru; i++ )
+		{
+			SparseRow arow = (a!=null && i<a.length && a[i]!=null && !a[i].isEmpty()) ? a[i] : null;
+			SparseRow brow = (b!=null && i<b.length && b[i]!=null && !b[i].isEmpty()) ? b[i] : null;
+			if( arow==null && brow==null )
+				continue;
+	
+			int alen = (arow!=null) ? arow.size() : 0;
+			int[] aix = (arow!=null) ? arow.getIndexContainer() : null;
+			double[] avals = (arow!=null) ? arow.getValueContainer() : null;
+			int blen = (brow!=null) ? brow.size() : 0;
+			int[] bix = (brow!=null) ? brow.getIndexContainer() : null;
+			double[] bvals = (brow!=null) ? brow.getValueContainer() : null;
+	
+			//merge both rows into a new sparse row (append ignores zeros),
+			//which prevents the non-thread-safe nnz maintenance of appendValue
+			SparseRow crow = new SparseRow(Math.min(alen+blen, ret.clen));
+			int p1 = 0, p2 = 0;
+			while( p1<alen && p2<blen ) {
+				if( aix[p1] < bix[p2] ) {
+					crow.append(aix[p1], op.fn.execute(avals[p1], 0));
+					p1++;
+				}
+				else if( aix[p1] == bix[p2] ) {
+					crow.append(aix[p1], op.fn.execute(avals[p1], bvals[p2]));
+					p1++;
+					p2++;
+				}
+				else {
+					crow.append(bix[p2], op.fn.execute(0, bvals[p2]));
+					p2++;
+				}
+			}
+			for( ; p1<alen; p1++ )
+				crow.append(aix[p1], op.fn.execute(avals[p1], 0));
+			for( ; p2<blen; p2++ )
+				crow.append(bix[p2], op.fn.execute(0, bvals[p2]));
+	
+			c[i] = crow;
+			nnz += crow.size();
+		}
+	
+		return nnz;
+	}
+	
+	/**
+	 *
+	 * @param a
+	 * @param ai
+	 * @param aend
+	 * @return
+	 */
+	private static long countNonZeros(double[] a, int ai, int aend)
+	{
+		long nnz = 0;
+		for( int i=ai; i<aend; i++ )
+			if( a[i] != 0 )
+				nnz++;
+		return nnz;
+	}
+	
 	/**
 	 * * like a merge sort
 	 * 
@@ -1205,5 +1787,70 @@ public class LibMatrixBincell
 		}
 	}
 	
+	/////////////////////////////////////////////////////////
+	// Task Implementations for Multi-Threaded Operations  //
+	/////////////////////////////////////////////////////////
+	
+	/**
+	 *
+	 *
+	 */
+	private static class BincellScalarTask implements Callable<Long>
+	{
+		private MatrixBlock _m1  = null;
+		private MatrixBlock _ret = null;
+		private ScalarOperator _op = null;
+		private int _rl = -1;
+		private int _ru = -1;
+	
+		protected BincellScalarTask( MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru )
+		{
+			_m1 = m1;
+			_ret = ret;
+			_op = op;
+			_rl = rl;
+			_ru = ru;
+		}
+	
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			return bincellScalar(_m1, _ret, _op, _rl, _ru);
+		}
+	}
+	
+	/**
+	 *
+	 *
+	 */
+	private static class BincellTask implements Callable<Long>
+	{
+		private MatrixBlock _m1  = null;
+		private MatrixBlock _m2  = null;
+		private MatrixBlock _ret = null;
+		private BinaryOperator _op = null;
+		private BinaryAccessType _atype = null;
+		private double[] _bvect = null;
+		private int _rl = -1;
+		private int _ru = -1;
+	
+		protected BincellTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op,
+				BinaryAccessType atype, double[] bvect, int rl, int ru )
+		{
+			_m1 = m1;
+			_m2 = m2;
+			_ret = ret;
+			_op = op;
+			_atype = atype;
+			_bvect = bvect;
+			_rl = rl;
+			_ru = ru;
+		}
+	
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			return bincell(_m1, _m2, _ret, _op, _atype, _bvect, _rl, _ru);
+		}
+	}
 }
-
@@ -0,0 +1,665 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.Divide;
+import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
+import com.ibm.bi.dml.runtime.functionobjects.Minus;
+import com.ibm.bi.dml.runtime.functionobjects.Multiply;
+import com.ibm.bi.dml.runtime.functionobjects.Plus;
+import com.ibm.bi.dml.runtime.functionobjects.Power;
+import com.ibm.bi.dml.runtime.functionobjects.ValueFunction;
+import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
+import com.ibm.bi.dml.runtime.matrix.operators.FusedCellwiseOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.FusedCellwiseOperator.AggType;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+
+/**
+ * Library for fused cellwise operations, i.e., DAGs of cell-wise binary and
+ * unary operations over equal-sized matrices and scalars with an optional
+ * final sum, rowSums, or colSums. The fused expression is evaluated over row
+ * blocks of at most BLOCKSIZE cells with reused stack buffers, which prevents
+ * the materialization of intermediates of the size of the inputs.
+ *
+ * If the expression is sparse-safe w.r.t. a sparse input (i.e., the result is
+ * zero wherever this input is zero), the sparsest such input drives the
+ * evaluation, which is then only performed over its non-zero cells.
+ */
+public class LibMatrixFusedCellwise
+{
+	//number of cells per evaluation block (L1-cache-conscious stack buffers)
+	private static final int BLOCKSIZE = 1024;
+
+	//minimum number of cells for multi-threaded operations
+	private static final long PAR_NUMCELL_THRESHOLD = 64*1024;
+
+	private LibMatrixFusedCellwise() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Executes the fused cellwise operation over the given inputs, where
+	 * scalar inputs are given by null matrix blocks and their value in the
+	 * scalars array. The result is a matrix block of dimensions 1x1 (sum),
+	 * mx1 (rowSums), 1xn (colSums), or mxn (no aggregation).
+	 *
+	 * @param in
+	 * @param scalars
+	 * @param op
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock fusedCellwise(MatrixBlock[] in, double[] scalars, FusedCellwiseOperator op)
+		throws DMLRuntimeException
+	{
+		//check input dimensions and materialize sparse rows (no csr support)
+		int m = -1, n = -1;
+		for( MatrixBlock mb : in ) {
+			if( mb == null )
+				continue;
+			if( m < 0 ) {
+				m = mb.getNumRows();
+				n = mb.getNumColumns();
+			}
+			else if( mb.getNumRows() != m || mb.getNumColumns() != n )
+				throw new DMLRuntimeException("Fused cellwise operation requires inputs of equal dimensions: "
+						+ m + "x" + n + " vs " + mb.getNumRows() + "x" + mb.getNumColumns());
+			if( mb.isInLargeDenseFormat() )
+				throw new DMLRuntimeException("Fused cellwise operation does not support large dense blocks.");
+			mb.csrToSparse();
+		}
+		if( m < 0 )
+			throw new DMLRuntimeException("Fused cellwise operation requires at least one matrix input.");
+
+		//determine sparse-safe driver input (-1 if unsafe)
+		long mask = getSparseSafeMask(in, scalars, op);
+		boolean emptyResult = false;
+		int driver = -1;
+		for( int i=0; i<in.length; i++ )
+			if( (mask & (1L<<i)) != 0 ) {
+				emptyResult |= in[i].isEmptyBlock(false);
+				if( in[i].isInSparseFormat() && (driver < 0 || in[i].getNonZeros() < in[driver].getNonZeros()) )
+					driver = i;
+			}
+
+		//allocate output and temporary aggregation buffer
+		AggType atype = op.getAggType();
+		MatrixBlock ret = null;
+		switch( atype ) {
+			case NONE:    ret = new MatrixBlock(m, n, driver>=0); break;
+			case SUM:     ret = new MatrixBlock(1, 1, false); break;
+			case ROW_SUM: ret = new MatrixBlock(m, 1, false); break;
+			case COL_SUM: ret = new MatrixBlock(1, n, false); break;
+		}
+
+		//early abort for results that are known to be empty
+		if( emptyResult )
+			return ret;
+
+		if( ret.isInSparseFormat() )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		int alen = (atype==AggType.SUM) ? 1 : (atype==AggType.COL_SUM) ? n : 0;
+
+		//core fused cellwise operation (sequential or multi-threaded over row partitions)
+		int k = op.getNumThreads();
+		if( k <= 1 || m <= 1 || (long)m*n < PAR_NUMCELL_THRESHOLD )
+		{
+			double[] agg = new double[2*alen];
+			ret.nonZeros = fusedCellwise(in, scalars, op, driver, ret, agg, 0, m);
+			mergeAggregate(ret, agg, alen, null);
+		}
+		else
+		{
+			try {
+				k = ComputeThreadPool.getMaxParallelism(k);
+				ArrayList<FusedCellwiseTask> tasks = new ArrayList<FusedCellwiseTask>();
+				int blklen = (int)(Math.ceil((double)m/k));
+				for( int i=0; i<k & i*blklen<m; i++ )
+					tasks.add(new FusedCellwiseTask(in, scalars, op, driver, ret, new double[2*alen], i*blklen, Math.min((i+1)*blklen, m)));
+				List<Future<Long>> rtasks = ComputeThreadPool.invokeAll(tasks);
+
+				//aggregate partial nnz and partial aggregates
+				long nnz = 0;
+				for( Future<Long> task : rtasks )
+					nnz += task.get();
+				ret.nonZeros = nnz;
+				mergeAggregate(ret, null, alen, tasks);
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+
+		//ensure correct output representation
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	/**
+	 * Computes the bitmask of inputs w.r.t. which the fused expression is
+	 * sparse-safe, i.e., the result is zero if any of these inputs is zero.
+	 * Since scalars are known at runtime, this includes scalar-dependent
+	 * cases such as X/s with s!=0 or X^s with s>0.
+	 *
+	 * @param in
+	 * @param scalars
+	 * @param op
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long getSparseSafeMask(MatrixBlock[] in, double[] scalars, FusedCellwiseOperator op)
+		throws DMLRuntimeException
+	{
+		//no sparse-safe analysis beyond 64 inputs
+		if( in.length > 64 )
+			return 0;
+
+		final int slen = op.getStackSize();
+		long[] mask = new long[slen];
+		boolean[] scalar = new boolean[slen];
+		double[] sval = new double[slen];
+		int sp = 0;
+
+		for( int p=0; p<op.getNumSteps(); p++ )
+		{
+			switch( op.getStepType(p) )
+			{
+				case INPUT: {
+					int pos = op.getStepInput(p);
+					scalar[sp] = (in[pos] == null);
+					sval[sp] = scalar[sp] ? scalars[pos] : 0;
+					mask[sp] = scalar[sp] ? 0 : (1L<<pos);
+					sp++;
+					break;
+				}
+				case BINARY: {
+					ValueFunction fn = op.getStepFunction(p);
+					long ml = mask[sp-2], mr = mask[sp-1];
+					boolean sl = scalar[sp-2], sr = scalar[sp-1];
+					double vl = sval[sp-2], vr = sval[sp-1];
+					long ret = 0;
+					if( fn instanceof Multiply )
+						ret = ml | mr;
+					else if( fn instanceof Plus || fn instanceof Minus )
+						ret = sl ? ((vl==0) ? mr : 0) : sr ? ((vr==0) ? ml : 0) : ml & mr;
+					else if( fn instanceof Divide )
+						ret = (sr && vr!=0) ? ml : 0;
+					else if( fn instanceof Power )
+						ret = (sr && vr>0) ? ml : 0;
+					sp--;
+					scalar[sp-1] = sl && sr;
+					sval[sp-1] = (sl && sr) ? fn.execute(vl, vr) : 0;
+					mask[sp-1] = ret;
+					break;
+				}
+				case UNARY: {
+					ValueFunction fn = op.getStepFunction(p);
+					if( !new UnaryOperator(fn).sparseSafe )
+						mask[sp-1] = 0;
+					if( scalar[sp-1] )
+						sval[sp-1] = fn.execute(sval[sp-1]);
+					break;
+				}
+			}
+		}
+
+		return mask[0];
+	}
+
+	/**
+	 * Fused cellwise operation over the row partition [rl, ru), which returns
+	 * the number of non-zeros in this partition (without aggregation or for
+	 * rowSums) and writes sum and colSums partial aggregates into agg (values
+	 * and corrections).
+	 *
+	 * @param in
+	 * @param scalars
+	 * @param op
+	 * @param driver
+	 * @param ret
+	 * @param agg
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long fusedCellwise(MatrixBlock[] in, double[] scalars, FusedCellwiseOperator op,
+			int driver, MatrixBlock ret, double[] agg, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = in[ (driver>=0) ? driver : getFirstMatrixInput(in) ].getNumColumns();
+		final int blen = Math.max(BLOCKSIZE, n);
+
+		//allocate stack and input buffers (reused across blocks)
+		double[][] buff = new double[op.getStackSize()][blen];
+		double[][] ref = new double[op.getStackSize()][];
+		int[] off = new int[op.getStackSize()];
+		double[][] inBuff = new double[in.length][];
+		double[][] inRef = new double[in.length][];
+		int[] inOff = new int[in.length];
+		for( int i=0; i<in.length; i++ )
+			if( in[i] == null ) { //scalars as replicated constants
+				inBuff[i] = new double[blen];
+				Arrays.fill(inBuff[i], scalars[i]);
+				inRef[i] = inBuff[i];
+			}
+			else if( in[i].isInSparseFormat() || in[i].denseBlock == null )
+				inBuff[i] = new double[blen];
+
+		if( driver >= 0 )
+			return fusedCellwiseSparseDriver(in, op, driver, ret, agg, buff, ref, off, inBuff, inRef, inOff, rl, ru);
+		else
+			return fusedCellwiseDense(in, op, ret, agg, buff, ref, off, inBuff, inRef, inOff, rl, ru);
+	}
+
+	/**
+	 * Sparse-unsafe evaluation over row blocks of all cells.
+	 *
+	 * @param in
+	 * @param op
+	 * @param ret
+	 * @param agg
+	 * @param buff
+	 * @param ref
+	 * @param off
+	 * @param inBuff
+	 * @param inRef
+	 * @param inOff
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long fusedCellwiseDense(MatrixBlock[] in, FusedCellwiseOperator op, MatrixBlock ret, double[] agg,
+			double[][] buff, double[][] ref, int[] off, double[][] inBuff, double[][] inRef, int[] inOff, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = in[getFirstMatrixInput(in)].getNumColumns();
+		final int bn = Math.max(BLOCKSIZE / n, 1);
+		final AggType atype = op.getAggType();
+		double[] c = ret.denseBlock;
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		long nnz = 0;
+
+		for( int bi=rl; bi<ru; bi+=bn )
+		{
+			final int bimin = Math.min(ru, bi+bn);
+			final int len = (bimin-bi) * n;
+
+			//prepare inputs of row block (dense: reference, sparse: scatter)
+			for( int p=0; p<in.length; p++ ) {
+				MatrixBlock mb = in[p];
+				if( mb == null )
+					continue;
+				if( !mb.sparse && mb.denseBlock != null ) {
+					inRef[p] = mb.denseBlock;
+					inOff[p] = bi * n;
+				}
+				else {
+					double[] b = inBuff[p];
+					Arrays.fill(b, 0, len, 0);
+					SparseRow[] brows = mb.sparse ? mb.sparseRows : null;
+					for( int i=bi, boff=0; brows!=null && i<Math.min(bimin, brows.length); i++, boff+=n ) {
+						if( brows[i]==null || brows[i].isEmpty() )
+							continue;
+						int blen = brows[i].size();
+						int[] bix = brows[i].getIndexContainer();
+						double[] bvals = brows[i].getValueContainer();
+						for( int j=0; j<blen; j++ )
+							b[boff+bix[j]] = bvals[j];
+					}
+					inRef[p] = b;
+					inOff[p] = 0;
+				}
+			}
+
+			//evaluate fused expression for all cells of row block
+			double[] r = evalProgram(op, inRef, inOff, buff, ref, off, len);
+			int rix = off[0];
+
+			//write output or aggregate
+			switch( atype ) {
+				case NONE:
+					System.arraycopy(r, rix, c, bi*n, len);
+					for( int j=0; j<len; j++ )
+						nnz += (r[rix+j]!=0) ? 1 : 0;
+					break;
+				case SUM:
+					kbuff.set(agg[0], agg[1]);
+					for( int j=0; j<len; j++ )
+						kplus.execute2(kbuff, r[rix+j]);
+					agg[0] = kbuff._sum;
+					agg[1] = kbuff._correction;
+					break;
+				case ROW_SUM:
+					for( int i=bi; i<bimin; i++, rix+=n ) {
+						kbuff.set(0, 0);
+						for( int j=0; j<n; j++ )
+							kplus.execute2(kbuff, r[rix+j]);
+						c[i] = kbuff._sum;
+						nnz += (c[i]!=0) ? 1 : 0;
+					}
+					break;
+				case COL_SUM:
+					for( int i=bi; i<bimin; i++, rix+=n )
+						for( int j=0; j<n; j++ ) {
+							kbuff.set(agg[j], agg[n+j]);
+							kplus.execute2(kbuff, r[rix+j]);
+							agg[j] = kbuff._sum;
+							agg[n+j] = kbuff._correction;
+						}
+					break;
+			}
+		}
+
+		return nnz;
+	}
+
+	/**
+	 * Sparse-safe evaluation over the non-zero cells of the sparse driver input.
+	 *
+	 * @param in
+	 * @param op
+	 * @param driver
+	 * @param ret
+	 * @param agg
+	 * @param buff
+	 * @param ref
+	 * @param off
+	 * @param inBuff
+	 * @param inRef
+	 * @param inOff
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long fusedCellwiseSparseDriver(MatrixBlock[] in, FusedCellwiseOperator op, int driver, MatrixBlock ret, double[] agg,
+			double[][] buff, double[][] ref, int[] off, double[][] inBuff, double[][] inRef, int[] inOff, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = in[driver].getNumColumns();
+		final AggType atype = op.getAggType();
+		SparseRow[] a = in[driver].sparseRows;
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		double[] tmp = null;
+		long nnz = 0;
+
+		for( int i=rl; a!=null && i<Math.min(ru, a.length); i++ )
+		{
+			if( a[i]==null || a[i].isEmpty() )
+				continue;
+			int alen = a[i].size();
+			int[] aix = a[i].getIndexContainer();
+			double[] avals = a[i].getValueContainer();
+
+			//gather inputs at the non-zero positions of the driver row
+			for( int p=0; p<in.length; p++ ) {
+				MatrixBlock mb = in[p];
+				if( mb == null )
+					continue;
+				if( p == driver ) {
+					inRef[p] = avals;
+					inOff[p] = 0;
+					continue;
+				}
+				double[] b = inBuff[p];
+				if( !mb.sparse && mb.denseBlock != null ) {
+					double[] bvals = mb.denseBlock;
+					for( int j=0, bix=i*n; j<alen; j++ )
+						b[j] = bvals[bix+aix[j]];
+				}
+				else if( mb.sparse && mb.sparseRows!=null && i<mb.sparseRows.length
+					&& mb.sparseRows[i]!=null && !mb.sparseRows[i].isEmpty() )
+				{
+					//scatter sparse row into temporary dense row, gather, and reset
+					SparseRow brow = mb.sparseRows[i];
+					int blen = brow.size();
+					int[] bix = brow.getIndexContainer();
+					double[] bvals = brow.getValueContainer();
+					tmp = (tmp != null) ? tmp : new double[n];
+					for( int j=0; j<blen; j++ )
+						tmp[bix[j]] = bvals[j];
+					for( int j=0; j<alen; j++ )
+						b[j] = tmp[aix[j]];
+					for( int j=0; j<blen; j++ )
+						tmp[bix[j]] = 0;
+				}
+				else
+					Arrays.fill(b, 0, alen, 0);
+				inRef[p] = b;
+				inOff[p] = 0;
+			}
+
+			//evaluate fused expression for all non-zero cells of driver row
+			double[] r = evalProgram(op, inRef, inOff, buff, ref, off, alen);
+			int rix = off[0];
+
+			//write output or aggregate
+			switch( atype ) {
+				case NONE: {
+					//create sparse row w/o repeated resizing (append ignores zeros)
+					SparseRow crow = new SparseRow(alen);
+					for( int j=0; j<alen; j++ )
+						crow.append(aix[j], r[rix+j]);
+					ret.sparseRows[i] = crow;
+					nnz += crow.size();
+					break;
+				}
+				case SUM:
+					kbuff.set(agg[0], agg[1]);
+					for( int j=0; j<alen; j++ )
+						kplus.execute2(kbuff, r[rix+j]);
+					agg[0] = kbuff._sum;
+					agg[1] = kbuff._correction;
+					break;
+				case ROW_SUM:
+					kbuff.set(0, 0);
+					for( int j=0; j<alen; j++ )
+						kplus.execute2(kbuff, r[rix+j]);
+					ret.denseBlock[i] = kbuff._sum;
+					nnz += (kbuff._sum!=0) ? 1 : 0;
+					break;
+				case COL_SUM:
+					for( int j=0; j<alen; j++ ) {
+						kbuff.set(agg[aix[j]], agg[n+aix[j]]);
+						kplus.execute2(kbuff, r[rix+j]);
+						agg[aix[j]] = kbuff._sum;
+						agg[n+aix[j]] = kbuff._correction;
+					}
+					break;
+			}
+		}
+
+		return nnz;
+	}
+
+	/**
+	 * Evaluates the postfix program of the fused expression over len cells,
+	 * where inputs are referenced by inRef/inOff. Intermediates are written to
+	 * the stack buffers, and dense inputs are referenced without copying. The
+	 * result is returned as array with its start offset given by off[0].
+	 *
+	 * @param op
+	 * @param inRef
+	 * @param inOff
+	 * @param buff
+	 * @param ref
+	 * @param off
+	 * @param len
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static double[] evalProgram(FusedCellwiseOperator op, double[][] inRef, int[] inOff,
+			double[][] buff, double[][] ref, int[] off, int len)
+		throws DMLRuntimeException
+	{
+		int sp = 0;
+
+		for( int p=0; p<op.getNumSteps(); p++ )
+		{
+			switch( op.getStepType(p) )
+			{
+				case INPUT: {
+					int pos = op.getStepInput(p);
+					ref[sp] = inRef[pos];
+					off[sp] = inOff[pos];
+					sp++;
+					break;
+				}
+				case BINARY: {
+					ValueFunction fn = op.getStepFunction(p);
+					double[] a = ref[sp-2], b = ref[sp-1];
+					int ai = off[sp-2], bi = off[sp-1];
+					double[] c = buff[sp-2];
+					for( int j=0; j<len; j++ )
+						c[j] = fn.execute(a[ai+j], b[bi+j]);
+					ref[sp-2] = c;
+					off[sp-2] = 0;
+					sp--;
+					break;
+				}
+				case UNARY: {
+					ValueFunction fn = op.getStepFunction(p);
+					double[] a = ref[sp-1];
+					int ai = off[sp-1];
+					double[] c = buff[sp-1];
+					for( int j=0; j<len; j++ )
+						c[j] = fn.execute(a[ai+j]);
+					ref[sp-1] = c;
+					off[sp-1] = 0;
+					break;
+				}
+			}
+		}
+
+		return ref[0];
+	}
+
+	/**
+	 * Merges the partial sum or colSums aggregates (sequential: agg,
+	 * multi-threaded: tasks) into the output and maintains its nnz.
+	 *
+	 * @param ret
+	 * @param agg
+	 * @param alen
+	 * @param tasks
+	 * @throws DMLRuntimeException
+	 */
+	private static void mergeAggregate(MatrixBlock ret, double[] agg, int alen, ArrayList<FusedCellwiseTask> tasks)
+		throws DMLRuntimeException
+	{
+		if( alen <= 0 )
+			return;
+
+		//merge partial aggregates of all tasks
+		if( tasks != null ) {
+			agg = new double[2*alen];
+			KahanObject kbuff = new KahanObject(0, 0);
+			KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+			for( FusedCellwiseTask task : tasks ) {
+				double[] lagg = task.getAggregate();
+				for( int j=0; j<alen; j++ ) {
+					kbuff.set(agg[j], agg[alen+j]);
+					kplus.execute(kbuff, lagg[j], lagg[alen+j]);
+					agg[j] = kbuff._sum;
+					agg[alen+j] = kbuff._correction;
+				}
+			}
+		}
+
+		//write aggregates into output
+		double[] c = ret.denseBlock;
+		long nnz = 0;
+		for( int j=0; j<alen; j++ ) {
+			c[j] = agg[j];
+			nnz += (c[j]!=0) ? 1 : 0;
+		}
+		ret.nonZeros = nnz;
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @return
+	 */
+	private static int getFirstMatrixInput(MatrixBlock[] in)
+	{
+		for( int i=0; i<in.length; i++ )
+			if( in[i] != null )
+				return i;
+		return -1;
+	}
+
+
+	/////////////////////////////////////////////////////////
+	// Task Implementations for Multi-Threaded Operations  //
+	/////////////////////////////////////////////////////////
+
+	/**
+	 *
+	 *
+	 */
+	private static class FusedCellwiseTask implements Callable<Long>
+	{
+		private MatrixBlock[] _in = null;
+		private double[] _scalars = null;
+		private FusedCellwiseOperator _op = null;
+		private int _driver = -1;
+		private MatrixBlock _ret = null;
+		private double[] _agg = null;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected FusedCellwiseTask( MatrixBlock[] in, double[] scalars, FusedCellwiseOperator op, int driver,
+				MatrixBlock ret, double[] agg, int rl, int ru )
+		{
+			_in = in;
+			_scalars = scalars;
+			_op = op;
+			_driver = driver;
+			_ret = ret;
+			_agg = agg;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		public double[] getAggregate() {
+			return _agg;
+		}
+
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			return fusedCellwise(_in, _scalars, _op, _driver, _ret, _agg, _rl, _ru);
+		}
+	}
+}
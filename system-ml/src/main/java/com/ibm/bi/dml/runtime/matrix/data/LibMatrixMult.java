@@ -21,11 +21,11 @@ package com.ibm.bi.dml.runtime.matrix.data;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.FastMath;
 
+import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.lops.MapMultChain.ChainType;
 import com.ibm.bi.dml.lops.WeightedSigmoid.WSigmoidType;
 import com.ibm.bi.dml.lops.WeightedSquaredLoss.WeightsType;
@@ -33,6 +33,7 @@ import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
 import com.ibm.bi.dml.runtime.functionobjects.SwapIndex;
 import com.ibm.bi.dml.runtime.matrix.operators.ReorgOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 
 /**
@@ -43,7 +44,8 @@ import com.ibm.bi.dml.runtime.util.UtilFunctions;
  * 
  * In general all implementations use internally dense outputs
  * for direct access, but change the final result to sparse if necessary.
- * The only exceptions are ultra-sparse matrix mult, wsloss and wsigmoid.  
+ * The only exceptions are ultra-sparse matrix mult, sparse-sparse matrix mult
+ * with sparse output, wsloss and wsigmoid.  
  * 
  * NOTES on BLAS:
  * * Experiments in 04/2013 showed that even on dense-dense this implementation 
@@ -62,6 +64,9 @@ public class LibMatrixMult
 {
 	
 	public static final boolean LOW_LEVEL_OPTIMIZATION = true;
+	
+	//min ratio of row nnz to ncol for dense accumulators in sparse-sparse mm
+	private static final int SPGEMM_DENSE_ACC_RATIO = 32;
 
 	private LibMatrixMult() {
 		//prevent instantiation via private constructor
@@ -92,8 +97,22 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//segmented dense inputs (per-segment computation)
+		if( m1.isInLargeDenseFormat() || m2.isInLargeDenseFormat() ) {
+			matrixMultDenseLarge(m1, m2, ret, 1);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 		
+		//pre-processing: sparse rows for kernels w/o csr support
+		prepareSparseInputs(m1, m2);
+		
+		//sparse-sparse with sparse output (symbolic and numeric pass)
+		if( m1.sparse && m2.sparse && isSparseOutputMatrixMult(m1, m2)
+			&& matrixMultSparseSparseSparse(m1, m2, ret, 1) )
+			return;
+		
 		//pre-processing: output allocation
 		ret.sparse = (m1.isUltraSparse() || m2.isUltraSparse());
 		if( !ret.sparse )
@@ -145,8 +164,23 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//segmented dense inputs (per-segment computation)
+		if( m1.isInLargeDenseFormat() || m2.isInLargeDenseFormat() ) {
+			matrixMultDenseLarge(m1, m2, ret, k);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 		
+		//pre-processing: sparse rows for kernels w/o csr support
+		//(prior to task creation in order to prevent concurrent conversion)
+		prepareSparseInputs(m1, m2);
+		
+		//sparse-sparse with sparse output (multi-threaded symbolic and numeric pass)
+		if( m1.sparse && m2.sparse && isSparseOutputMatrixMult(m1, m2)
+			&& matrixMultSparseSparseSparse(m1, m2, ret, k) )
+			return;
+		
 		//pre-processing: output allocation (in contrast to single-threaded,
 		//we need to allocate sparse as well in order to prevent synchronization)
 		ret.sparse = (m1.isUltraSparse() || m2.isUltraSparse());
@@ -158,13 +192,12 @@ public class LibMatrixMult
 		//core multi-threaded matrix mult computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultTask> tasks = new ArrayList<MatrixMultTask>();
 			int blklen = (int)(Math.ceil((double)m1.rlen/k));
 			for( int i=0; i<k & i*blklen<m1.rlen; i++ )
 				tasks.add(new MatrixMultTask(m1, m2, ret, i*blklen, Math.min((i+1)*blklen, m1.rlen)));
-			pool.invokeAll(tasks);	
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 		}
 		catch(Exception ex) {
 			throw new DMLRuntimeException(ex);
@@ -202,6 +235,12 @@ public class LibMatrixMult
 			return;
 		}
 
+		//segmented dense inputs (per-segment computation)
+		if( mX.isInLargeDenseFormat() ) {
+			matrixMultChainDenseLarge(mX, mV, mW, ret, ct, 1);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 				
 		//pre-processing: output allocation
@@ -253,6 +292,12 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//segmented dense inputs (per-segment computation)
+		if( mX.isInLargeDenseFormat() ) {
+			matrixMultChainDenseLarge(mX, mV, mW, ret, ct, k);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 				
 		//pre-processing
@@ -262,14 +307,13 @@ public class LibMatrixMult
 		//core matrix mult chain computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultChainTask> tasks = new ArrayList<MatrixMultChainTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			blklen += (blklen%24 != 0)?24-blklen%24:0;
 			for( int i=0; i<k & i*blklen<mX.rlen; i++ )
 				tasks.add(new MatrixMultChainTask(mX, mV, mW, ret, ct, i*blklen, Math.min((i+1)*blklen, mX.rlen)));
-			pool.invokeAll(tasks);	
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 			//aggregate partial results
 			for( MatrixMultChainTask task : tasks )
 				vectAdd(task.getResult().denseBlock, ret.denseBlock, 0, 0, mX.clen);
@@ -297,12 +341,21 @@ public class LibMatrixMult
 	public static void matrixMultTransposeSelf( MatrixBlock m1, MatrixBlock ret, boolean leftTranspose )
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		m1.csrToSparse();
+		
 		//check inputs / outputs
 		if( m1.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
 			return;
 		}
 		
+		//segmented dense inputs (per-segment computation)
+		if( m1.isInLargeDenseFormat() ) {
+			matrixMultTransposeSelfDenseLarge(m1, ret, leftTranspose, 1);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 		
 		//pre-processing
@@ -335,6 +388,9 @@ public class LibMatrixMult
 	public static void matrixMultTransposeSelf( MatrixBlock m1, MatrixBlock ret, boolean leftTranspose, int k )
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		m1.csrToSparse();
+		
 		//check inputs / outputs
 		if( m1.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
@@ -347,6 +403,12 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//segmented dense inputs (per-segment computation)
+		if( m1.isInLargeDenseFormat() ) {
+			matrixMultTransposeSelfDenseLarge(m1, ret, leftTranspose, k);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 		
 		//pre-processing
@@ -356,14 +418,13 @@ public class LibMatrixMult
 	
 		//core multi-threaded matrix mult computation
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultTransposeTask> tasks = new ArrayList<MatrixMultTransposeTask>();
 			//load balance via #tasks=2k due to triangular shape 
 			int blklen = (int)(Math.ceil((double)ret.rlen/(2*k)));
 			for( int i=0; i<2*k & i*blklen<ret.rlen; i++ )
 				tasks.add(new MatrixMultTransposeTask(m1, ret, leftTranspose, i*blklen, Math.min((i+1)*blklen, ret.rlen)));
-			pool.invokeAll(tasks);	
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 		}
 		catch(Exception ex) {
 			throw new DMLRuntimeException(ex);
@@ -389,6 +450,10 @@ public class LibMatrixMult
 	public static void matrixMultPermute( MatrixBlock pm1, MatrixBlock m2, MatrixBlock ret1, MatrixBlock ret2 )
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		pm1.csrToSparse();
+		m2.csrToSparse();
+		
 		//check inputs / outputs
 		if( pm1.isEmptyBlock(false) || m2.isEmptyBlock(false) )
 			return;
@@ -435,6 +500,10 @@ public class LibMatrixMult
 	public static void matrixMultPermute( MatrixBlock pm1, MatrixBlock m2, MatrixBlock ret1, MatrixBlock ret2, int k)
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		pm1.csrToSparse();
+		m2.csrToSparse();
+		
 		//check inputs / outputs
 		if( pm1.isEmptyBlock(false) || m2.isEmptyBlock(false) )
 			return;
@@ -453,13 +522,12 @@ public class LibMatrixMult
 		
 		try
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultPermuteTask> tasks = new ArrayList<MatrixMultPermuteTask>();
 			int blklen = (int)(Math.ceil((double)pm1.rlen/k));
 			for( int i=0; i<k & i*blklen<pm1.rlen; i++ )
 				tasks.add(new MatrixMultPermuteTask(pm1, m2, ret1, ret2, i*blklen, Math.min((i+1)*blklen, pm1.rlen)));
-			pool.invokeAll(tasks);
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 		} 
 		catch (InterruptedException e) {
 			throw new DMLRuntimeException(e);
@@ -491,6 +559,11 @@ public class LibMatrixMult
 	public static void matrixMultWSLoss(MatrixBlock mX, MatrixBlock mU, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, WeightsType wt) 
 		throws DMLRuntimeException 
 	{
+		//materialize sparse rows (no csr support)
+		mX.csrToSparse();
+		if( mW != null )
+			mW.csrToSparse();
+		
 		//check for empty result
 		if( wt==WeightsType.POST && mW.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
@@ -526,6 +599,11 @@ public class LibMatrixMult
 	public static void matrixMultWSLoss(MatrixBlock mX, MatrixBlock mU, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, WeightsType wt, int k) 
 		throws DMLRuntimeException 
 	{
+		//materialize sparse rows (no csr support)
+		mX.csrToSparse();
+		if( mW != null )
+			mW.csrToSparse();
+		
 		//check for empty result
 		if( wt==WeightsType.POST && mW.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
@@ -542,13 +620,12 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultWSLossTask> tasks = new ArrayList<MatrixMultWSLossTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			for( int i=0; i<k & i*blklen<mX.rlen; i++ )
 				tasks.add(new MatrixMultWSLossTask(mX, mU, mV, mW, wt, i*blklen, Math.min((i+1)*blklen, mX.rlen)));
-			pool.invokeAll(tasks);
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 			//aggregate partial results
 			double wsloss = 0;
 			for(MatrixMultWSLossTask rt : tasks)
@@ -575,6 +652,9 @@ public class LibMatrixMult
 	public static void matrixMultWSigmoid(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, MatrixBlock ret, WSigmoidType wt) 
 		throws DMLRuntimeException 
 	{
+		//materialize sparse rows (no csr support)
+		mW.csrToSparse();
+		
 		//check for empty result
 		if( mW.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
@@ -619,6 +699,9 @@ public class LibMatrixMult
 	public static void matrixMultWSigmoid(MatrixBlock mW, MatrixBlock mU, MatrixBlock mV, MatrixBlock ret, WSigmoidType wt, int k) 
 		throws DMLRuntimeException 
 	{
+		//materialize sparse rows (no csr support)
+		mW.csrToSparse();
+		
 		//check for empty result
 		if( mW.isEmptyBlock(false) ) {
 			ret.examSparsity(); //turn empty dense into sparse
@@ -642,13 +725,12 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			k = ComputeThreadPool.getMaxParallelism(k);
 			ArrayList<MatrixMultWSigmoidTask> tasks = new ArrayList<MatrixMultWSigmoidTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
 				tasks.add(new MatrixMultWSigmoidTask(mW, mU, mV, ret, wt, i*blklen, Math.min((i+1)*blklen, mW.rlen)));
-			pool.invokeAll(tasks);
-			pool.shutdown();
+			ComputeThreadPool.invokeAll(tasks);
 		} 
 		catch (InterruptedException e) {
 			throw new DMLRuntimeException(e);
@@ -666,6 +748,20 @@ public class LibMatrixMult
 	// optimized matrix mult implementation //
 	//////////////////////////////////////////
 	
+	/**
+	 * Materializes sparse rows of csr inputs, except for the sparse-dense
+	 * case which is directly supported over read-optimized csr blocks.
+	 * 
+	 * @param m1
+	 * @param m2
+	 */
+	private static void prepareSparseInputs(MatrixBlock m1, MatrixBlock m2)
+	{
+		if( m2.sparse || m1.isUltraSparse() || m2.isUltraSparse() )
+			m1.csrToSparse();
+		m2.csrToSparse();
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -865,6 +961,13 @@ public class LibMatrixMult
 	private static void matrixMultSparseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int rl, int ru) 
 		throws DMLRuntimeException
 	{	
+		//read-optimized csr input
+		SparseBlockCSR csr = m1.getSparseBlockCSR();
+		if( csr != null ) {
+			matrixMultSparseCSRDense(csr, m2, ret, rl, ru);
+			return;
+		}
+		
 		double[] b = m2.denseBlock;
 		double[] c = ret.denseBlock;
 		final int m = m1.rlen;
@@ -958,6 +1061,67 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Sparse-dense matrix multiplication over a read-optimized csr block, 
+	 * which allows for sequential scans over the flat index/value arrays. 
+	 * 
+	 * @param a
+	 * @param m2
+	 * @param ret
+	 * @param rl
+	 * @param ru
+	 */
+	private static void matrixMultSparseCSRDense(SparseBlockCSR a, MatrixBlock m2, MatrixBlock ret, int rl, int ru) 
+	{	
+		double[] b = m2.denseBlock;
+		double[] c = ret.denseBlock;
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		final int n = m2.clen;
+		
+		if( n==1 ) //MATRIX-VECTOR (incl dot product)
+		{
+			for( int i=rl; i<ru; i++ ) {
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				if( alen > 0 )
+					c[i] = dotProduct(avals, b, aix, apos, 0, alen);
+			}
+		}
+		else //MATRIX-MATRIX
+		{
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n )
+			{
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				if( alen==0 )
+					continue;
+				
+				if( alen==1 && avals[apos]==1 ) //ROW SELECTION 
+				{
+					//plain memcopy for permutation matrices
+					System.arraycopy(b, aix[apos]*n, c, cix, n);
+				}
+				else //GENERAL CASE
+				{
+					//rest not aligned to blocks of 4 rows
+	    			final int bn = alen % 4;
+	    			switch( bn ){
+		    			case 1: vectMultiplyAdd(avals[apos], b, c, aix[apos]*n, cix, n); break;
+		    	    	case 2: vectMultiplyAdd2(avals[apos],avals[apos+1], b, c, aix[apos]*n, aix[apos+1]*n, cix, n); break;
+		    			case 3: vectMultiplyAdd3(avals[apos],avals[apos+1],avals[apos+2], b, c, aix[apos]*n, aix[apos+1]*n, aix[apos+2]*n, cix, n); break;
+	    			}
+	    			
+	    			//compute blocks of 4 rows (core inner loop)
+	    			for( int k = apos+bn; k<apos+alen; k+=4 ) {
+	    				vectMultiplyAdd4( avals[k], avals[k+1], avals[k+2], avals[k+3], b, c, 
+	    						          aix[k]*n, aix[k+1]*n, aix[k+2]*n, aix[k+3]*n, cix, n );
+	    			}
+				}
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1125,6 +1289,320 @@ public class LibMatrixMult
 		//no need to recompute nonzeros because maintained internally
 	}
 
+	/**
+	 * Sparse-sparse matrix multiplication with sparse output (row-wise Gustavson).
+	 * We first compute the exact number of non-zeros per output row in a symbolic
+	 * pass, and then compute the output rows with exactly sized sparse rows in a
+	 * numeric pass. Both passes use per-thread accumulators, which are either dense
+	 * (for rows with many partial products relative to the number of columns) or
+	 * hash-based (for very sparse rows), in order to avoid allocating dense outputs
+	 * and the overhead of binary search insertions into sparse rows.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param k
+	 * @return false if the exact output nnz does not justify a sparse output
+	 * @throws DMLRuntimeException
+	 */
+	private static boolean matrixMultSparseSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) 
+		throws DMLRuntimeException
+	{
+		final int m = m1.rlen;
+		int[] rnnz = new int[m];
+		long nnz = 0;
+		
+		try
+		{
+			k = (k > 1) ? Math.min(ComputeThreadPool.getMaxParallelism(k), m) : 1;
+			
+			//symbolic pass: exact nnz per output row (equi-sized row partitions)
+			if( k == 1 ) {
+				nnz = matrixMultSparseSparseSymbolic(m1, m2, rnnz, 0, m);
+			}
+			else {
+				ArrayList<MatrixMultSpGEMMTask> tasks = new ArrayList<MatrixMultSpGEMMTask>();
+				int blklen = (int)(Math.ceil((double)m/k));
+				for( int i=0; i<k & i*blklen<m; i++ )
+					tasks.add(new MatrixMultSpGEMMTask(m1, m2, ret, rnnz, true, i*blklen, Math.min((i+1)*blklen, m)));
+				for( Future<Long> task : ComputeThreadPool.invokeAll(tasks) )
+					nnz += task.get();
+			}
+			
+			//check for sparse output according to exact nnz 
+			if( !MatrixBlock.evalSparseFormatInMemory(m, m2.clen, nnz) )
+				return false;
+			
+			//output allocation 
+			ret.sparse = true;
+			ret.allocateSparseRowsBlock();
+			
+			//numeric pass: output rows (row partitions w/ balanced output nnz)
+			if( k == 1 ) {
+				nnz = matrixMultSparseSparseNumeric(m1, m2, ret, rnnz, 0, m);
+			}
+			else {
+				ArrayList<MatrixMultSpGEMMTask> tasks = new ArrayList<MatrixMultSpGEMMTask>();
+				long target = Math.max(nnz/k, 1);
+				long lnnz = 0;
+				int rl = 0;
+				for( int i=0; i<m; i++ ) {
+					lnnz += rnnz[i];
+					if( lnnz >= target && tasks.size() < k-1 ) {
+						tasks.add(new MatrixMultSpGEMMTask(m1, m2, ret, rnnz, false, rl, i+1));
+						rl = i+1;
+						lnnz = 0;
+					}
+				}
+				if( rl < m )
+					tasks.add(new MatrixMultSpGEMMTask(m1, m2, ret, rnnz, false, rl, m));
+				nnz = 0;
+				for( Future<Long> task : ComputeThreadPool.invokeAll(tasks) )
+					nnz += task.get();
+			}
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//post-processing: nnz/representation
+		ret.nonZeros = nnz;
+		ret.examSparsity();
+		
+		return true;
+	}
+	
+	/**
+	 * Symbolic pass of sparse-sparse matrix multiplication, which computes the
+	 * exact number of non-zeros of the output rows [rl, ru).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param rnnz
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 */
+	private static long matrixMultSparseSparseSymbolic(MatrixBlock m1, MatrixBlock m2, int[] rnnz, int rl, int ru) 
+	{
+		SparseRow[] a = m1.sparseRows;
+		SparseRow[] b = m2.sparseRows;
+		final int n = m2.clen;
+		
+		int[] marker = null; //dense accumulator (allocated on demand)
+		int[] hkeys = null;  //hash accumulator (allocated on demand)
+		long nnz = 0;
+		
+		for( int i=rl; i<Math.min(ru, a.length); i++ )
+		{
+			SparseRow arow = a[i];
+			if( arow == null || arow.isEmpty() ) 
+				continue;
+			
+			int alen = arow.size();
+			int[] aix = arow.getIndexContainer();
+			
+			//upper bound of row nnz (number of partial products)
+			long flops = 0;
+			for( int k=0; k<alen; k++ )
+				if( b[aix[k]] != null )
+					flops += b[aix[k]].size();
+			
+			int lnnz = 0;
+			if( alen == 1 || flops <= 1 ) //exact (no overlapping products)
+			{
+				lnnz = (int)flops;
+			}
+			else if( isDenseAccumulator(flops, n) ) //dense marker
+			{
+				if( marker == null ) {
+					marker = new int[n];
+					Arrays.fill(marker, -1);
+				}
+				for( int k=0; k<alen; k++ ) {
+					SparseRow brow = b[aix[k]];
+					if( brow == null || brow.isEmpty() )
+						continue;
+					int blen = brow.size();
+					int[] bix = brow.getIndexContainer();
+					for( int j=0; j<blen; j++ )
+						if( marker[bix[j]] != i ) {
+							marker[bix[j]] = i;
+							lnnz++;
+						}
+				}
+			}
+			else //hash set 
+			{
+				int cap = getHashAccumulatorCapacity(flops, n);
+				if( hkeys == null || hkeys.length < cap )
+					hkeys = new int[cap];
+				Arrays.fill(hkeys, 0, cap, -1);
+				final int mask = cap - 1;
+				for( int k=0; k<alen; k++ ) {
+					SparseRow brow = b[aix[k]];
+					if( brow == null || brow.isEmpty() )
+						continue;
+					int blen = brow.size();
+					int[] bix = brow.getIndexContainer();
+					for( int j=0; j<blen; j++ ) {
+						int pos = hashColumnIndex(bix[j], mask);
+						while( hkeys[pos] != -1 && hkeys[pos] != bix[j] )
+							pos = (pos + 1) & mask;
+						if( hkeys[pos] == -1 ) {
+							hkeys[pos] = bix[j];
+							lnnz++;
+						}
+					}
+				}
+			}
+			
+			rnnz[i] = lnnz;
+			nnz += lnnz;
+		}
+		
+		return nnz;
+	}
+	
+	/**
+	 * Numeric pass of sparse-sparse matrix multiplication, which computes the
+	 * output rows [rl, ru) into exactly sized sparse rows with sorted column indexes.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param rnnz
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 */
+	private static long matrixMultSparseSparseNumeric(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int[] rnnz, int rl, int ru) 
+	{
+		SparseRow[] a = m1.sparseRows;
+		SparseRow[] b = m2.sparseRows;
+		SparseRow[] c = ret.sparseRows;
+		final int n = m2.clen;
+		
+		double[] cvals = null; //dense accumulator (allocated on demand)
+		int[] marker = null;
+		int[] cix = null;
+		int[] hkeys = null;    //hash accumulator (allocated on demand)
+		double[] hvals = null;
+		long[] hsort = null;
+		long nnz = 0;
+		
+		for( int i=rl; i<Math.min(ru, a.length); i++ )
+		{
+			if( rnnz[i] == 0 ) 
+				continue;
+			
+			SparseRow arow = a[i];
+			int alen = arow.size();
+			int[] aix = arow.getIndexContainer();
+			double[] avals = arow.getValueContainer();
+			SparseRow crow = new SparseRow(rnnz[i]);
+			
+			if( alen == 1 ) //scaled copy of a single row
+			{
+				double aval = avals[0];
+				SparseRow brow = b[aix[0]];
+				int blen = brow.size();
+				int[] bix = brow.getIndexContainer();
+				double[] bvals = brow.getValueContainer();
+				for( int j=0; j<blen; j++ ) {
+					double val = aval * bvals[j];
+					if( val != 0 )
+						crow.append(bix[j], val);
+				}
+			}
+			else if( isDenseAccumulator(rnnz[i], n) ) //dense accumulator
+			{
+				if( cvals == null ) {
+					cvals = new double[n];
+					marker = new int[n];
+					cix = new int[n];
+					Arrays.fill(marker, -1);
+				}
+				int len = 0;
+				for( int k=0; k<alen; k++ ) {
+					SparseRow brow = b[aix[k]];
+					if( brow == null || brow.isEmpty() )
+						continue;
+					double aval = avals[k];
+					int blen = brow.size();
+					int[] bix = brow.getIndexContainer();
+					double[] bvals = brow.getValueContainer();
+					for( int j=0; j<blen; j++ ) {
+						int col = bix[j];
+						if( marker[col] != i ) {
+							marker[col] = i;
+							cvals[col] = aval * bvals[j];
+							cix[len++] = col;
+						}
+						else
+							cvals[col] += aval * bvals[j];
+					}
+				}
+				Arrays.sort(cix, 0, len);
+				for( int j=0; j<len; j++ )
+					if( cvals[cix[j]] != 0 ) //skip cancelled entries
+						crow.append(cix[j], cvals[cix[j]]);
+			}
+			else //hash accumulator
+			{
+				int cap = getHashAccumulatorCapacity(rnnz[i], n);
+				if( hkeys == null || hkeys.length < cap ) {
+					hkeys = new int[cap];
+					hvals = new double[cap];
+				}
+				if( hsort == null || hsort.length < rnnz[i] )
+					hsort = new long[rnnz[i]];
+				Arrays.fill(hkeys, 0, cap, -1);
+				final int mask = cap - 1;
+				for( int k=0; k<alen; k++ ) {
+					SparseRow brow = b[aix[k]];
+					if( brow == null || brow.isEmpty() )
+						continue;
+					double aval = avals[k];
+					int blen = brow.size();
+					int[] bix = brow.getIndexContainer();
+					double[] bvals = brow.getValueContainer();
+					for( int j=0; j<blen; j++ ) {
+						int pos = hashColumnIndex(bix[j], mask);
+						while( hkeys[pos] != -1 && hkeys[pos] != bix[j] )
+							pos = (pos + 1) & mask;
+						if( hkeys[pos] == -1 ) {
+							hkeys[pos] = bix[j];
+							hvals[pos] = aval * bvals[j];
+						}
+						else
+							hvals[pos] += aval * bvals[j];
+					}
+				}
+				//sort (column index, position) pairs for sorted appends
+				int len = 0;
+				for( int pos=0; pos<cap; pos++ )
+					if( hkeys[pos] != -1 )
+						hsort[len++] = ((long)hkeys[pos] << 32) | pos;
+				Arrays.sort(hsort, 0, len);
+				for( int j=0; j<len; j++ ) {
+					int pos = (int)(hsort[j] & 0xFFFFFFFFL);
+					if( hvals[pos] != 0 ) //skip cancelled entries
+						crow.append(hkeys[pos], hvals[pos]);
+				}
+			}
+			
+			//nnz from actually appended values (rnnz is only an upper bound
+			//because partial products might cancel out or underflow to zero)
+			if( !crow.isEmpty() ) {
+				c[i] = crow;
+				nnz += crow.size();
+			}
+		}
+		
+		return nnz;
+	}
+
 	/**
 	 * 
 	 * @param mX
@@ -1188,6 +1666,13 @@ public class LibMatrixMult
 	 */
 	private static void matrixMultChainSparse(MatrixBlock mX, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int rl, int ru) 
 	{
+		//read-optimized csr input
+		SparseBlockCSR csr = mX.getSparseBlockCSR();
+		if( csr != null ) {
+			matrixMultChainSparseCSR(csr, mV, mW, ret, ct, rl, ru);
+			return;
+		}
+		
 		SparseRow[] a = mX.sparseRows;
 		double[] b = mV.denseBlock;
 		double[] w = (mW!=null) ? mW.denseBlock : null;
@@ -1233,6 +1718,55 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * 
+	 * @param a
+	 * @param mV
+	 * @param mW
+	 * @param ret
+	 * @param ct
+	 * @param rl
+	 * @param ru
+	 */
+	private static void matrixMultChainSparseCSR(SparseBlockCSR a, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int rl, int ru) 
+	{
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		double[] b = mV.denseBlock;
+		double[] w = (mW!=null) ? mW.denseBlock : null;
+		double[] c = ret.denseBlock;
+		boolean weights = (ct == ChainType.XtwXv);
+		
+		//temporary array for cache blocking (see matrixMultChainSparse)
+		final int blocksize = 24;
+		double[] tmp = new double[blocksize];
+		
+		//blockwise mmchain computation
+		for( int bi=rl; bi < ru; bi+=blocksize ) 
+		{
+			int tmplen = Math.min(blocksize, ru-bi);
+			
+			//compute 1st matrix-vector for row block
+			for( int j=0; j < tmplen; j++) {
+				int apos = a.pos(bi+j);
+				int alen = a.size(bi+j);
+				tmp[j] = (alen > 0) ? dotProduct(avals, b, aix, apos, 0, alen) : 0;
+			}
+			
+			//multiply weights (in-place), if required
+			if( weights ) 
+				vectMultiply(w, tmp, bi, 0, tmplen);	
+			
+			//compute 2nd matrix vector for row block and aggregate
+			for( int j=0; j < tmplen; j++) {
+				int apos = a.pos(bi+j);
+				int alen = a.size(bi+j);
+				if( alen > 0 && tmp[j] != 0 )
+					vectMultiplyAdd(tmp[j], avals, c, aix, apos, 0, apos+alen);
+			}
+		}
+	}
+	
 
 	/**
 	 * 
@@ -2042,11 +2576,220 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Matrix multiplication with segmented dense inputs (beyond 2^31-1 cells). A large
+	 * left input is processed per row segment and the partial results are concatenated,
+	 * while a large right input is processed per row segment with the corresponding 
+	 * columns of the left input and the partial results are summed up.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void matrixMultDenseLarge(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) 
+		throws DMLRuntimeException
+	{
+		final int m = m1.rlen;
+		final int n = m2.clen;
+		if( DenseBlockLarge.isLargeDenseBlock(m, n) )
+			throw new DMLRuntimeException("Unsupported matrix mult with large dense output: "+m+"x"+n+".");
+		
+		ret.reset(m, n, false);
+		ret.allocateDenseBlock();
+		double[] c = ret.denseBlock;
+		
+		if( m1.isInLargeDenseFormat() ) //LARGE %*% ANY
+		{
+			DenseBlockLarge a = m1.getDenseBlockLarge();
+			for( int s=0, rl=0; s<a.numSegments(); rl+=a.segmentRows(s), s++ ) {
+				MatrixBlock tmp = new MatrixBlock(a.segmentRows(s), n, false);
+				matrixMult(getSegmentBlock(m1, s), m2, tmp, k);
+				ret.copy(rl, rl+a.segmentRows(s)-1, 0, n-1, tmp, false);
+			}
+		}
+		else //ANY %*% LARGE
+		{
+			DenseBlockLarge b = m2.getDenseBlockLarge();
+			for( int s=0, rl=0; s<b.numSegments(); rl+=b.segmentRows(s), s++ ) {
+				MatrixBlock tmp1 = m1.sliceOperations(0, m-1, rl, rl+b.segmentRows(s)-1, new MatrixBlock());
+				MatrixBlock tmp2 = new MatrixBlock(m, n, false);
+				matrixMult(tmp1, getSegmentBlock(m2, s), tmp2, k);
+				addToDenseOutput(tmp2, c);
+			}
+		}
+		
+		//post-processing: nnz/representation
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+	}
+	
+	/**
+	 * Matrix multiplication chain with a segmented dense input (beyond 2^31-1 cells),
+	 * where the partial results of t(X_s)%*%(w_s*(X_s%*%v)) are summed up over all 
+	 * row segments X_s.
+	 * 
+	 * @param mX
+	 * @param mV
+	 * @param mW
+	 * @param ret
+	 * @param ct
+	 * @param k
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private static void matrixMultChainDenseLarge(MatrixBlock mX, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int k) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		ret.reset(mX.clen, 1, false);
+		ret.allocateDenseBlock();
+		
+		DenseBlockLarge a = mX.getDenseBlockLarge();
+		for( int s=0, rl=0; s<a.numSegments(); rl+=a.segmentRows(s), s++ ) {
+			int ru = rl + a.segmentRows(s) - 1;
+			MatrixBlock tmpW = (mW != null) ? mW.sliceOperations(rl, ru, 0, 0, new MatrixBlock()) : null;
+			MatrixBlock tmp = new MatrixBlock(mX.clen, 1, false);
+			if( k > 1 )
+				matrixMultChain(getSegmentBlock(mX, s), mV, tmpW, tmp, ct, k);
+			else
+				matrixMultChain(getSegmentBlock(mX, s), mV, tmpW, tmp, ct);
+			addToDenseOutput(tmp, ret.denseBlock);
+		}
+		
+		//post-processing
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+	}
+	
+	/**
+	 * Transpose-self matrix multiplication t(X)%*%X with a segmented dense input 
+	 * (beyond 2^31-1 cells), where the partial results t(X_s)%*%X_s are summed up 
+	 * over all row segments X_s. For X%*%t(X), the upper triangular output is 
+	 * computed via dot products of row pairs, which may reside in different segments.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param leftTranspose
+	 * @param k
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private static void matrixMultTransposeSelfDenseLarge(MatrixBlock m1, MatrixBlock ret, boolean leftTranspose, int k) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		DenseBlockLarge a = m1.getDenseBlockLarge();
+		
+		//X%*%t(X) via row-pair dot products (small output only)
+		if( !leftTranspose ) {
+			final int m = m1.rlen;
+			final int n = m1.clen;
+			if( DenseBlockLarge.isLargeDenseBlock(m, m) )
+				throw new DMLRuntimeException("Unsupported right tsmm with large dense output: "+m+"x"+m+".");
+			
+			ret.reset(m, m, false);
+			ret.allocateDenseBlock();
+			double[] c = ret.denseBlock;
+			for( int i=0, cix=0; i<m; i++, cix+=m ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=i; j<m; j++ )
+					c[cix+j] = dotProduct(avals, a.values(j), aix, a.pos(j), n);
+			}
+			copyUpperToLowerTriangle(ret);
+			
+			//post-processing
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return;
+		}
+		
+		ret.reset(m1.clen, m1.clen, false);
+		ret.allocateDenseBlock();
+		
+		for( int s=0; s<a.numSegments(); s++ ) {
+			MatrixBlock tmp = new MatrixBlock(m1.clen, m1.clen, false);
+			if( k > 1 )
+				matrixMultTransposeSelf(getSegmentBlock(m1, s), tmp, true, k);
+			else
+				matrixMultTransposeSelf(getSegmentBlock(m1, s), tmp, true);
+			addToDenseOutput(tmp, ret.denseBlock);
+		}
+		
+		//post-processing
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+	}
+	
 	
 	////////////////////////////////////////////
 	// performance-relevant utility functions //
 	////////////////////////////////////////////
 	
+	/**
+	 * Indicates if a sparse-sparse matrix multiplication likely produces a sparse
+	 * output, in which case we use the sparse-output kernel with exact output sizing
+	 * instead of a dense intermediate. The final decision is made according to the 
+	 * exact number of non-zeros after the symbolic pass.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @return
+	 */
+	private static boolean isSparseOutputMatrixMult(MatrixBlock m1, MatrixBlock m2)
+	{
+		if( m1.isUltraSparse() || m2.isUltraSparse() )
+			return true;
+		
+		double sp1 = (double)m1.nonZeros / m1.rlen / m1.clen;
+		double sp2 = (double)m2.nonZeros / m2.rlen / m2.clen;
+		double sp = OptimizerUtils.getMatMultSparsity(sp1, sp2, m1.rlen, m1.clen, m2.clen, false);
+		return MatrixBlock.evalSparseFormatInMemory(m1.rlen, m2.clen, (long)(sp * m1.rlen * m2.clen));
+	}
+	
+	/**
+	 * Indicates if a dense accumulator (of size n) should be used for an output
+	 * row with the given number of partial products or non-zeros, otherwise we
+	 * use a hash accumulator in order to avoid touching large dense arrays.
+	 * 
+	 * @param len
+	 * @param n
+	 * @return
+	 */
+	private static boolean isDenseAccumulator( long len, int n )
+	{
+		return len * SPGEMM_DENSE_ACC_RATIO >= n;
+	}
+	
+	/**
+	 * Returns the power-of-two capacity of a hash accumulator with load 
+	 * factor of at most 0.5 for the given number of entries.
+	 * 
+	 * @param len
+	 * @param n
+	 * @return
+	 */
+	private static int getHashAccumulatorCapacity( long len, int n )
+	{
+		int max = (int)Math.min(len, n);
+		return Integer.highestOneBit(max) << 2;
+	}
+	
+	/**
+	 * Multiplicative hash of a column index for open-addressing hash accumulators,
+	 * which spreads consecutive column indexes over the table.
+	 * 
+	 * @param col
+	 * @param mask
+	 * @return
+	 */
+	private static int hashColumnIndex( final int col, final int mask )
+	{
+		int h = col * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+	
+	
 	/**
 	 * Computes the dot-product of two vectors. Experiments (on long vectors of
 	 * 10^7 values) showed that this generic function provides equivalent performance
@@ -2122,6 +2865,32 @@ public class LibMatrixMult
 		return val; 
 	}
 	
+	private static double dotProduct( double[] a, double[] b, int[] aix, int ai, final int bi, final int len )
+	{
+		double val = 0;
+		final int bn = len%8;
+				
+		//compute rest
+		for( int i = ai; i < ai+bn; i++ )
+			val += a[ i ] * b[ bi+aix[i] ];
+		
+		//unrolled 8-block (for better instruction-level parallelism)
+		for( int i = ai+bn; i < ai+len; i+=8 )
+		{
+			val += a[ i+0 ] * b[ bi+aix[i+0] ]
+			     + a[ i+1 ] * b[ bi+aix[i+1] ]
+			     + a[ i+2 ] * b[ bi+aix[i+2] ]
+			     + a[ i+3 ] * b[ bi+aix[i+3] ]
+			     + a[ i+4 ] * b[ bi+aix[i+4] ]
+			     + a[ i+5 ] * b[ bi+aix[i+5] ]
+			     + a[ i+6 ] * b[ bi+aix[i+6] ]
+			     + a[ i+7 ] * b[ bi+aix[i+7] ];
+		}
+		
+		//scalar result
+		return val; 
+	}
+	
 	private static double dotProduct( double[] a, double[] b, int[] aix, final int bi, final int len )
 	{
 		double val = 0;
@@ -2465,6 +3234,53 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Returns a dense matrix block view of the given row segment of a segmented 
+	 * dense block, which shares the segment array with the input.
+	 * 
+	 * @param in
+	 * @param seg
+	 * @return
+	 */
+	private static MatrixBlock getSegmentBlock( MatrixBlock in, int seg )
+	{
+		DenseBlockLarge a = in.getDenseBlockLarge();
+		MatrixBlock ret = new MatrixBlock(a.segmentRows(seg), in.clen, false);
+		ret.denseBlock = a.segment(seg);
+		ret.setDenseShared();
+		//upper bound of segment nnz (prevents empty block shortcuts)
+		ret.nonZeros = Math.min(in.nonZeros, (long)a.segmentRows(seg)*in.clen); 
+		return ret;
+	}
+	
+	/**
+	 * Adds the given partial result of arbitrary format to the dense output array.
+	 * 
+	 * @param in
+	 * @param c
+	 */
+	private static void addToDenseOutput( MatrixBlock in, double[] c )
+	{
+		if( in.isEmptyBlock(false) )
+			return;
+		
+		if( !in.sparse ) {
+			vectAdd(in.denseBlock, c, 0, 0, in.rlen*in.clen);
+		}
+		else {
+			in.csrToSparse();
+			SparseRow[] a = in.sparseRows;
+			for( int i=0, cix=0; i<Math.min(in.rlen, a.length); i++, cix+=in.clen )
+				if( a[i] != null && !a[i].isEmpty() ) {
+					int alen = a[i].size();
+					int[] aix = a[i].getIndexContainer();
+					double[] avals = a[i].getValueContainer();
+					for( int j=0; j<alen; j++ )
+						c[cix+aix[j]] += avals[j];
+				}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param a
@@ -2690,6 +3506,42 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * 
+	 * 
+	 */
+	private static class MatrixMultSpGEMMTask implements Callable<Long> 
+	{
+		private MatrixBlock _m1  = null;
+		private MatrixBlock _m2  = null;
+		private MatrixBlock _ret = null;
+		private int[] _rnnz = null;
+		private boolean _symbolic = false;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected MatrixMultSpGEMMTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int[] rnnz, boolean symbolic, int rl, int ru )
+		{
+			_m1 = m1;
+			_m2 = m2;
+			_ret = ret;
+			_rnnz = rnnz;
+			_symbolic = symbolic;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			if( _symbolic )
+				return matrixMultSparseSparseSymbolic(_m1, _m2, _rnnz, _rl, _ru);
+			else
+				return matrixMultSparseSparseNumeric(_m1, _m2, _ret, _rnnz, _rl, _ru);
+		}
+	}
+	
+	
 	/**
 	 * 
 	 * 
@@ -125,7 +125,13 @@ public class LibMatrixReorg
 		if( in.isEmptyBlock(false) )
 			return out;
 		
-		if( !in.sparse && !out.sparse )
+		if( in.isInLargeDenseFormat() || (!out.sparse && DenseBlockLarge.isLargeDenseBlock(in.rlen, in.clen)) )
+			transposeToDenseLarge( in, out );
+		else if( in.isInSparseCSRFormat() && out.sparse )
+			transposeCSRToCSR( in, out );
+		else if( in.isInSparseCSRFormat() )
+			transposeCSRToDense( in, out );
+		else if( !in.sparse && !out.sparse )
 			transposeDenseToDense( in, out );
 		else if( in.sparse && out.sparse )
 			transposeSparseToSparse( in, out );
@@ -149,6 +155,9 @@ public class LibMatrixReorg
 	public static MatrixBlock diag( MatrixBlock in, MatrixBlock out ) 
 		throws DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//Timing time = new Timing(true);
 		
 		//sparse-safe operation
@@ -186,6 +195,9 @@ public class LibMatrixReorg
 	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret) 
 		throws DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//meta data gathering and preparation
 		boolean sparse = in.isInSparseFormat();
 		int rlen = in.rlen;
@@ -302,6 +314,9 @@ public class LibMatrixReorg
 	public static MatrixBlock reshape( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise ) 
 		throws DMLRuntimeException
 	{
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		int rlen = in.rlen;
 		int clen = in.clen;
 		
@@ -362,6 +377,7 @@ public class LibMatrixReorg
 		//prepare inputs
 		MatrixIndexes ixIn = in.getIndexes();
 		MatrixBlock mbIn = (MatrixBlock) in.getValue();
+		mbIn.csrToSparse();
 		
 		//prepare result blocks (no reuse in order to guarantee mem constraints)
 		Collection<MatrixIndexes> rix = computeAllResultBlockIndexes(ixIn, rows1, cols1, brlen1, bclen1, rows2, cols2, brlen2, bclen2, rowwise);
@@ -395,6 +411,9 @@ public class LibMatrixReorg
 	public static MatrixBlock rmempty(MatrixBlock in, MatrixBlock ret, boolean rows) 
 		throws DMLRuntimeException, DMLUnsupportedOperationException
 	{
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//check for empty inputs 
 		//(the semantics of removeEmpty are that for an empty m-by-n matrix, the output 
 		//is an empty 1-by-n or m-by-1 matrix because we don't allow matrices with dims 0)
@@ -515,6 +534,9 @@ public class LibMatrixReorg
 	public static MatrixBlock rexpand(MatrixBlock in, MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore) 
 		throws DMLRuntimeException, DMLUnsupportedOperationException
 	{
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+		
 		//prepare parameters
 		int lmax = (int)UtilFunctions.toLong(max);
 		
@@ -609,6 +631,67 @@ public class LibMatrixReorg
 		return ReorgType.INVALID;
 	}
 	
+	/**
+	 * Transpose into a segmented dense output (beyond 2^31-1 cells), where we
+	 * use the same cache blocking as for dense-dense but access rows via their 
+	 * segments because rows never span multiple segments.
+	 * 
+	 * @param in
+	 * @param out
+	 * @throws DMLRuntimeException
+	 */
+	private static void transposeToDenseLarge(MatrixBlock in, MatrixBlock out) 
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		//allocate output arrays (if required)
+		out.sparse = false;
+		out.allocateDenseBlock(false);
+		out.nonZeros = in.nonZeros;
+		DenseBlockLarge c = out.getDenseBlockLarge();
+		
+		if( in.isInLargeDenseFormat() ) //DENSE INPUT
+		{
+			DenseBlockLarge a = in.getDenseBlockLarge();
+			
+			//blocking according to typical L2 cache sizes 
+			final int blocksizeI = 128;
+			final int blocksizeJ = 128; 
+			
+			//blocked execution
+			for( int bi = 0; bi<m; bi+=blocksizeI )
+				for( int bj = 0; bj<n; bj+=blocksizeJ )
+				{
+					int bimin = Math.min(bi+blocksizeI, m);
+					int bjmin = Math.min(bj+blocksizeJ, n);
+					//core transpose operation
+					for( int i=bi; i<bimin; i++ ) {
+						double[] avals = a.values(i);
+						int aix = a.pos(i);
+						for( int j=bj; j<bjmin; j++ )
+							c.values(j)[c.pos(j)+i] = avals[aix+j];
+					}
+				}
+		}
+		else //SPARSE INPUT
+		{
+			c.fill(0);
+			in.csrToSparse();
+			SparseRow[] a = in.getSparseRows();
+			for( int i=0; i<Math.min(m, a.length); i++ ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				for( int j=0; j<alen; j++ )
+					c.values(aix[j])[c.pos(aix[j])+i] = avals[j];
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -633,6 +716,8 @@ public class LibMatrixReorg
 			//we don't need to create a copy, given our copy on write semantics.
 			//however, note that with update in-place this would be an invalid optimization
 			out.denseBlock = in.denseBlock;
+			out.setDenseShared();
+			in.setDenseShared();
 			return;
 		}
 		
@@ -841,6 +926,85 @@ public class LibMatrixReorg
 		out.nonZeros = in.nonZeros;
 	}
 	
+	/**
+	 * Transpose of a read-optimized csr block into a csr block via a 
+	 * counting sort over column indexes, i.e., two sequential scans over 
+	 * all non-zeros. Scattering in row order guarantees sorted output rows.
+	 * 
+	 * @param in
+	 * @param out
+	 */
+	private static void transposeCSRToCSR(MatrixBlock in, MatrixBlock out)
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		final int m2 = out.rlen;
+		final int n2 = out.clen;
+		
+		SparseBlockCSR a = in.getSparseBlockCSR();
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		int nnz = a.size();
+		
+		//count non-zeros per output row (input column)
+		int[] crowptr = new int[n+1];
+		for( int k=0; k<nnz; k++ )
+			crowptr[aix[k]+1]++;
+		for( int j=0; j<n; j++ )
+			crowptr[j+1] += crowptr[j];
+		
+		//scatter non-zeros into output rows (in input row order)
+		int[] cix = new int[nnz];
+		double[] cvals = new double[nnz];
+		int[] cpos = Arrays.copyOf(crowptr, n);
+		for( int i=0; i<m; i++ ) {
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			for( int k=apos; k<apos+alen; k++ ) {
+				int p = cpos[aix[k]]++;
+				cix[p] = i;
+				cvals[p] = avals[k];
+			}
+		}
+		
+		//allocate output arrays
+		out.reset(m2, n2, true); //always sparse
+		out.sparseBlockCSR = new SparseBlockCSR(m2, crowptr, cix, cvals);
+		out.nonZeros = nnz;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param out
+	 * @throws DMLRuntimeException 
+	 */
+	private static void transposeCSRToDense(MatrixBlock in, MatrixBlock out) 
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int m2 = out.rlen;
+		final int n2 = out.clen;
+		
+		//allocate output arrays (if required)
+		out.reset(m2, n2, false); //always dense
+		out.allocateDenseBlock();
+		
+		SparseBlockCSR a = in.getSparseBlockCSR();
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		double[] c = out.getDenseArray();
+		
+		//scatter non-zeros into output columns
+		for( int i=0; i<m; i++ ) {
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			for( int k=apos; k<apos+alen; k++ )
+				c[ aix[k]*n2+i ] = avals[k];
+		}
+		out.nonZeros = a.size();
+	}
+	
 	/**
 	 * 
 	 * @param a
@@ -939,6 +1103,8 @@ public class LibMatrixReorg
 			//we don't need to create a copy, given our copy on write semantics.
 			//however, note that with update in-place this would be an invalid optimization
 			out.denseBlock = in.denseBlock;
+			out.setDenseShared();
+			in.setDenseShared();
 			return;
 		}
 		
@@ -0,0 +1,425 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.util.FastMath;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin.BuiltinFunctionCode;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+
+/**
+ * Library for unary cellwise builtin operations (e.g., exp, log, sqrt, abs, round,
+ * sigmoid). In contrast to the generic unary operations in MatrixBlock, this library
+ * uses a dedicated inner loop per builtin function (without a virtual function call
+ * and switch per cell), exploits sparse-safeness (incl unnecessarily sparse-unsafe
+ * operations with f(0)=0), and supports multi-threaded execution over row partitions.
+ *
+ * Note: all inner loops need to be consistent with Builtin.execute(double).
+ */
+public class LibMatrixUnary
+{
+	//minimum number of cells for multi-threaded operations (512KB dense),
+	//which is lower than for binary operations due to more expensive builtins
+	private static final long PAR_NUMCELL_THRESHOLD = 64*1024;
+
+	private LibMatrixUnary() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 *
+	 * @param op
+	 * @return
+	 */
+	public static boolean isSupportedUnaryOperator( UnaryOperator op )
+	{
+		if( !(op.fn instanceof Builtin) )
+			return false;
+
+		switch( ((Builtin)op.fn).getBuiltinFunctionCode() ) {
+			case EXP: case LOG: case LOG_NZ: case SQRT: case ABS:
+			case ROUND: case CEIL: case FLOOR: case SIN: case COS: case TAN:
+			case ASIN: case ACOS: case ATAN: case SPROP: case SIGMOID:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Unary builtin operation with output representation as given by ret
+	 * (sparse output only for sparse inputs and sparse-safe operations).
+	 *
+	 * @param in
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void unaryOperations(MatrixBlock in, MatrixBlock ret, UnaryOperator op, int k)
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		BuiltinFunctionCode bfc = ((Builtin)op.fn).getBuiltinFunctionCode();
+
+		//prepare 0-value init (determine if unnecessarily sparse-unsafe)
+		double val0 = op.fn.execute(0);
+
+		//early abort on empty inputs (full init with val0, no need for computation)
+		if( in.isEmptyBlock(false) ) {
+			if( val0 != 0 )
+				ret.init(val0, m, n);
+			return;
+		}
+
+		//sanity check input/output sparsity
+		if( ret.sparse && (!in.sparse || val0 != 0) )
+			throw new DMLRuntimeException("Unsupported unary operation "+bfc+" over sparse output representation.");
+
+		//materialize sparse rows (no csr support)
+		in.csrToSparse();
+
+		//allocate output (incl clear nnz)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+
+		//core unary operation (sequential or multi-threaded)
+		ret.nonZeros = computeUnary(in, ret, bfc, val0, k);
+	}
+
+	/**
+	 *
+	 * @param m1ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void unaryOperationsInPlace(MatrixBlock m1ret, UnaryOperator op, int k)
+		throws DMLRuntimeException
+	{
+		final int m = m1ret.rlen;
+		final int n = m1ret.clen;
+		BuiltinFunctionCode bfc = ((Builtin)op.fn).getBuiltinFunctionCode();
+		double val0 = op.fn.execute(0);
+
+		//early abort on empty inputs (full init with val0, no need for computation)
+		if( m1ret.isEmptyBlock(false) ) {
+			if( val0 != 0 ) {
+				m1ret.reset(m, n, false);
+				m1ret.init(val0, m, n);
+			}
+			return;
+		}
+
+		//sparse-unsafe operations over sparse inputs require a change of representation,
+		//hence, we compute the dense output out-of-place and copy the result
+		if( m1ret.sparse && val0 != 0 ) {
+			MatrixBlock tmp = new MatrixBlock(m, n, false);
+			unaryOperations(m1ret, tmp, op, k);
+			m1ret.copy(tmp);
+			return;
+		}
+
+		//materialize sparse rows (no csr support)
+		m1ret.csrToSparse();
+
+		//core unary operation, in-place over existing rows or dense block
+		m1ret.nonZeros = computeUnary(m1ret, m1ret, bfc, val0, k);
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param ret
+	 * @param bfc
+	 * @param val0
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long computeUnary(MatrixBlock in, MatrixBlock ret, BuiltinFunctionCode bfc, double val0, int k)
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		long nnz = 0;
+
+		//sequential execution for small inputs
+		if( k <= 1 || (long)m*in.clen < PAR_NUMCELL_THRESHOLD || m <= 1 )
+			return computeUnary(in, ret, bfc, val0, 0, m);
+
+		//multi-threaded execution over row partitions
+		//(with partial nnz per partition and final merge)
+		try {
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<UnaryTask> tasks = new ArrayList<UnaryTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new UnaryTask(in, ret, bfc, val0, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> rtasks = ComputeThreadPool.invokeAll(tasks);
+			for( Future<Long> task : rtasks )
+				nnz += task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+
+		return nnz;
+	}
+
+	/**
+	 * Unary operation over the row partition [rl, ru), which returns the
+	 * number of non-zeros in this partition. In-place operations are
+	 * supported by passing the same block as input and output.
+	 *
+	 * @param in
+	 * @param ret
+	 * @param bfc
+	 * @param val0
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long computeUnary(MatrixBlock in, MatrixBlock ret, BuiltinFunctionCode bfc, double val0, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = in.clen;
+		long nnz = 0;
+
+		if( !in.sparse ) //DENSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			double[] c = ret.denseBlock;
+			computeUnary(bfc, a, rl*n, c, rl*n, (ru-rl)*n);
+			nnz = countNonZeros(c, rl*n, ru*n);
+		}
+		else if( ret.sparse ) //SPARSE <- SPARSE (sparse-safe)
+		{
+			SparseRow[] a = in.sparseRows;
+			SparseRow[] c = ret.sparseRows;
+
+			for( int i=rl; i<Math.min(ru, a.length); i++ ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+
+				//compute values into existing or new row (w/o repeated resizing)
+				SparseRow crow = (a==c) ? a[i] : new SparseRow(alen);
+				int[] cix = crow.getIndexContainer();
+				double[] cvals = crow.getValueContainer();
+				computeUnary(bfc, avals, 0, cvals, 0, alen);
+
+				//compact zero results (e.g., round)
+				int clen = 0;
+				for( int j=0; j<alen; j++ )
+					if( cvals[j] != 0 ) {
+						cix[clen] = aix[j];
+						cvals[clen] = cvals[j];
+						clen++;
+					}
+				crow.setSize(clen);
+				c[i] = crow;
+				nnz += clen;
+			}
+		}
+		else //DENSE <- SPARSE
+		{
+			SparseRow[] a = in.sparseRows;
+			double[] c = ret.denseBlock;
+			double[] tmp = null;
+
+			//init dense result with unsafe 0-value
+			if( val0 != 0 )
+				Arrays.fill(c, rl*n, ru*n, val0);
+
+			for( int i=rl, cix=rl*n; i<Math.min(ru, a.length); i++, cix+=n ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+
+				//compute values into thread-local buffer and scatter
+				if( tmp == null || tmp.length < alen )
+					tmp = new double[alen];
+				computeUnary(bfc, avals, 0, tmp, 0, alen);
+				for( int j=0; j<alen; j++ )
+					c[cix+aix[j]] = tmp[j];
+			}
+
+			nnz = countNonZeros(c, rl*n, ru*n);
+		}
+
+		return nnz;
+	}
+
+	/**
+	 * Core unary builtin computation c[ci:ci+len] = f(a[ai:ai+len]), with one
+	 * dedicated loop per builtin function in order to prevent the virtual function
+	 * call and switch per cell. Note that a and c might be the same array.
+	 *
+	 * @param bfc
+	 * @param a
+	 * @param ai
+	 * @param c
+	 * @param ci
+	 * @param len
+	 * @throws DMLRuntimeException
+	 */
+	private static void computeUnary(BuiltinFunctionCode bfc, double[] a, int ai, double[] c, int ci, int len)
+		throws DMLRuntimeException
+	{
+		switch( bfc )
+		{
+			case EXP:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.exp(a[ai+i]);
+				break;
+			case LOG:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.log(a[ai+i]);
+				break;
+			case LOG_NZ:
+				for( int i=0; i<len; i++ ) {
+					double v = a[ai+i];
+					c[ci+i] = (v==0) ? 0 : FastMath.log(v);
+				}
+				break;
+			case SQRT:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = Math.sqrt(a[ai+i]);
+				break;
+			case ABS:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = Math.abs(a[ai+i]);
+				break;
+			case ROUND:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = Math.round(a[ai+i]);
+				break;
+			case CEIL:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.ceil(a[ai+i]);
+				break;
+			case FLOOR:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.floor(a[ai+i]);
+				break;
+			case SIN:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.sin(a[ai+i]);
+				break;
+			case COS:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.cos(a[ai+i]);
+				break;
+			case TAN:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.tan(a[ai+i]);
+				break;
+			case ASIN:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.asin(a[ai+i]);
+				break;
+			case ACOS:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = FastMath.acos(a[ai+i]);
+				break;
+			case ATAN:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = Math.atan(a[ai+i]);
+				break;
+			case SPROP:
+				for( int i=0; i<len; i++ ) {
+					double v = a[ai+i];
+					c[ci+i] = v * (1 - v);
+				}
+				break;
+			case SIGMOID:
+				for( int i=0; i<len; i++ )
+					c[ci+i] = 1 / (1 + FastMath.exp(-a[ai+i]));
+				break;
+			default:
+				throw new DMLRuntimeException("Unsupported unary builtin function: "+bfc);
+		}
+	}
+
+	/**
+	 *
+	 * @param a
+	 * @param ai
+	 * @param aend
+	 * @return
+	 */
+	private static long countNonZeros(double[] a, int ai, int aend)
+	{
+		long nnz = 0;
+		for( int i=ai; i<aend; i++ )
+			if( a[i] != 0 )
+				nnz++;
+		return nnz;
+	}
+
+	/////////////////////////////////////////////////////////
+	// Task Implementations for Multi-Threaded Operations  //
+	/////////////////////////////////////////////////////////
+
+	/**
+	 *
+	 *
+	 */
+	private static class UnaryTask implements Callable<Long>
+	{
+		private MatrixBlock _in  = null;
+		private MatrixBlock _ret = null;
+		private BuiltinFunctionCode _bfc = null;
+		private double _val0 = 0;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected UnaryTask( MatrixBlock in, MatrixBlock ret, BuiltinFunctionCode bfc, double val0, int rl, int ru )
+		{
+			_in = in;
+			_ret = ret;
+			_bfc = bfc;
+			_val0 = val0;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			return computeUnary(_in, _ret, _bfc, _val0, _rl, _ru);
+		}
+	}
+}
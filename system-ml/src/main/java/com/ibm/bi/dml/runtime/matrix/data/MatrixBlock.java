@@ -29,7 +29,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.random.Well1024a;
 import org.apache.hadoop.io.DataInputBuffer;
@@ -45,6 +48,7 @@ import com.ibm.bi.dml.lops.WeightedSquaredLoss.WeightsType;
 import com.ibm.bi.dml.parser.DMLTranslator;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.compress.CompressedMatrixBlock;
 import com.ibm.bi.dml.runtime.functionobjects.Builtin;
 import com.ibm.bi.dml.runtime.functionobjects.CM;
 import com.ibm.bi.dml.runtime.functionobjects.CTable;
@@ -74,6 +78,7 @@ import com.ibm.bi.dml.runtime.matrix.operators.QuaternaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.ReorgOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
 import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
 import com.ibm.bi.dml.runtime.util.IndexRange;
@@ -91,6 +96,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public static final double ULTRA_SPARSITY_TURN_POINT = 0.00004; 
 	//basic header (int rlen, int clen, byte type)
 	public static final int HEADER_SIZE = 9;
+	//minimum number of input cells for multi-threaded ctable 
+	private static final long PAR_CTABLE_NUMCELL_THRESHOLD = 64*1024;
 	
 	public enum BlockType{
 		EMPTY_BLOCK,  
@@ -108,6 +115,14 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	//matrix data (sparse or dense)
 	protected double[] denseBlock    = null;
 	protected SparseRow[] sparseRows = null;
+	
+	//segmented dense representation for dense blocks beyond 2^31-1 cells
+	//(exclusive with denseBlock, see allocateDenseBlock)
+	protected DenseBlockLarge denseBlockLarge = null;
+	
+	//read-optimized sparse representation (optional, exclusive with sparseRows;
+	//volatile for safe conversion back to sparse rows on shared read-only inputs)
+	protected volatile SparseBlockCSR sparseBlockCSR = null;
 		
 	//sparse-block-specific attributes (allocation only)
 	protected int estimatedNNzsPerRow = -1; 
@@ -122,6 +137,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	//diag-specific attributes (optional)
 	protected boolean diag = false;
 	
+	//owner (cache object id) of the dense block for recycling on cleanup, and 
+	//shared flag if attached to multiple owners or shared with other blocks
+	protected transient int denseOwner = -1;
+	protected transient boolean denseShared = false;
+	
 	
 	////////
 	// Matrix Constructors
@@ -180,6 +200,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void reset(long estnnzs)
 	{
 		estimatedNNzsPerRow=(int)Math.ceil((double)estnnzs/(double)rlen);
+		sparseBlockCSR = null;
 		if(sparse)
 		{
 			resetSparse();
@@ -188,11 +209,18 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		{
 			if(denseBlock!=null)
 			{
-				if(denseBlock.length<rlen*clen)
+				if(denseBlock.length<(long)rlen*clen)
 					denseBlock=null;
 				else
 					Arrays.fill(denseBlock, 0, rlen*clen, 0);
 			}
+			if(denseBlockLarge!=null)
+			{
+				if(denseBlockLarge.numRows()!=rlen || denseBlockLarge.numCols()!=clen)
+					denseBlockLarge=null;
+				else
+					denseBlockLarge.fill(0);
+			}
 		}
 		nonZeros=0;
 		
@@ -230,6 +258,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	
 	public void resetSparse()
 	{
+		csrToSparse();
+		
 		if(sparseRows!=null)
 		{
 			for(int i=0; i<Math.min(rlen, sparseRows.length); i++)
@@ -256,6 +286,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		allocateDenseBlock();
 		
 		//init with constant value (non-zero, see above)
+		if( denseBlockLarge != null ) {
+			denseBlockLarge.fill(v);
+			nonZeros = (long)rlen * clen;
+			return;
+		}
 		int limit = rlen * clen;
 		Arrays.fill(denseBlock, 0, limit, v);
 		nonZeros=limit;
@@ -363,9 +398,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public boolean isAllocated()
 	{
 		if( sparse )
-			return (sparseRows!=null);
+			return (sparseRows!=null || sparseBlockCSR!=null);
 		else
-			return (denseBlock!=null);
+			return (denseBlock!=null || denseBlockLarge!=null);
 	}
 	
 	/**
@@ -388,15 +423,25 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	{
 		long limit = (long)rlen * clen;
 		
-		//check max size constraint (16GB dense), since java arrays are limited to 2^(32-1) elements)
-		if( limit > Integer.MAX_VALUE ) {
-			throw new DMLRuntimeException("Dense in-memory matrix block ("+rlen+"x"+clen+") exceeds supported size of "+Integer.MAX_VALUE+" elements (16GB). " +
-					                      "Please, reduce the JVM heapsize to execute this in MR.");
+		//allocate segmented dense block beyond 2^31-1 cells (16GB dense), 
+		//since java arrays are limited to 2^(32-1) elements
+		if( DenseBlockLarge.isLargeDenseBlock(rlen, clen) ) {
+			if( !OptimizerUtils.ALLOW_LARGE_DENSE_BLOCKS ) {
+				throw new DMLRuntimeException("Dense in-memory matrix block ("+rlen+"x"+clen+") exceeds supported size of "+Integer.MAX_VALUE+" elements (16GB). " +
+						                      "Please, reduce the JVM heapsize to execute this in MR.");
+			}
+			if( denseBlockLarge == null || denseBlockLarge.numRows() != rlen || denseBlockLarge.numCols() != clen )
+				denseBlockLarge = new DenseBlockLarge(rlen, clen);
+			denseBlock = null;
+			if( clearNNZ )
+				nonZeros = 0;
+			return;
 		}
+		denseBlockLarge = null;
 		
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
 		if(denseBlock == null || denseBlock.length < limit ) {
-			denseBlock = new double[(int)limit];
+			denseBlock = DenseBlockPool.allocate((int)limit);
 		}
 		
 		//clear nnz if necessary
@@ -419,6 +464,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public void allocateSparseRowsBlock(boolean clearNNZ)
 	{	
+		//materialize sparse rows of read-only csr block (if necessary)
+		csrToSparse();
+		
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
 		if( sparseRows == null ) {
 			sparseRows=new SparseRow[rlen];
@@ -467,10 +515,51 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public void cleanupBlock( boolean dense, boolean sparse )
 	{
-		if(dense)
+		if(dense) {
 			denseBlock = null;
-		if(sparse)
+			denseBlockLarge = null;
+		}
+		if(sparse) {
 			sparseRows = null;
+			sparseBlockCSR = null;
+		}
+	}
+	
+	/**
+	 * Registers the given cache object as owner of this block. Blocks attached
+	 * to multiple cache objects are marked as shared and never recycled.
+	 * 
+	 * @param id unique cache id of the owner
+	 */
+	public void setOwner( int id )
+	{
+		if( denseOwner != -1 && denseOwner != id )
+			denseShared = true;
+		denseOwner = id;
+	}
+	
+	/**
+	 * Marks the dense block as shared with another matrix block, 
+	 * which excludes it from recycling.
+	 */
+	public void setDenseShared()
+	{
+		denseShared = true;
+	}
+	
+	/**
+	 * Returns the dense block to the dense block pool if it is exclusively
+	 * owned by the given (cleaned up) cache object. 
+	 * 
+	 * @param id unique cache id of the owner
+	 */
+	public void recycleDenseBlock( int id )
+	{
+		if( denseOwner == id && !denseShared && denseBlock != null ) {
+			double[] tmp = denseBlock;
+			denseBlock = null;
+			DenseBlockPool.recycle(tmp);
+		}
 	}
 	
 	////////
@@ -507,6 +596,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		return nonZeros;
 	}
 	
+	public void setNonZeros(long nnz)
+	{
+		nonZeros = nnz;
+	}
+	
 	public boolean isVector() 
 	{
 		return (rlen == 1 || clen == 1);
@@ -563,9 +657,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public boolean isEmptyBlock(boolean safe)
 	{
 		boolean ret = false;
-		if( sparse && sparseRows==null )
+		if( sparse && sparseRows==null && sparseBlockCSR==null )
 			ret = true;
-		else if( !sparse && denseBlock==null ) 	
+		else if( !sparse && denseBlock==null && denseBlockLarge==null ) 	
 			ret = true;
 		if( nonZeros==0 )
 		{
@@ -597,10 +691,34 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		return denseBlock;
 	}
 	
+	/**
+	 * Returns the segmented dense block if this block is a dense block 
+	 * beyond 2^31-1 cells, otherwise null (see getDenseArray).
+	 * 
+	 * @return
+	 */
+	public DenseBlockLarge getDenseBlockLarge()
+	{
+		if(sparse)
+			return null;
+		return denseBlockLarge;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isInLargeDenseFormat()
+	{
+		return !sparse && denseBlockLarge!=null;
+	}
+	
 	public SparseRow[] getSparseRows()
 	{
 		if(!sparse)
 			return null;
+		csrToSparse();
+		
 		return sparseRows;
 	}
 	
@@ -610,6 +728,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		if( !sparse )
 			throw new RuntimeException("getSparseCellInterator should not be called for dense format");
 		
+		csrToSparse();
+		
 		return new SparseRowsIterator(rlen, sparseRows);
 	}
 	
@@ -619,12 +739,80 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		if( !sparse )
 			throw new RuntimeException("getSparseCellInterator should not be called for dense format");
 		
+		csrToSparse();
+		
 		return new SparseRowsIterator(rowStart, rowStart+rowNum, sparseRows);
 	}
 	
+	/**
+	 * Indicates if this block is in the read-optimized sparse CSR representation.
+	 * 
+	 * @return
+	 */
+	public boolean isInSparseCSRFormat()
+	{
+		return sparse && sparseBlockCSR!=null;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public SparseBlockCSR getSparseBlockCSR()
+	{
+		if(!sparse)
+			return null;
+		return sparseBlockCSR;
+	}
+	
+	/**
+	 * Converts the sparse rows of this block into the read-optimized CSR 
+	 * representation, which requires only three arrays independent of the
+	 * number of rows. This is intended for read-only blocks after construction;
+	 * any subsequent CSR-unaware or updating operation transparently converts 
+	 * the block back into sparse rows.
+	 * 
+	 */
+	public void sparseToCSR()
+	{
+		//only applicable to non-empty sparse blocks
+		if( !sparse || sparseRows==null || sparseBlockCSR!=null )
+			return;
+		
+		//compute exact nnz (in order to prevent over-allocation)
+		recomputeNonZeros();
+		if( nonZeros > Integer.MAX_VALUE )
+			return;
+		
+		sparseBlockCSR = new SparseBlockCSR(sparseRows, rlen, (int)nonZeros);
+		sparseRows = null;
+	}
+	
+	/**
+	 * Converts a read-only CSR block back into sparse rows, which is required
+	 * by all operations that are not CSR-aware. Since CSR blocks are usually
+	 * shared read-only inputs, this conversion is thread-safe.
+	 * 
+	 */
+	public void csrToSparse()
+	{
+		if( sparseBlockCSR == null )
+			return;
+		
+		synchronized( this ) {
+			SparseBlockCSR csr = sparseBlockCSR;
+			if( csr != null ) {
+				sparseRows = csr.toSparseRows();
+				sparseBlockCSR = null; //volatile write after sparse rows 
+			}
+		}
+	}
+	
 	@Override
 	public void getCellValues(Collection<Double> ret) 
 	{
+		csrToSparse();
+		
 		int limit=rlen*clen;
 		if(sparse)
 		{
@@ -663,6 +851,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	@Override
 	public void getCellValues(Map<Double, Integer> ret) 
 	{
+		csrToSparse();
+		
 		int limit=rlen*clen;
 		if(sparse)
 		{
@@ -722,11 +912,16 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		
 		if(sparse)
 		{
+			SparseBlockCSR csr = sparseBlockCSR;
+			if( csr!=null )
+				return csr.get(r, c);
 			if(sparseRows==null || sparseRows.length<=r || sparseRows[r]==null)
 				return 0;
 			return sparseRows[r].get(c);
 		}else
 		{
+			if(denseBlockLarge!=null)
+				return denseBlockLarge.get(r, c);
 			if(denseBlock==null)
 				return 0;
 			return denseBlock[r*clen+c]; 
@@ -740,6 +935,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			throw new RuntimeException("indexes ("+r+","+c+") out of range ("+rlen+","+clen+")");
 		if(sparse)
 		{
+			csrToSparse();
 			if( (sparseRows==null || sparseRows.length<=r || sparseRows[r]==null) && v==0.0)
 				return;
 			//allocation on demand
@@ -752,7 +948,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			
 		}else
 		{
-			if(denseBlock==null && v==0.0)
+			if(denseBlock==null && denseBlockLarge==null && v==0.0)
 				return;
 
 			//allocate and init dense block (w/o overwriting nnz)
@@ -762,7 +958,12 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			catch(DMLRuntimeException e){
 				throw new RuntimeException(e);
 			}
-				
+			
+			if(denseBlockLarge!=null) {
+				setValueDenseLarge(r, c, v);
+				return;
+			}
+			
 			int index=r*clen+c;
 			if(denseBlock[index]==0)
 				nonZeros++;
@@ -788,6 +989,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 * 
 	 */
 	public void addValue(int r, int c, double v) {
+		csrToSparse();
+		
 		if(sparse)
 		{
 			//allocation on demand
@@ -809,6 +1012,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 				throw new RuntimeException(e);
 			}
 			
+			if(denseBlockLarge!=null) {
+				denseBlockLarge.set(r, c, denseBlockLarge.get(r, c)+v);
+				return;
+			}
+			
 			int index=r*clen+c;
 			denseBlock[index]+=v;
 		}
@@ -824,12 +1032,17 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	{
 		if(sparse)
 		{
+			SparseBlockCSR csr = sparseBlockCSR;
+			if( csr!=null )
+				return csr.get(r, c);
 			if( sparseRows==null || sparseRows.length<=r || sparseRows[r]==null )
 				return 0;
 			return sparseRows[r].get(c);
 		}
 		else
 		{
+			if( denseBlockLarge!=null )
+				return denseBlockLarge.get(r, c);
 			if( denseBlock==null )
 				return 0;
 			return denseBlock[r*clen+c]; 
@@ -846,6 +1059,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	{
 		if(sparse)
 		{
+			//materialize sparse rows of read-only csr block
+			csrToSparse();
+			
 			//early abort
 			if( (sparseRows==null || sparseRows.length<=r || sparseRows[r]==null) && v==0 )
 				return;
@@ -862,7 +1078,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		else
 		{
 			//early abort
-			if( denseBlock==null && v==0 )
+			if( denseBlock==null && denseBlockLarge==null && v==0 )
 				return;		
 			
 			//allocate and init dense block (w/o overwriting nnz)
@@ -873,6 +1089,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 				throw new RuntimeException(e);
 			}
 			
+			if( denseBlockLarge!=null ) {
+				setValueDenseLarge(r, c, v);
+				return;
+			}
+			
 			//set value and maintain nnz
 			int index=r*clen+c;
 			if( denseBlock[index]==0 )
@@ -885,11 +1106,27 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	
 	public double getValueDenseUnsafe(int r, int c) 
 	{
+		if(denseBlockLarge!=null)
+			return denseBlockLarge.get(r, c);
 		if(denseBlock==null)
 			return 0;
 		return denseBlock[r*clen+c]; 
 	}
 	
+	/**
+	 * Sets a value of a segmented dense block and maintains the nnz.
+	 * 
+	 * @param r
+	 * @param c
+	 * @param v
+	 */
+	private void setValueDenseLarge(int r, int c, double v)
+	{
+		double old = denseBlockLarge.get(r, c);
+		denseBlockLarge.set(r, c, v);
+		nonZeros += ((v!=0) ? 1 : 0) - ((old!=0) ? 1 : 0);
+	}
+	
 
 	/**
 	 * This can be only called when you know you have properly allocated spaces for a dense representation
@@ -898,11 +1135,17 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */	
 	public void setValueDenseUnsafe(int r, int c, double v) 
 	{
-		denseBlock[r*clen+c]=v;		
+		if(denseBlockLarge!=null)
+			denseBlockLarge.set(r, c, v);
+		else
+			denseBlock[r*clen+c]=v;		
 	}
 	
 	public double getValueSparseUnsafe(int r, int c) 
 	{
+		SparseBlockCSR csr = sparseBlockCSR;
+		if( csr!=null )
+			return csr.get(r, c);
 		if(sparseRows==null || sparseRows.length<=r || sparseRows[r]==null)
 			return 0;
 		return sparseRows[r].get(c);	
@@ -918,6 +1161,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public void appendValue(int r, int c, double v)
 	{
+		csrToSparse();
+		
 		if(v==0) return;
 		if(!sparse) 
 			quickSetValue(r, c, v);
@@ -934,6 +1179,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	
 	public void appendRow(int r, SparseRow values)
 	{
+		csrToSparse();
+		
 		if(values==null)
 			return;
 		if(sparse)
@@ -969,6 +1216,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		
 		//init sparse rows if necessary
 		allocateSparseRowsBlock(false);
+		that.csrToSparse();
 		
 		if( that.sparse ) //SPARSE <- SPARSE
 		{
@@ -1014,6 +1262,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public void sortSparseRows()
 	{
+		//note: csr blocks are always sorted
 		if( !sparse || sparseRows==null )
 			return;
 		
@@ -1279,28 +1528,46 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		sparse = true;
 		
 		//early abort on empty blocks
-		if(denseBlock==null)
+		if(denseBlock==null && denseBlockLarge==null)
 			return;
 		
 		//allocate sparse target block (reset required to maintain nnz again)
+		DenseBlockLarge large = denseBlockLarge;
 		allocateSparseRowsBlock();
 		reset();
 		
 		//copy dense to sparse
-		double[] a = denseBlock;
 		SparseRow[] c = sparseRows;
 		
-		for( int i=0, aix=0; i<rlen; i++ )
-			for(int j=0; j<clen; j++, aix++)
-				if( a[aix] != 0 ) {
-					if( c[i]==null ) //create sparse row only if required
-						c[i]=new SparseRow(estimatedNNzsPerRow, clen);
-					c[i].append(j, a[aix]);
-					nonZeros++;
-				}
+		if( large != null ) //segmented dense 
+		{
+			for( int i=0; i<rlen; i++ ) {
+				double[] a = large.values(i);
+				for( int j=0, aix=large.pos(i); j<clen; j++, aix++ )
+					if( a[aix] != 0 ) {
+						if( c[i]==null ) //create sparse row only if required
+							c[i]=new SparseRow(estimatedNNzsPerRow, clen);
+						c[i].append(j, a[aix]);
+						nonZeros++;
+					}
+			}
+		}
+		else
+		{
+			double[] a = denseBlock;
+			for( int i=0, aix=0; i<rlen; i++ )
+				for(int j=0; j<clen; j++, aix++)
+					if( a[aix] != 0 ) {
+						if( c[i]==null ) //create sparse row only if required
+							c[i]=new SparseRow(estimatedNNzsPerRow, clen);
+						c[i].append(j, a[aix]);
+						nonZeros++;
+					}
+		}
 				
 		//cleanup dense block
 		denseBlock = null;
+		denseBlockLarge = null;
 	}
 	
 	/**
@@ -1314,9 +1581,16 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		sparse = false;
 		
 		//early abort on empty blocks
-		if(sparseRows==null)
+		SparseBlockCSR csr = sparseBlockCSR;
+		if( sparseRows==null && csr==null )
 			return;
 		
+		//convert into segmented dense block beyond 2^31-1 cells
+		if( DenseBlockLarge.isLargeDenseBlock(rlen, clen) ) {
+			sparseToDenseLarge();
+			return;
+		}
+		
 		int limit=rlen*clen;
 		if ( limit < 0 ) {
 			throw new DMLRuntimeException("Unexpected error in sparseToDense().. limit < 0: " + rlen + ", " + clen + ", " + limit);
@@ -1326,6 +1600,20 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		allocateDenseBlock(false);
 		Arrays.fill(denseBlock, 0, limit, 0);
 		
+		//copy csr to dense (single scan over all non-zeros)
+		if( csr != null ) {
+			int[] aix = csr.indexes();
+			double[] avals = csr.values();
+			for( int i=0, cix=0; i<rlen; i++, cix+=clen ) {
+				int apos = csr.pos(i);
+				int alen = csr.size(i);
+				for(int j=apos; j<apos+alen; j++)
+					denseBlock[ cix+aix[j] ] = avals[j];
+			}
+			sparseBlockCSR = null;
+			return;
+		}
+		
 		//copy sparse to dense
 		SparseRow[] a = sparseRows;
 		double[] c = denseBlock;
@@ -1343,17 +1631,55 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		//cleanup sparse rows
 		sparseRows = null;
 	}
+	
+	/**
+	 * 
+	 * @throws DMLRuntimeException
+	 */
+	private void sparseToDenseLarge() 
+		throws DMLRuntimeException 
+	{
+		//allocate segmented dense target block, but keep nnz (no need to maintain)
+		allocateDenseBlock(false);
+		denseBlockLarge.fill(0);
+		
+		//copy sparse rows or csr to segmented dense 
+		csrToSparse();
+		SparseRow[] a = sparseRows;
+		for( int i=0; i<Math.min(rlen, a.length); i++ )
+			if( a[i] != null && !a[i].isEmpty() ) {
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				double[] c = denseBlockLarge.values(i);
+				int cix = denseBlockLarge.pos(i);
+				for(int j=0; j<alen; j++)
+					c[ cix+aix[j] ] = avals[j];
+			}
+		
+		//cleanup sparse rows
+		sparseRows = null;
+	}
 
 	public void recomputeNonZeros()
 	{
 		nonZeros=0;
-		if( sparse && sparseRows!=null )
+		SparseBlockCSR csr = sparseBlockCSR;
+		if( sparse && csr!=null )
+		{
+			nonZeros = csr.size();
+		}
+		else if( sparse && sparseRows!=null )
 		{
 			int limit = Math.min(rlen, sparseRows.length);
 			for(int i=0; i<limit; i++)
 				if(sparseRows[i]!=null)
 					nonZeros += sparseRows[i].size();
 		}
+		else if( !sparse && denseBlockLarge!=null )
+		{
+			nonZeros = denseBlockLarge.countNonZeros();
+		}
 		else if( !sparse && denseBlock!=null )
 		{
 			int limit=rlen*clen;
@@ -1370,7 +1696,12 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private long recomputeNonZeros(int rl, int ru, int cl, int cu)
 	{
 		long nnz = 0;
-		if(sparse)
+		SparseBlockCSR csr = sparseBlockCSR;
+		if(sparse && csr!=null)
+		{
+			nnz = csr.countNonZeros(rl, Math.min(ru, rlen-1), cl, cu);
+		}
+		else if(sparse)
 		{
 			if(sparseRows!=null)
 			{
@@ -1414,6 +1745,14 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 							nnz++;
 					}
 			}
+			else if(denseBlockLarge!=null)
+			{
+				for( int i=rl; i<=ru; i++ ) {
+					double[] a = denseBlockLarge.values(i);
+					for( int j=cl, ix=denseBlockLarge.pos(i); j<=cu; j++ )
+						nnz += (a[ix+j]!=0) ? 1 : 0;
+				}
+			}
 		}
 
 		return nnz;
@@ -1458,8 +1797,13 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		this.rlen=that.rlen;
 		this.clen=that.clen;
 		this.sparse=sp;
+		this.sparseBlockCSR=null; //overwritten in any case
 		estimatedNNzsPerRow=(int)Math.ceil((double)thatValue.getNonZeros()/(double)rlen);
-		if(this.sparse && that.sparse)
+		if( that.isInLargeDenseFormat() || (!this.sparse && DenseBlockLarge.isLargeDenseBlock(rlen, clen)) )
+			copyDenseLarge(that);
+		else if( that.isInSparseCSRFormat() )
+			copyCSRToSparseOrDense(that);
+		else if(this.sparse && that.sparse)
 			copySparseToSparse(that);
 		else if(this.sparse && !that.sparse)
 			copyDenseToSparse(that);
@@ -1469,6 +1813,110 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			copyDenseToDense(that);
 	}
 	
+	/**
+	 * 
+	 * @param that
+	 */
+	private void copyCSRToSparseOrDense(MatrixBlock that)
+	{
+		SparseBlockCSR csr = that.sparseBlockCSR;
+		if( csr == null ) { //concurrent conversion to sparse rows
+			if( sparse )
+				copySparseToSparse(that);
+			else
+				copySparseToDense(that);
+			return;
+		}
+		
+		nonZeros = that.nonZeros;
+		if( sparse ) {
+			//shallow copy of read-only csr arrays (never updated in-place)
+			sparseRows = null;
+			sparseBlockCSR = csr;
+		}
+		else {
+			try {
+				allocateDenseBlock(false);
+			}
+			catch(DMLRuntimeException e){
+				throw new RuntimeException(e);
+			}
+			Arrays.fill(denseBlock, 0, rlen*clen, 0);
+			
+			int[] aix = csr.indexes();
+			double[] avals = csr.values();
+			for( int i=0, cix=0; i<rlen; i++, cix+=clen ) {
+				int apos = csr.pos(i);
+				int alen = csr.size(i);
+				for(int j=apos; j<apos+alen; j++)
+					denseBlock[ cix+aix[j] ] = avals[j];
+			}
+		}
+	}
+	
+	/**
+	 * Copy from or into segmented dense blocks beyond 2^31-1 cells.
+	 * 
+	 * @param that
+	 */
+	private void copyDenseLarge(MatrixBlock that)
+	{
+		nonZeros = that.nonZeros;
+		denseBlock = null;
+		
+		//copy segmented dense to sparse
+		if( sparse ) {
+			allocateSparseRowsBlock(false);
+			for( int i=0; i<rlen; i++ ) {
+				sparseRows[i] = null;
+				double[] a = that.denseBlockLarge.values(i);
+				for( int j=0, aix=that.denseBlockLarge.pos(i); j<clen; j++, aix++ )
+					if( a[aix] != 0 ) {
+						if( sparseRows[i]==null )
+							sparseRows[i]=new SparseRow(estimatedNNzsPerRow, clen);
+						sparseRows[i].append(j, a[aix]);
+					}
+			}
+			return;
+		}
+		
+		//allocate and init segmented dense block (w/o overwriting nnz)
+		try {
+			allocateDenseBlock(false);
+		}
+		catch(DMLRuntimeException e){
+			throw new RuntimeException(e);
+		}
+		
+		if( that.isEmptyBlock(false) ) { 
+			//plain reset to 0 for empty input
+			denseBlockLarge.fill(0);
+		}
+		else if( that.isInLargeDenseFormat() ) { 
+			//copy segment by segment (equal dimensions)
+			for( int s=0; s<denseBlockLarge.numSegments(); s++ ) {
+				double[] a = that.denseBlockLarge.segment(s);
+				System.arraycopy(a, 0, denseBlockLarge.segment(s), 0, a.length);
+			}
+		}
+		else { 
+			//copy sparse to segmented dense
+			denseBlockLarge.fill(0);
+			that.csrToSparse();
+			SparseRow[] a = that.sparseRows;
+			for( int i=0; i<Math.min(a.length, rlen); i++ )
+				if( a[i] != null && !a[i].isEmpty() ) {
+					int alen = a[i].size();
+					int[] aix = a[i].getIndexContainer();
+					double[] avals = a[i].getValueContainer();
+					double[] c = denseBlockLarge.values(i);
+					int cix = denseBlockLarge.pos(i);
+					for( int j=0; j<alen; j++ )
+						c[cix+aix[j]] = avals[j];
+				}
+		}
+	}
+	
 	private void copySparseToSparse(MatrixBlock that)
 	{
 		this.nonZeros=that.nonZeros;
@@ -1599,7 +2047,13 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void copy(int rl, int ru, int cl, int cu, MatrixBlock src, boolean awareDestNZ ) 
 		throws DMLRuntimeException 
 	{	
-		if(sparse && src.sparse)
+		//materialize sparse rows of read-only csr blocks
+		csrToSparse();
+		src.csrToSparse();
+		
+		if( !sparse && (denseBlockLarge!=null || DenseBlockLarge.isLargeDenseBlock(rlen, clen)) )
+			copyToDenseLarge(rl, ru, cl, cu, src, awareDestNZ);
+		else if(sparse && src.sparse)
 			copySparseToSparse(rl, ru, cl, cu, src, awareDestNZ);
 		else if(sparse && !src.sparse)
 			copyDenseToSparse(rl, ru, cl, cu, src, awareDestNZ);
@@ -1818,6 +2272,52 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			}
 	}
 	
+	/**
+	 * Copies the given (small) source block into the index range of this
+	 * segmented dense block, where rows never span multiple segments.
+	 * 
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @param src
+	 * @param awareDestNZ
+	 * @throws DMLRuntimeException
+	 */
+	private void copyToDenseLarge(int rl, int ru, int cl, int cu, MatrixBlock src, boolean awareDestNZ) 
+		throws DMLRuntimeException
+	{
+		if( denseBlockLarge==null ) {
+			if( src.isEmptyBlock(false) )
+				return;
+			allocateDenseBlock();
+		}
+		
+		if( awareDestNZ )
+			nonZeros = nonZeros - recomputeNonZeros(rl, ru, cl, cu) + src.nonZeros;
+		
+		int rowLen = cu-cl+1;
+		for( int i=0; i<=ru-rl; i++ ) {
+			double[] c = denseBlockLarge.values(rl+i);
+			int cix = denseBlockLarge.pos(rl+i) + cl;
+			if( src.isEmptyBlock(false) ) 
+				Arrays.fill(c, cix, cix+rowLen, 0);
+			else if( src.sparse ) {
+				Arrays.fill(c, cix, cix+rowLen, 0);
+				SparseRow arow = (i<src.sparseRows.length) ? src.sparseRows[i] : null;
+				if( arow != null && !arow.isEmpty() ) {
+					int alen = arow.size();
+					int[] aix = arow.getIndexContainer();
+					double[] avals = arow.getValueContainer();
+					for( int j=0; j<alen; j++ )
+						c[cix+aix[j]] = avals[j];
+				}
+			}
+			else
+				System.arraycopy(src.denseBlock, i*src.clen, c, cix, rowLen);
+		}
+	}
+	
 	private void copyEmptyToSparse(int rl, int ru, int cl, int cu, boolean updateNNZ ) 
 	{
 		if( cl==cu ) //specific case: column vector
@@ -1904,6 +2404,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			return;
 		}
 		
+		//materialize sparse rows of read-only csr blocks
+		csrToSparse();
+		that.csrToSparse();
+		
 		//core matrix block merge (guaranteed non-empty source/target, nnz maintenance not required)
 		long nnz = nonZeros + that.nonZeros;
 		if( sparse )
@@ -2039,7 +2543,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			{
 				case ULTRA_SPARSE_BLOCK:
 					nonZeros = readNnzInfo( in, true );
-					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros);
+					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros) 
+						|| DenseBlockLarge.isLargeDenseBlock(rlen, clen); //no segmented dense
 					cleanupBlock(true, true); //clean all
 					if( sparse )
 						readUltraSparseBlock(in);
@@ -2048,7 +2553,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 					break;
 				case SPARSE_BLOCK:
 					nonZeros = readNnzInfo( in, false );
-					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros);
+					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros)
+						|| DenseBlockLarge.isLargeDenseBlock(rlen, clen); //no segmented dense
 					cleanupBlock(sparse, !sparse); 
 					if( sparse )
 						readSparseBlock(in);
@@ -2084,6 +2590,23 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	{
 		allocateDenseBlock(true); //allocate block, clear nnz
 		
+		//segmented dense blocks (read segment by segment)
+		if( denseBlockLarge != null ) {
+			for( int s=0; s<denseBlockLarge.numSegments(); s++ ) {
+				double[] a = denseBlockLarge.segment(s);
+				if( in instanceof MatrixBlockDataInput ) //fast deserialize
+					nonZeros += ((MatrixBlockDataInput)in).readDoubleArray(a.length, a);
+				else { //default deserialize
+					for( int i=0; i<a.length; i++ ) {
+						a[i] = in.readDouble();
+						if( a[i]!=0 )
+							nonZeros++;
+					}
+				}
+			}
+			return;
+		}
+		
 		int limit = rlen*clen;
 		
 		if( in instanceof MatrixBlockDataInput ) //fast deserialize
@@ -2117,7 +2640,13 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	private void readSparseBlock(DataInput in) 
 		throws IOException 
-	{			
+	{
+		//keep read-optimized csr representation of reused blocks
+		if( sparseBlockCSR != null && nonZeros <= Integer.MAX_VALUE ) {
+			readSparseBlockToCSR(in);
+			return;
+		}
+		
 		allocateSparseRowsBlock(false); 
 		resetSparse(); //reset all sparse rows
 		
@@ -2155,6 +2684,46 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		}
 	}
 	
+	/**
+	 * Reads a sparse block in bulk into a new csr block. Note that the 
+	 * existing csr arrays are never reused because they might be shared 
+	 * with shallow copies of this block.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	private void readSparseBlockToCSR(DataInput in) 
+		throws IOException 
+	{
+		SparseBlockCSR csr = new SparseBlockCSR(rlen, (int)nonZeros);
+		
+		if( in instanceof MatrixBlockDataInput ) //fast deserialize
+		{
+			MatrixBlockDataInput mbin = (MatrixBlockDataInput)in;
+			nonZeros = mbin.readSparseBlockCSR(rlen, csr);
+		}
+		else //default deserialize
+		{
+			int[] rowptr = csr.rowPointers();
+			int[] aix = csr.indexes();
+			double[] avals = csr.values();
+			int pos = 0;
+			for( int r=0; r<rlen; r++ )
+			{
+				rowptr[r] = pos;
+				int nr = in.readInt();
+				for( int j=0; j<nr; j++, pos++ ) {
+					aix[pos] = in.readInt();
+					avals[pos] = in.readDouble();
+				}
+			}
+			rowptr[rlen] = pos;
+		}
+		
+		sparseRows = null;
+		sparseBlockCSR = csr;
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -2234,7 +2803,20 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		out.writeInt(rlen);
 		out.writeInt(clen);
 		
-		if( sparseSrc )
+		SparseBlockCSR csr = sparseBlockCSR;
+		if( sparseSrc && csr!=null )
+		{
+			//write csr to * (sparse rows in standard format)
+			if( nonZeros==0 ) 
+				writeEmptyBlock(out);
+			else if( nonZeros<rlen && sparseDst ) 
+				writeCSRToUltraSparse(out, csr); 
+			else if( sparseDst ) 
+				writeCSRBlock(out, csr);
+			else
+				writeCSRToDense(out, csr);
+		}
+		else if( sparseSrc )
 		{
 			//write sparse to *
 			if( sparseRows==null || nonZeros==0 ) 
@@ -2249,8 +2831,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		else
 		{
 			//write dense to *
-			if( denseBlock==null || nonZeros==0 ) 
+			if( (denseBlock==null && denseBlockLarge==null) || nonZeros==0 ) 
 				writeEmptyBlock(out);
+			else if( denseBlockLarge!=null ) //always dense format
+				writeDenseBlock(out);
 			else if( nonZeros<rlen && sparseDst )
 				writeDenseToUltraSparse(out);
 			else if( sparseDst )
@@ -2282,6 +2866,19 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	{
 		out.writeByte( BlockType.DENSE_BLOCK.ordinal() );
 		
+		//segmented dense blocks (write segment by segment)
+		if( denseBlockLarge != null ) {
+			for( int s=0; s<denseBlockLarge.numSegments(); s++ ) {
+				double[] a = denseBlockLarge.segment(s);
+				if( out instanceof MatrixBlockDataOutput ) //fast serialize
+					((MatrixBlockDataOutput)out).writeDoubleArray(a.length, a);
+				else //general case (if fast serialize not supported)
+					for(int i=0; i<a.length; i++)
+						out.writeDouble(a[i]);
+			}
+			return;
+		}
+		
 		int limit=rlen*clen;
 		if( out instanceof MatrixBlockDataOutput ) //fast serialize
 			((MatrixBlockDataOutput)out).writeDoubleArray(limit, denseBlock);
@@ -2329,6 +2926,100 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		}
 	}
 	
+	/**
+	 * Writes a csr block in the sparse block format; in contrast
+	 * to sparse rows, fast serialization can write the entire block
+	 * from its flat arrays.
+	 * 
+	 * @param out
+	 * @param csr
+	 * @throws IOException
+	 */
+	private void writeCSRBlock(DataOutput out, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		out.writeByte( BlockType.SPARSE_BLOCK.ordinal() );
+		writeNnzInfo( out, false );
+		
+		if( out instanceof MatrixBlockDataOutput ) //fast serialize
+			((MatrixBlockDataOutput)out).writeSparseBlockCSR(rlen, csr);
+		else //general case (if fast serialize not supported)
+		{
+			int[] cols = csr.indexes();
+			double[] values = csr.values();
+			for( int r=0; r<rlen; r++ )
+			{
+				int apos = csr.pos(r);
+				int alen = csr.size(r);
+				out.writeInt(alen);
+				for( int j=apos; j<apos+alen; j++ ) {
+					out.writeInt(cols[j]);
+					out.writeDouble(values[j]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param out
+	 * @param csr
+	 * @throws IOException
+	 */
+	private void writeCSRToUltraSparse(DataOutput out, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		out.writeByte( BlockType.ULTRA_SPARSE_BLOCK.ordinal() );
+		writeNnzInfo( out, true );
+		
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		for( int r=0; r<rlen; r++ ) 
+		{
+			int apos = csr.pos(r);
+			int alen = csr.size(r);
+			for( int j=apos; j<apos+alen; j++ ) {
+				out.writeInt(r);
+				out.writeInt(aix[j]);
+				out.writeDouble(avals[j]);
+			}
+		}
+		
+		//validity check (nnz must exactly match written nnz)
+		if( nonZeros != csr.size() ) {
+			throw new IOException("Invalid number of serialized non-zeros: "+csr.size()+" (expected: "+nonZeros+")");
+		}
+	}
+	
+	/**
+	 * 
+	 * @param out
+	 * @param csr
+	 * @throws IOException
+	 */
+	private void writeCSRToDense(DataOutput out, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		out.writeByte( BlockType.DENSE_BLOCK.ordinal() );
+		
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		for( int i=0; i<rlen; i++ )
+		{
+			int apos = csr.pos(i);
+			int alen = csr.size(i);
+			//foreach non-zero value, fill with 0s if required
+			for( int j=0, j2=apos; j2<apos+alen; j++, j2++ ) {
+				for( ; j<aix[j2]; j++ )
+					out.writeDouble( 0 );
+				out.writeDouble( avals[j2] );
+			}
+			//remaining 0 values in row
+			for( int j=(alen>0)?aix[apos+alen-1]+1:0; j<clen; j++)
+				out.writeDouble( 0 );
+		}
+	}
+	
 	/**
 	 * 
 	 * @param out
@@ -2582,7 +3273,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		if( sparseSrc )
 		{
 			//write sparse to *
-			if(sparseRows==null || lnonZeros==0)
+			if( (sparseRows==null && sparseBlockCSR==null) || lnonZeros==0)
 				return HEADER_SIZE; //empty block
 			else if( lnonZeros<lrlen && sparseDst )
 				return estimateSizeUltraSparseOnDisk(lrlen, lclen, lnonZeros); //ultra sparse block
@@ -2594,8 +3285,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		else
 		{
 			//write dense to *
-			if(denseBlock==null || lnonZeros==0)
+			if( (denseBlock==null && denseBlockLarge==null) || lnonZeros==0)
 				return HEADER_SIZE; //empty block
+			else if( denseBlockLarge!=null )
+				return estimateSizeDenseOnDisk(lrlen, lclen); //segmented dense block
 			else if( lnonZeros<lrlen && sparseDst )
 				return estimateSizeUltraSparseOnDisk(lrlen, lclen, lnonZeros); //ultra sparse block
 			else if( sparseDst )
@@ -2614,6 +3307,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public long estimateSizeInMemory() 
 	{
+		//exact size of read-only csr blocks (no over-allocation)
+		if( isInSparseCSRFormat() )
+			return 44 + SparseBlockCSR.estimateSizeInMemory(rlen, nonZeros);
+		
 		double sp = OptimizerUtils.getSparsity(rlen, clen, nonZeros);
 		return estimateSizeInMemory(rlen, clen, sp);
 	}
@@ -2645,6 +3342,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public static long estimateSizeDenseInMemory(long nrows, long ncols)
 	{
+		// segmented dense matrix block (array of double arrays)
+		if( DenseBlockLarge.isLargeDenseBlock(nrows, ncols) )
+			return 44 + DenseBlockLarge.estimateSizeInMemory(nrows, ncols);
+		
 		// basic variables and references sizes
 		long size = 44;
 		
@@ -2892,7 +3593,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			ret.reset(rlen, clen, sp, this.nonZeros);
 		
 		//core scalar operations
-		LibMatrixBincell.bincellOp(this, ret, op);
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp(this, ret, op, op.getNumThreads());
+		else
+			LibMatrixBincell.bincellOp(this, ret, op);
 		
 		return ret;
 	}
@@ -2923,6 +3627,11 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			//e.g., cumsum/cumprod/cummin/cumax
 			LibMatrixAgg.aggregateUnaryMatrix(this, ret, op);
 		}
+		else if( LibMatrixUnary.isSupportedUnaryOperator(op) )
+		{
+			//e.g., exp/log/sqrt/abs/round/sigmoid (specialized, multi-threaded)
+			LibMatrixUnary.unaryOperations(this, ret, op, op.getNumThreads());
+		}
 		else
 		{
 			//default execute unary operations
@@ -2949,6 +3658,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private void sparseUnaryOperations(UnaryOperator op, MatrixBlock ret) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		csrToSparse();
+		
 		//early abort possible since sparse-safe
 		if( isEmptyBlock(false) )
 			return;
@@ -3033,7 +3744,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void unaryOperationsInPlace(UnaryOperator op) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
-		if(op.sparseSafe)
+		if( LibMatrixUnary.isSupportedUnaryOperator(op) )
+			LibMatrixUnary.unaryOperationsInPlace(this, op, op.getNumThreads());
+		else if(op.sparseSafe)
 			sparseUnaryOperationsInPlace(op);
 		else
 			denseUnaryOperationsInPlace(op);
@@ -3049,6 +3762,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private void sparseUnaryOperationsInPlace(UnaryOperator op) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		csrToSparse();
+		
 		//early abort possible since sparse-safe
 		if( isEmptyBlock(false) )
 			return;
@@ -3158,7 +3873,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			ret.reset(rows, cols, resultSparse.sparse, resultSparse.estimatedNonZeros);
 		
 		//core binary cell operation
-		LibMatrixBincell.bincellOp( this, that, ret, op );
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp( this, that, ret, op, op.getNumThreads() );
+		else
+			LibMatrixBincell.bincellOp( this, that, ret, op );
 		
 		return ret;
 	}
@@ -3497,6 +4215,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public MatrixValue reorgOperations(ReorgOperator op, MatrixValue ret, int startRow, int startColumn, int length)
 		throws DMLRuntimeException 
 	{
+		csrToSparse();
+		
 		if ( !( op.fn instanceof SwapIndex || op.fn instanceof DiagIndex || op.fn instanceof SortIndex) )
 			throw new DMLRuntimeException("the current reorgOperations cannot support: "+op.fn.getClass()+".");
 		
@@ -3944,6 +4664,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private void sliceSparse(int rl, int ru, int cl, int cu, MatrixBlock dest) 
 		throws DMLRuntimeException
 	{
+		csrToSparse();
+		
 		//check for early abort
 		if( isEmptyBlock(false) ) 
 			return;
@@ -3997,6 +4719,16 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private void sliceDense(int rl, int ru, int cl, int cu, MatrixBlock dest) 
 		throws DMLRuntimeException
 	{
+		//segmented dense input (row-wise copy, rows never span segments)
+		if( denseBlockLarge != null ) {
+			dest.allocateDenseBlock();
+			int len2 = dest.clen;
+			for( int i = rl, ix2=0; i <= ru; i++, ix2+=len2 )
+				System.arraycopy(denseBlockLarge.values(i), denseBlockLarge.pos(i)+cl, dest.denseBlock, ix2, len2);
+			dest.recomputeNonZeros();
+			return;
+		}
+		
 		//ensure allocated input/output blocks
 		if( denseBlock == null )
 			return;
@@ -4037,6 +4769,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void sliceOperations(ArrayList<IndexedMatrixValue> outlist, IndexRange range, int rowCut, int colCut, 
 			int normalBlockRowFactor, int normalBlockColFactor, int boundaryRlen, int boundaryClen)
 	{
+		csrToSparse();
+		
 		MatrixBlock topleft=null, topright=null, bottomleft=null, bottomright=null;
 		Iterator<IndexedMatrixValue> p=outlist.iterator();
 		int blockRowFactor=normalBlockRowFactor, blockColFactor=normalBlockColFactor;
@@ -4188,6 +4922,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public MatrixValue zeroOutOperations(MatrixValue result, IndexRange range, boolean complementary)
 			throws DMLUnsupportedOperationException, DMLRuntimeException 
 	{
+		csrToSparse();
+		
 		checkType(result);
 		double currentSparsity=(double)nonZeros/(double)rlen/(double)clen;
 		double estimatedSps=currentSparsity*(double)(range.rowEnd-range.rowStart+1)
@@ -4353,6 +5089,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	private void sparseAggregateUnaryHelp(AggregateUnaryOperator op, MatrixBlock result,
 			int blockingFactorRow, int blockingFactorCol, MatrixIndexes indexesIn) throws DMLRuntimeException
 	{
+		csrToSparse();
+		
 		//initialize result
 		if(op.aggOp.initialValue!=0)
 			result.resetDenseWithValue(result.rlen, result.clen, op.aggOp.initialValue);
@@ -4497,6 +5235,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	public void dropLastRowsOrColums(CorrectionLocationType correctionLocation) 
 	{
+		csrToSparse();
+		
 		//do nothing 
 		if(   correctionLocation==CorrectionLocationType.NONE 
 	       || correctionLocation==CorrectionLocationType.INVALID )
@@ -4590,6 +5330,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public CM_COV_Object cmOperations(CMOperator op) 
 		throws DMLRuntimeException 
 	{
+		csrToSparse();
+		
 		// dimension check for input column vectors
 		if ( this.getNumColumns() != 1) {
 			throw new DMLRuntimeException("Central Moment can not be computed on [" 
@@ -4634,6 +5376,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public CM_COV_Object cmOperations(CMOperator op, MatrixBlock weights) 
 		throws DMLRuntimeException 
 	{
+		csrToSparse();
+		
 		/* this._data must be a 1 dimensional vector */
 		if ( this.getNumColumns() != 1 || weights.getNumColumns() != 1) {
 			throw new DMLRuntimeException("Central Moment can be computed only on 1-dimensional column matrices.");
@@ -4673,6 +5417,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public CM_COV_Object covOperations(COVOperator op, MatrixBlock that) 
 		throws DMLRuntimeException 
 	{
+		csrToSparse();
+		that.csrToSparse();
+		
 		/* this._data must be a 1 dimensional vector */
 		if ( this.getNumColumns() != 1 || that.getNumColumns() != 1 ) {
 			throw new DMLRuntimeException("Covariance can be computed only on 1-dimensional column matrices."); 
@@ -4712,6 +5459,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public CM_COV_Object covOperations(COVOperator op, MatrixBlock that, MatrixBlock weights) 
 		throws DMLRuntimeException 
 	{
+		csrToSparse();
+		that.csrToSparse();
+		
 		/* this._data must be a 1 dimensional vector */
 		if ( this.getNumColumns() != 1 || that.getNumColumns() != 1 || weights.getNumColumns() != 1) {
 			throw new DMLRuntimeException("Covariance can be computed only on 1-dimensional column matrices."); 
@@ -5026,6 +5776,12 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public MatrixValue aggregateBinaryOperations(MatrixValue m1Value, MatrixValue m2Value, MatrixValue result, AggregateBinaryOperator op) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		//delegate matrix mult with compressed inputs (e.g., vector-matrix over compressed rhs)
+		if( CompressedMatrixBlock.isCompressedBlock(m1Value) )
+			return ((CompressedMatrixBlock)m1Value).aggregateBinaryOperations(m1Value, m2Value, result, op);
+		if( CompressedMatrixBlock.isCompressedBlock(m2Value) )
+			return ((CompressedMatrixBlock)m2Value).aggregateBinaryOperations(m1Value, m2Value, result, op);
+		
 		//check input types, dimensions, configuration
 		MatrixBlock m1 = checkType(m1Value);
 		MatrixBlock m2 = checkType(m2Value);
@@ -5236,6 +5992,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 */
 	private void groupedAggregateKahanPlus( MatrixBlock target, MatrixBlock weights, MatrixBlock result, AggregateOperator aggop ) throws DMLRuntimeException
 	{
+		target.csrToSparse();
+		
 		boolean rowVector = target.getNumColumns()>1;
 		double w = 1; //default weight
 		
@@ -5347,6 +6105,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public MatrixValue replaceOperations(MatrixValue result, double pattern, double replacement) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
+		csrToSparse();
+		
 		MatrixBlock ret = checkType(result);
 		examSparsity(); //ensure its in the right format
 		ret.reset(rlen, clen, sparse);
@@ -5587,6 +6347,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			if( this.isEmptyBlock(false) && that.isEmptyBlock(false) )
 				return;
 			
+			this.csrToSparse();
+			that.csrToSparse();
 			SparseRow[] a = this.sparseRows;
 			SparseRow[] b = that.sparseRows;
 			for( int i=0; i<rlen; i++ )
@@ -5710,6 +6472,133 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		}
 	}
 	
+	/**
+	 * Multi-threaded hash-based ctable, i.e., D = ctable(A,B,W), ctable(A,B,w), 
+	 * ctable(A,v2,W), or ctable(A,v2,w), where the optional matrix inputs B and 
+	 * W are null for scalar inputs v2 and w. We parallelize over row partitions, 
+	 * build partial ctable maps per thread, and finally merge them into the 
+	 * given result map. Small inputs, dense result blocks, and k<=1 fall back 
+	 * to the sequential ctable operations.
+	 * 
+	 * @param op
+	 * @param thatVal
+	 * @param scalarThat
+	 * @param that2Val
+	 * @param scalarThat2
+	 * @param ignoreZeros
+	 * @param resultMap
+	 * @param resultBlock
+	 * @param k
+	 * @throws DMLUnsupportedOperationException
+	 * @throws DMLRuntimeException
+	 */
+	public void ternaryOperations(Operator op, MatrixValue thatVal, double scalarThat, MatrixValue that2Val, double scalarThat2, 
+			boolean ignoreZeros, CTableMap resultMap, MatrixBlock resultBlock, int k)
+		throws DMLUnsupportedOperationException, DMLRuntimeException
+	{
+		MatrixBlock that = (thatVal != null) ? checkType(thatVal) : null;
+		MatrixBlock that2 = (that2Val != null) ? checkType(that2Val) : null;
+		
+		//fall back to sequential version if necessary
+		//(small inputs, dense result block aggregation)
+		if( k <= 1 || resultBlock != null || (long)rlen*clen < PAR_CTABLE_NUMCELL_THRESHOLD )
+		{
+			if( that != null && that2 != null )
+				ternaryOperations(op, that, that2, resultMap, resultBlock);
+			else if( that != null )
+				ternaryOperations(op, that, scalarThat2, ignoreZeros, resultMap, resultBlock);
+			else if( that2 != null )
+				ternaryOperations(op, scalarThat, that2, resultMap, resultBlock);
+			else
+				ternaryOperations(op, scalarThat, scalarThat2, resultMap, resultBlock);
+			return;
+		}
+		
+		//sparse-safe ctable only if inputs aligned (see ctable(A,B,w))
+		boolean sparseSafe = ignoreZeros && that != null && that2 == null && sparse && that.sparse;
+		if( sparseSafe ) {
+			//early abort on empty blocks possible
+			if( isEmptyBlock(false) && that.isEmptyBlock(false) )
+				return;
+			csrToSparse();
+			that.csrToSparse();
+		}
+		
+		//core multi-threaded ctable over row partitions 
+		//(with partial ctable maps per partition and final merge)
+		try {
+			k = ComputeThreadPool.getMaxParallelism(k);
+			ArrayList<CTableTask> tasks = new ArrayList<CTableTask>();
+			int blklen = (int)(Math.ceil((double)rlen/k));
+			for( int i=0; i<k & i*blklen<rlen; i++ )
+				tasks.add(new CTableTask(this, that, scalarThat, that2, scalarThat2, 
+						ignoreZeros, sparseSafe, i*blklen, Math.min((i+1)*blklen, rlen)));
+			List<Future<CTableMap>> rtasks = ComputeThreadPool.invokeAll(tasks);
+			
+			//merge partial ctable maps
+			for( Future<CTableMap> task : rtasks )
+				resultMap.merge(task.get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Ctable over the row partition [rl, ru) into the given ctable map.
+	 * 
+	 * @param a
+	 * @param b
+	 * @param v2
+	 * @param w
+	 * @param wval
+	 * @param ignoreZeros
+	 * @param sparseSafe
+	 * @param ret
+	 * @param rl
+	 * @param ru
+	 * @throws DMLRuntimeException
+	 */
+	private static void ctableOperations(MatrixBlock a, MatrixBlock b, double v2, MatrixBlock w, double wval, 
+			boolean ignoreZeros, boolean sparseSafe, CTableMap ret, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		CTable ctable = CTable.getCTableFnObject();
+		final int n = a.clen;
+		
+		if( sparseSafe ) //SPARSE-SAFE & SPARSE INPUTS
+		{
+			//note: only used if both inputs have aligned zeros
+			SparseRow[] arows = a.sparseRows;
+			SparseRow[] brows = b.sparseRows;
+			for( int i=rl; i<Math.min(ru, arows.length); i++ )
+			{
+				SparseRow arow = arows[i];
+				if( arow != null && !arow.isEmpty() )
+				{
+					int alen = arow.size();
+					double[] avals = arow.getValueContainer();
+					double[] bvals = brows[i].getValueContainer();
+					for( int j=0; j<alen; j++ )
+						ctable.execute(avals[j], bvals[j], wval, ignoreZeros, ret);
+				}
+			}
+		}
+		else //SPARSE-UNSAFE | GENERIC INPUTS
+		{
+			//sparse-unsafe ctable execution
+			//(because input values of 0 are invalid and have to result in errors) 
+			for( int i=rl; i<ru; i++ )
+				for( int j=0; j<n; j++ )
+				{
+					double v1 = a.quickGetValue(i, j);
+					double v2i = (b != null) ? b.quickGetValue(i, j) : v2;
+					double wi = (w != null) ? w.quickGetValue(i, j) : wval;
+					ctable.execute(v1, v2i, wi, ignoreZeros, ret);
+				}
+		}
+	}
+	
 	@Override
 	public MatrixValue quaternaryOperations(QuaternaryOperator qop, MatrixValue um, MatrixValue vm, MatrixValue wm, MatrixValue out)
 		throws DMLUnsupportedOperationException, DMLRuntimeException
@@ -6036,6 +6925,8 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	@Override
 	public String toString()
 	{
+		csrToSparse();
+		
 		StringBuilder sb = new StringBuilder();
 		
 		sb.append("sparse? = ");
@@ -6105,4 +6996,43 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		}
 		public SparsityEstimate(){}
 	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class CTableTask implements Callable<CTableMap>
+	{
+		private MatrixBlock _a = null;
+		private MatrixBlock _b = null;
+		private double _v2 = 0;
+		private MatrixBlock _w = null;
+		private double _wval = 0;
+		private boolean _ignoreZeros = false;
+		private boolean _sparseSafe = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected CTableTask( MatrixBlock a, MatrixBlock b, double v2, MatrixBlock w, double wval, 
+				boolean ignoreZeros, boolean sparseSafe, int rl, int ru )
+		{
+			_a = a;
+			_b = b;
+			_v2 = v2;
+			_w = w;
+			_wval = wval;
+			_ignoreZeros = ignoreZeros;
+			_sparseSafe = sparseSafe;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public CTableMap call() throws DMLRuntimeException
+		{
+			CTableMap ret = new CTableMap();
+			ctableOperations(_a, _b, _v2, _w, _wval, _ignoreZeros, _sparseSafe, ret, _rl, _ru);
+			return ret;
+		}
+	}
 }
@@ -28,6 +28,7 @@ import java.io.IOException;
  * Known implementation classes:
  *    - FastBufferedDataInputStream
  *    - CacheDataInput
+ *    - CacheDataInputDirect
  *    
  */
 public interface MatrixBlockDataInput 
@@ -54,4 +55,16 @@ public interface MatrixBlockDataInput
 	 */
 	public long readSparseRows(int rlen, SparseRow[] rows) 
 		throws IOException;
+	
+	/**
+	 * Reads the sparse rows from the data input in bulk into the given
+	 * (sufficiently allocated) csr block and returns the number of non-zeros.
+	 * 
+	 * @param rlen
+	 * @param csr
+	 * @return
+	 * @throws IOException
+	 */
+	public long readSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException;
 }
@@ -28,6 +28,7 @@ import java.io.IOException;
  * 
  * Known implementation classes:
  *    - CacheDataOutput (cache serialization into in-memory write buffer)
+ *    - CacheDataOutputDirect (cache serialization into off-heap write buffer)
  *    - FastBufferedDataOutputStream (cache eviction to local file system)
  * 
  */
@@ -52,4 +53,15 @@ public interface MatrixBlockDataOutput
 	 */
 	public void writeSparseRows(int rlen, SparseRow[] rows) 
 		throws IOException;
+	
+	/**
+	 * Writes the flat arrays of a csr block to the data output, 
+	 * in the same format as the sparse rows array.
+	 * 
+	 * @param rlen
+	 * @param csr
+	 * @throws IOException
+	 */
+	public void writeSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException;
 }
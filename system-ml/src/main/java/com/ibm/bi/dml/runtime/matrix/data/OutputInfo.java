@@ -59,6 +59,8 @@ public class OutputInfo implements Serializable
 			MatrixIndexes.class, MatrixCell.class);
 	public static final OutputInfo BinaryBlockOutputInfo=new OutputInfo(SequenceFileOutputFormat.class, 
 			MatrixIndexes.class, MatrixBlock.class);
+	public static final OutputInfo BinaryBlockIndexedOutputInfo=new OutputInfo(BinaryBlockIndexedOutputFormat.class, 
+			MatrixIndexes.class, MatrixBlock.class);
 	public static final OutputInfo OutputInfoForSortInput=new OutputInfo(SequenceFileOutputFormat.class, 
 			DoubleWritable.class, IntWritable.class);
 	public static final OutputInfo OutputInfoForSortOutput = new OutputInfo(CompactOutputFormat.class,
@@ -71,6 +73,8 @@ public class OutputInfo implements Serializable
 	public static InputInfo getMatchingInputInfo(OutputInfo oi) throws DMLRuntimeException {
 		if ( oi == OutputInfo.BinaryBlockOutputInfo )
 			return InputInfo.BinaryBlockInputInfo;
+		else if ( oi == OutputInfo.BinaryBlockIndexedOutputInfo )
+			return InputInfo.BinaryBlockIndexedInputInfo;
 		else if ( oi == OutputInfo.MatrixMarketOutputInfo )
 			return InputInfo.MatrixMarketInputInfo;
 		else if ( oi == OutputInfo.BinaryCellOutputInfo ) 
@@ -102,6 +106,9 @@ public class OutputInfo implements Serializable
 		else if (str.equalsIgnoreCase("binaryblock")) {
 			return BinaryBlockOutputInfo;
 		}
+		else if (str.equalsIgnoreCase("binaryblockidx")) {
+			return BinaryBlockIndexedOutputInfo;
+		}
 		else if ( str.equalsIgnoreCase("sort_input") )
 			return OutputInfoForSortInput;
 		else if ( str.equalsIgnoreCase("sort_output"))
@@ -124,6 +131,8 @@ public class OutputInfo implements Serializable
 			return "binarycell";
 		else if ( oi == BinaryBlockOutputInfo )
 			return "binaryblock";
+		else if ( oi == BinaryBlockIndexedOutputInfo )
+			return "binaryblockidx";
 		else if ( oi == OutputInfoForSortInput )
 			return "sort_input";
 		else if ( oi == OutputInfoForSortOutput )
@@ -0,0 +1,311 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Read-optimized sparse block in compressed sparse row (CSR) format, i.e.,
+ * three flat arrays of row pointers, column indexes, and values. In contrast
+ * to SparseRow[], this representation requires only a constant number of
+ * objects (independent of the number of rows), has no per-row over-allocation,
+ * and allows for sequential scans over all non-zeros. However, it does not
+ * support efficient incremental updates and hence, is only intended for
+ * read-only matrix blocks (e.g., inputs of iterative algorithms).
+ *
+ * The non-zero values of row i are stored in the index range
+ * [rowptr[i], rowptr[i+1]) of colidx and values; within a row,
+ * column indexes are sorted in ascending order.
+ *
+ */
+public class SparseBlockCSR implements Serializable
+{
+	private static final long serialVersionUID = 1922673868466164244L;
+
+	private int _rlen = -1;
+	private int[] _rowptr = null;
+	private int[] _colidx = null;
+	private double[] _values = null;
+
+	/**
+	 * Allocates an empty CSR block with the given number of rows and
+	 * capacity for non-zeros (e.g., for bulk deserialization).
+	 *
+	 * @param rlen
+	 * @param capacity
+	 */
+	public SparseBlockCSR(int rlen, int capacity)
+	{
+		_rlen = rlen;
+		_rowptr = new int[rlen+1];
+		_colidx = new int[capacity];
+		_values = new double[capacity];
+	}
+
+	/**
+	 * Creates a CSR block from the given sparse rows, where nnz
+	 * is the total number of non-zeros over all rows.
+	 *
+	 * @param rows
+	 * @param rlen
+	 * @param nnz
+	 */
+	public SparseBlockCSR(SparseRow[] rows, int rlen, int nnz)
+	{
+		this(rlen, nnz);
+
+		//bulk copy of all sparse rows into flat arrays
+		int pos = 0;
+		for( int i=0; i<rlen; i++ ) {
+			_rowptr[i] = pos;
+			SparseRow arow = (i<rows.length) ? rows[i] : null;
+			if( arow!=null && !arow.isEmpty() ) {
+				int alen = arow.size();
+				System.arraycopy(arow.getIndexContainer(), 0, _colidx, pos, alen);
+				System.arraycopy(arow.getValueContainer(), 0, _values, pos, alen);
+				pos += alen;
+			}
+		}
+		_rowptr[rlen] = pos;
+	}
+
+	/**
+	 * Creates a CSR block from already constructed arrays (no copy).
+	 *
+	 * @param rlen
+	 * @param rowptr
+	 * @param colidx
+	 * @param values
+	 */
+	public SparseBlockCSR(int rlen, int[] rowptr, int[] colidx, double[] values)
+	{
+		_rlen = rlen;
+		_rowptr = rowptr;
+		_colidx = colidx;
+		_values = values;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int numRows()
+	{
+		return _rlen;
+	}
+
+	/**
+	 * Returns the total number of non-zeros.
+	 *
+	 * @return
+	 */
+	public int size()
+	{
+		return _rowptr[_rlen];
+	}
+
+	/**
+	 * Returns the number of non-zeros of row r.
+	 *
+	 * @param r
+	 * @return
+	 */
+	public int size(int r)
+	{
+		return _rowptr[r+1] - _rowptr[r];
+	}
+
+	/**
+	 * Returns the number of non-zeros in the row range [rl, ru).
+	 *
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	public int size(int rl, int ru)
+	{
+		return _rowptr[ru] - _rowptr[rl];
+	}
+
+	/**
+	 *
+	 * @param r
+	 * @return
+	 */
+	public boolean isEmpty(int r)
+	{
+		return (_rowptr[r+1] == _rowptr[r]);
+	}
+
+	/**
+	 * Returns the start position of row r in the index and value arrays.
+	 *
+	 * @param r
+	 * @return
+	 */
+	public int pos(int r)
+	{
+		return _rowptr[r];
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int capacity()
+	{
+		return _values.length;
+	}
+
+	public int[] rowPointers()
+	{
+		return _rowptr;
+	}
+
+	public int[] indexes()
+	{
+		return _colidx;
+	}
+
+	public double[] values()
+	{
+		return _values;
+	}
+
+	/**
+	 *
+	 * @param r
+	 * @param c
+	 * @return
+	 */
+	public double get(int r, int c)
+	{
+		int pos = _rowptr[r];
+		int len = _rowptr[r+1] - pos;
+		if( len == 0 )
+			return 0;
+
+		int index = Arrays.binarySearch(_colidx, pos, pos+len, c);
+		return (index >= 0) ? _values[index] : 0;
+	}
+
+	/**
+	 * Returns the number of non-zeros in the given row and column range,
+	 * where the upper bounds are inclusive.
+	 *
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @return
+	 */
+	public long countNonZeros(int rl, int ru, int cl, int cu)
+	{
+		long nnz = 0;
+		for( int i=rl; i<=ru; i++ ) {
+			int pos = _rowptr[i];
+			int len = _rowptr[i+1] - pos;
+			if( len == 0 )
+				continue;
+			int start = Arrays.binarySearch(_colidx, pos, pos+len, cl);
+			int end = Arrays.binarySearch(_colidx, pos, pos+len, cu);
+			start = (start >= 0) ? start : -(start+1);
+			end = (end >= 0) ? end+1 : -(end+1);
+			nnz += end - start;
+		}
+		return nnz;
+	}
+
+	/**
+	 * Creates a new sparse row for row r (null for empty rows).
+	 *
+	 * @param r
+	 * @return
+	 */
+	public SparseRow toSparseRow(int r)
+	{
+		int pos = _rowptr[r];
+		int len = _rowptr[r+1] - pos;
+		if( len == 0 )
+			return null;
+
+		SparseRow ret = new SparseRow(len);
+		System.arraycopy(_colidx, pos, ret.getIndexContainer(), 0, len);
+		System.arraycopy(_values, pos, ret.getValueContainer(), 0, len);
+		ret.setSize(len);
+		return ret;
+	}
+
+	/**
+	 * Creates a new array of sparse rows with the same content,
+	 * where empty rows are represented as null.
+	 *
+	 * @return
+	 */
+	public SparseRow[] toSparseRows()
+	{
+		SparseRow[] ret = new SparseRow[_rlen];
+		for( int i=0; i<_rlen; i++ )
+			ret[i] = toSparseRow(i);
+		return ret;
+	}
+
+	/**
+	 * Estimates the in-memory size of a CSR block with the given
+	 * number of rows and non-zeros.
+	 *
+	 * @param nrows
+	 * @param nnz
+	 * @return
+	 */
+	public static long estimateSizeInMemory(long nrows, long nnz)
+	{
+		//object header, rlen, and array references
+		long size = 16 + 4 + 3 * 8;
+
+		//row pointer, column index, and value arrays (w/ array headers)
+		size += 16 + 4 * (nrows+1);
+		size += 16 + 4 * nnz;
+		size += 16 + 8 * nnz;
+
+		return size;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		for( int i=0; i<_rlen; i++ ) {
+			int pos = _rowptr[i];
+			int len = _rowptr[i+1] - pos;
+			if( len == 0 )
+				continue;
+			sb.append(i);
+			sb.append(": ");
+			for( int j=pos; j<pos+len; j++ ) {
+				sb.append(_colidx[j]);
+				sb.append(": ");
+				sb.append(_values[j]);
+				sb.append("\t");
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+}
@@ -21,7 +21,7 @@ package com.ibm.bi.dml.runtime.matrix.data;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 
-import com.ibm.bi.dml.runtime.util.FastStringTokenizer;
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
 
 
 public class TextToBinaryCellConverter 
@@ -31,18 +31,19 @@ implements Converter<LongWritable, Text, MatrixIndexes, MatrixCell>
 	private MatrixIndexes indexes = new MatrixIndexes();
 	private MatrixCell value = new MatrixCell();
 	private Pair<MatrixIndexes, MatrixCell> pair = new Pair<MatrixIndexes, MatrixCell>(indexes, value);
-	private FastStringTokenizer st = new FastStringTokenizer(' '); 
+	private FastByteTokenizer st = new FastByteTokenizer(' '); 
 	private boolean hasValue = false;
 	private boolean toIgnore = false;
 
 	@Override
 	public void convert(LongWritable k1, Text v1) 
 	{	
-		String str = v1.toString();
+		byte[] buff = v1.getBytes();
+		int len = v1.getLength();
 		
 		//handle support for matrix market format
-		if(str.startsWith("%")) {
-			if(str.startsWith("%%"))
+		if(len>0 && buff[0]=='%') {
+			if(len>1 && buff[1]=='%')
 				toIgnore=true;
 			hasValue=false;
 			return;
@@ -53,8 +54,8 @@ implements Converter<LongWritable, Text, MatrixIndexes, MatrixCell>
 			return;
 		}
 			
-		//reset the tokenizer
-		st.reset( str );
+		//reset the tokenizer (directly over text bytes)
+		st.reset( buff, 0, len );
 		
 		//convert text to matrix cell
 		indexes.setIndexes( st.nextLong(), st.nextLong() );
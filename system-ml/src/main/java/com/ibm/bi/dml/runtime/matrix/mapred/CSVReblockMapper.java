@@ -34,6 +34,7 @@ import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.hadoop.mapred.Reporter;
 
 import com.ibm.bi.dml.runtime.instructions.mr.CSVReblockInstruction;
+import com.ibm.bi.dml.runtime.io.CSVByteParser;
 import com.ibm.bi.dml.runtime.io.IOUtilFunctions;
 import com.ibm.bi.dml.runtime.matrix.CSVReblockMR;
 import com.ibm.bi.dml.runtime.matrix.CSVReblockMR.BlockRow;
@@ -48,12 +49,15 @@ public class CSVReblockMapper extends MapperBase implements Mapper<LongWritable,
 	private boolean first=true;
 	private long num=0;
 	private HashMap<Long, Long> offsetMap=new HashMap<Long, Long>();
-	private String _delim=" ";
 	private boolean ignoreFirstLine=false;
 	private boolean headerFile=false;
 
 	private IndexedBlockRow idxRow = null;
 	
+	//byte-level row parsers per reblock instruction (w/ fill values) and reused row buffer
+	private ArrayList<ArrayList<CSVByteParser>> _parsers = null;
+	private double[] _cells = new double[1024];
+	
 	public static class IndexedBlockRow 
 	{
 		private BlockRow row=null;
@@ -116,6 +120,41 @@ public class CSVReblockMapper extends MapperBase implements Mapper<LongWritable,
 		return row;
 	}
 	
+	/**
+	 * Byte-level counterpart of processRow over parsed cells, where empty cells are 
+	 * already replaced by the fill value.
+	 * 
+	 * @param row
+	 * @param cells
+	 * @param ncells
+	 * @param rowOffset
+	 * @param num
+	 * @param outTag
+	 * @param brlen
+	 * @param bclen
+	 * @param out
+	 * @return
+	 * @throws IOException
+	 */
+	public static IndexedBlockRow processRow(IndexedBlockRow row, double[] cells, int ncells, long rowOffset, long num, byte outTag, int brlen, int bclen, OutputCollector<TaggedFirstSecondIndexes, BlockRow> out) throws IOException
+	{
+		row.getIndexes().setTag(outTag);
+		long rowIndex=UtilFunctions.blockIndexCalculation(rowOffset+num+1, brlen);
+		row.getRow().indexInBlock=UtilFunctions.cellInBlockCalculation(rowOffset+num+1, brlen);
+		
+		//output one block row per column block (incl last partial block)
+		for(int start=0; start<ncells; start+=bclen)
+		{
+			int lbclen = Math.min(bclen, ncells-start);
+			row.getRow().data.reset(1, lbclen);
+			row.getIndexes().setIndexes(rowIndex, start/bclen+1);
+			for(int k=0; k<lbclen; k++)
+				row.getRow().data.appendValue(0, k, cells[start+k]);
+			out.collect(row.getIndexes(), row.getRow());
+		}
+		return row;
+	}
+	
 	@Override
 	public void map(LongWritable key, Text value,
 			OutputCollector<TaggedFirstSecondIndexes, BlockRow> out, Reporter reporter)
@@ -129,12 +168,23 @@ public class CSVReblockMapper extends MapperBase implements Mapper<LongWritable,
 		if(key.get()==0 && headerFile && ignoreFirstLine)
 			return;
 		
-		String[] cells = IOUtilFunctions.split( value.toString(), _delim );
+		//parse cells directly from text bytes (w/o string split)
+		byte[] buff = value.getBytes();
+		int len = value.getLength();
 		
 		for(int i=0; i<representativeMatrixes.size(); i++)
-			for(CSVReblockInstruction ins: csv_reblock_instructions.get(i))
+			for(int j=0; j<csv_reblock_instructions.get(i).size(); j++)
 			{
-				idxRow = processRow(idxRow, cells, rowOffset, num, ins.output, ins.brlen, ins.bclen, ins.fill, ins.fillValue, out);
+				CSVReblockInstruction ins = csv_reblock_instructions.get(i).get(j);
+				CSVByteParser parser = _parsers.get(i).get(j);
+				int ncells = parser.parseRow(buff, 0, len, _cells);
+				if( ncells > _cells.length ) { //grow row buffer and reparse
+					_cells = new double[ncells];
+					parser.parseRow(buff, 0, len, _cells);
+				}
+				if( parser.isEmptyFound() )
+					IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(null, ins.fill, true);
+				idxRow = processRow(idxRow, _cells, ncells, rowOffset, num, ins.output, ins.brlen, ins.bclen, out);
 			}
 		
 		num++;
@@ -173,18 +223,23 @@ public class CSVReblockMapper extends MapperBase implements Mapper<LongWritable,
 		}
 		
 		CSVReblockInstruction ins=csv_reblock_instructions.get(0).get(0);
-		_delim = ins.delim;
 		ignoreFirstLine=ins.hasHeader;
 		
 		idxRow = new IndexedBlockRow();
 		int maxBclen=0;
+		_parsers = new ArrayList<ArrayList<CSVByteParser>>();
 	
 		for(ArrayList<CSVReblockInstruction> insv: csv_reblock_instructions)
+		{
+			ArrayList<CSVByteParser> parsers = new ArrayList<CSVByteParser>();
 			for(CSVReblockInstruction in: insv)
 			{	
 				if(maxBclen<in.bclen)
 					maxBclen=in.bclen;
+				parsers.add(new CSVByteParser(in.delim, in.fillValue, null));
 			}
+			_parsers.add(parsers);
+		}
 		
 		//always dense since common csv usecase
 		idxRow.getRow().data.reset(1, maxBclen, false);		
@@ -24,9 +24,7 @@ import org.apache.hadoop.fs.Path;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
-import com.ibm.bi.dml.runtime.io.MatrixReaderFactory;
 import com.ibm.bi.dml.runtime.io.ReaderBinaryBlock;
-import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
 import com.ibm.bi.dml.runtime.util.DataConverter;
@@ -162,7 +160,8 @@ public class DistributedCacheInput
 		//read matrix partition (or entire vector)
 		try 
 		{		
-			ReaderBinaryBlock reader = (ReaderBinaryBlock) MatrixReaderFactory.createMatrixReader(InputInfo.BinaryBlockInputInfo);
+			//note: sequential reader in tasks (no parallel part file read)
+			ReaderBinaryBlock reader = new ReaderBinaryBlock(false);
 			reader.setLocalFS( !MRBaseForCommonInstructions.isJobLocal );
 			ArrayList<IndexedMatrixValue> tmp = reader.readIndexedMatrixBlocksFromHDFS(fname, _rlen, _clen, _brlen, _bclen);
 			
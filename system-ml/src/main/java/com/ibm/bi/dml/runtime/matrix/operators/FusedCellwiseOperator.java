@@ -0,0 +1,147 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.operators;
+
+import com.ibm.bi.dml.runtime.functionobjects.ValueFunction;
+
+/**
+ * Operator of fused cellwise operations, which holds the postfix program of
+ * the fused expression. Each program step either pushes an input (matrix or
+ * scalar, given by its input position), or applies a binary or unary value
+ * function to the top entries of the evaluation stack.
+ */
+public class FusedCellwiseOperator extends Operator
+{
+	private static final long serialVersionUID = -3219627813469846713L;
+
+	public enum AggType {
+		NONE,
+		SUM,
+		ROW_SUM,
+		COL_SUM,
+	}
+
+	public enum StepType {
+		INPUT,
+		BINARY,
+		UNARY,
+	}
+
+	private StepType[] _types = null;
+	private int[] _inputs = null;
+	private ValueFunction[] _fns = null;
+	private AggType _aggType = null;
+	private int _stackSize = -1;
+	private int _k = 1; //num threads
+
+	/**
+	 *
+	 * @param types
+	 * @param inputs
+	 * @param fns
+	 * @param aggType
+	 * @param k
+	 */
+	public FusedCellwiseOperator(StepType[] types, int[] inputs, ValueFunction[] fns, AggType aggType, int k)
+	{
+		super(false);
+		_types = types;
+		_inputs = inputs;
+		_fns = fns;
+		_aggType = aggType;
+		_k = k;
+
+		//determine the max stack depth of program evaluation
+		int sp = 0;
+		_stackSize = 0;
+		for( StepType type : types ) {
+			sp += (type==StepType.INPUT) ? 1 : (type==StepType.BINARY) ? -1 : 0;
+			_stackSize = Math.max(_stackSize, sp);
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumSteps() {
+		return _types.length;
+	}
+
+	/**
+	 *
+	 * @param pos
+	 * @return
+	 */
+	public StepType getStepType(int pos) {
+		return _types[pos];
+	}
+
+	/**
+	 * Returns the input position of the given input step.
+	 *
+	 * @param pos
+	 * @return
+	 */
+	public int getStepInput(int pos) {
+		return _inputs[pos];
+	}
+
+	/**
+	 * Returns the value function of the given binary or unary step.
+	 *
+	 * @param pos
+	 * @return
+	 */
+	public ValueFunction getStepFunction(int pos) {
+		return _fns[pos];
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public AggType getAggType() {
+		return _aggType;
+	}
+
+	/**
+	 * Returns the maximum stack depth required for program evaluation.
+	 *
+	 * @return
+	 */
+	public int getStackSize() {
+		return _stackSize;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getNumThreads() {
+		return _k;
+	}
+
+	/**
+	 *
+	 * @param k
+	 */
+	public void setNumThreads(int k) {
+		_k = k;
+	}
+}
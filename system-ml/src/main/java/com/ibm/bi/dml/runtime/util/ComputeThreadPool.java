@@ -0,0 +1,257 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+
+/**
+ * Shared, lazily-initialized compute thread pool for all multi-threaded
+ * matrix block operations (e.g., LibMatrixMult, LibMatrixAgg, LibMatrixDatagen).
+ * In contrast to a fixed thread pool per operation, this prevents repeated thread
+ * creation and teardown, which dominates for small and medium-sized blocks.
+ *
+ * The pool threads are daemon threads and idle threads are released after a
+ * timeout. Tasks submitted from within a pool thread (nested kernel calls) are
+ * executed inline by the caller in order to prevent deadlocks. Furthermore,
+ * concurrently running local parfor workers register their degree of parallelism,
+ * which is used to restrict the parallelism of individual operations in order
+ * to prevent oversubscription of the available cores.
+ *
+ */
+public class ComputeThreadPool
+{
+	//keep alive time of idle pool threads (in seconds)
+	private static final long KEEP_ALIVE_TIME = 10;
+
+	private static ThreadPoolExecutor _pool = null;
+	private static final ThreadLocal<Boolean> _poolThread = new ThreadLocal<Boolean>();
+
+	//number of active parfor workers (nested parallelism)
+	private static final AtomicInteger _parWorkers = new AtomicInteger(0);
+
+	//pool statistics
+	private static final AtomicLong _numInvocations = new AtomicLong(0);
+	private static final AtomicLong _numTasks = new AtomicLong(0);
+	private static final AtomicLong _numInlineTasks = new AtomicLong(0);
+	private static final AtomicInteger _maxQueueSize = new AtomicInteger(0);
+
+	private ComputeThreadPool() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Returns the number of threads of the shared compute pool,
+	 * which equals the number of local virtual cores.
+	 *
+	 * @return
+	 */
+	public static int getPoolSize()
+	{
+		return InfrastructureAnalyzer.getLocalParallelism();
+	}
+
+	/**
+	 * Executes the given tasks in the shared compute pool and waits for their
+	 * completion (analogous to ExecutorService.invokeAll). Single tasks and tasks
+	 * submitted from within pool threads are executed inline by the caller.
+	 *
+	 * @param tasks
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public static <T> List<Future<T>> invokeAll( Collection<? extends Callable<T>> tasks )
+		throws InterruptedException
+	{
+		_numInvocations.incrementAndGet();
+		_numTasks.addAndGet(tasks.size());
+
+		//inline execution of single or nested tasks
+		if( tasks.size() <= 1 || Boolean.TRUE.equals(_poolThread.get()) )
+		{
+			_numInlineTasks.addAndGet(tasks.size());
+			List<Future<T>> ret = new ArrayList<Future<T>>(tasks.size());
+			for( Callable<T> task : tasks ) {
+				FutureTask<T> ftask = new FutureTask<T>(task);
+				ftask.run();
+				ret.add(ftask);
+			}
+			return ret;
+		}
+
+		//parallel execution in shared pool
+		ThreadPoolExecutor pool = getPool();
+		List<Future<T>> ret = pool.invokeAll(tasks);
+
+		return ret;
+	}
+
+	/**
+	 * Returns the maximum degree of parallelism for an individual operation
+	 * with requested parallelism k, considering the number of concurrently
+	 * running local parfor workers.
+	 *
+	 * @param k
+	 * @return
+	 */
+	public static int getMaxParallelism( int k )
+	{
+		int workers = _parWorkers.get();
+		if( workers <= 1 )
+			return k;
+
+		//remaining parallelism per parfor worker
+		int kmax = Math.max(1, getPoolSize() / workers);
+		return Math.min(k, kmax);
+	}
+
+	/**
+	 * Registers k concurrently running (local parfor) workers.
+	 *
+	 * @param k
+	 */
+	public static void beginNestedParallelism( int k )
+	{
+		_parWorkers.addAndGet(k);
+	}
+
+	/**
+	 * Unregisters k concurrently running (local parfor) workers.
+	 *
+	 * @param k
+	 */
+	public static void endNestedParallelism( int k )
+	{
+		_parWorkers.addAndGet(-k);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static long getNumInvocations()
+	{
+		return _numInvocations.get();
+	}
+
+	/**
+	 * Resets the pool statistics (but not the pool itself).
+	 */
+	public static void resetStatistics()
+	{
+		_numInvocations.set(0);
+		_numTasks.set(0);
+		_numInlineTasks.set(0);
+		_maxQueueSize.set(0);
+	}
+
+	/**
+	 * Returns the pool statistics as a string of
+	 * (#invocations, #tasks, #inline tasks, max queue size, #threads).
+	 *
+	 * @return
+	 */
+	public static String displayStatistics()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numInvocations.get());
+		sb.append("/");
+		sb.append(_numTasks.get());
+		sb.append("/");
+		sb.append(_numInlineTasks.get());
+		sb.append("/");
+		sb.append(_maxQueueSize.get());
+		sb.append("/");
+		sb.append((_pool!=null) ? _pool.getLargestPoolSize() : 0);
+		return sb.toString();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static synchronized ThreadPoolExecutor getPool()
+	{
+		//lazy pool creation on first parallel operation
+		if( _pool == null )
+		{
+			int par = getPoolSize();
+			_pool = new ThreadPoolExecutor(par, par, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+					new MonitoredQueue(), new ComputeThreadFactory());
+			_pool.allowCoreThreadTimeOut(true);
+		}
+
+		return _pool;
+	}
+
+	/**
+	 * Daemon thread factory, which marks all created threads as pool threads.
+	 */
+	private static class ComputeThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger _seq = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(final Runnable r)
+		{
+			Thread t = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					_poolThread.set(Boolean.TRUE);
+					r.run();
+				}
+			}, "compute-"+_seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+	/**
+	 * Unbounded task queue, which tracks the maximum queue size.
+	 */
+	private static class MonitoredQueue extends LinkedBlockingQueue<Runnable>
+	{
+		private static final long serialVersionUID = -2546452386591962212L;
+
+		@Override
+		public boolean offer(Runnable r)
+		{
+			boolean ret = super.offer(r);
+
+			//update max queue size (w/o lock)
+			int size = size();
+			int max = _maxQueueSize.get();
+			while( size > max && !_maxQueueSize.compareAndSet(max, size) )
+				max = _maxQueueSize.get();
+
+			return ret;
+		}
+	}
+}
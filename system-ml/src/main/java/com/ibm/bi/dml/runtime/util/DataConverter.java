@@ -525,8 +525,10 @@ public class DataConverter
 	 * 
 	 * @param map
 	 * @return
+	 * @throws DMLRuntimeException 
 	 */
-	public static MatrixBlock convertToMatrixBlock( CTableMap map )
+	public static MatrixBlock convertToMatrixBlock( CTableMap map ) 
+		throws DMLRuntimeException
 	{
 		// compute dimensions from the map
 		int nrows = (int)map.getMaxRow();
@@ -541,8 +543,10 @@ public class DataConverter
 	 * 
 	 * @param map
 	 * @return
+	 * @throws DMLRuntimeException 
 	 */
-	public static MatrixBlock convertToMatrixBlock( CTableMap map, int rlen, int clen )
+	public static MatrixBlock convertToMatrixBlock( CTableMap map, int rlen, int clen ) 
+		throws DMLRuntimeException
 	{
 		return map.toMatrixBlock(rlen, clen);
 	}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataInput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
 import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
 
 /**
@@ -252,6 +253,39 @@ public class FastBufferedDataInputStream extends FilterInputStream implements Da
 		return nnz;
 	}
 	
+	@Override
+	public long readSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException 
+	{
+		int[] rowptr = csr.rowPointers();
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		int pos = 0;
+		
+		//read all individual sparse rows into flat arrays
+		for( int i=0; i<rlen; i++ )
+		{
+			rowptr[i] = pos;
+			int lnnz = readInt();
+			
+			//read buffer-wise (cast to long to prevent overflows w/ lnnz*12)
+			long remain = (long)lnnz*12;
+			while( remain > 0 )
+			{
+				int len = (int)Math.min(remain, _bufflen - _bufflen%12);
+				readFully(_buff, 0, len);
+				for( int j=0; j<len; j+=12, pos++ ) {
+					aix[pos] = baToInt(_buff, j);
+					avals[pos] = Double.longBitsToDouble( baToLong(_buff, j+4) );
+				}
+				remain -= len;
+			}
+		}
+		rowptr[rlen] = pos;
+		
+		return pos;
+	}
+	
 	/**
 	 * 
 	 * @param a
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlockDataOutput;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
 import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
 
 /**
@@ -293,6 +294,33 @@ public class FastBufferedDataOutputStream extends FilterOutputStream implements
 			writeInt( 0 );
 	}
 	
+	@Override
+	public void writeSparseBlockCSR(int rlen, SparseBlockCSR csr) 
+		throws IOException
+	{
+		int[] aix = csr.indexes();
+		double[] avals = csr.values();
+		
+		for( int i=0; i<rlen; i++ )
+		{
+			int apos = csr.pos(i);
+			int alen = csr.size(i);
+			writeInt( alen );
+			
+			//write index-value pairs buffer-wise
+			for( int j=apos; j<apos+alen; j++ )
+			{
+				if (_count+12 > _bufflen) 
+				    flushBuffer();
+				
+				long tmp2 = Double.doubleToRawLongBits(avals[j]);
+				intToBa(aix[j], _buff, _count);
+				longToBa(tmp2, _buff, _count+4);
+				_count += 12;
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param val
@@ -0,0 +1,243 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Byte-level counterpart of FastStringTokenizer, which tokenizes lines 
+ * directly from byte buffers (e.g., read buffers) and parses ints, longs, 
+ * and doubles without intermediate String objects. Similar to the string
+ * tokenizer, it assumes a single character delimiter and skips repeated
+ * delimiters.
+ * 
+ * NOTE: Double parsing uses an exact fast path for the common case of
+ * at most 15 significant digits and small exponents (where the decimal 
+ * value is exactly representable before a single correctly rounded 
+ * multiplication or division), and falls back to Double.parseDouble 
+ * otherwise. Hence, results are identical to Double.parseDouble.
+ * 
+ */
+public class FastByteTokenizer 
+{
+	//exactly representable powers of ten 
+	private static final double[] POW10 = new double[23];
+	
+	static {
+		POW10[0] = 1;
+		for( int i=1; i<POW10.length; i++ )
+			POW10[i] = POW10[i-1] * 10;
+	}
+	
+	//max mantissa of the exact fast path (2^53)
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	
+	private byte[] _buff = null;
+	private byte   _del  = 0;
+	private int    _pos  = -1;
+	private int    _end  = -1;
+	
+	/**
+	 * 
+	 * @param delimiter
+	 */
+	public FastByteTokenizer(char delimiter) 
+	{
+		_del = (byte) delimiter;
+	}
+	
+	/**
+	 * Resets the tokenizer to the given byte range [off, end).
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 */
+	public void reset( byte[] buff, int off, int end )
+	{
+		_buff = buff;
+		_pos = off;
+		_end = end;
+	}
+	
+	/**
+	 * Indicates if there is a next token, i.e., a non-delimiter byte.
+	 * 
+	 * @return
+	 */
+	public boolean hasNext()
+	{
+		while( _pos < _end && _buff[_pos] == _del )
+			_pos++;
+		return _pos < _end;
+	}
+	
+	/**
+	 * Returns the next token as a String.
+	 * 
+	 * @return
+	 */
+	public String nextToken()
+	{
+		int start = nextTokenStart();
+		return new String(_buff, start, _pos-start);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int nextInt()
+	{
+		long ret = nextLong();
+		if( ret < Integer.MIN_VALUE || ret > Integer.MAX_VALUE )
+			throw new NumberFormatException("Integer out of range: "+ret);
+		return (int) ret;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public long nextLong()
+	{
+		int start = nextTokenStart();
+		return parseLong(_buff, start, _pos);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public double nextDouble()
+	{
+		int start = nextTokenStart();
+		return parseDouble(_buff, start, _pos);
+	}
+	
+	/**
+	 * Parses a long from the given byte range [off, end).
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @return
+	 */
+	public static long parseLong( byte[] buff, int off, int end )
+	{
+		int i = off;
+		boolean neg = false;
+		if( i < end && (buff[i]=='-' || buff[i]=='+') )
+			neg = (buff[i++]=='-');
+		if( i >= end || end-i > 18 ) //empty or potential overflow
+			return Long.parseLong(new String(buff, off, end-off));
+		
+		long ret = 0;
+		for( ; i < end; i++ ) {
+			int d = buff[i] - '0';
+			if( d < 0 || d > 9 )
+				throw new NumberFormatException("For input string: \""+new String(buff, off, end-off)+"\"");
+			ret = ret * 10 + d;
+		}
+		
+		return neg ? -ret : ret;
+	}
+	
+	/**
+	 * Parses a double from the given byte range [off, end), with
+	 * results identical to Double.parseDouble.
+	 * 
+	 * @param buff
+	 * @param off
+	 * @param end
+	 * @return
+	 */
+	public static double parseDouble( byte[] buff, int off, int end )
+	{
+		int i = off;
+		boolean neg = false;
+		if( i < end && (buff[i]=='-' || buff[i]=='+') )
+			neg = (buff[i++]=='-');
+		
+		//parse significant digits of integer and fractional part
+		long mant = 0;
+		int ndigits = 0, nsig = 0, exp = 0;
+		for( ; i < end && buff[i]>='0' && buff[i]<='9'; i++, ndigits++ )
+			if( mant > 0 || buff[i] > '0' ) {
+				mant = mant * 10 + (buff[i]-'0');
+				nsig++;
+			}
+		if( i < end && buff[i]=='.' ) {
+			for( i++; i < end && buff[i]>='0' && buff[i]<='9'; i++, ndigits++ )
+				if( mant > 0 || buff[i] > '0' ) {
+					mant = mant * 10 + (buff[i]-'0');
+					nsig++;
+					exp--;
+				}
+				else
+					exp--;
+		}
+		
+		//parse optional exponent
+		if( ndigits > 0 && i < end && (buff[i]=='e' || buff[i]=='E') ) {
+			int j = i + 1;
+			boolean eneg = false;
+			if( j < end && (buff[j]=='-' || buff[j]=='+') )
+				eneg = (buff[j++]=='-');
+			int e = 0;
+			for( ; j < end && buff[j]>='0' && buff[j]<='9' && e < 10000; j++ )
+				e = e * 10 + (buff[j]-'0');
+			if( j > i+1 && buff[j-1]>='0' && buff[j-1]<='9' ) {
+				exp += eneg ? -e : e;
+				i = j;
+			}
+		}
+		
+		//exact fast path (otherwise fallback for special values, long 
+		//mantissas, large exponents, or invalid inputs)
+		if( i == end && ndigits > 0 && nsig <= 15 && mant < MAX_EXACT_MANTISSA ) {
+			double ret = Double.NaN;
+			if( mant == 0 )
+				ret = 0;
+			else if( exp >= 0 && exp < POW10.length )
+				ret = mant * POW10[exp];
+			else if( exp < 0 && -exp < POW10.length )
+				ret = mant / POW10[-exp];
+			if( !Double.isNaN(ret) )
+				return neg ? -ret : ret;
+		}
+		
+		return Double.parseDouble(new String(buff, off, end-off));
+	}
+	
+	/**
+	 * Skips leading delimiters, advances the position to the end of 
+	 * the next token, and returns the start of this token.
+	 * 
+	 * @return
+	 */
+	private int nextTokenStart()
+	{
+		if( !hasNext() )
+			throw new NoSuchElementException();
+		int start = _pos;
+		while( _pos < _end && _buff[_pos] != _del )
+			_pos++;
+		return start;
+	}
+}
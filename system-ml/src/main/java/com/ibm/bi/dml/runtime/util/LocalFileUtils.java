@@ -21,6 +21,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 
 import com.ibm.bi.dml.api.DMLScript;
@@ -169,6 +171,35 @@ public class LocalFileUtils
 		}	
 	}
 
+	/**
+	 * Writes the given header and the remaining bytes of the given (potentially 
+	 * off-heap) buffer to local FS without intermediate on-heap copies.
+	 * 
+	 * @param filePathAndName
+	 * @param header
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeByteBufferToLocal( String filePathAndName, byte[] header, ByteBuffer data )
+		throws IOException
+	{		
+		FileOutputStream fos = new FileOutputStream( filePathAndName );
+		
+		try 
+		{
+			if( header!=null )
+				fos.write( header );
+			FileChannel ch = fos.getChannel();
+			while( data.hasRemaining() )
+				ch.write( data );
+		}
+		finally
+		{
+			if( fos != null )
+				fos.close ();	
+		}	
+	}
+
 	/**
 	 * 
 	 * @param filePathAndName
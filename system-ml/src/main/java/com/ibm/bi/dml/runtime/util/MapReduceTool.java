@@ -477,7 +477,7 @@ public class MapReduceTool
           "    ,\"" +  DataExpression.READROWPARAM 			+  "\": " + mc.getRows() + "\n" + 
 		  "    ,\"" + DataExpression.READCOLPARAM 			+  "\": " + mc.getCols() + "\n";
           // only output rows_in_block and cols_in_block for binary format 
-          if ( outinfo == OutputInfo.BinaryBlockOutputInfo)  {
+          if ( outinfo == OutputInfo.BinaryBlockOutputInfo || outinfo == OutputInfo.BinaryBlockIndexedOutputInfo )  {
          	 line += "    ,\"" + DataExpression.ROWBLOCKCOUNTPARAM	+  "\": " + mc.getRowsPerBlock() + "\n" + 
 		            "    ,\"" + DataExpression.COLUMNBLOCKCOUNTPARAM +  "\": " + mc.getColsPerBlock() + "\n";
           }
@@ -491,6 +491,8 @@ public class MapReduceTool
         	line += "\"binary\"\n"; // currently, there is no way to differentiate between them
           } else if (outinfo == OutputInfo.CSVOutputInfo ) {
         	line += "\"csv\"\n"; 
+          } else if (outinfo == OutputInfo.BinaryBlockIndexedOutputInfo ) {
+        	line += "\"binaryblockidx\"\n"; 
           } else {
         	line += "\"specialized\"\n"; 
           }
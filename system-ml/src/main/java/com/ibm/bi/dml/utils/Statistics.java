@@ -30,6 +30,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import com.ibm.bi.dml.api.DMLScript;
 import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheCodec;
 import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
 import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
 import com.ibm.bi.dml.runtime.instructions.Instruction;
@@ -37,6 +38,8 @@ import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
 import com.ibm.bi.dml.runtime.instructions.MRJobInstruction;
 import com.ibm.bi.dml.runtime.instructions.cp.FunctionCallCPInstruction;
 import com.ibm.bi.dml.runtime.instructions.spark.SPInstruction;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockPool;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
 
 /**
  * This class captures all statistics.
@@ -260,6 +263,8 @@ public class Statistics
 		resetJVMgcTime();
 		resetJVMgcCount();
 		resetCPHeavyHitters();
+		ComputeThreadPool.resetStatistics();
+		DenseBlockPool.resetStatistics();
 	}
 	
 	/**
@@ -475,6 +480,10 @@ public class Statistics
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			sb.append("Cache evictions (#, MB, EVT, RST):\t" + CacheStatistics.displayEvictions() + ".\n");
+			sb.append("Cache prefetches (#, hits):\t" + CacheStatistics.displayPrefetches() + ".\n");
+			if( CacheCodec.getLevel() > 0 )
+				sb.append("Cache compression (MB, ratio, CT, DT):\t" + CacheStatistics.displayCompression() + ".\n");
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
 			sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getHopRecompileTime())/1000000000) + " sec.\n");
 			if( OptimizerUtils.isSparkExecutionMode() ){
@@ -488,6 +497,10 @@ public class Statistics
 				sb.append("ParFor initialize time:\t\t" + String.format("%.3f", ((double)getParforInitTime())/1000) + " sec.\n");	
 				sb.append("ParFor result merge time:\t" + String.format("%.3f", ((double)getParforMergeTime())/1000) + " sec.\n");	
 			}
+			if( ComputeThreadPool.getNumInvocations()>0 )
+				sb.append("Compute pool (ops/tasks/inline/maxq/thr):\t" + ComputeThreadPool.displayStatistics() + ".\n");
+			if( DenseBlockPool.getNumRecycled()>0 )
+				sb.append("Dense block pool (hit/miss/recyc/MB):\t" + DenseBlockPool.displayStatistics() + ".\n");
 			sb.append("Total JIT compile time:\t\t" + ((double)getJITCompileTime())/1000 + " sec.\n");
 			sb.append("Total JVM GC count:\t\t" + getJVMgcCount() + ".\n");
 			sb.append("Total JVM GC time:\t\t" + ((double)getJVMgcTime())/1000 + " sec.\n");
@@ -0,0 +1,267 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.binary.matrix;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixMult;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Sparse-sparse matrix multiplication with sparse output (symbolic and numeric
+ * pass), compared against a dense reference computation. The inputs are constructed
+ * such that the output contains rows computed via the single-entry shortcut, the
+ * hash accumulator, and the dense accumulator, as well as rows where partial 
+ * products cancel out or underflow to zero. In these cases, the symbolic nnz per
+ * row is only an upper bound and the output nnz must be computed from the actually
+ * appended values.
+ */
+public class SparseSparseMatrixMultTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "SparseSparseMatrixMultTest";
+	private final static String TEST_DIR = "functions/binary/matrix/";
+	
+	private final static int rows = 1200;
+	private final static int cols1 = 1000;
+	private final static int cols2 = 2000;
+	private final static int nnzRowB = 10;  //partial products per row (hash accumulator)
+	private final static int nnzRowA = 20;  //entries per row (dense accumulator)
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testSparseSparseSingleThreaded() 
+	{
+		runSparseSparseMatrixMultTest(1);
+	}
+	
+	@Test
+	public void testSparseSparseMultiThreaded() 
+	{
+		runSparseSparseMatrixMultTest(4);
+	}
+	
+	@Test
+	public void testSparseSparseMultiThreadedManyTasks() 
+	{
+		runSparseSparseMatrixMultTest(rows);
+	}
+	
+	/**
+	 * 
+	 * @param k
+	 */
+	private void runSparseSparseMatrixMultTest( int k )
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//generate inputs and dense reference result
+			double[][] A = createLeftInput(7);
+			double[][] B = createRightInput(3);
+			double[][] C = denseMatrixMult(A, B);
+			long nnz = countNonZeros(C);
+			
+			MatrixBlock m1 = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock m2 = DataConverter.convertToMatrixBlock(B);
+			Assert.assertTrue(m1.isInSparseFormat() && m2.isInSparseFormat());
+			
+			//compute sparse-sparse matrix multiplication
+			MatrixBlock ret = new MatrixBlock(rows, cols2, true);
+			if( k > 1 )
+				LibMatrixMult.matrixMult(m1, m2, ret, k);
+			else
+				LibMatrixMult.matrixMult(m1, m2, ret);
+			
+			//check sparse output, exact nnz, and no explicit zeros
+			Assert.assertTrue("Wrong output format.", ret.isInSparseFormat());
+			Assert.assertEquals("Wrong number of non-zeros.", nnz, ret.getNonZeros());
+			SparseRow[] c = ret.getSparseRows();
+			long lnnz = 0;
+			for( int i=0; i<rows; i++ ) {
+				if( i % 12 == 4 ) //full cancellation
+					Assert.assertTrue("Non-empty row "+i+".", c[i]==null || c[i].isEmpty());
+				if( c[i] == null )
+					continue;
+				double[] vals = c[i].getValueContainer();
+				for( int j=0; j<c[i].size(); j++ )
+					Assert.assertTrue("Explicit zero in row "+i+".", vals[j] != 0);
+				lnnz += c[i].size();
+			}
+			Assert.assertEquals("Wrong number of stored values.", nnz, lnnz);
+			
+			//compare results
+			double[][] C2 = DataConverter.convertToDoubleMatrix(ret);
+			TestUtils.compareMatrices(C, C2, rows, cols2, eps);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Creates the left-hand-side input, where the row type is determined by 
+	 * the row index (see createRightInput for the special rows of B).
+	 * 
+	 * @param seed
+	 * @return
+	 */
+	private static double[][] createLeftInput( long seed )
+	{
+		Random rand = new Random(seed);
+		double[][] A = new double[rows][cols1];
+		for( int i=0; i<rows; i++ ) {
+			switch( i % 12 ) {
+				case 0: //single entry (scaled copy)
+				case 6: 
+					A[i][5 + rand.nextInt(cols1-5)] = nextValue(rand);
+					break;
+				case 1: //single entry w/ underflow (scaled copy)
+				case 7: 
+					A[i][4] = 1e-200;
+					break;
+				case 2: //few entries (hash accumulator)
+				case 8:
+					setRandomEntries(A[i], 5, 3, rand);
+					break;
+				case 3: //many entries (dense accumulator)
+				case 9:
+					setRandomEntries(A[i], 5, nnzRowA, rand);
+					break;
+				case 4: //full cancellation (dense accumulator)
+					A[i][0] = 1; A[i][1] = 1;
+					break;
+				case 10: //partial cancellation (hash accumulator)
+					A[i][2] = 1; A[i][3] = 1;
+					setRandomEntries(A[i], 5, 1, rand);
+					break;
+				default: //empty rows
+			}
+		}
+		return A;
+	}
+	
+	/**
+	 * Creates the right-hand-side input with special rows 0-4 and 
+	 * random sparse rows otherwise. Rows 1 and 3 are the negated rows
+	 * 0 and 2, where row 0 has enough entries to trigger the dense 
+	 * accumulator, while row 2 is small enough for the hash accumulator.
+	 * Row 4 contains values that underflow if multiplied by 1e-200.
+	 * 
+	 * @param seed
+	 * @return
+	 */
+	private static double[][] createRightInput( long seed )
+	{
+		Random rand = new Random(seed);
+		double[][] B = new double[cols1][cols2];
+		setRandomEntries(B[0], 0, 4*nnzRowA, rand);
+		setRandomEntries(B[2], 0, nnzRowB, rand);
+		for( int j=0; j<cols2; j++ ) {
+			B[1][j] = -B[0][j];
+			B[3][j] = -B[2][j];
+		}
+		for( int j=0; j<2*nnzRowB; j++ )
+			B[4][j*(cols2/(2*nnzRowB))] = (j%2==0) ? 1e-200 : nextValue(rand);
+		for( int i=5; i<cols1; i++ )
+			setRandomEntries(B[i], 0, nnzRowB, rand);
+		return B;
+	}
+	
+	/**
+	 * 
+	 * @param row
+	 * @param off
+	 * @param len
+	 * @param rand
+	 */
+	private static void setRandomEntries( double[] row, int off, int len, Random rand )
+	{
+		for( int j=0; j<len; ) {
+			int pos = off + rand.nextInt(row.length-off);
+			if( row[pos] == 0 ) {
+				row[pos] = nextValue(rand);
+				j++;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param rand
+	 * @return
+	 */
+	private static double nextValue( Random rand )
+	{
+		//non-zero values in [-1,-0.1] and [0.1,1]
+		double val = 0.1 + 0.9 * rand.nextDouble();
+		return rand.nextBoolean() ? val : -val;
+	}
+	
+	/**
+	 * Dense reference matrix multiplication in the same (ikj) order of
+	 * partial products as the sparse-sparse kernel.
+	 * 
+	 * @param A
+	 * @param B
+	 * @return
+	 */
+	private static double[][] denseMatrixMult( double[][] A, double[][] B )
+	{
+		double[][] C = new double[A.length][B[0].length];
+		for( int i=0; i<A.length; i++ )
+			for( int k=0; k<B.length; k++ ) {
+				if( A[i][k] == 0 )
+					continue;
+				for( int j=0; j<B[k].length; j++ )
+					if( B[k][j] != 0 )
+						C[i][j] += A[i][k] * B[k][j];
+			}
+		return C;
+	}
+	
+	/**
+	 * 
+	 * @param C
+	 * @return
+	 */
+	private static long countNonZeros( double[][] C )
+	{
+		long nnz = 0;
+		for( int i=0; i<C.length; i++ )
+			for( int j=0; j<C[i].length; j++ )
+				nnz += (C[i][j] != 0) ? 1 : 0;
+		return nnz;
+	}
+}
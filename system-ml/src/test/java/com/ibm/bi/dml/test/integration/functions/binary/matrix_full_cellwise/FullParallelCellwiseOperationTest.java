@@ -0,0 +1,234 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.test.integration.functions.binary.matrix_full_cellwise;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.functionobjects.Divide;
+import com.ibm.bi.dml.runtime.functionobjects.GreaterThan;
+import com.ibm.bi.dml.runtime.functionobjects.Minus;
+import com.ibm.bi.dml.runtime.functionobjects.Multiply;
+import com.ibm.bi.dml.runtime.functionobjects.Plus;
+import com.ibm.bi.dml.runtime.functionobjects.ValueFunction;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.RightScalarOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Multi-threaded matrix-matrix, matrix-vector, and matrix-scalar cellwise 
+ * operations above the parallelization threshold, compared to the results 
+ * of the single-threaded operations.
+ */
+public class FullParallelCellwiseOperationTest extends AutomatedTestBase 
+{
+	private final static int rows = 1029;
+	private final static int cols = 517; //> 256K cells
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static int k = 4;
+	
+	private enum OpType {
+		PLUS,     //sparse-safe
+		MULT,     //sparse-safe
+		MINUS,    //sparse-safe
+		DIV,      //sparse-unsafe
+		GREATER,  //sparse-unsafe
+	}
+	
+	private enum InputType {
+		MATRIX,
+		COL_VECTOR,
+		ROW_VECTOR,
+		SCALAR,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testParallelPlusMatrixDenseDense() 
+	{
+		runParallelCellwiseTest(OpType.PLUS, InputType.MATRIX, false, false);
+	}
+	
+	@Test
+	public void testParallelPlusMatrixSparseSparse() 
+	{
+		runParallelCellwiseTest(OpType.PLUS, InputType.MATRIX, true, true);
+	}
+	
+	@Test
+	public void testParallelMinusMatrixDenseSparse() 
+	{
+		runParallelCellwiseTest(OpType.MINUS, InputType.MATRIX, false, true);
+	}
+	
+	@Test
+	public void testParallelMultMatrixSparseSparse() 
+	{
+		runParallelCellwiseTest(OpType.MULT, InputType.MATRIX, true, true);
+	}
+	
+	@Test
+	public void testParallelMinusMatrixSparseDense() 
+	{
+		runParallelCellwiseTest(OpType.MINUS, InputType.MATRIX, true, false);
+	}
+	
+	@Test
+	public void testParallelGreaterMatrixSparseSparse() 
+	{
+		runParallelCellwiseTest(OpType.GREATER, InputType.MATRIX, true, true);
+	}
+	
+	@Test
+	public void testParallelPlusColVectorDense() 
+	{
+		runParallelCellwiseTest(OpType.PLUS, InputType.COL_VECTOR, false, false);
+	}
+	
+	@Test
+	public void testParallelPlusColVectorSparse() 
+	{
+		runParallelCellwiseTest(OpType.PLUS, InputType.COL_VECTOR, true, false);
+	}
+	
+	@Test
+	public void testParallelMinusRowVectorDense() 
+	{
+		runParallelCellwiseTest(OpType.MINUS, InputType.ROW_VECTOR, false, false);
+	}
+	
+	@Test
+	public void testParallelGreaterRowVectorSparse() 
+	{
+		runParallelCellwiseTest(OpType.GREATER, InputType.ROW_VECTOR, true, false);
+	}
+	
+	@Test
+	public void testParallelMultScalarDense() 
+	{
+		runParallelCellwiseTest(OpType.MULT, InputType.SCALAR, false, false);
+	}
+	
+	@Test
+	public void testParallelMultScalarSparse() 
+	{
+		runParallelCellwiseTest(OpType.MULT, InputType.SCALAR, true, false);
+	}
+	
+	@Test
+	public void testParallelPlusScalarSparse() 
+	{
+		runParallelCellwiseTest(OpType.PLUS, InputType.SCALAR, true, false);
+	}
+	
+	@Test
+	public void testParallelDivScalarDense() 
+	{
+		runParallelCellwiseTest(OpType.DIV, InputType.SCALAR, false, false);
+	}
+	
+	@Test
+	public void testParallelGreaterScalarSparse() 
+	{
+		runParallelCellwiseTest(OpType.GREATER, InputType.SCALAR, true, false);
+	}
+	
+	/**
+	 * Note: all test cases use supported combinations of inputs and output 
+	 * representations (dense output, or sparse-safe sparse/sparse MM).
+	 * 
+	 * @param type
+	 * @param itype
+	 * @param sparseM1
+	 * @param sparseM2
+	 */
+	private void runParallelCellwiseTest( OpType type, InputType itype, boolean sparseM1, boolean sparseM2 )
+	{
+		try
+		{
+			//generate inputs
+			MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, 
+					sparseM1?sparsity2:sparsity1, -1, 1, "uniform", 7);
+			int rows2 = (itype==InputType.ROW_VECTOR) ? 1 : rows;
+			int cols2 = (itype==InputType.COL_VECTOR) ? 1 : cols;
+			MatrixBlock m2 = MatrixBlock.randOperations(rows2, cols2, 
+					sparseM2?sparsity2:sparsity1, -1, 1, "uniform", 3);
+			ValueFunction fn = getValueFunction(type);
+			
+			//execute single- and multi-threaded operations
+			MatrixBlock ret1 = null, ret2 = null;
+			ComputeThreadPool.resetStatistics();
+			if( itype == InputType.SCALAR ) {
+				ScalarOperator sop1 = new RightScalarOperator(fn, 0.5);
+				ScalarOperator sop2 = new RightScalarOperator(fn, 0.5);
+				sop2.setNumThreads(k);
+				ret1 = (MatrixBlock) m1.scalarOperations(sop1, new MatrixBlock());
+				Assert.assertEquals(0, ComputeThreadPool.getNumInvocations());
+				ret2 = (MatrixBlock) m1.scalarOperations(sop2, new MatrixBlock());
+			}
+			else {
+				BinaryOperator bop1 = new BinaryOperator(fn);
+				BinaryOperator bop2 = new BinaryOperator(fn);
+				bop2.setNumThreads(k);
+				ret1 = (MatrixBlock) m1.binaryOperations(bop1, m2, new MatrixBlock());
+				Assert.assertEquals(0, ComputeThreadPool.getNumInvocations());
+				ret2 = (MatrixBlock) m1.binaryOperations(bop2, m2, new MatrixBlock());
+			}
+			
+			//check for multi-threaded execution and compare results
+			Assert.assertEquals(1, ComputeThreadPool.getNumInvocations());
+			Assert.assertEquals(ret1.isInSparseFormat(), ret2.isInSparseFormat());
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+					DataConverter.convertToDoubleMatrix(ret2), rows, cols, 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @return
+	 */
+	private static ValueFunction getValueFunction( OpType type )
+	{
+		switch( type ) {
+			case PLUS:    return Plus.getPlusFnObject();
+			case MULT:    return Multiply.getMultiplyFnObject();
+			case MINUS:   return Minus.getMinusFnObject();
+			case DIV:     return Divide.getDivideFnObject();
+			case GREATER: return GreaterThan.getGreaterThanFnObject();
+			default:      return null;
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Reads and deletes of matrices with asynchronous evictions in the write
+ * buffer. The write buffer is limited to 1MB, hence, writing more matrices 
+ * than fit into the buffer triggers asynchronous evictions. Reads issued 
+ * right after the writes are served from the buffer, the pending writes, or 
+ * the completely written local files. Deletes wait for pending writes, i.e., 
+ * no evicted file reappears after the delete once all writes completed.
+ * Failed asynchronous writes (to a non-existing directory) never drop the 
+ * buffer, i.e., all matrices are still served from memory, while the error 
+ * is reported on the next write or read.
+ */
+public class AsyncEvictionTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "AsyncEvictionTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 300;
+	private final static int cols = 200;
+	private final static int numMatrices = 12;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testAsyncEvictionReadDense() 
+	{
+		runAsyncEvictionTest(0.9, false);
+	}
+	
+	@Test
+	public void testAsyncEvictionReadSparse() 
+	{
+		runAsyncEvictionTest(0.3, false);
+	}
+	
+	@Test
+	public void testAsyncEvictionDeleteDense() 
+	{
+		runAsyncEvictionTest(0.9, true);
+	}
+	
+	@Test
+	public void testAsyncEvictionDeleteSparse() 
+	{
+		runAsyncEvictionTest(0.3, true);
+	}
+	
+	@Test
+	public void testAsyncEvictionWriteFailureDense() 
+	{
+		runAsyncEvictionWriteFailureTest(0.9);
+	}
+	
+	@Test
+	public void testAsyncEvictionWriteFailureSparse() 
+	{
+		runAsyncEvictionWriteFailureTest(0.3);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param delete
+	 */
+	private void runAsyncEvictionTest( double sparsity, boolean delete )
+	{
+		DMLConfig oldConf = ConfigurationManager.getConfig();
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init write buffer of 1MB off-heap
+			ConfigurationManager.setConfig(DMLConfig.parseDMLConfig(
+				"<root><"+DMLConfig.CP_CACHE_OFFHEAP+">1</"+DMLConfig.CP_CACHE_OFFHEAP+"></root>"));
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			
+			//write matrices of equal size (async evictions of oldest buffers)
+			double[][][] A = new double[numMatrices][][];
+			for( int i=0; i<numMatrices; i++ ) {
+				A[i] = getRandomMatrix(rows, cols, 0, 1, sparsity, i+7);
+				LazyWriteBuffer.writeMatrix(dir+"m"+i, DataConverter.convertToMatrixBlock(A[i]));
+			}
+			
+			//read or delete matrices in order of eviction (pending writes first)
+			for( int i=0; i<numMatrices; i++ ) {
+				if( delete ) {
+					LazyWriteBuffer.deleteMatrix(dir+"m"+i);
+					Assert.assertFalse("File exists after delete: m"+i, new File(dir+"m"+i).exists());
+				}
+				else {
+					MatrixBlock mb = LazyWriteBuffer.readMatrix(dir+"m"+i);
+					TestUtils.compareMatrices(A[i], DataConverter.convertToDoubleMatrix(mb), rows, cols, 0);
+				}
+			}
+			
+			//wait for all pending writes, and check for reappearing files
+			LazyWriteBuffer.cleanup();
+			if( delete )
+				for( int i=0; i<numMatrices; i++ )
+					Assert.assertFalse("File reappeared after delete: m"+i, new File(dir+"m"+i).exists());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			ConfigurationManager.setConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runAsyncEvictionWriteFailureTest( double sparsity )
+	{
+		DMLConfig oldConf = ConfigurationManager.getConfig();
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/missing/";
+			
+			//init write buffer of 1MB off-heap
+			ConfigurationManager.setConfig(DMLConfig.parseDMLConfig(
+				"<root><"+DMLConfig.CP_CACHE_OFFHEAP+">1</"+DMLConfig.CP_CACHE_OFFHEAP+"></root>"));
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			
+			//write matrices (async evictions fail because of the missing dir, 
+			//reported errors reject the current write)
+			double[][][] A = new double[numMatrices][][];
+			boolean[] written = new boolean[numMatrices];
+			int errors = 0;
+			for( int i=0; i<numMatrices; i++ ) {
+				A[i] = getRandomMatrix(rows, cols, 0, 1, sparsity, i+7);
+				try {
+					LazyWriteBuffer.writeMatrix(dir+"m"+i, DataConverter.convertToMatrixBlock(A[i]));
+					written[i] = true;
+				}
+				catch(IOException ex) {
+					errors++;
+				}
+			}
+			
+			//wait for the report of failed writes if not reported yet
+			for( int i=0; i<100 && errors==0; i++ ) {
+				try {
+					LazyWriteBuffer.readMatrix(dir+"m0");
+					Thread.sleep(10);
+				}
+				catch(IOException ex) {
+					errors++;
+				}
+			}
+			Assert.assertTrue("Failed write not reported.", errors > 0);
+			
+			//read all written matrices from memory (retry on reported errors)
+			for( int i=0; i<numMatrices; i++ ) {
+				if( !written[i] )
+					continue;
+				MatrixBlock mb = null;
+				for( int j=0; j<numMatrices && mb==null; j++ ) {
+					try {
+						mb = LazyWriteBuffer.readMatrix(dir+"m"+i);
+					}
+					catch(IOException ex) {
+						errors++;
+					}
+				}
+				Assert.assertNotNull("Lost buffer of m"+i, mb);
+				TestUtils.compareMatrices(A[i], DataConverter.convertToDoubleMatrix(mb), rows, cols, 0);
+			}
+			Assert.assertFalse("Unexpected directory.", new File(dir).exists());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			ConfigurationManager.setConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheCodec;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockLarge;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Restore of uncompressed dense eviction files in raw format (read via 
+ * memory-mapped regions), for linearized and segmented dense blocks. The 
+ * file is restored repeatedly and deleted afterwards, which requires that
+ * the mapped regions are released.
+ */
+public class CacheCodecDenseTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CacheCodecDenseTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 1071;
+	private final static int cols = 73;
+	private final static int numRestores = 5;
+	
+	//reduced sizes of segmented dense blocks
+	private final static long maxDenseSize = 10000;
+	private final static int maxSegmentSize = 3000;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testRestoreDense() 
+	{
+		runDenseRestoreTest(1.0, false);
+	}
+	
+	@Test
+	public void testRestoreDenseZeros() 
+	{
+		runDenseRestoreTest(0.6, false);
+	}
+	
+	@Test
+	public void testRestoreDenseLarge() 
+	{
+		runDenseRestoreTest(1.0, true);
+	}
+	
+	@Test
+	public void testRestoreDenseZerosLarge() 
+	{
+		runDenseRestoreTest(0.6, true);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param large
+	 */
+	private void runDenseRestoreTest( double sparsity, boolean large )
+	{
+		long oldMaxDenseSize = DenseBlockLarge.MAX_DENSE_SIZE;
+		int oldMaxSegmentSize = DenseBlockLarge.MAX_SEGMENT_SIZE;
+		
+		try
+		{
+			CacheCodec.init(0); //raw dense format
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			File f = new File(getCurLocalTempDir(), "X");
+			
+			//generate input (segmented dense block if large)
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			if( large ) {
+				DenseBlockLarge.MAX_DENSE_SIZE = maxDenseSize;
+				DenseBlockLarge.MAX_SEGMENT_SIZE = maxSegmentSize;
+			}
+			MatrixBlock mb = new MatrixBlock(rows, cols, false);
+			mb.allocateDenseBlock();
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					mb.quickSetValue(i, j, A[i][j]);
+			Assert.assertEquals(large, mb.isInLargeDenseFormat());
+			
+			//write and check codec byte
+			CacheCodec.writeMatrixBlockToLocal(f.getPath(), mb);
+			FileInputStream fis = new FileInputStream(f);
+			try {
+				Assert.assertEquals(CacheCodec.CODEC_DENSE, fis.read());
+			}
+			finally {
+				fis.close();
+			}
+			
+			//restore repeatedly and compare
+			for( int k=0; k<numRestores; k++ ) {
+				MatrixBlock mb2 = CacheCodec.readMatrixBlockFromLocal(f.getPath());
+				Assert.assertEquals(rows, mb2.getNumRows());
+				Assert.assertEquals(cols, mb2.getNumColumns());
+				Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+				Assert.assertEquals(large, mb2.isInLargeDenseFormat());
+				TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+			}
+			
+			//delete after restore (no remaining mappings)
+			Assert.assertTrue("Failed to delete restored file.", f.delete());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			DenseBlockLarge.MAX_DENSE_SIZE = oldMaxDenseSize;
+			DenseBlockLarge.MAX_SEGMENT_SIZE = oldMaxSegmentSize;
+			CacheCodec.init();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheCodec;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Round trips of the cache codec for raw byte buffers (empty, incompressible,
+ * and chunk-aligned inputs) and for local eviction files of sparse and dense
+ * blocks, including the dispatch of the leading codec byte on reads.
+ */
+public class CacheCodecTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CacheCodecTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	//raw chunk size of the lz format (64KB)
+	private final static int chunkSize = 64 * 1024;
+	
+	private final static int rows = 1234;
+	private final static int cols = 117;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	
+	private enum InputType {
+		EMPTY,
+		INCOMPRESSIBLE,
+		CHUNK_BOUNDARY,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testBufferEmpty() 
+	{
+		runBufferRoundTripTest(InputType.EMPTY);
+	}
+	
+	@Test
+	public void testBufferIncompressible() 
+	{
+		runBufferRoundTripTest(InputType.INCOMPRESSIBLE);
+	}
+	
+	@Test
+	public void testBufferChunkBoundary() 
+	{
+		runBufferRoundTripTest(InputType.CHUNK_BOUNDARY);
+	}
+	
+	@Test
+	public void testLocalFileDenseUncompressed() 
+	{
+		runLocalFileRoundTripTest(false, 0, CacheCodec.CODEC_DENSE);
+	}
+	
+	@Test
+	public void testLocalFileSparseUncompressed() 
+	{
+		runLocalFileRoundTripTest(true, 0, CacheCodec.CODEC_NONE);
+	}
+	
+	@Test
+	public void testLocalFileDenseCompressed() 
+	{
+		runLocalFileRoundTripTest(false, 1, CacheCodec.CODEC_LZ);
+	}
+	
+	@Test
+	public void testLocalFileSparseCompressed() 
+	{
+		runLocalFileRoundTripTest(true, 9, CacheCodec.CODEC_LZ);
+	}
+	
+	@Test
+	public void testLocalFileUnsupportedCodec() 
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			File f = new File(getCurLocalTempDir(), "X");
+			FileOutputStream fos = new FileOutputStream(f);
+			try {
+				fos.write(new byte[]{(byte)7, 0, 0, 0});
+			}
+			finally {
+				fos.close();
+			}
+			
+			CacheCodec.readMatrixBlockFromLocal(f.getPath());
+			Assert.fail("Unsupported codec not detected.");
+		}
+		catch(IOException ex)
+		{
+			//expected
+		}
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 */
+	private void runBufferRoundTripTest( InputType type )
+	{
+		try
+		{
+			//generate input bytes
+			byte[] data = null;
+			switch( type ) {
+				case EMPTY: 
+					data = new byte[0]; 
+					break;
+				case INCOMPRESSIBLE: 
+					data = new byte[3*chunkSize+17]; 
+					new Random(7).nextBytes(data);
+					break;
+				case CHUNK_BOUNDARY:
+					data = new byte[2*chunkSize];
+					for( int i=0; i<data.length; i++ )
+						data[i] = (byte)(i % 251 % 13);
+					break;
+			}
+			
+			//compress and decompress
+			MatrixBlock mb = new MatrixBlock(1, 1, false);
+			byte[] cdata = CacheCodec.compress(mb, data, data.length);
+			Assert.assertEquals(CacheCodec.CODEC_LZ, cdata[0]);
+			byte[] data2 = CacheCodec.decompress(cdata);
+			Assert.assertTrue("Wrong decompressed data.", Arrays.equals(data, data2));
+			
+			//check compression (and bounded overhead)
+			int numChunks = (data.length + chunkSize - 1) / chunkSize;
+			if( type == InputType.CHUNK_BOUNDARY )
+				Assert.assertTrue("Data not compressed: "+cdata.length, cdata.length < data.length/2);
+			else
+				Assert.assertTrue("Overhead too large: "+cdata.length, 
+					cdata.length <= 1 + 8*(numChunks+1) + data.length);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param level
+	 * @param codec expected leading codec byte
+	 */
+	private void runLocalFileRoundTripTest( boolean sparse, int level, byte codec )
+	{
+		try
+		{
+			CacheCodec.init(level);
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String fname = new File(getCurLocalTempDir(), "X").getPath();
+			
+			//generate input with few distinct values (compressible)
+			double[][] A = getRandomMatrix(rows, cols, 0, 10, sparse ? sparsity2 : sparsity1, 7);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					A[i][j] = Math.floor(A[i][j]);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			
+			//write and check codec byte
+			CacheCodec.writeMatrixBlockToLocal(fname, mb);
+			FileInputStream fis = new FileInputStream(fname);
+			try {
+				Assert.assertEquals(codec, fis.read());
+			}
+			finally {
+				fis.close();
+			}
+			
+			//read and compare
+			MatrixBlock mb2 = CacheCodec.readMatrixBlockFromLocal(fname);
+			Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			CacheCodec.init();
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.parser.DMLTranslator;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
+import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContextFactory;
+import com.ibm.bi.dml.runtime.instructions.cp.VariableCPInstruction;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockPool;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Recycling of dense blocks via the dense block pool. Dense blocks are only
+ * recycled on rmvar of matrix objects that are not referenced by any other 
+ * variable. For all other cleanups, the matrix block might still be aliased
+ * (e.g., by the caller of acquireRead), and hence, subsequent allocations of
+ * the same size must not reuse (and overwrite) the aliased dense block.
+ * With the default configuration (recycling disabled), even the dense block 
+ * of an unreferenced matrix object survives rmvar if aliased elsewhere.
+ */
+public class DenseBlockRecyclingTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "DenseBlockRecyclingTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 1000;
+	private final static int cols = 100;
+	
+	private enum CleanupType {
+		CLEAR_DATA,   //direct cleanup (e.g., result merge)
+		RMVAR_ALIAS,  //rmvar w/ second variable referencing the object
+		RMVAR,        //rmvar of unreferenced object
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testClearDataAliasNoRecycle() 
+	{
+		runDenseBlockRecyclingTest(CleanupType.CLEAR_DATA, true);
+	}
+	
+	@Test
+	public void testRmvarAliasNoRecycle() 
+	{
+		runDenseBlockRecyclingTest(CleanupType.RMVAR_ALIAS, true);
+	}
+	
+	@Test
+	public void testRmvarRecycle() 
+	{
+		runDenseBlockRecyclingTest(CleanupType.RMVAR, true);
+	}
+	
+	@Test
+	public void testRmvarDefaultNoRecycle() 
+	{
+		runDenseBlockRecyclingTest(CleanupType.RMVAR, false);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param recycling enable recycling, otherwise default configuration
+	 */
+	private void runDenseBlockRecyclingTest( CleanupType type, boolean recycling )
+	{
+		boolean oldFlag = OptimizerUtils.ALLOW_DENSE_BLOCK_RECYCLING;
+		
+		try
+		{
+			if( recycling )
+				OptimizerUtils.ALLOW_DENSE_BLOCK_RECYCLING = true;
+			DenseBlockPool.clear();
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//create matrix object w/ dense block
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, 1.0, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 
+				DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mb.getNonZeros());
+			MatrixObject mo = new MatrixObject(ValueType.DOUBLE, getCurLocalTempDir().getPath()+"/X", 
+				new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+			mo.acquireModify(mb);
+			mo.release();
+			
+			//obtain alias of the matrix block 
+			ExecutionContext ec = ExecutionContextFactory.createContext();
+			ec.setVariable("X", mo);
+			if( type == CleanupType.RMVAR_ALIAS )
+				ec.setVariable("Y", mo);
+			MatrixBlock alias = ec.getMatrixInput("X");
+			ec.releaseMatrixInput("X");
+			double[] denseBlock = alias.getDenseBlock();
+			long numRecycled = DenseBlockPool.getNumRecycled();
+			
+			//cleanup matrix object
+			if( type == CleanupType.CLEAR_DATA )
+				mo.clearData();
+			else
+				VariableCPInstruction.processRemoveVariableInstruction(ec, "X");
+			
+			//allocate and overwrite dense block of equal size
+			MatrixBlock mb2 = new MatrixBlock(rows, cols, false);
+			mb2.allocateDenseBlock();
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					mb2.quickSetValue(i, j, 7);
+			
+			if( type == CleanupType.RMVAR && recycling ) {
+				//unreferenced dense block recycled
+				Assert.assertEquals(numRecycled+1, DenseBlockPool.getNumRecycled());
+				Assert.assertNull(alias.getDenseBlock());
+			}
+			else {
+				//aliased dense block neither recycled nor overwritten
+				Assert.assertEquals(numRecycled, DenseBlockPool.getNumRecycled());
+				Assert.assertSame(denseBlock, alias.getDenseBlock());
+				Assert.assertNotSame(denseBlock, mb2.getDenseBlock());
+				TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(alias), rows, cols, 0);
+				if( type == CleanupType.RMVAR_ALIAS ) {
+					TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(
+						ec.getMatrixInput("Y")), rows, cols, 0);
+					ec.releaseMatrixInput("Y");
+				}
+			}
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			OptimizerUtils.ALLOW_DENSE_BLOCK_RECYCLING = oldFlag;
+			DenseBlockPool.clear();
+		}
+	}
+}
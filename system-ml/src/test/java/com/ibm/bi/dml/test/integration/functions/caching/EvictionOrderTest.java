@@ -0,0 +1,222 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.parser.DMLTranslator;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.BufferPool;
+import com.ibm.bi.dml.runtime.controlprogram.caching.BufferPool.EvictionPolicy;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Eviction order of the buffer pool for the different eviction policies.
+ * The buffer pool budget is set to a small multiple of the matrix size, and 
+ * each scenario is chosen such that the policies select different victims:
+ * 
+ * LRU: A,B,C,D (evicts A), read B, E (evicts C, not B as FIFO would)
+ * LFU: A,B, read A twice, read B once, C (evicts C w/o prior acquires)
+ * COST: S1,L,S2 (evicts the larger L w/ lower restore cost per byte, not S1)
+ * 
+ * Residency is checked via memory hits on acquire read, i.e., in-memory
+ * matrices are checked first because restores of evicted matrices in turn
+ * evict other matrices.
+ */
+public class EvictionOrderTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "EvictionOrderTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 500;
+	private final static int cols = 100;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testEvictionOrderLRU() 
+	{
+		runEvictionOrderTest(EvictionPolicy.LRU);
+	}
+	
+	@Test
+	public void testEvictionOrderLFU() 
+	{
+		runEvictionOrderTest(EvictionPolicy.LFU);
+	}
+	
+	@Test
+	public void testEvictionOrderCost() 
+	{
+		runEvictionOrderTest(EvictionPolicy.COST);
+	}
+	
+	/**
+	 * 
+	 * @param policy
+	 */
+	private void runEvictionOrderTest( EvictionPolicy policy )
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			DMLScript.STATISTICS = true;
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init caching and buffer pool w/ budget relative to matrix size
+			CacheableData.initCaching();
+			CacheStatistics.reset();
+			long size = DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rows, cols, 0, 1, 1.0, 7)).estimateSizeInMemory();
+			
+			double[][][] A = new double[5][][];
+			MatrixObject[] mo = new MatrixObject[5];
+			switch( policy ) 
+			{
+				case LRU:
+					BufferPool.init((long)(3.5*size), policy);
+					for( int i=0; i<4; i++ )
+						mo[i] = createMatrixObject(dir+"X"+i, A, i, rows);
+					readMatrixObject(mo[1]);
+					mo[4] = createMatrixObject(dir+"X4", A, 4, rows);
+					checkInMemory(mo, A, new int[]{1, 3, 4}, new int[]{0, 2});
+					break;
+				
+				case LFU:
+					BufferPool.init((long)(2.5*size), policy);
+					for( int i=0; i<2; i++ )
+						mo[i] = createMatrixObject(dir+"X"+i, A, i, rows);
+					readMatrixObject(mo[0]);
+					readMatrixObject(mo[0]);
+					readMatrixObject(mo[1]);
+					mo[2] = createMatrixObject(dir+"X2", A, 2, rows);
+					checkInMemory(mo, A, new int[]{0, 1}, new int[]{2});
+					break;
+				
+				case COST:
+					BufferPool.init((long)(3.5*size), policy);
+					mo[0] = createMatrixObject(dir+"X0", A, 0, rows);
+					mo[1] = createMatrixObject(dir+"X1", A, 1, 2*rows);
+					mo[2] = createMatrixObject(dir+"X2", A, 2, rows);
+					checkInMemory(mo, A, new int[]{0, 2}, new int[]{1});
+					break;
+			}
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			DMLScript.STATISTICS = oldStats;
+			CacheableData.cleanupCacheDir();
+			BufferPool.init();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @param A
+	 * @param pos
+	 * @param rlen
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private MatrixObject createMatrixObject( String fname, double[][][] A, int pos, int rlen ) 
+		throws DMLRuntimeException
+	{
+		A[pos] = getRandomMatrix(rlen, cols, 0, 1, 1.0, pos+7);
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(A[pos]);
+		MatrixCharacteristics mc = new MatrixCharacteristics(rlen, cols, 
+			DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mb.getNonZeros());
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, fname, 
+			new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		mo.acquireModify(mb);
+		mo.release();
+		return mo;
+	}
+	
+	/**
+	 * 
+	 * @param mo
+	 * @throws DMLRuntimeException
+	 */
+	private static void readMatrixObject( MatrixObject mo ) 
+		throws DMLRuntimeException
+	{
+		mo.acquireRead();
+		mo.release();
+	}
+	
+	/**
+	 * 
+	 * @param mo
+	 * @param A
+	 * @param inMem
+	 * @param evicted
+	 * @throws DMLRuntimeException
+	 */
+	private static void checkInMemory( MatrixObject[] mo, double[][][] A, int[] inMem, int[] evicted ) 
+		throws DMLRuntimeException
+	{
+		for( int pos : inMem )
+			Assert.assertTrue("Matrix "+pos+" unexpectedly evicted.", isInMemory(mo[pos], A[pos]));
+		for( int pos : evicted )
+			Assert.assertFalse("Matrix "+pos+" unexpectedly not evicted.", isInMemory(mo[pos], A[pos]));
+	}
+	
+	/**
+	 * 
+	 * @param mo
+	 * @param A
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static boolean isInMemory( MatrixObject mo, double[][] A ) 
+		throws DMLRuntimeException
+	{
+		int memHits = CacheStatistics.getMemHits();
+		MatrixBlock mb = mo.acquireRead();
+		TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), A.length, A[0].length, 0);
+		mo.release();
+		return CacheStatistics.getMemHits() > memHits;
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Size accounting of the write buffer in off-heap (and on-heap) mode. The 
+ * off-heap write buffer is bounded by the configured size of 1MB instead of 
+ * a fraction of the max heap. The reserved size never exceeds this limit 
+ * (evictions, prefetches, matrices larger than the buffer), and drops to 
+ * zero once all matrices are read and deleted, i.e., no reservations of 
+ * buffers, pending writes, or prefetches are leaked.
+ */
+public class OffHeapBufferTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "OffHeapBufferTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 300;
+	private final static int cols = 200;
+	private final static int rowsLarge = 800; //larger than write buffer
+	private final static int numMatrices = 12;
+	private final static long limit = 1024 * 1024;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testAccountingOffHeapDense() 
+	{
+		runBufferAccountingTest(0.9, true);
+	}
+	
+	@Test
+	public void testAccountingOffHeapSparse() 
+	{
+		runBufferAccountingTest(0.1, true);
+	}
+	
+	@Test
+	public void testAccountingOnHeapDense() 
+	{
+		runBufferAccountingTest(0.9, false);
+	}
+	
+	@Test
+	public void testAccountingOnHeapSparse() 
+	{
+		runBufferAccountingTest(0.1, false);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param offHeap
+	 */
+	private void runBufferAccountingTest( double sparsity, boolean offHeap )
+	{
+		DMLConfig oldConf = ConfigurationManager.getConfig();
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init write buffer of 1MB off-heap (or default on-heap)
+			ConfigurationManager.setConfig(DMLConfig.parseDMLConfig("<root><"+DMLConfig.CP_CACHE_OFFHEAP+">"
+				+(offHeap ? 1 : 0)+"</"+DMLConfig.CP_CACHE_OFFHEAP+"></root>"));
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			Assert.assertEquals(offHeap, LazyWriteBuffer.isOffHeap());
+			Assert.assertEquals(offHeap ? limit : LazyWriteBuffer.getWriteBufferSize(), LazyWriteBuffer.getLimit());
+			Assert.assertEquals(0, LazyWriteBuffer.getSize());
+			
+			//write matrices (incl one larger than the off-heap buffer)
+			double[][][] A = new double[numMatrices][][];
+			for( int i=0; i<numMatrices; i++ ) {
+				int rlen = (i==numMatrices/2) ? rowsLarge : rows;
+				A[i] = getRandomMatrix(rlen, cols, 0, 1, sparsity, i+7);
+				LazyWriteBuffer.writeMatrix(dir+"m"+i, DataConverter.convertToMatrixBlock(A[i]));
+				Assert.assertTrue("Write buffer limit exceeded: "+LazyWriteBuffer.getSize(), 
+					LazyWriteBuffer.getSize() <= LazyWriteBuffer.getLimit());
+			}
+			
+			//prefetch oldest matrices, and delete one of them w/o read
+			LazyWriteBuffer.prefetchMatrix(dir+"m0");
+			LazyWriteBuffer.prefetchMatrix(dir+"m1");
+			Assert.assertTrue("Write buffer limit exceeded: "+LazyWriteBuffer.getSize(), 
+				LazyWriteBuffer.getSize() <= LazyWriteBuffer.getLimit());
+			LazyWriteBuffer.deleteMatrix(dir+"m1");
+			
+			//read and delete all remaining matrices
+			for( int i=0; i<numMatrices; i++ ) {
+				if( i == 1 ) 
+					continue;
+				MatrixBlock mb = LazyWriteBuffer.readMatrix(dir+"m"+i);
+				TestUtils.compareMatrices(A[i], DataConverter.convertToDoubleMatrix(mb), A[i].length, cols, 0);
+				LazyWriteBuffer.deleteMatrix(dir+"m"+i);
+			}
+			
+			//check for leaked reservations
+			Assert.assertEquals(0, LazyWriteBuffer.getSize());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			ConfigurationManager.setConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Read-ahead prefetching of the write buffer. The write buffer is limited 
+ * to 1MB (off-heap, i.e., deep serialized buffers), hence, the first of the
+ * written matrices are evicted to local FS. After deleting the most recent 
+ * matrices (to free buffer capacity for prefetches), prefetched matrices 
+ * are expected to be served by the prefetch requests, from local FS as well
+ * as from the write buffer. Prefetches of deleted matrices are dropped, 
+ * i.e., rewritten matrices must not be served from stale prefetches.
+ */
+public class PrefetchTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "PrefetchTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 100;
+	private final static int cols = 100;
+	private final static int numMatrices = 60;
+	private final static int numDeleted = 20;
+	private final static int numPrefetches = 4;
+	
+	private enum PrefetchType {
+		LOCAL_FS,
+		WRITE_BUFFER,
+		DELETED,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testPrefetchLocalFS() 
+	{
+		runPrefetchTest(PrefetchType.LOCAL_FS);
+	}
+	
+	@Test
+	public void testPrefetchWriteBuffer() 
+	{
+		runPrefetchTest(PrefetchType.WRITE_BUFFER);
+	}
+	
+	@Test
+	public void testPrefetchDeleted() 
+	{
+		runPrefetchTest(PrefetchType.DELETED);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 */
+	private void runPrefetchTest( PrefetchType type )
+	{
+		DMLConfig oldConf = ConfigurationManager.getConfig();
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			DMLScript.STATISTICS = true;
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init write buffer of 1MB off-heap
+			ConfigurationManager.setConfig(DMLConfig.parseDMLConfig(
+				"<root><"+DMLConfig.CP_CACHE_OFFHEAP+">1</"+DMLConfig.CP_CACHE_OFFHEAP+"></root>"));
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			
+			//write matrices (evictions of oldest buffers), and delete 
+			//most recent matrices to free buffer capacity
+			double[][][] A = new double[numMatrices][][];
+			for( int i=0; i<numMatrices; i++ ) {
+				A[i] = getRandomMatrix(rows, cols, 0, 1, 1.0, i+7);
+				LazyWriteBuffer.writeMatrix(dir+"m"+i, DataConverter.convertToMatrixBlock(A[i]));
+			}
+			for( int i=numMatrices-numDeleted; i<numMatrices; i++ )
+				LazyWriteBuffer.deleteMatrix(dir+"m"+i);
+			
+			//matrices to prefetch (oldest evicted ones or new buffered ones)
+			int[] pos = new int[numPrefetches];
+			for( int i=0; i<numPrefetches; i++ ) {
+				pos[i] = (type==PrefetchType.WRITE_BUFFER) ? numMatrices-numDeleted+i : i;
+				if( type == PrefetchType.WRITE_BUFFER )
+					LazyWriteBuffer.writeMatrix(dir+"m"+pos[i], DataConverter.convertToMatrixBlock(A[pos[i]]));
+			}
+			
+			//issue prefetch requests 
+			int prefetches = CacheStatistics.getPrefetches();
+			int prefetchHits = CacheStatistics.getPrefetchHits();
+			for( int i=0; i<numPrefetches; i++ )
+				LazyWriteBuffer.prefetchMatrix(dir+"m"+pos[i]);
+			Assert.assertEquals(numPrefetches, CacheStatistics.getPrefetches()-prefetches);
+			
+			//delete and rewrite prefetched matrices w/ new data
+			if( type == PrefetchType.DELETED ) {
+				for( int i=0; i<numPrefetches; i++ ) {
+					LazyWriteBuffer.deleteMatrix(dir+"m"+pos[i]);
+					A[pos[i]] = getRandomMatrix(rows, cols, 0, 1, 1.0, i+numMatrices+7);
+					LazyWriteBuffer.writeMatrix(dir+"m"+pos[i], DataConverter.convertToMatrixBlock(A[pos[i]]));
+				}
+			}
+			
+			//read and compare prefetched matrices
+			for( int i=0; i<numPrefetches; i++ ) {
+				MatrixBlock mb = LazyWriteBuffer.readMatrix(dir+"m"+pos[i]);
+				TestUtils.compareMatrices(A[pos[i]], DataConverter.convertToDoubleMatrix(mb), rows, cols, 0);
+			}
+			Assert.assertEquals((type==PrefetchType.DELETED) ? 0 : numPrefetches, 
+				CacheStatistics.getPrefetchHits()-prefetchHits);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			DMLScript.STATISTICS = oldStats;
+			ConfigurationManager.setConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.parser.DMLTranslator;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.controlprogram.LocalVariableMap;
+import com.ibm.bi.dml.runtime.controlprogram.caching.BufferPool;
+import com.ibm.bi.dml.runtime.controlprogram.caching.BufferPool.EvictionPolicy;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Reference counts of the symbol table and release of unreachable blobs.
+ * 
+ * The reference counts are maintained on put (incl overwrites), remove, 
+ * putAll, clone, and removeAll. Blobs of matrix objects that became 
+ * unreachable without explicit cleanup are purged from the buffer pool after
+ * garbage collection, i.e., they neither count against the budget nor cause 
+ * evictions of live matrices.
+ */
+public class UnreachableBlobTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "UnreachableBlobTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 500;
+	private final static int cols = 100;
+	private final static int numMatrices = 2;
+	private final static int maxGCRetries = 20;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testReferenceCounts() 
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			MatrixObject mo1 = new MatrixObject(ValueType.DOUBLE, dir+"X1");
+			MatrixObject mo2 = new MatrixObject(ValueType.DOUBLE, dir+"X2");
+			
+			//put w/ aliases and overwrites
+			LocalVariableMap vars = new LocalVariableMap();
+			vars.put("A", mo1);
+			vars.put("B", mo1);
+			vars.put("C", mo1);
+			Assert.assertEquals(3, vars.getNumReferences(mo1, false));
+			vars.put("C", mo2);
+			vars.put("B", mo1); //same object
+			Assert.assertEquals(2, vars.getNumReferences(mo1, false));
+			Assert.assertEquals(1, vars.getNumReferences(mo2, false));
+			
+			//copies of the symbol table (independent counts)
+			LocalVariableMap vars2 = (LocalVariableMap) vars.clone();
+			LocalVariableMap vars3 = new LocalVariableMap();
+			vars3.putAll(vars);
+			vars3.put("D", mo2);
+			Assert.assertEquals(2, vars2.getNumReferences(mo1, false));
+			Assert.assertEquals(2, vars3.getNumReferences(mo2, false));
+			Assert.assertEquals(1, vars.getNumReferences(mo2, false));
+			
+			//remove (incl non-existing variables)
+			vars.remove("A");
+			vars.remove("X");
+			Assert.assertTrue(vars.hasReferences(mo1));
+			vars.remove("B");
+			Assert.assertFalse(vars.hasReferences(mo1));
+			Assert.assertEquals(0, vars.getNumReferences(mo1, false));
+			Assert.assertTrue(vars2.hasReferences(mo1));
+			
+			//remove all
+			vars3.removeAll();
+			Assert.assertFalse(vars3.hasReferences(mo2));
+			Assert.assertTrue(vars.hasReferences(mo2));
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	@Test
+	public void testReleaseUnreachableBlobs() 
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			DMLScript.STATISTICS = true;
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init caching and buffer pool w/ budget of two matrices
+			CacheableData.initCaching();
+			long size = DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rows, cols, 0, 1, 1.0, 7)).estimateSizeInMemory();
+			BufferPool.init((long)(2.5*size), EvictionPolicy.LRU);
+			
+			//register blobs of unreachable matrix objects (no cleanup)
+			for( int i=0; i<numMatrices; i++ )
+				createMatrixObject(dir+"X"+i, i);
+			Assert.assertEquals(numMatrices*size, BufferPool.getSize());
+			
+			//purge entries of garbage collected matrix objects 
+			for( int i=0; i<maxGCRetries && BufferPool.getSize() > 0; i++ ) {
+				System.gc();
+				Thread.sleep(100);
+				BufferPool.makeSpace();
+			}
+			Assert.assertEquals(0, BufferPool.getSize());
+			
+			//register live matrix objects (no evictions)
+			int evictions = CacheStatistics.getEvictions();
+			MatrixObject[] mo = new MatrixObject[numMatrices];
+			for( int i=0; i<numMatrices; i++ )
+				mo[i] = createMatrixObject(dir+"Y"+i, numMatrices+i);
+			Assert.assertEquals(numMatrices*size, BufferPool.getSize());
+			Assert.assertEquals(evictions, CacheStatistics.getEvictions());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			DMLScript.STATISTICS = oldStats;
+			CacheableData.cleanupCacheDir();
+			BufferPool.init();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private MatrixObject createMatrixObject( String fname, int seed ) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(getRandomMatrix(rows, cols, 0, 1, 1.0, seed+7));
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 
+			DMLTranslator.DMLBlockSize, DMLTranslator.DMLBlockSize, mb.getNonZeros());
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, fname, 
+			new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		mo.acquireModify(mb);
+		mo.release();
+		return mo;
+	}
+}
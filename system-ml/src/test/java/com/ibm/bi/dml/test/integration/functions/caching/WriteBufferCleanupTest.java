@@ -0,0 +1,130 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheCodec;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Cleanup of the write buffer with multiple pending asynchronous writes. 
+ * The write buffer is limited to 1MB (off-heap), hence, writing more
+ * matrices than fit into the buffer triggers asynchronous evictions, which 
+ * are queued behind the two background I/O threads. Cleanup is required 
+ * to wait for all pending writes, i.e., all evicted files are completely 
+ * written once cleanup returns.
+ */
+public class WriteBufferCleanupTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "WriteBufferCleanupTest";
+	private final static String TEST_DIR = "functions/caching/";
+	
+	private final static int rows = 300;
+	private final static int cols = 200;
+	private final static int numMatrices = 12;
+	private final static long limit = 1024 * 1024;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testCleanupPendingWritesDense() 
+	{
+		runWriteBufferCleanupTest(0.9);
+	}
+	
+	@Test
+	public void testCleanupPendingWritesSparse() 
+	{
+		runWriteBufferCleanupTest(0.3);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runWriteBufferCleanupTest( double sparsity )
+	{
+		DMLConfig oldConf = ConfigurationManager.getConfig();
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String dir = getCurLocalTempDir().getPath() + "/";
+			
+			//init write buffer of 1MB off-heap
+			ConfigurationManager.setConfig(DMLConfig.parseDMLConfig(
+				"<root><"+DMLConfig.CP_CACHE_OFFHEAP+">1</"+DMLConfig.CP_CACHE_OFFHEAP+"></root>"));
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			
+			//write matrices of equal size (evictions of oldest buffers)
+			double[][][] A = new double[numMatrices][][];
+			long size = -1;
+			for( int i=0; i<numMatrices; i++ ) {
+				A[i] = getRandomMatrix(rows, cols, 0, 1, sparsity, i+7);
+				MatrixBlock mb = DataConverter.convertToMatrixBlock(A[i]);
+				size = Math.max(size, mb.getExactSizeOnDisk());
+				LazyWriteBuffer.writeMatrix(dir+"m"+i, mb);
+			}
+			Assert.assertTrue("Matrices do not exceed the write buffer.", size*numMatrices > 2*limit);
+			
+			//cleanup (drops buffered matrices, waits for pending writes)
+			LazyWriteBuffer.cleanup();
+			
+			//check all evicted matrices are completely written
+			int numWritten = 0;
+			for( int i=0; i<numMatrices; i++ ) {
+				File f = new File(dir+"m"+i);
+				if( !f.exists() )
+					continue;
+				MatrixBlock mb = CacheCodec.readMatrixBlockFromLocal(f.getPath());
+				TestUtils.compareMatrices(A[i], DataConverter.convertToDoubleMatrix(mb), rows, cols, 0);
+				numWritten++;
+			}
+			Assert.assertTrue("Missing evicted matrices: "+numWritten, 
+				numWritten >= numMatrices - limit/size);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			ConfigurationManager.setConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.compress;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.compress.BitmapEncoder;
+import com.ibm.bi.dml.runtime.compress.ColGroup;
+import com.ibm.bi.dml.runtime.compress.ColGroup.CompressionType;
+import com.ibm.bi.dml.runtime.compress.ColGroupDDC;
+import com.ibm.bi.dml.runtime.compress.ColGroupOLE;
+import com.ibm.bi.dml.runtime.compress.ColGroupRLE;
+import com.ibm.bi.dml.runtime.compress.ColGroupUncompressed;
+import com.ibm.bi.dml.runtime.compress.UncompressedBitmap;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixReorg;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Round trip (encode and decompress) of single column groups for all 
+ * column group encodings. The number of rows exceeds the OLE segment size
+ * in order to cover multiple segments and runs across segment boundaries.
+ */
+public class CompressedColGroupTest extends AutomatedTestBase 
+{
+	private final static int rows = ColGroupOLE.BITMAP_BLOCK_SZ + 4467;
+	private final static int cols = 3;
+	private final static int colIndex = 1;
+	private final static double sparsity = 0.05;
+	
+	private enum DataType {
+		DENSE,  //few distinct values, no zeros
+		SPARSE, //few distinct values, mostly zeros
+		RUNS,   //long runs of equal values incl zeros
+		EMPTY,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testDDCDense() 
+	{
+		runColGroupRoundTripTest(CompressionType.DDC, DataType.DENSE);
+	}
+	
+	@Test
+	public void testDDCSparse() 
+	{
+		runColGroupRoundTripTest(CompressionType.DDC, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testDDCRuns() 
+	{
+		runColGroupRoundTripTest(CompressionType.DDC, DataType.RUNS);
+	}
+	
+	@Test
+	public void testOLEDense() 
+	{
+		runColGroupRoundTripTest(CompressionType.OLE_BITMAP, DataType.DENSE);
+	}
+	
+	@Test
+	public void testOLESparse() 
+	{
+		runColGroupRoundTripTest(CompressionType.OLE_BITMAP, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testOLERuns() 
+	{
+		runColGroupRoundTripTest(CompressionType.OLE_BITMAP, DataType.RUNS);
+	}
+	
+	@Test
+	public void testOLEEmpty() 
+	{
+		runColGroupRoundTripTest(CompressionType.OLE_BITMAP, DataType.EMPTY);
+	}
+	
+	@Test
+	public void testRLEDense() 
+	{
+		runColGroupRoundTripTest(CompressionType.RLE_BITMAP, DataType.DENSE);
+	}
+	
+	@Test
+	public void testRLESparse() 
+	{
+		runColGroupRoundTripTest(CompressionType.RLE_BITMAP, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testRLERuns() 
+	{
+		runColGroupRoundTripTest(CompressionType.RLE_BITMAP, DataType.RUNS);
+	}
+	
+	@Test
+	public void testRLEEmpty() 
+	{
+		runColGroupRoundTripTest(CompressionType.RLE_BITMAP, DataType.EMPTY);
+	}
+	
+	@Test
+	public void testUncompressedDense() 
+	{
+		runColGroupRoundTripTest(CompressionType.UNCOMPRESSED, DataType.DENSE);
+	}
+	
+	@Test
+	public void testUncompressedSparse() 
+	{
+		runColGroupRoundTripTest(CompressionType.UNCOMPRESSED, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testUncompressedEmpty() 
+	{
+		runColGroupRoundTripTest(CompressionType.UNCOMPRESSED, DataType.EMPTY);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param dtype
+	 */
+	private void runColGroupRoundTripTest( CompressionType type, DataType dtype )
+	{
+		try
+		{
+			//generate input and transposed input (as used for compression)
+			double[][] A = generateInput(dtype, 7);
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock tin = LibMatrixReorg.transpose(in, new MatrixBlock(cols, rows, in.isInSparseFormat()));
+			tin.csrToSparse();
+			
+			//encode single column group
+			int[] colIndices = new int[]{colIndex};
+			ColGroup grp = null;
+			if( type == CompressionType.UNCOMPRESSED )
+				grp = new ColGroupUncompressed(colIndices, rows, tin);
+			else {
+				UncompressedBitmap bitmap = BitmapEncoder.extractBitmap(colIndex, tin);
+				switch( type ) {
+					case DDC:        grp = new ColGroupDDC(colIndices, rows, bitmap); break;
+					case RLE_BITMAP: grp = new ColGroupRLE(colIndices, rows, bitmap); break;
+					default:         grp = new ColGroupOLE(colIndices, rows, bitmap); break;
+				}
+			}
+			Assert.assertEquals(type, grp.getCompType());
+			
+			//check meta data
+			long nnz = 0;
+			for( int i=0; i<rows; i++ )
+				nnz += (A[i][colIndex] != 0) ? 1 : 0;
+			Assert.assertEquals(nnz, grp.getNumberNonZeros());
+			Assert.assertEquals(rows, grp.getNumRows());
+			Assert.assertEquals(1, grp.getNumCols());
+			
+			//check decompression into block (only the group column)
+			MatrixBlock out = new MatrixBlock(rows, cols, false);
+			out.allocateDenseBlock();
+			grp.decompressToBlock(out);
+			out.recomputeNonZeros();
+			Assert.assertEquals(nnz, out.getNonZeros());
+			double[][] C = DataConverter.convertToDoubleMatrix(out);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					Assert.assertEquals("Wrong value at ("+i+","+j+")", 
+						(j==colIndex) ? A[i][j] : 0, C[i][j], 0);
+			
+			//check decompression into column and value access
+			double[] c = new double[rows];
+			grp.decompressToColumn(c, 0);
+			for( int i=0; i<rows; i++ ) {
+				Assert.assertEquals("Wrong column value at "+i, A[i][colIndex], c[i], 0);
+				Assert.assertEquals("Wrong value at "+i, A[i][colIndex], grp.get(i, colIndex), 0);
+			}
+			Assert.assertEquals(0, grp.get(0, colIndex+1), 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param dtype
+	 * @param seed
+	 * @return
+	 */
+	private static double[][] generateInput( DataType dtype, long seed )
+	{
+		Random rand = new Random(seed);
+		double[][] A = new double[rows][cols];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				switch( dtype ) {
+					case DENSE:  A[i][j] = 1 + rand.nextInt(5); break;
+					case SPARSE: A[i][j] = (rand.nextDouble() < sparsity) ? 1 + rand.nextInt(5) : 0; break;
+					case RUNS:   A[i][j] = (i / 1013 + j) % 4; break;
+					case EMPTY:  A[i][j] = 0; break;
+				}
+			}
+		return A;
+	}
+}
@@ -0,0 +1,355 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.compress;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.lops.MMTSJ.MMTSJType;
+import com.ibm.bi.dml.lops.MapMultChain.ChainType;
+import com.ibm.bi.dml.runtime.compress.CompressedMatrixBlock;
+import com.ibm.bi.dml.runtime.compress.ColGroupOLE;
+import com.ibm.bi.dml.runtime.functionobjects.Multiply;
+import com.ibm.bi.dml.runtime.functionobjects.Plus;
+import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateBinaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Operations over compressed matrix blocks (matrix-vector, vector-matrix, 
+ * mmchain, tsmm, and unary aggregates), compared to the results of the same
+ * operations over the uncompressed input. The inputs mix compressible and 
+ * incompressible columns, i.e., cover encoded and uncompressed column groups.
+ */
+public class CompressedKernelTest extends AutomatedTestBase 
+{
+	private final static int rows = ColGroupOLE.BITMAP_BLOCK_SZ + 4467; //> 1 segment
+	private final static int cols = 8;
+	private final static double sparsity = 0.05;
+	private final static double eps = 1e-8;
+	private final static int k = 4;
+	
+	private enum DataType {
+		DENSE,  //few distinct values, no zeros
+		SPARSE, //few distinct values, mostly zeros
+		RUNS,   //long runs of equal values incl zeros
+	}
+	
+	private enum OpType {
+		MV,     //X %*% v
+		VM,     //t(u) %*% X
+		MMCHAIN,//t(X) %*% (w * (X %*% v))
+		TSMM,   //t(X) %*% X
+		SUM,
+		ROWSUMS,
+		COLSUMS,
+		MIN,
+		MAX,
+		COLMINS,
+		COLMAXS,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testMatrixVectorDense() 
+	{
+		runCompressedKernelTest(OpType.MV, DataType.DENSE);
+	}
+	
+	@Test
+	public void testMatrixVectorSparse() 
+	{
+		runCompressedKernelTest(OpType.MV, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testMatrixVectorRuns() 
+	{
+		runCompressedKernelTest(OpType.MV, DataType.RUNS);
+	}
+	
+	@Test
+	public void testVectorMatrixDense() 
+	{
+		runCompressedKernelTest(OpType.VM, DataType.DENSE);
+	}
+	
+	@Test
+	public void testVectorMatrixSparse() 
+	{
+		runCompressedKernelTest(OpType.VM, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testVectorMatrixRuns() 
+	{
+		runCompressedKernelTest(OpType.VM, DataType.RUNS);
+	}
+	
+	@Test
+	public void testMMChainDense() 
+	{
+		runCompressedKernelTest(OpType.MMCHAIN, DataType.DENSE);
+	}
+	
+	@Test
+	public void testMMChainSparse() 
+	{
+		runCompressedKernelTest(OpType.MMCHAIN, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testTsmmDense() 
+	{
+		runCompressedKernelTest(OpType.TSMM, DataType.DENSE);
+	}
+	
+	@Test
+	public void testTsmmSparse() 
+	{
+		runCompressedKernelTest(OpType.TSMM, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testTsmmRuns() 
+	{
+		runCompressedKernelTest(OpType.TSMM, DataType.RUNS);
+	}
+	
+	@Test
+	public void testSumDense() 
+	{
+		runCompressedKernelTest(OpType.SUM, DataType.DENSE);
+	}
+	
+	@Test
+	public void testSumSparse() 
+	{
+		runCompressedKernelTest(OpType.SUM, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testRowSumsDense() 
+	{
+		runCompressedKernelTest(OpType.ROWSUMS, DataType.DENSE);
+	}
+	
+	@Test
+	public void testRowSumsSparse() 
+	{
+		runCompressedKernelTest(OpType.ROWSUMS, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testRowSumsRuns() 
+	{
+		runCompressedKernelTest(OpType.ROWSUMS, DataType.RUNS);
+	}
+	
+	@Test
+	public void testColSumsDense() 
+	{
+		runCompressedKernelTest(OpType.COLSUMS, DataType.DENSE);
+	}
+	
+	@Test
+	public void testColSumsSparse() 
+	{
+		runCompressedKernelTest(OpType.COLSUMS, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testMinSparse() 
+	{
+		runCompressedKernelTest(OpType.MIN, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testMaxDense() 
+	{
+		runCompressedKernelTest(OpType.MAX, DataType.DENSE);
+	}
+	
+	@Test
+	public void testColMinsSparse() 
+	{
+		runCompressedKernelTest(OpType.COLMINS, DataType.SPARSE);
+	}
+	
+	@Test
+	public void testColMinsRuns() 
+	{
+		runCompressedKernelTest(OpType.COLMINS, DataType.RUNS);
+	}
+	
+	@Test
+	public void testColMaxsDense() 
+	{
+		runCompressedKernelTest(OpType.COLMAXS, DataType.DENSE);
+	}
+	
+	@Test
+	public void testColMaxsRuns() 
+	{
+		runCompressedKernelTest(OpType.COLMAXS, DataType.RUNS);
+	}
+	
+	/**
+	 * 
+	 * @param optype
+	 * @param dtype
+	 */
+	private void runCompressedKernelTest( OpType optype, DataType dtype )
+	{
+		try
+		{
+			//generate and compress input
+			MatrixBlock X = DataConverter.convertToMatrixBlock(generateInput(dtype, 7));
+			MatrixBlock cX = CompressedMatrixBlock.compress(X, k);
+			Assert.assertTrue("Input not compressed: "+cX.getClass().getSimpleName(), 
+					CompressedMatrixBlock.isCompressedBlock(cX));
+			
+			//execute operation over uncompressed and compressed input
+			MatrixBlock ret1 = null, ret2 = null;
+			switch( optype )
+			{
+				case MV: {
+					MatrixBlock v = MatrixBlock.randOperations(cols, 1, 1.0, -1, 1, "uniform", 3);
+					ret1 = (MatrixBlock) X.aggregateBinaryOperations(X, v, new MatrixBlock(), getMatMultOperator(1));
+					ret2 = (MatrixBlock) cX.aggregateBinaryOperations(cX, v, new MatrixBlock(), getMatMultOperator(k));
+					break;
+				}
+				case VM: {
+					MatrixBlock u = MatrixBlock.randOperations(1, rows, 1.0, -1, 1, "uniform", 3);
+					ret1 = (MatrixBlock) u.aggregateBinaryOperations(u, X, new MatrixBlock(), getMatMultOperator(1));
+					ret2 = (MatrixBlock) u.aggregateBinaryOperations(u, cX, new MatrixBlock(), getMatMultOperator(k));
+					break;
+				}
+				case MMCHAIN: {
+					MatrixBlock v = MatrixBlock.randOperations(cols, 1, 1.0, -1, 1, "uniform", 3);
+					MatrixBlock w = MatrixBlock.randOperations(rows, 1, 1.0, 0, 1, "uniform", 5);
+					ret1 = X.chainMatrixMultOperations(v, w, new MatrixBlock(), ChainType.XtwXv, 1);
+					ret2 = cX.chainMatrixMultOperations(v, w, new MatrixBlock(), ChainType.XtwXv, k);
+					MatrixBlock ret3 = X.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, 1);
+					MatrixBlock ret4 = cX.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, k);
+					compareResults(ret3, ret4);
+					break;
+				}
+				case TSMM: {
+					ret1 = X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, 1);
+					ret2 = cX.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, k);
+					break;
+				}
+				default: {
+					AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(getOpcode(optype));
+					ret1 = (MatrixBlock) X.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+					ret2 = (MatrixBlock) cX.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+				}
+			}
+			
+			//compare results
+			compareResults(ret1, ret2);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param ret1
+	 * @param ret2
+	 */
+	private static void compareResults( MatrixBlock ret1, MatrixBlock ret2 )
+	{
+		Assert.assertEquals(ret1.getNumRows(), ret2.getNumRows());
+		Assert.assertEquals(ret1.getNumColumns(), ret2.getNumColumns());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+				DataConverter.convertToDoubleMatrix(ret2), ret1.getNumRows(), ret1.getNumColumns(), eps);
+	}
+	
+	/**
+	 * 
+	 * @param k
+	 * @return
+	 */
+	private static AggregateBinaryOperator getMatMultOperator( int k )
+	{
+		AggregateOperator agg = new AggregateOperator(0, Plus.getPlusFnObject());
+		return new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), agg, k);
+	}
+	
+	/**
+	 * 
+	 * @param optype
+	 * @return
+	 */
+	private static String getOpcode( OpType optype )
+	{
+		switch( optype ) {
+			case SUM:     return "uak+";
+			case ROWSUMS: return "uark+";
+			case COLSUMS: return "uack+";
+			case MIN:     return "uamin";
+			case MAX:     return "uamax";
+			case COLMINS: return "uacmin";
+			case COLMAXS: return "uacmax";
+			default:      throw new RuntimeException("Unsupported aggregate: "+optype);
+		}
+	}
+	
+	/**
+	 * Generates an input where every fourth column is incompressible.
+	 * 
+	 * @param dtype
+	 * @param seed
+	 * @return
+	 */
+	private static double[][] generateInput( DataType dtype, long seed )
+	{
+		Random rand = new Random(seed);
+		double[][] A = new double[rows][cols];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				if( j % 4 == 3 ) {
+					A[i][j] = rand.nextDouble();
+					continue;
+				}
+				switch( dtype ) {
+					case DENSE:  A[i][j] = 1 + rand.nextInt(5); break;
+					case SPARSE: A[i][j] = (rand.nextDouble() < sparsity) ? 1 + rand.nextInt(5) : 0; break;
+					case RUNS:   A[i][j] = (i / 1013 + j) % 4; break;
+				}
+			}
+		return A;
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.util.FastByteTokenizer;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Byte-level double parsing of FastByteTokenizer, which is required to 
+ * produce results identical to Double.parseDouble (incl signed zeros and
+ * errors on invalid inputs), for both the exact fast path and the fallback.
+ */
+public class FastByteTokenizerTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "FastByteTokenizerTest";
+	private final static String TEST_DIR = "functions/io/";
+	
+	private final static String[] EXPONENTS = new String[] {
+		"1e5", "1E5", "1.5e-3", "-2.5E+10", "+7e0", "123456789e-30", "0.001e3",
+		"1e22", "1e23", "1e-22", "1e-23", "9.87654321e15", "1e308", "1e309", 
+		"1.7976931348623157e308", "4.9e-324", "2e-324", "1e-400", "1e99999",
+		".5e1", "5.e1"
+	};
+	
+	private final static String[] LONG_MANTISSAS = new String[] {
+		"123456789012345", "1234567890123456", "12345678901234567", 
+		"9007199254740992", "9007199254740993", "0.1234567890123456789",
+		"3.141592653589793238", "-2.718281828459045235", "0.000000000000000000123456789012345678",
+		"123456789012345678901234567890", "1.00000000000000000000001"
+	};
+	
+	private final static String[] ZEROS = new String[] {
+		"0", "-0", "+0", "0.0", "-0.0", "000.000", "-0e10", "0e-400", "-0.000e+5"
+	};
+	
+	private final static String[] SPECIAL_VALUES = new String[] {
+		"NaN", "Infinity", "-Infinity", "+Infinity", "1.5d", "2f", " 3.5", "7.25 "
+	};
+	
+	private final static String[] INVALID = new String[] {
+		"", "-", "+", ".", "abc", "1.2.3", "1e", "1e+", "1e-", "--1", "1-2", 
+		"e5", "1x", "nan", "inf", "0x1p3x"
+	};
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testParseDoubleExponents() 
+	{
+		runParseDoubleTest(EXPONENTS);
+	}
+	
+	@Test
+	public void testParseDoubleLongMantissas() 
+	{
+		runParseDoubleTest(LONG_MANTISSAS);
+	}
+	
+	@Test
+	public void testParseDoubleZeros() 
+	{
+		runParseDoubleTest(ZEROS);
+	}
+	
+	@Test
+	public void testParseDoubleSpecialValues() 
+	{
+		runParseDoubleTest(SPECIAL_VALUES);
+	}
+	
+	@Test
+	public void testParseDoubleRandom() 
+	{
+		double[][] A = getRandomMatrix(100, 100, -1e6, 1e6, 1.0, 7);
+		String[] tmp = new String[3*A.length*A[0].length];
+		for( int i=0, pos=0; i<A.length; i++ )
+			for( int j=0; j<A[i].length; j++ ) {
+				tmp[pos++] = Double.toString(A[i][j]);
+				tmp[pos++] = Double.toString(A[i][j]/1e10);
+				tmp[pos++] = String.valueOf((long)A[i][j]);
+			}
+		runParseDoubleTest(tmp);
+	}
+	
+	@Test
+	public void testParseDoubleInvalid() 
+	{
+		for( String str : INVALID ) {
+			byte[] buff = str.getBytes();
+			try {
+				FastByteTokenizer.parseDouble(buff, 0, buff.length);
+				Assert.fail("Expected number format exception for \""+str+"\".");
+			}
+			catch(NumberFormatException ex) {
+				//expected (consistent with Double.parseDouble)
+			}
+		}
+	}
+	
+	@Test
+	public void testTokenizeRepeatedDelimiters() 
+	{
+		byte[] buff = "xx 7  -2.5e2   1e400 NaN -0 yy".getBytes();
+		FastByteTokenizer st = new FastByteTokenizer(' ');
+		st.reset(buff, 2, buff.length-2);
+		Assert.assertEquals(7, st.nextInt());
+		Assert.assertEquals(-250, st.nextDouble(), 0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, st.nextDouble(), 0);
+		Assert.assertTrue(Double.isNaN(st.nextDouble()));
+		Assert.assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(st.nextDouble()));
+		Assert.assertFalse(st.hasNext());
+	}
+	
+	/**
+	 * Compares the bit patterns of the parsed values with Double.parseDouble,
+	 * also for inputs embedded into a larger buffer.
+	 * 
+	 * @param strs
+	 */
+	private void runParseDoubleTest( String[] strs )
+	{
+		for( String str : strs ) {
+			long expected = Double.doubleToRawLongBits(Double.parseDouble(str));
+			byte[] buff = str.getBytes();
+			byte[] buff2 = ("9"+str+"9").getBytes();
+			Assert.assertEquals("Wrong result for \""+str+"\".", expected, 
+				Double.doubleToRawLongBits(FastByteTokenizer.parseDouble(buff, 0, buff.length)));
+			Assert.assertEquals("Wrong result for embedded \""+str+"\".", expected, 
+				Double.doubleToRawLongBits(FastByteTokenizer.parseDouble(buff2, 1, buff2.length-1)));
+		}
+	}
+}
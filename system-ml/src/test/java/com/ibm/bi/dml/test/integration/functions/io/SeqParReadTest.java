@@ -196,6 +196,26 @@ public class SeqParReadTest extends AutomatedTestBase {
 	public void testParReadMMDenseBig() {
 		runReadTypeFormatSparsitySizeTest(true, OutputInfo.MatrixMarketOutputInfo, true, true);
 	}
+	
+	@Test
+	public void testSeqReadBinarySparseBig() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.BinaryBlockOutputInfo, false, true);
+	}
+
+	@Test
+	public void testParReadBinarySparseBig() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.BinaryBlockOutputInfo, false, true);
+	}
+	
+	@Test
+	public void testSeqReadBinaryDenseBig() {
+		runReadTypeFormatSparsitySizeTest(false, OutputInfo.BinaryBlockOutputInfo, true, true);
+	}
+
+	@Test
+	public void testParReadBinaryDenseBig() {
+		runReadTypeFormatSparsitySizeTest(true, OutputInfo.BinaryBlockOutputInfo, true, true);
+	}
 
 	/*
 	 * Generate a matrix (big/small dense/sparse) and write it as AX(text/csv/mm/bin) & BX(mm)
@@ -204,7 +224,7 @@ public class SeqParReadTest extends AutomatedTestBase {
 	 * Compare the two results
 	 * 
 	 * @param parallel : Is the read parallel or not(sequential)
-	 * @param fmt : text/csv/mm
+	 * @param fmt : text/csv/mm/binary
 	 * @param dense : Is the matrix dense or not(sparse)
 	 * @param big : Is the matrix big or not(small)
 	 * 
@@ -213,10 +233,19 @@ public class SeqParReadTest extends AutomatedTestBase {
 	private void runReadTypeFormatSparsitySizeTest(boolean parallel, OutputInfo fmt, boolean dense, boolean big ) {
 		
 		boolean oldpar = OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS;
+		boolean oldparbin1 = OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS;
+		boolean oldparbin2 = OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS;
+		boolean oldlocal = OptimizerUtils.ALLOW_LOCAL_FS_IO;
 
 		try
 		{
 			OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS = parallel;
+			OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS = parallel;
+			OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS = parallel;
+			//disable local fs io, otherwise local binary files are routed 
+			//to the local readers/writers instead of the parallel ones
+			if( parallel && fmt == OutputInfo.BinaryBlockOutputInfo )
+				OptimizerUtils.ALLOW_LOCAL_FS_IO = false;
 			
 			TestConfiguration config = getTestConfiguration(TEST_NAME);
 			
@@ -253,7 +282,10 @@ public class SeqParReadTest extends AutomatedTestBase {
 		}
 		finally
 		{
-			OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS = oldpar;		
+			OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS = oldpar;
+			OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS = oldparbin1;
+			OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS = oldparbin2;
+			OptimizerUtils.ALLOW_LOCAL_FS_IO = oldlocal;
 		}
 	}
 	
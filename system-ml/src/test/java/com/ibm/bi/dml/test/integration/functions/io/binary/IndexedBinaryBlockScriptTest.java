@@ -0,0 +1,146 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.parser.DataExpression;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Script-level indexing of indexed binary block inputs (format taken from 
+ * the metadata file) and write of the result via format="binaryblockidx".
+ */
+public class IndexedBinaryBlockScriptTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "IndexedBinaryBlockScriptTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	
+	public static int rows1 = 2746;
+	public static int cols1 = 1586;
+	public static int brlen = 1000;
+	public static int bclen = 1000;
+	
+	//range across block boundaries (1-based, inclusive)
+	public static int rl = 901;
+	public static int ru = 2100;
+	public static int cl = 950;
+	public static int cu = 1050;
+	
+	private final static double eps = 1e-14;
+
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "Y" })   );  
+	}
+	
+	@Test
+	public void testIndexingDenseCP() 
+	{ 
+		runIndexedBinaryBlockScriptTest( 1.0, RUNTIME_PLATFORM.SINGLE_NODE ); 
+	}
+	
+	@Test
+	public void testIndexingSparseCP() 
+	{ 
+		runIndexedBinaryBlockScriptTest( 0.1, RUNTIME_PLATFORM.SINGLE_NODE ); 
+	}
+	
+	@Test
+	public void testIndexingDenseHybrid() 
+	{ 
+		runIndexedBinaryBlockScriptTest( 1.0, RUNTIME_PLATFORM.HYBRID ); 
+	}
+	
+	@Test
+	public void testIndexingSparseHybrid() 
+	{ 
+		runIndexedBinaryBlockScriptTest( 0.1, RUNTIME_PLATFORM.HYBRID ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 * @param platform
+	 */
+	private void runIndexedBinaryBlockScriptTest( double sparsity, RUNTIME_PLATFORM platform ) 
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		
+		try
+		{	
+			rtplatform = platform;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", HOME + INPUT_DIR + "X", Integer.toString(rl), 
+				Integer.toString(ru), Integer.toString(cl), Integer.toString(cu), HOME + OUTPUT_DIR + "Y" };
+			
+			loadTestConfiguration(config);
+	
+			//write indexed binary block input and meta data
+			double[][] X = getRandomMatrix(rows1, cols1, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows1, cols1, brlen, bclen, mb.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mb, HOME + INPUT_DIR + "X", OutputInfo.BinaryBlockIndexedOutputInfo, mc);
+			MapReduceTool.writeMetaDataFile(HOME + INPUT_DIR + "X.mtd", ValueType.DOUBLE, mc, OutputInfo.BinaryBlockIndexedOutputInfo);
+			
+			runTest(true, false, null, -1); 
+			
+			//check output format in meta data
+			String mtd = MapReduceTool.readStringFromHDFSFile(HOME + OUTPUT_DIR + "Y.mtd");
+			Assert.assertTrue("Wrong output format: "+mtd, 
+				mtd.contains("\""+DataExpression.FORMAT_TYPE_VALUE_BINARY_INDEXED+"\""));
+			
+			//compare indexing result 
+			int rows = ru-rl+1, cols = cu-cl+1;
+			MatrixBlock mb2 = DataConverter.readMatrixFromHDFS(HOME + OUTPUT_DIR + "Y", 
+				InputInfo.BinaryBlockIndexedInputInfo, rows, cols, brlen, bclen);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+				{
+					double val1 = mb.quickGetValue(rl-1+i, cl-1+j);
+					double val2 = mb2.quickGetValue(i, j);
+					Assert.assertEquals(val1, val2, eps);
+				}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+}
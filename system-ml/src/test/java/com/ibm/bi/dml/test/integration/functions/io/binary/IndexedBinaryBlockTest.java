@@ -0,0 +1,143 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.io.ReaderBinaryBlockIndexed;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.IndexRange;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Roundtrip of the indexed binary block format, including metadata from the
+ * index footer and range reads of partially overlapping blocks.
+ */
+public class IndexedBinaryBlockTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "IndexedBinaryBlockTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	
+	public static int rows1 = 2746;
+	public static int cols1 = 1586;
+	public static int brlen = 1000;
+	public static int bclen = 1000;
+	
+	private final static double eps = 1e-14;
+
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "X" })   );  
+	}
+	
+	@Test
+	public void testEmptyMatrix() 
+	{ 
+		runIndexedBinaryBlockTest( rows1, cols1, 0.0 ); 
+	}
+	
+	@Test
+	public void testDenseMatrix() 
+	{ 
+		runIndexedBinaryBlockTest( rows1, cols1, 1.0 ); 
+	}
+	
+	@Test
+	public void testSparseMatrix() 
+	{ 
+		runIndexedBinaryBlockTest( rows1, cols1, 0.1 ); 
+	}
+	
+	@Test
+	public void testUltraSparseMatrix() 
+	{ 
+		runIndexedBinaryBlockTest( rows1, cols1, 0.0001 ); 
+	}
+
+	/**
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 */
+	private void runIndexedBinaryBlockTest( int rows, int cols, double sparsity ) 
+	{
+		try
+		{	
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			String fname = SCRIPT_DIR + TEST_DIR + INPUT_DIR + "X";
+	
+			//write indexed binary block file 
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, brlen, bclen);
+			DataConverter.writeMatrixToHDFS(mb, fname, OutputInfo.BinaryBlockIndexedOutputInfo, mc);
+			
+			//check meta data from index (w/o scan)
+			MatrixCharacteristics mc2 = ReaderBinaryBlockIndexed.readMatrixCharacteristics(fname);
+			Assert.assertEquals(rows, mc2.getRows());
+			Assert.assertEquals(cols, mc2.getCols());
+			Assert.assertEquals(mb.getNonZeros(), mc2.getNonZeros());
+			
+			//compare full matrix
+			MatrixBlock mb2 = DataConverter.readMatrixFromHDFS(fname, InputInfo.BinaryBlockIndexedInputInfo, rows, cols, brlen, bclen);
+			compareMatrices(mb, mb2, 0, 0);
+			
+			//compare range across block boundaries (1-based, inclusive)
+			IndexRange ixrange = new IndexRange(901, 2100, 950, 1050);
+			MatrixBlock mb3 = new ReaderBinaryBlockIndexed()
+				.readMatrixRangeFromHDFS(fname, ixrange, rows, cols, brlen, bclen);
+			Assert.assertEquals(1200, mb3.getNumRows());
+			Assert.assertEquals(101, mb3.getNumColumns());
+			compareMatrices(mb, mb3, 900, 949);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param slice
+	 * @param rl
+	 * @param cl
+	 */
+	private void compareMatrices( MatrixBlock mb, MatrixBlock slice, int rl, int cl )
+	{
+		for( int i=0; i<slice.getNumRows(); i++ )
+			for( int j=0; j<slice.getNumColumns(); j++ )
+			{
+				double val1 = mb.quickGetValue(rl+i, cl+j);
+				double val2 = slice.quickGetValue(i, j);
+				Assert.assertEquals(val1, val2, eps);
+			}
+	}
+}
@@ -0,0 +1,209 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.io.File;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.io.LocalSequenceFile;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Compatibility of local sequence files with hadoop sequence files, i.e., 
+ * files written via LocalSequenceFile.Writer are read via SequenceFile.Reader
+ * and vice versa. The number of blocks ensures multiple sync markers.
+ */
+public class LocalSequenceFileTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "LocalSequenceFileTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	
+	private final static int blen = 100;
+	private final static int numRowBlocks = 4;
+	private final static int numColBlocks = 3;
+	
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testLocalWriteHadoopReadDense() 
+	{
+		runLocalSequenceFileTest(true, false, false);
+	}
+	
+	@Test
+	public void testLocalWriteHadoopReadSparse() 
+	{
+		runLocalSequenceFileTest(true, true, false);
+	}
+	
+	@Test
+	public void testHadoopWriteLocalReadDense() 
+	{
+		runLocalSequenceFileTest(false, false, false);
+	}
+	
+	@Test
+	public void testHadoopWriteLocalReadSparse() 
+	{
+		runLocalSequenceFileTest(false, true, false);
+	}
+	
+	@Test
+	public void testHadoopWriteLocalReadDenseMMap() 
+	{
+		runLocalSequenceFileTest(false, false, true);
+	}
+	
+	@Test
+	public void testHadoopWriteLocalReadSparseMMap() 
+	{
+		runLocalSequenceFileTest(false, true, true);
+	}
+	
+	/**
+	 * 
+	 * @param localWrite write via local writer (and read via hadoop reader), or vice versa
+	 * @param sparse
+	 * @param mmap
+	 */
+	private void runLocalSequenceFileTest( boolean localWrite, boolean sparse, boolean mmap )
+	{
+		boolean oldMMap = OptimizerUtils.ALLOW_LOCAL_FS_MMAP;
+		
+		try
+		{
+			OptimizerUtils.ALLOW_LOCAL_FS_MMAP = mmap;
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			File file = new File(getCurLocalTempDir(), "X");
+			
+			//generate input blocks (incl an empty block)
+			double[][][] A = new double[numRowBlocks*numColBlocks][][];
+			for( int i=0; i<A.length; i++ )
+				A[i] = getRandomMatrix(blen, blen-i, 0, 1, 
+					(i==1) ? 0 : sparse ? sparsity2 : sparsity1, i+7); 
+			
+			//write sequence file
+			JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+			FileSystem fs = FileSystem.getLocal(job);
+			Path path = new Path(file.getAbsolutePath());
+			if( localWrite ) {
+				LocalSequenceFile.Writer writer = new LocalSequenceFile.Writer(file);
+				try {
+					for( int i=0; i<A.length; i++ )
+						writer.append(getIndexes(i), DataConverter.convertToMatrixBlock(A[i]));
+				}
+				finally {
+					writer.close();
+				}
+			}
+			else {
+				SequenceFile.Writer writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
+				try {
+					for( int i=0; i<A.length; i++ )
+						writer.append(getIndexes(i), DataConverter.convertToMatrixBlock(A[i]));
+				}
+				finally {
+					writer.close();
+				}
+			}
+			
+			//read sequence file and compare blocks
+			int count = 0;
+			MatrixIndexes key = new MatrixIndexes();
+			MatrixBlock value = new MatrixBlock();
+			if( localWrite ) {
+				SequenceFile.Reader reader = new SequenceFile.Reader(fs, path, job);
+				try {
+					while( reader.next(key, value) )
+						checkBlock(A, count++, key, value);
+				}
+				finally {
+					reader.close();
+				}
+			}
+			else {
+				LocalSequenceFile.Reader reader = new LocalSequenceFile.Reader(file);
+				try {
+					Assert.assertTrue("Unsupported sequence file.", reader.isSupported());
+					while( reader.next(key, value) )
+						checkBlock(A, count++, key, value);
+				}
+				finally {
+					reader.close();
+				}
+			}
+			Assert.assertEquals(A.length, count);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			OptimizerUtils.ALLOW_LOCAL_FS_MMAP = oldMMap;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param i
+	 * @return
+	 */
+	private static MatrixIndexes getIndexes( int i )
+	{
+		return new MatrixIndexes(i / numColBlocks + 1, i % numColBlocks + 1);
+	}
+	
+	/**
+	 * 
+	 * @param A
+	 * @param i
+	 * @param key
+	 * @param value
+	 */
+	private static void checkBlock( double[][][] A, int i, MatrixIndexes key, MatrixBlock value )
+	{
+		Assert.assertTrue("Too many blocks.", i < A.length);
+		Assert.assertEquals(getIndexes(i), key);
+		Assert.assertEquals(A[i].length, value.getNumRows());
+		Assert.assertEquals(A[i][0].length, value.getNumColumns());
+		double[][] C = DataConverter.convertToDoubleMatrix(value);
+		TestUtils.compareMatrices(A[i], C, A[i].length, A[i][0].length, 0);
+	}
+}
@@ -0,0 +1,215 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.parser.DataExpression;
+import com.ibm.bi.dml.runtime.io.CSVByteParser;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Byte-level parsing of CSV rows via CSVByteParser, incl multi-character
+ * delimiters, quoted cells with delimiters, NA strings, as well as leading, 
+ * inner, and trailing empty cells (replaced by the fill value).
+ */
+public class CSVByteParserTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CSVByteParserTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	
+	private final static double fill = -7;
+	private final static String naStrings = "NA" + DataExpression.DELIM_NA_STRING_SEP 
+		+ " null " + DataExpression.DELIM_NA_STRING_SEP + "N,A";
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testSingleCharDelimiter() 
+	{
+		runParseRowTest(",", " 1,2.5 , -3e2,4 ", new double[]{1, 2.5, -300, 4}, false);
+	}
+	
+	@Test
+	public void testMultiCharDelimiter() 
+	{
+		runParseRowTest("||", "1||2.5|| -3e2 ||4", new double[]{1, 2.5, -300, 4}, false);
+	}
+	
+	@Test
+	public void testMultiCharDelimiterTrailingEmpty() 
+	{
+		runParseRowTest("<=>", "1<=>2<=><=>", new double[]{1, 2, fill, fill}, true);
+	}
+	
+	@Test
+	public void testMultiCharDelimiterPartialMatch() 
+	{
+		runParseRowTest("::", "1::2:::3", new double[]{1, 2, Double.NaN}, false);
+	}
+	
+	@Test
+	public void testQuotedCells() 
+	{
+		runParseRowTest(",", "\"1\", \" 2.5 \" ,3", new double[]{1, 2.5, 3}, false);
+	}
+	
+	@Test
+	public void testQuotedDelimiters() 
+	{
+		runParseRowTest(",", "1,\"N,A\",\"3\",\"\"", new double[]{1, fill, 3, fill}, true);
+	}
+	
+	@Test
+	public void testQuotedMultiCharDelimiters() 
+	{
+		runParseRowTest("||", "\"N,A\"||\"NA\"||\"5\"", new double[]{fill, fill, 5}, true);
+	}
+	
+	@Test
+	public void testNAStrings() 
+	{
+		runParseRowTest(",", "NA,1, null ,null,2", new double[]{fill, 1, fill, fill, 2}, true);
+	}
+	
+	@Test
+	public void testNAStringsPrefix() 
+	{
+		runParseRowTest(",", "NAN,1", new double[]{Double.NaN, 1}, false);
+	}
+	
+	@Test
+	public void testEmptyCells() 
+	{
+		runParseRowTest(",", ",1,,2,", new double[]{fill, 1, fill, 2, fill}, true);
+	}
+	
+	@Test
+	public void testTrailingEmptyCells() 
+	{
+		runParseRowTest(",", "1,2,,  \r", new double[]{1, 2, fill, fill}, true);
+	}
+	
+	@Test
+	public void testEmptyRow() 
+	{
+		runParseRowTest(",", "  \t ", new double[]{}, false);
+	}
+	
+	@Test
+	public void testCountCellsOnly() 
+	{
+		CSVByteParser parser = new CSVByteParser(",", fill, naStrings);
+		byte[] buff = "1,\"2,3\",,4,".getBytes();
+		Assert.assertEquals(5, parser.parseRow(buff, 0, buff.length, new double[0], 0, 0));
+		double[] out = new double[1]; //quoted cell "2,3" not parsed
+		Assert.assertEquals(5, parser.parseRow(buff, 0, buff.length, out));
+		Assert.assertEquals(1, out[0], 0);
+	}
+	
+	@Test
+	public void testParseIntoMatrixBlockDense() 
+	{
+		runParseMatrixBlockTest(false);
+	}
+	
+	@Test
+	public void testParseIntoMatrixBlockSparse() 
+	{
+		runParseMatrixBlockTest(true);
+	}
+	
+	/**
+	 * Parses the given row (embedded into a larger buffer), and compares the 
+	 * number of cells, parsed values (NaN for invalid numbers), and empty flag.
+	 * 
+	 * @param delim
+	 * @param row
+	 * @param expected
+	 * @param emptyFound
+	 */
+	private void runParseRowTest( String delim, String row, double[] expected, boolean emptyFound )
+	{
+		CSVByteParser parser = new CSVByteParser(delim, fill, naStrings);
+		byte[] buff = ("xx" + row + "\nyy").getBytes();
+		double[] out = new double[expected.length + 2];
+		
+		int ncol = -1;
+		try {
+			ncol = parser.parseRow(buff, 2, buff.length-3, out);
+		}
+		catch(NumberFormatException ex) {
+			//expected for invalid numbers
+			boolean invalid = false;
+			for( double val : expected )
+				invalid |= Double.isNaN(val);
+			Assert.assertTrue("Unexpected number format exception: "+ex.getMessage(), invalid);
+			return;
+		}
+		
+		Assert.assertEquals(expected.length, ncol);
+		for( int i=0; i<expected.length; i++ )
+			Assert.assertEquals("Wrong value in cell "+i+".", expected[i], out[i], 0);
+		Assert.assertEquals(emptyFound, parser.isEmptyFound());
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 */
+	private void runParseMatrixBlockTest( boolean sparse )
+	{
+		String[] rows = new String[] {"1,0,\"2\",NA", ",,,", "0,0,0,3.5"};
+		double[][] expected = new double[][] {{1, 0, 2, fill}, {fill, fill, fill, fill}, {0, 0, 0, 3.5}};
+		
+		try
+		{
+			CSVByteParser parser = new CSVByteParser(",", fill, naStrings);
+			MatrixBlock mb = new MatrixBlock(rows.length, 4, sparse);
+			if( sparse )
+				mb.allocateSparseRowsBlock();
+			else
+				mb.allocateDenseBlock();
+			for( int i=0; i<rows.length; i++ ) {
+				byte[] buff = rows[i].getBytes();
+				Assert.assertEquals(4, parser.parseRow(buff, 0, buff.length, mb, i));
+			}
+			mb.recomputeNonZeros();
+			
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			for( int i=0; i<rows.length; i++ )
+				for( int j=0; j<4; j++ )
+					Assert.assertEquals(expected[i][j], mb.quickGetValue(i, j), 0);
+			Assert.assertEquals(8, mb.getNonZeros());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+}
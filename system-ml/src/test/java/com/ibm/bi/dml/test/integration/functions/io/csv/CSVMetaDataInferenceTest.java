@@ -0,0 +1,131 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.parser.DataExpression;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference;
+import com.ibm.bi.dml.runtime.io.CSVMetaDataInference.CSVMetaData;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.data.CSVFileFormatProperties;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Inference of unknown csv dimensions, incl the cached meta data 
+ * in existing metadata files.
+ */
+public class CSVMetaDataInferenceTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CSVMetaDataInferenceTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	
+	private final static int rows = 3471;
+	private final static int cols = 37;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "X" })   );  
+	}
+	
+	@Test
+	public void testInferenceDenseNoHeader() 
+	{ 
+		runCSVMetaDataInferenceTest( 0.9, false ); 
+	}
+	
+	@Test
+	public void testInferenceDenseHeader() 
+	{ 
+		runCSVMetaDataInferenceTest( 0.9, true ); 
+	}
+	
+	@Test
+	public void testInferenceSparseNoHeader() 
+	{ 
+		runCSVMetaDataInferenceTest( 0.1, false ); 
+	}
+	
+	@Test
+	public void testInferenceSparseHeader() 
+	{ 
+		runCSVMetaDataInferenceTest( 0.1, true ); 
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param header
+	 */
+	private void runCSVMetaDataInferenceTest( double sparsity, boolean header ) 
+	{
+		try
+		{	
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			String fname = SCRIPT_DIR + TEST_DIR + INPUT_DIR + "X";
+			
+			//write csv input and metadata file w/ unknown dimensions
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1);
+			CSVFileFormatProperties fprop = new CSVFileFormatProperties(header, ",", false);
+			DataConverter.writeMatrixToHDFS(mb, fname, OutputInfo.CSVOutputInfo, mc, -1, fprop);
+			mc.set(-1, -1, -1, -1);
+			MapReduceTool.writeMetaDataFile(fname + ".mtd", ValueType.DOUBLE, mc, OutputInfo.CSVOutputInfo, fprop);
+			
+			//infer meta data via parallel count
+			CSVMetaDataInference.clearCache();
+			CSVMetaData md = CSVMetaDataInference.inferMetaData(fname, header, ",", null);
+			Assert.assertNotNull(md);
+			Assert.assertEquals(rows, md.getRows());
+			Assert.assertEquals(cols, md.getCols());
+			Assert.assertEquals(sparsity, md.getSparsity(), 0.1);
+			
+			//check cached meta data in metadata file
+			String mtd = MapReduceTool.readStringFromHDFSFile(fname + ".mtd");
+			Assert.assertTrue(mtd.contains(DataExpression.INFERREDPARAM));
+			CSVMetaDataInference.clearCache();
+			CSVMetaData md2 = CSVMetaDataInference.inferMetaData(fname, header, ",", null);
+			Assert.assertEquals(rows, md2.getRows());
+			Assert.assertEquals(cols, md2.getCols());
+			
+			//check outdated meta data after modification
+			double[][] X2 = getRandomMatrix(rows+7, cols, -1.0, 1.0, sparsity, 3); 
+			DataConverter.writeMatrixToHDFS(DataConverter.convertToMatrixBlock(X2), 
+					fname, OutputInfo.CSVOutputInfo, new MatrixCharacteristics(rows+7, cols, -1, -1), -1, fprop);
+			CSVMetaData md3 = CSVMetaDataInference.inferMetaData(fname, header, ",", null);
+			Assert.assertEquals(rows+7, md3.getRows());
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+}
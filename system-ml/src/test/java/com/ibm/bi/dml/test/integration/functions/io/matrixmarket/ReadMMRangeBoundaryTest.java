@@ -0,0 +1,220 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.matrixmarket;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader;
+import com.ibm.bi.dml.runtime.io.ByteRangeLineReader.FileRange;
+import com.ibm.bi.dml.runtime.io.ReaderMatrixMarketParallel;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Parallel MatrixMarket read with byte range boundaries at controlled offsets
+ * within lines. The data lines have a fixed length, except for additional 
+ * leading whitespace of the first data line, which shifts the boundary of two
+ * ranges to the start of a line, right after the start of a line, the middle 
+ * of a line, or the line feed. Every cell is required to be read exactly once.
+ */
+public class ReadMMRangeBoundaryTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "ReadMMRangeBoundaryTest";
+	private final static String TEST_DIR = "functions/io/matrixmarket/";
+	
+	//fixed line length: 6 + 1 + 6 + 1 + 8 + '\n'
+	private final static int lineLength = 23;
+	
+	//dense (all cells) and sparse (one cell per row), both w/ even number 
+	//of cells and data sections larger than three min byte ranges (64KB)
+	private final static int rowsDense = 100;
+	private final static int colsDense = 100;
+	private final static int rowsSparse = 12000;
+	private final static int colsSparse = 1000;
+	private final static long minRangeSize = 64L * 1024;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testBoundaryLineStartDense() 
+	{
+		runRangeBoundaryTest(false, 2, 0);
+	}
+	
+	@Test
+	public void testBoundaryAfterLineStartDense() 
+	{
+		runRangeBoundaryTest(false, 2, 1);
+	}
+	
+	@Test
+	public void testBoundaryMidLineDense() 
+	{
+		runRangeBoundaryTest(false, 2, lineLength/2);
+	}
+	
+	@Test
+	public void testBoundaryLineFeedDense() 
+	{
+		runRangeBoundaryTest(false, 2, lineLength-1);
+	}
+	
+	@Test
+	public void testBoundaryLineStartSparse() 
+	{
+		runRangeBoundaryTest(true, 2, 0);
+	}
+	
+	@Test
+	public void testBoundaryAfterLineStartSparse() 
+	{
+		runRangeBoundaryTest(true, 2, 1);
+	}
+	
+	@Test
+	public void testBoundaryMidLineSparse() 
+	{
+		runRangeBoundaryTest(true, 2, lineLength/2);
+	}
+	
+	@Test
+	public void testBoundaryLineFeedSparse() 
+	{
+		runRangeBoundaryTest(true, 2, lineLength-1);
+	}
+	
+	@Test
+	public void testBoundariesThreeRangesDense() 
+	{
+		runRangeBoundaryTest(false, 3, -1);
+	}
+	
+	@Test
+	public void testBoundariesThreeRangesSparse() 
+	{
+		runRangeBoundaryTest(true, 3, -1);
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param numThreads
+	 * @param offset offset of the boundary within a line (only for two threads)
+	 */
+	private void runRangeBoundaryTest( boolean sparse, int numThreads, int offset )
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			String fname = getCurLocalTempDir().getPath() + "/X.mtx";
+			int rows = sparse ? rowsSparse : rowsDense;
+			int cols = sparse ? colsSparse : colsDense;
+			int ncells = sparse ? rowsSparse : rowsDense * colsDense;
+			
+			//additional leading whitespace of first data line to shift 
+			//the range boundary (boundary offset is -pad/2 mod line length)
+			int pad = (offset >= 0) ? 2 * ((lineLength - offset) % lineLength) : 0;
+			
+			//write matrix market file w/ fixed line length
+			String header = "%%MatrixMarket matrix coordinate real general\n" 
+				+ "% comment\n" + rows + " " + cols + " " + ncells + "\n";
+			double[][] cells = new double[ncells][];
+			BufferedWriter bw = new BufferedWriter(new FileWriter(fname));
+			try {
+				bw.write(header);
+				for( int k=0; k<ncells; k++ ) {
+					int i = sparse ? k : k / cols;
+					int j = sparse ? (k * 7) % cols : k % cols;
+					String val = "0." + leftPad(String.valueOf(1 + (k*7919) % 999999), 6, '0');
+					cells[k] = new double[]{i, j, Double.parseDouble(val)};
+					bw.write(leftPad(String.valueOf(i+1), (k==0 ? pad : 0) + 6, ' '));
+					bw.write(" " + leftPad(String.valueOf(j+1), 6, ' ') + " " + val + "\n");
+				}
+			}
+			finally {
+				bw.close();
+			}
+			
+			//check boundary offset within line
+			long start = header.length();
+			long len = new File(fname).length();
+			Assert.assertEquals(start + (long)ncells*lineLength + pad, len);
+			ArrayList<FileRange> ranges = ByteRangeLineReader.createFileRanges(
+				new Path(fname), start, len, numThreads, minRangeSize);
+			Assert.assertEquals(numThreads, ranges.size());
+			if( offset >= 0 ) {
+				//all but the first data line start at start+pad+k*lineLength
+				long boundary = ranges.get(1).start - start - pad;
+				Assert.assertEquals(offset, boundary % lineLength);
+			}
+			
+			//read matrix market file w/ given number of byte ranges
+			MatrixBlock mb = new TestReader(numThreads)
+				.readMatrixFromHDFS(fname, rows, cols, 1000, 1000, ncells);
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			Assert.assertEquals(ncells, mb.getNonZeros());
+			for( double[] cell : cells )
+				Assert.assertEquals(cell[2], mb.quickGetValue((int)cell[0], (int)cell[1]), 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param str
+	 * @param width
+	 * @param c
+	 * @return
+	 */
+	private static String leftPad( String str, int width, char c )
+	{
+		StringBuilder sb = new StringBuilder();
+		for( int i=str.length(); i<width; i++ )
+			sb.append(c);
+		sb.append(str);
+		return sb.toString();
+	}
+	
+	/**
+	 * Parallel reader w/ fixed number of threads (i.e., byte ranges).
+	 */
+	private static class TestReader extends ReaderMatrixMarketParallel
+	{
+		public TestReader( int numThreads ) {
+			_numThreads = numThreads;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Task execution, nested invocations, and parallelism constraints of
+ * the shared compute thread pool.
+ */
+public class ComputeThreadPoolTest extends AutomatedTestBase 
+{
+	private final static int numTasks = 64;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testInvokeAllSingleTask() 
+	{
+		runInvokeAllTest(1, false);
+	}
+	
+	@Test
+	public void testInvokeAllMultipleTasks() 
+	{
+		runInvokeAllTest(numTasks, false);
+	}
+	
+	@Test
+	public void testInvokeAllNestedTasks() 
+	{
+		runInvokeAllTest(numTasks, true);
+	}
+	
+	@Test
+	public void testNestedParallelismConstraint() 
+	{
+		int k = ComputeThreadPool.getPoolSize();
+		Assert.assertEquals(2*k, ComputeThreadPool.getMaxParallelism(2*k));
+		
+		try {
+			//parfor workers constrain the remaining parallelism per operation
+			ComputeThreadPool.beginNestedParallelism(2*k);
+			Assert.assertEquals(1, ComputeThreadPool.getMaxParallelism(2*k));
+		}
+		finally {
+			ComputeThreadPool.endNestedParallelism(2*k);
+		}
+		
+		Assert.assertEquals(2*k, ComputeThreadPool.getMaxParallelism(2*k));
+	}
+	
+	/**
+	 * 
+	 * @param num
+	 * @param nested
+	 */
+	private void runInvokeAllTest( int num, boolean nested )
+	{
+		try
+		{
+			ComputeThreadPool.resetStatistics();
+			
+			//create tasks (nested tasks invoke another set of tasks)
+			ArrayList<SumTask> tasks = new ArrayList<SumTask>();
+			for( int i=0; i<num; i++ )
+				tasks.add(new SumTask(i*1000, (i+1)*1000, nested));
+			List<Future<Long>> rtasks = ComputeThreadPool.invokeAll(tasks);
+			
+			//check results in order of tasks
+			Assert.assertEquals(num, rtasks.size());
+			for( int i=0; i<num; i++ ) {
+				long from = i*1000, to = (i+1)*1000;
+				Assert.assertEquals((to*(to-1)-from*(from-1))/2, (long)rtasks.get(i).get());
+			}
+			
+			//check statistics (nested invocations are executed inline)
+			Assert.assertEquals(nested ? num+1 : 1, ComputeThreadPool.getNumInvocations());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Computes the sum of all values in [from, to), optionally
+	 * via nested tasks over the two halves of the range.
+	 */
+	private static class SumTask implements Callable<Long>
+	{
+		private long _from = -1;
+		private long _to = -1;
+		private boolean _nested = false;
+		
+		protected SumTask( long from, long to, boolean nested ) {
+			_from = from;
+			_to = to;
+			_nested = nested;
+		}
+		
+		@Override
+		public Long call() 
+			throws Exception 
+		{
+			if( _nested ) {
+				long mid = (_from + _to) / 2;
+				ArrayList<SumTask> tasks = new ArrayList<SumTask>();
+				tasks.add(new SumTask(_from, mid, false));
+				tasks.add(new SumTask(mid, _to, false));
+				long ret = 0;
+				for( Future<Long> task : ComputeThreadPool.invokeAll(tasks) )
+					ret += task.get();
+				return ret;
+			}
+			
+			long ret = 0;
+			for( long i=_from; i<_to; i++ )
+				ret += i;
+			return ret;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.misc;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.lops.FusedCellwise;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+import com.ibm.bi.dml.utils.Statistics;
+
+/**
+ *
+ *
+ */
+public class FusedCellwiseTest extends AutomatedTestBase
+{
+
+	private final static String TEST_NAME1 = "FusedCellwiseP1"; //X*(Y-2)+exp(X)
+	private final static String TEST_NAME2 = "FusedCellwiseP2"; //X*abs(Y-1)*3 (sparse-safe)
+	private final static String TEST_NAME3 = "FusedCellwiseP3"; //rowSums(X*(Y+1))
+	private final static String TEST_NAME4 = "FusedCellwiseP4"; //colSums(sqrt(X)*Y+X)
+	private final static String TEST_NAME5 = "FusedCellwiseP5"; //sum(X*log(Y+1))
+
+	private final static String TEST_DIR = "functions/misc/";
+
+	private final static double eps = 1e-8;
+
+	private final static int rows = 1201;
+	private final static int cols = 1103;
+	private final static double spSparse = 0.05;
+	private final static double spDense = 0.7;
+
+	@Override
+	public void setUp()
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1,new TestConfiguration(TEST_DIR, TEST_NAME1,new String[]{"R"}));
+		addTestConfiguration(TEST_NAME2,new TestConfiguration(TEST_DIR, TEST_NAME2,new String[]{"R"}));
+		addTestConfiguration(TEST_NAME3,new TestConfiguration(TEST_DIR, TEST_NAME3,new String[]{"R"}));
+		addTestConfiguration(TEST_NAME4,new TestConfiguration(TEST_DIR, TEST_NAME4,new String[]{"R"}));
+		addTestConfiguration(TEST_NAME5,new TestConfiguration(TEST_DIR, TEST_NAME5,new String[]{"R"}));
+	}
+
+	@Test
+	public void testFusedCellwiseDenseP1() {
+		runFusedCellwiseTest(TEST_NAME1, false, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP1() {
+		runFusedCellwiseTest(TEST_NAME1, true, true);
+	}
+
+	@Test
+	public void testFusedCellwiseDenseP2() {
+		runFusedCellwiseTest(TEST_NAME2, false, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP2() {
+		runFusedCellwiseTest(TEST_NAME2, true, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP2NoFusion() {
+		runFusedCellwiseTest(TEST_NAME2, true, false);
+	}
+
+	@Test
+	public void testFusedCellwiseDenseP3() {
+		runFusedCellwiseTest(TEST_NAME3, false, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP3() {
+		runFusedCellwiseTest(TEST_NAME3, true, true);
+	}
+
+	@Test
+	public void testFusedCellwiseDenseP4() {
+		runFusedCellwiseTest(TEST_NAME4, false, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP4() {
+		runFusedCellwiseTest(TEST_NAME4, true, true);
+	}
+
+	@Test
+	public void testFusedCellwiseDenseP5() {
+		runFusedCellwiseTest(TEST_NAME5, false, true);
+	}
+
+	@Test
+	public void testFusedCellwiseSparseP5() {
+		runFusedCellwiseTest(TEST_NAME5, true, true);
+	}
+
+	/**
+	 *
+	 * @param testname
+	 * @param sparse
+	 * @param fusion
+	 */
+	private void runFusedCellwiseTest( String testname, boolean sparse, boolean fusion )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		boolean fusionOld = OptimizerUtils.ALLOW_CELLWISE_FUSION;
+
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+		OptimizerUtils.ALLOW_CELLWISE_FUSION = fusion;
+
+		try
+		{
+			double sparsity = (sparse) ? spSparse : spDense;
+			String TEST_NAME = testname;
+
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-stats", "-explain", "-args",
+					                        HOME + INPUT_DIR + "X",
+					                        HOME + INPUT_DIR + "Y",
+					                        HOME + OUTPUT_DIR + "R"    };
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " +
+			       HOME + INPUT_DIR + " " + HOME + EXPECTED_DIR;
+
+			loadTestConfiguration(config);
+
+			//generate actual dataset (non-negative for sqrt/log)
+			double[][] X = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, true);
+			double[][] Y = getRandomMatrix(rows, cols, 0, 1, spDense, 3);
+			writeInputMatrixWithMTD("Y", Y, true);
+
+			runTest(true, false, null, -1);
+			runRScript(true);
+
+			//compare matrices
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("R");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+
+			//check statistics for fused operator
+			Assert.assertEquals(fusion, Statistics.getCPHeavyHitterOpCodes().contains(FusedCellwise.OPCODE));
+		}
+		finally
+		{
+			rtplatform = platformOld;
+			OptimizerUtils.ALLOW_CELLWISE_FUSION = fusionOld;
+		}
+	}
+}
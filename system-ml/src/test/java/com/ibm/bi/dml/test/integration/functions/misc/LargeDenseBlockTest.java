@@ -0,0 +1,281 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.lops.MMTSJ.MMTSJType;
+import com.ibm.bi.dml.lops.MapMultChain.ChainType;
+import com.ibm.bi.dml.runtime.functionobjects.Multiply;
+import com.ibm.bi.dml.runtime.functionobjects.Plus;
+import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.data.DenseBlockLarge;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixReorg;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateBinaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
+import com.ibm.bi.dml.runtime.matrix.operators.RightScalarOperator;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Operations over segmented dense blocks (beyond 2^31-1 cells), compared to
+ * the results over linearized dense blocks. In order to cover segmented blocks
+ * with many segments at small sizes, the tests reduce the maximum size of 
+ * linearized dense blocks and the segment size.
+ */
+public class LargeDenseBlockTest extends AutomatedTestBase 
+{
+	private final static int rows = 311;
+	private final static int cols = 7;
+	private final static int rowsWide = 23;
+	private final static int colsWide = 211;
+	private final static long maxDenseSize = 1000; //cells
+	private final static int maxSegmentSize = 300; //cells
+	private final static double eps = 1e-10;
+	
+	private enum OpType {
+		SERIALIZE,
+		SLICE,
+		SCALAR,
+		TRANSPOSE,
+		MV,
+		VM,
+		MMCHAIN,
+		TSMM_LEFT,
+		TSMM_RIGHT,
+		SUM,
+		ROWSUMS,
+		COLSUMS,
+		MIN,
+		MAX,
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testSerialize() 
+	{
+		runLargeDenseBlockTest(OpType.SERIALIZE);
+	}
+	
+	@Test
+	public void testSlice() 
+	{
+		runLargeDenseBlockTest(OpType.SLICE);
+	}
+	
+	@Test
+	public void testScalar() 
+	{
+		runLargeDenseBlockTest(OpType.SCALAR);
+	}
+	
+	@Test
+	public void testTranspose() 
+	{
+		runLargeDenseBlockTest(OpType.TRANSPOSE);
+	}
+	
+	@Test
+	public void testMatrixVector() 
+	{
+		runLargeDenseBlockTest(OpType.MV);
+	}
+	
+	@Test
+	public void testVectorMatrix() 
+	{
+		runLargeDenseBlockTest(OpType.VM);
+	}
+	
+	@Test
+	public void testMMChain() 
+	{
+		runLargeDenseBlockTest(OpType.MMCHAIN);
+	}
+	
+	@Test
+	public void testTsmmLeft() 
+	{
+		runLargeDenseBlockTest(OpType.TSMM_LEFT);
+	}
+	
+	@Test
+	public void testTsmmRight() 
+	{
+		runLargeDenseBlockTest(OpType.TSMM_RIGHT);
+	}
+	
+	@Test
+	public void testSum() 
+	{
+		runLargeDenseBlockTest(OpType.SUM);
+	}
+	
+	@Test
+	public void testRowSums() 
+	{
+		runLargeDenseBlockTest(OpType.ROWSUMS);
+	}
+	
+	@Test
+	public void testColSums() 
+	{
+		runLargeDenseBlockTest(OpType.COLSUMS);
+	}
+	
+	@Test
+	public void testMin() 
+	{
+		runLargeDenseBlockTest(OpType.MIN);
+	}
+	
+	@Test
+	public void testMax() 
+	{
+		runLargeDenseBlockTest(OpType.MAX);
+	}
+	
+	/**
+	 * 
+	 * @param optype
+	 */
+	private void runLargeDenseBlockTest( OpType optype )
+	{
+		long oldMaxDenseSize = DenseBlockLarge.MAX_DENSE_SIZE;
+		int oldMaxSegmentSize = DenseBlockLarge.MAX_SEGMENT_SIZE;
+		
+		try
+		{
+			//generate input (wide input for right tsmm, i.e., small output)
+			boolean wide = (optype == OpType.TSMM_RIGHT);
+			int m = wide ? rowsWide : rows;
+			int n = wide ? colsWide : cols;
+			MatrixBlock X = MatrixBlock.randOperations(m, n, 1.0, -1, 1, "uniform", 7);
+			MatrixBlock v = MatrixBlock.randOperations(n, 1, 1.0, -1, 1, "uniform", 3);
+			MatrixBlock u = MatrixBlock.randOperations(1, m, 1.0, -1, 1, "uniform", 5);
+			double[][] A = DataConverter.convertToDoubleMatrix(X);
+			
+			//execute operation over linearized dense block
+			MatrixBlock ret1 = executeOperation(optype, X, v, u);
+			
+			//create segmented dense block with reduced sizes
+			DenseBlockLarge.MAX_DENSE_SIZE = maxDenseSize;
+			DenseBlockLarge.MAX_SEGMENT_SIZE = maxSegmentSize;
+			MatrixBlock lX = new MatrixBlock(m, n, false);
+			lX.allocateDenseBlock();
+			for( int i=0; i<m; i++ )
+				for( int j=0; j<n; j++ )
+					lX.quickSetValue(i, j, A[i][j]);
+			Assert.assertTrue(lX.isInLargeDenseFormat());
+			Assert.assertTrue(lX.getDenseBlockLarge().numSegments() > 1);
+			Assert.assertEquals(X.getNonZeros(), lX.getNonZeros());
+			
+			//execute operation over segmented dense block
+			MatrixBlock ret2 = executeOperation(optype, lX, v, u);
+			
+			//compare results
+			Assert.assertEquals(ret1.getNumRows(), ret2.getNumRows());
+			Assert.assertEquals(ret1.getNumColumns(), ret2.getNumColumns());
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+					DataConverter.convertToDoubleMatrix(ret2), ret1.getNumRows(), ret1.getNumColumns(), eps);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			DenseBlockLarge.MAX_DENSE_SIZE = oldMaxDenseSize;
+			DenseBlockLarge.MAX_SEGMENT_SIZE = oldMaxSegmentSize;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param optype
+	 * @param X
+	 * @param v
+	 * @param u
+	 * @return
+	 * @throws Exception
+	 */
+	private static MatrixBlock executeOperation( OpType optype, MatrixBlock X, MatrixBlock v, MatrixBlock u ) 
+		throws Exception
+	{
+		AggregateOperator agg = new AggregateOperator(0, Plus.getPlusFnObject());
+		AggregateBinaryOperator mmop = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), agg);
+		
+		switch( optype )
+		{
+			case SERIALIZE: {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				DataOutputStream dos = new DataOutputStream(bos);
+				X.write(dos);
+				dos.close();
+				MatrixBlock ret = new MatrixBlock();
+				ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+				return ret;
+			}
+			case SLICE:
+				return X.sliceOperations(3, X.getNumRows()-5, 1, X.getNumColumns()-2, new MatrixBlock());
+			case SCALAR:
+				return (MatrixBlock) X.scalarOperations(new RightScalarOperator(Multiply.getMultiplyFnObject(), 2), new MatrixBlock());
+			case TRANSPOSE:
+				return LibMatrixReorg.transpose(X, new MatrixBlock(X.getNumColumns(), X.getNumRows(), false));
+			case MV:
+				return (MatrixBlock) X.aggregateBinaryOperations(X, v, new MatrixBlock(), mmop);
+			case VM:
+				return (MatrixBlock) u.aggregateBinaryOperations(u, X, new MatrixBlock(), mmop);
+			case MMCHAIN:
+				return X.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv);
+			case TSMM_LEFT:
+				return X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT);
+			case TSMM_RIGHT:
+				return X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.RIGHT);
+			default: {
+				String opcode = null;
+				switch( optype ) {
+					case SUM:     opcode = "uak+"; break;
+					case ROWSUMS: opcode = "uark+"; break;
+					case COLSUMS: opcode = "uack+"; break;
+					case MIN:     opcode = "uamin"; break;
+					default:      opcode = "uamax"; break;
+				}
+				AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+				return (MatrixBlock) X.aggregateUnaryOperations(auop, new MatrixBlock(), 
+						X.getNumRows(), X.getNumColumns(), new MatrixIndexes(1, 1), true);
+			}
+		}
+	}
+}
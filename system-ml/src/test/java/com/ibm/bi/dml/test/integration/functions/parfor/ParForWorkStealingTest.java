@@ -0,0 +1,128 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.test.integration.functions.parfor;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.ParForProgramBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+
+/**
+ * Local parfor with fixed-size task partitioners (naive, static, fixed),
+ * executed with and without the work-stealing task queue. 
+ */
+public class ParForWorkStealingTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = "functions/parfor/";
+	private final static String TEST_NAME1 = "parfor_workstealing1"; //NAIVE
+	private final static String TEST_NAME2 = "parfor_workstealing2"; //STATIC
+	private final static String TEST_NAME3 = "parfor_workstealing3"; //FIXED (tasksize 7)
+	
+	private final static int rows = 2019;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_DIR, TEST_NAME1, new String[] { "R" }) );
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_DIR, TEST_NAME2, new String[] { "R" }) );
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_DIR, TEST_NAME3, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testParForNaiveWorkStealing() 
+	{
+		runParForWorkStealingTest(TEST_NAME1, true);
+	}
+	
+	@Test
+	public void testParForNaiveSharedQueue() 
+	{
+		runParForWorkStealingTest(TEST_NAME1, false);
+	}
+	
+	@Test
+	public void testParForStaticWorkStealing() 
+	{
+		runParForWorkStealingTest(TEST_NAME2, true);
+	}
+	
+	@Test
+	public void testParForStaticSharedQueue() 
+	{
+		runParForWorkStealingTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testParForFixedWorkStealing() 
+	{
+		runParForWorkStealingTest(TEST_NAME3, true);
+	}
+	
+	@Test
+	public void testParForFixedSharedQueue() 
+	{
+		runParForWorkStealingTest(TEST_NAME3, false);
+	}
+	
+	/**
+	 * 
+	 * @param test
+	 * @param workStealing
+	 */
+	private void runParForWorkStealingTest( String test, boolean workStealing )
+	{	
+		boolean flagOld = ParForProgramBlock.USE_WORK_STEALING_TASK_QUEUE;
+		
+		try
+		{
+			ParForProgramBlock.USE_WORK_STEALING_TASK_QUEUE = workStealing;
+			
+			String TEST_NAME = test;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", 
+										 String.valueOf(rows),
+					                     HOME + OUTPUT_DIR + "R" };
+			
+			loadTestConfiguration(config);
+	
+			//run tests (consistency checks of executed iterations and tasks)
+			runTest(true, false, null, -1);
+		
+			//compare matrices (every odd iteration i writes 2*i+1)
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			for( int i=1; i<=rows; i++ ) {
+				Double val = dmlfile.get(new CellIndex(i, 1));
+				double expected = (i % 2 == 1) ? 2*i+1 : 0;
+				Assert.assertEquals("Wrong value at row "+i, expected, (val!=null) ? val : 0, 0);
+			}
+		}
+		finally
+		{
+			ParForProgramBlock.USE_WORK_STEALING_TASK_QUEUE = flagOld;
+		}
+	}
+}
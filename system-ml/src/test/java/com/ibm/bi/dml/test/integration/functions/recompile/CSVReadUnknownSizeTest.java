@@ -96,6 +96,7 @@ public class CSVReadUnknownSizeTest extends AutomatedTestBase {
 	{	
 		boolean oldFlagSplit = OptimizerUtils.ALLOW_SPLIT_HOP_DAGS;
 		boolean oldFlagRewrites = OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION;
+		boolean oldFlagInference = OptimizerUtils.ALLOW_CSV_METADATA_INFERENCE;
 		
 		try
 		{
@@ -113,6 +114,7 @@ public class CSVReadUnknownSizeTest extends AutomatedTestBase {
 
 			OptimizerUtils.ALLOW_SPLIT_HOP_DAGS = splitDags;
 			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = rewrites;
+			OptimizerUtils.ALLOW_CSV_METADATA_INFERENCE = false; //keep unknown size
 
 			double[][] X = getRandomMatrix(rows, cols, -1, 1, 1.0d, 7);
 			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
@@ -161,6 +163,7 @@ public class CSVReadUnknownSizeTest extends AutomatedTestBase {
 		{
 			OptimizerUtils.ALLOW_SPLIT_HOP_DAGS = oldFlagSplit;
 			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = oldFlagRewrites;
+			OptimizerUtils.ALLOW_CSV_METADATA_INFERENCE = oldFlagInference;
 		}
 	}
 }
\ No newline at end of file
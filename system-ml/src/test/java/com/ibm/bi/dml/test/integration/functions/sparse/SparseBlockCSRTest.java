@@ -0,0 +1,355 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.test.integration.functions.sparse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataInput;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataOutput;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockCSR;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Cell reads, appends, and serialization of read-only CSR sparse blocks 
+ * compared to the same blocks in sparse row representation.
+ */
+public class SparseBlockCSRTest extends AutomatedTestBase 
+{
+	private final static int rows = 1034;
+	private final static int cols = 327;
+	private final static double sparsity1 = 0.3;
+	private final static double sparsity2 = 0.03;
+	private final static double sparsity3 = 0.0005; //ultra-sparse (nnz < rows)
+	
+	private enum SerType {
+		DATA_STREAM,     //generic data output/input
+		BUFFERED_STREAM, //bulk read/write via fast buffered streams
+		CACHE_BUFFER,    //bulk read/write via cache buffers
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCSRGetSparse1() 
+	{
+		runSparseBlockGetTest(sparsity1);
+	}
+	
+	@Test
+	public void testCSRGetSparse2() 
+	{
+		runSparseBlockGetTest(sparsity2);
+	}
+	
+	@Test
+	public void testCSRGetSparse3() 
+	{
+		runSparseBlockGetTest(sparsity3);
+	}
+	
+	@Test
+	public void testCSRAppendSparse1() 
+	{
+		runSparseBlockAppendTest(sparsity1);
+	}
+	
+	@Test
+	public void testCSRAppendSparse2() 
+	{
+		runSparseBlockAppendTest(sparsity2);
+	}
+	
+	@Test
+	public void testCSRAppendSparse3() 
+	{
+		runSparseBlockAppendTest(sparsity3);
+	}
+	
+	@Test
+	public void testCSRSerializeDataStreamSparse1() 
+	{
+		runSparseBlockSerializeTest(sparsity1, SerType.DATA_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeDataStreamSparse2() 
+	{
+		runSparseBlockSerializeTest(sparsity2, SerType.DATA_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeDataStreamSparse3() 
+	{
+		runSparseBlockSerializeTest(sparsity3, SerType.DATA_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeBufferedStreamSparse1() 
+	{
+		runSparseBlockSerializeTest(sparsity1, SerType.BUFFERED_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeBufferedStreamSparse2() 
+	{
+		runSparseBlockSerializeTest(sparsity2, SerType.BUFFERED_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeBufferedStreamSparse3() 
+	{
+		runSparseBlockSerializeTest(sparsity3, SerType.BUFFERED_STREAM);
+	}
+	
+	@Test
+	public void testCSRSerializeCacheBufferSparse1() 
+	{
+		runSparseBlockSerializeTest(sparsity1, SerType.CACHE_BUFFER);
+	}
+	
+	@Test
+	public void testCSRSerializeCacheBufferSparse2() 
+	{
+		runSparseBlockSerializeTest(sparsity2, SerType.CACHE_BUFFER);
+	}
+	
+	@Test
+	public void testCSRSerializeCacheBufferSparse3() 
+	{
+		runSparseBlockSerializeTest(sparsity3, SerType.CACHE_BUFFER);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runSparseBlockGetTest( double sparsity )
+	{
+		MatrixBlock rowsBlock = createSparseRowsBlock(sparsity, 7);
+		MatrixBlock csrBlock = createCSRBlock(rowsBlock);
+		SparseRow[] srows = rowsBlock.getSparseRows();
+		SparseBlockCSR csr = csrBlock.getSparseBlockCSR();
+		
+		//compare meta data and all cells via block and csr accessors
+		Assert.assertEquals(rowsBlock.getNonZeros(), csrBlock.getNonZeros());
+		Assert.assertEquals(rowsBlock.getNonZeros(), csr.size());
+		for( int i=0; i<rows; i++ ) {
+			int rlen = (srows[i]!=null) ? srows[i].size() : 0;
+			Assert.assertEquals("Wrong row size "+i, rlen, csr.size(i));
+			Assert.assertEquals(rlen==0, csr.isEmpty(i));
+			for( int j=0; j<cols; j++ ) {
+				double val = rowsBlock.quickGetValue(i, j);
+				Assert.assertEquals(val, csrBlock.quickGetValue(i, j), 0);
+				Assert.assertEquals(val, csrBlock.getValue(i, j), 0);
+				Assert.assertEquals(val, csr.get(i, j), 0);
+			}
+		}
+		
+		//compare range nnz and conversion back to sparse rows
+		long nnz = 0;
+		for( int i=rows/4; i<=rows/2; i++ )
+			for( int j=cols/3; j<cols; j++ )
+				nnz += (rowsBlock.quickGetValue(i, j)!=0) ? 1 : 0;
+		Assert.assertEquals(nnz, csr.countNonZeros(rows/4, rows/2, cols/3, cols-1));
+		SparseRow[] srows2 = csr.toSparseRows();
+		for( int i=0; i<rows; i++ ) {
+			int rlen = (srows[i]!=null) ? srows[i].size() : 0;
+			Assert.assertEquals(rlen, (srows2[i]!=null) ? srows2[i].size() : 0);
+			for( int k=0; k<rlen; k++ ) {
+				Assert.assertEquals(srows[i].getIndexContainer()[k], srows2[i].getIndexContainer()[k]);
+				Assert.assertEquals(srows[i].getValueContainer()[k], srows2[i].getValueContainer()[k], 0);
+			}
+		}
+		Assert.assertTrue(csrBlock.isInSparseCSRFormat());
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runSparseBlockAppendTest( double sparsity )
+	{
+		MatrixBlock rowsBlock = createSparseRowsBlock(sparsity, 3);
+		MatrixBlock csrBlock = createCSRBlock(rowsBlock);
+		
+		//append values at the end of rows and a new last row 
+		//(updates convert the read-only csr block to sparse rows)
+		for( int i=0; i<rows-1; i+=3 ) {
+			rowsBlock.appendValue(i, cols-1, i+7);
+			csrBlock.appendValue(i, cols-1, i+7);
+		}
+		SparseRow row = new SparseRow(4, cols);
+		row.append(1, 3); 
+		row.append(cols-2, 11);
+		rowsBlock.appendRow(rows-1, row);
+		csrBlock.appendRow(rows-1, row);
+		
+		Assert.assertFalse(csrBlock.isInSparseCSRFormat());
+		compareBlocks(rowsBlock, csrBlock);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param type
+	 */
+	private void runSparseBlockSerializeTest( double sparsity, SerType type )
+	{
+		try
+		{
+			MatrixBlock rowsBlock = createSparseRowsBlock(sparsity, 11);
+			MatrixBlock csrBlock = createCSRBlock(rowsBlock);
+			
+			//serialize csr block and deserialize into new block
+			byte[] buff = serialize(csrBlock, type);
+			Assert.assertEquals(rowsBlock.getExactSizeOnDisk(), csrBlock.getExactSizeOnDisk());
+			Assert.assertTrue(csrBlock.isInSparseCSRFormat());
+			MatrixBlock ret1 = new MatrixBlock();
+			deserialize(ret1, buff, type);
+			compareBlocks(rowsBlock, ret1);
+			
+			//deserialize into reused csr block (keeps csr if read as sparse)
+			MatrixBlock ret2 = createCSRBlock(createSparseRowsBlock(sparsity, 13));
+			deserialize(ret2, buff, type);
+			compareBlocks(rowsBlock, ret2);
+			
+			//compare with serialized sparse rows
+			byte[] buff2 = serialize(rowsBlock, type);
+			Assert.assertArrayEquals(buff2, buff);
+		}
+		catch(IOException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param seed
+	 * @return
+	 */
+	private MatrixBlock createSparseRowsBlock( double sparsity, long seed )
+	{
+		//note: last row and column empty for appends
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, seed);
+		MatrixBlock ret = new MatrixBlock(rows, cols, true);
+		for( int i=0; i<rows-1; i++ )
+			for( int j=0; j<cols-1; j++ )
+				if( A[i][j] != 0 )
+					ret.appendValue(i, j, A[i][j]);
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @return
+	 */
+	private MatrixBlock createCSRBlock( MatrixBlock in )
+	{
+		MatrixBlock ret = new MatrixBlock(in);
+		ret.sparseToCSR();
+		Assert.assertTrue(ret.isInSparseCSRFormat() || in.isEmptyBlock(false));
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param type
+	 * @return
+	 * @throws IOException
+	 */
+	private byte[] serialize( MatrixBlock mb, SerType type ) 
+		throws IOException
+	{
+		if( type == SerType.CACHE_BUFFER ) {
+			byte[] ret = new byte[(int)mb.getExactSizeOnDisk()];
+			mb.write(new CacheDataOutput(ret));
+			return ret;
+		}
+		
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		if( type == SerType.BUFFERED_STREAM ) {
+			FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(bos);
+			mb.write(out);
+			out.close();
+		}
+		else {
+			DataOutputStream out = new DataOutputStream(bos);
+			mb.write(out);
+			out.close();
+		}
+		return bos.toByteArray();
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param buff
+	 * @param type
+	 * @throws IOException
+	 */
+	private void deserialize( MatrixBlock mb, byte[] buff, SerType type ) 
+		throws IOException
+	{
+		DataInput in = null;
+		if( type == SerType.CACHE_BUFFER )
+			in = new CacheDataInput(buff);
+		else if( type == SerType.BUFFERED_STREAM )
+			in = new FastBufferedDataInputStream(new ByteArrayInputStream(buff));
+		else
+			in = new DataInputStream(new ByteArrayInputStream(buff));
+		mb.readFields(in);
+	}
+	
+	/**
+	 * 
+	 * @param expected
+	 * @param actual
+	 */
+	private void compareBlocks( MatrixBlock expected, MatrixBlock actual )
+	{
+		Assert.assertEquals(expected.getNumRows(), actual.getNumRows());
+		Assert.assertEquals(expected.getNumColumns(), actual.getNumColumns());
+		Assert.assertEquals(expected.getNonZeros(), actual.getNonZeros());
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				Assert.assertEquals("Wrong value at ("+i+","+j+")", 
+						expected.quickGetValue(i, j), actual.quickGetValue(i, j), 0);
+	}
+}
@@ -0,0 +1,317 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.ternary;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.data.CTableMap;
+import com.ibm.bi.dml.runtime.matrix.data.CTableMap.LLDoubleEntry;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.SimpleOperator;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests of the ctable map (open-addressing hash table over packed row/column 
+ * keys) and the multi-threaded hash-based ctable, including resizes under many 
+ * distinct keys, merges of partial maps, the conversion into sparse and dense 
+ * matrix blocks, and the max row/column index of packed keys. 
+ */
+public class CTableMapTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CTableMapTest";
+	private final static String TEST_DIR = "functions/ternary/";
+	
+	private final static long MAX_INDEX = 0xFFFFFFFFL;
+	private final static int rows = 100000; //above 64K cell threshold
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_DIR, TEST_NAME, new String[] {}));
+	}
+	
+	@Test
+	public void testResizeManyDistinctKeys() 
+		throws DMLRuntimeException 
+	{
+		loadTestConfiguration(getTestConfiguration(TEST_NAME));
+		
+		//default initial capacity, i.e., many resizes
+		int n = 200000, ncol = 500;
+		CTableMap map = new CTableMap();
+		for( int i=0; i<n; i++ )
+			map.aggregate(i/ncol+1, i%ncol+1, i+1);
+		for( int i=n-1; i>=0; i-- ) //existing groups after resize
+			map.aggregate(i/ncol+1, i%ncol+1, 1);
+		
+		Assert.assertEquals(n, map.size());
+		Assert.assertEquals((n-1)/ncol+1, map.getMaxRow());
+		Assert.assertEquals(ncol, map.getMaxColumn());
+		for( int i=0; i<n; i++ )
+			Assert.assertEquals(i+2, map.get(i/ncol+1, i%ncol+1), 0);
+		Assert.assertEquals(0, map.get(n/ncol+2, 1), 0);
+		
+		//iterator over all cells
+		long count = 0; double sum = 0;
+		Iterator<LLDoubleEntry> iter = map.getIterator();
+		while( iter.hasNext() ) {
+			LLDoubleEntry e = iter.next();
+			Assert.assertEquals(map.get(e.key1, e.key2), e.value, 0);
+			sum += e.value;
+			count++;
+		}
+		Assert.assertEquals(n, count);
+		Assert.assertEquals((double)n*(n+1)/2 + n, sum, 0);
+	}
+	
+	@Test
+	public void testMergePartialMaps() 
+		throws DMLRuntimeException 
+	{
+		loadTestConfiguration(getTestConfiguration(TEST_NAME));
+		
+		//partial maps with overlapping keys
+		Random rand = new Random(7);
+		CTableMap ref = new CTableMap();
+		CTableMap[] parts = new CTableMap[] {
+			new CTableMap(), new CTableMap(10000), new CTableMap() };
+		for( int i=0; i<30000; i++ ) {
+			long row = rand.nextInt(300) + 1;
+			long col = rand.nextInt(200) + 1;
+			double w = rand.nextDouble();
+			ref.aggregate(row, col, w);
+			parts[i % 2].aggregate(row, col, w);
+		}
+		
+		//merge partial maps (incl empty map) into new map
+		CTableMap map = new CTableMap();
+		for( CTableMap part : parts )
+			map.merge(part);
+		
+		Assert.assertEquals(ref.size(), map.size());
+		Assert.assertEquals(ref.getMaxRow(), map.getMaxRow());
+		Assert.assertEquals(ref.getMaxColumn(), map.getMaxColumn());
+		compareMaps(ref, map);
+	}
+	
+	@Test
+	public void testToMatrixBlockSparse() 
+		throws DMLRuntimeException 
+	{
+		runToMatrixBlockTest(2000, 1000, 2000, true);
+	}
+	
+	@Test
+	public void testToMatrixBlockDense() 
+		throws DMLRuntimeException 
+	{
+		runToMatrixBlockTest(50, 40, 20000, false);
+	}
+	
+	@Test
+	public void testMaxIndexBounds() 
+		throws DMLRuntimeException 
+	{
+		loadTestConfiguration(getTestConfiguration(TEST_NAME));
+		
+		CTableMap map = new CTableMap();
+		
+		//max row and column indexes, without collisions of packed keys
+		map.aggregate(MAX_INDEX, MAX_INDEX, 7);
+		map.aggregate(MAX_INDEX, 1, 3);
+		map.aggregate(1, MAX_INDEX, 5);
+		map.aggregate(1, 1, 2);
+		Assert.assertEquals(4, map.size());
+		Assert.assertEquals(7, map.get(MAX_INDEX, MAX_INDEX), 0);
+		Assert.assertEquals(3, map.get(MAX_INDEX, 1), 0);
+		Assert.assertEquals(5, map.get(1, MAX_INDEX), 0);
+		Assert.assertEquals(2, map.get(1, 1), 0);
+		Assert.assertEquals(MAX_INDEX, map.getMaxRow());
+		Assert.assertEquals(MAX_INDEX, map.getMaxColumn());
+		
+		//iterator returns unpacked indexes
+		Iterator<LLDoubleEntry> iter = map.getIterator();
+		while( iter.hasNext() ) {
+			LLDoubleEntry e = iter.next();
+			Assert.assertTrue(e.key1 >= 1 && e.key1 <= MAX_INDEX);
+			Assert.assertTrue(e.key2 >= 1 && e.key2 <= MAX_INDEX);
+			Assert.assertEquals(map.get(e.key1, e.key2), e.value, 0);
+		}
+		
+		//out-of-bounds probes 
+		Assert.assertEquals(0, map.get(MAX_INDEX+1, 1), 0);
+		Assert.assertEquals(0, map.get(1, MAX_INDEX+1), 0);
+		Assert.assertEquals(0, map.get(0, 1), 0);
+		Assert.assertEquals(0, map.get(1, 0), 0);
+		
+		//out-of-bounds aggregates
+		checkInvalidAggregate(map, MAX_INDEX+1, 1);
+		checkInvalidAggregate(map, 1, MAX_INDEX+1);
+		checkInvalidAggregate(map, Long.MAX_VALUE, Long.MAX_VALUE);
+		Assert.assertEquals(4, map.size());
+	}
+	
+	@Test
+	public void testParallelCTableDenseOutput() 
+		throws DMLRuntimeException 
+	{
+		runParallelCTableTest(10, 20);
+	}
+	
+	@Test
+	public void testParallelCTableSparseOutput() 
+		throws DMLRuntimeException 
+	{
+		runParallelCTableTest(5000, 3000);
+	}
+	
+	/**
+	 * 
+	 * @param rlen
+	 * @param clen
+	 * @param ncells
+	 * @param sparse
+	 * @throws DMLRuntimeException
+	 */
+	private void runToMatrixBlockTest( int rlen, int clen, int ncells, boolean sparse ) 
+		throws DMLRuntimeException 
+	{
+		loadTestConfiguration(getTestConfiguration(TEST_NAME));
+		
+		Random rand = new Random(3);
+		double[][] ref = new double[rlen][clen];
+		CTableMap map = new CTableMap();
+		for( int i=0; i<ncells; i++ ) {
+			int row = rand.nextInt(rlen), col = rand.nextInt(clen);
+			double w = rand.nextInt(5) + 1;
+			map.aggregate(row+1, col+1, w);
+			ref[row][col] += w;
+		}
+		
+		//cancelled cell (no non-zero), and cells outside the output dimensions
+		map.aggregate(rlen, clen, 3);
+		map.aggregate(rlen, clen, -3-ref[rlen-1][clen-1]);
+		ref[rlen-1][clen-1] = 0;
+		map.aggregate(rlen+1, 1, 1);
+		map.aggregate(1, clen+1, 1);
+		
+		MatrixBlock mb = map.toMatrixBlock(rlen, clen);
+		Assert.assertEquals("Wrong output format.", sparse, mb.isInSparseFormat());
+		long nnz = mb.getNonZeros();
+		mb.recomputeNonZeros();
+		Assert.assertEquals("Wrong number of non-zeros.", mb.getNonZeros(), nnz);
+		TestUtils.compareMatrices(ref, DataConverter.convertToDoubleMatrix(mb), rlen, clen, 0);
+	}
+	
+	/**
+	 * 
+	 * @param maxA
+	 * @param maxB
+	 * @throws DMLRuntimeException
+	 */
+	private void runParallelCTableTest( int maxA, int maxB ) 
+		throws DMLRuntimeException 
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//generate inputs (column vectors above the 64K cell threshold)
+			double[][] A = TestUtils.round(getRandomMatrix(rows, 1, 1, maxA, 1.0, 7));
+			double[][] B = TestUtils.round(getRandomMatrix(rows, 1, 1, maxB, 1.0, 3));
+			double[][] W = getRandomMatrix(rows, 1, 1, 2, 1.0, 11);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+			MatrixBlock mbW = DataConverter.convertToMatrixBlock(W);
+			
+			//reference map 
+			CTableMap ref = new CTableMap();
+			for( int i=0; i<rows; i++ )
+				ref.aggregate((long)A[i][0], (long)B[i][0], W[i][0]);
+			
+			//single- and multi-threaded ctable (with weights and scalar weight)
+			CTableMap map1 = new CTableMap();
+			CTableMap map2 = new CTableMap();
+			mbA.ternaryOperations(new SimpleOperator(null), mbB, 0, mbW, 0, false, map1, null, 1);
+			mbA.ternaryOperations(new SimpleOperator(null), mbB, 0, mbW, 0, false, map2, null, 4);
+			compareMaps(ref, map1);
+			compareMaps(ref, map2);
+			
+			CTableMap map3 = new CTableMap();
+			CTableMap map4 = new CTableMap();
+			mbA.ternaryOperations(new SimpleOperator(null), mbB, 0, null, 1, false, map3, null, 1);
+			mbA.ternaryOperations(new SimpleOperator(null), mbB, 0, null, 1, false, map4, null, 4);
+			compareMaps(map3, map4);
+			
+			//output blocks of single- and multi-threaded ctable
+			int rlen = (int)ref.getMaxRow(), clen = (int)ref.getMaxColumn();
+			MatrixBlock out1 = map1.toMatrixBlock(rlen, clen);
+			MatrixBlock out2 = map2.toMatrixBlock(rlen, clen);
+			Assert.assertEquals(out1.getNonZeros(), out2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(out1), 
+				DataConverter.convertToDoubleMatrix(out2), rlen, clen, eps);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param map
+	 * @param row
+	 * @param col
+	 */
+	private static void checkInvalidAggregate( CTableMap map, long row, long col )
+	{
+		try {
+			map.aggregate(row, col, 1);
+			Assert.fail("Missing error on invalid index ("+row+", "+col+").");
+		}
+		catch(DMLRuntimeException ex) {
+			//expected
+		}
+	}
+	
+	/**
+	 * 
+	 * @param ref
+	 * @param map
+	 */
+	private static void compareMaps( CTableMap ref, CTableMap map )
+	{
+		Assert.assertEquals("Wrong number of cells.", ref.size(), map.size());
+		Iterator<LLDoubleEntry> iter = ref.getIterator();
+		while( iter.hasNext() ) {
+			LLDoubleEntry e = iter.next();
+			Assert.assertEquals("Wrong value of ("+e.key1+", "+e.key2+").", 
+				e.value, map.get(e.key1, e.key2), eps);
+		}
+	}
+}
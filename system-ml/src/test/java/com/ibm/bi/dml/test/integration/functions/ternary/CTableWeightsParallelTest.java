@@ -0,0 +1,127 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.ternary;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Single- and multi-threaded weighted ctable, i.e., C = table(A, B, W), in CP 
+ * with inputs above the 64K cell threshold of the multi-threaded hash-based ctable,
+ * for small (dense) and large (sparse) outputs.
+ */
+public class CTableWeightsParallelTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CTableWeightsParallel";
+	private final static String TEST_DIR = "functions/ternary/";
+	private final static double eps = 1e-8;
+	
+	private final static int rows = 100000;
+	private final static int maxDense = 15;
+	private final static int maxSparse = 5000;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "C" })); 
+	}
+
+	@Test
+	public void testCTableWeightsDenseSingleThreaded() 
+	{
+		runCTableWeightsTest(false, false);
+	}
+	
+	@Test
+	public void testCTableWeightsDenseMultiThreaded() 
+	{
+		runCTableWeightsTest(false, true);
+	}
+	
+	@Test
+	public void testCTableWeightsSparseSingleThreaded() 
+	{
+		runCTableWeightsTest(true, false);
+	}
+	
+	@Test
+	public void testCTableWeightsSparseMultiThreaded() 
+	{
+		runCTableWeightsTest(true, true);
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param multiThreaded
+	 */
+	private void runCTableWeightsTest( boolean sparse, boolean multiThreaded )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		boolean parOld = OptimizerUtils.PARALLEL_CP_MATRIX_MULTIPLY;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			OptimizerUtils.PARALLEL_CP_MATRIX_MULTIPLY = multiThreaded;
+			
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", HOME + INPUT_DIR + "A", HOME + INPUT_DIR + "B", 
+				HOME + INPUT_DIR + "W", HOME + OUTPUT_DIR + "C"};
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+			
+			//generate actual dataset (integer row/column indexes >= 1, weights in [1,2])
+			int max = sparse ? maxSparse : maxDense;
+			double[][] A = TestUtils.round(getRandomMatrix(rows, 1, 1, max, 1.0, 7));
+			double[][] B = TestUtils.round(getRandomMatrix(rows, 1, 1, max, 1.0, 3));
+			double[][] W = getRandomMatrix(rows, 1, 1, 2, 1.0, 11);
+			writeInputMatrixWithMTD("A", A, true);
+			writeInputMatrixWithMTD("B", B, true);
+			writeInputMatrixWithMTD("W", W, true);
+			
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices 
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("C");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("C");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+		}
+		finally
+		{
+			rtplatform = platformOld;
+			OptimizerUtils.PARALLEL_CP_MATRIX_MULTIPLY = parOld;
+		}
+	}
+}
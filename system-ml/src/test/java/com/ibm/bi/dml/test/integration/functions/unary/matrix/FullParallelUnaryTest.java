@@ -0,0 +1,149 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.test.integration.functions.unary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.ComputeThreadPool;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Multi-threaded unary builtin operations (out-of-place and in-place) above 
+ * the parallelization threshold, compared to the results of the single-threaded 
+ * operations.
+ */
+public class FullParallelUnaryTest extends AutomatedTestBase 
+{
+	private final static int rows = 527;
+	private final static int cols = 261; //> 64K cells
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testParallelExpDense() 
+	{
+		runParallelUnaryTest("exp", false, false);
+	}
+	
+	@Test
+	public void testParallelExpSparse() 
+	{
+		runParallelUnaryTest("exp", true, false);
+	}
+	
+	@Test
+	public void testParallelAbsDense() 
+	{
+		runParallelUnaryTest("abs", false, false);
+	}
+	
+	@Test
+	public void testParallelAbsSparse() 
+	{
+		runParallelUnaryTest("abs", true, false);
+	}
+	
+	@Test
+	public void testParallelRoundSparse() 
+	{
+		runParallelUnaryTest("round", true, false);
+	}
+	
+	@Test
+	public void testParallelSigmoidDense() 
+	{
+		runParallelUnaryTest("sigmoid", false, false);
+	}
+	
+	@Test
+	public void testParallelExpDenseInPlace() 
+	{
+		runParallelUnaryTest("exp", false, true);
+	}
+	
+	@Test
+	public void testParallelExpSparseInPlace() 
+	{
+		runParallelUnaryTest("exp", true, true);
+	}
+	
+	@Test
+	public void testParallelAbsSparseInPlace() 
+	{
+		runParallelUnaryTest("abs", true, true);
+	}
+	
+	/**
+	 * 
+	 * @param builtin
+	 * @param sparse
+	 * @param inplace
+	 */
+	private void runParallelUnaryTest( String builtin, boolean sparse, boolean inplace )
+	{
+		try
+		{
+			//generate input 
+			MatrixBlock in = MatrixBlock.randOperations(rows, cols, 
+					sparse?sparsity2:sparsity1, -1, 1, "uniform", 7);
+			UnaryOperator uop1 = new UnaryOperator(Builtin.getBuiltinFnObject(builtin));
+			UnaryOperator uop2 = new UnaryOperator(Builtin.getBuiltinFnObject(builtin), k);
+			
+			//execute single- and multi-threaded operations
+			MatrixBlock ret1 = null, ret2 = null;
+			ComputeThreadPool.resetStatistics();
+			if( inplace ) {
+				ret1 = new MatrixBlock(in);
+				ret1.unaryOperationsInPlace(uop1);
+				Assert.assertEquals(0, ComputeThreadPool.getNumInvocations());
+				ret2 = new MatrixBlock(in);
+				ret2.unaryOperationsInPlace(uop2);
+			}
+			else {
+				ret1 = (MatrixBlock) in.unaryOperations(uop1, new MatrixBlock());
+				Assert.assertEquals(0, ComputeThreadPool.getNumInvocations());
+				ret2 = (MatrixBlock) in.unaryOperations(uop2, new MatrixBlock());
+			}
+			
+			//check for multi-threaded execution and compare results
+			Assert.assertEquals(1, ComputeThreadPool.getNumInvocations());
+			Assert.assertEquals(ret1.isInSparseFormat(), ret2.isInSparseFormat());
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+					DataConverter.convertToDoubleMatrix(ret2), rows, cols, 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+}
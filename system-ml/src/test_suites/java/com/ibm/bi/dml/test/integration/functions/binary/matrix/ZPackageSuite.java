@@ -51,8 +51,8 @@ import org.junit.runners.Suite;
 	TransposeMatrixMultiplicationTest.class,
 	UaggOuterChainTest.class,
 	UltraSparseMRMatrixMultiplicationTest.class,
-	ZipMMSparkMatrixMultiplicationTest.class
-	
+	ZipMMSparkMatrixMultiplicationTest.class,
+	SparseSparseMatrixMultTest.class
 })
 
 
@@ -24,7 +24,16 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	CachingPWriteExportTest.class
+	CachingPWriteExportTest.class,
+	WriteBufferCleanupTest.class,
+	CacheCodecTest.class,
+	CacheCodecDenseTest.class,
+	DenseBlockRecyclingTest.class,
+	EvictionOrderTest.class,
+	PrefetchTest.class,
+	AsyncEvictionTest.class,
+	OffHeapBufferTest.class,
+	UnreachableBlobTest.class
 })
 
 
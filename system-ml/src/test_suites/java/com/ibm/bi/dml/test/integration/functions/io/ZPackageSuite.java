@@ -31,7 +31,8 @@ import org.junit.runners.Suite;
 	IOTest4.class,
 	IOTest5.class,
 	ScalarIOTest.class,
-	SeqParReadTest.class
+	SeqParReadTest.class,
+	FastByteTokenizerTest.class
 })
 
 
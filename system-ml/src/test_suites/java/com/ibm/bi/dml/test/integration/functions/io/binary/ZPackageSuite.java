@@ -24,7 +24,10 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	SerializeTest.class
+	SerializeTest.class,
+	LocalSequenceFileTest.class,
+	IndexedBinaryBlockTest.class,
+	IndexedBinaryBlockScriptTest.class
 })
 
 
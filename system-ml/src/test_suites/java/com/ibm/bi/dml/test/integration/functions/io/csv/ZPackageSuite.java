@@ -27,7 +27,9 @@ import org.junit.runners.Suite;
 	CSVParametersTest.class,
 	FormatChangeTest.class,
 	ReadCSVTest.class,
-	WriteCSVTest.class
+	WriteCSVTest.class,
+	CSVMetaDataInferenceTest.class,
+	CSVByteParserTest.class
 })
 
 
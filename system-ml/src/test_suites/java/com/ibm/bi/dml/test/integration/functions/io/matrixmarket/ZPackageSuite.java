@@ -25,7 +25,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	FormatChangeTest.class,
-	ReadMMTest.class
+	ReadMMTest.class,
+	ReadMMRangeBoundaryTest.class
 })
 
 
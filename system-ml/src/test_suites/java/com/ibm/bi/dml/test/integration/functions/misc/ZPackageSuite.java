@@ -38,7 +38,10 @@ import org.junit.runners.Suite;
 	ReadAfterWriteTest.class,
 	ScalarAssignmentTest.class,
 	ValueTypeAutoCastingTest.class,
-	ValueTypeCastingTest.class
+	ValueTypeCastingTest.class,
+	ComputeThreadPoolTest.class,
+	LargeDenseBlockTest.class,
+	FusedCellwiseTest.class
 })
 
 
@@ -38,7 +38,8 @@ import org.junit.runners.Suite;
 	ParForParallelRemoteResultMergeTest.class,
 	ParForSerialRemoteResultMergeTest.class,
 	ParForRepeatedOptimizationTest.class,
-	ParForRulebasedOptimizerTest.class
+	ParForRulebasedOptimizerTest.class,
+	ParForWorkStealingTest.class
 })
 
 
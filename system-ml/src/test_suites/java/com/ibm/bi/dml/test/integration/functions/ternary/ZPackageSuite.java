@@ -29,7 +29,9 @@ import org.junit.runners.Suite;
 	CTableMatrixIgnoreZerosTest.class,
 	CTableSequenceTest.class,
 	QuantileWeightsTest.class,
-	TableOutputTest.class
+	TableOutputTest.class,
+	CTableMapTest.class,
+	CTableWeightsParallelTest.class
 })
 
 
@@ -51,7 +51,8 @@ import org.junit.runners.Suite;
 	FullCumsumTest.class,
 	LUFactorizeTest.class,
 	RemoveEmptyTest.class,
-	MLUnaryBuiltinTest.class
+	MLUnaryBuiltinTest.class,
+	FullParallelUnaryTest.class
 })
 
 